@@ -0,0 +1,140 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+package compass;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// a Babelfish version as used in the .cfg file and for -babelfish_version, e.g. '2.1.0' or '1.*'
+// instances are interned, so a version string is parsed only once. Each version gets an ordinal relative to the
+// valid versions in the .cfg file, so comparing versions is mostly a single int comparison
+public final class BabelfishVersion implements Comparable<BabelfishVersion> {
+	private static final Map<String, BabelfishVersion> versions = new ConcurrentHashMap<>();
+
+	// parsed 'min-max' ranges as found in 'supported-' and 'ignored-' keys; max is null for a single version
+	private static final Map<String, BabelfishVersion[]> ranges = new ConcurrentHashMap<>();
+
+	private final String version;     // as specified
+	private final int[] parts;        // after applying an alias; '*' is taken as 99999
+	private final String normalized;  // for backward compatibility: 00002.00001.00000
+	private final int ordinal;        // odd: equal to a valid version; even: between two valid versions
+
+	private BabelfishVersion(String version) {
+		this.version = version;
+		String v = CompassConfig.versionAliasList.getOrDefault(version, version);
+		this.parts = parse(v);
+
+		StringBuilder internalVers = new StringBuilder();
+		for (int p : parts) {
+			internalVers.append(String.format("%05d", p)).append('.');
+		}
+		internalVers.deleteCharAt(internalVers.length()-1);
+		this.normalized = internalVers.toString();
+
+		// ordinal = 2 * <#valid versions lower than this one> + 1 if this is a valid version itself
+		int lower = 0;
+		boolean isValid = false;
+		for (String valid : CompassConfig.Babelfish_VersionList) {
+			int[] validParts;
+			try {
+				validParts = parse(CompassConfig.versionAliasList.getOrDefault(valid, valid));
+			} catch (NumberFormatException e) {
+				// will be reported when validating the .cfg file
+				continue;
+			}
+			int cmp = compareParts(validParts, parts);
+			if (cmp < 0) lower++;
+			else if (cmp == 0) isValid = true;
+		}
+		this.ordinal = 2 * lower + (isValid ? 1 : 0);
+	}
+
+	public static BabelfishVersion of(String version) {
+		BabelfishVersion v = versions.get(version);
+		if (v == null) {
+			v = new BabelfishVersion(version);
+			BabelfishVersion prev = versions.putIfAbsent(version, v);
+			if (prev != null) v = prev;
+		}
+		return v;
+	}
+
+	// [min, max] for a version or a 'min-max' range; max is null when no range is specified
+	public static BabelfishVersion[] range(String versionRange) {
+		BabelfishVersion[] r = ranges.get(versionRange);
+		if (r == null) {
+			r = new BabelfishVersion[2];
+			int pos = versionRange.indexOf(CompassConfig.cRangeSeparator);
+			if (pos >= 0) {
+				r[0] = of(versionRange.substring(0, pos));
+				String max = versionRange.substring(pos + 1);
+				if (!max.isEmpty()) r[1] = of(max);
+			}
+			else {
+				r[0] = of(versionRange);
+			}
+			ranges.put(versionRange, r);
+		}
+		return r;
+	}
+
+	// to be called when the valid versions or aliases change, as these determine the ordinals
+	public static void reset() {
+		versions.clear();
+		ranges.clear();
+	}
+
+	private static int[] parse(String version) {
+		List<String> vParts = Arrays.asList(version.split("\\."));
+		int[] result = new int[vParts.size()];
+		for (int i = 0; i < result.length; i++) {
+			String p = vParts.get(i);
+			result[i] = p.equals("*") ? 99999 : Integer.parseInt(p);
+		}
+		return result;
+	}
+
+	// like comparing the normalized strings: where one is a prefix of the other, the shorter one is lower
+	private static int compareParts(int[] p1, int[] p2) {
+		int n = Math.min(p1.length, p2.length);
+		for (int i = 0; i < n; i++) {
+			if (p1[i] != p2[i]) return Integer.compare(p1[i], p2[i]);
+		}
+		return Integer.compare(p1.length, p2.length);
+	}
+
+	@Override
+	public int compareTo(BabelfishVersion other) {
+		if (this == other) return 0;
+		if (ordinal != other.ordinal) return Integer.compare(ordinal, other.ordinal);
+		if ((ordinal & 1) == 1) return 0;
+		return compareParts(parts, other.parts);
+	}
+
+	public boolean isLowerOrEqual(BabelfishVersion other) {
+		return compareTo(other) <= 0;
+	}
+
+	// is this version in the range [min, max]? no max means no upper limit
+	public boolean isInRange(BabelfishVersion[] range) {
+		if (range[0].compareTo(this) > 0) return false;
+		return range[1] == null || compareTo(range[1]) <= 0;
+	}
+
+	public String getNormalized() {
+		return normalized;
+	}
+
+	public int getOrdinal() {
+		return ordinal;
+	}
+
+	@Override
+	public String toString() {
+		return version;
+	}
+}
@@ -0,0 +1,152 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+package compass;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.antlr.v4.runtime.tree.ParseTree;
+import parser.TSQLParser;
+
+// text of the parse tree nodes of the batch being analyzed
+// the tree is walked once at the start of the batch: the token texts are joined into one string and every node records
+// where its text starts and ends in that string, so that ctx.getText() becomes a substring (see CompassRuleContext)
+// the tokens are joined rather than sliced from the input, since the input also has the whitespace and comments, which
+// getText() does not return
+// the same walk joins the tokens into the spaced text (getTextSpaced() in the analyzer) and records where every node's
+// tokens start and end in it, and it records the rules of the ancestors of every node (see CompassRuleContext.inRule())
+public class BatchText {
+	private final List<CompassRuleContext> nodes = new ArrayList<>();
+	private final StringBuilder sb = new StringBuilder();
+	private final Spacer spacer = new Spacer();
+	// nodes whose first token has not been reached yet
+	private final List<CompassRuleContext> unstarted = new ArrayList<>();
+	// ancestor rule bitmaps: for a bitmap, the bitmaps made from it by adding one rule
+	private final Map<long[], Map<Integer, long[]>> ruleSets = new IdentityHashMap<>();
+	private static final long[] noRules = new long[(TSQLParser.ruleNames.length + 63) / 64];
+
+	private static CompassUtilities u = CompassUtilities.getInstance();
+
+	// start of a new batch
+	public void reset(ParseTree tree) {
+		if (tree == null) return;
+		sb.setLength(0);
+		spacer.reset();
+		index(tree, noRules);
+		String treeText = sb.toString();
+		String treeSpaced = spacer.sb.toString();
+		for (CompassRuleContext ctx : nodes) {
+			ctx.treeText = treeText;
+			ctx.treeSpaced = treeSpaced;
+		}
+		nodes.clear();
+		unstarted.clear();
+		ruleSets.clear();
+		sb.setLength(0);
+		spacer.reset();
+	}
+
+	private void index(ParseTree t, long[] parentRules) {
+		if (!(t instanceof CompassRuleContext)) {
+			// a token, or an error node
+			String text = t.getText();
+			sb.append(text);
+			if (spacer.append(text)) {
+				for (CompassRuleContext ctx : unstarted) {
+					ctx.spacedStart = spacer.tokenStart;
+				}
+				unstarted.clear();
+			}
+			return;
+		}
+		CompassRuleContext ctx = (CompassRuleContext) t;
+		ctx.textStart = sb.length();
+		ctx.spacedStart = -1;
+		unstarted.add(ctx);
+		ctx.ancestorRules = withRule(parentRules, ctx.getRuleIndex());
+		for (int i = 0; i < ctx.getChildCount(); i++) {
+			index(ctx.getChild(i), ctx.ancestorRules);
+		}
+		ctx.textEnd = sb.length();
+		ctx.spacedEnd = spacer.sb.length();
+		nodes.add(ctx);
+	}
+
+	private long[] withRule(long[] rules, int ruleIndex) {
+		if (ruleIndex == TSQLParser.RULE_tsql_file) return rules;
+		int w = ruleIndex >>> 6;
+		long bit = 1L << ruleIndex;
+		if ((rules[w] & bit) != 0) return rules;
+		Map<Integer, long[]> added = ruleSets.computeIfAbsent(rules, k -> new HashMap<>());
+		long[] result = added.get(ruleIndex);
+		if (result == null) {
+			result = rules.clone();
+			result[w] |= bit;
+			added.put(ruleIndex, result);
+		}
+		return result;
+	}
+
+	// text of the subtree with a space between tokens, and string constants replaced by ''
+	// 'a . b' becomes 'a.b', there is no space after ')', e.g. 'f ( x )+ 1'
+	public String spaced(ParseTree ctx) {
+		if (ctx.getChildCount() == 0) {
+			return Spacer.token(ctx.getText());
+		}
+		if (ctx instanceof CompassRuleContext) {
+			CompassRuleContext c = (CompassRuleContext) ctx;
+			if (c.treeSpaced != null && c.spacedStart >= 0) {
+				return " " + c.treeSpaced.substring(c.spacedStart, c.spacedEnd) + " ";
+			}
+		}
+		// not indexed
+		Spacer s = new Spacer();
+		appendSpaced(ctx, s);
+		return " " + s.sb + " ";
+	}
+
+	private static void appendSpaced(ParseTree t, Spacer s) {
+		if (t.getChildCount() == 0) {
+			s.append(t.getText());
+			return;
+		}
+		for (int i = 0; i < t.getChildCount(); i++) {
+			appendSpaced(t.getChild(i), s);
+		}
+	}
+
+	// joins token texts into spaced text, one token at a time
+	private static final class Spacer {
+		final StringBuilder sb = new StringBuilder();
+		int tokenStart = 0;
+		private boolean glue = true;  // no space before the next token
+
+		void reset() {
+			sb.setLength(0);
+			tokenStart = 0;
+			glue = true;
+		}
+
+		boolean append(String text) {
+			String t = token(text);
+			if (t.isEmpty()) return false;
+			if (!glue && !t.equals(".")) sb.append(' ');
+			tokenStart = sb.length();
+			sb.append(t);
+			glue = t.equals(".") || t.equals(")");
+			return true;
+		}
+
+		static String token(String t) {
+			if (u.stripStringQuotes(t).length() != t.length()) {
+				return "''";
+			}
+			return t;
+		}
+	}
+}
@@ -0,0 +1,110 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+package compass;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+// cache with a maximum number of entries; when full, the least recently used entry is evicted
+// only for values that depend on the key alone, so a hit returns the same as computing the value again
+// synchronized, since some of these are also used by the report writer threads
+// all caches are registered, for the hit/miss/eviction counts in the final stats; weakly, so that a cache is
+// unregistered once its owner is gone
+public class BoundedCache<K, V> {
+	private static final List<WeakReference<BoundedCache<?, ?>>> caches = new ArrayList<>();
+
+	private final String name;
+	private final int maxSize;
+	private final LinkedHashMap<K, V> map;
+	private long hits = 0;
+	private long misses = 0;
+	private long evictions = 0;
+
+	public BoundedCache(String name, int maxSize) {
+		this.name = name;
+		this.maxSize = maxSize;
+		this.map = new LinkedHashMap<K, V>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+				if (size() <= BoundedCache.this.maxSize) return false;
+				evictions++;
+				return true;
+			}
+		};
+		register(this);
+	}
+
+	private static void register(BoundedCache<?, ?> c) {
+		synchronized (caches) {
+			caches.removeIf(r -> r.get() == null);
+			caches.add(new WeakReference<>(c));
+		}
+	}
+
+	// cached value, or null
+	public synchronized V get(K key) {
+		V value = map.get(key);
+		if (value == null) misses++;
+		else hits++;
+		return value;
+	}
+
+	public synchronized void put(K key, V value) {
+		map.put(key, value);
+	}
+
+	// the value is computed outside the lock: two threads may compute the same value, which is harmless here
+	public V get(K key, Function<K, V> compute) {
+		if (!CompassUtilities.caching) return compute.apply(key);
+		V value = get(key);
+		if (value == null) {
+			value = compute.apply(key);
+			put(key, value);
+		}
+		return value;
+	}
+
+	public synchronized void clear() {
+		map.clear();
+	}
+
+	public synchronized int size() {
+		return map.size();
+	}
+
+	public synchronized long hits() {
+		return hits;
+	}
+
+	public synchronized long misses() {
+		return misses;
+	}
+
+	public synchronized long evictions() {
+		return evictions;
+	}
+
+	public synchronized String stats() {
+		return name+": size=["+map.size()+"/"+maxSize+"] hits=["+hits+"] misses=["+misses+"] evictions=["+evictions+"]";
+	}
+
+	// the caches still in use, in the order they were created
+	public static List<BoundedCache<?, ?>> all() {
+		List<BoundedCache<?, ?>> result = new ArrayList<>();
+		synchronized (caches) {
+			for (Iterator<WeakReference<BoundedCache<?, ?>>> it = caches.iterator(); it.hasNext(); ) {
+				BoundedCache<?, ?> c = it.next().get();
+				if (c == null) it.remove();
+				else result.add(c);
+			}
+		}
+		return result;
+	}
+}
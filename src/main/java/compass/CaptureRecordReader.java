@@ -0,0 +1,318 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+package compass;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.InputStreamReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// streaming reader for capture files, used by the report, pgimport and the anonymizer
+// each line is split once into a reusable record, without regex; the object type derived from the item
+// is cached since the same items occur over and over again in a capture file
+public class CaptureRecordReader {
+	private static final String separator = CompassUtilities.captureFileSeparator;
+	private static final char separatorChar = separator.charAt(0);
+	private static final String separatorMarker = CompassUtilities.captureFileSeparatorMarker;
+
+	private BufferedReader capFile;
+	private boolean unescapeBackslashes;
+
+	// current record
+	private String line = null;
+	private int lineNr = 0;
+	private boolean metricsLine = false;
+	private String[] fields = new String[CompassUtilities.capPosLastField + 1];
+	private int nrFields = 0;
+	private int[] sepPos = new int[CompassUtilities.capPosLastField + 1];
+	private int nrSep = 0;
+	private boolean modified = false;
+	private String objType = null;
+
+	// derived object types, shared by all readers
+	private static final int objTypeCacheMax = 10000;
+	private static final Map<String, String> objTypeCache = new ConcurrentHashMap<>();
+	private static final Map<String, String> objTypeCountCache = new ConcurrentHashMap<>();
+
+	public CaptureRecordReader(String fileName) throws IOException {
+		this(fileName, false);
+	}
+
+	public CaptureRecordReader(String fileName, boolean unescapeBackslashes) throws IOException {
+		this.capFile = new BufferedReader(new InputStreamReader(new FileInputStream(fileName), StandardCharsets.UTF_8));
+		this.unescapeBackslashes = unescapeBackslashes;
+	}
+
+	// advance to the next record, skipping blank lines and comments; returns false at EOF
+	public boolean next() throws IOException {
+		while (true) {
+			String s = capFile.readLine();
+			if (s == null) {
+				//EOF
+				line = null;
+				nrFields = 0;
+				nrSep = 0;
+				return false;
+			}
+			lineNr++;
+			s = s.trim();
+			if (s.isEmpty()) continue;
+			if (s.charAt(0) == '#') continue;
+
+			if (unescapeBackslashes) {
+				if (s.contains("\\\\")) {
+					s = CompassUtilities.replaceAllLiteral(s, "\\\\", "\\");
+				}
+			}
+			line = s;
+			objType = null;
+			modified = false;
+			metricsLine = (s.charAt(0) == CompassUtilities.metricsLineChar1);
+			if (metricsLine) {
+				// format: *metrics=<fields>
+				String tag = CompassUtilities.metricsLineTag + "=";
+				if (s.regionMatches(true, 1, tag, 0, tag.length())) {
+					split(s, 1 + tag.length());
+				}
+				else {
+					nrFields = 0;
+					nrSep = 0;
+				}
+			}
+			else {
+				split(s, 0);
+			}
+			return true;
+		}
+	}
+
+	public void close() throws IOException {
+		capFile.close();
+	}
+
+	// split like String.split() does for a single-char separator, i.e. trailing empty fields are dropped
+	private void split(String s, int start) {
+		nrSep = 0;
+		nrFields = 0;
+		int fieldStart = start;
+		int pos = s.indexOf(separatorChar, start);
+		if (pos < 0) {
+			addField(s.substring(start));
+			return;
+		}
+		while (pos >= 0) {
+			if (nrSep == sepPos.length) sepPos = Arrays.copyOf(sepPos, nrSep * 2);
+			sepPos[nrSep++] = pos;
+			addField(s.substring(fieldStart, pos));
+			fieldStart = pos + 1;
+			pos = s.indexOf(separatorChar, fieldStart);
+		}
+		addField(s.substring(fieldStart));
+		while (nrFields > 0 && fields[nrFields-1].isEmpty()) {
+			nrFields--;
+		}
+	}
+
+	private void addField(String f) {
+		if (nrFields == fields.length) fields = Arrays.copyOf(fields, nrFields * 2);
+		fields[nrFields++] = f;
+	}
+
+	public String getLine() {
+		return line;
+	}
+
+	// physical line number in the file, 1-based
+	public int getLineNr() {
+		return lineNr;
+	}
+
+	// a line starting with '*'; for a metrics line, the fields are those following the '*metrics=' tag
+	public boolean isMetricsLine() {
+		return metricsLine;
+	}
+
+	public int getFieldCount() {
+		return nrFields;
+	}
+
+	public String getField(int pos) {
+		if (pos >= nrFields) return "";
+		return fields[pos];
+	}
+
+	// field with the separator put back where it was masked when the item was captured
+	public String getFieldUnmasked(int pos) {
+		String f = getField(pos);
+		if (f.contains(separatorMarker)) {
+			f = CompassUtilities.replaceAllLiteral(f, separatorMarker, separator);
+		}
+		return f;
+	}
+
+	public void setField(int pos, String value) {
+		while (pos >= nrFields) addField("");
+		fields[pos] = value;
+		modified = true;
+	}
+
+	public boolean isModified() {
+		return modified;
+	}
+
+	public String getStatus() {
+		return getField(CompassUtilities.capPosStatus);
+	}
+
+	// the line as read, with the last n separators and whatever follows them cut off
+	public String getLineWithoutLastFields(int n) {
+		if (n <= 0) return line;
+		if (n > nrSep) return "";
+		return line.substring(0, sepPos[nrSep-n]);
+	}
+
+	// the first n fields joined again, including any fields modified by setField()
+	public String joinFields(int n) {
+		StringBuilder sb = new StringBuilder(line.length());
+		for (int i = 0; i < n; i++) {
+			if (i > 0) sb.append(separatorChar);
+			sb.append(getField(i));
+		}
+		return sb.toString();
+	}
+
+	// the fields of the line without the last n separators, as String.split() would return them
+	public List<String> getFieldList(int n) {
+		int last = Math.min(nrSep - n, nrFields - 1);
+		while (last >= 0 && fields[last].isEmpty()) last--;
+		List<String> result = new ArrayList<>(last + 1);
+		for (int i = 0; i <= last; i++) {
+			result.add(fields[i]);
+		}
+		return result;
+	}
+
+	// object type for a CREATE/constraint item, or blank
+	public String getObjType() {
+		if (objType == null) {
+			objType = deriveObjType(getField(CompassUtilities.capPosItem));
+		}
+		return objType;
+	}
+
+	public static String deriveObjType(String item) {
+		String cached = objTypeCache.get(item);
+		if (cached != null) return cached;
+
+		String result = "";
+		if (startsWithIgnoreCase(item, 0, "CREATE ")) {
+			int pos = "CREATE ".length();
+			if (startsWithIgnoreCase(item, pos, "OR ALTER ")) pos += "OR ALTER ".length();
+			result = item.substring(pos);
+		}
+		if (result.isEmpty()) {
+			if (startsWithIgnoreCase(item, 0, "Constraint ")) {
+				result = item.substring("Constraint ".length());
+				if (result.indexOf('(') >= 0) result = result.substring(0, result.indexOf('('));
+				if (result.indexOf(',') > 0) result = result.substring(0, result.indexOf(','));
+				if (!result.isEmpty()) {
+					result = "constraint " + result;
+				}
+			}
+		}
+		else {
+			if (result.startsWith("TYPE")) {
+				result = "user-defined datatype (UDD)" + result.substring("TYPE".length());
+			}
+			else if (result.startsWith("INDEX")) {
+				result = "index" + result.substring("INDEX".length());
+			}
+			else if (result.startsWith("DATABASE")) {
+				result = "DATABASE";
+			}
+			else if (result.startsWith("PROCEDURE")) {
+				result = "PROCEDURE";
+			}
+		}
+
+		if (objTypeCache.size() >= objTypeCacheMax) objTypeCache.clear();
+		objTypeCache.put(item, result);
+		return result;
+	}
+
+	// object type in the format used for the object count section in the report
+	public String getObjTypeCounted() {
+		return deriveObjTypeCounted(getObjType());
+	}
+
+	public static String deriveObjTypeCounted(String objType) {
+		String cached = objTypeCountCache.get(objType);
+		if (cached != null) return cached;
+
+		String result = objType;
+		int comma = result.indexOf(',');
+		if (comma >= 0) {
+			comma = result.indexOf(',', comma+1);
+			if (comma >= 0) result = result.substring(0, comma);
+		}
+		if (result.startsWith("PARTITION FUNCTION,")) result = "PARTITION FUNCTION";
+		if (result.startsWith("TRIGGER,")) result = "TRIGGER";
+		if (result.startsWith("SYNONYM")) result = "SYNONYM";
+		if (result.startsWith("TRIGGER (DDL")) result = "TRIGGER (DDL)";
+		result = removeFirst(result, ", external");
+		result = removeFirst(result, ", CLUSTERED");
+		if (result.contains("<"))  // for cases like CREATE xxx <somename>
+			result = result.substring(0, result.indexOf("<"));
+		if (result.contains("&"))  // for cases like CREATE xxx &gt;somename&lt;
+			result = result.substring(0, result.indexOf("&"));
+		if (result.contains(separatorMarker)) {
+			// for proc versioning: drop the word containing the marker
+			int pos = result.indexOf(separatorMarker);
+			while (pos > 0 && isWordChar(result.charAt(pos-1))) pos--;
+			result = result.substring(0, pos);
+		}
+		result = result.trim();
+
+		if (objTypeCountCache.size() >= objTypeCacheMax) objTypeCountCache.clear();
+		objTypeCountCache.put(objType, result);
+		return result;
+	}
+
+	// split a context like 'PROCEDURE dbo.myproc' into object type and name; both blank if there is no name
+	public static String[] splitContext(String context) {
+		int pos = 0;
+		while (pos < context.length() && isWordChar(context.charAt(pos))) pos++;
+		int nameStart = pos;
+		while (nameStart < context.length() && isRegexSpace(context.charAt(nameStart))) nameStart++;
+		if (pos == 0 || nameStart == pos) {
+			return new String[] {"", ""};
+		}
+		return new String[] {context.substring(0, pos), context.substring(nameStart)};
+	}
+
+	private static boolean startsWithIgnoreCase(String s, int pos, String prefix) {
+		return s.regionMatches(true, pos, prefix, 0, prefix.length());
+	}
+
+	private static String removeFirst(String s, String part) {
+		int pos = s.indexOf(part);
+		if (pos < 0) return s;
+		return s.substring(0, pos) + s.substring(pos + part.length());
+	}
+
+	private static boolean isWordChar(char c) {
+		return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+	}
+
+	private static boolean isRegexSpace(char c) {
+		return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+	}
+}
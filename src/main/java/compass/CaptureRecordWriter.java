@@ -0,0 +1,182 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+package compass;
+
+// builds the capture file records written for every captured item, the counterpart of CaptureRecordReader
+// the fields are appended to a buffer that is reused from record to record, and the escaping of the record is done
+// in a single pass without regex:
+//   - a backslash is doubled, to avoid end-of-input (\.) when loading into PG through COPY
+//   - ',' followed by ',' (with only whitespace in between) becomes a single ','
+// a record must not contain newlines; these can only come from bugs, and are reported and removed as before
+class CaptureRecordWriter {
+	private static final String separator = CompassUtilities.captureFileSeparator;
+	private static final char separatorChar = separator.charAt(0);
+	private static final String separatorMarker = CompassUtilities.captureFileSeparatorMarker;
+
+	private final StringBuilder rec = new StringBuilder(512);
+	private final StringBuilder out = new StringBuilder(512);
+
+	private static CompassUtilities u = CompassUtilities.getInstance();
+
+	// start a new record
+	CaptureRecordWriter start() {
+		rec.setLength(0);
+		return this;
+	}
+
+	CaptureRecordWriter field(String s) {
+		rec.append(s).append(separatorChar);
+		return this;
+	}
+
+	CaptureRecordWriter field(int n) {
+		rec.append(n).append(separatorChar);
+		return this;
+	}
+
+	CaptureRecordWriter field(Integer n) {
+		rec.append(n).append(separatorChar);
+		return this;
+	}
+
+	// field with leading and trailing whitespace removed, as String.trim()
+	CaptureRecordWriter trimmed(String s) {
+		int start = 0, end = s.length();
+		while (start < end && s.charAt(start) <= ' ') start++;
+		while (end > start && s.charAt(end-1) <= ' ') end--;
+		rec.append(s, start, end).append(separatorChar);
+		return this;
+	}
+
+	// object context field: trimmed, with any separator in it replaced by the separator marker
+	CaptureRecordWriter context(String context) {
+		int start = 0, end = context.length();
+		while (start < end && context.charAt(start) <= ' ') start++;
+		while (end > start && context.charAt(end-1) <= ' ') end--;
+		appendMarked(context, start, end);
+		rec.append(separatorChar);
+		return this;
+	}
+
+	// same, for the context 'type name', without concatenating these first
+	CaptureRecordWriter context(String type, String name) {
+		type = String.valueOf(type);
+		name = String.valueOf(name);
+		int typeLen = type.length();
+		int len = typeLen + 1 + name.length();
+		int start = 0, end = len;
+		while (start < end && contextChar(type, name, start) <= ' ') start++;
+		while (end > start && contextChar(type, name, end-1) <= ' ') end--;
+		for (int i = start; i < end; i++) {
+			char c = contextChar(type, name, i);
+			if (c == separatorChar) rec.append(separatorMarker);
+			else rec.append(c);
+		}
+		rec.append(separatorChar);
+		return this;
+	}
+
+	private void appendMarked(String s, int start, int end) {
+		for (int i = start; i < end; i++) {
+			char c = s.charAt(i);
+			if (c == separatorChar) rec.append(separatorMarker);
+			else rec.append(c);
+		}
+	}
+
+	private static char contextChar(String type, String name, int i) {
+		if (i < type.length()) return type.charAt(i);
+		if (i == type.length()) return ' ';
+		return name.charAt(i - type.length() - 1);
+	}
+
+	// the record as built, unescaped
+	@Override
+	public String toString() {
+		return rec.toString();
+	}
+
+	// the complete record, escaped
+	String line() {
+		String line = null;
+		for (int i = 0; i < rec.length(); i++) {
+			char c = rec.charAt(i);
+			if (c == '\n' || c == '\r') {
+				line = removeNewlines(rec.toString());
+				break;
+			}
+		}
+		CharSequence s = (line == null) ? rec : line;
+
+		boolean escape = false;
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			if (c == '\\' || c == ',') {
+				escape = true;
+				break;
+			}
+		}
+		if (!escape) return s.toString();
+
+		out.setLength(0);
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			if (c == '\\') {
+				out.append("\\\\");
+			}
+			else if (c == ',') {
+				out.append(c);
+				int j = i + 1;
+				while (j < s.length() && isWhitespace(s.charAt(j))) j++;
+				if (j < s.length() && s.charAt(j) == ',') i = j;
+			}
+			else {
+				out.append(c);
+			}
+		}
+		return out.toString();
+	}
+
+	// whitespace as matched by \s
+	private static boolean isWhitespace(char c) {
+		return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+	}
+
+	// check for newlines -- these will mess everything up (could still occur due to identifiers containing a newline)
+	// printing a warning so that any cases that may results from bugs, are not being lost and may be reported back
+	// ToDo: also check for \f, VT, etc?
+	private String removeNewlines(String itemLine) {
+		if (itemLine.contains("\r\n")) {
+			u.appOutput("CRLF found in captured item: ["+itemLine+"] ");
+			itemLine = itemLine.replaceAll("\\r\\n", "  ");
+			if (CompassUtilities.devOptions) {
+				u.errorExitStackTrace();
+				// we'll never get here
+			}
+			u.appOutput("Continuing with CRLF removed, but errors may occur.");
+		}
+
+		if (itemLine.contains("\n")) {
+			u.appOutput("Newline found in captured item: ["+itemLine+"] ");
+			itemLine = itemLine.replaceAll("\\n", " ");
+			if (CompassUtilities.devOptions) {
+				u.errorExitStackTrace();
+				// we'll never get here
+			}
+			u.appOutput("Continuing with newline removed, but errors may occur.");
+		}
+
+		if (itemLine.contains("\r")) {
+			u.appOutput("Carriage Return found in captured item: ["+itemLine+"] ");
+			itemLine = itemLine.replaceAll("\\r", " ");
+			if (CompassUtilities.devOptions) {
+				u.errorExitStackTrace();
+				// we'll never get here
+			}
+			u.appOutput("Continuing with Carriage Return removed, but errors may occur.");
+		}
+		return itemLine;
+	}
+}
@@ -0,0 +1,144 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+package compass;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+// the .cfg files as seen by this process: each file is read from disk once, after which parsing, validating, the
+// config cache key and upgrading the user .cfg file all work on that same copy
+// changes are made in memory and a file is only written when its contents actually differ; writing goes through a
+// temporary file, so other Compass processes sharing the reports folder never read a half-written file
+// a file that has been changed by someone else since it was read (different size or timestamp) is read again
+public class CfgFileRepository {
+	private static CompassUtilities u = CompassUtilities.getInstance();
+
+	private static class CfgFile {
+		final byte[] bytes;
+		final long length;
+		final long lastModified;
+		String crc = null;
+
+		CfgFile(byte[] bytes, File f) {
+			this.bytes = bytes;
+			this.length = f.length();
+			this.lastModified = f.lastModified();
+		}
+
+		boolean isCurrent(File f) {
+			return f.length() == length && f.lastModified() == lastModified;
+		}
+	}
+
+	private static final Map<String, CfgFile> files = new HashMap<>();
+
+	// number of times a file was actually read or written, for testing
+	static int nrReads = 0;
+	static int nrWrites = 0;
+
+	public static void clear() {
+		files.clear();
+		nrReads = 0;
+		nrWrites = 0;
+	}
+
+	private static File file(String pathName) {
+		return new File(pathName).getAbsoluteFile();
+	}
+
+	private static CfgFile get(String pathName) throws IOException {
+		File f = file(pathName);
+		String key = f.getPath();
+		CfgFile cf = files.get(key);
+		if (cf != null && cf.isCurrent(f)) return cf;
+		cf = new CfgFile(Files.readAllBytes(f.toPath()), f);
+		nrReads++;
+		files.put(key, cf);
+		if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc()+"read ["+key+"] bytes=["+cf.bytes.length+"] ", u.debugCfg);
+		return cf;
+	}
+
+	public static byte[] getBytes(String pathName) throws IOException {
+		return get(pathName).bytes.clone();
+	}
+
+	public static String getText(String pathName, Charset cs) throws IOException {
+		return new String(get(pathName).bytes, cs);
+	}
+
+	public static BufferedReader getReader(String pathName, Charset cs) throws IOException {
+		return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(get(pathName).bytes), cs));
+	}
+
+	// identifies the file as it is now, for CompassConfigCache
+	public static String fileKey(String pathName) throws IOException {
+		File f = file(pathName);
+		if (!f.exists()) return f.getPath() + ":-";
+		CfgFile cf = get(pathName);
+		if (cf.crc == null) {
+			CRC32 crc = new CRC32();
+			crc.update(cf.bytes);
+			cf.crc = Long.toHexString(crc.getValue());
+		}
+		return f.getPath() + ":" + cf.length + ":" + cf.lastModified + ":" + cf.crc;
+	}
+
+	// returns false if the file already had these contents, and was therefore not written
+	public static boolean write(String pathName, byte[] bytes) throws IOException {
+		File f = file(pathName);
+		if (f.exists() && Arrays.equals(get(pathName).bytes, bytes)) {
+			if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc()+"unchanged, not written: ["+f+"] ", u.debugCfg);
+			return false;
+		}
+
+		File tmp = File.createTempFile(f.getName(), ".tmp", f.getParentFile());
+		try {
+			try (FileOutputStream out = new FileOutputStream(tmp)) {
+				out.write(bytes);
+			}
+			try {
+				Files.move(tmp.toPath(), f.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (IOException e) {
+				Files.move(tmp.toPath(), f.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			tmp.delete();
+		}
+		nrWrites++;
+		files.put(f.getPath(), new CfgFile(bytes.clone(), f));
+		if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc()+"written: ["+f+"] bytes=["+bytes.length+"] ", u.debugCfg);
+		return true;
+	}
+
+	public static boolean write(String pathName, String text) throws IOException {
+		return write(pathName, text.getBytes(StandardCharsets.UTF_8));
+	}
+
+	// keeps the existing bytes as they are
+	public static boolean append(String pathName, String text) throws IOException {
+		byte[] old = get(pathName).bytes;
+		byte[] add = text.getBytes(StandardCharsets.UTF_8);
+		byte[] bytes = Arrays.copyOf(old, old.length + add.length);
+		System.arraycopy(add, 0, bytes, old.length, add.length);
+		return write(pathName, bytes);
+	}
+
+	// for a file that has been renamed or removed
+	public static void forget(String pathName) {
+		files.remove(file(pathName).getPath());
+	}
+}
@@ -0,0 +1,216 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+package compass;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// development only: the .cfg lookups made by an analysis, in the order they were made, so that the lookups can be
+// timed independently of parsing and analyzing (-cfgtrace <file> records a trace, -benchcfg -cfgtrace <file> replays it)
+// CfgLookupTraceTest records the lookups for a representative SQL script and replays them, failing when the results
+// differ, or when the lookups become slower than the time set in pom.xml, e.g. as BabelfishFeatures.cfg grows with
+// every Babelfish release
+// one lookup per line, tab-separated: kind, result of the lookup, then the arguments of the CompassConfig call
+public class CfgLookupTrace {
+	public static boolean recording = false;
+	public static String traceFileName = null;
+
+	static final String kindSupported = "S";       // featureSupportedInVersion(version, section [, name [, option]])
+	static final String kindArgSupported = "A";    // featureArgSupportedInVersion(version, section, arg, argValue)
+	static final String kindGroup = "G";           // featureGroup(section [, name])
+	static final String kindDefaultStatus = "D";   // featureDefaultStatus(section [, name])
+
+	private static final String traceHdr = "# Babelfish Compass .cfg lookup trace";
+
+	private static CompassUtilities u = CompassUtilities.getInstance();
+
+	static class Lookup {
+		final String kind;
+		final String result;
+		final String[] args;
+
+		Lookup(String kind, String result, String... args) {
+			this.kind = kind;
+			this.result = result;
+			this.args = args;
+		}
+
+		String replay() {
+			switch (kind) {
+				case kindSupported:
+					if (args.length == 2) return CompassConfig.lookupFeatureStatus(args[0], args[1]).getStatus();
+					if (args.length == 3) return CompassConfig.lookupFeatureStatus(args[0], args[1], args[2]).getStatus();
+					return CompassConfig.lookupFeatureStatus(args[0], args[1], args[2], args[3]).getStatus();
+				case kindArgSupported:
+					return CompassConfig.lookupFeatureArgStatus(args[0], args[1], args[2], args[3]).getStatus();
+				case kindGroup:
+					if (args.length == 1) return CompassConfig.featureGroup(args[0]);
+					return CompassConfig.featureGroup(args[0], args[1]);
+				default:
+					if (args.length == 1) return CompassConfig.lookupDefaultStatus(args[0]).getStatus();
+					return CompassConfig.lookupDefaultStatus(args[0], args[1]).getStatus();
+			}
+		}
+	}
+
+	private static final List<Lookup> lookups = new ArrayList<>();
+
+	public static void clear() {
+		lookups.clear();
+	}
+
+	public static int size() {
+		return lookups.size();
+	}
+
+	static List<Lookup> getLookups() {
+		return new ArrayList<>(lookups);
+	}
+
+	// called by the analyzer for every lookup, and by the report for a few; application reports run concurrently
+	public static synchronized void record(String kind, String result, String... args) {
+		lookups.add(new Lookup(kind, result, args));
+	}
+
+	public static void write(String pathName) throws IOException {
+		try (BufferedWriter w = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(pathName), StandardCharsets.UTF_8))) {
+			w.write(traceHdr + ": " + CompassUtilities.thisProgVersion + ", BabelfishFeatures.cfg " + u.cfgFileTimestamp + ", " + lookups.size() + " lookups\n");
+			StringBuilder line = new StringBuilder();
+			for (Lookup l : lookups) {
+				line.setLength(0);
+				line.append(l.kind).append('\t').append(escape(l.result));
+				for (String a : l.args) {
+					line.append('\t').append(escape(a));
+				}
+				w.write(line.append('\n').toString());
+			}
+		}
+		if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc()+"written ["+pathName+"] lookups=["+lookups.size()+"] ", u.debugCfg);
+	}
+
+	public static List<Lookup> read(String pathName) throws IOException {
+		try (InputStream in = new FileInputStream(pathName)) {
+			return read(in);
+		}
+	}
+
+	static List<Lookup> read(InputStream in) throws IOException {
+		List<Lookup> result = new ArrayList<>();
+		BufferedReader br = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+		String line;
+		while ((line = br.readLine()) != null) {
+			if (line.isEmpty() || line.startsWith("#")) continue;
+			String[] fields = line.split("\t", -1);
+			for (int i = 0; i < fields.length; i++) {
+				fields[i] = unescape(fields[i]);
+			}
+			result.add(new Lookup(fields[0], fields[1], Arrays.copyOfRange(fields, 2, fields.length)));
+		}
+		return result;
+	}
+
+	// the lookups must not affect anything else, so their status overrides are not logged
+	static List<String> replay(List<Lookup> trace) {
+		List<String> results = new ArrayList<>(trace.size());
+		for (Lookup l : trace) {
+			results.add(l.replay());
+		}
+		return results;
+	}
+
+	// lookups whose result differs from the recorded result
+	static int mismatches(List<Lookup> trace, List<String> results) {
+		int count = 0;
+		for (int i = 0; i < trace.size(); i++) {
+			if (!trace.get(i).result.equals(results.get(i))) {
+				count++;
+				if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc()+"mismatch: kind=["+trace.get(i).kind+"] args="+Arrays.toString(trace.get(i).args)+" recorded=["+trace.get(i).result+"] now=["+results.get(i)+"] ", u.debugCfg);
+			}
+		}
+		return count;
+	}
+
+	// average time per lookup in nanoseconds: the fastest of several passes over the trace, after warming up
+	// using the fastest pass keeps the result stable on a busy machine
+	// every pass starts without resolved statuses, otherwise all passes after the first would only time the index
+	static long nanosPerLookup(List<Lookup> trace, int warmupPasses, int passes) {
+		if (trace.isEmpty()) return 0;
+		for (int i = 0; i < warmupPasses; i++) {
+			clearResolved();
+			replay(trace);
+		}
+		long best = Long.MAX_VALUE;
+		for (int i = 0; i < passes; i++) {
+			clearResolved();
+			long start = System.nanoTime();
+			replay(trace);
+			best = Math.min(best, System.nanoTime() - start);
+		}
+		return best / trace.size();
+	}
+
+	// the statuses and groups resolved so far; unlike clearFeatureStatusIndex(), keeps what was built from the .cfg contents
+	private static void clearResolved() {
+		CompassConfig.featureStatusIndex.clear();
+		CompassConfig.featureInfoIndex.clear();
+		CompassConfig.sectionGroupIndex.clear();
+	}
+
+	// -benchcfg -cfgtrace <file>
+	public static void benchmark(String pathName, int passes) throws IOException {
+		List<Lookup> trace = read(pathName);
+		boolean indexEnabled = CompassConfig.featureStatusIndexEnabled;
+		long nanosNoIndex, nanosIndex;
+		int mismatches;
+		try {
+			CompassConfig.featureStatusIndexEnabled = false;
+			CompassConfig.clearFeatureStatusIndex();
+			nanosNoIndex = nanosPerLookup(trace, 1, passes);
+			CompassConfig.featureStatusIndexEnabled = true;
+			CompassConfig.clearFeatureStatusIndex();
+			nanosIndex = nanosPerLookup(trace, 1, passes);
+			mismatches = mismatches(trace, replay(trace));
+		}
+		finally {
+			CompassConfig.featureStatusIndexEnabled = indexEnabled;
+			CompassConfig.clearFeatureStatusIndex();
+		}
+		u.appOutput("Lookup trace         : "+ pathName + " ("+trace.size()+" lookups, best of "+passes+" passes)");
+		u.appOutput("Without index        : "+ nanosNoIndex + " ns/lookup");
+		u.appOutput("With index           : "+ nanosIndex + " ns/lookup");
+		u.appOutput("Changed results      : "+ mismatches);
+	}
+
+	private static String escape(String s) {
+		if (s.indexOf('\\') < 0 && s.indexOf('\t') < 0 && s.indexOf('\n') < 0 && s.indexOf('\r') < 0) return s;
+		return s.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n").replace("\r", "\\r");
+	}
+
+	private static String unescape(String s) {
+		if (s.indexOf('\\') < 0) return s;
+		StringBuilder sb = new StringBuilder(s.length());
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			if (c == '\\' && i + 1 < s.length()) {
+				c = s.charAt(++i);
+				if (c == 't') c = '\t';
+				else if (c == 'n') c = '\n';
+				else if (c == 'r') c = '\r';
+			}
+			sb.append(c);
+		}
+		return sb.toString();
+	}
+}
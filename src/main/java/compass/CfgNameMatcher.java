@@ -0,0 +1,124 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+package compass;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+// the names in a list from the .cfg file, compiled for lookup: literal names go into a hash set, and names with a '%'
+// wildcard at the start or end go into a suffix or prefix trie. So finding a name takes time proportional to the length
+// of the name, rather than to the length of the list (some lists have hundreds of names)
+// a '%' elsewhere in a name is rare; such names are matched as a regex, like before
+public class CfgNameMatcher {
+	private final List<String> source;
+	private final Set<String> literals = new HashSet<>();
+	private final TrieNode prefixes = new TrieNode();    // 'SP_ADD%'
+	private final TrieNode suffixes = new TrieNode();    // '%_KS', stored reversed
+	private final List<Pattern> patterns = new ArrayList<>();
+	private boolean hasWildcard = false;
+	private int count = 0;
+
+	private static final String regexChars = "\\^$.|?*+()[]{}";
+
+	private static class TrieNode {
+		Map<Character, TrieNode> next = null;
+		boolean isEnd = false;
+
+		void add(String s, boolean reversed) {
+			TrieNode node = this;
+			int len = s.length();
+			for (int i = 0; i < len; i++) {
+				char c = s.charAt(reversed ? len - 1 - i : i);
+				if (node.next == null) node.next = new HashMap<>();
+				node = node.next.computeIfAbsent(c, k -> new TrieNode());
+			}
+			node.isEnd = true;
+		}
+
+		// is there an entry that 's' starts with (ends with, if reversed), where the rest of 's' would be matched by the wildcard?
+		boolean matches(String s, boolean reversed) {
+			TrieNode node = this;
+			int len = s.length();
+			for (int i = 0; ; i++) {
+				if (node.isEnd && matchesAny(s, reversed ? 0 : i, reversed ? len - i : len)) return true;
+				if (i == len || node.next == null) return false;
+				node = node.next.get(s.charAt(reversed ? len - 1 - i : i));
+				if (node == null) return false;
+			}
+		}
+	}
+
+	public CfgNameMatcher(List<String> names) {
+		source = names;
+		for (String name : names) {
+			add(name);
+		}
+	}
+
+	// the list this was compiled from, as it is now
+	public boolean isCurrent(List<String> names) {
+		return names == source && count == names.size();
+	}
+
+	// for an item added to the source list
+	public void add(String name) {
+		count++;
+		int pos = name.indexOf(CompassConfig.wildcardChar);
+		if (pos < 0) {
+			literals.add(name);
+			return;
+		}
+		hasWildcard = true;
+		if (pos == name.length() - 1 && !hasRegexChars(name, 0, pos)) {
+			prefixes.add(name.substring(0, pos), false);
+		}
+		else if (pos == 0 && name.indexOf(CompassConfig.wildcardChar, 1) < 0 && !hasRegexChars(name, 1, name.length())) {
+			suffixes.add(name.substring(1), true);
+		}
+		else {
+			patterns.add(Pattern.compile(name.replaceAll(CompassConfig.wildcardChar, ".*")));
+		}
+	}
+
+	public boolean contains(String name) {
+		return literals.contains(name);
+	}
+
+	public boolean hasWildcard() {
+		return hasWildcard;
+	}
+
+	// does the name match any of the names with a wildcard?
+	public boolean matchesWildcard(String name) {
+		if (!hasWildcard) return false;
+		if (prefixes.matches(name, false)) return true;
+		if (suffixes.matches(name, true)) return true;
+		for (Pattern p : patterns) {
+			if (p.matcher(name).matches()) return true;
+		}
+		return false;
+	}
+
+	private static boolean hasRegexChars(String s, int from, int to) {
+		for (int i = from; i < to; i++) {
+			if (regexChars.indexOf(s.charAt(i)) >= 0) return true;
+		}
+		return false;
+	}
+
+	// the wildcard becomes '.*', which does not match line terminators
+	private static boolean matchesAny(String s, int from, int to) {
+		for (int i = from; i < to; i++) {
+			char c = s.charAt(i);
+			if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') return false;
+		}
+		return true;
+	}
+}
@@ -106,6 +106,8 @@ public class Compass {
 	protected static boolean deleteReport = false;
 	protected static boolean userSpecifiedBabelfishVersion = false;
 	protected static boolean listContents = false;
+	protected static String dependsOnStatus = null;
+	protected static String dependsOnType = "";
 	protected static boolean pgImport = false;
 	protected static boolean pgImportAppend = false;
 	protected static boolean pgImportTable = false;
@@ -119,14 +121,11 @@ public class Compass {
 	protected static boolean antlrShowTokens = false;
 	protected static boolean antlrTrace = false;
 	protected static boolean antlrDiagnostics = false;
+	protected static boolean benchmarkCfg = false;
 	protected static Charset charset;
 	protected static String userEncoding = null;
 	public static boolean analyzingDynamicSQL = false;
-	public static int dynamicSQLLineNr = 0;
-	public static int dynamicSQLBatchNr = 0;
-	public static int dynamicSQLBatchLineNr = 0;	
-	public static String dynamicSQLContext = "";	
-	public static String dynamicSQLSubContext = "";	
+	public static DynamicSQL.Item dynamicSQLItem = null;
 	
 	public static String reportName = null; // must be null when not initialized
 	public static String applicationName;
@@ -217,6 +216,9 @@ public class Compass {
 					u.appOutput("    notabs           : do not open a Xref link in a new tab(default=open in new tab)");				
 					u.appOutput("    batchnr          : in xref, show batch number + line nr in batch");				
 					u.appOutput("    hints            : list all popup hints from the SQL Summary section (included with xref)");				
+					u.appOutput("    multipage        : write each X-ref section to a separate HTML page (per app when >1 app)");				
+					u.appOutput("    appreports       : with >1 app, also generate a separate report for each app");				
+					u.appOutput("    objectgraph      : save the dependencies between objects, for -dependson");
 					u.appOutput("Without -reportoption, only the assessment summary is generated (no X-refs)");				
 					u.appOutput("NB: generating X-refs may produce a very large report.");							
 					u.appOutput("NB: do not put spaces anywhere in the options");							
@@ -262,10 +264,14 @@ public class Compass {
 				u.appOutput("   -reportoption <options>      : additional reporting detail (try -help -reportoption)");				
 				u.appOutput("   -reportfile <name>           : specifies file name for report file (without .html)");				
 				u.appOutput("   -list                        : display imported files/applications for a report");				
+				u.appOutput("   -dependson <status>[,<type>] : list objects depending, directly or indirectly, on objects");
+				u.appOutput("                                  with items of <status>, e.g. -dependson notsupported,procedure");
+				u.appOutput("                                  requires a report generated with -reportoption objectgraph");
 				u.appOutput("   -analyze                     : (re-)run analysis on imported files, and generate report");					
 				u.appOutput("   -userconfigfile <filename>   : specifies user-defined .cfg file (default= " + CompassUtilities.defaultUserCfgFileName+")");	
 				u.appOutput("   -optimistic                  : use predefined " + CompassUtilities.optimisticUserCfgFileName+")");	
 				u.appOutput("   -nooverride                  : do not use overrides from user-defined .cfg file");												
+				u.appOutput("   -nocfgcache                  : always read the .cfg files, do not use/save the cached result");
 				u.appOutput("   -babelfish-version <version> : specify target Babelfish version (default=latest)");
 				u.appOutput("   -encoding <encoding>         : input file encoding, e.g. '-encoding UTF16'. Default="+Charset.defaultCharset());
 				u.appOutput("                                  use '-encoding help' to list available encodings");
@@ -284,6 +290,8 @@ public class Compass {
 				u.appOutput("   -nodedup                     : with -importfmt, do not de-duplicate captured queries");
 				u.appOutput("   -noreportcomplexity          : do not include complexity scores in report");
 				u.appOutput("   -csvformat <fmt>             : format for generated .csv file");				
+				u.appOutput("   -exportformat <fmt>          : also export all items for loading elsewhere: "+ReportItemExport.formats);				
+				u.appOutput("   -versionmatrix               : also write item counts by status for all Babelfish versions, per application");
 			  	// always set to true now:
 			  	//u.appOutput("   -syntax_issues               : also report selected Babelfish syntax errors (experimental)");				
 				u.appOutput("   -sqlendpoint <host-or-IP>[,port] : SQL Server host");				
@@ -307,6 +315,9 @@ public class Compass {
 				u.appOutput("   -showtokens                  : print lexer tokens");
 				u.appOutput("   -antlrtrace                  : print ANTLR parsing trace");
 				u.appOutput("   -antlrdiagnostics            : print ANTLR diagnostics");
+				u.appOutput("   -benchcfg                    : time .cfg feature lookups with/without status index and exit");
+				u.appOutput("   -cfgtrace <file>             : record the .cfg lookups made by the analysis in <file>;");
+				u.appOutput("                                  with -benchcfg: replay and time the lookups in <file>");
 				}
 				u.appOutput("");
 				u.appOutput(CompassUtilities.userDocText+": "+CompassUtilities.userDocURL);
@@ -374,10 +385,33 @@ public class Compass {
 				listContents = true;
 				continue;
 			}
+			if (arg.equals("-dependson")) {
+				if (i == args.length) {
+					u.appOutput("Must specify value with -dependson");
+					u.errorExit();
+				}
+				List<String> dependsOn = new ArrayList<>(Arrays.asList(args[i].split(",")));
+				List<String> statusOptions = new ArrayList<>(u.validSupportOptionsCfgFile);
+				statusOptions.add(0,u.Supported);
+				dependsOnStatus = dependsOn.get(0).toUpperCase();
+				if (!statusOptions.contains(dependsOnStatus)) {
+					u.appOutput("Invalid status '"+dependsOn.get(0)+"' for -dependson");
+					CompassUtilities.listToLowerCase(statusOptions);
+					u.appOutput("Valid options: "+statusOptions);
+					u.errorExit();
+				}
+				if (dependsOn.size() > 1) dependsOnType = dependsOn.get(1).toUpperCase();
+				i++;
+				continue;
+			}
 			if (arg.equals("-nooverride")) {
 				u.userConfig = false;
 				continue;
 			}			
+			if (arg.equals("-nocfgcache")) {
+				CompassConfigCache.enabled = false;
+				continue;
+			}
 			if (arg.equals("-userconfigfile") || arg.equals("-usercfgfile") || arg.equals("-userconfig") || arg.equals("-usercfg")) { 
 				userCfgFile = arg;				
 				if (i >= args.length) {
@@ -534,7 +568,7 @@ public class Compass {
 					u.errorExit();
 				}
 				reportOption = true;
-				List<String> reportOptions = Arrays.asList("xref", "detail", "status", "filter", "apps", "batchnr", "linenrs", "notabs", "hints");
+				List<String> reportOptions = Arrays.asList("xref", "detail", "status", "filter", "apps", "batchnr", "linenrs", "notabs", "hints", "multipage", "appreports", "objectgraph");
 				List<String> reportOptionsXref = Arrays.asList("", "all", "object", "feature");
 				List<String> reportFlags = new LinkedList<>(Arrays.asList(args[i].split(",")));
 				reportFlags.removeIf(String::isEmpty);
@@ -579,6 +613,15 @@ public class Compass {
 							CompassUtilities.tgtBlank = "";  
 							CompassUtilities.reportOptionNotabs = true;
 						}
+						else if (option.equals("multipage")) {
+							CompassUtilities.reportOptionMultiPage = true;
+						}
+						else if (option.equals("appreports")) {
+							CompassUtilities.reportOptionAppReports = true;
+						}
+						else if (option.equals("objectgraph")) {
+							CompassUtilities.reportOptionObjectGraph = true;
+						}
 						else if (option.equals("linenrs")) {
 							Integer ln = 0;
 							try {
@@ -790,6 +833,23 @@ public class Compass {
 				i++;
 				continue;
 			}																		
+			if (arg.equals("-exportformat") || arg.equals("-exportfmt")) {	
+				if (i == args.length) {
+					u.appOutput("Must specify value with -exportformat");
+					u.errorExit();
+				}
+				u.exportFormat = args[i].toLowerCase();
+				if (!ReportItemExport.formats.contains(u.exportFormat)) {
+					u.appOutput("Invalid value for -exportformat. Valid options: "+ ReportItemExport.formats);
+					u.errorExit();
+				}
+				i++;
+				continue;
+			}																		
+			if (arg.equals("-versionmatrix")) {
+				VersionMatrix.enabled = true;
+				continue;
+			}
 			if (arg.equals("-csvitemidfile")) {	
 				if (i == args.length) {
 					u.appOutput("Must specify value with -csvitemidfile");
@@ -861,6 +921,19 @@ public class Compass {
 					parseOnly = true;
 					continue;
 				}			
+				if (arg.equals("-benchcfg")) {  // development only
+					benchmarkCfg = true;
+					continue;
+				}
+				if (arg.equals("-cfgtrace")) {  // development only
+					if (i == args.length) {
+						u.appOutput("Must specify a file name for -cfgtrace ");
+						u.errorExit();
+					}
+					CfgLookupTrace.traceFileName = args[i];
+					i++;
+					continue;
+				}
 				if (arg.equals("-noSLL")) {  // development only
 					antlrSLL = false;
 					continue;
@@ -877,10 +950,14 @@ public class Compass {
 					antlrDiagnostics = true;
 					continue;
 				}
-				if (arg.equals("-caching")) { // development only
+				if (arg.equals("-caching")) { // development only; on by default
 					CompassUtilities.caching = true;
 					continue;
 				}
+				if (arg.equals("-nocaching")) { // development only: for comparing
+					CompassUtilities.caching = false;
+					continue;
+				}
 				if (arg.equals("-symtab_col")) { // development only: put columns in symbol table (requires further development to be useful)
 					u.buildColSymTab = true;
 					u.appOutput("Experimental: Including columns in symbol table in pass 1");
@@ -963,7 +1040,7 @@ public class Compass {
 			addInputFile(file);
 		}
 
-		if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "onWindows=["+CompassUtilities.onWindows+"] onMac=["+CompassUtilities.onMac+"] onLinux=["+CompassUtilities.onLinux+"]  ", u.debugOS);
+		if (u.debugOS) u.dbgOutput(CompassUtilities.thisProc() + "onWindows=["+CompassUtilities.onWindows+"] onMac=["+CompassUtilities.onMac+"] onLinux=["+CompassUtilities.onLinux+"]  ", u.debugOS);
 		
 		inputFilesOrig.addAll(tmpInputFiles);
 		
@@ -1068,6 +1145,13 @@ public class Compass {
 		} else {
 			u.targetBabelfishVersion = cfg.latestBabelfishVersion();
 		}
+
+		if (benchmarkCfg) {
+			cfg.benchmarkFeatureStatusIndex(u.targetBabelfishVersion, 100);
+			if (CfgLookupTrace.traceFileName != null) CfgLookupTrace.benchmark(CfgLookupTrace.traceFileName, 20);
+			return;
+		}
+		CfgLookupTrace.recording = (CfgLookupTrace.traceFileName != null);
 				
 		if (userEncoding != null) {
 			if (userEncoding.equals("help")) {
@@ -1136,6 +1220,11 @@ public class Compass {
 				u.listReportFiles(reportName);
 				return;
 			}
+
+			if (dependsOnStatus != null) {
+				ObjectGraph.listDependents(reportName, dependsOnStatus, dependsOnType);
+				return;
+			}
 			
 			cmdFlags.removeAll(inputFilesOrig);	
 			
@@ -1214,6 +1303,8 @@ public class Compass {
 			// only generate reported from already-captured items
 			startTime = System.currentTimeMillis();
 			u.createReport(reportName);
+			if (CompassUtilities.reportOptionAppReports) u.createAppReports(reportName);
+			if (VersionMatrix.enabled) u.appOutput("No analysis performed: not writing version matrix");
 			endTime = System.currentTimeMillis();
 			duration = (endTime - startTime);
 			timeCount.put("report", timeCount.get("report") + (int) duration);
@@ -1257,13 +1348,20 @@ public class Compass {
 					} else {
 						u.appOutput(nrImportFiles + " input files found for report " + reportName);
 					}
+					if (CfgLookupTrace.recording) {
+						CfgLookupTrace.write(CfgLookupTrace.traceFileName);
+						u.appOutput("Written "+CfgLookupTrace.size()+" .cfg lookups to "+CfgLookupTrace.traceFileName);
+					}
 
 					if (!generateReport) {
 						// -noreport
 						u.appOutput("Not generating assessment report.\nUse -reportonly or -reportoption to generate a report based on current analysis.");
+						if (VersionMatrix.enabled) VersionMatrix.write(u.getReportFilePathName(reportName, new Date()));
 					} else {
 						startTime = System.currentTimeMillis();
 						u.createReport(reportName);
+						if (VersionMatrix.enabled) VersionMatrix.write(u.reportFileTextPathName);
+						if (CompassUtilities.reportOptionAppReports) u.createAppReports(reportName);
 						endTime = System.currentTimeMillis();
 						duration = (endTime - startTime);
 						timeCount.put("report", timeCount.get("report") + (int) duration);						
@@ -1334,7 +1432,7 @@ public class Compass {
 			String cmdB = " "+tgt+File.separator;
 			String cmdC = " *.* /E /R:1 /W:1 /XX > NUL 2>&1";
 			String cmd = cmdA+dirName+cmdB+dirName+cmdC;
-			if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "mergereport: copying '"+dirName+"' details into '"+mergeReport+"' :  ["+cmd+"]" , u.debugDir);				
+			if (u.debugDir) u.dbgOutput(CompassUtilities.thisProc() + "mergereport: copying '"+dirName+"' details into '"+mergeReport+"' :  ["+cmd+"]" , u.debugDir);				
 			u.runOScmd(cmd);				
 		}
 		else {
@@ -1342,7 +1440,7 @@ public class Compass {
 			String cmdB = File.separator+"* "+tgt+File.separator;
 			String cmdC = " > /dev/null";
 			String cmd = cmdA+dirName+cmdB+dirName+cmdC;	
-			if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "mergereport: copying '"+dirName+"' details into '"+mergeReport+"' :  ["+cmd+"]" , u.debugDir);				
+			if (u.debugDir) u.dbgOutput(CompassUtilities.thisProc() + "mergereport: copying '"+dirName+"' details into '"+mergeReport+"' :  ["+cmd+"]" , u.debugDir);				
 			u.runOScmd(cmd);										
 		}				
 	}
@@ -1731,6 +1829,11 @@ public class Compass {
 			u.appOutput("Cannot combine -list and input files");
 			return false;
 		}
+
+		if ((dependsOnStatus != null) && ((inputFiles.size() > 0) || listContents || reportOnly || reAnalyze || importOnly || deleteReport)) {
+			u.appOutput("-dependson cannot be combined with input files or other options");
+			return false;
+		}
 		
 		if ((inputFiles.size() > 0) && reportOnly) {
 			u.appOutput("Cannot combine -reportonly and input files");
@@ -1757,6 +1860,11 @@ public class Compass {
 			return false;
 		}		
 		
+		if (reportOnly && VersionMatrix.enabled) {
+			u.appOutput("Cannot combine -reportonly and -versionmatrix: the version matrix requires analysis");
+			return false;
+		}		
+		
 		if (deleteReport && listContents) {
 			u.appOutput("Cannot combine -delete and -list");
 			return false;
@@ -1810,9 +1918,9 @@ public class Compass {
 		
 		// when only specifying the report name, must at least specify -list or -analyze or -reportonly/-reportoption
 		if (!reportName.isEmpty()) {
-			if ((inputFiles.size()==0) && (!readStdin) && (!deleteReport) && (!autoDDL)) {
-				if (!(listContents || (reportOnly || reportOption) || reAnalyze || autoDDL)) {
-	 				u.appOutput("Must specify input file(s), or -list/-analyze/-reportonly/-reportoption");
+			if ((inputFiles.size()==0) && (!readStdin) && (!deleteReport) && (!autoDDL) && (!benchmarkCfg)) {
+				if (!(listContents || (dependsOnStatus != null) || (reportOnly || reportOption) || reAnalyze || autoDDL)) {
+	 				u.appOutput("Must specify input file(s), or -list/-dependson/-analyze/-reportonly/-reportoption");
 	 				return false;
 				}
 			}
@@ -1831,9 +1939,9 @@ public class Compass {
 		}				
 		
 		// validate reportoptions
-		if (!CompassUtilities.reportOptionStatus.isEmpty() || !CompassUtilities.reportOptionDetail.isEmpty() || !CompassUtilities.reportOptionFilter.isEmpty() || CompassUtilities.reportOptionNotabs || CompassUtilities.reportOptionLineNrs) {
+		if (!CompassUtilities.reportOptionStatus.isEmpty() || !CompassUtilities.reportOptionDetail.isEmpty() || !CompassUtilities.reportOptionFilter.isEmpty() || CompassUtilities.reportOptionNotabs || CompassUtilities.reportOptionLineNrs || CompassUtilities.reportOptionMultiPage) {
 			if(CompassUtilities.reportOptionXref.isEmpty()) {
-				u.appOutput("Must also specify report option 'xref' when specifying option 'status', 'detail', 'filter', 'linenrs' or 'notabs' ");
+				u.appOutput("Must also specify report option 'xref' when specifying option 'status', 'detail', 'filter', 'linenrs', 'notabs' or 'multipage' ");
 				return false;
 			}
 		}
@@ -1992,7 +2100,7 @@ public class Compass {
 		}
 		
 		int linesSQL=0;
-		if (CompassUtilities.linesSQLInReport > 0) linesSQL = CompassUtilities.linesSQLInReport;
+		if (u.linesSQLInReport > 0) linesSQL = u.linesSQLInReport;
 		else if (nrLinesTotalP1 > 0) linesSQL = nrLinesTotalP1;
 		else if (nrLinesTotalP2 > 0) linesSQL = nrLinesTotalP2;
 		
@@ -2017,7 +2125,7 @@ public class Compass {
 		if (CompassUtilities.devOptions) {
 		u.appOutput("#input files         : "+ nrFiles+errFiles);
 		u.appOutput("#batches             : "+ totalBatches);
-		u.appOutput("#dynamic SQL         : "+ u.dynamicSQLNrStmts);
+		u.appOutput("#dynamic SQL         : "+ u.dynamicSQLNrStmts + "  (parsed before: "+ u.dynamicSQL.parsedHits + ")");
 		u.appOutput("#lines of SQL ph.1   : "+ nrLinesTotalP1);
 		u.appOutput("#lines of SQL ph.2   : "+ nrLinesTotalP2);
 		u.appOutput("#SQL features        : "+ u.constructsFound, writeToReport);
@@ -2051,15 +2159,32 @@ public class Compass {
 		u.appOutput("Session log          : "+ sessionLog, writeToReport);
 		if (!u.reportFilePathName.equals(u.uninitialized)) {
 			u.appOutput("Assessment report    : "+ u.reportFilePathName, writeToReport);
+			if (u.reportPagesWritten > 0) {
+				u.appOutput("X-ref report pages   : "+ u.reportPagesWritten, writeToReport);
+			}
+			for (String f : u.appReportsWritten) {
+				u.appOutput("Application report   : "+ f, writeToReport);
+			}
+			for (String f : u.exportFilesWritten) {
+				u.appOutput("Exported items       : "+ f, writeToReport);
+			}
+		}
+		if (VersionMatrix.fileWritten != null) {
+			u.appOutput("Version matrix       : "+ VersionMatrix.fileWritten, writeToReport);
 		}
 		u.appOutput(u.composeOutputLine("","="), writeToReport);
 		
 		if (CompassUtilities.devOptions) {
 			u.appOutput(CompassUtilities.thisProc()+"caching  =["+CompassUtilities.caching+"] ");
-			u.appOutput(CompassUtilities.thisProc()+"stripDelimitedIdentifierCall  =["+u.stripDelimitedIdentifierCall+"] ");
-			u.appOutput(CompassUtilities.thisProc()+"stripDelimitedIdentifierCached=["+u.stripDelimitedIdentifierCached+"] ");
-			u.appOutput(CompassUtilities.thisProc()+"normalizeNameCall  =["+u.normalizeNameCall+"] ");
-			u.appOutput(CompassUtilities.thisProc()+"normalizeNameCached=["+u.normalizeNameCached+"] ");
+			for (BoundedCache<?, ?> c : BoundedCache.all()) {
+				u.appOutput(CompassUtilities.thisProc()+"cache "+c.stats());
+			}
+			u.appOutput(CompassUtilities.thisProc()+"featureStatusCall  =["+CompassConfig.featureStatusCall.sum()+"] ");
+			u.appOutput(CompassUtilities.thisProc()+"featureStatusCached=["+CompassConfig.featureStatusCached.sum()+"] ");
+			u.appOutput(CompassUtilities.thisProc()+"complexityEffortCall  =["+u.complexityEffortCall+"] ");
+			u.appOutput(CompassUtilities.thisProc()+"complexityEffortCached=["+u.complexityEffortCached+"] ");
+			u.appOutput(CompassUtilities.thisProc()+"itemHintKeyCall  =["+u.itemHintKeyCall+"] ");
+			u.appOutput(CompassUtilities.thisProc()+"itemHintKeyCached=["+u.itemHintKeyCached+"] ");
 		}
 		
 		if (!u.newVersionAvailable.isEmpty()) u.appOutput("\nNote: "+u.removeHTMLTags(u.newVersionAvailable));
@@ -2090,7 +2215,7 @@ public class Compass {
 		// in first pass, process input files and create symbol table (a very basic version)
 		// in second pass, process copies of input files made in the first pass, and perform analysis
 		// with -analyze, run both passes on the copies of the originally imported input files
-		if (u.debugging) u.dbgOutput("pass=" + u.analysisPass + ".  reAnalyze=[" + reAnalyze + "] ", u.debugBatch);
+		if (u.debugBatch) u.dbgOutput("pass=" + u.analysisPass + ".  reAnalyze=[" + reAnalyze + "] ", u.debugBatch);
 
 		if (parseOnly) {
 			if (u.analysisPass > 1) {
@@ -2207,12 +2332,12 @@ public class Compass {
 			String inFileCopy = "";
 			FileInputStream fis = null;
 			InputStreamReader isr = null;
-			u.dynamicSQLBuffer.clear();
+			u.dynamicSQL.clear();
 			a.sqlcmdVars.clear();
 			retrySLLFile = 0;
 			if (u.rewrite) u.resetRewrites();
 			u.currentDatabase  = "";
-			if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "u.analysisPass=["+u.analysisPass+"] inFile=["+inFile+"] ", u.debugDir);
+			if (u.debugDir) u.dbgOutput(CompassUtilities.thisProc() + "u.analysisPass=["+u.analysisPass+"] inFile=["+inFile+"] ", u.debugDir);
 			
 			if (!reAnalyze) {
 				// process the input files when importing. i.e. the very first time
@@ -2262,7 +2387,7 @@ public class Compass {
 			}
 						
 			if (inputFilesMapped.containsKey(inFileCopy)) {
-				if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "using mapped inFileCopy=["+inputFilesMapped.get(inFileCopy)+"] instead of ["+inFileCopy+"]" , u.debugFmt || u.debugDir);
+				if (u.debugFmt || u.debugDir) u.dbgOutput(CompassUtilities.thisProc() + "using mapped inFileCopy=["+inputFilesMapped.get(inFileCopy)+"] instead of ["+inFileCopy+"]" , u.debugFmt || u.debugDir);
 				inFileCopy = inputFilesMapped.get(inFileCopy);
 			}
 
@@ -2315,7 +2440,7 @@ public class Compass {
 							return;
 						}
 					}
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "Using encoding=[" + charset.toString() + "]", u.debugBatch);
+					if (u.debugBatch) u.dbgOutput(CompassUtilities.thisProc() + "Using encoding=[" + charset.toString() + "]", u.debugBatch);
 
 					String detectedFmt = u.detectImportFileFormat(inFile, u.importFormat, charset);					
 					String useImportFormat = u.sqlcmdFmt;
@@ -2326,7 +2451,7 @@ public class Compass {
 						useImportFormat = detectedFmt;
 					}
 					if (useImportFormat.isEmpty()) useImportFormat = u.sqlcmdFmt; // catchall
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "u.importFormat=["+u.importFormat+"] detected fmt=["+detectedFmt+"] useImportFormat=["+useImportFormat+"] ", u.debugFmt || u.debugDir);
+					if (u.debugFmt || u.debugDir) u.dbgOutput(CompassUtilities.thisProc() + "u.importFormat=["+u.importFormat+"] detected fmt=["+detectedFmt+"] useImportFormat=["+useImportFormat+"] ", u.debugFmt || u.debugDir);
 					
     				String useCharset = charset.toString();
 					if (useImportFormat.equalsIgnoreCase(u.sqlcmdFmt)) {	
@@ -2340,7 +2465,7 @@ public class Compass {
 						charset = StandardCharsets.UTF_8;
 						String inFileCopyCopy = inFileCopy;
 						inFileCopy = u.getImportFilePathName(reportName, inFileConverted, appName);
-						if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "mapping inFileCopy from ["+inFileCopyCopy+"] to ["+inFileCopy+"]  inFileConverted=["+inFileConverted+"] ", u.debugFmt || u.debugDir);
+						if (u.debugFmt || u.debugDir) u.dbgOutput(CompassUtilities.thisProc() + "mapping inFileCopy from ["+inFileCopyCopy+"] to ["+inFileCopy+"]  inFileConverted=["+inFileConverted+"] ", u.debugFmt || u.debugDir);
 						inputFilesMapped.put(inFileCopyCopy, inFileCopy);
 					}
 					
@@ -2348,7 +2473,7 @@ public class Compass {
 
 					fis = new FileInputStream(inFile);
 					isr = new InputStreamReader(fis, charset);
-					if (u.debugging) u.dbgOutput("reading inFile=["+inFile+"] ", u.debugDir);
+					if (u.debugDir) u.dbgOutput("reading inFile=["+inFile+"] ", u.debugDir);
 				}
 			}
 
@@ -2368,7 +2493,7 @@ public class Compass {
 			
 				fis = new FileInputStream(inFileCopy);
 				isr = new InputStreamReader(fis, StandardCharsets.UTF_8);				
-				if (u.debugging) u.dbgOutput("reading inFileCopy=["+inFileCopy+"] ", u.debugDir);
+				if (u.debugDir) u.dbgOutput("reading inFileCopy=["+inFileCopy+"] ", u.debugDir);
 			}
 			
 			BufferedReader inFileReader = new BufferedReader(isr);
@@ -2428,73 +2553,57 @@ public class Compass {
 			int nrEncodingWarnings = 0;
 			int maxEncodingWarnings = 5;	
 			boolean lastLineRead = false;	
-			int dynSQLCount = 0;
+			int batchNrInFile = 0;
 			analyzingDynamicSQL = false;
-			dynamicSQLLineNr = 0;
-			dynamicSQLBatchNr = 0;
-			dynamicSQLBatchLineNr = 0;
-			dynamicSQLContext = "";
-			dynamicSQLSubContext = "";
+			dynamicSQLItem = null;
 			u.dynamicSQLFlag = false;
 
 			while (true) {
 				boolean somethingFoundOnLine = false;
 				boolean orphanSquareBracket = false;
-				if (!lastLineRead) {
-					line = inFileReader.readLine();
-				}
-				else if (u.analysisPass == 2) {
-					if (dynSQLCount < u.dynamicSQLBuffer.size()) {
-						if (!analyzingDynamicSQL) {
-							u.dynamicSQLBuffer.add(0, "go");
-							analyzingDynamicSQL = true;
-						}
-						line = u.dynamicSQLBuffer.get(dynSQLCount);
-						dynSQLCount++;
-						if (u.debugging) u.dbgOutput(u.thisProc()+"dynamic SQL: line=["+line+"] ", u.debugDynamicSQL);		
-						if (line.startsWith(u.dynamicSQLBatchLine)) {
-							List<String> tmpBatchLine = new ArrayList<>(Arrays.asList(line.substring(u.dynamicSQLBatchLine.length()).split(",")));
-							//u.appOutput(u.thisProc()+"tmpBatchLine=["+tmpBatchLine+"] ");
-							u.dynamicSQLFlag = true;
-							dynamicSQLLineNr = Integer.parseInt(tmpBatchLine.get(0));
-							dynamicSQLBatchNr = Integer.parseInt(tmpBatchLine.get(1));
-							dynamicSQLBatchLineNr = Integer.parseInt(tmpBatchLine.get(2));
-							dynamicSQLContext = tmpBatchLine.get(3);
-							dynamicSQLSubContext = tmpBatchLine.get(4);
-							if (u.debugging) u.dbgOutput(u.thisProc()+"dynamic SQL: dynamicSQLLineNr=["+dynamicSQLLineNr+"] dynamicSQLBatchNr=["+dynamicSQLBatchNr+"] dynamicSQLBatchLineNr=["+dynamicSQLBatchLineNr+"] dynamicSQLContext=["+dynamicSQLContext+"] dynamicSQLSubContext=["+dynamicSQLSubContext+"] ", u.debugDynamicSQL);		
-							line = u.dynamicSQLBuffer.get(dynSQLCount);
-							dynSQLCount++;							
-							if (u.debugging) u.dbgOutput(u.thisProc()+"dynamic SQL: line=["+line+"] ", u.debugDynamicSQL);		
-						}
-					}
-					else if (dynSQLCount == u.dynamicSQLBuffer.size()) {
-						line = null;
+				if (endOfFile) {
+					// all batches in the file have been processed: the dynamic SQL found in these is analyzed now, each statement as a batch by itself
+					if (!analyzingDynamicSQL) {
+						batchNrInFile = batchNr;
+						analyzingDynamicSQL = true;
+						u.dynamicSQLFlag = true;
 					}
+					dynamicSQLItem = u.dynamicSQL.next();
+					if (u.debugDynamicSQL) u.dbgOutput(u.thisProc()+"dynamic SQL: "+dynamicSQLItem, u.debugDynamicSQL);
+				}
+				else if (!lastLineRead) {
+					line = inFileReader.readLine();
 				}
 				if ((line == null) && (u.analysisPass == 2)  && !lastLineRead) {
 					lastLineRead = true;		
-					if (u.debugging) u.dbgOutput("last line was read! ", u.debugBatch);			
-					if (u.dynamicSQLBuffer.size() > 0) {
-						// there was some dynamic SQL in this file that needs to be analyzed, so process it now						
-						if (u.debugging) u.dbgOutput("dynamic SQL still to be processed : "+u.dynamicSQLNrStmts+" batches, "+u.dynamicSQLBuffer.size()+" lines", u.debugBatch||u.debugDynamicSQL);	
-						continue;
+					if (u.debugBatch) u.dbgOutput("last line was read! ", u.debugBatch);			
+					if (dynamicSQLPending()) {
+						// there was some dynamic SQL in this file that needs to be analyzed, this is done after the last batch
+						if (u.debugBatch||u.debugDynamicSQL) u.dbgOutput("dynamic SQL still to be processed : "+u.dynamicSQL.size()+" statements", u.debugBatch||u.debugDynamicSQL);	
 					}
 				}
 				
-				if (line == null) {
-					if (u.debugging) u.dbgOutput("end of file", u.debugBatch);
+				if (dynamicSQLItem != null) {
+					batchText = new StringBuilder(dynamicSQLItem.text).append("\n");
+					batchLines = dynamicSQLItem.text.split("\n", -1).length;
+					if (!dynamicSQLItem.text.trim().isEmpty()) leadingBlankLines = false;
+					startOfNewBatch = false;
+					endBatchFound = true;
+				}
+				else if (line == null) {
+					if (u.debugBatch) u.dbgOutput("end of file", u.debugBatch);
 					endBatchFound = true;
 					endOfFile = true;
 					if (inComment > 0) {
 						// seems we missed a comment close mark, let's add it
-						if (u.debugging) u.dbgOutput("unclosed bracketed comment at end of file, adding " + inComment + " comment close marker(s)", u.debugBatch);
+						if (u.debugBatch) u.dbgOutput("unclosed bracketed comment at end of file, adding " + inComment + " comment close marker(s)", u.debugBatch);
 						for (int i = 0; i < inComment; i++) {
 							batchText.append("\n */");
 						}
 					}
 					if (inString) {
 						// seems we missed a string close mark, let's add it
-						if (u.debugging) u.dbgOutput("unclosed string at end of file, adding string delimiter [" + openQuote + "]", u.debugBatch);
+						if (u.debugBatch) u.dbgOutput("unclosed string at end of file, adding string delimiter [" + openQuote + "]", u.debugBatch);
 						batchText.append(openQuote);
 					}
 				} 
@@ -2519,7 +2628,7 @@ public class Compass {
 					// remove UTF-8 BOM if present: Java doesn't handle this. The BOM bytes for UTF8 are 0xEF 0xBB 0xBF, but the show up here as 0xFEFF
 					if (lineNr == 0) {
 						if (line.startsWith("\uFEFF")) {
-							if (u.debugging) u.dbgOutput("UTF-8 BOM found, removed", u.debugBatch);
+							if (u.debugBatch) u.dbgOutput("UTF-8 BOM found, removed", u.debugBatch);
 							line = line.substring(1);
 						}		
 					}						
@@ -2542,7 +2651,7 @@ public class Compass {
 					// objective is to find the batch terminator, taking into account multi-line strings and potentially nested comments
 					lineNr++;
 					batchLines++;
-					if (u.debugging) u.dbgOutput("read line " + lineNr + "(len:" + line.length() + ")=[" + line + "]", u.debugBatch);
+					if (u.debugBatch) u.dbgOutput("read line " + lineNr + "(len:" + line.length() + ")=[" + line + "]", u.debugBatch);
 					
 					// check for indications that encoding is not correctly specified
 					if (doEncodingChecks) {
@@ -2577,7 +2686,7 @@ public class Compass {
 						// loop protection, for some cases of invalid syntax, or incorrectly specified encoding
 						lineCopyLoopCnt++;
 						if (lineCopyLoopCnt > 1) {
-							if (u.debugging) u.dbgOutput("loop chk top: prev length=[" + lineCopyLenChk + "], current length=[" + lineCopy.length() + "], lineCopy=[" + lineCopy + "]", u.debugBatch);
+							if (u.debugBatch) u.dbgOutput("loop chk top: prev length=[" + lineCopyLenChk + "], current length=[" + lineCopy.length() + "], lineCopy=[" + lineCopy + "]", u.debugBatch);
 							if (lineCopyLenChk == lineCopy.length()) {
 								lineCopyLoopChk++;
 							} 
@@ -2585,17 +2694,17 @@ public class Compass {
 								lineCopyLoopChk = 0;
 								lineCopyLenChk = lineCopy.length();
 							}
-							if (u.debugging) u.dbgOutput("loop chk top: lineCopyLoopChk=[" + lineCopyLoopChk + "]", u.debugBatch);
+							if (u.debugBatch) u.dbgOutput("loop chk top: lineCopyLoopChk=[" + lineCopyLoopChk + "]", u.debugBatch);
 						}
 						if (lineCopyLoopChk > lineCopyLoopCntMax) {
 							// we seem to be in a loop...
-							if (u.debugging) u.dbgOutput("loop chk: exit: lineNr=["+lineNr+"] orphanSquareBracket=["+orphanSquareBracket+"] lineCopy=[" + lineCopy + "]", u.debugBatch);
+							if (u.debugBatch) u.dbgOutput("loop chk: exit: lineNr=["+lineNr+"] orphanSquareBracket=["+orphanSquareBracket+"] lineCopy=[" + lineCopy + "]", u.debugBatch);
 							String bracketMsg = "";
 							if (orphanSquareBracket) bracketMsg = "Possibly delimited identifier containing newline? "; 
 							u.appOutput("Error processing input file at line "+lineNr+". Is input file encoding correct? "+bracketMsg+"Continuing, but errors may occur.");
 							break;
 						}
-						if (u.debugging) u.dbgOutput("top loop: lineCopyLoopCnt=[" + lineCopyLoopCnt + "] inComment=" + inComment + ", inString=" + inString + ", lineCopy top=[" + lineCopy + "]", u.debugBatch);
+						if (u.debugBatch) u.dbgOutput("top loop: lineCopyLoopCnt=[" + lineCopyLoopCnt + "] inComment=" + inComment + ", inString=" + inString + ", lineCopy top=[" + lineCopy + "]", u.debugBatch);
 						if (inString) {
 							// do nothing until we find a matching closing quote
 							int ix = lineCopy.indexOf(openQuote);
@@ -2603,7 +2712,7 @@ public class Compass {
 								lineCopy = (lineCopy + ' ').substring(ix + 1);
 								inString = false;
 								somethingFoundOnLine = true;
-								if (u.debugging) u.dbgOutput("string close found", u.debugBatch);
+								if (u.debugBatch) u.dbgOutput("string close found", u.debugBatch);
 							} 
 							else {
 								break;
@@ -2615,14 +2724,14 @@ public class Compass {
 							Pattern linePattern = Pattern.compile("^(.*?)((--|/\\*|'|\"|[\\[]).*$)");
 							Matcher lineMatcher = linePattern.matcher(lineCopy);
 							while (!lineCopyProcessed) {
-								if (u.debugging) u.dbgOutput("lineCopy top loop A=[" + lineCopy + "]", u.debugBatch);
+								if (u.debugBatch) u.dbgOutput("lineCopy top loop A=[" + lineCopy + "]", u.debugBatch);
 								if (lineMatcher.find()) {
 									String prefix = lineMatcher.group(1);
 									String token = lineMatcher.group(3);
 									lineCopy = lineMatcher.group(2);
-									if (u.debugging) u.dbgOutput("token=[" + token + "]", u.debugBatch);
+									if (u.debugBatch) u.dbgOutput("token=[" + token + "]", u.debugBatch);
 									if (token.equals("--")) { // can be on a batch delimiter line
-										if (u.debugging) u.dbgOutput("simple comment", u.debugBatch);
+										if (u.debugBatch) u.dbgOutput("simple comment", u.debugBatch);
 										lineCopyProcessed = true;
 										break;
 									}
@@ -2632,11 +2741,11 @@ public class Compass {
 
 									if (token.equals("[")) { // delimiter identifier, will not span line boundary
 										lineCopy = u.applyPatternFirst(lineCopy, "[\\[].*?[\\]]", "");  // seen identifier in an XPath context:  SELECT ... AS [Account/*]
-										if (u.debugging) u.dbgOutput("bracketed identifier", u.debugBatch);
+										if (u.debugBatch) u.dbgOutput("bracketed identifier", u.debugBatch);
 										if (lineCopy.length() == lineCopyLen) {
 											// likely invalid syntax, avoid getting into a loop
 											orphanSquareBracket = true;
-											if (u.debugging) u.dbgOutput("ignoring orphan square bracket", u.debugBatch);
+											if (u.debugBatch) u.dbgOutput("ignoring orphan square bracket", u.debugBatch);
 											break;
 										}
 										// do another round of stripping
@@ -2655,7 +2764,7 @@ public class Compass {
 											lineCopy = u.applyPatternFirst(lineCopy, "\".*?\"", "");
 											break;
 									}
-									if (u.debugging) u.dbgOutput("lineCopy after initial strip: len=" + lineCopyLen + ", [" + lineCopy + "]", u.debugBatch);
+									if (u.debugBatch) u.dbgOutput("lineCopy after initial strip: len=" + lineCopyLen + ", [" + lineCopy + "]", u.debugBatch);
 
 									// were any chars removed, or do we have an open string or comment?
 									if (lineCopy.length() == lineCopyLen) {
@@ -2674,19 +2783,19 @@ public class Compass {
 									lineMatcher = linePattern.matcher(lineCopy);
 								} 
 								else {
-									if (u.debugging) u.dbgOutput("no match, top", u.debugBatch);
+									if (u.debugBatch) u.dbgOutput("no match, top", u.debugBatch);
 									lineCopyProcessed = true;
 									break;
 								}
 							} // while
 						}
-						if (u.debugging) u.dbgOutput("somethingFoundOnLine=" + somethingFoundOnLine + ", inComment=" + inComment + ", inString=" + inString + ", lineCopy after strip=[" + lineCopy + "]", u.debugBatch);
+						if (u.debugBatch) u.dbgOutput("somethingFoundOnLine=" + somethingFoundOnLine + ", inComment=" + inComment + ", inString=" + inString + ", lineCopy after strip=[" + lineCopy + "]", u.debugBatch);
 
 						if (inComment > 0) {
 							// do nothing until we find a matching closing delimiter - which can be nested in T-SQL
 							Pattern commentPattern = Pattern.compile("^(.*?)(\\/\\*|\\*\\/)");
 							Matcher commentMatcher = commentPattern.matcher(lineCopy);
-							if (u.debugging) u.dbgOutput("lineCopy before loop B=[" + lineCopy + "]", u.debugBatch);
+							if (u.debugBatch) u.dbgOutput("lineCopy before loop B=[" + lineCopy + "]", u.debugBatch);
 							boolean commentFound = false;
 							while (commentMatcher.find()) {
 								String p1 = commentMatcher.group(1);
@@ -2697,9 +2806,9 @@ public class Compass {
 								else if (c.equals("*/")) inComment--;
 								commentMatcher = commentPattern.matcher(lineCopy);
 								somethingFoundOnLine = true;
-								if (u.debugging) u.dbgOutput("inComment=[" + inComment + "]  p1=[" + p1 + "]  c=[" + c + "]  lineCopy=[" + lineCopy + "]", u.debugBatch);
+								if (u.debugBatch) u.dbgOutput("inComment=[" + inComment + "]  p1=[" + p1 + "]  c=[" + c + "]  lineCopy=[" + lineCopy + "]", u.debugBatch);
 								if (inComment == 0) {
-									if (u.debugging) u.dbgOutput("break on inComment=0, [" + lineCopy + "]", u.debugBatch);
+									if (u.debugBatch) u.dbgOutput("break on inComment=0, [" + lineCopy + "]", u.debugBatch);
 									break;
 								}
 							} // while
@@ -2715,15 +2824,15 @@ public class Compass {
 							line = u.applyPatternFirst(line, "^\\s*GO\\s*?(\\s\\d+\\s*|--.*)?$", "go");
 							line = u.applyPatternFirst(line, "^\\s*(:)?RESET\\s*(--.*)?$", "reset");
 							line = u.applyPatternFirst(line, "^\\s*(:)?(EXIT|QUIT)\\s*(--.*)?$", "exit");
-							if (u.debugging) u.dbgOutput("read2=[" + line + "]", u.debugBatch);
+							if (u.debugBatch) u.dbgOutput("read2=[" + line + "]", u.debugBatch);
 							if (line.trim().equalsIgnoreCase("go")) {
-								if (u.debugging) u.dbgOutput("line is go=[" + line + "]", u.debugBatch);
+								if (u.debugBatch) u.dbgOutput("line is go=[" + line + "]", u.debugBatch);
 								line = "";
 								endBatchFound = true;
 							}
 							if (line.trim().equalsIgnoreCase("reset")) {
 								// Todo: batch is not written to the .batch file
-								if (u.debugging) u.dbgOutput("line is reset=[" + line + "]", u.debugBatch);
+								if (u.debugBatch) u.dbgOutput("line is reset=[" + line + "]", u.debugBatch);
 								endBatchFound = false;
 								startOfNewBatch = true;
 								startBatchLineNr = lineNr + 1;
@@ -2731,8 +2840,7 @@ public class Compass {
 								continue;
 							}
 							if (line.trim().equalsIgnoreCase("exit")) {
-								if (u.debugging) u.dbgOutput("exit found", u.debugBatch);
-								if (u.dynamicSQLBuffer.size() == 0) endOfFile = true;
+								if (u.debugBatch) u.dbgOutput("exit found", u.debugBatch);
 								endBatchFound = false;
 								if (u.analysisPass == 1) {
 									if (batchNr == 0) {
@@ -2748,7 +2856,7 @@ public class Compass {
 							}
 						}
 					}
-					if (u.debugging) u.dbgOutput("startOfNewBatch=["+startOfNewBatch+"]  endBatchFound=["+endBatchFound+"]  leadingBlankLines=["+leadingBlankLines+"] ", u.debugBatch);
+					if (u.debugBatch) u.dbgOutput("startOfNewBatch=["+startOfNewBatch+"]  endBatchFound=["+endBatchFound+"]  leadingBlankLines=["+leadingBlankLines+"] ", u.debugBatch);
 
 					boolean emptyLine = false;
 					if (line.trim().isEmpty()) {
@@ -2756,13 +2864,13 @@ public class Compass {
 					}
 					else {
 						leadingBlankLines = false;
-						if (u.debugging) u.dbgOutput("setting leadingBlankLines=["+leadingBlankLines+"] ", u.debugBatch);												
+						if (u.debugBatch) u.dbgOutput("setting leadingBlankLines=["+leadingBlankLines+"] ", u.debugBatch);												
 					}
 					
 					if (startOfNewBatch && !endBatchFound) {
 						if (emptyLine) {							
 							if (skipLeadingBlankLines) {
-								if (u.debugging) u.dbgOutput("skipping LeadingBlankLines", u.debugBatch);
+								if (u.debugBatch) u.dbgOutput("skipping LeadingBlankLines", u.debugBatch);
 								continue;
 							}
 						}
@@ -2770,13 +2878,13 @@ public class Compass {
 					}
 
 					if (!endBatchFound) {
-						if (u.debugging) u.dbgOutput("adding line=[" + line + "]", u.debugBatch);
+						if (u.debugBatch) u.dbgOutput("adding line=[" + line + "]", u.debugBatch);
 						batchText.append(line).append("\n");
 					}
 				}
 
 				if (endBatchFound) {
-					if (u.debugging) u.dbgOutput("endBatchFound=["+endBatchFound+"] analyzingDynamicSQL=["+analyzingDynamicSQL+"] ", u.debugBatch);
+					if (u.debugBatch) u.dbgOutput("endBatchFound=["+endBatchFound+"] analyzingDynamicSQL=["+analyzingDynamicSQL+"] ", u.debugBatch);
 					// process the batch
 					if (!analyzingDynamicSQL) {
 						batchNr++;
@@ -2786,13 +2894,13 @@ public class Compass {
 					}
 					else {
 						// Dynamic SQL: use numbers from original batch
-						batchNr = u.batchNrInFile = dynamicSQLBatchNr;
-						startBatchLineNr = u.lineNrInFile = dynamicSQLBatchLineNr;		
+						batchNr = u.batchNrInFile = dynamicSQLItem.batchNr;
+						startBatchLineNr = u.lineNrInFile = dynamicSQLItem.batchLineNr;		
 					}
 					
 					if (startOfNewBatch || leadingBlankLines) {
 						// nothing to process
-						if (endOfFile) {
+						if (endOfFile && !dynamicSQLPending()) {
 							if (u.analysisPass == 1) {
 								if (batchNr == 0) {
 									u.appOutput("No batches found in this file.");
@@ -2800,7 +2908,7 @@ public class Compass {
 							}
 							break;
 						}
-						if (u.debugging) u.dbgOutput("endBatchFound, startOfNewBatch: nothing to process leadingBlankLines=["+leadingBlankLines+"] ", u.debugBatch);
+						if (u.debugBatch) u.dbgOutput("endBatchFound, startOfNewBatch: nothing to process leadingBlankLines=["+leadingBlankLines+"] ", u.debugBatch);
 
 						// prep for next batch
 						endBatchFound = false;
@@ -2835,20 +2943,41 @@ public class Compass {
 							u.appOutput("\npass=[" + u.analysisPass + "] Batch " + batchNr + "=[" + batchText + "]");
 						}
 
-						if (u.debugging) u.dbgOutput("handing off to parser: u.analysisPass=["+u.analysisPass+"] batchNr=["+batchNr+"]  batchLines=["+batchLines+"]  ", u.debugBatch);
+						if (u.debugBatch) u.dbgOutput("handing off to parser: u.analysisPass=["+u.analysisPass+"] batchNr=["+batchNr+"]  batchLines=["+batchLines+"]  ", u.debugBatch);
 						
-						charStream = CharStreams.fromString(batchText.toString());
-
 						// parse a batch and put the parse tree in the list for subsequent analysis
+						// dynamic SQL parsed before, possibly in another file, is not parsed again
 						startTime = System.currentTimeMillis();			
-						String ptreeText = parseBatch(charStream, inFile, batchNr, batchLines, antlrSLL);
+						String ptreeText = "";
+						DynamicSQL.Parsed dynamicSQLParsed = null;
+						if (analyzingDynamicSQL && !dumpParseTree) {
+							dynamicSQLParsed = u.dynamicSQL.lookupParsed(dynamicSQLItem.text);
+						}
+						if (dynamicSQLParsed != null) {
+							if (dynamicSQLParsed.tree != null) {
+								exportedParseTree = dynamicSQLParsed.tree;
+							}
+							else {
+								parseErrorMsg.append(dynamicSQLParsed.errorMsg);
+								hasParseError = true;
+							}
+						}
+						else {
+							charStream = CharStreams.fromString(batchText.toString());
+							ptreeText = parseBatch(charStream, inFile, batchNr, batchLines, antlrSLL);
+							if (analyzingDynamicSQL && !dumpParseTree) {
+								if (hasParseError) dynamicSQLParsed = new DynamicSQL.Parsed(null, parseErrorMsg.toString());
+								else dynamicSQLParsed = new DynamicSQL.Parsed(exportedParseTree, null);
+								u.dynamicSQL.keepParsed(dynamicSQLItem.text, dynamicSQLParsed);
+							}
+						}
 						endTime = System.currentTimeMillis();
 						duration = (endTime - startTime);
 						timeElapsed = duration / 1000;
 						timeElapsedFile += duration;
 						timeCount.put("parseTime", timeCount.get("parseTime") + (int) duration);
 
-						if (u.debugging) u.dbgOutput("returning from parser", u.debugBatch);
+						if (u.debugBatch) u.dbgOutput("returning from parser", u.debugBatch);
 
 						if (dumpBatchFile) {
 							if (!hasParseError) {
@@ -2922,7 +3051,7 @@ public class Compass {
 							} 
 							else if (exportedParseTree != null) {
 								// even with -parseonly, we need to run analysis in order to process set quoted_identifier, which affects parsing
-								if (u.debugging) u.dbgOutput("Analyzing tree for batch", u.debugBatch);
+								if (u.debugBatch) u.dbgOutput("Analyzing tree for batch", u.debugBatch);
 								String phase = "analysisTimeP" + u.analysisPass;
 								startTime = System.currentTimeMillis();
 
@@ -2952,15 +3081,22 @@ public class Compass {
 						batchLines = 0;
 						inComment = 0;
 						inString = false;
-						if (u.debugging) u.dbgOutput("resetting: startOfNewBatch=" + startOfNewBatch + ", endBatchFound=" + endBatchFound, u.debugBatch);
+						if (u.debugBatch) u.dbgOutput("resetting: startOfNewBatch=" + startOfNewBatch + ", endBatchFound=" + endBatchFound, u.debugBatch);
 					}
 				}
 
-				if (endOfFile) {
+				if (endOfFile && !dynamicSQLPending()) {
 					break;
 				}
 			}  // while
 
+			if (analyzingDynamicSQL) {
+				// back to the file after the dynamic SQL
+				batchNr = batchNrInFile;
+				analyzingDynamicSQL = false;
+				dynamicSQLItem = null;
+			}
+
 			passCount.put(u.analysisPass,1);
 			if (passCount.size() > 1) {
 				// don't add, or we'd be doubling up the totals
@@ -3035,7 +3171,7 @@ public class Compass {
 			PScmd = "pwsh";
 		}
 		String autoDDLTag = "BabelfishCompassAutoDDL";		
-		if (u.debugging) u.dbgOutput(autoDDLTag + ": start: Compass Powershell", u.debugAutoDDL);
+		if (u.debugAutoDDL) u.dbgOutput(autoDDLTag + ": start: Compass Powershell", u.debugAutoDDL);
 
 		String autoDDLScript = "SMO_DDL.ps1"; 			
 		if (u.onWindows) autoDDLScript = ".\\" + autoDDLScript;
@@ -3049,8 +3185,8 @@ public class Compass {
 		String PSCheckTag = "BabelfishCompassPowershellTest";	
 		String cmd = PScmd + " -Command \"Write-Output " + PSCheckTag + "\"";
 		String cmdOut = u.runOScmd(cmd, true);
-		if (u.debugging) u.dbgOutput("cmd=["+cmd+"] ", u.debugAutoDDL);
-		if (u.debugging) u.dbgOutput("cmdOut=["+cmdOut+"] ", u.debugAutoDDL);
+		if (u.debugAutoDDL) u.dbgOutput("cmd=["+cmd+"] ", u.debugAutoDDL);
+		if (u.debugAutoDDL) u.dbgOutput("cmdOut=["+cmdOut+"] ", u.debugAutoDDL);
 		if (!cmdOut.contains(PSCheckTag)) {
 			u.appOutput("\nERROR: Powershell is not available (expecting '"+PScmd.trim()+"' to be in the PATH)");
 			if (!u.onWindows) {
@@ -3063,8 +3199,8 @@ public class Compass {
 		if (u.onWindows) {
 			cmd = PScmd + " -Command Get-ExecutionPolicy ";
 			cmdOut = u.runOScmd(cmd, true);
-			if (u.debugging) u.dbgOutput("cmd=["+cmd+"] ", u.debugAutoDDL);
-			if (u.debugging) u.dbgOutput("cmdOut=["+cmdOut+"] ", u.debugAutoDDL);
+			if (u.debugAutoDDL) u.dbgOutput("cmd=["+cmd+"] ", u.debugAutoDDL);
+			if (u.debugAutoDDL) u.dbgOutput("cmdOut=["+cmdOut+"] ", u.debugAutoDDL);
 			cmdOut = cmdOut.trim();
 			if (!cmdOut.equals("Unrestricted")) {
 				u.appOutput("\nERROR: The Powershell execution policy must be set to 'Unrestricted' to run script "+autoDDLScript + ",\nwhich is required for the -sqlendpoint option.\nCurrent setting: " + cmdOut);
@@ -3077,8 +3213,8 @@ public class Compass {
 		if (u.onWindows) {
 			cmd = PScmd + " -Command Unblock-File -Path " + autoDDLScript;
 			cmdOut = u.runOScmd(cmd, true);
-			if (u.debugging) u.dbgOutput("cmd=["+cmd+"] ", u.debugAutoDDL);
-			if (u.debugging) u.dbgOutput("cmdOut=["+cmdOut+"] ", u.debugAutoDDL);
+			if (u.debugAutoDDL) u.dbgOutput("cmd=["+cmd+"] ", u.debugAutoDDL);
+			if (u.debugAutoDDL) u.dbgOutput("cmdOut=["+cmdOut+"] ", u.debugAutoDDL);
 			cmdOut = cmdOut.trim();  // we don't use the output
 		}	
 		
@@ -3130,10 +3266,10 @@ public class Compass {
 			String runautoDDLScript = PScmd + " " + autoDDLScript; 		
 			runautoDDLScript += " -Databases '"+sqlDBList+"' -OutputFolder '"+SMOOutputFolder+"' -SMOOutputDir '' -DDLTag '"+DDLTagArg+"' -ServerName '"+sqlEndpoint+"' -Username '"+sqlLogin+"' -Password '"+sqlPasswd+"'";
 			cmd = runautoDDLScript;
-			if (u.debugging) u.dbgOutput("loopCnt=["+loopCnt+"] cmd=["+cmd+"] ", u.debugAutoDDL);			
+			if (u.debugAutoDDL) u.dbgOutput("loopCnt=["+loopCnt+"] cmd=["+cmd+"] ", u.debugAutoDDL);			
 			cmdOut = u.runOScmd(cmd, true);
 			//u.appOutput(u.thisProc()+"loopCnt=["+loopCnt+"] cmdDuration=["+cmdDuration+"] ");
-			if (u.debugging) u.dbgOutput("loopCnt=["+loopCnt+"] cmdOut=["+cmdOut+"] ", u.debugAutoDDL);
+			if (u.debugAutoDDL) u.dbgOutput("loopCnt=["+loopCnt+"] cmdOut=["+cmdOut+"] ", u.debugAutoDDL);
 			
 			// Installing SMO may be tricky and may not always work 
 			// But if we see the message that the connection is successful, we should be good
@@ -3185,7 +3321,7 @@ public class Compass {
 					trip = -1;							
 				}		
 				
-				if (u.debugging) u.dbgOutput("Approximate client-server roundtrip time: "+ tripStr + " millisec.", u.debugAutoDDL);							
+				if (u.debugAutoDDL) u.dbgOutput("Approximate client-server roundtrip time: "+ tripStr + " millisec.", u.debugAutoDDL);							
 				if (trip > 200) { // empirically determined: within an AWS region, a roundtrip tends to be < 100 millisec. 
 					String roundtripStr = "(approx. "+ tripStr +" millisec. roundtrip)";	
 					u.appOutput("Note: the connection to the SQL Server does not seem to be very fast "+roundtripStr+".\nGenerating DDL may take some time...");										
@@ -3233,9 +3369,14 @@ public class Compass {
 		addInputFile(ddlFiles);
 		inputFilesOrig = inputFiles;	
 	
-		if (u.debugging) u.dbgOutput(autoDDLTag + ": ready: Compass Powershell", u.debugAutoDDL);
+		if (u.debugAutoDDL) u.dbgOutput(autoDDLTag + ": ready: Compass Powershell", u.debugAutoDDL);
 	}
 	
+	// is there dynamic SQL left to analyze in the current file
+	private static boolean dynamicSQLPending() {
+		return (u.analysisPass == 2) && !u.dynamicSQL.isEmpty();
+	}
+
 	protected String parseBatch(CharStream batchText, String fileName, int batchNr, int batchLines, boolean useSLL)  {
 		String batchTextCopy = batchText.toString();
 		TSQLLexer lexer = new TSQLLexer(batchText);
@@ -3301,7 +3442,7 @@ public class Compass {
 		parser.setErrorHandler(new BailErrorStrategy());
 
 		if (useSLL) {
-			if (u.debugging) u.dbgOutput("useSLL=[" + useSLL + "] batchNr=[" + batchNr + "] batchLines=[" + batchLines + "]", u.debugBatch||u.debugPtree);
+			if (u.debugBatch||u.debugPtree) u.dbgOutput("useSLL=[" + useSLL + "] batchNr=[" + batchNr + "] batchLines=[" + batchLines + "]", u.debugBatch||u.debugPtree);
 			parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
 		}
 
@@ -3328,7 +3469,7 @@ public class Compass {
 
 		} catch (Exception e) {
 			// we get here for parser errors
-			if (u.debugging) u.dbgOutput("syntax error in catch; pass=" + u.analysisPass + " useSLL=[" + useSLL + "] batchNr=[" + batchNr + "] ",  u.debugBatch||u.debugPtree);
+			if (u.debugBatch||u.debugPtree) u.dbgOutput("syntax error in catch; pass=" + u.analysisPass + " useSLL=[" + useSLL + "] batchNr=[" + batchNr + "] ",  u.debugBatch||u.debugPtree);
 			if (useSLL) {
 				retrySLL++;
 				retrySLLFile++;
@@ -10,6 +10,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.*;
 import java.util.stream.*;
+import java.util.function.Function;
 import java.lang.Math;
 
 import parser.*;
@@ -287,10 +288,6 @@ public class CompassAnalyze {
 	// display string, if we don't want to use the section names in the .cfg file
 	static Map<String, String> displayString = new HashMap<>();
 
-	// variables/parameters only for current object
-	static Map<String, String> localVars = new HashMap<>();
-	static Map<String, String> localAtAtErrorVars = new HashMap<>();
-
 	// sqlcmd variables only for current file
 	static List<String> sqlcmdVars = new ArrayList<>();
 
@@ -387,37 +384,73 @@ public class CompassAnalyze {
 		return cfg.featureExists(section, name);
 	}
 	private static String featureArgSupportedInVersion(String section, String arg, String argValue) {
-		return cfg.featureArgSupportedInVersion(u.targetBabelfishVersion, section, arg, argValue);
+		CompassConfig.FeatureStatus fs = cfg.lookupFeatureArgStatus(u.targetBabelfishVersion, section, arg, argValue);
+		fs.logStatusOverride();
+		instance.keepCfgCheck(fs.getCfgCheck());
+		String status = fs.getStatus();
+		if (VersionMatrix.enabled) VersionMatrix.recordCheck(VersionMatrix.checkArg, section, arg, argValue, status);
+		if (CfgLookupTrace.recording) CfgLookupTrace.record(CfgLookupTrace.kindArgSupported, status, u.targetBabelfishVersion, section, arg, argValue);
+		return status;
 	}
 	public static String featureSupportedInVersion(String section) {
-		return cfg.featureSupportedInVersion(u.targetBabelfishVersion, section);
+		CompassConfig.FeatureStatus fs = cfg.lookupFeatureStatus(u.targetBabelfishVersion, section);
+		fs.logStatusOverride();
+		instance.keepCfgCheck(fs.getCfgCheck());
+		String status = fs.getStatus();
+		if (VersionMatrix.enabled) VersionMatrix.recordCheck(VersionMatrix.checkSection, section, "", "", status);
+		if (CfgLookupTrace.recording) CfgLookupTrace.record(CfgLookupTrace.kindSupported, status, u.targetBabelfishVersion, section);
+		return status;
 	}
 	public static String featureSupportedInVersion(String section, String name) {
-		return cfg.featureSupportedInVersion(u.targetBabelfishVersion, section, name);
+		CompassConfig.FeatureStatus fs = cfg.lookupFeatureStatus(u.targetBabelfishVersion, section, name);
+		fs.logStatusOverride();
+		instance.keepCfgCheck(fs.getCfgCheck());
+		String status = fs.getStatus();
+		if (VersionMatrix.enabled) VersionMatrix.recordCheck(VersionMatrix.checkName, section, name, "", status);
+		if (CfgLookupTrace.recording) CfgLookupTrace.record(CfgLookupTrace.kindSupported, status, u.targetBabelfishVersion, section, name);
+		return status;
 	}
 	private static String featureSupportedInVersion(String section, String name, String optionValue) {
-		return cfg.featureSupportedInVersion(u.targetBabelfishVersion, section, name, optionValue);
+		CompassConfig.FeatureStatus fs = cfg.lookupFeatureStatus(u.targetBabelfishVersion, section, name, optionValue);
+		fs.logStatusOverride();
+		instance.keepCfgCheck(fs.getCfgCheck());
+		String status = fs.getStatus();
+		if (VersionMatrix.enabled) VersionMatrix.recordCheck(VersionMatrix.checkOption, section, name, optionValue, status);
+		if (CfgLookupTrace.recording) CfgLookupTrace.record(CfgLookupTrace.kindSupported, status, u.targetBabelfishVersion, section, name, optionValue);
+		return status;
 	}
 	private static int featureIntValueSupportedInVersion(String section) {
-		return cfg.featureIntValueSupportedInVersion(u.targetBabelfishVersion, section);
+		int value = cfg.featureIntValueSupportedInVersion(u.targetBabelfishVersion, section);
+		instance.keepCfgCheck(CompassConfig.CfgItem.forLookup(section.toUpperCase(), "", ""));
+		return value;
 	}
 	private static String featureValueSupportedInVersion(String section) {
-		return cfg.featureValueSupportedInVersion(u.targetBabelfishVersion, section);
+		String value = cfg.featureValueSupportedInVersion(u.targetBabelfishVersion, section);
+		instance.keepCfgCheck(CompassConfig.CfgItem.forLookup(section.toUpperCase(), "", ""));
+		return value;
 	}
 	private static List<String> featureValueList(String section) {
 		return cfg.featureValueList(section);
 	}
 	public static String featureGroup(String section) {
-		return cfg.featureGroup(section);
+		String group = cfg.featureGroup(section);
+		if (CfgLookupTrace.recording) CfgLookupTrace.record(CfgLookupTrace.kindGroup, group, section);
+		return group;
 	}
 	private static String featureGroup(String section, String name) {
-		return cfg.featureGroup(section, name);
+		String group = cfg.featureGroup(section, name);
+		if (CfgLookupTrace.recording) CfgLookupTrace.record(CfgLookupTrace.kindGroup, group, section, name);
+		return group;
 	}
 	private static String featureDefaultStatus(String section) {
-		return cfg.featureDefaultStatus(section);
+		String status = cfg.featureDefaultStatus(section);
+		if (CfgLookupTrace.recording) CfgLookupTrace.record(CfgLookupTrace.kindDefaultStatus, status, section);
+		return status;
 	}
 	private static String featureDefaultStatus(String section, String name) {
-		return cfg.featureDefaultStatus(section, name);
+		String status = cfg.featureDefaultStatus(section, name);
+		if (CfgLookupTrace.recording) CfgLookupTrace.record(CfgLookupTrace.kindDefaultStatus, status, section, name);
+		return status;
 	}
 
 	//--- debugging -----------------------------------------------------------
@@ -436,7 +469,7 @@ public class CompassAnalyze {
 		nestingLevel--;
 	}
 	void dbgVisitOutput(String s) {
-		if (u.debugging) u.dbgOutput(dbgTraceIndent + "(" + nestingLevel + ") " + s, u.debugPtree);
+		if (u.debugPtree) u.dbgOutput(dbgTraceIndent + "(" + nestingLevel + ") " + s, u.debugPtree);
 	}
 
 	//--- rule names ------------------------------------------------------------
@@ -444,43 +477,38 @@ public class CompassAnalyze {
 		return  CompassUtilities.grammarRuleNames[ruleIndex];
 	}
 
-	private String parentRuleName(RuleContext parent) {
-		return parentRuleName(parent, 1);
+	// ancestor lookups are by rule index (TSQLParser.RULE_*): CompassRuleContext keeps the rules of a node's ancestors,
+	// so that a lookup is a bit test rather than a walk up the tree with string compares
+	private int parentRuleIndex(RuleContext parent) {
+		return parentRuleIndex(parent, 1);
 	}
 
-	private String parentRuleName(RuleContext parent, int level) {
-		if (level <= 1) {  // should never be < 1 but play it safe
-			return CompassUtilities.grammarRuleNames[parent.getRuleIndex()];
-		}
-		else {
-			return parentRuleName(parent.parent, level-1);
+	private int parentRuleIndex(RuleContext parent, int level) {
+		for (int i = 1; i < level; i++) {
+			parent = parent.parent;
 		}
+		return parent.getRuleIndex();
 	}
 
-	private boolean hasParent(RuleContext parent, String parentRuleName) {
-		int ruleIxParent = parent.getRuleIndex();
-		if (CompassUtilities.grammarRuleNames[ruleIxParent].equals(CompassUtilities.startRuleName)) {
-			// top level reached
-			return false;
+	private boolean hasParent(RuleContext parent, int ruleIndex) {
+		if (parent instanceof CompassRuleContext) {
+			return ((CompassRuleContext) parent).inRule(ruleIndex);
 		}
-		else if (CompassUtilities.grammarRuleNames[ruleIxParent].equals(parentRuleName)) {
-			// found it
-			return true;
+		for (RuleContext p = parent; p.getRuleIndex() != TSQLParser.RULE_tsql_file; p = p.parent) {
+			if (p.getRuleIndex() == ruleIndex) return true;
 		}
-		return hasParent(parent.parent, parentRuleName);
+		return false;
 	}
 
-	private RuleContext findParent(RuleContext parent, String parentRuleName) {
-		int ruleIxParent = parent.getRuleIndex();
-		if (CompassUtilities.grammarRuleNames[ruleIxParent].equals(CompassUtilities.startRuleName)) {
-			// top level reached
+	private RuleContext findParent(RuleContext parent, int ruleIndex) {
+		if (!hasParent(parent, ruleIndex)) {
 			return null;
 		}
-		else if (CompassUtilities.grammarRuleNames[ruleIxParent].equals(parentRuleName)) {
-			// found it
-			return parent;
+		RuleContext p = parent;
+		while (p.getRuleIndex() != ruleIndex) {
+			p = p.parent;
 		}
-		return findParent(parent.parent, parentRuleName);
+		return p;
 	}
 
 	// covnert a section of a parse tree to text
@@ -503,7 +531,7 @@ public class CompassAnalyze {
 			TSQLLexer.QUOTED_IDENTIFIER_FLAG = false;
 			u.QuotedIdentifierFlag = false;
 		}
-		if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"initializing QUOTED_IDENTIFIER="+on_off, u.debugPtree);
+		if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"initializing QUOTED_IDENTIFIER="+on_off, u.debugPtree);
 	}
 
 	//--- datatype evaluation -------------------------------------------------
@@ -511,17 +539,17 @@ public class CompassAnalyze {
 	private String varDataType(String v) {
 		// look up datatype of this variable or parameter
 		// ToDo: can also be a system-defined @@variable
-		if (localVars.containsKey(v.toUpperCase())) {
-			String varType = localVars.get(v.toUpperCase());
+		if (batchContext.localVars.containsKey(v.toUpperCase())) {
+			String varType = batchContext.localVars.get(v.toUpperCase());
 			String UDDtype = lookupUDD(varType);
 			if (!UDDtype.isEmpty()) {
 				if (!UDDtype.equals(Undefined)) varType = UDDtype;
 			}
-			if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"v=["+v+"]  varType=["+varType+"]  UDDtype=["+UDDtype+"] ", u.debugPtree);
+			if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"v=["+v+"]  varType=["+varType+"]  UDDtype=["+UDDtype+"] ", u.debugPtree);
 			return varType.toUpperCase();
 		}
 		else {
-			if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"v=["+v+"]  var not found  ", u.debugPtree);
+			if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"v=["+v+"]  var not found  ", u.debugPtree);
 		}
 		// unknown as catchall
 		return CompassUtilities.BBFUnknownType;
@@ -570,7 +598,12 @@ public class CompassAnalyze {
 	}
 
 	// get base scalar datatype for checking against .cfg file
+	private final BoundedCache<String, String> baseDataTypeCache = new BoundedCache<>("getBaseDataType", 5000);
+	private final Function<String, String> baseDataTypeFunc = this::getBaseDataTypeUncached;
 	private String getBaseDataType(String s) {
+		return baseDataTypeCache.get(s, baseDataTypeFunc);
+	}
+	private String getBaseDataTypeUncached(String s) {
 		// ToDo: find base type for UDD
 		if (s.contains("CHAR VARYING")) s = u.applyPatternFirst(s, "CHAR VARYING", "CHARACTER VARYING");
 		if (s.contains("NATIONAL CHAR")) s = u.applyPatternFirst(s, "NATIONAL CHAR\\b", "NATIONAL CHARACTER");
@@ -714,24 +747,29 @@ public class CompassAnalyze {
 		}
 		if (resultType.isEmpty()) {
 			// is this a system datatype?	
-			resolvedName = u.getObjectNameFromID(resolvedName);
-
-			if (baseNumericTypes.contains(getBaseDataType(resolvedName))) return "";
-			if (baseStringTypes.contains(getBaseDataType(resolvedName))) return "";
-			if (baseDateTimeTypes.contains(getBaseDataType(resolvedName))) return "";
-			if (baseBinaryTypes.contains(getBaseDataType(resolvedName))) return "";
-			if (baseGeospatialTypes.contains(getBaseDataType(resolvedName))) return "";
-			if (baseMiscTypes.contains(getBaseDataType(resolvedName))) return "";
-			if (resolvedName.equalsIgnoreCase("XML(xmlschema)")) return "";
-						
-			// not a system datatype, so assuming it is a UDD for which we don't have the DDL
-			return Undefined;
+			return systemDataTypeCache.get(u.getObjectNameFromID(resolvedName), systemDataTypeFunc);
 		}
 		
 		// it's a UDD:
 		return resultType;
 	}
 
+	// blank for a system datatype, otherwise undefined
+	private final BoundedCache<String, String> systemDataTypeCache = new BoundedCache<>("lookupUDD system datatype", 5000);
+	private final Function<String, String> systemDataTypeFunc = this::systemDataType;
+	private String systemDataType(String name) {
+		if (baseNumericTypes.contains(getBaseDataType(name))) return "";
+		if (baseStringTypes.contains(getBaseDataType(name))) return "";
+		if (baseDateTimeTypes.contains(getBaseDataType(name))) return "";
+		if (baseBinaryTypes.contains(getBaseDataType(name))) return "";
+		if (baseGeospatialTypes.contains(getBaseDataType(name))) return "";
+		if (baseMiscTypes.contains(getBaseDataType(name))) return "";
+		if (name.equalsIgnoreCase("XML(xmlschema)")) return "";
+					
+		// not a system datatype, so assuming it is a UDD for which we don't have the DDL
+		return Undefined;
+	}
+
 	// lookup an procedure
 	private String lookupProc(String name) {
 		String resultType = "";
@@ -786,35 +824,35 @@ public class CompassAnalyze {
 	// Given a name, try to find the object type. if not found, it's probably a procedure since we don't keep those in the symtab
 	// This is used to report the object type for synonyms
 	private String findObjectType(String objName) {
-		if (u.debugging) u.dbgOutput(u.thisProc()+"entry: objName=["+objName+"] ", u.debugSymtab);
+		if (u.debugSymtab) u.dbgOutput(u.thisProc()+"entry: objName=["+objName+"] ", u.debugSymtab);
 		objName = objName.toUpperCase();
 		String objType = "";
 		objType = lookupTableView(objName);
-		if (u.debugging) u.dbgOutput(u.thisProc()+"lookupTableView: objType=["+objType+"] ", u.debugSymtab);			
+		if (u.debugSymtab) u.dbgOutput(u.thisProc()+"lookupTableView: objType=["+objType+"] ", u.debugSymtab);			
 		if (objType.isEmpty()) {
 			objType = lookupSUDF(objName);
-			if (u.debugging) u.dbgOutput(u.thisProc()+"lookupSUDF: objType=["+objType+"] ", u.debugSymtab);	
+			if (u.debugSymtab) u.dbgOutput(u.thisProc()+"lookupSUDF: objType=["+objType+"] ", u.debugSymtab);	
 			if (!objType.isEmpty()) objType = "FUNCTION";
 		}
 		if (objType.isEmpty()) {
 			objType = lookupTUDF(objName);
-			if (u.debugging) u.dbgOutput(u.thisProc()+"lookupTUDF: objType=["+objType+"] ", u.debugSymtab);	
+			if (u.debugSymtab) u.dbgOutput(u.thisProc()+"lookupTUDF: objType=["+objType+"] ", u.debugSymtab);	
 			if (!objType.isEmpty()) objType = "FUNCTION";			
 		}		
 		if (objType.isEmpty()) {
 			objType = lookupProc(objName);
-			if (u.debugging) u.dbgOutput(u.thisProc()+"lookupProc: objType=["+objType+"] ", u.debugSymtab);	
+			if (u.debugSymtab) u.dbgOutput(u.thisProc()+"lookupProc: objType=["+objType+"] ", u.debugSymtab);	
 		}		
 		if (objType.isEmpty()) {
 			// leave blank - cannot find the name	
 		}		
-		if (u.debugging) u.dbgOutput(u.thisProc()+"exit: objName=["+objName+"]  objType=["+objType+"] ", u.debugSymtab);		
+		if (u.debugSymtab) u.dbgOutput(u.thisProc()+"exit: objName=["+objName+"]  objType=["+objType+"] ", u.debugSymtab);		
 		return objType;
 	}
 												
 	// contains variables and parameters applicable to the current batch/block
 	public void addLocalVar(String varName, String dataType) {
-		localVars.put(varName.toUpperCase(), getBaseDataType(dataType).toUpperCase());
+		batchContext.localVars.put(varName.toUpperCase(), getBaseDataType(dataType).toUpperCase());
 		//debug
 //		int j=0;
 //		for (String v: localVars.keySet()) {
@@ -835,7 +873,7 @@ public class CompassAnalyze {
 
 	// contains variables containing an @@ERROR value context
 	public void addAtAtErrorVars(String varName) {
-		localAtAtErrorVars.put(varName.toUpperCase(), "");
+		batchContext.localAtAtErrorVars.put(varName.toUpperCase(), "");
 	}
 
 	// determine kind of temp table
@@ -974,7 +1012,7 @@ public class CompassAnalyze {
 			return false;
 		}
 
-		if (u.debugging) u.dbgOutput(u.thisProc()+"rewriteID=["+rewriteID+"] rewriteType=["+rewriteType+"] origText=["+origText+"] => ["+rewriteText+"] startLine=["+startLine+"]  u.lineNrInFile=["+u.lineNrInFile+"] startLineinBatch=["+startLine+"] startLine=["+startLine+"] startCol=["+startCol+"] endLine=["+endLine+"] endCol=["+endCol+"] startPos=["+startPos+"] endPos=["+endPos+"] ", u.debugRewrite);
+		if (u.debugRewrite) u.dbgOutput(u.thisProc()+"rewriteID=["+rewriteID+"] rewriteType=["+rewriteType+"] origText=["+origText+"] => ["+rewriteText+"] startLine=["+startLine+"]  u.lineNrInFile=["+u.lineNrInFile+"] startLineinBatch=["+startLine+"] startLine=["+startLine+"] startCol=["+startCol+"] endLine=["+endLine+"] endCol=["+endCol+"] startPos=["+startPos+"] endPos=["+endPos+"] ", u.debugRewrite);
 		
 		String separator = CompassUtilities.captureFileSeparator;
 		int startLineInFile = u.lineNrInFile + startLine - 1;
@@ -983,7 +1021,7 @@ public class CompassAnalyze {
 		// if it's a single token only, determine last column
 		if ((startLine == endLine) && (startCol == endCol) && (origText.length()>0)) endCol = startCol + origText.length() -1;
 
-		if (u.debugging) u.dbgOutput(u.thisProc()+"rewriteID=["+rewriteID+"] rewriteType=["+rewriteType+"] origText=["+origText+"] => ["+rewriteText+"] startLineInFile=["+startLineInFile+"]  u.lineNrInFile=["+u.lineNrInFile+"] startLineinBatch=["+startLine+"] startLine=["+startLine+"] startCol=["+startCol+"] endLine=["+endLine+"] endCol=["+endCol+"] startPos=["+startPos+"] endPos=["+endPos+"] ", u.debugRewrite);
+		if (u.debugRewrite) u.dbgOutput(u.thisProc()+"rewriteID=["+rewriteID+"] rewriteType=["+rewriteType+"] origText=["+origText+"] => ["+rewriteText+"] startLineInFile=["+startLineInFile+"]  u.lineNrInFile=["+u.lineNrInFile+"] startLineinBatch=["+startLine+"] startLine=["+startLine+"] startCol=["+startCol+"] endLine=["+endLine+"] endCol=["+endCol+"] startPos=["+startPos+"] endPos=["+endPos+"] ", u.debugRewrite);
 		
 		if ((startCol < 0) || (endCol < 0) || (startPos < 0) || (endPos < 0)) {
 			if (startCol < 0) u.appOutput(u.thisProc()+"Internal error: startCol=["+startCol+"] Skipping rewrite.");
@@ -1008,7 +1046,7 @@ public class CompassAnalyze {
 
 		String sortKey = String.format("%08d", u.batchNrInFile) +separator+ String.format("%08d", startPos) + separator + String.format("%08d", endPos) + separator + String.format("%08d", startLineInFile) + separator + String.format("%08d", startCol);
 		String key = sortKey + separator+ u.lineNrInFile +separator+ endLineInFile + separator + endCol + separator + rewriteType + separator + report;
-		if (u.debugging) u.dbgOutput(u.thisProc()+"adding key(batch;startPos;endPos;startLineInFile;startCol;lineNrInFile;endLineInFile)=["+key+"] ", u.debugRewrite);
+		if (u.debugRewrite) u.dbgOutput(u.thisProc()+"adding key(batch;startPos;endPos;startLineInFile;startCol;lineNrInFile;endLineInFile)=["+key+"] ", u.debugRewrite);
 		u.rewriteTextListKeys.add(key);
 		u.rewriteTextList.put(key, rewriteText);
 		return true;
@@ -1022,28 +1060,20 @@ public class CompassAnalyze {
 
 	// get text representation of subtree, with spaces between tokens and string constants removed
 	private String getTextSpaced(ParseTree ctx) {
-		String t = ctx.getText();
-		if (ctx.getChildCount() == 0) {
-			if (u.stripStringQuotes(t).length() != t.length()) {
-				return "''";
-			}
-			return t;
-		}
-
-		String s = "";
-		for (int i = 0; i <ctx.getChildCount(); i++) {
-		    s += getTextSpaced(ctx.getChild(i)) + " ";
-		}
-		s = s.replaceAll(" \\. ", ".");
-		s = s.replaceAll("\\(", "( ");
-		s = s.replaceAll("\\) ", " )");
-		while (s.contains("  ")) {
-			s = s.replaceAll("  ", " ");
-		}
-		return " " + s.trim() + " ";
+		return batchContext.text.spaced(ctx);
 	}
 			
 	//--- item capture entry point --------------------------------------------
+	private final CaptureRecordWriter captureRecord = new CaptureRecordWriter();
+
+	// the last .cfg lookup for a feature that is not supported, kept until an item is captured: it links the captured item to
+	// its .cfg section and name (the report group of an item can be different), for finding the complexity and effort of the item
+	private CompassConfig.CfgItem lastCfgCheck = CompassConfig.CfgItem.none;
+
+	private void keepCfgCheck(CompassConfig.CfgItem cfgCheck) {
+		if (cfgCheck != null) lastCfgCheck = cfgCheck;
+	}
+
 	protected void captureItem(String item, String itemDetail, String section, String sectionItem, String status, Integer lineNr) {
 		captureItem(item, itemDetail, section, sectionItem, status, lineNr, "");
 	}
@@ -1051,21 +1081,28 @@ public class CompassAnalyze {
 		captureItem(item, itemDetail, section, sectionItem, status, lineNr, misc.toString());
 	}
 	protected void captureItem(String item, String itemDetail, String section,  String sectionItem, String status, Integer lineNr, String misc) {
+		captureItem(item, itemDetail, section, sectionItem, status, lineNr, misc, lastCfgCheck);
+		// Only wipe out in case the current item is not supported since we do complexity scores only for NotSupported items
+		if (status.equals(u.NotSupported)) {
+			lastCfgCheck = CompassConfig.CfgItem.none;
+		}
+	}
+	private void captureItem(String item, String itemDetail, String section,  String sectionItem, String status, Integer lineNr, String misc, CompassConfig.CfgItem cfgCheck) {
 		assert u.supportOptions.contains(status): CompassUtilities.thisProc()+"invalid status value: ["+status+"] ";
 		if (!status.equals(u.ObjCountOnly) && !status.equals(u.ObjectReference)) u.constructsFound++;
+		if (VersionMatrix.enabled) VersionMatrix.recordCapture(u.currentAppName, status);
 
 		String separator = CompassUtilities.captureFileSeparator;
-
-		String currentContext = u.currentObjectType + " " + u.currentObjectName;
-		String subContext = u.currentObjectTypeSub + " " + u.currentObjectNameSub;
+		String marker = CompassUtilities.captureFileSeparatorMarker;
 
 		// for CREATE TABLE, if the context is set to the table itself, reset it
-		if (item.startsWith("CREATE TABLE") && u.currentObjectType.equals("TABLE")) currentContext = u.BatchContext;
+		boolean batchContext = item.startsWith("CREATE TABLE") && u.currentObjectType.equals("TABLE");
 
 		// check if an item has a modified presentation string
 		item = item.trim();
-		if (displayString.containsKey(item)) {
-			item = displayString.get(item);
+		String displayItem = displayString.get(item);
+		if (displayItem != null) {
+			item = displayItem;
 		}
 
 		// determine report group for this item
@@ -1076,7 +1113,7 @@ public class CompassAnalyze {
 		//   - if no group found, use Misc SQL features
 		String itemGroup = section;
 		String reportGroupCfg = "";
-		if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"getting reportGroup: section=["+section+"] sectionItem=["+sectionItem+"]  item=["+item+"] status=["+status+"] ", u.debugCfg);
+		if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc()+"getting reportGroup: section=["+section+"] sectionItem=["+sectionItem+"]  item=["+item+"] status=["+status+"] ", u.debugCfg);
 		if (!status.equals(u.ObjectReference)) {
 			if (!sectionItem.isEmpty()) {
 				reportGroupCfg = featureGroup(section, sectionItem);
@@ -1090,103 +1127,57 @@ public class CompassAnalyze {
 			else {
 				reportGroupCfg = featureGroup(section);
 			}
-			if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"reportGroupCfg=["+reportGroupCfg+"] ", u.debugCfg);
+			if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc()+"reportGroupCfg=["+reportGroupCfg+"] ", u.debugCfg);
 			if (!reportGroupCfg.isEmpty()) itemGroup = reportGroupCfg;
 			if (itemGroup.isEmpty() || itemGroup.equalsIgnoreCase("DEFAULT")) {
 				itemGroup = MiscReportGroup;
-				if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"section=["+section+"] sectionItem=["+sectionItem+"], using MiscReportGroup=["+MiscReportGroup+"] ", u.debugCfg);
+				if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc()+"section=["+section+"] sectionItem=["+sectionItem+"], using MiscReportGroup=["+MiscReportGroup+"] ", u.debugCfg);
 			}
 		}
 
-		// check for separator in text
-		if (item.contains(separator)) item = item.replaceAll(separator, CompassUtilities.captureFileSeparatorMarker);
-		if (itemDetail.contains(separator)) itemDetail = itemDetail.replaceAll(separator, CompassUtilities.captureFileSeparatorMarker);
-		if (itemGroup.contains(separator)) itemGroup = itemGroup.replaceAll(separator, CompassUtilities.captureFileSeparatorMarker);
-		if (currentContext.contains(separator)) currentContext = currentContext.replaceAll(separator, CompassUtilities.captureFileSeparatorMarker);
-		if (subContext.contains(separator)) subContext = subContext.replaceAll(separator, CompassUtilities.captureFileSeparatorMarker);
-		itemGroup = itemGroup.trim();
+		// check for separator in text; for the object context, this is done when writing the record
+		item = CompassUtilities.replaceAllLiteral(item, separator, marker);
+		itemDetail = CompassUtilities.replaceAllLiteral(itemDetail, separator, marker);
+		itemGroup = CompassUtilities.replaceAllLiteral(itemGroup, separator, marker).trim();
 
 		// for (optional) effort estimation, try to link the original cfg section/item to what is shown in the report (since the effort estimation csv file is based on the report)
-		//u.appOutput(u.thisProc()+"lastCfgCheck=["+CompassConfig.lastCfgCheckSection+"] name=["+CompassConfig.lastCfgCheckName+"] ");
+		//u.appOutput(u.thisProc()+"cfgCheck=["+cfgCheck+"] ");
 		//u.appOutput(u.thisProc()+"item=["+item+"]  itemGroup=["+itemGroup+"] sectionItem=["+sectionItem+"] status=["+status+"] ");
 		String xrefLine = "";
 		if (!status.equals(u.Supported) && !status.equals(u.RewriteOppty)) {
-			if (!CompassConfig.lastCfgCheckSection.isEmpty()) {
-				String xrefLineKey = item +separator+ itemGroup +separator+ CompassConfig.lastCfgCheckSection +separator+ CompassConfig.lastCfgCheckName+separator;
-				xrefLineKey = xrefLineKey.toUpperCase();
+			if (!cfgCheck.isEmpty()) {
+				String xrefLineKey = captureRecord.start().field(item).field(itemGroup).field(cfgCheck.section).field(cfgCheck.name).toString().toUpperCase();
 				if (!u.xrefLineFilter.containsKey(xrefLineKey)) {
 					u.xrefLineFilter.put(xrefLineKey, 1);
-					//u.appOutput(u.thisProc()+"keep: ["+CompassConfig.lastCfgCheckSection+"], ["+CompassConfig.lastCfgCheckName+"]  ==>  ["+itemGroup+"], ["+item+"], ["+sectionItem+"]");
-					xrefLine = item +separator+ "" +separator+ itemGroup +separator+ u.XRefOnly +separator+ CompassConfig.lastCfgCheckSection +separator+ CompassConfig.lastCfgCheckName +separator+ "" +separator+ "" +separator+ "" +separator+ "" +separator+ "" +separator+ "" + separator + "~" + separator;
+					//u.appOutput(u.thisProc()+"keep: ["+cfgCheck+"]  ==>  ["+itemGroup+"], ["+item+"], ["+sectionItem+"]");
+					xrefLine = item +separator+ "" +separator+ itemGroup +separator+ u.XRefOnly +separator+ cfgCheck.section +separator+ cfgCheck.name +separator+ "" +separator+ "" +separator+ "" +separator+ "" +separator+ "" +separator+ "" + separator + "~" + separator;
 				}
 			}
 		}
-		// Only wipe out in case the current item is not supported since we do complexity scores only for NotSupported items
-		if (status.equals(u.NotSupported)) {
-			CompassConfig.lastCfgCheckSection = "";
-			CompassConfig.lastCfgCheckName = "";
-		}
-
 		// newlines are allowed in delimited identifiers (very rare, but possible). Remove 'm from itemDetail
 		// treat these chars the same as when writing to the symtab
-		if (itemDetail.contains("\n") || itemDetail.contains("\r")) {
-			if (u.debugging) u.dbgOutput("Newline or CR found in itemDetail (removed): ["+itemDetail+"] ", u.debugSymtab||u.debugPtree);
-			itemDetail = itemDetail.replaceAll("\\n", " ");
-			itemDetail = itemDetail.replaceAll("\\r", " ");
+		if (itemDetail.indexOf('\n') >= 0 || itemDetail.indexOf('\r') >= 0) {
+			if (u.debugSymtab||u.debugPtree) u.dbgOutput("Newline or CR found in itemDetail (removed): ["+itemDetail+"] ", u.debugSymtab||u.debugPtree);
+			itemDetail = itemDetail.replace('\n', ' ').replace('\r', ' ');
 		}
 
 		// create the record
 		// NB: this format corresponds to 'captureFileFormatVersion = 1'
 		// if this format is ever changed, we need to provide backward compatibility to avoid breaking apps relying on the format; also potentially affects -pgimport upload file preparation
-		String currentContext_copy = currentContext;
-		String subContext_copy = subContext;
+		captureRecord.start().field(item).trimmed(itemDetail).field(itemGroup).field(status);
 		if (Compass.analyzingDynamicSQL) {
-			lineNr = Compass.dynamicSQLLineNr + lineNr - 1;
-			currentContext_copy = Compass.dynamicSQLContext;
-			subContext_copy = Compass.dynamicSQLSubContext;
-		}
-		String itemLine = item +separator+ itemDetail.trim() +separator+ itemGroup +separator+ status +separator+ lineNr +separator+ u.currentAppName +separator+ u.currentSrcFile  +separator+ u.batchNrInFile +separator+ u.lineNrInFile +separator+ currentContext_copy.trim() +separator+ subContext_copy.trim() +separator+ misc + separator + "~" + separator;
-
-		// check for newlines -- these will mess everything up (could still occur due to identifiers containing a newline)
-		// printing a warning so that any cases that may results from bugs, are not being lost and may be reported back
-		// ToDo: also check for \f, VT, etc?
-		if (itemLine.contains("\r\n")) {
-			u.appOutput("CRLF found in captured item: ["+itemLine+"] ");
-			itemLine = itemLine.replaceAll("\\r\\n", "  ");
-			if (CompassUtilities.devOptions) {
-				u.errorExitStackTrace();
-				// we'll never get here
-			}
-			u.appOutput("Continuing with CRLF removed, but errors may occur.");
-		}
-
-		if (itemLine.contains("\n")) {
-			u.appOutput("Newline found in captured item: ["+itemLine+"] ");
-			itemLine = itemLine.replaceAll("\\n", " ");
-			if (CompassUtilities.devOptions) {
-				u.errorExitStackTrace();
-				// we'll never get here
-			}
-			u.appOutput("Continuing with newline removed, but errors may occur.");
+			lineNr = Compass.dynamicSQLItem.lineNr + lineNr - 1;
+			captureRecord.field(lineNr).field(u.currentAppName).field(u.currentSrcFile).field(u.batchNrInFile).field(u.lineNrInFile);
+			captureRecord.trimmed(Compass.dynamicSQLItem.context).trimmed(Compass.dynamicSQLItem.subContext);
 		}
-
-		if (itemLine.contains("\r")) {
-			u.appOutput("Carriage Return found in captured item: ["+itemLine+"] ");
-			itemLine = itemLine.replaceAll("\\r", " ");
-			if (CompassUtilities.devOptions) {
-				u.errorExitStackTrace();
-				// we'll never get here
-			}
-			u.appOutput("Continuing with Carriage Return removed, but errors may occur.");
-		}
-
-		// avoid end-of-input chars (\.) , for later loading into PG through COPY
-		if (itemLine.contains("\\")) {
-			itemLine = u.applyPatternAll(itemLine, "\\\\", "\\\\\\\\");
+		else {
+			captureRecord.field(lineNr).field(u.currentAppName).field(u.currentSrcFile).field(u.batchNrInFile).field(u.lineNrInFile);
+			if (batchContext) captureRecord.context(u.BatchContext);
+			else captureRecord.context(u.currentObjectType, u.currentObjectName);
+			captureRecord.context(u.currentObjectTypeSub, u.currentObjectNameSub);
 		}
-
-		// cleanup
-		itemLine = u.applyPatternAll(itemLine, ",\\s*,", ",");
+		captureRecord.field(misc).field("~");
+		String itemLine = captureRecord.line();
 
 		//write record
 		try {
@@ -1216,7 +1207,7 @@ public class CompassAnalyze {
 	//--- actual capturing of SELECT -----------------------------------------------
 
 	private void captureSELECT(CompassItem sel, int qID) {
-		if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"stmt: qID=["+qID+"] name=["+sel.getName()+"] (line "+sel.getLineNr()+") attributes=["+sel.getAttributes()+"]", u.debugPtree);		
+		if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"stmt: qID=["+qID+"] name=["+sel.getName()+"] (line "+sel.getLineNr()+") attributes=["+sel.getAttributes()+"]", u.debugPtree);		
 		if (sel.getName().equals("SELECT")) {
 			String item = "SELECT";
 			if (sel.getAttributes().contains(" SUBQUERY ")) {
@@ -1314,7 +1305,7 @@ public class CompassAnalyze {
 		}
 		else {
 			// this may not be relevant anymore after the grammar incorporates XMLNAMESPACES as part of CTE
-			if (hasParent(parent,"declare_xmlnamespaces_statement")) {
+			if (hasParent(parent, TSQLParser.RULE_declare_xmlnamespaces_statement)) {
 				String status = featureSupportedInVersion(XMLFeatures,"WITH XMLNAMESPACES");
 				captureItem("WITH XMLNAMESPACES.."+stmt, "", XMLFeatures, "WITH XMLNAMESPACES", status, lineNr);
 			}
@@ -1389,15 +1380,11 @@ public class CompassAnalyze {
 	// --- handling SET QUOTED_IDENTIFIER ----------------------------------------------
 
 	// Get ancestor by its name
-	private RuleContext getRule (RuleContext ctx, String name) {
-		if (ctx == null || name == null) {
-			return null;
+	private RuleContext getRule (RuleContext ctx, int ruleIndex) {
+		while (ctx != null && ctx.getRuleIndex() != ruleIndex) {
+			ctx = ctx.parent;
 		}
-		String ruleName = CompassUtilities.grammarRuleNames[ctx.getRuleIndex()];
-		if (ruleName.equals(name)) {
-			return ctx;
-		}
-		return getRule(ctx.parent, name);
+		return ctx;
 	}
 
 	private void captureQuotedIdentifierInBatch(TSQLParser.Set_specialContext ctx, String on_off) {
@@ -1429,9 +1416,9 @@ public class CompassAnalyze {
 
 	private void detectSetQuotedIdentifier(int passNr, TSQLParser.Set_specialContext ctx, String option) {
 		if (option.equals("QUOTED_IDENTIFIER")) {
-			if (hasParent(ctx.parent,"create_or_alter_procedure") ||
-					hasParent(ctx.parent,"create_or_alter_function") ||
-					hasParent(ctx.parent,"create_or_alter_trigger")
+			if (hasParent(ctx.parent, TSQLParser.RULE_create_or_alter_procedure) ||
+					hasParent(ctx.parent, TSQLParser.RULE_create_or_alter_function) ||
+					hasParent(ctx.parent, TSQLParser.RULE_create_or_alter_trigger)
 			) {
 				// don't do anything -- inside a proc/func body, SET QUOTED_IDENTIFIER has no effect
 			}
@@ -1440,20 +1427,18 @@ public class CompassAnalyze {
 				TSQLLexer.QUOTED_IDENTIFIER_FLAG = on_off.equals("ON");
 				u.QuotedIdentifierFlag = TSQLLexer.QUOTED_IDENTIFIER_FLAG;
 
-				if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"pass" + passNr + ": setting QUOTED_IDENTIFIER: on_off=["+on_off+"]  TSQLLexer.QUOTED_IDENTIFIER_FLAG=["+TSQLLexer.QUOTED_IDENTIFIER_FLAG+"] ", u.debugPtree);
+				if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"pass" + passNr + ": setting QUOTED_IDENTIFIER: on_off=["+on_off+"]  TSQLLexer.QUOTED_IDENTIFIER_FLAG=["+TSQLLexer.QUOTED_IDENTIFIER_FLAG+"] ", u.debugPtree);
 				if (passNr == 2) {
 					TSQLParser.Sql_clausesContext sqlClauses;
 					RuleContext parentSqlClauses = ctx;
-					String parentSqlClausesName = "";
 
 					while (true) {
 						do {
-							sqlClauses = (TSQLParser.Sql_clausesContext) getRule(parentSqlClauses, "sql_clauses");
+							sqlClauses = (TSQLParser.Sql_clausesContext) getRule(parentSqlClauses, TSQLParser.RULE_sql_clauses);
 							parentSqlClauses = sqlClauses.parent;
-							parentSqlClausesName = CompassUtilities.grammarRuleNames[parentSqlClauses.getRuleIndex()];
-						} while (parentSqlClausesName.equals("block_statement"));
+						} while (parentSqlClauses.getRuleIndex() == TSQLParser.RULE_block_statement);
 
-						if (parentSqlClausesName.equals(CompassUtilities.startRuleName)) {
+						if (parentSqlClauses.getRuleIndex() == TSQLParser.RULE_tsql_file) {
 							// check if it's the last statement in the sql_clauses list
 							TSQLParser.Tsql_fileContext tsqlCtx = (TSQLParser.Tsql_fileContext) parentSqlClauses;
 							int sqlClauseIndex = tsqlCtx.sql_clauses().indexOf(sqlClauses);
@@ -1476,38 +1461,99 @@ public class CompassAnalyze {
 
 	// ---------------------------------------------------------------------------------
 
-	public void analyzeTree(TSQLParser.Tsql_fileContext tree, Integer batchNr, Integer batchLines, Integer pass)  {
-		final StringBuilder visitTracker = new StringBuilder("");
-		Map<Integer, CompassItem> stmt = new HashMap<Integer, CompassItem>();
+	// the batch being analyzed, as seen by the visitors below
+	// a new one is made for every batch, so nothing carries over from the previous batch
+	static class BatchContext {
+		final Integer batchNr;
+		final Integer batchLines;
+		final Integer pass;
+		// SELECT statements found in pass 2, by query ID; these are classified once the whole batch has been visited
+		final Map<Integer, CompassItem> stmt = new HashMap<>();
+		// text of the nodes of the batch's parse tree
+		final BatchText text;
+
+		// variables/parameters only for current object
+		final Map<String, String> localVars = new HashMap<>();
+		final Map<String, String> localAtAtErrorVars = new HashMap<>();
+
+		// where pass 2 is in the batch
+		int queryCnt = 0;
+		int queryIDNr = 0;
+		int selectListColumnNr = 0;
+		int selectListNrColumns = 0;
+		boolean inAtAtErrorPredicate = false;
+		boolean inExistsPredicate = false;
+		boolean inCTE = false;
+		boolean inCTESelectAttribute = false;
+		boolean inPivot = false;
+		int lineNrPivot = 0;
+		boolean inAnsiJoin = false;
+		boolean inCommaJoin = false;
+		boolean inSubquery = false;
+		boolean inDerivedTB = false;
+		boolean inSelectStandalone = false;
+		boolean inTUDFCall = false;
+		boolean inMultiStmtTUDF = false;
+		boolean hasSystemVersioningColumn = false;
+		final List<String> hasDeclareCursorName = new ArrayList<>();
+		boolean STRING_AGG_WITHIN_GROUP = false;
+		int execute_statement_argParamCount = 0;
+		String execute_statement_procName = "";
+		String updVarAssign = "";
+		final Map<String, TSQLParser.ExpressionContext> variableAssignDepends = new HashMap<String, TSQLParser.ExpressionContext>();
+		final Stack<Integer> queryID = new Stack<>();
+
+		// the BatchText is reused from batch to batch, as it keeps its buffers
+		BatchContext(ParseTree tree, Integer batchNr, Integer batchLines, Integer pass, BatchText text) {
+			this.batchNr = batchNr;
+			this.batchLines = batchLines;
+			this.pass = pass;
+			this.text = text;
+			text.reset(tree);
+		}
+	}
+
+	private final BatchText batchText = new BatchText();
+	private BatchContext batchContext = new BatchContext(null, 0, 0, 0, batchText);
+	private Pass1Analysis pass1Analysis = null;
+	private Pass2Analysis pass2Analysis = null;
+
+	// pass 1: collect the symbol table, and settings affecting the parsing of subsequent batches
+	class Pass1Analysis extends TSQLParserBaseVisitor<String> {
+			private BatchContext bc;
+
+			// start of a new batch
+			void reset(BatchContext bc) {
+				this.bc = bc;
+			}
 
-		TSQLParserBaseVisitor<String> pass1Analysis = new TSQLParserBaseVisitor<String>() {
 
 			@Override public String visitSet_special(TSQLParser.Set_specialContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitSet_special");
 				int nrOptions = ctx.set_on_off_option().size();
 				int nrId = ctx.id().size();
 				if (nrOptions > 0) {
 					List<TSQLParser.Set_on_off_optionContext> options = ctx.set_on_off_option();
 					for (int i=0; i<nrOptions; i++) {
 						String option = options.get(i).getText().toUpperCase();
-						detectSetQuotedIdentifier(pass, ctx, option);
+						detectSetQuotedIdentifier(bc.pass, ctx, option);
 					}
 				}
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitSet_special");
 				return null;
 			}
 
 			@Override public String visitUse_statement(TSQLParser.Use_statementContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitUse_statement");
 				u.setCurrentDB(ctx.dbname.getText().toUpperCase());
 				//visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitUse_statement");
 				return null;
 			}
 
 			@Override public String visitCreate_type(TSQLParser.Create_typeContext ctx) {
 				// this is duplicated in pass 2
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitCreate_type");
 				String UDDname = ctx.simple_name().getText();
 				String UDDdatatype = "";
 				if (ctx.FROM() != null) {
@@ -1525,27 +1571,27 @@ public class CompassAnalyze {
 				
 				u.addUDDSymTab(UDDname.toUpperCase(), UDDdatatype);
 				//visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitCreate_type");
 				return null;
 			}
 			
 			@Override public String visitExecute_body(TSQLParser.Execute_bodyContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitExecute_body");
 				if (ctx.func_proc_name_server_database_schema() != null) {
 					HandleSystemProcPass1(ctx.func_proc_name_server_database_schema(), ctx.execute_statement_arg());
 				}
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitExecute_body");
 				return null;
 			}
 
 			@Override public String visitExecute_body_batch(TSQLParser.Execute_body_batchContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());			
+				if (u.debugPtree) dbgTraceVisitEntry("visitExecute_body_batch");			
 				if (ctx.func_proc_name_server_database_schema() != null) {
 					HandleSystemProcPass1(ctx.func_proc_name_server_database_schema(), ctx.execute_statement_arg().get(0));
 				}
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitExecute_body_batch");
 				return null;
 			}
 			
@@ -1572,26 +1618,26 @@ public class CompassAnalyze {
 			}						
 		
 			@Override public String visitCreate_table(TSQLParser.Create_tableContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitCreate_table");
 				String tableName = ctx.table_name().getText().toUpperCase();
 				u.addtableViewSymTab(tableName, "TABLE");
 				u.setContext("TABLE", tableName);
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitCreate_table");
 				return null;
 			}
 
 			@Override public String visitCreate_or_alter_view(TSQLParser.Create_or_alter_viewContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitCreate_or_alter_view");
 				String viewName = ctx.simple_name().getText().toUpperCase();
 				u.addtableViewSymTab(viewName, "VIEW");
 				//visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitCreate_or_alter_view");
 				return null;
 			}
 
 			@Override public String visitCreate_or_alter_function(TSQLParser.Create_or_alter_functionContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitCreate_or_alter_function");
 				String funcName = ctx.func_proc_name_schema().getText();
 				if (ctx.func_body_returns_scalar() != null) {
 					String sudfDataType = u.normalizeName(ctx.func_body_returns_scalar().data_type().getText().toUpperCase(), "datatype");
@@ -1606,12 +1652,12 @@ public class CompassAnalyze {
 
 				//visitChildren(ctx);
 
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitCreate_or_alter_function");
 				return null;
 			}
 
 			@Override public String visitCreate_or_alter_procedure(TSQLParser.Create_or_alter_procedureContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitCreate_or_alter_procedure");
 				String procName = ctx.func_proc_name_schema().getText();
 				u.addProcSymTab(procName, "PROCEDURE");
 				// set context
@@ -1619,46 +1665,46 @@ public class CompassAnalyze {
 				captureParameters("procedure", ctx.procedure_param());
 
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitCreate_or_alter_procedure");
 				return null;
 			}
 
 			@Override public String visitCreate_or_alter_dml_trigger(TSQLParser.Create_or_alter_dml_triggerContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitCreate_or_alter_dml_trigger");
 				String trigName = ctx.simple_name().getText();
 
 				// set context
 				u.setContext("TRIGGER", trigName);
 
 				//visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitCreate_or_alter_dml_trigger");
 				return null;
 			}
 
 			@Override public String visitCreate_or_alter_ddl_trigger(TSQLParser.Create_or_alter_ddl_triggerContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitCreate_or_alter_ddl_trigger");
 				String trigName = ctx.simple_name().getText();
 
 				// set context
 				u.setContext("TRIGGER", trigName);
 
 				//visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitCreate_or_alter_ddl_trigger");
 				return null;
 			}
 
 			@Override public String visitColumn_definition(TSQLParser.Column_definitionContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
-				if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"ctx=["+ctx.getText()+"] buildColSymTab=["+u.buildColSymTab+"] ", u.debugPtree);
+				if (u.debugPtree) dbgTraceVisitEntry("visitColumn_definition");
+				if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"ctx=["+ctx.getText()+"] buildColSymTab=["+u.buildColSymTab+"] ", u.debugPtree);
 				if (!u.buildColSymTab) return null; //only proceed if we really build a permament symtab for columns in pass 1
 
 				// find type of column by looking for parent
 				// todo: view columns, datatypes of view columns and computed columns
 				String colType = ""; // default: regular table
-				if (hasParent(ctx.parent,"declare_statement"))                 colType = "(table variable)";
-				else if (hasParent(ctx.parent,"create_type"))                  colType = "(table type)";
-				else if (hasParent(ctx.parent,"func_body_returns_table"))      colType = "(table function result)";
-				else if (hasParent(ctx.parent,"func_body_returns_table_clr"))  colType = "(table function result)";
+				if (hasParent(ctx.parent, TSQLParser.RULE_declare_statement))                 colType = "(table variable)";
+				else if (hasParent(ctx.parent, TSQLParser.RULE_create_type))                  colType = "(table type)";
+				else if (hasParent(ctx.parent, TSQLParser.RULE_func_body_returns_table))      colType = "(table function result)";
+				else if (hasParent(ctx.parent, TSQLParser.RULE_func_body_returns_table_clr))  colType = "(table function result)";
 
 				if (!colType.isEmpty()) return null;
 
@@ -1682,12 +1728,12 @@ public class CompassAnalyze {
 	            	}
 	            }
 
-            	if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"column: colName=["+colName+"] dataType=["+dataType+"] currentObjectName=["+u.currentObjectName+"] ", u.debugPtree);
+            	if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"column: colName=["+colName+"] dataType=["+dataType+"] currentObjectName=["+u.currentObjectName+"] ", u.debugPtree);
 
             	// add to symbol table (experimental)
             	// only do this for CREATE/ALTER TABLE
             	// Todo: handle table type, table variable
-            	if (hasParent(ctx.parent,"create_table") || hasParent(ctx.parent,"alter_table")) {
+            	if (hasParent(ctx.parent, TSQLParser.RULE_create_table) || hasParent(ctx.parent, TSQLParser.RULE_alter_table)) {
 	            	boolean nullable = false;
 	            	if (ctx.null_notnull().size() == 0) {
 	            		if (ctx.column_constraint().size() > 0) {
@@ -1714,7 +1760,7 @@ public class CompassAnalyze {
 		        }
 
 				//visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitColumn_definition");
 				return null;
 			}
 
@@ -1732,91 +1778,73 @@ public class CompassAnalyze {
 		        }
 		    }
 
-		};
-
-		TSQLParserBaseVisitor<String> pass2Analysis = new TSQLParserBaseVisitor<String>() {
-			int queryCnt = 0;
-			int queryIDNr = 0;
-			int selectListColumnNr = 0;
-			int selectListNrColumns = 0;
-			boolean inAtAtErrorPredicate = false;
-			boolean inExistsPredicate = false;
-			boolean inCTE = false;
-			boolean inCTESelectAttribute = false;
-			boolean inPivot = false;
-			int lineNrPivot = 0;
-			boolean inAnsiJoin = false;
-			boolean inCommaJoin = false;
-			boolean inSubquery = false;
-			boolean inDerivedTB = false;
-			boolean inSelectStandalone = false;
-			boolean inTUDFCall = false;
-			boolean inMultiStmtTUDF = false;
-			boolean hasSystemVersioningColumn = false;
-			List<String> hasDeclareCursorName = new ArrayList<>();
-			boolean STRING_AGG_WITHIN_GROUP = false;
-			int execute_statement_argParamCount = 0;
-			String execute_statement_procName = "";
-			String updVarAssign = "";
-			Map<String, TSQLParser.ExpressionContext> variableAssignDepends = new HashMap<String, TSQLParser.ExpressionContext>();
-			Stack<Integer> queryID = new Stack<>();
+	}
+
+	// pass 2: the actual analysis, capturing the items for the report
+	class Pass2Analysis extends TSQLParserBaseVisitor<String> {
+			private BatchContext bc;
+
+			// start of a new batch
+			void reset(BatchContext bc) {
+				this.bc = bc;
+			}
 
 			// assign unique number to each SELECT query in the statement. Right now, just a sequence number
 			int newQueryIDNr() {
-				int i = newQueryIDNr(queryCnt);
+				int i = newQueryIDNr(bc.queryCnt);
 				return i;
 			}
 			int newQueryIDNr(int cnt) {
 				int i = cnt;
-				if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"generating new queryIDNr=["+queryIDNr+"]  ", u.debugPtree);
+				if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"generating new queryIDNr=["+bc.queryIDNr+"]  ", u.debugPtree);
 				//u.printStackTrace();
 				return i;
 			}
 
 			void popSelectLevel() {
-				int popped = queryID.pop();
-				if (!queryID.empty()) {
-					queryIDNr = queryID.peek();
+				int popped = bc.queryID.pop();
+				if (!bc.queryID.empty()) {
+					bc.queryIDNr = bc.queryID.peek();
 				}
-				if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"popped=["+popped+"]: new queryIDNr=["+queryIDNr+"]  queryCnt=["+queryCnt+"] queryID.size=["+queryID.size()+"] ", u.debugPtree);
+				if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"popped=["+popped+"]: new queryIDNr=["+bc.queryIDNr+"]  queryCnt=["+bc.queryCnt+"] queryID.size=["+bc.queryID.size()+"] ", u.debugPtree);
 			}
 
 			void newSelectStmt(String s, int lineNr) {
-				queryCnt++;
-				queryIDNr = newQueryIDNr();
-				queryID.push(queryIDNr);
+				bc.queryCnt++;
+				bc.queryIDNr = newQueryIDNr();
+				bc.queryID.push(bc.queryIDNr);
 				CompassItem item = new CompassItem(s, lineNr);
-				stmt.put(queryIDNr, item);
-				if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"new queryIDNr=["+queryIDNr+"]: s=["+s+"]  lineNr=["+lineNr+"] item.lineNr=["+item.getLineNr()+"] ", u.debugPtree);
+				bc.stmt.put(bc.queryIDNr, item);
+				if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"new queryIDNr=["+bc.queryIDNr+"]: s=["+s+"]  lineNr=["+lineNr+"] item.lineNr=["+item.getLineNr()+"] ", u.debugPtree);
 			}
 
 			CompassItem getStmt(int i) {
-				return stmt.get(i);
+				return bc.stmt.get(i);
 			}
 
 			void addStmtAttribute(String s) {
-				addStmtAttribute(queryIDNr, s);
+				addStmtAttribute(bc.queryIDNr, s);
 			}
 			void addStmtAttribute(int IDNr, String s) {
 				CompassItem item = getStmt(IDNr);
 				item.attributeAppend(s);
-				stmt.put(IDNr, item);
-				if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"appended to IDNr=["+IDNr+"]: s=["+s+"] result=["+item.getAttributes()+"] ", u.debugPtree);
+				bc.stmt.put(IDNr, item);
+				if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"appended to IDNr=["+IDNr+"]: s=["+s+"] result=["+item.getAttributes()+"] ", u.debugPtree);
 			}
 			void setStmtAttributeObjName(String name) {
-				setStmtAttributeObjName(queryIDNr, name);
+				setStmtAttributeObjName(bc.queryIDNr, name);
 			}
 			void setStmtAttributeObjName(int IDNr, String name) {
 				CompassItem item = getStmt(IDNr);
 				item.setObjectName(name);
-				stmt.put(IDNr, item);
-				if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"objName set to ["+name+"] in IDNr=["+IDNr+"]: result=["+item.getObjectName()+"] ", u.debugPtree);
+				bc.stmt.put(IDNr, item);
+				if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"objName set to ["+name+"] in IDNr=["+IDNr+"]: result=["+item.getObjectName()+"] ", u.debugPtree);
 			}
 
 			private void captureAtAtVariables(String varName, int lineNr) {
 				// Catch references to @@ variables. User can also declare @@variables (supported) but not reference them, so basically it's not supported
 				if (varName.startsWith("@@")) {
-					if (inAtAtErrorPredicate && varName.equalsIgnoreCase("@@ERROR")) return;  // this is captured elsewhere
+					if (bc.inAtAtErrorPredicate && varName.equalsIgnoreCase("@@ERROR")) return;  // this is captured elsewhere
 					if (!CompassUtilities.getPatternGroup(varName, "^\\@\\@(["+u.identifierChars+"]*)$", 1).isEmpty()) {
 						// is this a known global variable, or a user-defined variable starting with '@@' ?
 						if (featureExists(AtAtVariable, varName)) {
@@ -1836,23 +1864,23 @@ public class CompassAnalyze {
 			private String expressionDataType(String s) {
 				String result = "";
 				s = s.toUpperCase();
-				if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"s=["+s+"] ", u.debugPtree);
+				if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"s=["+s+"] ", u.debugPtree);
 				if (isNumeric(s)) result = CompassUtilities.BBFNumericType;
 				else if (isString(s)) result = CompassUtilities.BBFStringType;
 				else if (isDateTime(s)) result = CompassUtilities.BBFDateTimeType;
 				else if (isBinary(s)) result = CompassUtilities.BBFBinaryType;
 				else result = CompassUtilities.BBFUnknownType;
-				if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"s=["+s+"] result=["+result+"] ", u.debugPtree);
+				if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"s=["+s+"] result=["+result+"] ", u.debugPtree);
 				return result;
 			}
 
 			private String expressionDataType(TSQLParser.ExpressionContext expr) {
 				String s = "";
 				if (u.debugging && u.debugPtree) s = expr.getText();
-				if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"expr=["+s+"] ", u.debugPtree);
+				if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"expr=["+s+"] ", u.debugPtree);
 
 				if (expr == null) {
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"expr == null; result=["+CompassUtilities.BBFUnknownType+"] ", u.debugPtree);
+					if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"expr == null; result=["+CompassUtilities.BBFUnknownType+"] ", u.debugPtree);
 					return CompassUtilities.BBFUnknownType;
 				}
 
@@ -1863,28 +1891,28 @@ public class CompassAnalyze {
 					else if (x.constant().hex_string() != null) result = CompassUtilities.BBFBinaryType;
 					else if (x.constant().NULL() != null) result = CompassUtilities.BBFNullType;
 					else result = CompassUtilities.BBFNumericType;
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"Constant_exprContext: result=["+result+"] ", u.debugPtree);
+					if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"Constant_exprContext: result=["+result+"] ", u.debugPtree);
 					return result;
 				}
 
 				if ((expr instanceof TSQLParser.Collate_exprContext))  {
 					String result = "";
 					result = CompassUtilities.BBFStringType;
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"Collate_exprContext: result=["+result+"] ", u.debugPtree);
+					if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"Collate_exprContext: result=["+result+"] ", u.debugPtree);
 					return result;
 				}
 
 				if ((expr instanceof TSQLParser.Time_zone_exprContext))  {
 					String result = "";
 					result = CompassUtilities.BBFDateTimeType;
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"Time_zone_exprContext: result=["+result+"] ", u.debugPtree);
+					if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"Time_zone_exprContext: result=["+result+"] ", u.debugPtree);
 					return result;
 				}
 
 				if ((expr instanceof TSQLParser.Mult_div_percent_exprContext))  {
 					String result = "";
 					result = CompassUtilities.BBFNumericType;
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"Mult_div_percent_exprContext: result=["+result+"] ", u.debugPtree);
+					if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"Mult_div_percent_exprContext: result=["+result+"] ", u.debugPtree);
 					return result;
 				}
 
@@ -1905,24 +1933,24 @@ public class CompassAnalyze {
 						else if (isBinary(expr0) || isBinary(expr1)) result = CompassUtilities.BBFBinaryType;
 						else if (isUnknown(expr0) || isUnknown(expr1)) result = CompassUtilities.BBFUnknownType;
 						else result = CompassUtilities.BBFNumericType;
-						if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"op=PLUS", u.debugPtree);
+						if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"op=PLUS", u.debugPtree);
 					}
 					else if (x.MINUS() != null) {
 						if (isDateTime(expr0) || isDateTime(expr1)) result = CompassUtilities.BBFDateTimeType;
 						else result = CompassUtilities.BBFNumericType;
-						if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"op=MINUS", u.debugPtree);
+						if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"op=MINUS", u.debugPtree);
 					}
 					else if (isBinary(expr0) || isBinary(expr1)) result = CompassUtilities.BBFBinaryType;
 					else result = CompassUtilities.BBFNumericType;
 
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"Plus_minus_bit_exprContext: result=["+result+"] ", u.debugPtree);
+					if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"Plus_minus_bit_exprContext: result=["+result+"] ", u.debugPtree);
 					return result;
 				}
 
 				if ((expr instanceof TSQLParser.Unary_op_exprContext))  {
 					String result = "";
 					result = CompassUtilities.BBFNumericType;
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"Unary_op_exprContext: result=["+result+"] ", u.debugPtree);
+					if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"Unary_op_exprContext: result=["+result+"] ", u.debugPtree);
 					return result;
 				}
 
@@ -1930,7 +1958,7 @@ public class CompassAnalyze {
 					// don't know the datatype, would have to look up the proc/func to get its parameters
 					String result = "";
 					result = CompassUtilities.BBFUnknownType;
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"Default_exprContext: result=["+result+"] ", u.debugPtree);
+					if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"Default_exprContext: result=["+result+"] ", u.debugPtree);
 					return result;
 				}
 
@@ -1950,7 +1978,7 @@ public class CompassAnalyze {
 	            	}
 
 					if (result.isEmpty()) result = CompassUtilities.BBFUnknownType;
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"Full_col_name_exprContext: ["+col+"] result=["+result+"] ", u.debugPtree);
+					if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"Full_col_name_exprContext: ["+col+"] result=["+result+"] ", u.debugPtree);
 					return result;
 				}
 
@@ -1958,7 +1986,7 @@ public class CompassAnalyze {
 					String result = "";
 					// Assume integer as default since we have nothing better; this is unlikely to occur anyway
 					result = CompassUtilities.BBFNumericType;
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"Dollar_action_exprContext: result=["+result+"] ", u.debugPtree);
+					if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"Dollar_action_exprContext: result=["+result+"] ", u.debugPtree);
 					return result;
 				}
 
@@ -1979,10 +2007,10 @@ public class CompassAnalyze {
 					// look up datatype of this variable or parameter
 					else {
 						s = expr.getText();
-						if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"looking up var=["+s+"] varDataType(s)=["+varDataType(s)+"]  ", u.debugPtree);
+						if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"looking up var=["+s+"] varDataType(s)=["+varDataType(s)+"]  ", u.debugPtree);
 						result = expressionDataType(varDataType(s));
 					}
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"Local_id_exprContext: result=["+result+"] ", u.debugPtree);
+					if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"Local_id_exprContext: result=["+result+"] ", u.debugPtree);
 					return result;
 				}
 
@@ -1991,7 +2019,7 @@ public class CompassAnalyze {
 					String result = "";
 					if (x.DOT().size() > 0) {
 						result = CompassUtilities.BBFStringType;
-						if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"Func_call_exprContext: result=["+result+"] ", u.debugPtree);
+						if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"Func_call_exprContext: result=["+result+"] ", u.debugPtree);
 						return result;
 					}
 
@@ -2004,10 +2032,10 @@ public class CompassAnalyze {
 					}
 					String funcName = funcCall;
 					if (funcCall.indexOf("(") != -1) funcName = funcCall.substring(0,funcCall.indexOf("("));
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"funcCall=["+funcCall+"] funcName=["+funcName+"] isODBC=["+isODBC+"] ", u.debugPtree);
+					if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"funcCall=["+funcCall+"] funcName=["+funcName+"] isODBC=["+isODBC+"] ", u.debugPtree);
 					if (funcName.isEmpty()) {
 						result = CompassUtilities.BBFUnknownType;
-						if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"empty: result=["+result+"] ", u.debugPtree);
+						if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"empty: result=["+result+"] ", u.debugPtree);
 						return result;
 					}
 
@@ -2025,15 +2053,15 @@ public class CompassAnalyze {
 						else if (datetimeODBCs.contains(funcName)) odbcDataType = CompassUtilities.BBFDateTimeType;
 						else if (binaryODBCs.contains(funcName)) odbcDataType = CompassUtilities.BBFBinaryType;
 						else odbcDataType = CompassUtilities.BBFUnknownType;
-						if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"ODBC: funcCall=["+funcCall+"] funcName=["+funcName+"] odbcDataType=["+odbcDataType+"] ", u.debugPtree);
+						if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"ODBC: funcCall=["+funcCall+"] funcName=["+funcName+"] odbcDataType=["+odbcDataType+"] ", u.debugPtree);
 						result = odbcDataType;
-						if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"ODBC function: result=["+result+"] ", u.debugPtree);
+						if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"ODBC function: result=["+result+"] ", u.debugPtree);
 						return result;
 					}
 
 					if (funcName.equalsIgnoreCase("MIN") || funcName.equalsIgnoreCase("MAX")) {
 						TSQLParser.ExpressionContext aggrExpr = x.function_call().aggregate_windowed_function().all_distinct_expression().expression();
-						if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"MIN/MAX: expr=["+aggrExpr.getText()+"] ", u.debugPtree);
+						if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"MIN/MAX: expr=["+aggrExpr.getText()+"] ", u.debugPtree);
 						return expressionDataType(aggrExpr);
 					}
 					else if (funcName.equalsIgnoreCase("ISNULL")) {
@@ -2044,7 +2072,7 @@ public class CompassAnalyze {
 							TSQLParser.ExpressionContext isnullExpr2 = x.function_call().function_arg_list().expression().get(1);
 							result = expressionDataType(isnullExpr2);
 						}
-						if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"ISNULL: result=["+result+"] ", u.debugPtree);
+						if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"ISNULL: result=["+result+"] ", u.debugPtree);
 						return result;
 					}
 					else if (funcName.equalsIgnoreCase("NULLIF")) {
@@ -2055,7 +2083,7 @@ public class CompassAnalyze {
 							TSQLParser.ExpressionContext nullifExpr2 = x.function_call().function_arg_list().expression().get(1);
 							result = expressionDataType(nullifExpr2);
 						}
-						if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"ISNULL: result=["+result+"] ", u.debugPtree);
+						if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"ISNULL: result=["+result+"] ", u.debugPtree);
 						return result;
 					}
 					else if (funcName.equalsIgnoreCase("COALESCE")) {
@@ -2066,7 +2094,7 @@ public class CompassAnalyze {
 							TSQLParser.ExpressionContext coalExpr2 = x.function_call().function_arg_list().expression().get(1);
 							result = expressionDataType(coalExpr2);
 						}
-						if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"COALESCE: result=["+result+"] ", u.debugPtree);
+						if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"COALESCE: result=["+result+"] ", u.debugPtree);
 						return result;
 					}
 					else if (funcName.equalsIgnoreCase("CHOOSE")) {
@@ -2080,10 +2108,10 @@ public class CompassAnalyze {
 									result = expressionDataType(chooseExpr3);
 								}
 							}
-							if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"CHOOSE: result=["+result+"] ", u.debugPtree);
+							if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"CHOOSE: result=["+result+"] ", u.debugPtree);
 							return result;
 						}
-						if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"CHOOSE: result=["+result+"] ", u.debugPtree);
+						if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"CHOOSE: result=["+result+"] ", u.debugPtree);
 						return CompassUtilities.BBFUnknownType;
 					}
 					else if (funcName.equalsIgnoreCase("IIF")) {
@@ -2096,10 +2124,10 @@ public class CompassAnalyze {
 								TSQLParser.ExpressionContext iifExpr2 = iif.right;
 								result = expressionDataType(iifExpr2);
 							}
-							if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"IIF: result=["+result+"] ", u.debugPtree);
+							if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"IIF: result=["+result+"] ", u.debugPtree);
 							return result;
 						}
-						if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"IIF: result=["+result+"] ", u.debugPtree);
+						if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"IIF: result=["+result+"] ", u.debugPtree);
 						return CompassUtilities.BBFUnknownType;
 					}
 					else if (funcName.equalsIgnoreCase("CAST")) {
@@ -2113,7 +2141,7 @@ public class CompassAnalyze {
 
 					funcName = u.normalizeName(funcName).toUpperCase();
 					String sudfDataType = lookupSUDF(funcName);
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"funcCall=["+funcCall+"] funcName=["+funcName+"] sudfDataType=["+sudfDataType+"] ", u.debugPtree);
+					if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"funcCall=["+funcCall+"] funcName=["+funcName+"] sudfDataType=["+sudfDataType+"] ", u.debugPtree);
 					if (!sudfDataType.isEmpty()) return expressionDataType(sudfDataType);
 
 					if (stringBIFs.contains(funcName)) sudfDataType = CompassUtilities.BBFStringType;
@@ -2121,7 +2149,7 @@ public class CompassAnalyze {
 					else if (datetimeBIFs.contains(funcName)) sudfDataType = CompassUtilities.BBFDateTimeType;
 					else if (binaryBIFs.contains(funcName)) sudfDataType = CompassUtilities.BBFBinaryType;
 					else sudfDataType = CompassUtilities.BBFUnknownType;
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"BIF: funcCall=["+funcCall+"] funcName=["+funcName+"] sudfDataType=["+sudfDataType+"] ", u.debugPtree);
+					if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"BIF: funcCall=["+funcCall+"] funcName=["+funcName+"] sudfDataType=["+sudfDataType+"] ", u.debugPtree);
 
 					// check for XML VALUE method
 					if (sudfDataType.equals(CompassUtilities.BBFUnknownType)) {
@@ -2137,7 +2165,7 @@ public class CompassAnalyze {
 					}
 
 					result = sudfDataType;
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"result=["+result+"] ", u.debugPtree);
+					if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"result=["+result+"] ", u.debugPtree);
 					return result;
 				}
 
@@ -2147,7 +2175,7 @@ public class CompassAnalyze {
 					String op = x.odbc_literal().op.getText().toUpperCase();
 					if (op.equals("GUID")) result = CompassUtilities.BBFBinaryType;
 					else result = CompassUtilities.BBFDateTimeType;
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"Odbc_literal_exprContext: result=["+result+"] ", u.debugPtree);
+					if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"Odbc_literal_exprContext: result=["+result+"] ", u.debugPtree);
 					return result;
 				}
 
@@ -2156,7 +2184,7 @@ public class CompassAnalyze {
 					String result = "";
 					if (x.DOT().size() > 0) result = CompassUtilities.BBFStringType;  // assume string for all method calls
 					else result = expressionDataType(x.expression());
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"Bracket_exprContext: result=["+result+"] ", u.debugPtree);
+					if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"Bracket_exprContext: result=["+result+"] ", u.debugPtree);
 					return result;
 				}
 
@@ -2179,7 +2207,7 @@ public class CompassAnalyze {
 							}
 						}
 					}
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"Subquery_exprContext: result=["+result+"] ", u.debugPtree);
+					if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"Subquery_exprContext: result=["+result+"] ", u.debugPtree);
 					return result;
 				}
 
@@ -2198,7 +2226,7 @@ public class CompassAnalyze {
 					}
 
 					result = expressionDataType(thenExpr);
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"Case_exprContext: result=["+result+"] ", u.debugPtree);
+					if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"Case_exprContext: result=["+result+"] ", u.debugPtree);
 					return result;
 				}
 
@@ -2208,7 +2236,7 @@ public class CompassAnalyze {
 
 					// ToDo: determine the result type of the OVER() clause expression
 					result = CompassUtilities.BBFUnknownType;
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"Over_clause_exprContext: result=["+result+"] ", u.debugPtree);
+					if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"Over_clause_exprContext: result=["+result+"] ", u.debugPtree);
 					return result;
 				}
 
@@ -2216,13 +2244,13 @@ public class CompassAnalyze {
 					String result = "";
 					// Todo what to return? let's do binary
 					result = CompassUtilities.BBFBinaryType;
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"Hierarchyid_coloncolonContext: result=["+result+"] ", u.debugPtree);
+					if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"Hierarchyid_coloncolonContext: result=["+result+"] ", u.debugPtree);
 					return result;
 				}
 
 				// we're out of options...
 				String result = CompassUtilities.BBFUnknownType;
-				if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"final unknown: result=["+result+"] ", u.debugPtree);
+				if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"final unknown: result=["+result+"] ", u.debugPtree);
 				return result;
 			}
 
@@ -2255,8 +2283,8 @@ public class CompassAnalyze {
 				if (!options.contains("nobracket")) {
 					funcNameReport = funcName + "()";
 				}
-				if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"BIF=["+funcName+"()] nrArgs=["+nrArgs+"] inCompCol=["+inCompCol+"] ", u.debugPtree);
-				if (argList != null) if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"BIF=["+funcName+"()] nrArgs=["+nrArgs+"] argList.size()=["+argList.size()+"]  ", u.debugPtree);
+				if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"BIF=["+funcName+"()] nrArgs=["+nrArgs+"] inCompCol=["+inCompCol+"] ", u.debugPtree);
+				if (argList != null) if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"BIF=["+funcName+"()] nrArgs=["+nrArgs+"] argList.size()=["+argList.size()+"]  ", u.debugPtree);
 
 				if (featureExists(BuiltInFunctions, funcName)) {
 					status = featureSupportedInVersion(BuiltInFunctions, funcName);
@@ -2264,7 +2292,7 @@ public class CompassAnalyze {
 					String argN = cfg.featureExistsArg(funcName);
 
 					if (!argN.isEmpty()) {
-						if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"validating arg=["+argN+"] for BIF=["+funcName+"()]", u.debugPtree);
+						if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"validating arg=["+argN+"] for BIF=["+funcName+"()]", u.debugPtree);
 						argNum = Integer.parseInt(argN.substring(3));
 						if (argNum <= argListText.size()) {
 							String argStr = argListText.get(argNum-1);
@@ -2279,7 +2307,7 @@ public class CompassAnalyze {
 							statusArgN = status = featureArgSupportedInVersion(funcName, argN, argStrValidate);
 							funcNameReport = funcName + "("+ argStrReport.toLowerCase()+")";
 
-							if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"funcName=["+funcName+"] funcNameReport=["+funcNameReport+"] argStr=["+argStr+"] argStrValidate=["+argStrValidate+"] argStrReport=["+argStrReport+"] argN=["+argN+"] nrArgs=["+nrArgs+"] status=["+status+"] ", u.debugPtree);
+							if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"funcName=["+funcName+"] funcNameReport=["+funcNameReport+"] argStr=["+argStr+"] argStrValidate=["+argStrValidate+"] argStrReport=["+argStrReport+"] argN=["+argN+"] nrArgs=["+nrArgs+"] status=["+status+"] ", u.debugPtree);
 						}
 					}
 
@@ -2322,7 +2350,7 @@ public class CompassAnalyze {
 							}
 
 							// check for numeric-as-date
-							if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"dateBIFs: funcName=["+funcName+"] i=["+i+"] argi=["+argList.get(i-1).getText()+"] argtype=["+expressionDataType(argList.get(i-1))+"] funcDetail=["+funcDetail+"] ", u.debugPtree);
+							if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"dateBIFs: funcName=["+funcName+"] i=["+i+"] argi=["+argList.get(i-1).getText()+"] argtype=["+expressionDataType(argList.get(i-1))+"] funcDetail=["+funcDetail+"] ", u.debugPtree);
 							checkNumericAsDate("DATETIME", funcName, funcNameReport, argList.get(i-1), i, lineNr);
 						}
 					}
@@ -2351,7 +2379,7 @@ public class CompassAnalyze {
 				if (funcName.equals("STRING_AGG")) {
 					// the grammar finds this as a function call if invoked without the WITHIN GROUP clause, so correct that here
 					groupCapture = AggregateFunctions;
-					if (STRING_AGG_WITHIN_GROUP) { // true=WITHIN GROUP was specified
+					if (bc.STRING_AGG_WITHIN_GROUP) { // true=WITHIN GROUP was specified
 						funcNameReport = StringAggWithinGroup;
 						String statusWG = featureSupportedInVersion(StringAggWithinGroup);
 						if (!statusWG.equals(u.Supported)) {
@@ -2368,7 +2396,7 @@ public class CompassAnalyze {
 					addStmtAttribute("IDENTITY");					
 					// the following tests only make sense if IDENTITY() is supported
 					if (status.equals(u.Supported)) {
-						if (selectListNrColumns > selectListColumnNr) {
+						if (bc.selectListNrColumns > bc.selectListColumnNr) {
 							addStmtAttribute("IDENTITY_NOTLAST");			
 						}		
 					
@@ -2579,7 +2607,7 @@ public class CompassAnalyze {
 			// check for numeric-as-date
 			private void checkNumericAsDate(String dataType, String funcName, String funcNameReport, TSQLParser.ExpressionContext expr, int argNum, int lineNr) {
 				// argNum indicates which argument it concerns
-				if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"funcName=["+funcName+"] dataType=["+dataType+"] argNum=["+argNum+"] expr=["+expr.getText()+"]  start=["+expr.start.getLine()+"," +expr.start.getCharPositionInLine()+"] stop=["+expr.stop.getLine()+"," +expr.stop.getCharPositionInLine()+"] index=[" +expr.start.getStartIndex()+ ", " +expr.stop.getStopIndex()+"] ", u.debugPtree);			
+				if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"funcName=["+funcName+"] dataType=["+dataType+"] argNum=["+argNum+"] expr=["+expr.getText()+"]  start=["+expr.start.getLine()+"," +expr.start.getCharPositionInLine()+"] stop=["+expr.stop.getLine()+"," +expr.stop.getCharPositionInLine()+"] index=[" +expr.start.getStartIndex()+ ", " +expr.stop.getStopIndex()+"] ", u.debugPtree);			
 				String exprType = expressionDataType(expr);
 				if (dataType.equals("DATETIME") || dataType.equals("SMALLDATETIME")) {
 					// check for converting numeric expressions to [SMALL]DATETIME
@@ -2601,7 +2629,7 @@ public class CompassAnalyze {
 
 					if (isANumber) {
 						String statusNumDate = featureSupportedInVersion(NumericAsDateTime, funcName);
-						if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"funcName=["+funcName+"] expr=["+expr.getText()+"]  statusNumDate=["+statusNumDate+"]  ", u.debugPtree);
+						if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"funcName=["+funcName+"] expr=["+expr.getText()+"]  statusNumDate=["+statusNumDate+"]  ", u.debugPtree);
 						// remove any arguments from the call for display
 						funcNameReport = u.applyPatternFirst(funcNameReport, "^(.*\\().*?(\\).*)$", "$1$2");
 						String funcNameReportNumDate = NumericAsDateTime + " in " + funcNameReport;
@@ -2643,7 +2671,7 @@ public class CompassAnalyze {
 					else if (isBinary(exprType)) {
 						if (isDateTime(dataType)) { 
 							String statusBinDate = featureSupportedInVersion(BinaryAsDateTime, funcName);
-							if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"funcName=["+funcName+"] expr=["+expr.getText()+"]  statusBinDate=["+statusBinDate+"]  ", u.debugPtree);
+							if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"funcName=["+funcName+"] expr=["+expr.getText()+"]  statusBinDate=["+statusBinDate+"]  ", u.debugPtree);
 							// remove any arguments from the call for display
 							funcNameReport = u.applyPatternFirst(funcNameReport, "^(.*\\().*?(\\).*)$", "$1$2");
 							String funcNameReportBinDate = BinaryAsDateTime + " in " + funcNameReport;
@@ -2661,11 +2689,11 @@ public class CompassAnalyze {
 			}
 
 			private void checkNumericDateVarAssign(String name, String dataType, TSQLParser.ExpressionContext expr, int lineNr) {
-				if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"name=["+name+"] dataType=["+dataType+"] expr=["+expr.getText()+"] expressionDataType(expr)=["+expressionDataType(expr)+"] ", u.debugPtree);
+				if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"name=["+name+"] dataType=["+dataType+"] expr=["+expr.getText()+"] expressionDataType(expr)=["+expressionDataType(expr)+"] ", u.debugPtree);
 				if (dataType.equals("DATETIME") || dataType.equals("SMALLDATETIME")) {
 					if (isNumeric(expressionDataType(expr))) {
 						String statusNumDate = featureSupportedInVersion(NumericDateTimeVarAssign);
-						if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"name=["+name+"]  expr=["+expr.getText()+"]  statusNumDate=["+statusNumDate+"]  ", u.debugPtree);
+						if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"name=["+name+"]  expr=["+expr.getText()+"]  statusNumDate=["+statusNumDate+"]  ", u.debugPtree);
 
 						if (!statusNumDate.equals(u.Supported)) {
 							if (u.rewrite) {
@@ -2688,7 +2716,7 @@ public class CompassAnalyze {
 			// --- visit the tree nodes ----------------------------------------
 
 			@Override public String visitUse_statement(TSQLParser.Use_statementContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitUse_statement");
 				String DBName = u.normalizeName(ctx.dbname.getText());
 				u.setCurrentDB(DBName);
 				captureItem("USE " + DBName, DBName, DatabasesReportGroup, "", u.Supported, ctx.start.getLine());
@@ -2697,36 +2725,36 @@ public class CompassAnalyze {
 			        try { u.writeExecTestFile(use); } catch (Exception e) { };
 				}
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitUse_statement");
 				return null;
 			}
 
 			@Override public String visitSelect_statement_standalone(TSQLParser.Select_statement_standaloneContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
-				inSelectStandalone = true;
+				if (u.debugPtree) dbgTraceVisitEntry("visitSelect_statement_standalone");
+				bc.inSelectStandalone = true;
 				newSelectStmt("SELECT", ctx.start.getLine());
-				if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"new SELECT in standalone", u.debugPtree);
+				if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"new SELECT in standalone", u.debugPtree);
 
 				if (ctx.with_expression() != null) {
 					addStmtAttribute("WITH");
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"added WITH...SELECT in standalone", u.debugPtree);
+					if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"added WITH...SELECT in standalone", u.debugPtree);
 				}
 				visitChildren(ctx);
-				inSelectStandalone = false;
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				bc.inSelectStandalone = false;
+				if (u.debugPtree) dbgTraceVisitExit("visitSelect_statement_standalone");
 				return null;
 			}
 
 			@Override public String visitSelect_statement(TSQLParser.Select_statementContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
-				if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"SELECT=["+ctx.getText()+"]  ", u.debugPtree);
-				if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"inSelectStandalone=["+inSelectStandalone+"]  inSubquery=["+inSubquery+"]  inDerivedTB=["+inDerivedTB+"] ", u.debugPtree);
+				if (u.debugPtree) dbgTraceVisitEntry("visitSelect_statement");
+				if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"SELECT=["+ctx.getText()+"]  ", u.debugPtree);
+				if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"inSelectStandalone=["+bc.inSelectStandalone+"]  inSubquery=["+bc.inSubquery+"]  inDerivedTB=["+bc.inDerivedTB+"] ", u.debugPtree);
 				boolean createdNew = false;
 
-				if (inSelectStandalone || inSubquery || inDerivedTB) {
-					if (inSelectStandalone) inSelectStandalone = false;
-					if (inSubquery) inSubquery = false;
-					if (inDerivedTB) inDerivedTB = false;
+				if (bc.inSelectStandalone || bc.inSubquery || bc.inDerivedTB) {
+					if (bc.inSelectStandalone) bc.inSelectStandalone = false;
+					if (bc.inSubquery) bc.inSubquery = false;
+					if (bc.inDerivedTB) bc.inDerivedTB = false;
 				}
 				else {
 					createdNew = true;
@@ -2736,18 +2764,18 @@ public class CompassAnalyze {
 				if (ctx.order_by_clause() != null) {
 					addStmtAttribute("ORDERBY");
 				}
-				if (inCTESelectAttribute) {
+				if (bc.inCTESelectAttribute) {
 					addStmtAttribute("CTE");
-					inCTESelectAttribute = false;
+					bc.inCTESelectAttribute = false;
 				}
 
-				if (hasParent(ctx.parent,"insert_statement")) {
+				if (hasParent(ctx.parent, TSQLParser.RULE_insert_statement)) {
 					addStmtAttribute("INSERT");
 				}
-				else if (hasParent(ctx.parent,"create_or_alter_view")) {
+				else if (hasParent(ctx.parent, TSQLParser.RULE_create_or_alter_view)) {
 					addStmtAttribute("VIEW");
 				}
-				else if (hasParent(ctx.parent,"func_body_returns_select")) {
+				else if (hasParent(ctx.parent, TSQLParser.RULE_func_body_returns_select)) {
 					addStmtAttribute("RETURNS");
 				}
 
@@ -2756,12 +2784,12 @@ public class CompassAnalyze {
 				if (createdNew) {
 					popSelectLevel();
 				}
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitSelect_statement");
 				return null;
 			}
 
 			@Override public String visitQuery_specification(TSQLParser.Query_specificationContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitQuery_specification");
 
 				// DEV: how many tables?
 				// Try to exclude reporting single-table queries without an ORDER-BY that select on a PK or unique index
@@ -2801,7 +2829,7 @@ public class CompassAnalyze {
 
 				if (ctx.top_clause() != null) {
 					String topClauseText = ctx.top_clause().getText().toUpperCase();
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"topClauseText  =["+topClauseText+"]", u.debugPtree);
+					if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"topClauseText  =["+topClauseText+"]", u.debugPtree);
 
 					topClauseText = topClauseText.substring(3);
 
@@ -2864,8 +2892,8 @@ public class CompassAnalyze {
 					}
 
 					// capture SELECT TOP inside a multi-stmt TUDF/TVF (but not in subquery): can be created but not called
-					if (inMultiStmtTUDF) {
-						if (!hasParent(ctx.parent,"subquery")) {
+					if (bc.inMultiStmtTUDF) {
+						if (!hasParent(ctx.parent, TSQLParser.RULE_subquery)) {
 							String status = featureSupportedInVersion(SelectTopInTUDF);
 							captureItem(SelectTopInTUDF, "", SelectTopInTUDF, "", status, ctx.top_clause().start.getLine());
 						}
@@ -2880,12 +2908,12 @@ public class CompassAnalyze {
 				CaptureXMLNameSpaces(ctx.parent, "SELECT", ctx.start.getLine());
 
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitQuery_specification");
 				return null;
 			}
 
 			@Override public String visitOrder_by_clause(TSQLParser.Order_by_clauseContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitOrder_by_clause");
 				if (ctx.OFFSET() != null) {
 					String fetch = "";
 					if (ctx.FETCH() != null) {
@@ -2894,98 +2922,98 @@ public class CompassAnalyze {
 					captureItem("SELECT..ORDER BY OFFSET"+fetch, "", DMLReportGroup, "", u.Supported, ctx.start.getLine());
 				}
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitOrder_by_clause");
 				return null;
 			}
 
 			@Override public String visitQuery_expression(TSQLParser.Query_expressionContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitQuery_expression");
 				if ((ctx.order_by_qs != null) || (ctx.order_by_qe != null)) {
 					addStmtAttribute("ORDERBY");
 				}
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitQuery_expression");
 				return null;
 			}
 
 			@Override public String visitCommon_table_expression(TSQLParser.Common_table_expressionContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
-				inCTE = true;
-				inCTESelectAttribute = true;
+				if (u.debugPtree) dbgTraceVisitEntry("visitCommon_table_expression");
+				bc.inCTE = true;
+				bc.inCTESelectAttribute = true;
 				visitChildren(ctx);
-				inCTE = false;
-				inCTESelectAttribute = false;
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				bc.inCTE = false;
+				bc.inCTESelectAttribute = false;
+				if (u.debugPtree) dbgTraceVisitExit("visitCommon_table_expression");
 				return null;
 			}
 
 			@Override public String visitSubquery(TSQLParser.SubqueryContext ctx) {
 				boolean subqInExists = false;
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
-				inSubquery = true;
+				if (u.debugPtree) dbgTraceVisitEntry("visitSubquery");
+				bc.inSubquery = true;
 
 				newSelectStmt("SELECT", ctx.start.getLine());
-				if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"added SELECT for subq", u.debugPtree);
+				if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"added SELECT for subq", u.debugPtree);
 
-				if (inExistsPredicate) {
+				if (bc.inExistsPredicate) {
 					subqInExists = true;
-					inExistsPredicate = false;
+					bc.inExistsPredicate = false;
 				}
 
 				addStmtAttribute("SUBQUERY");
-				if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"added SELECT SUBQUERY ", u.debugPtree);
+				if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"added SELECT SUBQUERY ", u.debugPtree);
 
 				if (subqInExists) {
 					addStmtAttribute("EXISTS");
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"added EXISTS", u.debugPtree);
+					if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"added EXISTS", u.debugPtree);
 				}
 
-				if (hasParent(ctx.parent,"insert_statement")) {
+				if (hasParent(ctx.parent, TSQLParser.RULE_insert_statement)) {
 					addStmtAttribute("INSERT");
 				}
-				else if (hasParent(ctx.parent,"create_or_alter_view")) {
+				else if (hasParent(ctx.parent, TSQLParser.RULE_create_or_alter_view)) {
 					addStmtAttribute("VIEW");
 				}
-				else if (hasParent(ctx.parent,"func_body_returns_select")) {
+				else if (hasParent(ctx.parent, TSQLParser.RULE_func_body_returns_select)) {
 					addStmtAttribute("RETURNS");
 				}
 
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitSubquery");
 				return null;
 			}
 
 			@Override public String visitDerived_table(TSQLParser.Derived_tableContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitDerived_table");
 				if (ctx.select_statement() != null) {
-					inDerivedTB = true;
+					bc.inDerivedTB = true;
 
 					newSelectStmt("SELECT", ctx.start.getLine());
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"added SELECT for derived_tb", u.debugPtree);
+					if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"added SELECT for derived_tb", u.debugPtree);
 
-					if (!hasParent(ctx.parent,"insert_statement"))  {
+					if (!hasParent(ctx.parent, TSQLParser.RULE_insert_statement))  {
 						addStmtAttribute("SUBQUERY");
-						if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"added SELECT SUBQUERY for derived_tb", u.debugPtree);
+						if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"added SELECT SUBQUERY for derived_tb", u.debugPtree);
 					}
 
-					if (hasParent(ctx.parent,"insert_statement")) {
+					if (hasParent(ctx.parent, TSQLParser.RULE_insert_statement)) {
 						addStmtAttribute("INSERT");
 					}
-					else if (hasParent(ctx.parent,"create_or_alter_view")) {
+					else if (hasParent(ctx.parent, TSQLParser.RULE_create_or_alter_view)) {
 						addStmtAttribute("VIEW");
 					}
-					else if (hasParent(ctx.parent,"func_body_returns_select")) {
+					else if (hasParent(ctx.parent, TSQLParser.RULE_func_body_returns_select)) {
 						addStmtAttribute("RETURNS");
 					}
 				}
 
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitDerived_table");
 				return null;
 			}
 
 			@Override public String visitFor_clause(TSQLParser.For_clauseContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitFor_clause");
 				if (ctx.XML() != null) {
 					String forXMLType = "";
 					if (ctx.AUTO() != null) forXMLType = "AUTO";
@@ -3044,7 +3072,7 @@ public class CompassAnalyze {
 					captureItem("SELECT FOR JSON " +forJSONreport, "", JSONFeatures, forJSONreport, status, ctx.start.getLine());
 				}
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitFor_clause");
 				return null;
 			}
 
@@ -3057,8 +3085,8 @@ public class CompassAnalyze {
 			}
 
 			@Override public String visitExecute_parameter(TSQLParser.Execute_parameterContext ctx) {
-				if (u.debugging) u.dbgOutput(u.thisProc()+"ctx=["+getTextSpaced(ctx)+"] ", u.debugPtree);
-				execute_statement_argParamCount++;
+				if (u.debugPtree) u.dbgOutput(u.thisProc()+"ctx=["+getTextSpaced(ctx)+"] ", u.debugPtree);
+				bc.execute_statement_argParamCount++;
 
 				if (ctx.LOCAL_ID() != null) {
 					captureAtAtVariables(ctx.LOCAL_ID().getText().toUpperCase(), ctx.start.getLine());
@@ -3075,11 +3103,11 @@ public class CompassAnalyze {
 
 					String statusDft = featureSupportedInVersion(ParamValueDEFAULT, "procedure");
 					String itemTxt = ParamValueDEFAULT+", procedure call";
-					if (!execute_statement_procName.startsWith("@")) {
+					if (!bc.execute_statement_procName.startsWith("@")) {
 						if (!statusDft.equals(u.Supported)) {
 							// look up param default value: proc calls only use either by-position arguments, or by-name
-							int parNo = execute_statement_argParamCount;
-							String procName = execute_statement_procName;
+							int parNo = bc.execute_statement_argParamCount;
+							String procName = bc.execute_statement_procName;
 							String parDft = "";
 							if (!parName.isEmpty()) {
 								parDft = lookupParDft(procName, parName);
@@ -3170,7 +3198,7 @@ public class CompassAnalyze {
 				String via = "";
 				String via2 = "";
 				if (varName.equalsIgnoreCase("@@ERROR"))
-					inAtAtErrorPredicate = true;
+					bc.inAtAtErrorPredicate = true;
 				else {
 					if (!ctx.getText().toUpperCase().contains(varName.toUpperCase())) {
 						return;
@@ -3239,9 +3267,9 @@ public class CompassAnalyze {
 			}
 
 			@Override public String visitPredicate(TSQLParser.PredicateContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitPredicate");
 				if (ctx.EXISTS() != null) {
-					inExistsPredicate = true;
+					bc.inExistsPredicate = true;
 				}
 
 				// temporary one-off: find integer variables being compared to empty string
@@ -3314,7 +3342,7 @@ public class CompassAnalyze {
 						if (ctx.getText().toUpperCase().contains("ERROR_NUMBER()")) {
 							captureAtAtErrorValueRef("ERROR_NUMBER()", ctx);
 						}
-						for (String v : localAtAtErrorVars.keySet()) {
+						for (String v : bc.localAtAtErrorVars.keySet()) {
 							captureAtAtErrorValueRef(v, ctx);
 						}
 					}
@@ -3411,44 +3439,44 @@ public class CompassAnalyze {
 					}
 				}
 				visitChildren(ctx);
-				inAtAtErrorPredicate = false;
-				inExistsPredicate = false;
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				bc.inAtAtErrorPredicate = false;
+				bc.inExistsPredicate = false;
+				if (u.debugPtree) dbgTraceVisitExit("visitPredicate");
 				return null;
 			}
 
 			@Override public String visitSql_union(TSQLParser.Sql_unionContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitSql_union");
 				String unionKwd = ctx.union_keyword().getText().toUpperCase();
 				unionKwd = unionKwd.replace("ALL", " ALL");
 				captureItem(unionKwd, "", DMLReportGroup, "", u.Supported, ctx.start.getLine());
 
 				newSelectStmt("SELECT", ctx.start.getLine());
-				if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"new SELECT for UNION", u.debugPtree);
+				if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"new SELECT for UNION", u.debugPtree);
 
 				if ((ctx.order_by_qs != null) || (ctx.order_by_qe != null)) {
 					addStmtAttribute("ORDERBY");
 				}
 
-				if (hasParent(ctx.parent,"insert_statement")) {
+				if (hasParent(ctx.parent, TSQLParser.RULE_insert_statement)) {
 					addStmtAttribute("INSERT");
 				}
-				else if (hasParent(ctx.parent,"create_or_alter_view")) {
+				else if (hasParent(ctx.parent, TSQLParser.RULE_create_or_alter_view)) {
 					addStmtAttribute("VIEW");
 				}
-				else if (hasParent(ctx.parent,"func_body_returns_select")) {
+				else if (hasParent(ctx.parent, TSQLParser.RULE_func_body_returns_select)) {
 					addStmtAttribute("RETURNS");
 				}
 
 				visitChildren(ctx);
 				popSelectLevel();
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitSql_union");
 				return null;
 			}
 
 			@Override public String visitCreate_type(TSQLParser.Create_typeContext ctx) {
 				// this is duplicated in pass 1
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitCreate_type");
 				String UDDname = u.normalizeName(ctx.simple_name().getText());
 				String UDDdatatype = "";
 				String section = UDDatatypes;
@@ -3472,11 +3500,11 @@ public class CompassAnalyze {
 					// set context, as a table
 					u.setContext("TABLE", UDDname);
 				}
-				if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"UDD "+ ctx.getText()+", UDDname=["+UDDname+"] UDDdatatype=["+UDDdatatype+"] ", u.debugPtree);
+				if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"UDD "+ ctx.getText()+", UDDname=["+UDDname+"] UDDdatatype=["+UDDdatatype+"] ", u.debugPtree);
 				captureItem("CREATE TYPE, "+UDDdatatype, UDDname, section, "", statusDataType, ctx.start.getLine(), 0);
 
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitCreate_type");
 				return null;
 			}		
 
@@ -3622,7 +3650,7 @@ public class CompassAnalyze {
 			}
 
 			@Override public String visitColumn_def_table_constraints(TSQLParser.Column_def_table_constraintsContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitColumn_def_table_constraints");
 
 				// -syntax flag must be specified to capture NoCommaInColumnWithTableConstraint
 				if (u.reportSyntaxIssues) {
@@ -3681,15 +3709,15 @@ public class CompassAnalyze {
 				}
 
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitColumn_def_table_constraints");
 				return null;
 			}
 
 			@Override public String visitCreate_table(TSQLParser.Create_tableContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitCreate_table");
 				String tableNameRaw = ctx.tabname.getText();
 				String tableName = u.normalizeName(tableNameRaw);
-				if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"CREATE TABLE "+ ctx.getText()+", tabName=["+tableName+"] ", u.debugPtree);
+				if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"CREATE TABLE "+ ctx.getText()+", tabName=["+tableName+"] ", u.debugPtree);
 
 				// set context
 				u.setContext("TABLE", tableName);
@@ -3734,11 +3762,11 @@ public class CompassAnalyze {
 					}
 				}
 
-				hasSystemVersioningColumn = false;
+				bc.hasSystemVersioningColumn = false;
 
 				visitChildren(ctx);
 
-				if (hasSystemVersioningColumn) {
+				if (bc.hasSystemVersioningColumn) {
 					tableType = "(temporal)";
 					if (status.equals(u.Supported)) {
 						status = featureSupportedInVersion(TemporalTable);
@@ -3764,12 +3792,12 @@ public class CompassAnalyze {
 				    }
 				}
 
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitCreate_table");
 				return null;
 			}
 
 			@Override public String visitColumn_constraint(TSQLParser.Column_constraintContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitColumn_constraint");
 				String riName = noName;
 				if (ctx.constraint != null) {
 					riName = ctx.constraint.getText();
@@ -3789,11 +3817,11 @@ public class CompassAnalyze {
 				if (ctx.null_notnull() == null) {
 					riType += fkOnClause(ctx.on_update(), ctx.on_delete());
 
-					if (hasParent(ctx.parent,"create_table"))           riContext = "CREATE TABLE";
-					else if (hasParent(ctx.parent,"alter_table"))       riContext = "ALTER TABLE";
-					else if (hasParent(ctx.parent,"declare_statement")) riContext = "DECLARE @tableVariable";
-					else if (hasParent(ctx.parent,"create_type"))       riContext = "CREATE TYPE(table)";
-					else if (hasParent(ctx.parent,"create_or_alter_function")) riContext = "CREATE FUNCTION, table return type";	  // ToDo: could alo be ALTER FUNCTION
+					if (hasParent(ctx.parent, TSQLParser.RULE_create_table))           riContext = "CREATE TABLE";
+					else if (hasParent(ctx.parent, TSQLParser.RULE_alter_table))       riContext = "ALTER TABLE";
+					else if (hasParent(ctx.parent, TSQLParser.RULE_declare_statement)) riContext = "DECLARE @tableVariable";
+					else if (hasParent(ctx.parent, TSQLParser.RULE_create_type))       riContext = "CREATE TYPE(table)";
+					else if (hasParent(ctx.parent, TSQLParser.RULE_create_or_alter_function)) riContext = "CREATE FUNCTION, table return type";	  // ToDo: could alo be ALTER FUNCTION
 
 					captureForReplication(riName, riType, "", ctx.for_replication());
 
@@ -3819,12 +3847,12 @@ public class CompassAnalyze {
 				}
 
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitColumn_constraint");
 				return null;
 			}
 
 			@Override public String visitTable_constraint(TSQLParser.Table_constraintContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitTable_constraint");
 
 				String riName = noName;
 				if (ctx.constraint != null) {
@@ -3841,11 +3869,11 @@ public class CompassAnalyze {
 
 				riType += fkOnClause(ctx.on_update(), ctx.on_delete());
 
-				if (hasParent(ctx.parent,"create_table"))           riContext = "CREATE TABLE";
-				else if (hasParent(ctx.parent,"alter_table"))       riContext = "ALTER TABLE";
-				else if (hasParent(ctx.parent,"declare_statement")) riContext = "DECLARE @tableVariable";
-				else if (hasParent(ctx.parent,"create_type"))       riContext = "CREATE TYPE(table)";
-				else if (hasParent(ctx.parent,"create_or_alter_function")) riContext = "CREATE FUNCTION, table return type";	  // ToDo: could alo be ALTER FUNCTION
+				if (hasParent(ctx.parent, TSQLParser.RULE_create_table))           riContext = "CREATE TABLE";
+				else if (hasParent(ctx.parent, TSQLParser.RULE_alter_table))       riContext = "ALTER TABLE";
+				else if (hasParent(ctx.parent, TSQLParser.RULE_declare_statement)) riContext = "DECLARE @tableVariable";
+				else if (hasParent(ctx.parent, TSQLParser.RULE_create_type))       riContext = "CREATE TYPE(table)";
+				else if (hasParent(ctx.parent, TSQLParser.RULE_create_or_alter_function)) riContext = "CREATE FUNCTION, table return type";	  // ToDo: could alo be ALTER FUNCTION
 
 				boolean desc = false;
 				if (ctx.column_name_list_with_order() != null) {
@@ -3870,13 +3898,13 @@ public class CompassAnalyze {
 
 				if (ctx.UNIQUE() != null) {
 					// skip CREATE TYPE/tabvar cases for now; we don't have the symbol table to resolve this
-					if (!hasParent(ctx.parent,"create_type") && !hasParent(ctx.parent,"declare_statement")) {
+					if (!hasParent(ctx.parent, TSQLParser.RULE_create_type) && !hasParent(ctx.parent, TSQLParser.RULE_declare_statement)) {
 						captureUniqueOnNullableCol("", 0, ctx.column_name_list_with_order(), "UNIQUE constraint");
 					}
 				}
 
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitTable_constraint");
 				return null;
 			}
 
@@ -3938,7 +3966,7 @@ public class CompassAnalyze {
 			}
 
 			@Override public String visitCreate_index(TSQLParser.Create_indexContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitCreate_index");
 
 				String ixName = u.normalizeName(ctx.id().getText());
 				String tableName = u.normalizeName(ctx.table_name().getText());
@@ -3998,12 +4026,12 @@ public class CompassAnalyze {
 				}
 
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitCreate_index");
 				return null;
 			}
 
 			@Override public String visitAlter_index(TSQLParser.Alter_indexContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitAlter_index");
 
 				String ixName = "ALL";
 				if (ctx.id() != null) {
@@ -4022,12 +4050,12 @@ public class CompassAnalyze {
 				}
 
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitAlter_index");
 				return null;
 			}
 
 			@Override public String visitTable_type_indices(TSQLParser.Table_type_indicesContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitTable_type_indices");
 
 				String ixName = noName;
 
@@ -4035,8 +4063,8 @@ public class CompassAnalyze {
 				String ixType = "index";
 				if (ctx.UNIQUE() != null) ixType = "index, UNIQUE";
 
-				if (hasParent(ctx.parent,"declare_statement")) ixContext = "DECLARE @tableVariable";
-				else if (hasParent(ctx.parent,"create_type"))  ixContext = "CREATE TYPE(table)";
+				if (hasParent(ctx.parent, TSQLParser.RULE_declare_statement)) ixContext = "DECLARE @tableVariable";
+				else if (hasParent(ctx.parent, TSQLParser.RULE_create_type))  ixContext = "CREATE TYPE(table)";
 
 				if (!ixContext.equals(u.uninitialized)) {
 					captureIndexOptions(ixName, ixType, ixContext, null);
@@ -4044,12 +4072,12 @@ public class CompassAnalyze {
 					captureIndexConstraint(ixName, ixType, ixContext, ctx.clustered(), false, ctx.start.getLine());
 				}
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitTable_type_indices");
 				return null;
 			}
 
 			@Override public String visitInline_index(TSQLParser.Inline_indexContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitInline_index");
 
 				String ixName = noName;
 
@@ -4057,12 +4085,12 @@ public class CompassAnalyze {
 				String ixType = "index";
 				if (ctx.UNIQUE() != null) ixType = "index, UNIQUE";
 
-				if (hasParent(ctx.parent,"create_index"))           ixContext = "CREATE INDEX";
-				else if (hasParent(ctx.parent,"create_table"))      ixContext = "CREATE TABLE";
-				else if (hasParent(ctx.parent,"alter_table"))       ixContext = "ALTER TABLE";
-				else if (hasParent(ctx.parent,"declare_statement")) ixContext = "DECLARE @tableVariable";
-				else if (hasParent(ctx.parent,"create_type"))       ixContext = "CREATE TYPE(table)";
-				else if (hasParent(ctx.parent,"create_or_alter_function")) ixContext = "CREATE FUNCTION, table return type";	  // ToDo: could alo be ALTER FUNCTION
+				if (hasParent(ctx.parent, TSQLParser.RULE_create_index))           ixContext = "CREATE INDEX";
+				else if (hasParent(ctx.parent, TSQLParser.RULE_create_table))      ixContext = "CREATE TABLE";
+				else if (hasParent(ctx.parent, TSQLParser.RULE_alter_table))       ixContext = "ALTER TABLE";
+				else if (hasParent(ctx.parent, TSQLParser.RULE_declare_statement)) ixContext = "DECLARE @tableVariable";
+				else if (hasParent(ctx.parent, TSQLParser.RULE_create_type))       ixContext = "CREATE TYPE(table)";
+				else if (hasParent(ctx.parent, TSQLParser.RULE_create_or_alter_function)) ixContext = "CREATE FUNCTION, table return type";	  // ToDo: could alo be ALTER FUNCTION
 
 				captureIndexOptions(ixName, ixType, ixContext, ctx.with_index_options());
 
@@ -4080,7 +4108,7 @@ public class CompassAnalyze {
 					}
 				}
 
-				if (hasParent(ctx.parent,"create_table")) {
+				if (hasParent(ctx.parent, TSQLParser.RULE_create_table)) {
 					if (!clustered_columnstore) {
 						if (!ixStatus.equals(u.Supported)) {
 							if (u.rewrite) {
@@ -4143,7 +4171,7 @@ public class CompassAnalyze {
 				}
 
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitInline_index");
 				return null;
 			}
 
@@ -4176,7 +4204,7 @@ public class CompassAnalyze {
 			                              TSQLParser.ClusteredContext clustered,
 			                              boolean desc,
 			                              int lineNr) {
-				if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"name=["+name+"] type=["+type+"] context=["+context+"] ", u.debugPtree);
+				if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"name=["+name+"] type=["+type+"] context=["+context+"] ", u.debugPtree);
 
 				String status = u.Supported;
 				String userHint = "";
@@ -4272,7 +4300,7 @@ public class CompassAnalyze {
 					}
 					fmt = type+context+userHint;
 				}
-				if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"capturing: type=["+type+"] context=["+context+"] ", u.debugPtree);
+				if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"capturing: type=["+type+"] context=["+context+"] ", u.debugPtree);
 				captureItem(CompassUtilities.capitalizeFirstChar(fmt), name, DDLReportGroup, "", status, lineNr, 0);
 			}
 
@@ -4326,7 +4354,7 @@ public class CompassAnalyze {
 						else if (ixOp.on_off() != null) optVal = ixOp.on_off().getText();
 						else if (ixOp.DECIMAL() != null) optVal = ixOp.DECIMAL().getText();
 						optVal = optVal.toUpperCase();
-						if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"type=["+type+"]  option=["+option+"] optVal=["+optVal+"]  ", u.debugPtree);
+						if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"type=["+type+"]  option=["+option+"] optVal=["+optVal+"]  ", u.debugPtree);
 
 						if (type.equals("PRIMARY KEY")) {
 							type = "constraint PRIMARY KEY";
@@ -4335,7 +4363,7 @@ public class CompassAnalyze {
 							type = "constraint UNIQUE";
 						}
 
-						if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"type=["+type+"] ", u.debugPtree);
+						if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"type=["+type+"] ", u.debugPtree);
 
 						if (option.equals("IGNORE_DUP_KEY")) {
 							// check for old syntax
@@ -4373,17 +4401,17 @@ public class CompassAnalyze {
 			}
 
 			@Override public String visitColumn_definition(TSQLParser.Column_definitionContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
-				if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"ctx=["+getTextSpaced(ctx)+"] ", u.debugPtree);
+				if (u.debugPtree) dbgTraceVisitEntry("visitColumn_definition");
+				if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"ctx=["+getTextSpaced(ctx)+"] ", u.debugPtree);
 
 	            //find type of column by looking for parent
 				String colType = ""; // default: regular table
-				if (hasParent(ctx.parent,"declare_statement"))                 colType = "(table variable)";
-				else if (hasParent(ctx.parent,"create_type"))                  colType = "(table type)";
-				else if (hasParent(ctx.parent,"func_body_returns_table"))      colType = "(table function result)";
-				else if (hasParent(ctx.parent,"func_body_returns_table_clr"))  colType = "(table function result)";
+				if (hasParent(ctx.parent, TSQLParser.RULE_declare_statement))                 colType = "(table variable)";
+				else if (hasParent(ctx.parent, TSQLParser.RULE_create_type))                  colType = "(table type)";
+				else if (hasParent(ctx.parent, TSQLParser.RULE_func_body_returns_table))      colType = "(table function result)";
+				else if (hasParent(ctx.parent, TSQLParser.RULE_func_body_returns_table_clr))  colType = "(table function result)";
 
-				if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+" colType=["+colType+"] ", u.debugPtree);
+				if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+" colType=["+colType+"] ", u.debugPtree);
 
 				if (ctx.TIMESTAMP() != null) {
 					// a TIMESTAMP column declared only as 'timestamp'
@@ -4407,7 +4435,7 @@ public class CompassAnalyze {
 	            		dataType = u.applyPatternFirst(dataType, "^(.*)(IDENTITY.*?)$", "$1 $2");
 	            		dataType = u.applyPatternFirst(dataType, "((NOT)?\\s+NULL)?$", "");
 	            		String identityCol = CompassUtilities.getPatternGroup(dataType, "^.*?(IDENTITY(\\(.*?\\))?)((NOT)?\\s+NULL)?$", 1);
-	            		if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"IDENTITY in data_type: colName=["+colName+"] dataType=["+dataType+"] identityCol=["+identityCol+"] ", u.debugPtree);
+            		if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"IDENTITY in data_type: colName=["+colName+"] dataType=["+dataType+"] identityCol=["+identityCol+"] ", u.debugPtree);
 
 	            		// find a NOT FOR REPLICATION clause, it's under special_column_option
 	            		List<TSQLParser.Special_column_optionContext> specialOption = ctx.special_column_option();
@@ -4428,7 +4456,7 @@ public class CompassAnalyze {
 	            			//u.appOutput(u.thisProc()+"seed identityCol=["+identityCol+"] ");
 	            		}
 	            		dataType += " " + identityCol;
-	            		if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"IDENTITY in column_definition: colName=["+colName+"] dataType=["+dataType+"] identityCol=["+identityCol+"] ", u.debugPtree);
+            		if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"IDENTITY in column_definition: colName=["+colName+"] dataType=["+dataType+"] identityCol=["+identityCol+"] ", u.debugPtree);
 
 	            		captureForReplication(colName, "IDENTITY", "", ctx.for_replication());
 	            	}
@@ -4468,7 +4496,7 @@ public class CompassAnalyze {
 	            		}
 	            	}
 
-	            	if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"column: colName=["+colName+"] dataType=["+dataType+"]", u.debugPtree);
+            	if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"column: colName=["+colName+"] dataType=["+dataType+"]", u.debugPtree);
 
 	            	if (dataType.equals("XML COLUMN_SET FOR ALL_SPARSE_COLUMNS")) {
 						captureXMLFeature("", "XML COLUMN_SET FOR ALL_SPARSE_COLUMNS", "", ctx.start.getLine());
@@ -4478,7 +4506,7 @@ public class CompassAnalyze {
 			        if (!u.buildColSymTab) {
 			        	// record columns defined in current batch, also when no permanent symtab is built: needed for unique-on-nullable check
 		            	// only do this for CREATE/ALTER TABLE
-		            	if (hasParent(ctx.parent,"create_table") || hasParent(ctx.parent,"alter_table")) {
+		            	if (hasParent(ctx.parent, TSQLParser.RULE_create_table) || hasParent(ctx.parent, TSQLParser.RULE_alter_table)) {
 			            	boolean nullable = false;
 			            	if (ctx.null_notnull().size() == 0) {
 			            		if (ctx.column_constraint().size() > 0) {
@@ -4519,7 +4547,7 @@ public class CompassAnalyze {
 					}
 					if (dataType.contains(" IDENTITY(") || dataType.endsWith(" IDENTITY") || dataTypeOrig.contains(" IDENTITY)")) {
 						String stmtType = "CREATE TABLE";
-						if (hasParent(ctx.parent,"alter_table")) stmtType = "ALTER TABLE";
+						if (hasParent(ctx.parent, TSQLParser.RULE_alter_table)) stmtType = "ALTER TABLE";
 														
 						// check UDD
 						if (!UDDName.isEmpty()) {
@@ -4563,7 +4591,7 @@ public class CompassAnalyze {
 	            	String status = u.Supported;
 	            	String persisted = "";
 	            	String expression = ctx.expression().getText().toUpperCase();
-	            	if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"compcol: colName=["+colName+"] expression=["+expression+"] ", u.debugPtree);
+            	if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"compcol: colName=["+colName+"] expression=["+expression+"] ", u.debugPtree);
 
 	            	if (ctx.PERSISTED() == null) {
 	            		status = featureSupportedInVersion(NonPersistedCompCol);
@@ -4589,15 +4617,15 @@ public class CompassAnalyze {
 				
 				if (isCompCol) inCompCol = false;
 				inCompColType = "";
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitColumn_definition");
 				return null;
 			}
 
 			@Override public String visitSpecial_column_option(TSQLParser.Special_column_optionContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitSpecial_column_option");
 				String option = u.normalizeName(ctx.getText().toUpperCase());
 				option = u.applyPatternAll(option, "^(\\w+)\\b.*$", "$1");
-				if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"option=["+option+"]  ", u.debugPtree);
+				if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"option=["+option+"]  ", u.debugPtree);
 				if (!option.contains("FORREPLICATION") ){
 					if (option.startsWith("MASKED")) option = "MASKED";
 					if (option.startsWith("ENCRYPTED")) option = "ENCRYPTED";
@@ -4624,15 +4652,15 @@ public class CompassAnalyze {
 				}
 
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitSpecial_column_option");
 				return null;
 			}
 
 			@Override public String visitAlter_table(TSQLParser.Alter_tableContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitAlter_table");
 				String tableName = u.normalizeName(ctx.tabname.getText());
 
-				if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"ALTER table "+ ctx.getText()+", tableName=["+tableName+"] ", u.debugPtree);
+				if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"ALTER table "+ ctx.getText()+", tableName=["+tableName+"] ", u.debugPtree);
 
 				// set context
 				u.setContext("TABLE", tableName);
@@ -4786,7 +4814,7 @@ public class CompassAnalyze {
 					}
 				}
 
-				if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"subcmd=["+subcmd+"] captured=["+captured+"] ", u.debugPtree);
+				if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"subcmd=["+subcmd+"] captured=["+captured+"] ", u.debugPtree);
 				if (!captured) {
 					if (!subcmd.isEmpty()) subcmd = ".." + subcmd;
 					captureItem("ALTER TABLE"+subcmd, tableName, DDLReportGroup, "", status, ctx.start.getLine(), 0);
@@ -4797,7 +4825,7 @@ public class CompassAnalyze {
 				// clear context
 				u.resetSubContext();
 
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitAlter_table");
 				return null;
 			}
 
@@ -4830,9 +4858,9 @@ public class CompassAnalyze {
 			}
 
 			@Override public String visitCreate_or_alter_dml_trigger(TSQLParser.Create_or_alter_dml_triggerContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitCreate_or_alter_dml_trigger");
 				String trigName = u.normalizeName(ctx.simple_name().getText());
-				if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"proc "+ ctx.getText()+", trigName=["+trigName+"] ", u.debugPtree);
+				if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"proc "+ ctx.getText()+", trigName=["+trigName+"] ", u.debugPtree);
 
 				// set context
 				u.setContext("TRIGGER", trigName);
@@ -4900,11 +4928,11 @@ public class CompassAnalyze {
 								status = u.NotSupported;
 							}
 						}
-						captureItem(kwd + " TRIGGER, " + trigType + " " + trigOps + IOT, trigName, InsteadOfTrigger, baseObj, status, ctx.start.getLine(), batchLines.toString());
+						captureItem(kwd + " TRIGGER, " + trigType + " " + trigOps + IOT, trigName, InsteadOfTrigger, baseObj, status, ctx.start.getLine(), bc.batchLines.toString());
 					}
 					else {
 						// FOR/AFTER trigger
-						captureItem(kwd + " TRIGGER, " + trigType + " " + trigOps, trigName, TriggersReportGroup, "", status, ctx.start.getLine(), batchLines.toString());
+						captureItem(kwd + " TRIGGER, " + trigType + " " + trigOps, trigName, TriggersReportGroup, "", status, ctx.start.getLine(), bc.batchLines.toString());
 					}
 				}
 
@@ -4925,7 +4953,7 @@ public class CompassAnalyze {
 				captureForReplication(trigName, "TRIGGER", kwd, ctx.for_replication());
 
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitCreate_or_alter_dml_trigger");
 				return null;
 			}
 
@@ -4951,9 +4979,9 @@ public class CompassAnalyze {
 			}
 
 			@Override public String visitCreate_or_alter_ddl_trigger(TSQLParser.Create_or_alter_ddl_triggerContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitCreate_or_alter_ddl_trigger");
 				String trigName = u.normalizeName(ctx.simple_name().getText());
-				if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"proc "+ ctx.getText()+", trigName=["+trigName+"] ", u.debugPtree);
+				if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"proc "+ ctx.getText()+", trigName=["+trigName+"] ", u.debugPtree);
 
 				// set context
 				u.setContext("TRIGGER", trigName);
@@ -4968,7 +4996,7 @@ public class CompassAnalyze {
 
 				// ToDo: get & validate DDL events
 				List<TerminalNode> trigActionList = ctx.ID();
-				Integer nrLines = batchLines;
+				Integer nrLines = bc.batchLines;
 				for (TerminalNode n : trigActionList) {
 					String trigAction = n.getText().toUpperCase();
 					status = featureSupportedInVersion(DDLTrigger, trigAction);
@@ -4982,7 +5010,7 @@ public class CompassAnalyze {
 				captureTriggerOptions("DDL", trigName, options, ctx.start.getLine());
 
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitCreate_or_alter_ddl_trigger");
 				return null;
 			}
 
@@ -5001,9 +5029,9 @@ public class CompassAnalyze {
 			}
 
 			@Override public String visitCreate_or_alter_function(TSQLParser.Create_or_alter_functionContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitCreate_or_alter_function");
 				String funcName = u.normalizeName(ctx.func_proc_name_schema().getText());
-				if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"func "+ ctx.getText()+", funcName=["+funcName+"] ", u.debugPtree);
+				if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"func "+ ctx.getText()+", funcName=["+funcName+"] ", u.debugPtree);
 				// set context
 				u.setContext("FUNCTION", funcName);
 
@@ -5036,7 +5064,7 @@ public class CompassAnalyze {
 						// datatype is not listed, means: supported
 					}
 				
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"UDF "+ ctx.getText()+", funcName=["+funcName+"] sudfDataType=["+sudfDataType+"] ", u.debugPtree);
+					if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"UDF "+ ctx.getText()+", funcName=["+funcName+"] sudfDataType=["+sudfDataType+"] ", u.debugPtree);
 					captureItem(sudfDataType + sudfDataTypeReport + " scalar function result type", "", Datatypes, getBaseDataType(sudfDataType), statusDataType, ctx.start.getLine());
 					// for UDDs, the AS keyword is mandatory in Babelfish, though it should be optional. For system datatypes, it is optional
 					if (ctx.func_body_returns_scalar().AS() == null) {
@@ -5076,7 +5104,7 @@ public class CompassAnalyze {
 				}
 				else if (ctx.func_body_returns_table() != null) {
 					udfType = "table";
-					inMultiStmtTUDF = true;
+					bc.inMultiStmtTUDF = true;
 					options = ctx.func_body_returns_table().function_option();
 					// this is captured as a RETURN statement instead
 //					captureItem("RETURN"+" result set, in function", "", ControlFlowReportGroup, "RETURN", u.Supported, ctx.func_body_returns_table().RETURN().getSymbol().getLine());
@@ -5102,7 +5130,7 @@ public class CompassAnalyze {
 					status = featureSupportedInVersion("ALTER FUNCTION");  // ALTER and CREATE OR ALTER go together
 				}
 
-				if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"UDF "+ getTextSpaced(ctx) +", funcName=["+funcName+"] udfType=["+udfType+"] udfType2=["+udfType2+"] ", u.debugPtree);
+				if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"UDF "+ getTextSpaced(ctx) +", funcName=["+funcName+"] udfType=["+udfType+"] udfType2=["+udfType2+"] ", u.debugPtree);
 
 				// capture UDF
 				String udfStatus = "";
@@ -5111,7 +5139,7 @@ public class CompassAnalyze {
 					captureItem(kwd + " FUNCTION, " + udfType + ", " + udfType2, funcName, FunctionOptions, udfType2, udfStatus, ctx.start.getLine(), 0);
 				}
 				else {
-					captureItem(kwd + " FUNCTION, " + udfType, funcName, FunctionOptions, udfType, status, ctx.start.getLine(), batchLines.toString());
+					captureItem(kwd + " FUNCTION, " + udfType, funcName, FunctionOptions, udfType, status, ctx.start.getLine(), bc.batchLines.toString());
 				}
 
 				captureParameters("function", funcName, udfType, ctx.procedure_param());
@@ -5145,15 +5173,15 @@ public class CompassAnalyze {
 				}
 
 				visitChildren(ctx);
-				inMultiStmtTUDF = false;
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				bc.inMultiStmtTUDF = false;
+				if (u.debugPtree) dbgTraceVisitExit("visitCreate_or_alter_function");
 				return null;
 			}
 
 			@Override public String visitCreate_or_alter_procedure(TSQLParser.Create_or_alter_procedureContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitCreate_or_alter_procedure");
 				String procName = u.normalizeName(ctx.func_proc_name_schema().getText());
-				if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"proc "+ ctx.getText()+", procName=["+procName+"] ", u.debugPtree);
+				if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"proc "+ ctx.getText()+", procName=["+procName+"] ", u.debugPtree);
 
 				// set context
 				u.setContext("PROCEDURE", procName);
@@ -5177,7 +5205,7 @@ public class CompassAnalyze {
 
 				if (ctx.proc_version != null) {
 					String procStatus = featureSupportedInVersion(ProcVersionDeclare);
-					captureItem(kwd + " PROCEDURE proc;version", procName+";"+ctx.proc_version.getText(), ProcVersionDeclare, "", procStatus, ctx.start.getLine(), batchLines.toString());
+					captureItem(kwd + " PROCEDURE proc;version", procName+";"+ctx.proc_version.getText(), ProcVersionDeclare, "", procStatus, ctx.start.getLine(), bc.batchLines.toString());
 					captured = true;
 				}
 
@@ -5186,7 +5214,7 @@ public class CompassAnalyze {
 					if (procName.startsWith("#") || procName.startsWith("[#")) {
 						procStatus = featureSupportedInVersion(TemporaryProcedures);
 						if (!procStatus.equals(u.Supported)) {
-							captureItem(kwd + " PROCEDURE, #temporary: not dropped automatically", procName, TemporaryProcedures, "", procStatus, ctx.start.getLine(), batchLines.toString());
+							captureItem(kwd + " PROCEDURE, #temporary: not dropped automatically", procName, TemporaryProcedures, "", procStatus, ctx.start.getLine(), bc.batchLines.toString());
 							captured = true;
 						}
 					}
@@ -5195,13 +5223,13 @@ public class CompassAnalyze {
 				if (!captured) {
 					if (!procType.isEmpty()) {
 						procStatus = featureSupportedInVersion(ProcedureOptions,procType);
-						captureItem(kwd + " PROCEDURE, "+procType, procName, ProcedureOptions, procType, procStatus, ctx.start.getLine(), batchLines.toString());
+						captureItem(kwd + " PROCEDURE, "+procType, procName, ProcedureOptions, procType, procStatus, ctx.start.getLine(), bc.batchLines.toString());
 						captured = true;
 					}
 				}
 
 				if (!captured) {
-					captureItem(kwd + " PROCEDURE", procName, ProceduresReportGroup, "", status, ctx.start.getLine(), batchLines.toString());
+					captureItem(kwd + " PROCEDURE", procName, ProceduresReportGroup, "", status, ctx.start.getLine(), bc.batchLines.toString());
 					captured = true;
 				}
 
@@ -5249,12 +5277,12 @@ public class CompassAnalyze {
 				captureForReplication(procName, "PROCEDURE", kwd, ctx.for_replication());
 
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitCreate_or_alter_procedure");
 				return null;
 			}
 
 			public void captureParameters(String objType, String objName, String funcType, List<TSQLParser.Procedure_paramContext> params) {
-				if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"objType=["+objType+"] objName=["+objName+"] nr.params=["+params.size()+"] ", u.debugPtree);
+				if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"objType=["+objType+"] objName=["+objName+"] nr.params=["+params.size()+"] ", u.debugPtree);
 
 				String execParams = "";
 				String execParamsNull = "";
@@ -5384,7 +5412,7 @@ public class CompassAnalyze {
 						CaptureSpecialCharIdentifier(parName, c, SpecialCharsParameter, params.get(i).start.getLine());
 					}
 		        }
-		        if (pass == 1) return;
+		        if (bc.pass == 1) return;
 
 		        // check max # parameters
 		        String maxParSection = MaxProcParameters;
@@ -5458,9 +5486,9 @@ public class CompassAnalyze {
 			}
 
 			@Override public String visitCreate_or_alter_view(TSQLParser.Create_or_alter_viewContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitCreate_or_alter_view");
 				String viewName = u.normalizeName(ctx.simple_name().getText());
-				if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"view "+ ctx.getText()+", viewName=["+viewName+"] ", u.debugPtree);
+				if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"view "+ ctx.getText()+", viewName=["+viewName+"] ", u.debugPtree);
 
 				String kwd = "CREATE";
 				String status = u.Supported;
@@ -5469,7 +5497,7 @@ public class CompassAnalyze {
 					if (ctx.CREATE() != null) kwd = "CREATE OR ALTER";
 					status = featureSupportedInVersion("ALTER VIEW");  // ALTER and CREATE OR ALTER go together
 				}
-				captureItem(kwd + " VIEW", viewName, ViewsReportGroup, "", status, ctx.start.getLine(),  batchLines.toString());
+				captureItem(kwd + " VIEW", viewName, ViewsReportGroup, "", status, ctx.start.getLine(),  bc.batchLines.toString());
 
 				// set context
 				u.setContext("VIEW", viewName);
@@ -5492,23 +5520,23 @@ public class CompassAnalyze {
 				}
 
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitCreate_or_alter_view");
 				return null;
 			}
 
 			@Override public String visitRanking_windowed_function(TSQLParser.Ranking_windowed_functionContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitRanking_windowed_function");
 				String aggFuncName = u.uninitialized;
 				if (ctx.agg_func != null) aggFuncName = ctx.agg_func.getText();
 				else if (ctx.NTILE() != null) aggFuncName = ctx.NTILE().getText();
 				captureAggregateFunction(aggFuncName, ctx.start.getLine());
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitRanking_windowed_function");
 				return null;
 			}
 
 			@Override public String visitAnalytic_windowed_function(TSQLParser.Analytic_windowed_functionContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitAnalytic_windowed_function");
 				String aggFuncName = u.uninitialized;
 				if (ctx.first_last != null) aggFuncName = ctx.first_last.getText();
 				else if (ctx.lag_lead != null) aggFuncName = ctx.lag_lead.getText();
@@ -5517,12 +5545,12 @@ public class CompassAnalyze {
 				else if (ctx.apct != null) aggFuncName = ctx.apct.getText();
 				captureAggregateFunction(aggFuncName, ctx.start.getLine());
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitAnalytic_windowed_function");
 				return null;
 			}
 
 			@Override public String visitAggregate_windowed_function(TSQLParser.Aggregate_windowed_functionContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitAggregate_windowed_function");
 				String aggFuncName = u.uninitialized;
 				if (ctx.agg_func != null) aggFuncName = ctx.agg_func.getText();
 				else if (ctx.cnt != null) aggFuncName = ctx.cnt.getText();
@@ -5531,7 +5559,7 @@ public class CompassAnalyze {
 				else if (ctx.GROUPING_ID() != null) aggFuncName = ctx.GROUPING_ID().getText();
 				captureAggregateFunction(aggFuncName, ctx.start.getLine());
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitAggregate_windowed_function");
 				return null;
 			}
 
@@ -5550,13 +5578,13 @@ public class CompassAnalyze {
 			}
 
 			@Override public String visitFunction_call(TSQLParser.Function_callContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitFunction_call");
 
 				if (ctx.func_proc_name_server_database_schema() != null) {
 					String funcName = u.normalizeName(ctx.func_proc_name_server_database_schema().getText().toUpperCase());
 					TSQLParser.Function_arg_listContext argListRaw = ctx.function_arg_list();
 					int nrArgs = argListCount( ctx.function_arg_list());
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"scalar fname fulltxt=["+ ctx.getText()+"], funcName=["+funcName+"]nrArgs=["+nrArgs+"]  ", u.debugPtree);
+					if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"scalar fname fulltxt=["+ ctx.getText()+"], funcName=["+funcName+"]nrArgs=["+nrArgs+"]  ", u.debugPtree);
 
 					List<TSQLParser.ExpressionContext> argList = new ArrayList<>();
 					List<String> argListText = new ArrayList<>();
@@ -5607,7 +5635,7 @@ public class CompassAnalyze {
 						// it's a BIF or UDF
 
 						//debug
-						if (u.debugging) {
+						if (u.debugPtree) {
 							u.dbgOutput("scalar nrArgs=["+nrArgs+"]  ctx childcount=["+ctx.getChildCount()+"]", u.debugPtree);
 							if (argListRaw != null) u.dbgOutput("scalar arglist childcount=["+argListRaw.getChildCount()+"]  arglist=["+ argListRaw.getText()+"]", u.debugPtree);
 							for (int i = 0; i <ctx.getChildCount(); i++) {
@@ -5620,11 +5648,11 @@ public class CompassAnalyze {
 							if (argListRaw.STAR() != null) argListText.add(BIFArgStar);
 							if (nrArgs > 0) {
 								argList = argListRaw.expression();
-								if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"nrArgs=["+nrArgs+"] arglist exprlist size=["+argList.size()+"] ", u.debugPtree);
+								if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"nrArgs=["+nrArgs+"] arglist exprlist size=["+argList.size()+"] ", u.debugPtree);
 								for (int i = 0; i <nrArgs; i++) {
 									TSQLParser.ExpressionContext expr = argList.get(i);
 									argListText.add(argList.get(i).getText());
-									if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"arglist expr i=["+i+"/"+nrArgs+"] =["+argList.get(i).getText()+"] ", u.debugPtree);
+									if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"arglist expr i=["+i+"/"+nrArgs+"] =["+argList.get(i).getText()+"] ", u.debugPtree);
 
 									String itemTxt = ParamValueDEFAULT+", function call";
 									if (argList.get(i).getText().equalsIgnoreCase("DEFAULT")) {
@@ -5661,7 +5689,7 @@ public class CompassAnalyze {
 							if (argListRaw.STAR() != null) nrArgs++;
 						}
 
-						if (inTUDFCall) {
+						if (bc.inTUDFCall) {
 							// this is to avoid reporting a TUDF call also as a scalar UDF call
 
 							// check for TUDF BIFs
@@ -5673,7 +5701,7 @@ public class CompassAnalyze {
 							}
 							else {
 								captureItem("Function call, table", funcName, FunctionsReportGroup, "", u.Supported, ctx.start.getLine());
-								inTUDFCall = false;
+								bc.inTUDFCall = false;
 							}
 						}
 						else {
@@ -5705,13 +5733,13 @@ public class CompassAnalyze {
 										statusUDF = featureSupportedInVersion(CompColFeatures, cfgScalarUdfCall);
 									}
 									else {
-										if (hasParent(ctx.parent, "table_constraint") || hasParent(ctx.parent, "column_constraint")) {
+										if (hasParent(ctx.parent, TSQLParser.RULE_table_constraint) || hasParent(ctx.parent, TSQLParser.RULE_column_constraint)) {
 											// UDF is either in a column default or in a CHECK constraint
 											// ToDo: tabvars?
 											String ddl = "CREATE TABLE";
-											if (hasParent(ctx.parent, "alter_table")) ddl = "ALTER TABLE";
+											if (hasParent(ctx.parent, TSQLParser.RULE_alter_table)) ddl = "ALTER TABLE";
 
-											if (hasParent(ctx.parent, "search_condition")) {
+											if (hasParent(ctx.parent, TSQLParser.RULE_search_condition)) {
 												// CHECK constraint
 												String statusUDFInCHECK = featureSupportedInVersion(SUDFinTableDDL, ddl + " CHECK");
 												if (!statusUDFInCHECK.equals(u.Supported)) statusUDF = statusUDFInCHECK;
@@ -5736,23 +5764,23 @@ public class CompassAnalyze {
 					capturePartitioning("$PARTITION", funcName, ctx.start.getLine());
 				}
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitFunction_call");
 				return null;
 			}
 
 			@Override public String visitNext_value_for(TSQLParser.Next_value_forContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitNext_value_for");
 
 				String seqName = u.normalizeName(ctx.full_object_name().getText());
 				String statusNVF = featureSupportedInVersion(NextValueFor);
 				captureItem(NextValueFor, seqName, NextValueFor, "", statusNVF, ctx.start.getLine());
 
 				String nvfContext = "";
-				if (hasParent(ctx.parent, "declare_local")) {
+				if (hasParent(ctx.parent, TSQLParser.RULE_declare_local)) {
 					//u.appOutput(u.thisProc()+"NEXT VALUE FOR in DECLARE @v, "+u.currentSrcFile+", "+u.currentObjectName+", line "+ctx.start.getLine());
 					nvfContext = "DECLARE @v";
 				}
-				else if (hasParent(ctx.parent, "set_statement")) {
+				else if (hasParent(ctx.parent, TSQLParser.RULE_set_statement)) {
 					//u.appOutput(u.thisProc()+"NEXT VALUE FOR in SET @v, "+u.currentSrcFile+", "+u.currentObjectName+", line "+ctx.start.getLine());
 					nvfContext = "SET @v";
 				}
@@ -5760,22 +5788,22 @@ public class CompassAnalyze {
 					//u.appOutput(u.thisProc()+"NEXT VALUE FOR in OVER(), "+u.currentSrcFile+", "+u.currentObjectName+", line "+ctx.start.getLine());
 					nvfContext = "OVER()";
 				}
-				else if (hasParent(ctx.parent, "if_statement") || hasParent(ctx.parent, "while_statement")) {
-					if (hasParent(ctx.parent, "update_statement") ||
-			            hasParent(ctx.parent, "delete_statement") ||
-			            hasParent(ctx.parent, "insert_statement") ||
-			            hasParent(ctx.parent, "merge_statement")  ||
-			            hasParent(ctx.parent, "select_statement") ||
-			            hasParent(ctx.parent, "alter_table")      ||
-			            hasParent(ctx.parent, "create_table")) {
+				else if (hasParent(ctx.parent, TSQLParser.RULE_if_statement) || hasParent(ctx.parent, TSQLParser.RULE_while_statement)) {
+					if (hasParent(ctx.parent, TSQLParser.RULE_update_statement) ||
+			            hasParent(ctx.parent, TSQLParser.RULE_delete_statement) ||
+			            hasParent(ctx.parent, TSQLParser.RULE_insert_statement) ||
+			            hasParent(ctx.parent, TSQLParser.RULE_merge_statement)  ||
+			            hasParent(ctx.parent, TSQLParser.RULE_select_statement) ||
+			            hasParent(ctx.parent, TSQLParser.RULE_alter_table)      ||
+			            hasParent(ctx.parent, TSQLParser.RULE_create_table)) {
 			            	// ignore, it's OK
 			            }
 			            else {
-							if (hasParent(ctx.parent, "if_statement")) {
+							if (hasParent(ctx.parent, TSQLParser.RULE_if_statement)) {
 								//u.appOutput(u.thisProc()+"NEXT VALUE FOR in IF, "+u.currentSrcFile+", "+u.currentObjectName+", line "+ctx.start.getLine());
 								nvfContext = "IF";
 							}
-							else if (hasParent(ctx.parent, "while_statement")) {
+							else if (hasParent(ctx.parent, TSQLParser.RULE_while_statement)) {
 								//u.appOutput(u.thisProc()+"NEXT VALUE FOR in WHILE, "+u.currentSrcFile+", "+u.currentObjectName+", line "+ctx.start.getLine());
 								nvfContext = "WHILE";
 							}
@@ -5790,9 +5818,9 @@ public class CompassAnalyze {
 					}
 				}
 				
-				u.appOutput(u.thisProc()+"seqName=["+seqName+"] ");
+				if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"seqName=["+seqName+"] ", u.debugPtree);
 				if (!CompassUtilities.getPatternGroup(seqName, "^(\\w+\\.\\.\\w+)$", 1).isEmpty()) {
-					u.appOutput(u.thisProc()+"dobueld-ot in seqname");
+					if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"double-dot in seqName", u.debugPtree);
 					nvfContext = "DOTDOT";
 					String statusNVFC = featureSupportedInVersion(NextValueForContext, nvfContext);
 					if (!statusNVFC.equals(u.Supported)) {
@@ -5802,7 +5830,7 @@ public class CompassAnalyze {
 				}
 
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitNext_value_for");
 				return null;
 			}
 
@@ -5810,7 +5838,7 @@ public class CompassAnalyze {
 				boolean isMethod = false;
 				// ToDo: we can improve here: if the function takes a non-string as input argument, it cannot be an XML method for example
 				String funcNameBase = u.getObjectNameFromID(funcName);
-				if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"funcName=["+funcName+"]  funcNameBase=["+funcNameBase+"] refMethodList=["+refMethodList+"]  UDFListLikeMethod=["+UDFListLikeMethod.keySet()+"] UDFList=["+UDFList.keySet()+"] ", u.debugPtree);
+				if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"funcName=["+funcName+"]  funcNameBase=["+funcNameBase+"] refMethodList=["+refMethodList+"]  UDFListLikeMethod=["+UDFListLikeMethod.keySet()+"] UDFList=["+UDFList.keySet()+"] ", u.debugPtree);
 				if (refMethodList.contains((funcNameBase))) {
 					String schemaName = u.getSchemaNameFromID(funcNameBase);
 					if (schemaName.equals("DBO") || schemaName.equals("GUEST")) {
@@ -5834,28 +5862,28 @@ public class CompassAnalyze {
 						}
 					}
 				}
-				if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"return: isMethod=["+isMethod+"]  ", u.debugPtree);
+				if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"return: isMethod=["+isMethod+"]  ", u.debugPtree);
 				return isMethod;
 			}
 
 			@Override public String visitTrigger_column_updated(TSQLParser.Trigger_column_updatedContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitTrigger_column_updated");
 				captureBIF("UPDATE", ctx.start.getLine(), "", 0);
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitTrigger_column_updated");
 				return null;
 			}
 
 			@Override public String visitHierarchyid_methods(TSQLParser.Hierarchyid_methodsContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitHierarchyid_methods");
 				String method = ctx.method.getText().toUpperCase();
 
 				boolean isSpatial = false;
 				if (method.equals("TOSTRING")) {
 					// can be hierachyID or geospatial - how can we tell?
-					if (parentRuleName(ctx.parent,1).equals("method_call")) {
+					if (parentRuleIndex(ctx.parent,1) == TSQLParser.RULE_method_call) {
 						RuleContext parentCtx = ctx.parent;
-						if (parentRuleName(ctx.parent,2).equals("expression")) {
+						if (parentRuleIndex(ctx.parent,2) == TSQLParser.RULE_expression) {
 							parentCtx = parentCtx.parent;
 							String parentExpr = parentCtx.getText().toUpperCase();
 							if (parentExpr.startsWith("@")) {
@@ -5886,20 +5914,20 @@ public class CompassAnalyze {
 				}
 
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitHierarchyid_methods");
 				return null;
 			}
 
 			@Override public String visitHierarchyid_coloncolon_methods(TSQLParser.Hierarchyid_coloncolon_methodsContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitHierarchyid_coloncolon_methods");
 				captureHIERARCHYIDFeature("HIERARCHYID.", ctx.method.getText().toUpperCase(), "()", ctx.start.getLine());
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitHierarchyid_coloncolon_methods");
 				return null;
 			}
 
 			@Override public String visitGraph_clause(TSQLParser.Graph_clauseContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitGraph_clause");
 
 				String txt = ctx.getText().toUpperCase();
 				txt = txt.substring(2);
@@ -5907,12 +5935,12 @@ public class CompassAnalyze {
 				captureItem("CREATE TABLE..AS "+txt, "", SQLGraph, "", status, ctx.start.getLine());
 
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitGraph_clause");
 				return null;
 			}
 
 			@Override public String visitRowset_function(TSQLParser.Rowset_functionContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitRowset_function");
 				String funcType = "";
 				if (ctx.open_xml() != null) funcType = "OPENXML";
 				else if (ctx.open_json() != null) funcType = "OPENJSON";
@@ -5925,10 +5953,10 @@ public class CompassAnalyze {
 				// don't report OPENQUERY() twice
 				boolean openQueryDML = false;
 				if (ctx.open_query() != null) {
-					if (parentRuleName(ctx.parent).equals("update_statement") ||
-					    parentRuleName(ctx.parent).equals("delete_statement") ||
-					    parentRuleName(ctx.parent).equals("delete_statement_from") ||
-					    parentRuleName(ctx.parent).equals("insert_statement")) {
+					if (parentRuleIndex(ctx.parent) == TSQLParser.RULE_update_statement ||
+					    parentRuleIndex(ctx.parent) == TSQLParser.RULE_delete_statement ||
+					    parentRuleIndex(ctx.parent) == TSQLParser.RULE_delete_statement_from ||
+					    parentRuleIndex(ctx.parent) == TSQLParser.RULE_insert_statement) {
 							openQueryDML = true;
 					}
 				}
@@ -5942,7 +5970,7 @@ public class CompassAnalyze {
 				}
 
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitRowset_function");
 				return null;
 			}
 
@@ -5963,7 +5991,7 @@ public class CompassAnalyze {
 			}
 
 			@Override public String visitFreetext_function(TSQLParser.Freetext_functionContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitFreetext_function");
 				String funcType = "";
 				if (ctx.CONTAINSTABLE() != null) funcType = "CONTAINSTABLE";
 				else if (ctx.FREETEXTTABLE() != null) funcType = "FREETEXTTABLE";
@@ -5973,12 +6001,12 @@ public class CompassAnalyze {
 				captureBIF(funcType, ctx.start.getLine());
 
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitFreetext_function");
 				return null;
 			}
 
 			@Override public String visitFreetext_predicate(TSQLParser.Freetext_predicateContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitFreetext_predicate");
 				String funcType = "";
 				if (ctx.CONTAINS() != null) {
 					funcType = "CONTAINS";
@@ -5992,22 +6020,22 @@ public class CompassAnalyze {
 				captureBIF(funcType, ctx.start.getLine(), "", nrArgs, ctx.expression());
 
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitFreetext_predicate");
 				return null;
 			}
 
 			@Override public String visitBuilt_in_functions(TSQLParser.Built_in_functionsContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitBuilt_in_functions");
 				if (ctx.bif_no_brackets != null) {
 					captureBIF(ctx.bif_no_brackets.getText().toUpperCase(), ctx.start.getLine(), "nobracket", 0, null, null, ctx.start.getLine(), ctx.start.getCharPositionInLine(), ctx.stop.getLine(), ctx.stop.getCharPositionInLine(), ctx.start.getStartIndex(), ctx.stop.getStopIndex());
 				}
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitBuilt_in_functions");
 				return null;
 			}
 
 			@Override public String visitBif_cast_parse(TSQLParser.Bif_cast_parseContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitBif_cast_parse");
 
 				String status = u.Supported;
 				String funcName = ctx.bif.getText().toUpperCase();
@@ -6037,12 +6065,12 @@ public class CompassAnalyze {
 				}
 
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitBif_cast_parse");
 				return null;
 			}
 
 			@Override public String visitBif_convert(TSQLParser.Bif_convertContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitBif_convert");
 
 				String status = u.NotSupported;
 				String funcName = ctx.bif.getText().toUpperCase();
@@ -6084,7 +6112,7 @@ public class CompassAnalyze {
 				}
 
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitBif_convert");
 				return null;
 			}
 
@@ -6136,9 +6164,9 @@ public class CompassAnalyze {
 			@Override public String visitSTRING_AGG(TSQLParser.STRING_AGGContext ctx) {
 				// This rule matches STRING_AGG() WITHIN GROUP(ORDER BY...)
 				// STRING_AGG() without the WITHIN GROUP clause is matched by rule func_proc_name_server_database_schema, caught in captureBIF()
-				STRING_AGG_WITHIN_GROUP = true;
+				bc.STRING_AGG_WITHIN_GROUP = true;
 				captureBIF("STRING_AGG", ctx.start.getLine());
-				STRING_AGG_WITHIN_GROUP = false;
+				bc.STRING_AGG_WITHIN_GROUP = false;
 				visitChildren(ctx);
 				return null;
 			}
@@ -6206,7 +6234,7 @@ public class CompassAnalyze {
 			}
 
 			@Override public String visitDeclare_statement(TSQLParser.Declare_statementContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitDeclare_statement");
 				if (ctx.LOCAL_ID() != null) {
 					String varName = ctx.LOCAL_ID().getText();
 					u.setContext("TABLE", varName);
@@ -6218,12 +6246,12 @@ public class CompassAnalyze {
 				// clear context
 				u.resetSubContext();
 								
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitDeclare_statement");
 				return null;
 			}
 
 			@Override public String visitDeclare_local(TSQLParser.Declare_localContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitDeclare_local");
 				String varName  = ctx.LOCAL_ID().getText();
 				String dataType = u.normalizeName(ctx.data_type().getText().toUpperCase(), "datatype");
 				String varDft = ctx.expression() != null ? ctx.expression().getText() : "";
@@ -6282,21 +6310,21 @@ public class CompassAnalyze {
 				captureItem(varItem, varName, section, dataType, statusDataType, ctx.start.getLine());
 
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitDeclare_local");
 				return null;
 			}
 
 			@Override public String visitTable_source_item(TSQLParser.Table_source_itemContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitTable_source_item");
 				boolean setInTUDFCall = false;
 				String TUDFname = "";
 
 				String stmt = "SELECT";
-				if (hasParent(ctx.parent, "update_statement")) stmt = "UPDATE";
-				else if (hasParent(ctx.parent, "delete_statement")) stmt = "DELETE";
-				else if (hasParent(ctx.parent, "insert_statement")) stmt = "INSERT";
-				else if (hasParent(ctx.parent, "merge_statement")) stmt = "MERGE";
-				if (hasParent(ctx.parent, "select_statement")) stmt = "SELECT";
+				if (hasParent(ctx.parent, TSQLParser.RULE_update_statement)) stmt = "UPDATE";
+				else if (hasParent(ctx.parent, TSQLParser.RULE_delete_statement)) stmt = "DELETE";
+				else if (hasParent(ctx.parent, TSQLParser.RULE_insert_statement)) stmt = "INSERT";
+				else if (hasParent(ctx.parent, TSQLParser.RULE_merge_statement)) stmt = "MERGE";
+				if (hasParent(ctx.parent, TSQLParser.RULE_select_statement)) stmt = "SELECT";
 
 				String nameRaw = "";
 				String name = "";
@@ -6305,13 +6333,13 @@ public class CompassAnalyze {
 					nameRaw = ctx.full_object_name().getText();
 					name = u.normalizeName(nameRaw);
 
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"nameRaw=["+nameRaw+"] name=["+name+"] ctx=["+ctx.getText()+"]  ", u.debugPtree);
+					if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"nameRaw=["+nameRaw+"] name=["+name+"] ctx=["+ctx.getText()+"]  ", u.debugPtree);
 					if (ctx.getText().startsWith(name+"(")) {
 						String TUDFtype = lookupTUDF(name);
-						if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"is this a TUDF? name=["+name+"] TUDFtype=["+TUDFtype+"] ", u.debugPtree);
+						if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"is this a TUDF? name=["+name+"] TUDFtype=["+TUDFtype+"] ", u.debugPtree);
 						if (TUDFtype.isEmpty()) {
 							// it's not a TUDF, so assume it is a table or view being selected from
-							if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"name=["+name+"] : no TUDF found, assume it is a table/view", u.debugPtree);
+							if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"name=["+name+"] : no TUDF found, assume it is a table/view", u.debugPtree);
 							TUDFname = "";
 						}
 					}
@@ -6335,7 +6363,7 @@ public class CompassAnalyze {
 
 				if (TUDFname.isEmpty()) {
 					if (ctx.function_call() != null) {
-						if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"table_source_item is a function_call: ["+ctx.function_call().getText()+"] ", u.debugPtree);
+						if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"table_source_item is a function_call: ["+ctx.function_call().getText()+"] ", u.debugPtree);
 						if (ctx.function_call().func_proc_name_server_database_schema() != null) {
 							TUDFname = u.normalizeName(ctx.function_call().func_proc_name_server_database_schema().getText().toUpperCase());
 						}
@@ -6358,7 +6386,7 @@ public class CompassAnalyze {
 						CaptureIdentifier(TUDFname, TUDFname, stmt, ctx.start.getLine(), "()");
 					}
 					// avoid also capturing this same call in the function_call rule deeper down
-					inTUDFCall = true;
+					bc.inTUDFCall = true;
 					setInTUDFCall = true;
 				}
 
@@ -6380,23 +6408,23 @@ public class CompassAnalyze {
 				String statusPivotChk = "";
 				String statusPivotChkFmt = "";
 				if (ctx.PIVOT() != null) {
-					inPivot = true;
-					lineNrPivot = ctx.PIVOT().getSymbol().getLine();
+					bc.inPivot = true;
+					bc.lineNrPivot = ctx.PIVOT().getSymbol().getLine();
 					statusPivot = featureSupportedInVersion(SelectPivot, "PIVOT");
 					if (statusPivot.equals(u.Supported)) {
 						if (u.currentObjectType.equals("VIEW")) {
 							statusPivotChk = "VIEW";
 							statusPivotChkFmt = ", in CREATE/ALTER VIEW";						
 						}
-						else if (inCTE) {
+						else if (bc.inCTE) {
 							statusPivotChk = "CTE";
 							statusPivotChkFmt = ", in Common Table Expression";										
 						}						
-						else if (inAnsiJoin) {
+						else if (bc.inAnsiJoin) {
 							statusPivotChk = "JOIN";
 							statusPivotChkFmt = ", in join";										
 						}
-						else if (inCommaJoin) {
+						else if (bc.inCommaJoin) {
 							statusPivotChk = "JOIN";
 							statusPivotChkFmt = ", in join";										
 						}						
@@ -6410,13 +6438,13 @@ public class CompassAnalyze {
 				}
 
 				if (ctx.JOIN() != null) {
-					inAnsiJoin = true;
+					bc.inAnsiJoin = true;
 					String type = "INNER JOIN";
 					if (ctx.oj != null) type = ctx.oj.getText().toUpperCase() + " OUTER JOIN";
 					else if (ctx.cj != null) type = "CROSS JOIN";
 					captureItem(type, "", DMLReportGroup, type, u.Supported, ctx.JOIN().getSymbol().getLine());
 
-					if (inPivot) {
+					if (bc.inPivot) {
 						// we never seem to get here? regardless of what side of the join PIVOT is located, we always go through the '(ctx.PIVOT() != null' branch above
 						statusPivot = featureSupportedInVersion(SelectPivot, "PIVOT");
 						if (statusPivot.equals(u.Supported)) {
@@ -6430,8 +6458,8 @@ public class CompassAnalyze {
 					String type = ctx.lj.getText().toUpperCase() + " APPLY";
 					String status = featureSupportedInVersion(LateralJoin, type);
 					String inDML = "";
-					if (hasParent(ctx.parent,"update_statement")) inDML = ", in UPDATE";
-					else if (hasParent(ctx.parent,"delete_statement")) inDML = ", in DELETE";
+					if (hasParent(ctx.parent, TSQLParser.RULE_update_statement)) inDML = ", in UPDATE";
+					else if (hasParent(ctx.parent, TSQLParser.RULE_delete_statement)) inDML = ", in DELETE";
 					captureItem(type+" ("+LateralJoin.toLowerCase()+")"+inDML, "", LateralJoin, type, status, ctx.lj.getLine());
 				}
 
@@ -6462,29 +6490,29 @@ public class CompassAnalyze {
 						statusPivotChkFmt = "";
 					}
 					//u.appOutput(u.thisProc()+"statusPivot=["+statusPivot+"] statusPivotChk=["+statusPivotChk+"] statusPivotChkFmt=["+statusPivotChkFmt+"] inAnsiJoin=["+inAnsiJoin+"] inPivot=["+inPivot+"] lineNrPivot=["+lineNrPivot+"] ");
-					captureItem(SelectPivot+statusPivotChkFmt, "", SelectPivot, "", statusPivot, lineNrPivot);					
+					captureItem(SelectPivot+statusPivotChkFmt, "", SelectPivot, "", statusPivot, bc.lineNrPivot);					
 				}
 				
 				if (ctx.JOIN() != null) {
-					inAnsiJoin = false;
+					bc.inAnsiJoin = false;
 				}
 				if (ctx.PIVOT() != null) {
-					inPivot= false;
+					bc.inPivot= false;
 				}				
-				if (setInTUDFCall) inTUDFCall = false;
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (setInTUDFCall) bc.inTUDFCall = false;
+				if (u.debugPtree) dbgTraceVisitExit("visitTable_source_item");
 				return null;
 			}
 
 			@Override public String visitTable_sources(TSQLParser.Table_sourcesContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitTable_sources");
 				for (TerminalNode t : ctx.COMMA()) {
 					captureItem("INNER JOIN", "", DMLReportGroup, "INNER JOIN WITH COMMA", u.Supported, t.getSymbol().getLine());
 				}
-				if (ctx.COMMA().size() > 0) inCommaJoin = true;
+				if (ctx.COMMA().size() > 0) bc.inCommaJoin = true;
 				visitChildren(ctx);
-				if (ctx.COMMA().size() > 0) inCommaJoin = false;	
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (ctx.COMMA().size() > 0) bc.inCommaJoin = false;	
+				if (u.debugPtree) dbgTraceVisitExit("visitTable_sources");
 				return null;
 			}
 
@@ -6497,14 +6525,14 @@ public class CompassAnalyze {
 			}
 
 			@Override public String visitTable_hint(TSQLParser.Table_hintContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitTable_hint");
 				// A complicating factor for table hints is that the WITH keyword is mandatory these days in SQL Server,
 				// but customer applications running older or backward-compatible version may still use the old syntax without WITH
 				// therefore, extra tests are needed to determine if it is really a table hint
 
 				// the column list for an INSERT is parsed as table hints, so skip that case
-				if (parentRuleName(ctx.parent,2).equals("insert_statement")) {
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"skipping INSERT collist - not a table hint", u.debugPtree);
+				if (parentRuleIndex(ctx.parent,2) == TSQLParser.RULE_insert_statement) {
+					if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"skipping INSERT collist - not a table hint", u.debugPtree);
 				}
 				else {
 					String hint = u.encodeIdentifier(ctx.getText().toUpperCase());
@@ -6533,16 +6561,16 @@ public class CompassAnalyze {
 						captureItem(TableHint+ " " + w, w2, TableHint, u.decodeIdentifier(hint), status, ctx.start.getLine());
 					}
 					else {
-						if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"not a table hint: ["+hint+"] ", u.debugPtree);
+						if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"not a table hint: ["+hint+"] ", u.debugPtree);
 					}
 				}
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitTable_hint");
 				return null;
 			}
 
 			@Override public String visitOption(TSQLParser.OptionContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitOption");
 				String hint = getTextSpaced(ctx).toUpperCase().trim();
 				hint = CompassUtilities.getPatternGroup(hint, "^([A-Z ]+)", 1).trim();
 				if (hint.startsWith("TABLE HINT")) {
@@ -6553,7 +6581,7 @@ public class CompassAnalyze {
 					captureItem(QueryHint+ " " + hint, "", QueryHint, hint, status, ctx.start.getLine());
 				}
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitOption");
 				return null;
 			}
 
@@ -6624,8 +6652,8 @@ public class CompassAnalyze {
 			}
 
 			@Override public String visitExecute_body(TSQLParser.Execute_bodyContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
-				execute_statement_argParamCount = 0;
+				if (u.debugPtree) dbgTraceVisitEntry("visitExecute_body");
+				bc.execute_statement_argParamCount = 0;
 
 				String return_status = "";
 				if (ctx.return_status != null) {
@@ -6645,14 +6673,14 @@ public class CompassAnalyze {
 				String procName = "";
 				if (ctx.func_proc_name_server_database_schema() != null) {
 					procName = u.normalizeName(ctx.func_proc_name_server_database_schema().getText());
-					execute_statement_procName = procName;
+					bc.execute_statement_procName = procName;
 					if (!lookupSUDF(procName).isEmpty()) {
 						String status = featureSupportedInVersion(ExecuteSQLFunction);
 						captureItem(ExecuteSQLFunction, procName, ExecuteSQLFunction, "", status, ctx.start.getLine());
 					}
 				}
 
-				if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"EXECUTE: "+ ctx.getText()+", procName=["+procName+"] return_status=["+return_status+"] proc_var=["+proc_var+"] execImm=["+execImm+"] ", u.debugPtree);
+				if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"EXECUTE: "+ ctx.getText()+", procName=["+procName+"] return_status=["+return_status+"] proc_var=["+proc_var+"] execImm=["+execImm+"] ", u.debugPtree);
 
 				if (!procName.isEmpty()) {
 					captureSystemproc(procName, return_status, u.grammarRuleNames[ctx.getRuleIndex()], ctx.proc_version, ctx.start.getLine(), ctx.execute_statement_arg());
@@ -6680,11 +6708,9 @@ public class CompassAnalyze {
 						a = u.applyPatternAll(a, quote+quote, quote);
 						stringArg += a;
 					}
-					if (u.debugging) u.dbgOutput("capturing dynamic SQL query: EXECUTE(): stringArgFound=["+stringArgFound+"]  stringArg=["+stringArg+"] ", u.debugDynamicSQL);
+					if (u.debugDynamicSQL) u.dbgOutput("capturing dynamic SQL query: EXECUTE(): stringArgFound=["+stringArgFound+"]  stringArg=["+stringArg+"] ", u.debugDynamicSQL);
 					if (stringArgFound && (!stringArg.trim().isEmpty())) {
-						u.dynamicSQLBuffer.add(u.dynamicSQLBatchLine+arg.get(0).start.getLine()+","+u.batchNrInFile+","+u.lineNrInFile+","+(u.currentObjectType + " " + u.currentObjectName).trim()+",EXECUTE()");
-						u.dynamicSQLBuffer.add(stringArg);
-						u.dynamicSQLBuffer.add("go");
+						u.dynamicSQL.add(stringArg, arg.get(0).start.getLine(), u.batchNrInFile, u.lineNrInFile, (u.currentObjectType + " " + u.currentObjectName).trim(), "EXECUTE()");
 						u.dynamicSQLNrStmts++;
 					}
 					else {
@@ -6745,27 +6771,27 @@ public class CompassAnalyze {
 							optionValue = optionRaw.substring("ASUSER=".length());
 						}
 					}
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"execVarOptions i=["+i+"] option=["+option+"]  optionRawSpaced=["+optionRawSpaced+"]", u.debugPtree);
+					if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"execVarOptions i=["+i+"] option=["+option+"]  optionRawSpaced=["+optionRawSpaced+"]", u.debugPtree);
 					String status = featureSupportedInVersion(ExecStringOptions,option);
 					captureItem("EXECUTE(string"+execArg2+"), "+option+optionFmt, optionValue, DynamicSQL, option, status, ctx.start.getLine());
 				}
 
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitExecute_body");
 				return null;
 			}
 
 
 			@Override public String visitExecute_body_batch(TSQLParser.Execute_body_batchContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
-				execute_statement_argParamCount = 0;
+				if (u.debugPtree) dbgTraceVisitEntry("visitExecute_body_batch");
+				bc.execute_statement_argParamCount = 0;
 
 				String return_status = "";
 				String procName = "";
 				if (ctx.func_proc_name_server_database_schema() != null) {
 					//procName = u.normalizeName(ctx.func_proc_name_server_database_schema().getText());
 					procName = ctx.func_proc_name_server_database_schema().getText();
-					execute_statement_procName = procName;
+					bc.execute_statement_procName = procName;
 				}
 
 				TSQLParser.Execute_statement_argContext arg0 = null;
@@ -6775,7 +6801,7 @@ public class CompassAnalyze {
 				captureExecOptions(procName, ctx.execute_option(), ctx.WITH(), ctx.start.getLine());
 
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitExecute_body_batch");
 				return null;
 			}
 
@@ -6823,10 +6849,8 @@ public class CompassAnalyze {
 						stringArg = u.stripStringQuotes(stringArg);
 						stringArg = u.applyPatternAll(stringArg, quote+quote, quote);
 						//u.appOutput("capturing dynamic SQL query: "+procName+": stringArg=["+stringArg+"] ");
-						if (u.debugging) u.dbgOutput("capturing dynamic SQL query: "+procName+": stringArg=["+stringArg+"] ", u.debugDynamicSQL);
-						u.dynamicSQLBuffer.add(u.dynamicSQLBatchLine+arg.start.getLine()+","+u.batchNrInFile+","+u.lineNrInFile+","+(u.currentObjectType + " " + u.currentObjectName).trim()+","+procName);
-						u.dynamicSQLBuffer.add(stringArg);
-						u.dynamicSQLBuffer.add("go");
+						if (u.debugDynamicSQL) u.dbgOutput("capturing dynamic SQL query: "+procName+": stringArg=["+stringArg+"] ", u.debugDynamicSQL);
+						u.dynamicSQL.add(stringArg, arg.start.getLine(), u.batchNrInFile, u.lineNrInFile, (u.currentObjectType + " " + u.currentObjectName).trim(), procName);
 						u.dynamicSQLNrStmts++;
 					}
 					else {
@@ -6839,21 +6863,21 @@ public class CompassAnalyze {
 					if ((procName.startsWith("sp_")) || (procName.startsWith("xp_")))  {
 						// is this a system sproc?
 						sysProcName = procName;
-						if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"sysProcName=["+sysProcName+"]  ", u.debugPtree);
+						if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"sysProcName=["+sysProcName+"]  ", u.debugPtree);
 						if (featureExists(SystemStoredProcs, sysProcName)) {
-							if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"featureExists: "+ " sysProcName=["+sysProcName+"]  ", u.debugPtree);
+							if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"featureExists: "+ " sysProcName=["+sysProcName+"]  ", u.debugPtree);
 							section = SystemStoredProcs;
 							String procStatus = featureSupportedInVersion(SystemStoredProcs, sysProcName);
 
 							if (procStatus.equals(u.Supported)) {
 								String argN = cfg.featureExistsArg(sysProcName);
-								if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"sysProcName=["+sysProcName+"] argN=["+argN+"] ", u.debugPtree);
+								if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"sysProcName=["+sysProcName+"] argN=["+argN+"] ", u.debugPtree);
 
 								if (!argN.isEmpty()) {
 									String statusArgN = u.NotSupported;
 									int argNum = Integer.parseInt(argN.substring(3));
 									String argNValue = u.stripStringQuotes(getArgProcExec(argNum, procName, arg)).trim().toUpperCase();
-									if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"validating arg=["+argN+"] argNValue=["+argNValue+"] for system proc=["+sysProcName+"]", u.debugPtree);
+									if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"validating arg=["+argN+"] argNValue=["+argNValue+"] for system proc=["+sysProcName+"]", u.debugPtree);
 									if (!argNValue.isEmpty()) {
 										if (argNValue.charAt(0) != '@') {
 											statusArgN = featureArgSupportedInVersion(procName, argN, argNValue);
@@ -6865,7 +6889,7 @@ public class CompassAnalyze {
 										}
 									}
 									procStatus = statusArgN;
-									if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"validating arg=["+argN+"] argNValue=["+argNValue+"] for system proc=["+sysProcName+"]: statusArgN=["+statusArgN+"] ", u.debugPtree);
+									if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"validating arg=["+argN+"] argNValue=["+argNValue+"] for system proc=["+sysProcName+"]: statusArgN=["+statusArgN+"] ", u.debugPtree);
 								}
 							}
 							captureItem("EXECUTE procedure "+sysProcName+argMsg+firstStmt+return_status, procName, SystemStoredProcs, sysProcName, procStatus, lineNr);
@@ -6957,15 +6981,15 @@ public class CompassAnalyze {
 				assert (argNo > 0) : "argNo must be > 0";
 
 				String result = "";
-				if (u.debugging) u.dbgOutput("argNo=["+argNo+"] procName=["+procName+"] arg=["+arg+"] ", u.debugDynamicSQL||u.debugPtree);
+				if (u.debugDynamicSQL||u.debugPtree) u.dbgOutput("argNo=["+argNo+"] procName=["+procName+"] arg=["+arg+"] ", u.debugDynamicSQL||u.debugPtree);
 				if (arg != null) {
-					if (u.debugging) u.dbgOutput("arg=["+arg.getText()+"] ", u.debugDynamicSQL);
+					if (u.debugDynamicSQL) u.dbgOutput("arg=["+arg.getText()+"] ", u.debugDynamicSQL);
 
 					if (arg.execute_statement_arg_unnamed() != null) {
 						//u.appOutput(u.thisProc()+"arg unnamed=["+arg.execute_statement_arg_unnamed().getText()+"]");
 						if (argNo == 1) result = arg.execute_statement_arg_unnamed().getText();
 						else {
-							if (u.debugging) u.dbgOutput("recursive call with argNo-1=["+(argNo-1)+"] ", u.debugDynamicSQL||u.debugPtree);
+							if (u.debugDynamicSQL||u.debugPtree) u.dbgOutput("recursive call with argNo-1=["+(argNo-1)+"] ", u.debugDynamicSQL||u.debugPtree);
 							result = getArgProcExec(argNo-1, procName, arg.execute_statement_arg());
 						}
 					}
@@ -6982,22 +7006,22 @@ public class CompassAnalyze {
 						assert false : "unexpected branch";
 					}
 				}
-				if (u.debugging) u.dbgOutput("result=["+result+"] ", u.debugDynamicSQL);
+				if (u.debugDynamicSQL) u.dbgOutput("result=["+result+"] ", u.debugDynamicSQL);
 				return result;
 			}
 
 			private String getArgProcExec(String argName, String procName, TSQLParser.Execute_statement_argContext arg) {
 				// get the value of a named argument; assuming all args in named notation but this is not verified
 				String result = "";
-				if (u.debugging) u.dbgOutput("argName=["+argName+"] procName=["+procName+"] ", u.debugPtree);
+				if (u.debugPtree) u.dbgOutput("argName=["+argName+"] procName=["+procName+"] ", u.debugPtree);
 				if (arg != null) {
-					if (u.debugging) u.dbgOutput("arg=["+arg.getText()+"] ", u.debugPtree);
+					if (u.debugPtree) u.dbgOutput("arg=["+arg.getText()+"] ", u.debugPtree);
 
 					if (arg.execute_statement_arg_named().size() > 0) {
 						for (int i = 0; i <arg.execute_statement_arg_named().size(); i++) {
 							 String name  = arg.execute_statement_arg_named(i).name.getText();
 							 String value = arg.execute_statement_arg_named(i).execute_parameter().getText();
-							 if (u.debugging) u.dbgOutput(u.thisProc()+"name=["+name+"] value=["+value+"] ", u.debugPtree);
+							 if (u.debugPtree) u.dbgOutput(u.thisProc()+"name=["+name+"] value=["+value+"] ", u.debugPtree);
 							 if (name.equalsIgnoreCase(argName)) {
 							 	result = value;
 							}
@@ -7008,7 +7032,7 @@ public class CompassAnalyze {
 						assert false : "unexpected branch";
 					}
 				}
-				if (u.debugging) u.dbgOutput("result=["+result+"] ", u.debugDynamicSQL);
+				if (u.debugDynamicSQL) u.dbgOutput("result=["+result+"] ", u.debugDynamicSQL);
 				return result;
 			}
 
@@ -7021,7 +7045,7 @@ public class CompassAnalyze {
 							option = "RESULT SETS(schema)";
 						}
 					}
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"execOptions i=["+i+"] option=["+option+"]", u.debugPtree);
+					if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"execOptions i=["+i+"] option=["+option+"]", u.debugPtree);
 					String status = featureSupportedInVersion(ExecProcedureOptions,option);
 						
 					String s = "EXECUTE procedure, WITH "+option;
@@ -7045,7 +7069,7 @@ public class CompassAnalyze {
 			}
 
 			@Override public String visitSet_special(TSQLParser.Set_specialContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitSet_special");
 
 				if (ctx.set_on_off_option().size() > 0) {
 					List<TSQLParser.Set_on_off_optionContext> options = ctx.set_on_off_option();
@@ -7053,7 +7077,7 @@ public class CompassAnalyze {
 						String option = optionX.getText().toUpperCase();
 						String on_off = ctx.on_off().getText().toUpperCase();
 						captureSEToption("SET "+option, on_off, "", ctx.start.getLine());
-						detectSetQuotedIdentifier(pass, ctx, option);
+						detectSetQuotedIdentifier(bc.pass, ctx, option);
 					}
 					if (options.size() > 1) {
 						String status = featureSupportedInVersion(SetMultipleOptions);
@@ -7178,7 +7202,7 @@ public class CompassAnalyze {
 				}
 
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitSet_special");
 				return null;
 			}
 
@@ -7197,7 +7221,7 @@ public class CompassAnalyze {
 				if (!CompassUtilities.getPatternGroup(setValueTest, "^("+u.varPattern+")$", 1).isEmpty()) {
 					setValueTest = cfgVariable;
 				}
-				if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"feature=["+feature+"] setValueTest=["+setValueTest+"] ", u.debugPtree);
+				if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"feature=["+feature+"] setValueTest=["+setValueTest+"] ", u.debugPtree);
 				String status = featureSupportedInVersion(feature, setValueTest);
 				if (setValueTest.equals(cfgVariable)) {
 					if (status.equals(u.NotSupported)) {
@@ -7210,7 +7234,7 @@ public class CompassAnalyze {
 			}
 
 			@Override public String visitSet_statement(TSQLParser.Set_statementContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitSet_statement");
 				if (ctx.LOCAL_ID() != null) {
 					String varName = ctx.LOCAL_ID().getText().toUpperCase();
 
@@ -7256,15 +7280,15 @@ public class CompassAnalyze {
 					}
 				}
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitSet_statement");
 				return null;
 			}
 
 			@Override public String visitSelect_list(TSQLParser.Select_listContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitSelect_list");
 
-				selectListColumnNr = 0;
-				selectListNrColumns = ctx.select_list_elem().size();
+				bc.selectListColumnNr = 0;
+				bc.selectListNrColumns = ctx.select_list_elem().size();
 				boolean hasTable = false;
 
 				ParserRuleContext parentRule = ctx.getParent();
@@ -7275,19 +7299,19 @@ public class CompassAnalyze {
     				}
 				}
 
-				if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"variableAssignDepends.clear(), hasTable=["+hasTable+"] ", u.debugPtree);
-				variableAssignDepends.clear();
+				if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"variableAssignDepends.clear(), hasTable=["+hasTable+"] ", u.debugPtree);
+				bc.variableAssignDepends.clear();
 				visitChildren(ctx);
 
 				captureVariableAssignDepends("SELECT", ctx.start.getLine(), hasTable);
 
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitSelect_list");
 				return null;
 			}
 
 			@Override public String visitSelect_list_elem(TSQLParser.Select_list_elemContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
-				selectListColumnNr++;
+				if (u.debugPtree) dbgTraceVisitEntry("visitSelect_list_elem");
+				bc.selectListColumnNr++;
 				if (ctx.LOCAL_ID() != null) {
 					String varName = ctx.LOCAL_ID().getText().toUpperCase();
 					String op = "=";
@@ -7312,16 +7336,16 @@ public class CompassAnalyze {
 					}
 
 					addStmtAttribute("VARIABLE_ASSIGN");
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"added VARIABLE_ASSIGN", u.debugPtree);
+					if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"added VARIABLE_ASSIGN", u.debugPtree);
 
 				}
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitSelect_list_elem");
 				return null;
 			}
 
 			@Override public String visitTime_zone_expr(TSQLParser.Time_zone_exprContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitTime_zone_expr");
 				String expr = ctx.expression().get(1).getText();
 				if (u.stripStringQuotes(expr).length() == expr.length()) {
 					// it's not a string constant, assume it's a variable
@@ -7332,7 +7356,7 @@ public class CompassAnalyze {
 				captureItem(AtTimeZone + " " + expr, "", "", "", status, ctx.start.getLine());
 
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitTime_zone_expr");
 				return null;
 			}
 
@@ -7363,8 +7387,8 @@ public class CompassAnalyze {
 					List<TSQLParser.ExpressionContext> expr = ctx.expression();
 					String lhsType = expressionDataType(expr.get(0));
 					String rhsType = expressionDataType(expr.get(1));
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"lhs=["+expr.get(0).getText()+"] rhs=["+expr.get(1).getText()+"] ", u.debugPtree);
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"lhsType=["+lhsType+"] rhsType=["+rhsType+"] ctx=["+ctx.getText()+"] ", u.debugPtree);
+					if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"lhs=["+expr.get(0).getText()+"] rhs=["+expr.get(1).getText()+"] ", u.debugPtree);
+					if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"lhsType=["+lhsType+"] rhsType=["+rhsType+"] ctx=["+ctx.getText()+"] ", u.debugPtree);
 					if (op.equals("+")) {
 						opFmt = "Arithmetic operator +";
 
@@ -7410,7 +7434,7 @@ public class CompassAnalyze {
 			}
 
 			@Override public String visitComparison_operator(TSQLParser.Comparison_operatorContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitComparison_operator");
 
 				if ((ctx.MULT_ASSIGN() != null) || (ctx.EQUAL_STAR_OJ() != null)) {
 					// these are the *=, =*  TSQL OJ operators, they are reported elsewhere
@@ -7488,7 +7512,7 @@ public class CompassAnalyze {
 			}
 
 			@Override public String visitDistinct_from_operator(TSQLParser.Distinct_from_operatorContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitDistinct_from_operator");
 				// SQL2022 feature
 
 				String status = featureSupportedInVersion(DistinctFromOperator);
@@ -7499,7 +7523,7 @@ public class CompassAnalyze {
 			}
 
 			@Override public String visitOdbc_scalar_function(TSQLParser.Odbc_scalar_functionContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitOdbc_scalar_function");
 				String funcName = ctx.odbc_scalar_function_name().getText().toUpperCase();
 				funcName = funcName.substring(0,funcName.indexOf("("));
 				String status = featureSupportedInVersion(ODBCScalarFunction,funcName);
@@ -7552,12 +7576,12 @@ public class CompassAnalyze {
 				 // ctx.getText() could be very long due to embedded expressions
 				captureItem(ODBCScalarFunction+" { fn "+funcName+"() }", ctx.getText(), ODBCScalarFunction, funcName, status, ctx.start.getLine());
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitOdbc_scalar_function");
 				return null;
 			}
 
 			@Override public String visitOdbc_literal(TSQLParser.Odbc_literalContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitOdbc_literal");
 				String funcName = "";
 				if (ctx.op != null) funcName = ctx.op.getText().toUpperCase();
 				else funcName = "INTERVAL";
@@ -7580,16 +7604,16 @@ public class CompassAnalyze {
 				}
 				captureItem(ODBCLiterals+" { "+funcName+u.escapeHTMLChars(" <string> }"), ctx.getText(), ODBCLiterals, funcName, status, ctx.start.getLine());
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitOdbc_literal");
 				return null;
 			}
 
 			@Override public String visitOdbc_outer_join(TSQLParser.Odbc_outer_joinContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitOdbc_outer_join");
 				String status = featureSupportedInVersion(ODBCOJ);
 				captureItem(ODBCOJ, "", ODBCOJ, "", status, ctx.start.getLine());
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitOdbc_outer_join");
 				return null;
 			}
 
@@ -7615,7 +7639,7 @@ public class CompassAnalyze {
 			}
 
 			@Override public String visitDbcc_statement(TSQLParser.Dbcc_statementContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitDbcc_statement");
 				String cmd = "";
 				if (ctx.SHRINKLOG() != null) cmd = "SHRINKLOG";
 				else cmd = ctx.name.getText().toUpperCase();
@@ -7641,20 +7665,20 @@ public class CompassAnalyze {
 					captureItem("DBCC "+cmd, cmd, DbccStatements, cmd, status, ctx.start.getLine());
 				}
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitDbcc_statement");
 				return null;
 			}
 
 			@Override public String visitCollation(TSQLParser.CollationContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitCollation");
 				String collationName = u.normalizeName(ctx.id().getText().toUpperCase());
 				String columnName = "";
 
 				String context = "for column";
 				String contextCS = "COLUMN";
-				if (hasParent(ctx.parent,"expression")) context = "for expression";
-				else if (hasParent(ctx.parent,"declare_statement")) {
-					if (hasParent(ctx.parent,"declare_local")) {
+				if (hasParent(ctx.parent, TSQLParser.RULE_expression)) context = "for expression";
+				else if (hasParent(ctx.parent, TSQLParser.RULE_declare_statement)) {
+					if (hasParent(ctx.parent, TSQLParser.RULE_declare_local)) {
 						context = "for scalar variable";
 					}
 					else {
@@ -7663,31 +7687,31 @@ public class CompassAnalyze {
 						context = "for table variable column";
 					}
 				}
-				else if (hasParent(ctx.parent,"create_or_alter_function")) {
+				else if (hasParent(ctx.parent, TSQLParser.RULE_create_or_alter_function)) {
 					TSQLParser.Column_definitionContext parent_ctx = (TSQLParser.Column_definitionContext) ctx.getParent();
 					columnName = u.normalizeName(parent_ctx.id().getText());
 					context = "for table function result";
 				}
-				else if (hasParent(ctx.parent,"create_type")) {
+				else if (hasParent(ctx.parent, TSQLParser.RULE_create_type)) {
 					TSQLParser.Column_definitionContext parent_ctx = (TSQLParser.Column_definitionContext) ctx.getParent();
 					columnName = u.normalizeName(parent_ctx.id().getText());
 					context = "in CREATE TYPE";
 				}
-				else if (hasParent(ctx.parent,"column_declaration")) {
+				else if (hasParent(ctx.parent, TSQLParser.RULE_column_declaration)) {
 					TSQLParser.Column_declarationContext parent_ctx = (TSQLParser.Column_declarationContext) ctx.getParent();
 					columnName = u.normalizeName(parent_ctx.id().getText());
 					context = "for column";
 				}
-				else if (hasParent(ctx.parent,"column_definition")) {
+				else if (hasParent(ctx.parent, TSQLParser.RULE_column_definition)) {
 					TSQLParser.Column_definitionContext parent_ctx = (TSQLParser.Column_definitionContext) ctx.getParent();
 					columnName = u.normalizeName(parent_ctx.id().getText());
 					context = "for column";
 				}
-				else if (hasParent(ctx.parent,"create_database")) {
+				else if (hasParent(ctx.parent, TSQLParser.RULE_create_database)) {
 					context = "in CREATE DATABASE";
 					contextCS = "DATABASE";
 				}
-				else if (hasParent(ctx.parent,"alter_database")) {
+				else if (hasParent(ctx.parent, TSQLParser.RULE_alter_database)) {
 					context = "in ALTER DATABASE";
 					contextCS = "DATABASE";
 				}
@@ -7705,12 +7729,12 @@ public class CompassAnalyze {
 				}
 				captureItem(CSmsg+collationName+", "+context, columnName, Collations, "", status, ctx.COLLATE().getSymbol().getLine());
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitCollation");
 				return null;
 			}
 
 			@Override public String visitCreate_database(TSQLParser.Create_databaseContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitCreate_database");
 				String dbName = u.normalizeName(ctx.database.getText());
 
 				List<TSQLParser.Create_database_optionContext> options = ctx.create_database_option();
@@ -7748,12 +7772,12 @@ public class CompassAnalyze {
 				}
 				captureItem("CREATE DATABASE "+dbName, dbName, DatabasesReportGroup, "", u.Supported, ctx.start.getLine(), "0");
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitCreate_database");
 				return null;
 			}
 
 			@Override public String visitAlter_database(TSQLParser.Alter_databaseContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitAlter_database");
 				String dbName = "";
 
 				// is ALTER DATABASE supported at all?
@@ -7798,7 +7822,7 @@ public class CompassAnalyze {
 
 						String status = featureSupportedInVersion(AlterDatabaseOptions, option, optionValue);
 						captureItem("Option "+formatOptionDisplay(option,optionValue)+", in ALTER DATABASE", option, AlterDatabaseOptions, option, status, ctx.start.getLine());
-						if (u.debugging) u.dbgOutput("ALTER DATABASE, dbName=["+dbName+"]  option=["+option+"] optionValue=["+optionValue+"]  status=["+status+"] ", u.debugPtree);
+						if (u.debugPtree) u.dbgOutput("ALTER DATABASE, dbName=["+dbName+"]  option=["+option+"] optionValue=["+optionValue+"]  status=["+status+"] ", u.debugPtree);
 					}
 
 					if (ctx.MODIFY() != null) {
@@ -7809,19 +7833,19 @@ public class CompassAnalyze {
 				}
 
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitAlter_database");
 				return null;
 			}
 
 			@Override public String visitId(TSQLParser.IdContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitId");
 
 				// it is not an identifier if this is an actual argument in a proc call
-				if (hasParent(ctx.parent,"execute_parameter")) return null;
+				if (hasParent(ctx.parent, TSQLParser.RULE_execute_parameter)) return null;
 
 				// it is not an identifier if this is in a parameter default
-				if (hasParent(ctx.parent,"procedure_param")) {
-					if (!hasParent(ctx.parent,"data_type")) {
+				if (hasParent(ctx.parent, TSQLParser.RULE_procedure_param)) {
+					if (!hasParent(ctx.parent, TSQLParser.RULE_data_type)) {
 						return null;
 					}
 				}
@@ -7865,7 +7889,7 @@ public class CompassAnalyze {
 				}
 
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitId");
 				return null;
 			}
 
@@ -7886,7 +7910,7 @@ public class CompassAnalyze {
 			}
 
 			@Override public String visitTransaction_statement(TSQLParser.Transaction_statementContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitTransaction_statement");
 				boolean captured = false;
 				String stmt = "";
 				if (ctx.BEGIN() != null) {
@@ -7904,9 +7928,9 @@ public class CompassAnalyze {
 
 				String scope = "";
 
-				if (hasParent(ctx.parent,"create_or_alter_procedure")) scope = ", in procedure";
-				else if (hasParent(ctx.parent,"create_or_alter_trigger")) scope = ", in trigger";
-				else if (hasParent(ctx.parent,"create_or_alter_function")) scope = ", in function";  // shouldn't be possible
+				if (hasParent(ctx.parent, TSQLParser.RULE_create_or_alter_procedure)) scope = ", in procedure";
+				else if (hasParent(ctx.parent, TSQLParser.RULE_create_or_alter_trigger)) scope = ", in trigger";
+				else if (hasParent(ctx.parent, TSQLParser.RULE_create_or_alter_function)) scope = ", in function";  // shouldn't be possible
 
 				String xactName = "";
 				String xactNameFmt = "";
@@ -7960,24 +7984,24 @@ public class CompassAnalyze {
 				}
 
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitTransaction_statement");
 				return null;
 			}
 
 			@Override public String visitHex_string(TSQLParser.Hex_stringContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitHex_string");
 				if (ctx.getText().contains("\\\n")) {  // note that CRLF has been changed to LF by now
 					String status = featureSupportedInVersion(LineContinuationChar,"HEX");
 					captureItem(LineContinuationChar + " in hex string", "", LineContinuationChar, "", status, ctx.start.getLine());
 
 					//visitChildren(ctx); // has no children
 				}
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitHex_string");
 				return null;
 			}
 
 			@Override public String visitExecute_as_statement(TSQLParser.Execute_as_statementContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitExecute_as_statement");
 
 				// ToDo: handle WITH (NO REVERT | COOKIE)
 				String stmt = "";
@@ -7990,12 +8014,12 @@ public class CompassAnalyze {
 				captureItem(stmt + " (statement)", stmt, ExecuteAsRevert, stmt, status, ctx.start.getLine());
 
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitExecute_as_statement");
 				return null;
 			}
 
 			@Override public String visitRevert_statement(TSQLParser.Revert_statementContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitRevert_statement");
 
 				// ToDo: handle COOKIE
 				String stmt = "REVERT";
@@ -8003,23 +8027,23 @@ public class CompassAnalyze {
 				captureItem(stmt, stmt, ExecuteAsRevert, stmt, status, ctx.start.getLine());
 
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitRevert_statement");
 				return null;
 			}
 
 			@Override public String visitTable_value_constructor(TSQLParser.Table_value_constructorContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
-				if (hasParent(ctx.parent,"table_source_item")) {
+				if (u.debugPtree) dbgTraceVisitEntry("visitTable_value_constructor");
+				if (hasParent(ctx.parent, TSQLParser.RULE_table_source_item)) {
 					String status = featureSupportedInVersion(TableValueConstructor);
 					captureItem(TableValueConstructor+": VALUES(...)", "", TableValueConstructor, "", status, ctx.start.getLine());
 				}
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitTable_value_constructor");
 				return null;
 			}
 
 			@Override public String visitInsert_statement(TSQLParser.Insert_statementContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitInsert_statement");
 				String tableName = "";
 				String targetTableName = "";
 				String type = "VALUES()";
@@ -8045,7 +8069,7 @@ public class CompassAnalyze {
 				}
 				String itemDetail = tableName;
 
-				if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"tableName=["+tableName+"] type=["+type+"] ", u.debugPtree);
+				if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"tableName=["+tableName+"] type=["+type+"] ", u.debugPtree);
 				if (ctx.insert_statement_value().derived_table() != null) {
 					type = "SELECT";
 					if (ctx.insert_statement_value().derived_table().table_value_constructor() != null) type = "VALUES";
@@ -8113,7 +8137,7 @@ public class CompassAnalyze {
 				}
 
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitInsert_statement");
 				return null;
 			}
 
@@ -8147,7 +8171,7 @@ public class CompassAnalyze {
 			}
 					
 			public boolean captureTableSrcDML(RuleContext parent, String tableName, String stmt, int lineNr) {
-				if (!hasParent(parent,"table_source_item_dml")) return false;
+				if (!hasParent(parent, TSQLParser.RULE_table_source_item_dml)) return false;
 
 				// not expecting to support this soon
 				// assuming there is an OUTPUT clause, but not checking it
@@ -8246,7 +8270,7 @@ public class CompassAnalyze {
 				CaptureIdentifier(objNameRaw, objName, stmt, lineNr, "");
 			}
 			public void CaptureIdentifier(String objNameRaw, String objName, String stmt, int lineNr, String fmt) {
-				if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"objNameRaw=["+objNameRaw+"] objName=["+objName+"] stmt=["+stmt+"] fmt=["+fmt+"] ", u.debugPtree);
+				if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"objNameRaw=["+objNameRaw+"] objName=["+objName+"] stmt=["+stmt+"] fmt=["+fmt+"] ", u.debugPtree);
 				if (objNameRaw.trim().isEmpty()) return;
 				if (objName.trim().isEmpty()) return;
 
@@ -8333,27 +8357,27 @@ public class CompassAnalyze {
 			}
 
 			@Override public String visitBulk_insert_statement(TSQLParser.Bulk_insert_statementContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitBulk_insert_statement");
 				String tableName = u.normalizeName(ctx.ddl_object().getText().toUpperCase());
 				String status = featureSupportedInVersion(BulkInsertStmt);
 				captureItem("BULK INSERT", tableName, BulkInsertStmt, "BULK INSERT", status, ctx.start.getLine());
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitBulk_insert_statement");
 				return null;
 			}
 
 			@Override public String visitInsert_bulk_statement(TSQLParser.Insert_bulk_statementContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitInsert_bulk_statement");
 				String tableName = u.normalizeName(ctx.table_name().getText().toUpperCase());
 				String status = featureSupportedInVersion(InsertBulkStmt);
 				captureItem("INSERT BULK (via bulk API only)", tableName, InsertBulkStmt, "INSERT BULK", status, ctx.start.getLine());
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitInsert_bulk_statement");
 				return null;
 			}
 
 			@Override public String visitUpdate_statement(TSQLParser.Update_statementContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitUpdate_statement");
 				String status = u.Supported;
 				String tableName = "";
 				String targetTableName = "";
@@ -8406,8 +8430,8 @@ public class CompassAnalyze {
 
 				captureUpdDelBugs("UPDATE", tableNameRaw, tableName, ctx.table_sources(), ctx.start.getLine(), ctx.update_elem());
 
-				variableAssignDepends.clear();
-				updVarAssign = "";
+				bc.variableAssignDepends.clear();
+				bc.updVarAssign = "";
 
 				visitChildren(ctx);
 
@@ -8417,34 +8441,34 @@ public class CompassAnalyze {
 				}
 
 				if (!captureTableSrcDML(ctx.parent, tableName, "UPDATE", ctx.start.getLine())) {
-					captureItem("UPDATE"+top+updVarAssign+CTE.toString()+outputClause+whereCurrentOf+functionCall, tableName, UpdateStmt, "UPDATE", status, ctx.start.getLine());
+					captureItem("UPDATE"+top+bc.updVarAssign+CTE.toString()+outputClause+whereCurrentOf+functionCall, tableName, UpdateStmt, "UPDATE", status, ctx.start.getLine());
 					captureVariableAssignDepends("UPDATE", ctx.start.getLine(), true);
 
 					CaptureXMLNameSpaces(ctx.parent, "UPDATE", ctx.start.getLine());
 				}
 
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitUpdate_statement");
 				return null;
 			}
 
 			@Override public String visitUpdate_elem(TSQLParser.Update_elemContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitUpdate_elem");
 				if (ctx.LOCAL_ID() != null) {
-					if (updVarAssign.isEmpty()) updVarAssign = " SET @v = expression";
-					if (ctx.EQUAL().size() > 1) updVarAssign = " SET @v = column = expression";
+					if (bc.updVarAssign.isEmpty()) bc.updVarAssign = " SET @v = expression";
+					if (ctx.EQUAL().size() > 1) bc.updVarAssign = " SET @v = column = expression";
 					addVariableAssignDepends(ctx.LOCAL_ID(), ctx.expression());
 				}
 				else if (ctx.method_name != null) {
 					captureXMLFeature("XML.", ctx.method_name.getText().toLowerCase(), "()", ctx.start.getLine());
 				}
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitUpdate_elem");
 				return null;
 			}
 
 			private void addVariableAssignDepends(TerminalNode id, TSQLParser.ExpressionContext expr) {
 				// ToDo: need to record the assignment operator, since += indicates a string concat
-				if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"entry: id=["+id.getText()+"] expr=["+expr.getText()+"] ", u.debugPtree);
+				if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"entry: id=["+id.getText()+"] expr=["+expr.getText()+"] ", u.debugPtree);
 				if (expr instanceof TSQLParser.Constant_exprContext) {
 					// this assignment can be ignored for determining variable assignment dependencies
 					return;
@@ -8456,18 +8480,18 @@ public class CompassAnalyze {
 						return;
 					}
 				}
-				variableAssignDepends.put(id.getText().toUpperCase(), expr);
+				bc.variableAssignDepends.put(id.getText().toUpperCase(), expr);
 			}
 
 			// try to determine if a variable assignment (SELECT or UPDATE) does cross-row aggregation or
 			// depends on other assigned variables
 			private void captureVariableAssignDepends(String stmt, int lineNr, boolean hasTable) {
-				if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"entry: stmt=["+stmt+"] hasTable=["+hasTable+"] ", u.debugPtree);
-				if (variableAssignDepends.size() == 0) return;
+				if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"entry: stmt=["+stmt+"] hasTable=["+hasTable+"] ", u.debugPtree);
+				if (bc.variableAssignDepends.size() == 0) return;
 
 				Map<String, String> tmpVarDepends = new HashMap<String, String>();
-				for (String k : variableAssignDepends.keySet()) {
-					String expr = getTextSpaced(variableAssignDepends.get(k));
+				for (String k : bc.variableAssignDepends.keySet()) {
+					String expr = getTextSpaced(bc.variableAssignDepends.get(k));
 					tmpVarDepends.put(k, expr);
 				}
 
@@ -8477,7 +8501,7 @@ public class CompassAnalyze {
 					for (Map.Entry<String, String> entry : tmpVarDepends.entrySet()) {
 						String k = entry.getKey();
 						String expr = entry.getValue().toUpperCase();
-						if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+stmt+ "("+variableAssignDepends.size()+") :"+ k +" => "+expr, u.debugPtree);
+						if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+stmt+ "("+bc.variableAssignDepends.size()+") :"+ k +" => "+expr, u.debugPtree);
 						if (expr.contains(k)) {
 							while(true) {
 								int len1 = expr.length();
@@ -8491,7 +8515,7 @@ public class CompassAnalyze {
 								// Note this is not a 100% test (won't find function calls), but looks for some common cases like string concatention with '+'.
 								// will currently also find false positives like @v = @v + 1
 								if (expr.contains("+") || expr.contains("-") || expr.contains("*")) {
-									if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"capturing possible variable aggregation: k=["+k+"] ", u.debugPtree);
+									if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"capturing possible variable aggregation: k=["+k+"] ", u.debugPtree);
 									String status = u.ReviewSemantics;
 									status = featureSupportedInVersion(VarAggrAcrossRows);
 									captureItem(VarAggrAcrossRowsFmt + " in "+stmt, k, "DML", "", status, lineNr);
@@ -8506,7 +8530,7 @@ public class CompassAnalyze {
 				String allValues = "";
 				for (Map.Entry<String, String> entry : tmpVarDepends.entrySet()) {
 					String k = entry.getKey().toUpperCase();
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+stmt+ "("+variableAssignDepends.size()+") :"+ k +" => "+entry.getValue(), u.debugPtree);
+					if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+stmt+ "("+bc.variableAssignDepends.size()+") :"+ k +" => "+entry.getValue(), u.debugPtree);
 					String expr = entry.getValue().toUpperCase();
 					if (expr.contains(k)) {
 						String v = u.applyPatternAll(expr, " " + k + " ", " ");
@@ -8529,13 +8553,13 @@ public class CompassAnalyze {
 					}
 				}
 				allValues = " " + String.join(" ", tmp.values()) + " ";
-				if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+" allValues=["+allValues+"]", u.debugPtree);
+				if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+" allValues=["+allValues+"]", u.debugPtree);
 
 				// now see if there is a case of @v = @w, while @w is also an assignment target in the same statement
 				for (Map.Entry<String, String> entry : tmp.entrySet()) {
 					String k = entry.getKey();
 					String varRegex = "([^@\\$\\w]" + k + "[^@\\$\\w])";
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+" k=["+k+"]  v=["+entry.getValue()+"]  ", u.debugPtree);
+					if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+" k=["+k+"]  v=["+entry.getValue()+"]  ", u.debugPtree);
 					if (allValues.contains(k)) { // quicker test but less accurate
 						if (!CompassUtilities.getPatternGroup(allValues, varRegex, 1).isEmpty()) { // slower test but accurate
 							// find variable on lhs for this case
@@ -8550,7 +8574,7 @@ public class CompassAnalyze {
 								}
 							}
 							if (!v.isEmpty()) {
-								if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"capturing: v=["+v+"] => k=["+k+"] ", u.debugPtree);
+								if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"capturing: v=["+v+"] => k=["+k+"] ", u.debugPtree);
 								String status = u.ReviewSemantics;
 								status = featureSupportedInVersion(VarAssignDependency);
 								captureItem(VarAssignDependency+" in "+stmt+": order of assignments not guaranteed; may fail on Babelfish", v+"->"+k, "DML", "", status, lineNr);
@@ -8559,11 +8583,11 @@ public class CompassAnalyze {
 						}
 					}
 				}
-				if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"exit", u.debugPtree);
+				if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"exit", u.debugPtree);
 			}
 
 			@Override public String visitDelete_statement(TSQLParser.Delete_statementContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitDelete_statement");
 				String status = u.Supported;
 				String tableName = "";
 				String tableNameRaw = "";
@@ -8629,7 +8653,7 @@ public class CompassAnalyze {
 				captureUpdDelBugs("DELETE", tableNameRaw, tableName, ctx.table_sources(), ctx.start.getLine());
 
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitDelete_statement");
 				return null;
 			}
 
@@ -8680,18 +8704,18 @@ public class CompassAnalyze {
 				List<String> tableAlias = new ArrayList<>();
 				if (ts != null) {
 					tabs = ts.table_source_item();
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+": nr_tabs=["+tabs.size()+"] ", u.debugPtree);
+					if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+": nr_tabs=["+tabs.size()+"] ", u.debugPtree);
 					for (TSQLParser.Table_source_itemContext t : tabs) {
 						tableAlias.addAll(getTableSourceItem(t));
 					}
 				}
-				if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+": stmt=["+stmt+"] tableNameRaw=["+tableNameRaw+"] tableName=["+tableName+"] nr_tabs=["+tabs.size()+"] tableAlias.size()=["+tableAlias.size()+"] tableAlias=["+tableAlias+"]  u.currentObjectType=["+u.currentObjectType+"] ", u.debugPtree);
+				if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+": stmt=["+stmt+"] tableNameRaw=["+tableNameRaw+"] tableName=["+tableName+"] nr_tabs=["+tabs.size()+"] tableAlias.size()=["+tableAlias.size()+"] tableAlias=["+tableAlias+"]  u.currentObjectType=["+u.currentObjectType+"] ", u.debugPtree);
 
 				if (ts != null) {
 					if (u.currentObjectType.equals("FUNCTION") && (tabs.size() > 0) && (!tableNameRaw.startsWith("@"))) {
 						// UPDATE x SET.. FROM @tv x: in a SQL function, is incorrectly reported as error 'not allowed in SQL Function'
 						// rewrite by directly updating @tv
-						if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+": checking for 'UPDATE x SET.. FROM @tv x' in UDF ", u.debugPtree);
+						if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+": checking for 'UPDATE x SET.. FROM @tv x' in UDF ", u.debugPtree);
 						for (String ta : tableAlias) {
 							String tName = ta.substring(0,ta.indexOf(u.miscDelimiter));
 							String alias = ta.substring(ta.indexOf(u.miscDelimiter)+u.miscDelimiter.length());
@@ -8770,7 +8794,7 @@ public class CompassAnalyze {
 								if (!tName.isEmpty()) {
 									// now get the SET clause
 									for (TSQLParser.Update_elemContext e : ue) {
-										if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+": e=["+getTextSpaced(e)+"]  ", u.debugPtree);
+										if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+": e=["+getTextSpaced(e)+"]  ", u.debugPtree);
 										if ((e.full_column_name() != null) && (e.expression() != null)) {
 											String setCol  = e.full_column_name().getText();
 											String origSetExpr = getTextSpaced(e.expression());
@@ -8828,7 +8852,7 @@ public class CompassAnalyze {
 											setExpr = u.applyPatternAll(setExpr, "\\b(\\w+\\.)*"+alias+"\\.\\w+\\b", " ");
 
 											String colFound = u.getPatternGroup(setExpr, "[^\\.\\[]\\b(\\w+)\\b[^\\.\\]]", 1);
-											if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+": colFound=["+colFound+"] setExpr=["+setExpr+"]  ", u.debugPtree);
+											if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+": colFound=["+colFound+"] setExpr=["+setExpr+"]  ", u.debugPtree);
 											if (!colFound.isEmpty()) {
 												// found a case
 												String itemChk = cfgUpdateCorrColumnUnqualifiedError;
@@ -8848,7 +8872,7 @@ public class CompassAnalyze {
 			}
 
 			@Override public String visitMerge_statement(TSQLParser.Merge_statementContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitMerge_statement");
 				String status = u.Supported;
 				String statusMerge = featureSupportedInVersion(MergeStmt, "MERGE");
 				status = statusMerge;
@@ -8905,7 +8929,7 @@ public class CompassAnalyze {
 				}
 
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitMerge_statement");
 				return null;
 			}
 
@@ -8970,9 +8994,9 @@ public class CompassAnalyze {
 			}
 
 			@Override public String visitTruncate_table(TSQLParser.Truncate_tableContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitTruncate_table");
 				// todo: handle ptn clause
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitTruncate_table");
 				String tableNameRaw = ctx.table_name().getText().toUpperCase();
 				String tableName = u.normalizeName(tableNameRaw);
 				CaptureIdentifier(tableNameRaw, tableName, "TRUNCATE TABLE", ctx.start.getLine());
@@ -8985,7 +9009,7 @@ public class CompassAnalyze {
 				captureItem("TRUNCATE TABLE", tableName, TruncateTableStmt, "", status, ctx.start.getLine());
 
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitTruncate_table");
 				return null;
 			}
 
@@ -9071,7 +9095,7 @@ public class CompassAnalyze {
 			}
 
 			@Override public String visitWaitfor_statement(TSQLParser.Waitfor_statementContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitWaitfor_statement");
 				String type = "DELAY";
 				if (ctx.TIME() != null) type = "TIME";
 				String status = featureSupportedInVersion(WaitForStmt, type);
@@ -9122,12 +9146,12 @@ public class CompassAnalyze {
 				}
 				captureItem("WAITFOR "+type, "", WaitForStmt, type, status, ctx.start.getLine());
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitWaitfor_statement");
 				return null;
 			}
 
 			@Override public String visitBackup_statement(TSQLParser.Backup_statementContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitBackup_statement");
 				String cmd = "BACKUP";
 				if (ctx.backup_master_key() != null) {
 					cmd = "BACKUP MASTER KEY";
@@ -9146,12 +9170,12 @@ public class CompassAnalyze {
 				String status = featureSupportedInVersion(DBAStmts, cmd);
 				captureItem(cmdFormat, "", DBAStmts, cmd, status, ctx.start.getLine());
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitBackup_statement");
 				return null;
 			}
 
 			@Override public String visitRestore_statement(TSQLParser.Restore_statementContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitRestore_statement");
 				String cmd = "RESTORE";
 				if (ctx.restore_symmetric_key() != null) {
 					cmd = "RESTORE SYMMETRIC KEY";
@@ -9161,12 +9185,12 @@ public class CompassAnalyze {
 				String status = featureSupportedInVersion(DBAStmts, cmd);
 				captureItem(cmdFormat, "", DBAStmts, cmd, status, ctx.start.getLine());
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitRestore_statement");
 				return null;
 			}
 
 			@Override public String visitKill_statement(TSQLParser.Kill_statementContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitKill_statement");
 				String killType = "";
 				String killTypeFmt = "";
 				if (ctx.kill_process() != null) {
@@ -9195,16 +9219,16 @@ public class CompassAnalyze {
 				String status = featureSupportedInVersion(DBAStmts, killType);
 				captureItem(killTypeFmt, "", DBAStmts, killTypeFmt, status, ctx.start.getLine());
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitKill_statement");
 				return null;
 			}
 
 			@Override public String visitCheckpoint_statement(TSQLParser.Checkpoint_statementContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitCheckpoint_statement");
 				String status = featureSupportedInVersion(CheckpointStmt);
 				captureItem(CheckpointStmt, "", CheckpointStmt, "", status, ctx.start.getLine());
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitCheckpoint_statement");
 				return null;
 			}
 
@@ -9296,35 +9320,35 @@ public class CompassAnalyze {
 			}
 
 			@Override public String visitGoto_statement(TSQLParser.Goto_statementContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitGoto_statement");
 				String fmt = "";
 				if (ctx.GOTO() != null) fmt = "GOTO label";
 				else fmt = "label: (for GOTO)";
 				String status = featureSupportedInVersion(GotoStmt);
 				captureItem(fmt, "", GotoStmt, "", status, ctx.start.getLine());
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitGoto_statement");
 				return null;
 			}
 
 			@Override public String visitSystem_versioning_column(TSQLParser.System_versioning_columnContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitSystem_versioning_column");
 				// ToDo: handle ALTER TABLE
-				hasSystemVersioningColumn = true;
+				bc.hasSystemVersioningColumn = true;
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitSystem_versioning_column");
 				return null;
 			}
 
 			@Override public String visitReturn_statement(TSQLParser.Return_statementContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitReturn_statement");
 				String context = "";
 				if (u.currentObjectType.equals("PROCEDURE")) {
 					if (ctx.expression() != null) context = " integer, in procedure";
 					else context = ", in procedure";
 				}
 				else if (u.currentObjectType.equals("FUNCTION")) {
-					if (hasParent(ctx.parent,"func_body_returns_scalar")) context = " scalar, in function";
+					if (hasParent(ctx.parent, TSQLParser.RULE_func_body_returns_scalar)) context = " scalar, in function";
 					else context = " result set, in function";
 				}
 				else if (u.currentObjectType.equals("TRIGGER")) {
@@ -9332,26 +9356,26 @@ public class CompassAnalyze {
 				}
 				captureItem("RETURN"+context, "", ControlFlowReportGroup, "RETURN", u.Supported, ctx.start.getLine());
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitReturn_statement");
 				return null;
 			}
 
 			@Override public String visitWith_expression(TSQLParser.With_expressionContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitWith_expression");
 
 				if (ctx.XMLNAMESPACES() != null) {
 					CaptureXMLNameSpaces(null, "", ctx.start.getLine());
 				}
 
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitWith_expression");
 				return null;
 			}
 
 			@Override public String visitDeclare_cursor(TSQLParser.Declare_cursorContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitDeclare_cursor");
 				String cursorName = u.normalizeName(ctx.cursor_name().getText().toUpperCase());
-				hasDeclareCursorName.add(cursorName);
+				bc.hasDeclareCursorName.add(cursorName);
 				//u.appOutput(u.thisProc()+"cursorName=["+cursorName+"] hasDeclareCursorName=["+hasDeclareCursorName+"] ");
 
 				if (ctx.INSENSITIVE() != null)
@@ -9381,12 +9405,12 @@ public class CompassAnalyze {
 				captureItem("CREATE CURSOR", "", u.ObjCountOnly, "", u.ObjCountOnly, ctx.start.getLine(), "0");
 
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitDeclare_cursor");
 				return null;
 			}
 
 			@Override public String visitFetch_cursor(TSQLParser.Fetch_cursorContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitFetch_cursor");
  				String stmt = "FETCH";
  				String kwd = "";
 				if (ctx.NEXT() != null) kwd = "NEXT";
@@ -9407,12 +9431,12 @@ public class CompassAnalyze {
 					captureItem("GLOBAL option for " + stmt, stmt, CursorsReportGroup, stmt, statusG, ctx.start.getLine());
 				}
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitFetch_cursor");
 				return null;
 			}
 
 			@Override public String visitCursor_statement(TSQLParser.Cursor_statementContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitCursor_statement");
 				if ((ctx.declare_cursor() == null) && (ctx.fetch_cursor() == null)) {
 	 				String stmt = "";
 					if (ctx.OPEN() != null) stmt = "OPEN";
@@ -9432,16 +9456,16 @@ public class CompassAnalyze {
 						String cursorName = u.normalizeName(ctx.cursor_name().getText());
 						boolean doCapture = false;
 						if (cursorName.charAt(0) != '@') {  // skip cursor variables for this test
-							if (u.debugging) u.dbgOutput(u.thisProc()+"OPEN found for cursorName=["+cursorName+"]; hasDeclareCursorName.size()=["+hasDeclareCursorName.size()+"] hasDeclareCursorName=["+hasDeclareCursorName+"] ", u.debugPtree);
-							if (hasDeclareCursorName.size() == 0) {
+							if (u.debugPtree) u.dbgOutput(u.thisProc()+"OPEN found for cursorName=["+cursorName+"]; hasDeclareCursorName.size()=["+bc.hasDeclareCursorName.size()+"] hasDeclareCursorName=["+bc.hasDeclareCursorName+"] ", u.debugPtree);
+							if (bc.hasDeclareCursorName.size() == 0) {
 								// no DECLARE at all
 								doCapture = true;
-								if (u.debugging) u.dbgOutput(u.thisProc()+"OPEN found for cursorName=["+cursorName+"] without DECLARE CURSOR, u.currentObjectName=["+u.currentObjectName+"] ", u.debugPtree);
+								if (u.debugPtree) u.dbgOutput(u.thisProc()+"OPEN found for cursorName=["+cursorName+"] without DECLARE CURSOR, u.currentObjectName=["+u.currentObjectName+"] ", u.debugPtree);
 							}
-							else if (!hasDeclareCursorName.contains(cursorName.toUpperCase())) {
+							else if (!bc.hasDeclareCursorName.contains(cursorName.toUpperCase())) {
 								// DECLARE is for a different cursor than OPEN
 								doCapture = true;
-								if (u.debugging) u.dbgOutput(u.thisProc()+"OPEN found for cursorName=["+cursorName+"] without DECLARE CURSOR for this cursor, u.currentObjectName=["+u.currentObjectName+"] ", u.debugPtree);
+								if (u.debugPtree) u.dbgOutput(u.thisProc()+"OPEN found for cursorName=["+cursorName+"] without DECLARE CURSOR for this cursor, u.currentObjectName=["+u.currentObjectName+"] ", u.debugPtree);
 							}
 
 							if (doCapture) {
@@ -9452,7 +9476,7 @@ public class CompassAnalyze {
 					}
 				}
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitCursor_statement");
 				return null;
 			}
 
@@ -9544,7 +9568,7 @@ public class CompassAnalyze {
 			}
 
 			@Override public String visitAlter_login(TSQLParser.Alter_loginContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitAlter_login");
  				String name = u.normalizeName(ctx.login_name.getText(), ", in ALTER LOGIN");
 
 				if (ctx.ENABLE() != null)
@@ -9596,12 +9620,12 @@ public class CompassAnalyze {
 				captureItem("ALTER LOGIN", name, UsersReportGroup, "", u.Supported, ctx.start.getLine());
 
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitAlter_login");
 				return null;
 			}
 
 			@Override public String visitCreate_login(TSQLParser.Create_loginContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitCreate_login");
  				String name = u.normalizeName(ctx.login_name.getText());
 
 				if (ctx.HASHED() != null)
@@ -9629,12 +9653,12 @@ public class CompassAnalyze {
 				captureItem("CREATE LOGIN", name, UsersReportGroup, "", u.Supported, ctx.start.getLine());
 
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitCreate_login");
 				return null;
 			}
 
 			@Override public String visitCreate_user(TSQLParser.Create_userContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitCreate_user");
 
 				//ToDO: detect special cases of users, like for contained databases
  				String name = "";
@@ -9670,12 +9694,12 @@ public class CompassAnalyze {
 				}
 
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitCreate_user");
 				return null;
 			}
 
 			@Override public String visitAlter_user(TSQLParser.Alter_userContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitAlter_user");
 
 				//ToDO: detect special cases of users, like for contained databases
  				String name = u.normalizeName(ctx.username.getText());
@@ -9707,12 +9731,12 @@ public class CompassAnalyze {
 						captureOption(UserOptions, "OLD_PASSWORD", ctx.start.getLine(), ", in ALTER USER");
 				}
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitAlter_user");
 				return null;
 			}
 
 			@Override public String visitCreate_db_role(TSQLParser.Create_db_roleContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitCreate_db_role");
 
 				String name = u.normalizeName(ctx.role_name.getText());
 				String fmtRole = "<dbrole>";
@@ -9726,12 +9750,12 @@ public class CompassAnalyze {
 				}
 
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitCreate_db_role");
 				return null;
 			}
 
 			@Override public String visitAlter_db_role(TSQLParser.Alter_db_roleContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitAlter_db_role");
 
  				String name = u.normalizeName(ctx.role_name.getText().toLowerCase());
 
@@ -9764,7 +9788,7 @@ public class CompassAnalyze {
 				captureItem(AlterDbRole+" "+u.escapeHTMLChars(fmtRole) + " " + option, name, UsersReportGroup, "", status, ctx.start.getLine());
 
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitAlter_db_role");
 				return null;
 			}
 
@@ -9775,7 +9799,7 @@ public class CompassAnalyze {
 			}
 
 			@Override public String visitCreate_server_role(TSQLParser.Create_server_roleContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitCreate_server_role");
 
 				String name = u.normalizeName(ctx.server_role_name.getText());
 
@@ -9789,12 +9813,12 @@ public class CompassAnalyze {
 				}
 
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitCreate_server_role");
 				return null;
 			}
 
 			@Override public String visitAlter_server_role(TSQLParser.Alter_server_roleContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitAlter_server_role");
 				String name = u.normalizeName(ctx.server_role_name.getText().toLowerCase());
 
  				// find out if ALTER SERVER ROLE is supported for this role
@@ -9825,7 +9849,7 @@ public class CompassAnalyze {
 				captureItem(AlterSrvRole+" "+u.escapeHTMLChars(fmtRole) + " " + option, name, UsersReportGroup, "", status, ctx.start.getLine());
 
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitAlter_server_role");
 				return null;
 			}
 
@@ -9836,7 +9860,7 @@ public class CompassAnalyze {
 			}
 
 			@Override public String visitCreate_schema(TSQLParser.Create_schemaContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitCreate_schema");
 
  				String name = "";
  				if (ctx.schema_name != null) name = u.normalizeName(ctx.schema_name.getText());
@@ -9861,12 +9885,12 @@ public class CompassAnalyze {
 					captureOption(SchemaOptions, "DENY", ctx.start.getLine(), ", in CREATE SCHEMA");
 
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitCreate_schema");
 				return null;
 			}
 
 			@Override public String visitAlter_schema(TSQLParser.Alter_schemaContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitAlter_schema");
 
 				String name = u.normalizeName(ctx.schema_name.getText());
 
@@ -9887,7 +9911,7 @@ public class CompassAnalyze {
 						captureOption(SchemaOptions, "TRANSFER", ctx.start.getLine(), ", in ALTER SCHEMA");
 				}
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitAlter_schema");
 				return null;
 			}
 
@@ -9899,7 +9923,7 @@ public class CompassAnalyze {
 				}
 				if ((" " + permRaw + " ").indexOf(" ALL ") > -1) permRaw = "ALL PRIVILEGES";
 
-				if (u.debugging) u.dbgOutput(u.thisProc()+"stmt=["+stmt+"] permRaw=["+permRaw+"] onObject=["+onObject+"] grantee=["+grantee+"] grantOption=["+grantOption+"] asGrantor=["+asGrantor+"] cascade=["+cascade+"] ", u.debugPtree);
+				if (u.debugPtree) u.dbgOutput(u.thisProc()+"stmt=["+stmt+"] permRaw=["+permRaw+"] onObject=["+onObject+"] grantee=["+grantee+"] grantOption=["+grantOption+"] asGrantor=["+asGrantor+"] cascade=["+cascade+"] ", u.debugPtree);
 				String statusStmt = featureSupportedInVersion(stmt);
 				String status = u.NotSupported;
 				permRaw = u.applyPatternAll(permRaw, "\\(.+?\\)", "(col)");
@@ -9937,7 +9961,7 @@ public class CompassAnalyze {
 					}
 
 					perm = u.applyPatternAll(perm, "^ALL$", "ALL PRIVILEGES");
-					if (u.debugging) u.dbgOutput(u.thisProc()+"stmt=["+stmt+"]  perm=["+perm+"] status=["+status+"] ", u.debugPtree);								
+					if (u.debugPtree) u.dbgOutput(u.thisProc()+"stmt=["+stmt+"]  perm=["+perm+"] status=["+status+"] ", u.debugPtree);								
 					String reportPerm = perm;
 
 					reportPerm = reportPerm + " " + onObjectFmt;
@@ -9951,7 +9975,7 @@ public class CompassAnalyze {
 						validatePerm = validatePerm.replaceAll("\\(column\\)", "");						
 						validatePerm = validatePerm.replaceAll("::", "");						
 						status = featureSupportedInVersion(stmt, validatePerm);
-						if (u.debugging) u.dbgOutput(u.thisProc()+"stmt=["+stmt+"]  validatePerm=["+validatePerm+"]  status=["+status+"] ", u.debugPtree);						
+						if (u.debugPtree) u.dbgOutput(u.thisProc()+"stmt=["+stmt+"]  validatePerm=["+validatePerm+"]  status=["+status+"] ", u.debugPtree);						
 					}
 	 				captureItem(reportPerm.trim(), onObject, stmt, "", status, lineNo);
 
@@ -9986,7 +10010,7 @@ public class CompassAnalyze {
 			}
 
 			@Override public String visitGrant_statement(TSQLParser.Grant_statementContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitGrant_statement");
 
 				String grantOn = "";
 				if (ctx.ON() != null) {
@@ -10009,12 +10033,12 @@ public class CompassAnalyze {
 				capturePermissions(GrantStmt, ctx.permissions(), grantOn, grantee, grantOption, asGrantor, "", ctx.start.getLine());
 
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitGrant_statement");
 				return null;
 			}
 
 			@Override public String visitRevoke_statement(TSQLParser.Revoke_statementContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitRevoke_statement");
 
 				String revokeOn = "";
 				if (ctx.ON() != null) {
@@ -10042,12 +10066,12 @@ public class CompassAnalyze {
 				capturePermissions(RevokeStmt, ctx.permissions(), revokeOn, grantee, grantOption, asGrantor, cascade, ctx.start.getLine());
 
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitRevoke_statement");
 				return null;
 			}
 
 			@Override public String visitDeny_statement(TSQLParser.Deny_statementContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitDeny_statement");
 
 				String denyOn = "";
 				if (ctx.ON() != null) {
@@ -10070,12 +10094,12 @@ public class CompassAnalyze {
 				capturePermissions(DenyStmt, ctx.permissions(), denyOn, grantee, "", asGrantor, cascade, ctx.start.getLine());
 
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitDeny_statement");
 				return null;
 			}
 
 			@Override public String visitAlter_authorization(TSQLParser.Alter_authorizationContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitAlter_authorization");
 
 				String grantee = ctx.authorization_grantee().getText().toUpperCase();
 
@@ -10113,7 +10137,7 @@ public class CompassAnalyze {
  				captureItem(AlterAuthStmt+ " ON " + objReport + " TO " + granteeReport, objDetail, AlterAuthStmt, "", status, ctx.start.getLine());
 
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitAlter_authorization");
 				return null;
 			}
 
@@ -10122,7 +10146,7 @@ public class CompassAnalyze {
 			}
 
 			@Override public String visitSpatial_methods(TSQLParser.Spatial_methodsContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitSpatial_methods");
 				String spatialCall = ctx.method.getText();
 				//u.appOutput(u.thisProc()+"spatialCall=["+spatialCall+"] ");
 				if (spatialCall.equalsIgnoreCase("[value]")) {
@@ -10134,12 +10158,12 @@ public class CompassAnalyze {
 					captureItem(SpatialMethodCallFmt + " ." + spatialCall, "", SpatialReportGroup, "", status, ctx.start.getLine());
 				}
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitSpatial_methods");
 				return null;
 			}
 
 			@Override public String visitConversation_statement(TSQLParser.Conversation_statementContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitConversation_statement");
 				if (ctx.begin_conversation_timer() != null)
 					captureServiceBroker("BEGIN CONVERSATION", ctx.start.getLine());
 				else if (ctx.begin_conversation_dialog() != null)
@@ -10157,7 +10181,7 @@ public class CompassAnalyze {
 				else if (ctx.receive_statement() != null)
 					captureServiceBroker("RECEIVE", ctx.start.getLine());
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitConversation_statement");
 				return null;
 			}
 
@@ -10167,30 +10191,30 @@ public class CompassAnalyze {
 			}
 
 			@Override public String visitOpen_key(TSQLParser.Open_keyContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitOpen_key");
 				String stmt = "OPEN SYMMETRIC KEY";
 				if (ctx.MASTER() != null) stmt = "OPEN MASTER KEY";
  				String status = featureSupportedInVersion(OpenKeyStmt);
  				captureItem(stmt, "", OpenKeyStmt, stmt, status, ctx.start.getLine());
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitOpen_key");
 				return null;
 			}
 
 			@Override public String visitClose_key(TSQLParser.Close_keyContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitClose_key");
 				String stmt = "CLOSE SYMMETRIC KEY";
 				if (ctx.ALL() != null) stmt = "CLOSE ALL SYMMETRIC KEYS";
 				else if (ctx.MASTER() != null) stmt = "CLOSE MASTER KEY";
  				String status = featureSupportedInVersion(CloseKeyStmt);
  				captureItem(stmt, "", CloseKeyStmt, stmt, status, ctx.start.getLine());
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitClose_key");
 				return null;
 			}
 
 			@Override public String visitSqlcmd_command(TSQLParser.Sqlcmd_commandContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitSqlcmd_command");
 				String cmd = "";
 				if (ctx.SETVAR() != null) {
 					cmd = "SETVAR";
@@ -10219,12 +10243,12 @@ public class CompassAnalyze {
  				String status = featureSupportedInVersion(sqlcmdCommand);
  				captureItem(sqlcmdCommand + " :" + cmd, "", sqlcmdReportGroup, "", status, ctx.start.getLine());
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitSqlcmd_command");
 				return null;
 			}
 
 			@Override public String visitSqlcmd_variable(TSQLParser.Sqlcmd_variableContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitEntry("visitSqlcmd_variable");
 				String varName = "";
 				if (ctx.ID() != null) varName = ctx.ID().getText();
 				else varName = ctx.keyword().getText();
@@ -10232,7 +10256,7 @@ public class CompassAnalyze {
  				// todo: highlight predefined slqcmd variables?
  				captureItem(sqlcmdVariable + " $(" + varName + ")", "", sqlcmdReportGroup, "", status, ctx.start.getLine());
 				visitChildren(ctx);
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());
+				if (u.debugPtree) dbgTraceVisitExit("visitSqlcmd_variable");
 				return null;
 			}
 
@@ -10303,7 +10327,7 @@ public class CompassAnalyze {
 			}
 			
 			@Override public String visitCreate_fulltext_index(TSQLParser.Create_fulltext_indexContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());		
+				if (u.debugPtree) dbgTraceVisitEntry("visitCreate_fulltext_index");		
 				//u.appOutput(u.thisProc()+"ctx=["+getTextSpaced(ctx)+"] ");		
 				String tableName = u.normalizeName(ctx.table_name().getText());
 				String indexName = u.normalizeName(ctx.id().getText());
@@ -10311,24 +10335,24 @@ public class CompassAnalyze {
 				if (ctx.fulltext_with_option().size() > 0) option = "WITH";
 				captureFullTextIndex("CREATE", tableName, indexName, option, ctx.start.getLine()); 
 				visitChildren(ctx); 
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());				
+				if (u.debugPtree) dbgTraceVisitExit("visitCreate_fulltext_index");				
 				return null;
 			}
 			@Override public String visitAlter_fulltext_index(TSQLParser.Alter_fulltext_indexContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());				
+				if (u.debugPtree) dbgTraceVisitEntry("visitAlter_fulltext_index");				
 				String tableName = u.normalizeName(ctx.table_name().getText());
 				captureFullTextIndex("ALTER", tableName, "", "", ctx.start.getLine()); 
 				visitChildren(ctx); 
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());				
+				if (u.debugPtree) dbgTraceVisitExit("visitAlter_fulltext_index");				
 				return null;
 
 			}
 			@Override public String visitDrop_fulltext_index(TSQLParser.Drop_fulltext_indexContext ctx) {
-				if (u.debugging) dbgTraceVisitEntry(CompassUtilities.thisProc());				
+				if (u.debugPtree) dbgTraceVisitEntry("visitDrop_fulltext_index");				
 				String tableName = u.normalizeName(ctx.table_name().getText());
 				captureFullTextIndex("DROP", tableName, "", "", ctx.start.getLine()); 
 				visitChildren(ctx); 
-				if (u.debugging) dbgTraceVisitExit(CompassUtilities.thisProc());				
+				if (u.debugPtree) dbgTraceVisitExit("visitDrop_fulltext_index");				
 				return null;
 			}			
 			
@@ -10704,36 +10728,39 @@ public class CompassAnalyze {
 				captureSimpleStmt(currentRuleName(ctx.getRuleIndex()), ctx, ctx.start.getLine()); visitChildren(ctx); return null;
 			}
 
-		};
+	}
 
+	public void analyzeTree(TSQLParser.Tsql_fileContext tree, Integer batchNr, Integer batchLines, Integer pass)  {
 		assert (tree != null) : "parse tree is null";
+		batchContext = new BatchContext(tree, batchNr, batchLines, pass, batchText);
 
 		//report setting at start of batch
 		String on_off = TSQLLexer.QUOTED_IDENTIFIER_FLAG?"ON":"OFF";
 
 		if (pass == 1) {
-			if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"-- doing pass 1, batchNr="+batchNr+" QUOTED_IDENTIFIER="+on_off+" ---", u.debugPtree);
+			if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"-- doing pass 1, batchNr="+batchNr+" QUOTED_IDENTIFIER="+on_off+" ---", u.debugPtree);
 			u.clearContext();
+			if (pass1Analysis == null) pass1Analysis = new Pass1Analysis();
+			pass1Analysis.reset(batchContext);
 			pass1Analysis.visit(tree);
 		}
 
 		if (pass == 2) {
 			//dumpSymTab("");  // debug
-			localVars.clear();
-			localAtAtErrorVars.clear();
 			u.clearContext();
 
-			if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"-- doing pass 2, batchNr="+batchNr+" QUOTED_IDENTIFIER="+on_off+" ---", u.debugPtree);
-			stmt.clear();
+			if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"-- doing pass 2, batchNr="+batchNr+" QUOTED_IDENTIFIER="+on_off+" ---", u.debugPtree);
+			if (pass2Analysis == null) pass2Analysis = new Pass2Analysis();
+			pass2Analysis.reset(batchContext);
 			pass2Analysis.visit(tree);
 
 			// classify & capture found SELECT statements
-			if (u.debugging) u.dbgOutput(CompassUtilities.thisProc()+"SELECT stmts found: " + stmt.size(), u.debugPtree);
+			Map<Integer, CompassItem> stmt = batchContext.stmt;
+			if (u.debugPtree) u.dbgOutput(CompassUtilities.thisProc()+"SELECT stmts found: " + stmt.size(), u.debugPtree);
 			for (int i: stmt.keySet()) {
 				CompassItem item = stmt.get(i);
 				captureSELECT(item, i);
 			}
-			stmt.clear();
 		}
 	}
 }
\ No newline at end of file
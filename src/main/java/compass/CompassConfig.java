@@ -6,8 +6,11 @@ SPDX-License-Identifier: Apache-2.0
 package compass;
 
 import java.io.*;
+import java.nio.charset.Charset;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.regex.Matcher;
 import java.util.zip.CRC32;
 import java.util.zip.Checksum;
@@ -39,10 +42,31 @@ public class CompassConfig {
 	static Map<String, String> featureArgOptions = new LinkedHashMap<>();  // assuming only one argument per feature. If more, the value needs to become a List
     static boolean versionInvalid = false;
     static int overrideCount = 0;
-    static String lastCfgCheckSection = "";
-    static String lastCfgCheckName = "";
     static boolean effortEstimatesFound = false;
 
+    // resolved feature status per target version, section and name, filled on first lookup: the same features are
+    // looked up over and over during analysis, so scanning the section keys and comparing versions is done only once
+    // keys are the arguments as passed in, so a lookup needs no case conversion
+    static Map<String, Map<String, Map<String, FeatureStatus>>> featureStatusIndex = new ConcurrentHashMap<>();
+    static final int featureStatusIndexMax = 10000;  // per section, as names can come straight from the SQL code
+    static boolean featureStatusIndexEnabled = true;
+    static final LongAdder featureStatusCall = new LongAdder();
+    static final LongAdder featureStatusCached = new LongAdder();
+
+    // resolved report group, complexity score and effort estimate per section and name, and report group per section,
+    // filled on first lookup in the same way; an entry in the status index refers to the entry for its section and name
+    static Map<String, Map<String, FeatureInfo>> featureInfoIndex = new ConcurrentHashMap<>();
+    static Map<String, FeatureGroup> sectionGroupIndex = new ConcurrentHashMap<>();
+
+    // the argument to validate per section, built once the .cfg files have been read, so that finding it takes no search
+    static Map<String, String> sectionArgIndex = null;
+
+    // compiled lookup per list of names from the .cfg files, by list identity; only used while loading
+    static Map<List<String>, CfgNameMatcher> nameMatchers = new IdentityHashMap<>();
+
+    // the .cfg contents once loaded and validated; from then on, the collections above are this object's unmodifiable ones
+    static CompassConfigData configData = null;
+
     // keys in sections
     static final String validVersionsTag      = "VALID_VERSIONS";
     static final String fileFormatTag         = "FILE_FORMAT";
@@ -157,24 +181,219 @@ public class CompassConfig {
 		u.appOutput(cfgFileName+": "+s);
 	}
 
-	private static void setLastCfgCheck(String section, String name, String status) {
-		if (status.equals(u.Supported)) {
-			// do not wipe out a previous call by this one; it's supported so no need to keep it
-			return;
+	// a section in the .cfg file, and optionally a name listed in that section
+	public static final class CfgItem {
+		static final CfgItem none = new CfgItem("", "");
+
+		public final String section;
+		public final String name;
+
+		CfgItem(String section, String name) {
+			this.section = section;
+			this.name = name;
+		}
+
+		// the item a lookup with this result links a captured item to; null if the lookup is not to be kept track of
+		static CfgItem forLookup(String section, String name, String status) {
+			if (status.equals(u.Supported)) {
+				// do not wipe out a previous lookup by this one; it's supported so no need to keep it
+				return null;
+			}
+			if (section.equalsIgnoreCase(CompassAnalyze.MaxIdentifierLength)) {
+				// do not keep track of this one, it serves no purpose in this context
+				return null;
+			}
+
+			// this could be improved further: if first a not-supported item is found with high complexity , and then one with low complexity,
+			// and then the capture happens, we'll end up with low. So could do this differently by only overwriting if the complexty is higher.
+			// issues: custom values; and if we're going to retrieve the complexity here, why keep track of the section/name anyway and not just the complexity itself?
+			return new CfgItem(section.trim(), u.applyPatternFirst(name.trim(), "^[,]", "").trim());
+		}
+
+		public boolean isEmpty() {
+			return section.isEmpty();
+		}
+
+		@Override
+		public String toString() {
+			return section + "/" + name;
+		}
+	}
+
+	// status of a feature as resolved from the .cfg files, with the section and name to link a captured item to
+	// a lookup has no side effects: whoever uses the status for the report logs the status overrides
+	public static final class FeatureStatus {
+		final String status;
+		final String section;
+		final String name;
+		final String statusOverridden;  // original status if the user .cfg file overrides it, otherwise null
+		final CfgItem cfgCheck;         // null if this lookup does not need to be kept track of
+		final FeatureStatus basedOn;    // lookup this one depends on, whose override is logged along with it, if any
+		final FeatureInfo info;         // for a lookup by section and name: report group, complexity and effort; otherwise null
+
+		FeatureStatus(String status, String section, String name, String statusOverridden) {
+			this(status, section, name, statusOverridden, CfgItem.forLookup(section, name, status), null);
+		}
+
+		FeatureStatus(String status, String section, String name, String statusOverridden, CfgItem cfgCheck, FeatureStatus basedOn) {
+			this(status, section, name, statusOverridden, cfgCheck, basedOn, null);
+		}
+
+		FeatureStatus(String status, String section, String name, String statusOverridden, CfgItem cfgCheck, FeatureStatus basedOn, FeatureInfo info) {
+			this.status = status;
+			this.section = section;
+			this.name = name;
+			this.statusOverridden = statusOverridden;
+			this.cfgCheck = cfgCheck;
+			this.basedOn = basedOn;
+			this.info = info;
+		}
+
+		public void logStatusOverride() {
+			if (basedOn != null) {
+				basedOn.logStatusOverride();
+			}
+			if (statusOverridden != null) {
+				u.logStatusOverride(statusOverridden, status, section, name);
+			}
+		}
+
+		public String getStatus() {
+			return status;
+		}
+
+		// the .cfg section and name to link a captured item to, if this lookup is to be kept track of; otherwise null
+		public CfgItem getCfgCheck() {
+			return cfgCheck;
+		}
+
+		// report group, complexity score and effort estimate of the feature; null unless looked up by section and name
+		public FeatureInfo getInfo() {
+			return info;
+		}
+	}
+
+	// report group, complexity score and effort estimate of a feature as resolved from the .cfg files, which do not depend on the version
+	public static final class FeatureInfo {
+		final FeatureGroup group;
+		final String complexity;         // complexityUndefined if not defined for the name
+		final String complexityDefault;  // same, but falling back to the default for the section
+		final String effort;             // effortUndefined if not defined for the name
+		final String effortDefault;      // same, but falling back to the default for the section
+
+		FeatureInfo(String section, String name) {
+			this.group = resolveFeatureGroup(section, name);
+			this.complexity = resolveComplexityDefined(section, name, false);
+			this.complexityDefault = resolveComplexityDefined(section, name, true);
+			this.effort = resolveEffortDefined(section, name, false);
+			this.effortDefault = resolveEffortDefined(section, name, true);
+		}
+
+		public String getGroup() {
+			return group.group;
+		}
+
+		public String getComplexity() {
+			return complexity;
+		}
+
+		public String getEffort() {
+			return effort;
+		}
+	}
+
+	// report group of a feature as resolved from the .cfg files, with the override to log for every lookup
+	static final class FeatureGroup {
+		final String group;
+		final String groupOverridden;  // original group if the user .cfg file overrides it, otherwise null
+		final String section;
+		final String name;
+
+		FeatureGroup(String group, String groupOverridden, String section, String name) {
+			this.group = group;
+			this.groupOverridden = groupOverridden;
+			this.section = section;
+			this.name = name;
+		}
+
+		void logGroupOverride() {
+			if (groupOverridden != null) {
+				u.logGroupOverride(groupOverridden, group, section, name);
+			}
+		}
+	}
+
+	// to be called whenever the .cfg contents change
+	public static void clearFeatureStatusIndex() {
+		featureStatusIndex.clear();
+		featureInfoIndex.clear();
+		sectionGroupIndex.clear();
+		nameMatchers.clear();
+		sectionArgIndex = null;
+		BabelfishVersion.reset();
+	}
+
+	// compiled lookup for a list of names; recompiled if the list has changed since
+	static CfgNameMatcher nameMatcher(List<String> names) {
+		if (configData != null) {
+			// all lists of the loaded .cfg contents have been compiled; anything else is not kept
+			CfgNameMatcher m = configData.getNameMatcher(names);
+			return (m != null) ? m : new CfgNameMatcher(names);
 		}
-		if (section.equalsIgnoreCase(CompassAnalyze.MaxIdentifierLength)) {
-			// do not keep track of this one, it serves no purpose in this context
-			return;
+		CfgNameMatcher m = nameMatchers.get(names);
+		if (m == null || !m.isCurrent(names)) {
+			m = new CfgNameMatcher(names);
+			nameMatchers.put(names, m);
 		}
+		return m;
+	}
 
-		// this could be improved further: if first a not-supported item is found with high complexity , and then one with low complexity,
-		// and then the capture happens, we'll end up with low. So could do this differently by only overwriting if the complexty is higher.
-		// issues: custom values; and if we're going to retrieve the complexity here, why keep track of the section/name anyway and not just the complexity itself?
-		lastCfgCheckSection = section.trim();
-		lastCfgCheckName    = name.trim();
-		lastCfgCheckName    = u.applyPatternFirst(lastCfgCheckName, "^[,]", "");
-		lastCfgCheckName	= lastCfgCheckName.trim();
-		//u.appOutput(u.thisProc()+"setting lastCfgCheckSection=["+lastCfgCheckSection+"] lastCfgCheckName=["+lastCfgCheckName+"] ");
+	// is the name listed, not considering wildcards?
+	static boolean listContains(List<String> names, String name) {
+		return nameMatcher(names).contains(name);
+	}
+
+	public static CompassConfigData getConfigData() {
+		return configData;
+	}
+
+	// to be called when loading is complete: from here on the .cfg contents cannot change, and can be shared between threads
+	static void freeze() {
+		configData = CompassConfigData.fromLoaded();
+		cfg = configData.getCfg();
+		userCfg = configData.getUserCfg();
+		Babelfish_VersionList = configData.getBabelfishVersionList();
+		sectionList = configData.getSectionList();
+		sectionOverrideList = configData.getSectionOverrideList();
+		sectionEffortList = configData.getSectionEffortList();
+		sectionComplexityList = configData.getSectionComplexityList();
+		versionAliasList = configData.getVersionAliasList();
+		featureArgOptions = configData.getFeatureArgOptions();
+		complexityDefault = configData.getComplexityDefault();
+		effortEstimateDefault = configData.getEffortEstimateDefault();
+		cfgSections = configData.getCfgSections();
+		sectionArgIndex = configData.getSectionArgIndex();
+		nameMatchers.clear();
+		featureStatusIndex.clear();
+	}
+
+	// loading again: continue from modifiable copies, as the .cfg files have always been read into the existing contents
+	private static void unfreeze() {
+		if (configData == null) return;
+		cfg = CompassConfigData.thawCfg(configData.getCfg());
+		userCfg = CompassConfigData.thawCfg(configData.getUserCfg());
+		Babelfish_VersionList = new ArrayList<>(configData.getBabelfishVersionList());
+		sectionList = CompassConfigData.thawSections(configData.getSectionList());
+		sectionOverrideList = CompassConfigData.thawSections(configData.getSectionOverrideList());
+		sectionEffortList = CompassConfigData.thawSections(configData.getSectionEffortList());
+		sectionComplexityList = CompassConfigData.thawSections(configData.getSectionComplexityList());
+		versionAliasList = new LinkedHashMap<>(configData.getVersionAliasList());
+		featureArgOptions = new LinkedHashMap<>(configData.getFeatureArgOptions());
+		complexityDefault = new LinkedHashMap<>(configData.getComplexityDefault());
+		effortEstimateDefault = new LinkedHashMap<>(configData.getEffortEstimateDefault());
+		cfgSections = new ArrayList<>(configData.getCfgSections());
+		configData = null;
+		clearFeatureStatusIndex();
 	}
 
 	public static boolean isValidBabelfishVersion(String version) {
@@ -217,31 +436,14 @@ public class CompassConfig {
 
 	public static String normalizedBabelfishVersion(String version) {
 		// for comparing versions, use a normalized internal representation. Assumption: external format is \d+(\.\d+)* or \d+\.\*
-		StringBuilder internalVers = new StringBuilder();
-
-		// replace by alias if defined
-		if (versionAliasList.containsKey(version)) {
-			String alias = versionAliasList.get(version);
-			if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "alias found for version=["+version+"] = ["+alias+"] ", u.debugCfg);
-			version = alias;
-		}
-
-		String[] vParts = version.split("\\.");
-		for(int i=0; i < vParts.length; i++) {
-			if (vParts[i].equals("*")) {
-				vParts[i] = "99999";
-			}
-			internalVers.append(String.format("%05d", Integer.parseInt(vParts[i]))).append('.');
-		}
-		internalVers.deleteCharAt(internalVers.length()-1);
-		return internalVers.toString();
+		return BabelfishVersion.of(version).getNormalized();
 	}
 
 	public static String lowerBabelfishVersion(String version1, String version2) {
 		assert !(version1.isEmpty() && version2.isEmpty()) :  CompassUtilities.thisProc()+"version1 and version2 cannot both be blank";
 		if (version1.isEmpty()) return version2;
 		if (version2.isEmpty()) return version1;
-		if (normalizedBabelfishVersion(version1).compareTo(normalizedBabelfishVersion(version2)) < 0) return version1;
+		if (BabelfishVersion.of(version1).compareTo(BabelfishVersion.of(version2)) < 0) return version1;
 		else return version2;
 	}
 
@@ -249,29 +451,29 @@ public class CompassConfig {
 		assert !(version1.isEmpty() && version2.isEmpty()) :  CompassUtilities.thisProc()+"version1 and version2 cannot both be blank";
 		if (version1.isEmpty()) return version2;
 		if (version2.isEmpty()) return version1;
-		if (normalizedBabelfishVersion(version1).compareTo(normalizedBabelfishVersion(version2)) > 0) return version1;
+		if (BabelfishVersion.of(version1).compareTo(BabelfishVersion.of(version2)) > 0) return version1;
 		else return version2;
 
 	}
 
 	public static boolean isLowerBabelfishVersion(String version1, String version2) {
 		assert !(version1.isEmpty() && version2.isEmpty()) :  CompassUtilities.thisProc()+"version1 and version2 cannot both be blank";
-		return normalizedBabelfishVersion(version1).compareTo(normalizedBabelfishVersion(version2)) < 0;
+		return BabelfishVersion.of(version1).compareTo(BabelfishVersion.of(version2)) < 0;
 	}
 
 	public static boolean isLowerOrEqualBabelfishVersion(String version1, String version2) {
 		assert !(version1.isEmpty() && version2.isEmpty()) :  CompassUtilities.thisProc()+"version1 and version2 cannot both be blank";
-		return normalizedBabelfishVersion(version1).compareTo(normalizedBabelfishVersion(version2)) <= 0;
+		return BabelfishVersion.of(version1).compareTo(BabelfishVersion.of(version2)) <= 0;
 	}
 
 	public static boolean isHigherBabelfishVersion(String version1, String version2) {
 		assert !(version1.isEmpty() && version2.isEmpty()) :  CompassUtilities.thisProc()+"version1 and version2 cannot both be blank";
-		return normalizedBabelfishVersion(version1).compareTo(normalizedBabelfishVersion(version2)) > 0;
+		return BabelfishVersion.of(version1).compareTo(BabelfishVersion.of(version2)) > 0;
 	}
 
 	public static boolean isEqualBabelfishVersion(String version1, String version2) {
 		assert !(version1.isEmpty() && version2.isEmpty()) :  CompassUtilities.thisProc()+"version1 and version2 cannot both be blank";
-		return normalizedBabelfishVersion(version1).compareTo(normalizedBabelfishVersion(version2)) == 0;
+		return BabelfishVersion.of(version1).compareTo(BabelfishVersion.of(version2)) == 0;
 	}
 
 	// for a feature where the actual value of the Nth argument needs to be validated
@@ -303,40 +505,48 @@ public class CompassConfig {
 
 	// for a feature where the actual value of the Nth argument needs to be validated:
 	public static String featureArgSupportedInVersion(String requestVersion, String section, String arg, String argValue) {
+		FeatureStatus fs = lookupFeatureArgStatus(requestVersion, section, arg, argValue);
+		fs.logStatusOverride();
+		return fs.status;
+	}
+
+	public static FeatureStatus lookupFeatureArgStatus(String requestVersion, String section, String arg, String argValue) {
+		BabelfishVersion version = BabelfishVersion.of(requestVersion);
 		String status = u.NotSupported;
+		FeatureStatus dflt = null;
 		section = section.toUpperCase();
 		arg = arg.toUpperCase();
-		if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + " entry: section=[" + section + "]  requestVersion=[" + requestVersion + "] arg=[" + arg + "] argValue=[" + argValue + "] ", u.debugCfg);
+		if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + " entry: section=[" + section + "]  requestVersion=[" + requestVersion + "] arg=[" + arg + "] argValue=[" + argValue + "] ", u.debugCfg);
 		if (featureArgOptions.containsKey(section)) {
 			argValue = argValue.toUpperCase();
 			if ((argValue.charAt(0) == '\'') || (argValue.charAt(0) == '"')) {
 				argValue = u.stripStringQuotes(argValue);
-				if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + " stripped quotes: argValue=[" + argValue + "] ", u.debugCfg);
+				if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + " stripped quotes: argValue=[" + argValue + "] ", u.debugCfg);
 			}
 			if (argValue.charAt(0) == '@') {
 				// we cannot determine the contents of a variable
-				return u.ReviewManually;
+				return new FeatureStatus(u.ReviewManually, section, arg+"="+argValue, null, null, null);
 			}
 			if (argValue.charAt(0) == '(') {
 				// we cannot determine the contents of an expression
 				// admittedly, this does not catch all expressions
-				return u.ReviewManually;
+				return new FeatureStatus(u.ReviewManually, section, arg+"="+argValue, null, null, null);
 			}
 
-			if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + " featureArgOptions found: section=[" + section + "]  requestVersion=[" + requestVersion + "] arg=[" + arg + "] argValue=[" + argValue + "] ", u.debugCfg);
+			if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + " featureArgOptions found: section=[" + section + "]  requestVersion=[" + requestVersion + "] arg=[" + arg + "] argValue=[" + argValue + "] ", u.debugCfg);
 			Map<String, List<String>> featureList = sectionList.get(section);
 
 			for (String key : featureList.keySet()) {
-				if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() +"key=[" + key + "] ", u.debugCfg);
+				if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() +"key=[" + key + "] ", u.debugCfg);
 				if (key.startsWith(supportedTag + "/") && key.endsWith("/" + arg)) {
 					String foundVersion = key.substring(supportedTag.length() + 1, key.length() - arg.length() - 1);
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() +"key=[" + key + "] foundVersion=[" + foundVersion + "] ", u.debugCfg);
+					if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() +"key=[" + key + "] foundVersion=[" + foundVersion + "] ", u.debugCfg);
 					if (foundVersion.isEmpty()) continue;  // should never be blank
 					List<String> thisList = featureList.get(key);
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() +"featureList Key=[" + key + "] (" + thisList.size() + ") --> " + thisList, u.debugCfg);
+					if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() +"featureList Key=[" + key + "] (" + thisList.size() + ") --> " + thisList, u.debugCfg);
 					if (thisList.contains(argValue) || thisList.contains("*")) {
 						// feature is supported in version 'foundVersion' -- is that same or earlier as what is being asked?
-						if (isVersionSupported(requestVersion, foundVersion)) {
+						if (isVersionSupported(version, foundVersion)) {
 							status = u.Supported;
 							break;
 						}
@@ -344,31 +554,31 @@ public class CompassConfig {
 				}
 			}
 			if (!status.equals(u.Supported)) {
-				status = featureDefaultStatus(section);
+				dflt = lookupDefaultStatus(section);
+				status = dflt.status;
 			}
 		}
-		setLastCfgCheck(section, arg+"="+argValue, status);
-		if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + " result: section=[" + section + "]  requestVersion=[" + requestVersion + "] arg=[" + arg + "] argValue=[" + argValue + "] status=["+status+"] ", u.debugCfg);
-		return status;
+		if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + " result: section=[" + section + "]  requestVersion=[" + requestVersion + "] arg=[" + arg + "] argValue=[" + argValue + "] status=["+status+"] ", u.debugCfg);
+		return new FeatureStatus(status, section, arg+"="+argValue, null, CfgItem.forLookup(section, arg+"="+argValue, status), dflt);
 	}
 
 	// return NotSupported in case no supported minimum version was found
 	public static String featureSupportedMinimumVersion(String section) {
 		String minVersion = "";
 		section = section.toUpperCase();
-		if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + " entry: section=[" + section + "] ", u.debugCfg);
+		if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + " entry: section=[" + section + "] ", u.debugCfg);
 
 		if (featureExists(section)) {
-			if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + " featureExists: section=[" + section + "] ", u.debugCfg);
+			if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + " featureExists: section=[" + section + "] ", u.debugCfg);
 			Map<String, List<String>> featureList = sectionList.get(section);
 			for (String key : featureList.keySet()) {
 				if (key.startsWith(supportedTag + "/")) {
 					String foundVersion = key.substring(supportedTag.length() + 1);
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() +"key=[" + key + "] foundVersion=[" + foundVersion + "] ", u.debugCfg);
+					if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() +"key=[" + key + "] foundVersion=[" + foundVersion + "] ", u.debugCfg);
 					if (foundVersion.isEmpty()) continue;
 
 					List<String> thisList = featureList.get(key);
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() +" thisList  key=[" + key + "] => [" + thisList + "] ", u.debugCfg);
+					if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() +" thisList  key=[" + key + "] => [" + thisList + "] ", u.debugCfg);
 					if (thisList.contains("*")) {
 						// feature is supported in version 'foundVersion'
 						if (foundVersion.contains(cRangeSeparator)) { //interval was specified
@@ -387,19 +597,19 @@ public class CompassConfig {
 		String minVersion = "";
 		section = section.toUpperCase();
 		name = name.toUpperCase();
-		if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + " entry: section=[" + section + "] name=[" + name + "] ", u.debugCfg);
+		if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + " entry: section=[" + section + "] name=[" + name + "] ", u.debugCfg);
 		assert (!name.isEmpty()) : "name argument cannot be blank";
 
 		if (featureExists(section, name)) {
-			if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + " featureExists: section=[" + section + "] name=[" + name + "] ", u.debugCfg);
+			if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + " featureExists: section=[" + section + "] name=[" + name + "] ", u.debugCfg);
 			Map<String, List<String>> featureList = sectionList.get(section);
 			for (String key : featureList.keySet()) {
 				if (key.startsWith(supportedTag + "/")) {
 					String foundVersion = key.substring(supportedTag.length() + 1);
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() +"key=[" + key + "] foundVersion=[" + foundVersion + "] ", u.debugCfg);
+					if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() +"key=[" + key + "] foundVersion=[" + foundVersion + "] ", u.debugCfg);
 					if (foundVersion.isEmpty()) continue;
 					List<String> thisList = featureList.get(key);
-					if (thisList.contains(name) || thisList.contains("*")) {
+					if (listContains(thisList, name) || listContains(thisList, "*")) {
 						// feature is supported in version 'foundVersion'
 						if (foundVersion.contains(cRangeSeparator)) { //interval specified
 							foundVersion = foundVersion.substring(0, foundVersion.indexOf(cRangeSeparator));
@@ -413,31 +623,39 @@ public class CompassConfig {
 	}
 
 	public static String featureSupportedInVersion(String requestVersion, String section) {
+		FeatureStatus fs = lookupFeatureStatus(requestVersion, section);
+		fs.logStatusOverride();
+		return fs.status;
+	}
+
+	public static FeatureStatus lookupFeatureStatus(String requestVersion, String section) {
+		BabelfishVersion version = BabelfishVersion.of(requestVersion);
 		String status = u.NotSupported;
+		FeatureStatus dflt = null;
 		section = section.toUpperCase();
-		if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + " entry: section=[" + section + "] requestVersion=[" + requestVersion + "] ", u.debugCfg);
+		if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + " entry: section=[" + section + "] requestVersion=[" + requestVersion + "] ", u.debugCfg);
 
 		if (featureExists(section)) {
-			if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + " featureExists: section=[" + section + "] requestVersion=[" + requestVersion + "] featureDefault=[" + status + "] ", u.debugCfg);
+			if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + " featureExists: section=[" + section + "] requestVersion=[" + requestVersion + "] featureDefault=[" + status + "] ", u.debugCfg);
 			Map<String, List<String>> featureList = sectionList.get(section);
 			for (String key : featureList.keySet()) {
 				if (key.startsWith(supportedTag + "/")) {
 					String foundVersion = key.substring(supportedTag.length() + 1);
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() +"key=[" + key + "] foundVersion=[" + foundVersion + "] ", u.debugCfg);
+					if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() +"key=[" + key + "] foundVersion=[" + foundVersion + "] ", u.debugCfg);
 					if (foundVersion.isEmpty()) continue;
-					if (isVersionSupported(requestVersion, foundVersion)) {
+					if (isVersionSupported(version, foundVersion)) {
 						status = u.Supported;
 						break;
 					}
 				}
 			}
 			if (!status.equals(u.Supported)) {
-				status = featureDefaultStatus(section);
+				dflt = lookupDefaultStatus(section);
+				status = dflt.status;
 			}
 		}
-		setLastCfgCheck(section, "", status);
-		if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + " return: status=[" + status + "] ", u.debugCfg);
-		return status;
+		if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + " return: status=[" + status + "] ", u.debugCfg);
+		return new FeatureStatus(status, section, "", null, CfgItem.forLookup(section, "", status), dflt);
 	}
 
 	// gets the list of supported values for the version specified (not cumulative, only for the most recent supported version)
@@ -450,7 +668,7 @@ public class CompassConfig {
 		}
 
 		String s = featureValueSupportedInVersion(requestVersion, section);
-		if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "section=[" + section + "] requestVersion=[" + requestVersion + "] s=[" + s + "] ", u.debugCfg);
+		if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + "section=[" + section + "] requestVersion=[" + requestVersion + "] s=[" + s + "] ", u.debugCfg);
 
 		try {
 			result = Integer.parseInt(s);
@@ -465,29 +683,29 @@ public class CompassConfig {
 
 	// gets the list of supported values for the version specified (not cumulative, only for the most recent supported version)
 	public static String featureValueSupportedInVersion(String requestVersion, String section) {
+		BabelfishVersion version = BabelfishVersion.of(requestVersion);
 		String value = "";
 		section = section.toUpperCase();
-		if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + " entry: section=[" + section + "] requestVersion=[" + requestVersion + "] ", u.debugCfg);
+		if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + " entry: section=[" + section + "] requestVersion=[" + requestVersion + "] ", u.debugCfg);
 
 		if (featureExists(section)) {
-			if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + " featureExists: section=[" + section + "] requestVersion=[" + requestVersion + "] ", u.debugCfg);
+			if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + " featureExists: section=[" + section + "] requestVersion=[" + requestVersion + "] ", u.debugCfg);
 			Map<String, List<String>> featureList = sectionList.get(section);
 			for (String key : featureList.keySet()) {
 				if (key.startsWith(supportedTag + "/")) {
 					String foundVersion = key.substring(supportedTag.length() + 1);
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() +"key=[" + key + "] foundVersion=[" + foundVersion + "] ", u.debugCfg);
+					if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() +"key=[" + key + "] foundVersion=[" + foundVersion + "] ", u.debugCfg);
 					if (foundVersion.isEmpty()) continue;
 
-					if (isVersionSupported(requestVersion, foundVersion)) {
+					if (isVersionSupported(version, foundVersion)) {
 						value = String.join(",", featureList.get(key));
-						if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + " featurelist=[" + featureList.get(key) + "]  value=[" + value + "] ", u.debugCfg);
+						if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + " featurelist=[" + featureList.get(key) + "]  value=[" + value + "] ", u.debugCfg);
 						break;
 					}
 				}
 			}
 		}
-		if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + " return: value=[" + value + "]  ", u.debugCfg);
-		setLastCfgCheck(section, "", "");
+		if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + " return: value=[" + value + "]  ", u.debugCfg);
 		return value;
 	}
 
@@ -495,13 +713,13 @@ public class CompassConfig {
 	public static List<String> featureValueList(String section) {
 		section = section.toUpperCase();
 		if (sectionExists(section)) {
-			if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + " featureExists: section=[" + section + "]  ", u.debugCfg);
+			if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + " featureExists: section=[" + section + "]  ", u.debugCfg);
 			Map<String, List<String>> featureList = sectionList.get(section);
 			String key = createKey(listValuesTag);
-			if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "key=[" + key + "]", u.debugCfg);
+			if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + "key=[" + key + "]", u.debugCfg);
 			if (featureList.containsKey(key)) {
 				List<String> allItems = featureList.get(key);
-				if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "featureList containsKey [" + key + "] allItems=[" + allItems + "]", u.debugCfg);
+				if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + "featureList containsKey [" + key + "] allItems=[" + allItems + "]", u.debugCfg);
 				assert allItems != null : "list= items for section=[" + section + "] is empty";
 				return allItems;
 			}
@@ -511,26 +729,56 @@ public class CompassConfig {
 
 	// is this feature (section, name) supported in the specified version?
 	public static String featureSupportedInVersion(String requestVersion, String section, String name) {
+		FeatureStatus fs = lookupFeatureStatus(requestVersion, section, name);
+		fs.logStatusOverride();
+		return fs.status;
+	}
+
+	// same, but without side effects: the section and name to link a captured item to are part of the result
+	public static FeatureStatus lookupFeatureStatus(String requestVersion, String section, String name) {
+		FeatureStatus fs = null;
+		Map<String, FeatureStatus> index = null;
+		if (featureStatusIndexEnabled && !u.debugging) {
+			featureStatusCall.increment();
+			index = featureStatusIndex.computeIfAbsent(requestVersion, k -> new ConcurrentHashMap<>()).computeIfAbsent(section, k -> new ConcurrentHashMap<>());
+			fs = index.get(name);
+		}
+		if (fs == null) {
+			fs = resolveFeatureSupportedInVersion(requestVersion, section, name);
+			if (index != null) {
+				if (index.size() >= featureStatusIndexMax) index.clear();
+				index.put(name, fs);
+			}
+		}
+		else {
+			featureStatusCached.increment();
+		}
+		return fs;
+	}
+
+	private static FeatureStatus resolveFeatureSupportedInVersion(String requestVersion, String section, String name) {
+		BabelfishVersion version = BabelfishVersion.of(requestVersion);
 		String status = u.NotSupported;
+		String statusOverridden = null;
 		name = name.toUpperCase();
 		section = section.toUpperCase();
-		if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + " entry: section=[" + section + "] name=[" + name + "]  requestVersion=[" + requestVersion + "] ", u.debugCfg);
+		if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + " entry: section=[" + section + "] name=[" + name + "]  requestVersion=[" + requestVersion + "] ", u.debugCfg);
 		assert (!name.isEmpty()) : "name argument cannot be blank";
 
 		if (featureExists(section, name)) {
-			if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + " featureExists: section=[" + section + "] name=[" + name + "]  requestVersion=[" + requestVersion + "]  featureDefault=[" + status + "] ", u.debugCfg);
+			if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + " featureExists: section=[" + section + "] name=[" + name + "]  requestVersion=[" + requestVersion + "]  featureDefault=[" + status + "] ", u.debugCfg);
 			Map<String, List<String>> featureList = sectionList.get(section);
 			for (String key : featureList.keySet()) {
 				if (key.startsWith(supportedTag + "/")) {
 					String foundVersion = key.substring(supportedTag.length() + 1);
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() +"supported key=[" + key + "] ", u.debugCfg);
+					if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() +"supported key=[" + key + "] ", u.debugCfg);
 					if (foundVersion.isEmpty()) continue;
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "foundVersion=[" + foundVersion + "] ", u.debugCfg);
+					if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + "foundVersion=[" + foundVersion + "] ", u.debugCfg);
 
 					List<String> thisList = featureList.get(key);
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() +"featureList Key=[" + key + "] (" + thisList.size() + ") --> " + thisList, u.debugCfg);
-					if (thisList.contains(name) || thisList.contains("*")) {
-						if (isVersionSupported(requestVersion, foundVersion)) {
+					if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() +"featureList Key=[" + key + "] (" + thisList.size() + ") --> " + thisList, u.debugCfg);
+					if (listContains(thisList, name) || listContains(thisList, "*")) {
+						if (isVersionSupported(version, foundVersion)) {
 							status = u.Supported;
 							break;
 						}
@@ -538,14 +786,14 @@ public class CompassConfig {
 				}
 				if (key.startsWith(ignoredTag + "/")) {
 					String foundVersion = key.substring(ignoredTag.length() + 1);
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() +"ignored key=[" + key + "] ", u.debugCfg);
+					if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() +"ignored key=[" + key + "] ", u.debugCfg);
 					if (foundVersion.isEmpty()) continue;
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "foundVersion=[" + foundVersion + "] ", u.debugCfg);
+					if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + "foundVersion=[" + foundVersion + "] ", u.debugCfg);
 
 					List<String> thisList = featureList.get(key);
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() +"featureList Key=[" + key + "] (" + thisList.size() + ") --> " + thisList, u.debugCfg);
-					if (thisList.contains(name) || thisList.contains("*")) {
-						if (isVersionSupported(requestVersion, foundVersion)) {
+					if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() +"featureList Key=[" + key + "] (" + thisList.size() + ") --> " + thisList, u.debugCfg);
+					if (listContains(thisList, name) || listContains(thisList, "*")) {
+						if (isVersionSupported(version, foundVersion)) {
 							status = u.Ignored;
 							break;
 						}
@@ -553,71 +801,124 @@ public class CompassConfig {
 				}
 			}
 			if (!status.equals(u.Supported) && !status.equals(u.Ignored) ) {
-				status = featureDefaultStatus(section, name);
+				FeatureStatus fs = lookupDefaultStatus(section, name);
+				status = fs.status;
+				statusOverridden = fs.statusOverridden;
 			}
 		}
-		setLastCfgCheck(section, name, status);
-		if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "return status=["+status+"] ", u.debugCfg);
-		return status;
+		if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + "return status=["+status+"] ", u.debugCfg);
+		return new FeatureStatus(status, section, name, statusOverridden, CfgItem.forLookup(section, name, status), null, lookupFeatureInfo(section, name));
 	}
 
 	// first check if an entry 'option=value' exists; if not, try 'option' on its own
 	public static String featureSupportedInVersion(String requestVersion,String section, String name, String optionValue) {
-		if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + " entry: section=[" + section + "]  name=[" + name + "]  optionValue=["+optionValue+"]  ", u.debugCfg);
+		FeatureStatus fs = lookupFeatureStatus(requestVersion, section, name, optionValue);
+		fs.logStatusOverride();
+		return fs.status;
+	}
+
+	public static FeatureStatus lookupFeatureStatus(String requestVersion,String section, String name, String optionValue) {
+		if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + " entry: section=[" + section + "]  name=[" + name + "]  optionValue=["+optionValue+"]  ", u.debugCfg);
 		section = section.toUpperCase();
-		String status = u.NotSupported;
+		FeatureStatus option = null;
 		if (!optionValue.isEmpty()) {
-			String option = name+"="+optionValue;
-			if (featureExists(section, option)) {
-				status = featureSupportedInVersion(requestVersion, section, option);
-				if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "option=value found: status=["+status+"] ", u.debugCfg);
+			String optionName = name+"="+optionValue;
+			if (featureExists(section, optionName)) {
+				option = lookupFeatureStatus(requestVersion, section, optionName);
+				if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + "option=value found: status=["+option.status+"] ", u.debugCfg);
 			}
 		}
 		else if (featureExists(section, name)) {
-			status = featureSupportedInVersion(requestVersion, section, name);
-			if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "option found: status=["+status+"] ", u.debugCfg);
+			option = lookupFeatureStatus(requestVersion, section, name);
+			if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + "option found: status=["+option.status+"] ", u.debugCfg);
 		}
-		if (!status.equals(u.Supported)) {
-			status = featureDefaultStatus(section, name);
+		if (option != null && option.status.equals(u.Supported)) {
+			if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + "return status=["+option.status+"] ", u.debugCfg);
+			return option;
 		}
-		if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "return status=["+status+"] ", u.debugCfg);
-		return status;
+		FeatureStatus fs = lookupDefaultStatus(section, name);
+		if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + "return status=["+fs.status+"] ", u.debugCfg);
+		return new FeatureStatus(fs.status, fs.section, fs.name, fs.statusOverridden, (option == null) ? null : option.cfgCheck, option);
 	}
 
 	public static boolean isVersionSupported(String requestVersion, String testVersion) {
-		boolean isSupported = false;
-		String testVersionMax = "";
-		if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + " entry: requestVersion=[" + requestVersion + "] testVersion=[" + testVersion + "] ", u.debugCfg);
+		return isVersionSupported(BabelfishVersion.of(requestVersion), testVersion);
+	}
 
-		// feature is supported in version 'testVersion', but there could be an interval
-		if (testVersion.contains(cRangeSeparator)) { //interval specified
-			testVersionMax = testVersion.substring(testVersion.indexOf(cRangeSeparator) + 1);
-			testVersion = testVersion.substring(0, testVersion.indexOf(cRangeSeparator));
-			if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "testVersion=[" + testVersion + "] testVersionMax=[" + testVersionMax + "] ", u.debugCfg);
-		}
-		if (testVersionMax.isEmpty() && isLowerOrEqualBabelfishVersion(testVersion, requestVersion)) {
-			// yes, it is supported in the requested version
-			if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "found lower/equal version: testVersion=[" + testVersion + "] requestVersion=[" + requestVersion + "] ", u.debugCfg);
-			isSupported = true;
-		}
-		else {
-			if (!testVersionMax.isEmpty()) {
-				// does the requested version match the interval?
-				if (isLowerOrEqualBabelfishVersion(testVersion, requestVersion) &&
-						isLowerOrEqualBabelfishVersion(requestVersion, testVersionMax)) {
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "found version in interval: testVersion=[" + testVersion + "] testVersionMax=[" + testVersionMax + "]  requestVersion=[" + requestVersion + "] ", u.debugCfg);
-					isSupported = true;
-				}
+	// feature is supported in version 'testVersion', but there could be an interval
+	public static boolean isVersionSupported(BabelfishVersion requestVersion, String testVersion) {
+		boolean isSupported = requestVersion.isInRange(BabelfishVersion.range(testVersion));
+		if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + "requestVersion=[" + requestVersion + "] testVersion=[" + testVersion + "] isSupported=[" + isSupported + "] ", u.debugCfg);
+		return isSupported;
+	}
+
+	// parse the versions and version ranges in the 'supported-' and 'ignored-' keys once, after all versions and aliases are known
+	private static void resolveVersionRanges() {
+		for (String section : sectionList.keySet()) {
+			for (String key : sectionList.get(section).keySet()) {
+				String foundVersion = "";
+				if (key.startsWith(supportedTag + "/")) foundVersion = key.substring(supportedTag.length() + 1);
+				else if (key.startsWith(ignoredTag + "/")) foundVersion = key.substring(ignoredTag.length() + 1);
+				if (foundVersion.contains("/")) foundVersion = foundVersion.substring(0, foundVersion.indexOf("/"));  // 'supported-<version>/<arg>'
+				if (foundVersion.isEmpty()) continue;
+				BabelfishVersion.range(foundVersion);
 			}
 		}
-		return isSupported;
+	}
+
+	// development only: time the lookup of all listed features with and without the status index, and check both give the same result
+	public static void benchmarkFeatureStatusIndex(String requestVersion, int iterations) {
+		List<String> sections = new ArrayList<>();
+		List<String> names = new ArrayList<>();
+		for (String section : sectionList.keySet()) {
+			List<String> allItems = sectionList.get(section).get(createKey(listValuesTag));
+			if (allItems == null) continue;
+			for (String name : allItems) {
+				if (name.isEmpty() || name.contains(wildcardChar)) continue;
+				sections.add(section);
+				names.add(name);
+			}
+		}
+		boolean indexEnabled = featureStatusIndexEnabled;
+		List<String> statusNoIndex = new ArrayList<>();
+		List<String> statusIndex = new ArrayList<>();
+		long elapsedNoIndex = 0;
+		long elapsedIndex = 0;
+		for (int pass = 0; pass < 2; pass++) {
+			featureStatusIndexEnabled = (pass == 1);
+			clearFeatureStatusIndex();
+			List<String> result = featureStatusIndexEnabled ? statusIndex : statusNoIndex;
+			long start = System.nanoTime();
+			for (int i = 0; i < iterations; i++) {
+				for (int j = 0; j < names.size(); j++) {
+					String status = lookupFeatureStatus(requestVersion, sections.get(j), names.get(j)).status;
+					if (i == 0) result.add(status);
+				}
+			}
+			long elapsed = (System.nanoTime() - start) / 1000000;
+			if (featureStatusIndexEnabled) elapsedIndex = elapsed;
+			else elapsedNoIndex = elapsed;
+		}
+		featureStatusIndexEnabled = indexEnabled;
+
+		int mismatches = 0;
+		for (int j = 0; j < names.size(); j++) {
+			if (!statusNoIndex.get(j).equals(statusIndex.get(j))) {
+				mismatches++;
+				u.appOutput("Mismatch: section=["+sections.get(j)+"] name=["+names.get(j)+"] without index=["+statusNoIndex.get(j)+"] with index=["+statusIndex.get(j)+"]");
+			}
+		}
+		long lookups = (long) iterations * names.size();
+		u.appOutput("Feature lookups      : "+ lookups + " ("+names.size()+" features x "+iterations+", version "+requestVersion+")");
+		u.appOutput("Without index        : "+ elapsedNoIndex + " ms");
+		u.appOutput("With index           : "+ elapsedIndex + " ms");
+		u.appOutput("Mismatches           : "+ mismatches);
 	}
 
 	// find original section in .cfg for an item (for effort matching)
-	// not currently used
 	public static String findSectionForItem(String item) {
 		item = item.toUpperCase();
-		if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "entry: item=["+item+"] ", u.debugCfg);
+		if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + "entry: item=["+item+"] ", u.debugCfg);
 		String section = "";
 		boolean done = false;
 		for (String key : sectionList.keySet()) {
@@ -626,7 +927,7 @@ public class CompassConfig {
 				List<String> thisList = featureList.get(key2);
 				if (thisList == null) continue;
 				if (thisList.contains(item)) {
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + " found key=[" + key + "] key2=["+key2+"] with item in thisList=[" + thisList + "] ", u.debugCfg);
+					if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + " found key=[" + key + "] key2=["+key2+"] with item in thisList=[" + thisList + "] ", u.debugCfg);
 					section = key;
 					done = true;
 					break;
@@ -634,13 +935,30 @@ public class CompassConfig {
 			}
 			if (done) break;
 		}
-		if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "result: section=["+section+"] ", u.debugCfg);
+		if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + "result: section=["+section+"] ", u.debugCfg);
 		return section;
 	}
 
+	// to be called once the .cfg contents are complete: validating the .cfg files adds items to the lists
+	static void buildSectionArgIndex() {
+		sectionArgIndex = new HashMap<>();
+		for (String section : sectionList.keySet()) {
+			for (String key : sectionList.get(section).keySet()) {
+				if (key.startsWith(supportedTag + "/")) {
+					String argN = getArgN(key);
+					if (!argN.isEmpty()) {
+						sectionArgIndex.put(section, argN);
+						break;
+					}
+				}
+			}
+		}
+		if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + "sections with argument=["+sectionArgIndex.size()+"] ", u.debugCfg);
+	}
+
 	// Is there a complexity score defined for this section?
 	public static String featureComplexityDefined(String section) {
-		if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "entry: section=["+section+"]", u.debugCfg);
+		if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + "entry: section=["+section+"]", u.debugCfg);
 		String complexityDef = complexityUndefined;
 		section = section.toUpperCase();
 		if (sectionComplexityList.containsKey(section)) {
@@ -651,7 +969,7 @@ public class CompassConfig {
 				complexityDef = thisComplexitytList.get(0);
 			}
 		}
-		if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "result: complexityDef=["+complexityDef+"] section=["+section+"] ", u.debugCfg);
+		if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + "result: complexityDef=["+complexityDef+"] section=["+section+"] ", u.debugCfg);
 		return complexityDef;
 	}
 
@@ -660,18 +978,23 @@ public class CompassConfig {
 		return featureComplexityDefined(section, name, false);
 	}
 	public static String featureComplexityDefined(String section, String name, boolean getDefaultValue) {
-		if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "entry: section=["+section+"] name=["+name+"] getDefaultValue=["+getDefaultValue+"] ", u.debugCfg);
+		FeatureInfo info = lookupFeatureInfo(section, name);
+		return getDefaultValue ? info.complexityDefault : info.complexity;
+	}
+
+	private static String resolveComplexityDefined(String section, String name, boolean getDefaultValue) {
+		if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + "entry: section=["+section+"] name=["+name+"] getDefaultValue=["+getDefaultValue+"] ", u.debugCfg);
 		String complexityDef = complexityUndefined;
 		section = section.toUpperCase();
 		name = name.toUpperCase();
 		if (sectionComplexityList.containsKey(section)) {
 			Map<String, List<String>> featureComplexityList = sectionComplexityList.get(section);
-			if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "section=["+section+"] name=["+name+"] featureComplexityList=["+featureComplexityList+"] ", u.debugCfg);
+			if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + "section=["+section+"] name=["+name+"] featureComplexityList=["+featureComplexityList+"] ", u.debugCfg);
 			for (String key : featureComplexityList.keySet()) {
 				List<String> nameList = featureComplexityList.get(key);
-				if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "key=["+key+"] nameList=["+nameList+"]  ", u.debugCfg);
-				if (nameList.contains(name)) {
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "name found in list=["+name+"] ", u.debugCfg);
+				if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + "key=["+key+"] nameList=["+nameList+"]  ", u.debugCfg);
+				if (listContains(nameList, name)) {
+					if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + "name found in list=["+name+"] ", u.debugCfg);
 					// get complexity score from key
 					complexityDef = key.substring(complexityTag.length() + 1);
 					break;
@@ -682,12 +1005,12 @@ public class CompassConfig {
 					// check for default complexity score
 					if (featureComplexityList.containsKey(complexityTag)) {
 						complexityDef = featureComplexityList.get(complexityTag).get(0);
-						if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "dft complexity score for section=["+section+"] complexityDef=["+complexityDef+"] ", u.debugCfg);
+						if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + "dft complexity score for section=["+section+"] complexityDef=["+complexityDef+"] ", u.debugCfg);
 					}
 				}
 			}
 		}
-		if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "result: complexityDef=["+complexityDef+"] section=["+section+"] name=["+name+"] ", u.debugCfg);
+		if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + "result: complexityDef=["+complexityDef+"] section=["+section+"] name=["+name+"] ", u.debugCfg);
 		return complexityDef;
 	}
 
@@ -712,7 +1035,7 @@ public class CompassConfig {
 
 	// Is there an effort defined for this section?
 	public static String featureEffortDefined(String section) {
-		if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "entry: section=["+section+"]", u.debugCfg);
+		if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + "entry: section=["+section+"]", u.debugCfg);
 		String effortDef = effortUndefined;
 		section = section.toUpperCase();
 		if (sectionEffortList.containsKey(section)) {
@@ -723,7 +1046,7 @@ public class CompassConfig {
 				effortDef = thisEffortList.get(0);
 			}
 		}
-		if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "result: effortDef=["+effortDef+"] section=["+section+"] ", u.debugCfg);
+		if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + "result: effortDef=["+effortDef+"] section=["+section+"] ", u.debugCfg);
 		return effortDef;
 	}
 
@@ -732,18 +1055,23 @@ public class CompassConfig {
 		return featureEffortDefined(section, name, false);
 	}
 	public static String featureEffortDefined(String section, String name, boolean getDefaultValue) {
-		if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "entry: section=["+section+"] name=["+name+"] getDefaultValue=["+getDefaultValue+"] ", u.debugCfg);
+		FeatureInfo info = lookupFeatureInfo(section, name);
+		return getDefaultValue ? info.effortDefault : info.effort;
+	}
+
+	private static String resolveEffortDefined(String section, String name, boolean getDefaultValue) {
+		if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + "entry: section=["+section+"] name=["+name+"] getDefaultValue=["+getDefaultValue+"] ", u.debugCfg);
 		String effortDef = effortUndefined;
 		section = section.toUpperCase();
 		name = name.toUpperCase();
 		if (sectionEffortList.containsKey(section)) {
 			Map<String, List<String>> featureEffortList = sectionEffortList.get(section);
-			if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "section=["+section+"] name=["+name+"] featureEffortList=["+featureEffortList+"] ", u.debugCfg);
+			if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + "section=["+section+"] name=["+name+"] featureEffortList=["+featureEffortList+"] ", u.debugCfg);
 			for (String key : featureEffortList.keySet()) {
 				List<String> nameList = featureEffortList.get(key);
-				if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "key=["+key+"] nameList=["+nameList+"]  ", u.debugCfg);
-				if (nameList.contains(name)) {
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "name found in list=["+name+"] ", u.debugCfg);
+				if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + "key=["+key+"] nameList=["+nameList+"]  ", u.debugCfg);
+				if (listContains(nameList, name)) {
+					if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + "name found in list=["+name+"] ", u.debugCfg);
 					// get effort from key
 					effortDef = key.substring(effortTag.length() + 1);
 					break;
@@ -754,17 +1082,17 @@ public class CompassConfig {
 					// check for default effort
 					if (featureEffortList.containsKey(effortTag)) {
 						effortDef = featureEffortList.get(effortTag).get(0);
-						if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "dft effort for section=["+section+"] effortDef=["+effortDef+"] ", u.debugCfg);
+						if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + "dft effort for section=["+section+"] effortDef=["+effortDef+"] ", u.debugCfg);
 					}
 				}
 			}
 		}
-		if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "result: effortDef=["+effortDef+"] section=["+section+"] name=["+name+"] ", u.debugCfg);
+		if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + "result: effortDef=["+effortDef+"] section=["+section+"] name=["+name+"] ", u.debugCfg);
 		return effortDef;
 	}
 
 	public static String formatEffort(String effortValue) {
-		if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "entry: effortValue=["+effortValue+"] ", u.debugCfg);
+		if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + "entry: effortValue=["+effortValue+"] ", u.debugCfg);
 		if (effortValue.equalsIgnoreCase(effortUndefined)) {
 			return effortUndefined;
 		}
@@ -792,7 +1120,7 @@ public class CompassConfig {
 
 		String effortFmt = effortValueNum.toString() + " " + effortUnitFmt;
 		if (effortValueNum != 1) effortFmt += "s";
-		if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "result: effortValue=["+effortValue+"] ", u.debugCfg);
+		if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + "result: effortValue=["+effortValue+"] ", u.debugCfg);
 		return effortFmt;
 	}
 
@@ -888,7 +1216,13 @@ public class CompassConfig {
 
 	// TODO use section.toUpperCase() if called from outside (not by a Config method) -- but this is not currently the case
 	public static String featureDefaultStatus(String section) {
-		if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "entry: section=["+section+"]", u.debugCfg);
+		FeatureStatus fs = lookupDefaultStatus(section);
+		fs.logStatusOverride();
+		return fs.status;
+	}
+
+	public static FeatureStatus lookupDefaultStatus(String section) {
+		if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + "entry: section=["+section+"]", u.debugCfg);
 		String status = u.NotSupported;
 		section = section.toUpperCase();
 		Map<String, List<String>> featureList = sectionList.get(section);
@@ -899,6 +1233,7 @@ public class CompassConfig {
 		}
 
 		// is there an override?
+		String statusOverridden = null;
 		if (sectionOverrideList.containsKey(section)) {
 			String statusOrig = status;
 			Map<String, List<String>> featureOverrideList = sectionOverrideList.get(section);
@@ -906,32 +1241,39 @@ public class CompassConfig {
 			List<String> thisOverrideList = featureOverrideList.get(overrideKey);
 			if (thisOverrideList != null) {
 				status = thisOverrideList.get(0);
-				u.logStatusOverride(statusOrig, status, section);
+				statusOverridden = statusOrig;
 			}
 		}
 
-		if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "result: status=["+status+"] section=["+section+"] ", u.debugCfg);
-		return status;
+		if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + "result: status=["+status+"] section=["+section+"] ", u.debugCfg);
+		return new FeatureStatus(status, section, "", statusOverridden, null, null);
 	}
 
 	// TODO use section.toUpperCase() if called from outside (not by a Config method) -- but this is not currently the case
 	public static String featureDefaultStatus(String section, String name) {
-		if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "entry: section=["+section+"] name=["+name+"] ", u.debugCfg);
+		FeatureStatus fs = lookupDefaultStatus(section, name);
+		fs.logStatusOverride();
+		return fs.status;
+	}
+
+	public static FeatureStatus lookupDefaultStatus(String section, String name) {
+		if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + "entry: section=["+section+"] name=["+name+"] ", u.debugCfg);
 		String status = u.NotSupported;
+		String statusOverridden = null;
 		section = section.toUpperCase();
 		name = name.toUpperCase();
 		Map<String, List<String>> featureList = sectionList.get(section.toUpperCase());
 
 		for (String key : u.defaultClassificationsKeys) {
-			if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + " key=[" + key + "] featureList=["+featureList+"] ", u.debugCfg);
+			if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + " key=[" + key + "] featureList=["+featureList+"] ", u.debugCfg);
 			if (featureList.containsKey(key)) {
 				List<String> thisList = featureList.get(key);
-				if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + " found key=[" + key + "] thisList=[" + thisList + "] ", u.debugCfg);
+				if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + " found key=[" + key + "] thisList=[" + thisList + "] ", u.debugCfg);
 				if (key.equals(defaultStatusTag)) {
 					status = thisList.get(0);
 					// keep searching for a more specific key
 				}
-				else if (thisList.contains(name)) {
+				else if (listContains(thisList, name)) {
 					status = key.substring(defaultStatusTag.length() + 1);
 					break;
 				}
@@ -944,31 +1286,31 @@ public class CompassConfig {
 			String overrideStatus = "";
 			Map<String, List<String>> featureOverrideList = sectionOverrideList.get(section);
 			for (String key : u.overrideClassificationsKeys) {
-				if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + " override key=[" + key + "]", u.debugCfg);
+				if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + " override key=[" + key + "]", u.debugCfg);
 				if (featureOverrideList.containsKey(key)) {
 					List<String> thisList = featureOverrideList.get(key);
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + " found override key=[" + key + "] thisList=[" + thisList + "] ", u.debugCfg);
+					if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + " found override key=[" + key + "] thisList=[" + thisList + "] ", u.debugCfg);
 					if (key.equals(defaultStatusTag)) {
 						status = thisList.get(0);
-						if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + " section override found for key=[" + key + "] status=["+status+"]  ", u.debugCfg);
+						if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + " section override found for key=[" + key + "] status=["+status+"]  ", u.debugCfg);
 						overrideStatus = status;
 						// keep searching for a more specific key
 					}
-					else if (thisList.contains(name)) {
+					else if (listContains(thisList, name)) {
 						status = key.substring(defaultStatusTag.length() + 1);
 						overrideStatus = status;
-						if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + " section+name override found for key=[" + key + "] status=["+status+"]  ", u.debugCfg);
+						if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + " section+name override found for key=[" + key + "] status=["+status+"]  ", u.debugCfg);
 						break;
 					}
 				}
 			}
 			if (!overrideStatus.isEmpty()) {
-				u.logStatusOverride(statusOrig, status, section, name);
+				statusOverridden = statusOrig;
 			}
 		}
 
-		if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "result: status=["+status+"] section=["+section+"] name=["+name+"] ", u.debugCfg);
-		return status;
+		if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + "result: status=["+status+"] section=["+section+"] name=["+name+"] ", u.debugCfg);
+		return new FeatureStatus(status, section, name, statusOverridden);
 	}
 
 	// TODO use section.toUpperCase() if called from outside
@@ -990,15 +1332,15 @@ public class CompassConfig {
 
 	// TODO use section.toUpperCase() if called from outside
 	public static boolean sectionExists(String section) {
-		if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "entry: section=[" + section + "] ", u.debugCfg);
+		if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + "entry: section=[" + section + "] ", u.debugCfg);
 		boolean result = sectionList.containsKey(section);
-		if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "result: section=[" + section + "] result=[" + result + "] ", u.debugCfg);
+		if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + "result: section=[" + section + "] result=[" + result + "] ", u.debugCfg);
 		return result;
 	}
 
 	// does a feature exist in the .cfg file?
 	public static boolean featureExists(String section) {
-		if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "entry: section=[" + section + "] ", u.debugCfg);
+		if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + "entry: section=[" + section + "] ", u.debugCfg);
 		return sectionExists(section.toUpperCase());
 	}
 
@@ -1007,25 +1349,25 @@ public class CompassConfig {
 		boolean result = false;
 		name = name.toUpperCase();
 		section = section.toUpperCase();
-		if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "entry: section=[" + section + "] name=[" + name + "]", u.debugCfg);
+		if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + "entry: section=[" + section + "] name=[" + name + "]", u.debugCfg);
 		if (sectionExists(section)) {
 			Map<String, List<String>> featureList = sectionList.get(section);
 			String key = createKey(listValuesTag);
-			if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "key=[" + key + "]", u.debugCfg);
+			if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + "key=[" + key + "]", u.debugCfg);
 			if (featureList.containsKey(key)) {
 				List<String> allItems = featureList.get(key);
-				if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "featureList containsKey [" + key + "] allItems=[" + allItems + "]", u.debugCfg);
+				if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + "featureList containsKey [" + key + "] allItems=[" + allItems + "]", u.debugCfg);
 				if (allItems != null) {
-					if (allItems.contains(name)) {
+					if (listContains(allItems, name)) {
 						result = true;
-						if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "match found for name=[" + name + "] ", u.debugCfg);
+						if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + "match found for name=[" + name + "] ", u.debugCfg);
 					}
 					else {
 						// does this section have a wildcard?
 						if (featureList.containsKey(createKey(wildcardTag))) {
-							if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "section=[" + section + "] has wildcards", u.debugCfg);
+							if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + "section=[" + section + "] has wildcards", u.debugCfg);
 							if (matchWildcard(section, name, allItems)) {
-								if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "wildcard match found for name=[" + name + "] ", u.debugCfg);
+								if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + "wildcard match found for name=[" + name + "] ", u.debugCfg);
 								result = true;
 							}
 						}
@@ -1035,82 +1377,125 @@ public class CompassConfig {
 			else {
 				// the feature exists, but has no list= key (not needed for many features)
 				result = true;
-				if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "key [" + key + "] NOT found, but feature exists", u.debugCfg);
+				if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + "key [" + key + "] NOT found, but feature exists", u.debugCfg);
 			}
 		}
-		if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "result=[" + result + "] ", u.debugCfg);
+		if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + "result=[" + result + "] ", u.debugCfg);
 		return result;
 	}
 
 	// does this feature have a particular argument whose value needs validating?
 	// at this point, featureExists() has already returned true
 	public static String featureExistsArg(String section) {
-		String argN = "";
-		if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "entry: section=[" + section + "] ", u.debugCfg);
+		if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + "entry: section=[" + section + "] ", u.debugCfg);
 		section = section.toUpperCase();
-		Map<String, List<String>> featureList = sectionList.get(section);
-		if (featureList == null) {
-			return argN;
-		}
-		for (String key : featureList.keySet()) {
-			if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "key=[" + key + "] ", u.debugCfg);
-			if (key.startsWith(supportedTag + "/")) {
-				int argIndex = key.lastIndexOf("/ARG");
-				if (argIndex != -1 && argIndex < key.length() - 4) {
-					String foundArgN = key.substring(argIndex + 1);
-					int argNum;
-					try {
-						argNum = Integer.parseInt(foundArgN.substring(3));
-					} catch (Exception e) {
-						continue;
-					}
-					if (argNum <= 0) {
-						continue;
-					}
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() +"foundArgN=[" + foundArgN + "] ", u.debugCfg);
-					argN = foundArgN;
-					break;
-				}
+		if (sectionArgIndex == null) buildSectionArgIndex();
+		String argN = sectionArgIndex.getOrDefault(section, "");
+		if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() +"foundArgN=[" + argN + "] ", u.debugCfg);
+		return argN;
+	}
+
+	// 'ARG<n>' from a 'supported-<version>/ARG<n>' key, or blank
+	private static String getArgN(String key) {
+		int argIndex = key.lastIndexOf("/ARG");
+		if (argIndex != -1 && argIndex < key.length() - 4) {
+			String foundArgN = key.substring(argIndex + 1);
+			int argNum;
+			try {
+				argNum = Integer.parseInt(foundArgN.substring(3));
+			} catch (Exception e) {
+				return "";
 			}
+			if (argNum > 0) return foundArgN;
 		}
-		return argN;
+		return "";
 	}
 
 	// what is the reporting group for this feature?
 	public static String featureGroup(String section, String name) {
+		FeatureGroup fg = lookupFeatureGroup(section, name);
+		fg.logGroupOverride();
+		return fg.group;
+	}
+
+	public static String featureGroup(String section) {
+		FeatureGroup fg = lookupFeatureGroup(section, null);
+		fg.logGroupOverride();
+		return fg.group;
+	}
+
+	// name == null: the group of the section
+	private static FeatureGroup lookupFeatureGroup(String section, String name) {
+		if (name != null) {
+			return lookupFeatureInfo(section, name).group;
+		}
+		FeatureGroup fg = null;
+		boolean indexed = featureStatusIndexEnabled && !u.debugging;
+		if (indexed) {
+			fg = sectionGroupIndex.get(section);
+		}
+		if (fg == null) {
+			fg = resolveFeatureGroup(section);
+			if (indexed) {
+				if (sectionGroupIndex.size() >= featureStatusIndexMax) sectionGroupIndex.clear();
+				sectionGroupIndex.put(section, fg);
+			}
+		}
+		return fg;
+	}
+
+	static FeatureInfo lookupFeatureInfo(String section, String name) {
+		Map<String, FeatureInfo> index = null;
+		FeatureInfo info = null;
+		if (featureStatusIndexEnabled && !u.debugging) {
+			index = featureInfoIndex.computeIfAbsent(section, k -> new ConcurrentHashMap<>());
+			info = index.get(name);
+		}
+		if (info == null) {
+			info = new FeatureInfo(section, name);
+			if (index != null) {
+				if (index.size() >= featureStatusIndexMax) index.clear();
+				index.put(name, info);
+			}
+		}
+		return info;
+	}
+
+	private static FeatureGroup resolveFeatureGroup(String section, String name) {
 		String group = "";
+		String groupOverridden = null;
 		section = section.toUpperCase();
 		name = name.toUpperCase();
-		if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + " entry: section=[" + section + "] name=[" + name + "] ", u.debugCfg);
+		if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + " entry: section=[" + section + "] name=[" + name + "] ", u.debugCfg);
 
 		if (featureExists(section, name)) {
-			if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + " featureExists: section=[" + section + "] name=[" + name + "] ", u.debugCfg);
+			if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + " featureExists: section=[" + section + "] name=[" + name + "] ", u.debugCfg);
 			Map<String, List<String>> featureList = sectionList.get(section);
 			for (String key : featureList.keySet()) {
 				if (!key.startsWith(reportGroupTag)) continue;
 
 				String foundGroup = key.substring(reportGroupTag.length());
-				if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + " key=[" + key + "] foundGroup=[" + foundGroup + "] ", u.debugCfg);
+				if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + " key=[" + key + "] foundGroup=[" + foundGroup + "] ", u.debugCfg);
 				if (foundGroup.isEmpty()) {
 					// e.g. 'report_group=Built-in functions', applies to all items
 					List<String> thisList = featureList.get(key);
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + " generic: foundGroup=[" + foundGroup + "] thisList=[" + thisList + "] ", u.debugCfg);
+					if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + " generic: foundGroup=[" + foundGroup + "] thisList=[" + thisList + "] ", u.debugCfg);
 					group = thisList.get(0);
 					//keep searching if there is a more specific group
 				}
 				else if (foundGroup.charAt(0) != subKeySeparator.charAt(0)) {
 					// should not happen
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + " Unexpected branch, foundGroup=[" + foundGroup + "] ", u.debugCfg);
+					if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + " Unexpected branch, foundGroup=[" + foundGroup + "] ", u.debugCfg);
 				}
 				else {
 					// 'report_group-Fulltext Search=CONTAINSTABLE,FREETEXTTABLE,SEMANTICKEYPHRASETABLE[,...]'
 					// applies only to the actual names listed
 					List<String> thisList = featureList.get(key);
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + " foundGroup=[" + foundGroup + "]  thisList=[" + thisList + "] ", u.debugCfg);
-					if (thisList.contains(name)) {
+					if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + " foundGroup=[" + foundGroup + "]  thisList=[" + thisList + "] ", u.debugCfg);
+					if (listContains(thisList, name)) {
 						// this feature should be reporteunder 'foundGroup'
 						foundGroup = u.getPatternGroup(foundGroup, "^\\" + subKeySeparator + "(.*?)(\\=|$)", 1); // TODO substring until equal or end (indexOf = -1)
-						if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + " foundGroup=[" + foundGroup + "] ", u.debugCfg);
+						if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + " foundGroup=[" + foundGroup + "] ", u.debugCfg);
 						group = foundGroup;
 						break;
 					}
@@ -1124,46 +1509,47 @@ public class CompassConfig {
 			String overrideGroup = "";
 			Map<String, List<String>> featureOverrideList = sectionOverrideList.get(section);
 			for (String key : featureOverrideList.keySet()) {
-				if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + " override key=[" + key + "]", u.debugCfg);
+				if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + " override key=[" + key + "]", u.debugCfg);
 				if (!key.startsWith(reportGroupTag)) continue;
 
 				List<String> thisList = featureOverrideList.get(key);
-				if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + " found override key=[" + key + "] thisList=[" + thisList + "] ", u.debugCfg);
+				if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + " found override key=[" + key + "] thisList=[" + thisList + "] ", u.debugCfg);
 				if (key.equals(reportGroupTag)) {
 					group = thisList.get(0);
 					overrideGroup = group;
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + " section override found for key=[" + key + "] group=["+group+"]  ", u.debugCfg);
+					if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + " section override found for key=[" + key + "] group=["+group+"]  ", u.debugCfg);
 					// keep searching for a more specific key
 				}
-				else if (thisList.contains(name)) {
+				else if (listContains(thisList, name)) {
 					group = key.substring(reportGroupTag.length() + 1);
 					overrideGroup = group;
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + " section+name override found for key=[" + key + "] sgroup=["+group+"]  ", u.debugCfg);
+					if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + " section+name override found for key=[" + key + "] sgroup=["+group+"]  ", u.debugCfg);
 					break;
 				}
 			}
 			if (!overrideGroup.isEmpty()) {
-				u.logGroupOverride(groupOrig, group, section, name);
+				groupOverridden = groupOrig;
 			}
 		}
 
-		if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + " return: group=[" + group + "]  ", u.debugCfg);
-		return group;
+		if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + " return: group=[" + group + "]  ", u.debugCfg);
+		return new FeatureGroup(group, groupOverridden, section, name);
 	}
 
-	// what is the reporting group for this feature?
-	public static String featureGroup(String section) {
+	// what is the reporting group for this section?
+	private static FeatureGroup resolveFeatureGroup(String section) {
 		String group = "";
+		String groupOverridden = null;
 		section = section.toUpperCase();
-		if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + " entry: section=[" + section + "] ", u.debugCfg);
+		if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + " entry: section=[" + section + "] ", u.debugCfg);
 
 		if (featureExists(section)) {
-			if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + " featureExists: section=[" + section + "] ", u.debugCfg);
+			if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + " featureExists: section=[" + section + "] ", u.debugCfg);
 			Map<String, List<String>> featureList = sectionList.get(section);
 			String key = reportGroupTag;
 			if (featureList.containsKey(key)) {
 				List<String> thisList = featureList.get(key);
-				if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + " foundGroup=[" + key + "] thisList=[" + thisList + "] ", u.debugCfg);
+				if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + " foundGroup=[" + key + "] thisList=[" + thisList + "] ", u.debugCfg);
 				// e.g. 'report_group=Built-in functions'
 				group = thisList.get(0);
 			}
@@ -1177,12 +1563,12 @@ public class CompassConfig {
 			List<String> thisOverrideList = featureOverrideList.get(overrideKey);
 			if (thisOverrideList != null) {
 				group = thisOverrideList.get(0);
-				u.logGroupOverride(groupOrig, group, section);
+				groupOverridden = groupOrig;
 			}
 		}
 
-		if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + " return: group=[" + group + "] ", u.debugCfg);
-		return group;
+		if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + " return: group=[" + group + "] ", u.debugCfg);
+		return new FeatureGroup(group, groupOverridden, section, "");
 	}
 
 	// debug: dump all config keys
@@ -1207,7 +1593,7 @@ public class CompassConfig {
 			u.errorExitStackTrace();
 		}
 
-		if (u.debugging) {
+		if (u.debugCfg) {
 			u.dbgOutput(" ", u.debugCfg);
 			u.dbgOutput(CompassUtilities.thisProc() + "=== dumping "+ typeStr +" config ================= ", u.debugCfg);
 			if (type.equals(effortTag)) {
@@ -1246,27 +1632,17 @@ public class CompassConfig {
 	}
 
 	private static boolean matchWildcard(String sectionName, String s, List<String> allItems) {
-		for (String w : allItems) {		// TODO This can probably be improved (if needed)
-			if (w.contains(wildcardChar)) {
-				String wCopy = w;
-				w = w.replaceAll(wildcardChar, ".*");	// TODO Can this be done only once (when the list is created)?
-				if (u.PatternMatches(s, w)) {
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "matched [" + s + "] with [" + wCopy + "] in sectionName=[" + sectionName + "] ", u.debugCfg);
-					return true;
-				}
-				else {
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "wildcard NOmatch!", u.debugCfg);
-				}
-			}
-		}
-		return false;
+		boolean result = nameMatcher(allItems).matchesWildcard(s);
+		if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + (result ? "matched [" + s + "] with wildcard in sectionName=[" + sectionName + "] " : "wildcard NOmatch!"), u.debugCfg);
+		return result;
 	}
 
 	// read the .cfg file
-	private static boolean readCfgFile(String pCfgFileName) throws Exception {
+	static boolean readCfgFile(String pCfgFileName) throws Exception {
 		boolean cfgFileValid = true;
 		configFileName = pCfgFileName;
 		configFilePathName = Paths.get(pCfgFileName).toAbsolutePath().toString();
+		clearFeatureStatusIndex();
 
         cfgFile = new File(configFileName);
         if (!cfgFile.exists()) {
@@ -1288,7 +1664,7 @@ public class CompassConfig {
         for (String sectionName: cfg.keySet()) {
 			sectionCount++;
 			Map<String, String> section = cfg.get(sectionName);
-			if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "sectionName=[" + sectionName + "]", u.debugCfg);
+			if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + "sectionName=[" + sectionName + "]", u.debugCfg);
 			if (sectionCount == 1 && !sectionName.equals(Babelfish_Compass_Name)) {
 				cfgFileValid = false;
 				cfgOutput("first section must be [" + Babelfish_Compass_Name + "]");
@@ -1313,18 +1689,19 @@ public class CompassConfig {
 				String optionKeyCopy = optionKey;
 				optionKey = optionKey.toUpperCase();
 				String thisKey = createKey(optionKey);
-				if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() +"section=[" + sectionName + "] optionKey=[" + optionKey + "] thisKey=[" + thisKey + "]  val=[" + optionVal + "]", u.debugCfg);
+				if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() +"section=[" + sectionName + "] optionKey=[" + optionKey + "] thisKey=[" + thisKey + "]  val=[" + optionVal + "]", u.debugCfg);
 
 				if (sectionCount == 1) {
 					// first section defines valid Babelfish versions:
 					if (optionKey.equals(validVersionsTag)) {
 						Babelfish_VersionList = new ArrayList<>(Arrays.asList(optionVal.split(",")));
-						if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "Valid versions (" + Babelfish_VersionList.size() + ") :" + Babelfish_VersionList, u.debugCfg);
+						if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + "Valid versions (" + Babelfish_VersionList.size() + ") :" + Babelfish_VersionList, u.debugCfg);
 
 						// strip off any spaces
 						for (int i = 0; i<Babelfish_VersionList.size(); i++) {
 							Babelfish_VersionList.set(i, Babelfish_VersionList.get(i).trim());
 						}
+						BabelfishVersion.reset();
 
 						for (String v : Babelfish_VersionList) {
 							if (!u.PatternMatches(v, "\\d+(\\.\\d+)*")) {
@@ -1332,7 +1709,7 @@ public class CompassConfig {
 								cfgFileValid = false;
 							}
 							else {
-								if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "   version=[" + v + "] => [" + normalizedBabelfishVersion(v) + "]", u.debugCfg);
+								if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + "   version=[" + v + "] => [" + normalizedBabelfishVersion(v) + "]", u.debugCfg);
 							}
 						}
 						continue;
@@ -1367,7 +1744,7 @@ public class CompassConfig {
 
 				// key: list all values for a section:
 				if (optionKey.equals(listValuesTag)) {
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "list of section=[" + sectionName + "] = [" + optionVal + "]", u.debugCfg);
+					if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + "list of section=[" + sectionName + "] = [" + optionVal + "]", u.debugCfg);
 				}
 				// key: 'supported' values
 				else if (optionKey.startsWith(supportedTag)) {
@@ -1381,7 +1758,7 @@ public class CompassConfig {
 							vMax = "";
 						}
 					}
-					if (u.debugging) u.dbgOutput(supportedTag + "-version key: optionKey=[" + optionKey + "] vRaw=[" + vRaw + "] version=[" + v + "] vMax=[" + vMax + "] ", u.debugCfg);
+					if (u.debugCfg) u.dbgOutput(supportedTag + "-version key: optionKey=[" + optionKey + "] vRaw=[" + vRaw + "] version=[" + v + "] vMax=[" + vMax + "] ", u.debugCfg);
 
 					if (v.isEmpty()) {
 						cfgFileValid = false;
@@ -1416,7 +1793,7 @@ public class CompassConfig {
 					int equalIndex = optionVal.indexOf("=", 4);
 					if (equalIndex != -1 && optionVal.substring(0, 3).equalsIgnoreCase("arg")) {
 						String argN = optionVal.substring(0, equalIndex).toUpperCase();
-						if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "argN=[" + argN + "] ", u.debugCfg);
+						if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + "argN=[" + argN + "] ", u.debugCfg);
 						try {
 							int argNum = Integer.parseInt(argN.substring(3));
 							if (argNum <= 0) {
@@ -1431,7 +1808,7 @@ public class CompassConfig {
 						optionVal = optionVal.substring(equalIndex + 1);
 
 						featureArgOptions.put(sectionName.toUpperCase(), argN);
-						if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "adding featureArgOptions for argKey=[" + sectionName + "] argN=[" + argN + "]", u.debugCfg);
+						if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + "adding featureArgOptions for argKey=[" + sectionName + "] argN=[" + argN + "]", u.debugCfg);
 					}
 				}
 				// key: 'ignored' values
@@ -1446,7 +1823,7 @@ public class CompassConfig {
 							vMax = "";
 						}
 					}
-					if (u.debugging) u.dbgOutput(ignoredTag + "-version key: optionKey=[" + optionKey + "] vRaw=[" + vRaw + "] version=[" + v + "] vMax=[" + vMax + "] ", u.debugCfg);
+					if (u.debugCfg) u.dbgOutput(ignoredTag + "-version key: optionKey=[" + optionKey + "] vRaw=[" + vRaw + "] version=[" + v + "] vMax=[" + vMax + "] ", u.debugCfg);
 
 					if (v.isEmpty()) {
 						cfgFileValid = false;
@@ -1490,7 +1867,7 @@ public class CompassConfig {
 							vMax = "";
 						}
 					}
-					if (u.debugging) u.dbgOutput(reviewSemanticsTag + "-version key: optionKey=[" + optionKey + "] vRaw=[" + vRaw + "] version=[" + v + "] vMax=[" + vMax + "] ", u.debugCfg);
+					if (u.debugCfg) u.dbgOutput(reviewSemanticsTag + "-version key: optionKey=[" + optionKey + "] vRaw=[" + vRaw + "] version=[" + v + "] vMax=[" + vMax + "] ", u.debugCfg);
 
 					if (v.isEmpty()) {
 						cfgFileValid = false;
@@ -1648,7 +2025,7 @@ public class CompassConfig {
 					List<String> aliasTmp = new ArrayList<>(Arrays.asList(optionVal.split(",")));
 					String aliasVersionLow = aliasTmp.get(1);
 					String aliasVersionHigh = aliasTmp.get(0);
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "aliasTmp=["+aliasTmp+"] aliasVersionLow=["+aliasVersionLow+"]  aliasVersionHigh=["+aliasVersionHigh+"] ]", u.debugCfg);
+					if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + "aliasTmp=["+aliasTmp+"] aliasVersionLow=["+aliasVersionLow+"]  aliasVersionHigh=["+aliasVersionHigh+"] ]", u.debugCfg);
 					if (!isValidBabelfishVersion(aliasVersionLow)) {
 						cfgFileValid = false;
 						cfgOutput("Invalid version '" + aliasVersionLow + "' in [" + sectionName + "/" + optionKey + "]");
@@ -1665,6 +2042,7 @@ public class CompassConfig {
 						continue;
 					}
 					versionAliasList.put(aliasVersionHigh,aliasVersionLow);
+					BabelfishVersion.reset();
 				}
 				// key: 'rule'
 				else if (optionKey.equals(ruleTag)) {
@@ -1710,11 +2088,11 @@ public class CompassConfig {
 
 				if (optionKey.startsWith(complexityTag)) {
 					featureList = sectionComplexityList.get(sectionName.toUpperCase());
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "added complexity key: [" + thisKey + "] optionKey=[" + optionKey + "] of section=[" + sectionName + "] = [" + optionVal + "] theseItems=["+theseItems+"] ", u.debugCfg);
+					if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + "added complexity key: [" + thisKey + "] optionKey=[" + optionKey + "] of section=[" + sectionName + "] = [" + optionVal + "] theseItems=["+theseItems+"] ", u.debugCfg);
 				}
 				else {
 					featureList = sectionList.get(sectionName.toUpperCase());
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "added key: [" + thisKey + "] optionKey=[" + optionKey + "] of section=[" + sectionName + "] = [" + optionVal + "] theseItems=["+theseItems+"] ", u.debugCfg);
+					if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + "added key: [" + thisKey + "] optionKey=[" + optionKey + "] of section=[" + sectionName + "] = [" + optionVal + "] theseItems=["+theseItems+"] ", u.debugCfg);
 				}
 
 				featureList.put(thisKey, theseItems);
@@ -1731,37 +2109,38 @@ public class CompassConfig {
 				}
 			}
 		}
+		if (cfgFileValid) {
+			resolveVersionRanges();
+		}
 		return cfgFileValid;
 	}
 
 	// check items in a non-list key are in the listValues key (if a list exists)
 	private static boolean validateItemsListed (String cfgFileName, String optionKey, String optionVal, String thisKey, String sectionName, Map<String, List<String>> featureList, List<String> theseItems) {
 		boolean isValid = true;
-		if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "check items are in list=: key [" + optionKey + "] of section=[" + sectionName + "] = [" + optionVal + "]", u.debugCfg);
-		if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "thisKey=[" + thisKey + "] -> [" + sectionName + "] : " + theseItems.size() + " items: " + theseItems, u.debugCfg);
+		if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + "check items are in list=: key [" + optionKey + "] of section=[" + sectionName + "] = [" + optionVal + "]", u.debugCfg);
+		if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + "thisKey=[" + thisKey + "] -> [" + sectionName + "] : " + theseItems.size() + " items: " + theseItems, u.debugCfg);
 		List<String> allItems = featureList.get(createKey(listValuesTag));
-		if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "allItems=["+allItems+"] " + theseItems, u.debugCfg);
+		if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + "allItems=["+allItems+"] " + theseItems, u.debugCfg);
 		if (allItems != null) {
-			boolean hasWildcard = false;
-			for (String allItem : allItems) {
-				if (allItem.contains(wildcardChar)) {
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "wildcard found for sectionName=[" + sectionName + "] in [" + allItem + "]", u.debugCfg);
-					hasWildcard = true;
-					String wildcardKey = createKey(wildcardTag);
-					featureList.put(wildcardKey, null);  // only need key to exist
-					break;
-				}
+			CfgNameMatcher allItemsMatcher = nameMatcher(allItems);
+			boolean hasWildcard = allItemsMatcher.hasWildcard();
+			if (hasWildcard) {
+				if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + "wildcard found for sectionName=[" + sectionName + "]", u.debugCfg);
+				String wildcardKey = createKey(wildcardTag);
+				featureList.put(wildcardKey, null);  // only need key to exist
 			}
 			for (String item : theseItems) {
 				if (!item.equals("*")) {
 					// does the value match a value in the list?
-					if (!allItems.contains(item)) {
+					if (!allItemsMatcher.contains(item)) {
 						// does the value match a wildcard?
 						if (hasWildcard && matchWildcard(sectionName, item, allItems)) {
 							continue;
 						}
 						// if we get here, the item was not listed
 						allItems.add(item);
+						allItemsMatcher.add(item);
 						isValid = false;
 						cfgOutput(cfgFileName, "[" + thisKey + "] has item " + item + ", but this is not listed in '" + listValuesTag + "='");
 					}
@@ -1774,8 +2153,19 @@ public class CompassConfig {
 
 	// entry point for initializing the .cfg part
 	public void validateCfgFile(String pCfgFileName, String pUserCfgFileName) throws Exception {
+		unfreeze();
 		supportOptionsCfgFileUpperCase = new ArrayList<>(u.supportOptionsCfgFile);
 		u.listToUpperCase(supportOptionsCfgFileUpperCase);
+
+		// use the result of an earlier run if neither .cfg file has changed since
+		boolean useCache = CompassConfigCache.useCache();
+		if (useCache) {
+			u.installOptimisticCfgFile();
+			if (loadCompiledCfg(pCfgFileName, pUserCfgFileName)) {
+				return;
+			}
+		}
+
 		boolean cfgFileValid = readCfgFile(pCfgFileName);
 
 		if (u.debugCfg) {
@@ -1809,6 +2199,44 @@ public class CompassConfig {
 			cfgOutput(userConfigFilePathName, "User configuration file not valid. Remove/correct offending sections or use the -nooverride flag to avoid using the file.");
 			u.errorExit();
 		}
+
+		buildSectionArgIndex();
+
+		if (useCache) {
+			// the user .cfg file may have been created or patched up above, so the key is determined only now
+			CompassConfigCache.save(CompassConfigCache.makeKey(configFilePathName, userConfigFilePathName));
+		}
+		freeze();
+	}
+
+	// restore the validated .cfg contents from the cache, with the same messages as when reading the files
+	private static boolean loadCompiledCfg(String pCfgFileName, String pUserCfgFileName) throws IOException {
+		String cfgPathName = Paths.get(pCfgFileName).toAbsolutePath().toString();
+		String userCfgPathName = u.getUserCfgFilePathName(pUserCfgFileName);
+		if (!new File(cfgPathName).exists()) return false;
+		if (!CompassConfigCache.load(CompassConfigCache.makeKey(cfgPathName, userCfgPathName))) return false;
+
+		configFileName = pCfgFileName;
+		configFilePathName = cfgPathName;
+		cfgFile = new File(configFileName);
+		userConfigFileName = pUserCfgFileName;
+		userConfigFilePathName = userCfgPathName;
+		userCfgFile = new File(userConfigFilePathName);
+		clearFeatureStatusIndex();
+		resolveVersionRanges();
+		buildSectionArgIndex();
+		freeze();
+
+		u.appOutput("Reading "+configFileName);
+		cfgOutput("Latest "+u.babelfishProg+" version supported: "+latestBabelfishVersion());
+		if (u.userConfig) {
+			if (userCfgFile.exists()) u.appOutput("Reading "+userConfigFilePathName);
+		}
+		else {
+			u.appOutput("Skipping "+userConfigFilePathName);
+		}
+		if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + "loaded from "+CompassConfigCache.getCachePathName(), u.debugCfg);
+		return true;
 	}
 
 	// validate/update the user's .cfg file; create if not existing
@@ -1817,6 +2245,7 @@ public class CompassConfig {
 		userConfigFileName = pUserCfgFileName;
 		userConfigFilePathName = u.getUserCfgFilePathName(userConfigFileName);
         userCfgFile = new File(userConfigFilePathName);
+		clearFeatureStatusIndex();
 		if (u.userConfig) {
 	       // nothing
 	    }
@@ -1833,12 +2262,14 @@ public class CompassConfig {
         	else {
 	        	u.appOutput("Creating user configuration file "+userConfigFilePathName);
 
-				u.openUserCfgFileNew(userConfigFileName);
+				u.checkDir(u.getDocDirPathname(), false, true);
+				StringBuilder contents = new StringBuilder(u.userCfgFileStart(true));
 				for (String s : cfgSections) {
 					if (s.equals(Babelfish_Compass_Name)) continue;
-					u.writeUserCfgFile("["+s+"]\n\n");
+					contents.append("["+s+"]\n\n\n");
 				}
-				u.closeUserCfgFile();
+				contents.append(u.userCfgFileEnd());
+				CfgFileRepository.write(userConfigFilePathName, contents.toString());
 			}
         }
         else {
@@ -1862,7 +2293,7 @@ public class CompassConfig {
 					String optionKeyCopy = optionKey;
 					optionKey = optionKey.toUpperCase();
 					String thisKey = createKey(optionKey);
-					if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() +"section=[" + sectionName + "] optionKey=[" + optionKey + "] thisKey=[" + thisKey + "]  val=[" + optionVal + "]", u.debugCfg);
+					if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() +"section=[" + sectionName + "] optionKey=[" + optionKey + "] thisKey=[" + thisKey + "]  val=[" + optionVal + "]", u.debugCfg);
 					// key: 'default_classification' items
 					if (optionKey.startsWith(defaultStatusTag)) {
 						overrideCount++;
@@ -2215,15 +2646,15 @@ public class CompassConfig {
 
 					if (optionKey.startsWith(effortTag)) {
 						featureList = sectionEffortList.get(sectionName.toUpperCase());
-						if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "added effort key: [" + thisKey + "] optionKey=[" + optionKey + "] of section=[" + sectionName + "] = [" + optionVal + "] theseItems=["+theseItems+"] ", u.debugCfg);
+						if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + "added effort key: [" + thisKey + "] optionKey=[" + optionKey + "] of section=[" + sectionName + "] = [" + optionVal + "] theseItems=["+theseItems+"] ", u.debugCfg);
 					}
 					else if (optionKey.startsWith(complexityTag)) {
 						featureList = sectionComplexityList.get(sectionName.toUpperCase());
-						if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "added complexity key: [" + thisKey + "] optionKey=[" + optionKey + "] of section=[" + sectionName + "] = [" + optionVal + "] theseItems=["+theseItems+"] ", u.debugCfg);
+						if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + "added complexity key: [" + thisKey + "] optionKey=[" + optionKey + "] of section=[" + sectionName + "] = [" + optionVal + "] theseItems=["+theseItems+"] ", u.debugCfg);
 					}
 					else {
 						featureList = sectionOverrideList.get(sectionName.toUpperCase());
-						if (u.debugging) u.dbgOutput(CompassUtilities.thisProc() + "added override key: [" + thisKey + "] optionKey=[" + optionKey + "] of section=[" + sectionName + "] = [" + optionVal + "] theseItems=["+theseItems+"] ", u.debugCfg);
+						if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc() + "added override key: [" + thisKey + "] optionKey=[" + optionKey + "] of section=[" + sectionName + "] = [" + optionVal + "] theseItems=["+theseItems+"] ", u.debugCfg);
 					}
 
 					// do the actual add:
@@ -2243,7 +2674,8 @@ public class CompassConfig {
 			}
 
 			// determine if header needs to be upgraded; new header lines were added in v.2022-09
-			u.upgradeUserCfgFile(userConfigFileName);
+			// this and the patching up below are done in memory, so the file is written only once, and only if needed
+			String upgraded = u.upgradeUserCfgFile(userConfigFileName);
 
 			// patch up .cfg file
 			// first determine if there are any keys missing compared to the main .cfg file
@@ -2258,9 +2690,12 @@ public class CompassConfig {
 
 			// add missing sections
 			if (addLines.length() > 0) {
-				u.openUserCfgFileAppend(userConfigFileName);
-				u.writeUserCfgFile(addLines.toString());
-				u.closeUserCfgFile();
+				String appended = u.userCfgFileStart(false) + addLines + "\n" + u.userCfgFileEnd();
+				if (upgraded == null) CfgFileRepository.append(userConfigFilePathName, appended);
+				else upgraded += appended;
+			}
+			if (upgraded != null) {
+				CfgFileRepository.write(userConfigFilePathName, upgraded);
 			}
 		}
 		//u.errorExit();
@@ -2289,7 +2724,7 @@ public class CompassConfig {
 		String line, separator = System.lineSeparator(), fileChecksum = null, sectionName = null;
 		StringBuilder content = new StringBuilder();
 		Checksum checksum = new CRC32();
-		BufferedReader br = new BufferedReader(new InputStreamReader(new FileInputStream(configFileName)));
+		BufferedReader br = CfgFileRepository.getReader(configFileName, Charset.defaultCharset());
 		Map<String, Map<String, String>> sections = new LinkedHashMap<>();
 		Map<String, String> section = null;
 		int CHECKSUM_LENGTH = 8;
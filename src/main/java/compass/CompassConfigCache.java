@@ -0,0 +1,333 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+package compass;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// the result of reading and validating the .cfg files, saved in the reports root folder so that the next run
+// can skip parsing and validating them as long as neither file has changed
+// the key covers the Compass version and the size, timestamp and checksum of both files, so any change is picked up
+// the file holds only strings, lists and maps of these, and counts; it is read without creating any other objects
+public class CompassConfigCache {
+	static final String cacheFileName = "BabelfishCompassConfig.cache";
+	private static final String fileMagic = "BBFCONFIGCACHE";
+	private static final int fileFormatVersion = 1;
+	public static boolean enabled = true;
+
+	private static CompassUtilities u = CompassUtilities.getInstance();
+
+	private String key;
+
+	// CompassConfig
+	private Map<String, Map<String, String>> cfg;
+	private Map<String, Map<String, String>> userCfg;
+	private List<String> Babelfish_VersionList;
+	private Map<String, Map<String, List<String>>> sectionList;
+	private Map<String, Map<String, List<String>>> sectionOverrideList;
+	private Map<String, Map<String, List<String>>> sectionEffortList;
+	private Map<String, Map<String, List<String>>> sectionComplexityList;
+	private Map<String, String> versionAliasList;
+	private Map<String, String> featureArgOptions;
+	private Map<String, String> complexityDefault;
+	private Map<String, String> effortEstimateDefault;
+	private List<String> cfgSections;
+	private int overrideCount;
+	private boolean effortEstimatesFound;
+
+	// CompassUtilities
+	private Integer cfgFileFormatVersionRead;
+	private String cfgFileTimestamp;
+
+	private CompassConfigCache() {}
+
+	// not used when the .cfg contents need to be looked at or are being changed
+	public static boolean useCache() {
+		return enabled && !u.configOnly && !u.debugCfg;
+	}
+
+	public static String getCachePathName() throws IOException {
+		return u.getUserCfgFilePathName(cacheFileName);
+	}
+
+	// identifies the .cfg files as they are now
+	public static String makeKey(String cfgPathName, String userCfgPathName) throws IOException {
+		return CompassUtilities.thisProgVersion + "|" + CompassUtilities.thisProgVersionDate + "|" + u.userConfig + "|" + CfgFileRepository.fileKey(cfgPathName) + "|" + CfgFileRepository.fileKey(userCfgPathName);
+	}
+
+	// restore the compiled config if the cache matches the key; returns false if there is no usable cache
+	public static boolean load(String key) {
+		File f;
+		try {
+			f = new File(getCachePathName());
+		} catch (IOException e) {
+			return false;
+		}
+		if (!f.exists()) return false;
+
+		CompassConfigCache c;
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(f)))) {
+			c = read(in);
+		} catch (IOException | RuntimeException e) {
+			// stale or damaged: just read the .cfg files again, and the cache will be rewritten
+			if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc()+"cannot read "+f+": "+e.getMessage(), u.debugCfg);
+			return false;
+		}
+		if (!key.equals(c.key)) {
+			if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc()+"cache key does not match: cache=["+c.key+"] current=["+key+"]", u.debugCfg);
+			return false;
+		}
+
+		CompassConfig.cfg = c.cfg;
+		CompassConfig.userCfg = c.userCfg;
+		CompassConfig.Babelfish_VersionList = c.Babelfish_VersionList;
+		CompassConfig.sectionList = c.sectionList;
+		CompassConfig.sectionOverrideList = c.sectionOverrideList;
+		CompassConfig.sectionEffortList = c.sectionEffortList;
+		CompassConfig.sectionComplexityList = c.sectionComplexityList;
+		CompassConfig.versionAliasList = c.versionAliasList;
+		CompassConfig.featureArgOptions = c.featureArgOptions;
+		CompassConfig.complexityDefault = c.complexityDefault;
+		CompassConfig.effortEstimateDefault = c.effortEstimateDefault;
+		CompassConfig.cfgSections = c.cfgSections;
+		CompassConfig.overrideCount = c.overrideCount;
+		CompassConfig.effortEstimatesFound = c.effortEstimatesFound;
+		CompassUtilities.cfgFileFormatVersionRead = c.cfgFileFormatVersionRead;
+		u.cfgFileTimestamp = c.cfgFileTimestamp;
+		return true;
+	}
+
+	// save the compiled config; failing to do so is not an error, the next run will just read the .cfg files again
+	public static void save(String key) {
+		CompassConfigCache c = new CompassConfigCache();
+		c.key = key;
+		c.cfg = CompassConfig.cfg;
+		c.userCfg = CompassConfig.userCfg;
+		c.Babelfish_VersionList = CompassConfig.Babelfish_VersionList;
+		c.sectionList = CompassConfig.sectionList;
+		c.sectionOverrideList = CompassConfig.sectionOverrideList;
+		c.sectionEffortList = CompassConfig.sectionEffortList;
+		c.sectionComplexityList = CompassConfig.sectionComplexityList;
+		c.versionAliasList = CompassConfig.versionAliasList;
+		c.featureArgOptions = CompassConfig.featureArgOptions;
+		c.complexityDefault = CompassConfig.complexityDefault;
+		c.effortEstimateDefault = CompassConfig.effortEstimateDefault;
+		c.cfgSections = CompassConfig.cfgSections;
+		c.overrideCount = CompassConfig.overrideCount;
+		c.effortEstimatesFound = CompassConfig.effortEstimatesFound;
+		c.cfgFileFormatVersionRead = CompassUtilities.cfgFileFormatVersionRead;
+		c.cfgFileTimestamp = u.cfgFileTimestamp;
+
+		// write to a temporary file first, as other Compass runs may be reading the cache at the same time
+		File tmp = null;
+		try {
+			File f = new File(getCachePathName());
+			tmp = File.createTempFile(cacheFileName, ".tmp", f.getParentFile());
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+				c.write(out);
+			}
+			try {
+				Files.move(tmp.toPath(), f.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (IOException e) {
+				Files.move(tmp.toPath(), f.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		} catch (IOException e) {
+			if (u.debugCfg) u.dbgOutput(CompassUtilities.thisProc()+"cannot write cache: "+e.getMessage(), u.debugCfg);
+			if (tmp != null) tmp.delete();
+		}
+	}
+
+	private void write(DataOutputStream out) throws IOException {
+		out.writeUTF(fileMagic);
+		out.writeInt(fileFormatVersion);
+		writeString(out, key);
+		writeCfg(out, cfg);
+		writeCfg(out, userCfg);
+		writeList(out, Babelfish_VersionList);
+		writeSections(out, sectionList);
+		writeSections(out, sectionOverrideList);
+		writeSections(out, sectionEffortList);
+		writeSections(out, sectionComplexityList);
+		writeMap(out, versionAliasList);
+		writeMap(out, featureArgOptions);
+		writeMap(out, complexityDefault);
+		writeMap(out, effortEstimateDefault);
+		writeList(out, cfgSections);
+		out.writeInt(overrideCount);
+		out.writeBoolean(effortEstimatesFound);
+		out.writeBoolean(cfgFileFormatVersionRead != null);
+		if (cfgFileFormatVersionRead != null) out.writeInt(cfgFileFormatVersionRead);
+		writeString(out, cfgFileTimestamp);
+	}
+
+	private static CompassConfigCache read(DataInputStream in) throws IOException {
+		if (!in.readUTF().equals(fileMagic) || in.readInt() != fileFormatVersion) {
+			throw new IOException("Invalid format");
+		}
+		CompassConfigCache c = new CompassConfigCache();
+		c.key = readString(in);
+		c.cfg = readCfg(in);
+		c.userCfg = readCfg(in);
+		c.Babelfish_VersionList = readList(in);
+		c.sectionList = readSections(in);
+		c.sectionOverrideList = readSections(in);
+		c.sectionEffortList = readSections(in);
+		c.sectionComplexityList = readSections(in);
+		c.versionAliasList = readMap(in);
+		c.featureArgOptions = readMap(in);
+		c.complexityDefault = readMap(in);
+		c.effortEstimateDefault = readMap(in);
+		c.cfgSections = readList(in);
+		c.overrideCount = in.readInt();
+		c.effortEstimatesFound = in.readBoolean();
+		if (in.readBoolean()) c.cfgFileFormatVersionRead = in.readInt();
+		c.cfgFileTimestamp = readString(in);
+		return c;
+	}
+
+	// not with writeUTF(), which is limited to 64KB
+	private static void writeString(DataOutputStream out, String s) throws IOException {
+		if (s == null) {
+			out.writeInt(-1);
+			return;
+		}
+		byte[] b = s.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(b.length);
+		out.write(b);
+	}
+
+	// a size of -1 stands for null; as every element takes at least one byte, a larger size means the file is damaged
+	private static int readSize(DataInputStream in) throws IOException {
+		int n = in.readInt();
+		if (n < -1 || n > in.available()) throw new IOException("Invalid size: " + n);
+		return n;
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		int n = readSize(in);
+		if (n < 0) return null;
+		byte[] b = new byte[n];
+		in.readFully(b);
+		return new String(b, StandardCharsets.UTF_8);
+	}
+
+	private static void writeList(DataOutputStream out, List<String> l) throws IOException {
+		if (l == null) {
+			out.writeInt(-1);
+			return;
+		}
+		out.writeInt(l.size());
+		for (String s : l) {
+			writeString(out, s);
+		}
+	}
+
+	private static List<String> readList(DataInputStream in) throws IOException {
+		int n = readSize(in);
+		if (n < 0) return null;
+		List<String> l = new ArrayList<>(n);
+		for (int i = 0; i < n; i++) {
+			l.add(readString(in));
+		}
+		return l;
+	}
+
+	private static void writeMap(DataOutputStream out, Map<String, String> m) throws IOException {
+		if (m == null) {
+			out.writeInt(-1);
+			return;
+		}
+		out.writeInt(m.size());
+		for (Map.Entry<String, String> e : m.entrySet()) {
+			writeString(out, e.getKey());
+			writeString(out, e.getValue());
+		}
+	}
+
+	private static Map<String, String> readMap(DataInputStream in) throws IOException {
+		int n = readSize(in);
+		if (n < 0) return null;
+		Map<String, String> m = new LinkedHashMap<>();
+		for (int i = 0; i < n; i++) {
+			m.put(readString(in), readString(in));
+		}
+		return m;
+	}
+
+	private static void writeCfg(DataOutputStream out, Map<String, Map<String, String>> m) throws IOException {
+		if (m == null) {
+			out.writeInt(-1);
+			return;
+		}
+		out.writeInt(m.size());
+		for (Map.Entry<String, Map<String, String>> e : m.entrySet()) {
+			writeString(out, e.getKey());
+			writeMap(out, e.getValue());
+		}
+	}
+
+	private static Map<String, Map<String, String>> readCfg(DataInputStream in) throws IOException {
+		int n = readSize(in);
+		if (n < 0) return null;
+		Map<String, Map<String, String>> m = new LinkedHashMap<>();
+		for (int i = 0; i < n; i++) {
+			m.put(readString(in), readMap(in));
+		}
+		return m;
+	}
+
+	private static void writeSections(DataOutputStream out, Map<String, Map<String, List<String>>> m) throws IOException {
+		if (m == null) {
+			out.writeInt(-1);
+			return;
+		}
+		out.writeInt(m.size());
+		for (Map.Entry<String, Map<String, List<String>>> e : m.entrySet()) {
+			writeString(out, e.getKey());
+			if (e.getValue() == null) {
+				out.writeInt(-1);
+				continue;
+			}
+			out.writeInt(e.getValue().size());
+			for (Map.Entry<String, List<String>> k : e.getValue().entrySet()) {
+				writeString(out, k.getKey());
+				writeList(out, k.getValue());
+			}
+		}
+	}
+
+	private static Map<String, Map<String, List<String>>> readSections(DataInputStream in) throws IOException {
+		int n = readSize(in);
+		if (n < 0) return null;
+		Map<String, Map<String, List<String>>> m = new LinkedHashMap<>();
+		for (int i = 0; i < n; i++) {
+			String section = readString(in);
+			int nrKeys = readSize(in);
+			if (nrKeys < 0) {
+				m.put(section, null);
+				continue;
+			}
+			Map<String, List<String>> keys = new LinkedHashMap<>();
+			for (int j = 0; j < nrKeys; j++) {
+				keys.put(readString(in), readList(in));
+			}
+			m.put(section, keys);
+		}
+		return m;
+	}
+}
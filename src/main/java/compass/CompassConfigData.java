@@ -0,0 +1,142 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+package compass;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// the validated contents of the .cfg files, as produced by CompassConfig.validateCfgFile()
+// all collections are unmodifiable and every name list has been compiled, so an instance never changes after it
+// has been created and can be read by several threads at the same time
+public final class CompassConfigData {
+	private final Map<String, Map<String, String>> cfg;
+	private final Map<String, Map<String, String>> userCfg;
+	private final List<String> babelfishVersionList;
+	private final Map<String, Map<String, List<String>>> sectionList;
+	private final Map<String, Map<String, List<String>>> sectionOverrideList;
+	private final Map<String, Map<String, List<String>>> sectionEffortList;
+	private final Map<String, Map<String, List<String>>> sectionComplexityList;
+	private final Map<String, String> versionAliasList;
+	private final Map<String, String> featureArgOptions;
+	private final Map<String, String> complexityDefault;
+	private final Map<String, String> effortEstimateDefault;
+	private final List<String> cfgSections;
+	private final int overrideCount;
+	private final boolean effortEstimatesFound;
+	private final Map<String, String> sectionArgIndex;
+	private final Map<List<String>, CfgNameMatcher> nameMatchers = new IdentityHashMap<>();
+
+	// snapshot of what CompassConfig has just loaded
+	static CompassConfigData fromLoaded() {
+		return new CompassConfigData();
+	}
+
+	private CompassConfigData() {
+		cfg = freezeCfg(CompassConfig.cfg);
+		userCfg = freezeCfg(CompassConfig.userCfg);
+		babelfishVersionList = freezeList(CompassConfig.Babelfish_VersionList);
+		sectionList = freezeSections(CompassConfig.sectionList);
+		sectionOverrideList = freezeSections(CompassConfig.sectionOverrideList);
+		sectionEffortList = freezeSections(CompassConfig.sectionEffortList);
+		sectionComplexityList = freezeSections(CompassConfig.sectionComplexityList);
+		versionAliasList = freezeMap(CompassConfig.versionAliasList);
+		featureArgOptions = freezeMap(CompassConfig.featureArgOptions);
+		complexityDefault = freezeMap(CompassConfig.complexityDefault);
+		effortEstimateDefault = freezeMap(CompassConfig.effortEstimateDefault);
+		cfgSections = freezeList(CompassConfig.cfgSections);
+		overrideCount = CompassConfig.overrideCount;
+		effortEstimatesFound = CompassConfig.effortEstimatesFound;
+		if (CompassConfig.sectionArgIndex == null) CompassConfig.buildSectionArgIndex();
+		sectionArgIndex = Collections.unmodifiableMap(new LinkedHashMap<>(CompassConfig.sectionArgIndex));
+
+		// compile all name lists now, so that looking them up later never changes anything
+		for (Map<String, Map<String, List<String>>> sections : Arrays.asList(sectionList, sectionOverrideList, sectionEffortList, sectionComplexityList)) {
+			for (Map<String, List<String>> keys : sections.values()) {
+				for (List<String> names : keys.values()) {
+					if (names != null) nameMatchers.put(names, new CfgNameMatcher(names));
+				}
+			}
+		}
+	}
+
+	private static Map<String, Map<String, String>> freezeCfg(Map<String, Map<String, String>> m) {
+		if (m == null) return null;
+		Map<String, Map<String, String>> result = new LinkedHashMap<>();
+		for (Map.Entry<String, Map<String, String>> e : m.entrySet()) {
+			result.put(e.getKey(), freezeMap(e.getValue()));
+		}
+		return Collections.unmodifiableMap(result);
+	}
+
+	private static Map<String, Map<String, List<String>>> freezeSections(Map<String, Map<String, List<String>>> m) {
+		Map<String, Map<String, List<String>>> result = new LinkedHashMap<>();
+		for (Map.Entry<String, Map<String, List<String>>> e : m.entrySet()) {
+			Map<String, List<String>> keys = new LinkedHashMap<>();
+			for (Map.Entry<String, List<String>> k : e.getValue().entrySet()) {
+				keys.put(k.getKey(), freezeList(k.getValue()));
+			}
+			result.put(e.getKey(), Collections.unmodifiableMap(keys));
+		}
+		return Collections.unmodifiableMap(result);
+	}
+
+	private static Map<String, String> freezeMap(Map<String, String> m) {
+		if (m == null) return null;
+		return Collections.unmodifiableMap(new LinkedHashMap<>(m));
+	}
+
+	private static List<String> freezeList(List<String> l) {
+		if (l == null) return null;  // e.g. the 'wildcard' key, which only needs to exist
+		return Collections.unmodifiableList(new ArrayList<>(l));
+	}
+
+	// mutable copies, for loading the .cfg files again
+	static Map<String, Map<String, String>> thawCfg(Map<String, Map<String, String>> m) {
+		if (m == null) return null;
+		Map<String, Map<String, String>> result = new LinkedHashMap<>();
+		for (Map.Entry<String, Map<String, String>> e : m.entrySet()) {
+			result.put(e.getKey(), e.getValue() == null ? null : new LinkedHashMap<>(e.getValue()));
+		}
+		return result;
+	}
+
+	static Map<String, Map<String, List<String>>> thawSections(Map<String, Map<String, List<String>>> m) {
+		Map<String, Map<String, List<String>>> result = new LinkedHashMap<>();
+		for (Map.Entry<String, Map<String, List<String>>> e : m.entrySet()) {
+			Map<String, List<String>> keys = new LinkedHashMap<>();
+			for (Map.Entry<String, List<String>> k : e.getValue().entrySet()) {
+				keys.put(k.getKey(), k.getValue() == null ? null : new ArrayList<>(k.getValue()));
+			}
+			result.put(e.getKey(), keys);
+		}
+		return result;
+	}
+
+	public Map<String, Map<String, String>> getCfg() { return cfg; }
+	public Map<String, Map<String, String>> getUserCfg() { return userCfg; }
+	public List<String> getBabelfishVersionList() { return babelfishVersionList; }
+	public Map<String, Map<String, List<String>>> getSectionList() { return sectionList; }
+	public Map<String, Map<String, List<String>>> getSectionOverrideList() { return sectionOverrideList; }
+	public Map<String, Map<String, List<String>>> getSectionEffortList() { return sectionEffortList; }
+	public Map<String, Map<String, List<String>>> getSectionComplexityList() { return sectionComplexityList; }
+	public Map<String, String> getVersionAliasList() { return versionAliasList; }
+	public Map<String, String> getFeatureArgOptions() { return featureArgOptions; }
+	public Map<String, String> getComplexityDefault() { return complexityDefault; }
+	public Map<String, String> getEffortEstimateDefault() { return effortEstimateDefault; }
+	public List<String> getCfgSections() { return cfgSections; }
+	public int getOverrideCount() { return overrideCount; }
+	public boolean getEffortEstimatesFound() { return effortEstimatesFound; }
+	public Map<String, String> getSectionArgIndex() { return sectionArgIndex; }
+
+	// compiled name list; null if the list is not part of this config
+	CfgNameMatcher getNameMatcher(List<String> names) {
+		return nameMatchers.get(names);
+	}
+}
@@ -0,0 +1,55 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+package compass;
+
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.RuleContext;
+import parser.TSQLParser;
+
+// superclass of all parse tree nodes generated from TSQLParser.g4 (option contextSuperClass)
+// ParserRuleContext.getText() walks the subtree and concatenates the token texts on every call; the analysis calls
+// getText() hundreds of times per batch, often on nodes containing each other. Once BatchText has indexed the tree,
+// the text of a node is a slice of the text of the whole tree instead, taken once and then kept
+// likewise, BatchText records the rules of each node's ancestors, so that 'is this node inside a <rule>' is a bit test
+// instead of a walk up the tree
+public class CompassRuleContext extends ParserRuleContext {
+	String treeText = null;   // all tokens of the tree this node is part of, as set by BatchText
+	int textStart;
+	int textEnd;
+	private String text = null;
+	String treeSpaced = null;  // all tokens of the tree as spaced text, as set by BatchText
+	int spacedStart;           // -1 if the node has no tokens
+	int spacedEnd;
+	// bitmap of the rule indexes of this node and its ancestors, up to but not including the start rule, as set by
+	// BatchText; a node shares the bitmap of its parent when its own rule is already in it, so there are few of these
+	long[] ancestorRules = null;
+
+	public CompassRuleContext() {
+	}
+
+	public CompassRuleContext(ParserRuleContext parent, int invokingStateNumber) {
+		super(parent, invokingStateNumber);
+	}
+
+	@Override
+	public String getText() {
+		if (text != null) return text;
+		if (treeText == null) return super.getText();  // not indexed
+		text = treeText.substring(textStart, textEnd);
+		return text;
+	}
+
+	// is this node, or one of its ancestors below the start rule, a node for the rule (TSQLParser.RULE_*)?
+	public boolean inRule(int ruleIndex) {
+		if (ancestorRules != null) {
+			return (ancestorRules[ruleIndex >>> 6] & (1L << ruleIndex)) != 0;
+		}
+		// not indexed
+		for (RuleContext p = this; p != null && p.getRuleIndex() != TSQLParser.RULE_tsql_file; p = p.parent) {
+			if (p.getRuleIndex() == ruleIndex) return true;
+		}
+		return false;
+	}
+}
@@ -25,12 +25,17 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.*;
 import java.util.stream.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.text.SimpleDateFormat;
 import java.net.*;
 
-public class CompassUtilities {
+public class CompassUtilities implements Cloneable {
 
 	// not-initialized strings
 	public static final String uninitialized = "-init-";
@@ -223,6 +228,17 @@ public class CompassUtilities {
 	public String reportFilePathName = uninitialized;
 	public BufferedWriter reportFileWriter;
 	public BufferedWriter reportFileWriterHTML;
+	public String reportFileHeaderHTML = "";
+	private Date reportDate = null;
+	// with -reportoption appreports: application for which a separate report is generated (blank=all applications)
+	private String reportAppName = "";
+	// the items of an application report are read with the report for all applications
+	private ReportAggregate reportAggregate = null;
+	private Map<String, ReportAggregate> appAggregates = null;
+	public List<String> appReportsWritten = new ArrayList<>();
+	public static int appReportThreads = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+	// an application report generated in the background keeps its output until it is complete, so that it is not mixed up
+	private StringBuilder appOutputBuffer = null;
 	public BufferedWriter CSVFileWriter;
 	public String batchFilePathName;
 	public BufferedWriter batchFileWriter;
@@ -238,7 +254,6 @@ public class CompassUtilities {
 	public int importFileWriteLineNr = 0;
 	public String sessionLogPathName;
 	public BufferedWriter sessionLogWriter;
-	public BufferedWriter userCfgFileWriter;
 	public String extractedFilePathName;
 	public BufferedWriter extractedFileWriter;
 	public BufferedReader rewrittenInFileReader;
@@ -530,7 +545,7 @@ tooltipsHTMLPlaceholder +
 	private Map<String, String> hintsListMap = new HashMap<>();
 	private Map<String, String> hintsTextMap = new HashMap<>();
 	private Map<String, String> toolTipsKeys = new HashMap<>();
-	private static final List<String> toolTipsKeysList = new ArrayList<>();
+	private List<String> toolTipsKeysList = new ArrayList<>();
 	private static final String tttSeparator = "~~~";
 	private static final String tttSeparator2 = "^^^";
 	private static final List<String> toolTipsText = Arrays.asList(
@@ -942,7 +957,6 @@ tooltipsHTMLPlaceholder +
   	//String hintIcon = "&#10145;";   // right arrow
   	//String hintIcon = "&#9651;";    // white triangle
 
-	public static List<String> capFields = new ArrayList<>();
 	
 	public static final int capPosItem = 0;
 	public static final int capPosItemDetail = 1;
@@ -1038,9 +1052,9 @@ tooltipsHTMLPlaceholder +
 	public static String reportName = uninitialized;
 	public final String sortKeySeparator = "  ~~~";
 	public final String lastItem = "~ZZZZZZ~LastItem";
-	public static boolean reportShowAppName = true;
-	public static boolean reportShowSrcFile = true;
-	public static boolean reportAppsCount = true;
+	public boolean reportShowAppName = true;
+	public boolean reportShowSrcFile = true;
+	public boolean reportAppsCount = true;
 	public static String reportShowBatchNr = "";
 	public static String reportOptionXref = "";
 	public static String reportOptionStatus = "";
@@ -1049,7 +1063,10 @@ tooltipsHTMLPlaceholder +
 	public static String reportOptionFilter = "";
 	public static boolean reportOptionNotabs = false;
 	public static boolean reportOptionLineNrs = false;
-	public static int linesSQLInReport = 0;
+	public static boolean reportOptionMultiPage = false;
+	public static boolean reportOptionAppReports = false;
+	public static boolean reportOptionObjectGraph = false;
+	public int linesSQLInReport = 0;
 	public static String reportHdrLines = "";
 	public static int maxLineNrsInListDefault = 10;
 	public static int maxLineNrsInList = maxLineNrsInListDefault;
@@ -1070,14 +1087,31 @@ tooltipsHTMLPlaceholder +
 	private Map<String, String> contextLinkMap = new HashMap<>();
 	private Map<String, String> objectAnchorsMap = new HashMap<>();
 
-	// caching
-	Map<String, String> stripDelimiterCache = new HashMap<>();
-	int stripDelimitedIdentifierCall = 0;
-	int stripDelimitedIdentifierCached = 0;
-
-	Map<String, String> normalizeNameCache = new HashMap<>();
-	int normalizeNameCall = 0;
-	int normalizeNameCached = 0;
+	// for -reportoption multipage: X-ref sections are written as separate HTML pages next to the main report
+	// while a page is open, the HTML output goes to the page's file instead of the main report
+	private BufferedWriter reportPageWriter = null;
+	private String reportPageFileName = "";
+	private String reportPageHeaderHTML = null;
+	private Map<String, String> objectAnchorsPage = new HashMap<>();
+	public int reportPagesWritten = 0;
+
+	// caching: for names, which are normalized and resolved over and over again
+	BoundedCache<String, String> normalizeNameCache = new BoundedCache<>("normalizeName", 50000);
+	BoundedCache<String, String> normalizeDataTypeCache = new BoundedCache<>("normalizeName datatype", 10000);
+	BoundedCache<String, SqlName> resolveNameCache = new BoundedCache<>("resolveName", 50000);
+	private final Function<String, String> normalizeNameFunc = n -> normalizeNameUncached(n, "");
+	private final Function<String, String> normalizeDataTypeFunc = n -> normalizeNameUncached(n, "datatype");
+	private final Function<String, SqlName> resolveNameFunc = n -> SqlName.of(normalizeName(n));
+
+	// complexity/effort and popup hint per reported item: the same items are resolved again for the summary, the X-ref,
+	// the object issues and the .csv file. Always on, since these only depend on the .cfg and the xref mappings
+	Map<String, String> complexityEffortCache = new HashMap<>();
+	int complexityEffortCall = 0;
+	int complexityEffortCached = 0;
+
+	Map<String, String> itemHintKeyCache = new HashMap<>();
+	int itemHintKeyCall = 0;
+	int itemHintKeyCached = 0;
 
 	// first line in import file:
 	public final String importFileLinePart1 = "# Input file ";
@@ -1110,6 +1144,7 @@ tooltipsHTMLPlaceholder +
 	// rudimentary symbol table, only for some very basic things needed
 	// there's a lot of room for improvement here
 	static String symTabAppRead = "";
+	static Map<String, SymbolTable> symTabLoaded = null;  // pass 2: symtab of each app, read-only
 	static Map<String, String> tableViewSymTab = new HashMap<>();
 	static Map<String, String> UDDSymTab = new HashMap<>();
 	static Map<String, String> SUDFSymTab = new HashMap<>();
@@ -1193,15 +1228,15 @@ tooltipsHTMLPlaceholder +
 	public static Map<String,String>  rewriteTextListOrigText = new HashMap<>();
 	public static Map<Integer, Map<String, List<Integer>>> rewriteIDDetails = new HashMap<>();
 	public static Map<String,Integer> rewrittenOppties = new HashMap<>();
-	public static String rewriteNotes = uninitialized;
-	public static Map<String,Integer> rewriteOppties = new HashMap<>();
+	public String rewriteNotes = uninitialized;
+	public Map<String,Integer> rewriteOppties = new HashMap<>();
 	public static final String        rewriteOpptiesTotal = "totalcount";
 	public static final String        rewriteOpptiesUnique = "totalcount" + uniqueCntTag;
 	public static final String        SQLcodeRewrittenText = "SQL code sections rewritten by " + thisProgName+": ";
 	public static final String        autoRewriteOppties   = "Automatic SQL Rewrite Opportunities";	
 	public static final String rwrTag = " /*REWRITTEN*/ ";
 	public static String rwrTabRegex = "";
-	public static Integer nrRewritesDone = 0;
+	public Integer nrRewritesDone = 0;
 	public static Integer nrMergeRewrites = 0;
 	public static String rewriteTypeExpr1 = "expr(1)";
 	public static String rewriteTypeExpr2 = "expr(2)";
@@ -1220,8 +1255,8 @@ tooltipsHTMLPlaceholder +
 	public static List<String> rewritesDone = new ArrayList<>();
 
 	// avoiding duplicate XRefOnly records
-	public static Map<String,Integer> xrefLineFilter = new HashMap<>();
-	public static Map<String,String> xrefMap = new HashMap<>();
+	public Map<String,Integer> xrefLineFilter = new HashMap<>();
+	public Map<String,CompassConfig.CfgItem> xrefMap = new HashMap<>();
 
 	// flags
 	public static boolean devOptions = false;
@@ -1231,7 +1266,7 @@ tooltipsHTMLPlaceholder +
 	public static int     execTestStatements = 0;
 	public static boolean updateCheck = true;
 	public static boolean symTabAll = false;
-	public static boolean caching = false;
+	public static boolean caching = true;
 	public static boolean QuotedIdentifierFlag = false;
 	public static boolean listHints = false;
 	public static boolean reportSyntaxIssues = true;  // always true now
@@ -1240,9 +1275,11 @@ tooltipsHTMLPlaceholder +
 	public static final String CSVFormatFlat = "flat";	
 	public static List<String> CSVFormats = Arrays.asList(CSVFormatDefault, CSVFormatFlat);				
 	public static String generateCSVFormat = CSVFormatDefault; 
+	public static String exportFormat = "";   // -exportformat: machine-readable export of the captured items
+	public List<String> exportFilesWritten = new ArrayList<>();
 	public static boolean reportComplexityScore = true;
 	public static final String CSVseparator = ",";
-	public static int sumEffortEstimateMinutes= 0;
+	public int sumEffortEstimateMinutes= 0;
 	public static int effortEstimateDaysPerWeek = 5;  // default = 5, can be overridden in user-defined .cfg file
 	public static int effortEstimateHoursPerDay = 8;  // default = 8, can be overridden in user-defined .cfg file
 	
@@ -1251,8 +1288,7 @@ tooltipsHTMLPlaceholder +
 
 	// dynamic SQL analysis
 	public static int dynamicSQLNrStmts = 0;
-	public static List<String> dynamicSQLBuffer = new ArrayList<>();
-	public static final String dynamicSQLBatchLine = "BBF_DYNSQL_BATCH_LINE ";
+	public static DynamicSQL dynamicSQL = new DynamicSQL();
 	public static boolean dynamicSQLFlag = false;
 
 	// formatting
@@ -1403,7 +1439,7 @@ tooltipsHTMLPlaceholder +
     }
     public String runOScmd (String cmd, boolean captureOutput) throws IOException {
     	ProcessBuilder builder;
-    	if (debugging) dbgOutput(thisProc() + "onWindows=["+onWindows+"] onMac=["+onMac+"] onLinux=["+onLinux+"] cmd=["+cmd+"]  ", debugOS);
+    	if (debugOS) dbgOutput(thisProc() + "onWindows=["+onWindows+"] onMac=["+onMac+"] onLinux=["+onLinux+"] cmd=["+cmd+"]  ", debugOS);
     	if (onWindows) {
 	        builder = new ProcessBuilder("cmd.exe", "/c", cmd );
 	    }
@@ -1525,6 +1561,33 @@ tooltipsHTMLPlaceholder +
 		return applyPattern(s, patt, replace, options);
 	}
 
+	// replace a plain string, without compiling a pattern: for code paths called for every line read or written
+	public static String replaceAllLiteral(String s, String find, String replace) {
+		return replaceAllLiteral(s, find, replace, false);
+	}
+
+	public static String replaceAllLiteral(String s, String find, String replace, boolean ignoreCase) {
+		int pos = indexOfLiteral(s, find, 0, ignoreCase);
+		if (pos < 0) return s;
+		StringBuilder sb = new StringBuilder(s.length());
+		int start = 0;
+		while (pos >= 0) {
+			sb.append(s, start, pos).append(replace);
+			start = pos + find.length();
+			pos = indexOfLiteral(s, find, start, ignoreCase);
+		}
+		sb.append(s, start, s.length());
+		return sb.toString();
+	}
+
+	private static int indexOfLiteral(String s, String find, int start, boolean ignoreCase) {
+		if (!ignoreCase) return s.indexOf(find, start);
+		for (int i = start; i <= s.length() - find.length(); i++) {
+			if (s.regionMatches(true, i, find, 0, find.length())) return i;
+		}
+		return -1;
+	}
+
 	public static StringBuilder applyPatternSB(StringBuilder s, String patt, String replace, String options)
 	{
 		return new StringBuilder(applyPattern(s.toString(), patt, replace, options));
@@ -1981,16 +2044,22 @@ tooltipsHTMLPlaceholder +
 		appOutput(s, inReport, false);
 	}
 	public void appOutput(String s, boolean inReport, boolean noNewline) {
-		if (noNewline) {
-			System.out.print(s);
+		if (appOutputBuffer != null) {
+			appOutputBuffer.append(s);
+			if (!noNewline) appOutputBuffer.append("\n");
 		}
 		else {
-			System.out.println(s);
-		}
-		if (sessionLogWriter != null) {
-			try { writeSessionLogFile(s + "\n"); } catch (Exception e) {
-				System.out.println(e.getMessage());
-				System.out.println("Error writing to "+ sessionLogPathName);
+			if (noNewline) {
+				System.out.print(s);
+			}
+			else {
+				System.out.println(s);
+			}
+			if (sessionLogWriter != null) {
+				try { writeSessionLogFile(s + "\n"); } catch (Exception e) {
+					System.out.println(e.getMessage());
+					System.out.println("Error writing to "+ sessionLogPathName);
+				}
 			}
 		}
 		if (inReport) {
@@ -2082,9 +2151,19 @@ tooltipsHTMLPlaceholder +
 		return str.toString();
 	}
 
+	// calling method and line number; this walks the stack, so call it only for messages that are written,
+	// i.e. after testing the debug category: if (debugCfg) dbgOutput(thisProc()+"...", debugCfg);
 	public static String thisProc() {
 		StackTraceElement traceElement = new Throwable().getStackTrace()[1];
-		return traceElement.getMethodName() + ":" + traceElement.getLineNumber() + ": ";
+		return callerName(traceElement.getMethodName()) + ":" + traceElement.getLineNumber() + ": ";
+	}
+
+	// for a lambda ('lambda$visitXxx$12'), the method containing it
+	static String callerName(String name) {
+		if (!name.startsWith("lambda$")) return name;
+		int end = name.lastIndexOf('$');
+		if (end <= "lambda$".length()) return name;
+		return name.substring("lambda$".length(), end);
 	}
 
 	public void printStackTrace() {
@@ -2104,6 +2183,7 @@ tooltipsHTMLPlaceholder +
 		errorExit(errNo, false);
 	}
 	public void errorExit(int errNo, boolean stackTrace) {
+		flushAppOutputBuffer();
 		if (stackTrace) printStackTrace();
 		System.exit(errNo);
 	}
@@ -2257,19 +2337,27 @@ tooltipsHTMLPlaceholder +
 
 	// report file pathname
     public String getReportFilePathName(String reportName, Date now) {
+    	return getReportFilePathName(reportName, now, reportAppName);
+    }
+    public String getReportFilePathName(String reportName, Date now, String appName) {
     	String now_fname = new SimpleDateFormat("yyyy-MMM-dd-HH.mm.ss").format(now);
-    	String reportNameFull = "report-" + reportName + "-" + "bbf." + targetBabelfishVersion + "-" + fixNameChars("report", now_fname) + "." + textSuffix;
+    	String appPart = "";
+    	if (!appName.isEmpty()) appPart = "-app-" + fixNameChars("appname", appName);
+    	String reportNameFull = "report-" + reportName + "-" + "bbf." + targetBabelfishVersion + "-" + fixNameChars("report", now_fname) + appPart + "." + textSuffix;
     	if (stdReport) { // development only
-    		reportNameFull = "report." + textSuffix;
+    		reportNameFull = "report" + appPart + "." + textSuffix;
     	}
     	else if (Compass.forceReportName) {
-    		reportNameFull = Compass.reportFileName + "." + textSuffix;
+    		reportNameFull = Compass.reportFileName + appPart + "." + textSuffix;
     	}
 		return getFilePathname(getReportDirPathname(reportName), reportNameFull);
 	}
 
 	public String getReportFileHTMLPathname(String reportName, Date now) {
-		String f = getReportFilePathName(reportName, now);
+		return getReportFileHTMLPathname(reportName, now, reportAppName);
+	}
+	public String getReportFileHTMLPathname(String reportName, Date now, String appName) {
+		String f = getReportFilePathName(reportName, now, appName);
 		f = changeFilenameSuffix(f, textSuffix, HTMLSuffix);
 		return f;
 	}
@@ -2280,10 +2368,10 @@ tooltipsHTMLPlaceholder +
     	checkDir(dirPath, mustExist, false);
     }
     public void checkDir(String dirPath, boolean mustExist, boolean echoCreate) {
-		if (debugging) dbgOutput(thisProc() + "dirPath=[" + dirPath + "] mustExist=[" + mustExist + "] ", debugDir);
+		if (debugDir) dbgOutput(thisProc() + "dirPath=[" + dirPath + "] mustExist=[" + mustExist + "] ", debugDir);
 		File docDir = new File(dirPath);
 		if (docDir.exists()) {
-			if (debugging) dbgOutput(thisProc() + docDir + " already exists", debugDir);
+			if (debugDir) dbgOutput(thisProc() + docDir + " already exists", debugDir);
 			return;
 		}
 		else {
@@ -2294,7 +2382,7 @@ tooltipsHTMLPlaceholder +
 			else {
 				// create the dir
 				if (docDir.mkdirs()) {
-					if (debugging) dbgOutput("Created " + dirPath, debugDir);
+					if (debugDir) dbgOutput("Created " + dirPath, debugDir);
 					if (echoCreate) {
 						appOutput("Creating " + dirPath);
 					}
@@ -2307,7 +2395,7 @@ tooltipsHTMLPlaceholder +
 					} catch (Exception e) {
 					}
 					if (docDir.mkdirs()) {
-						if (debugging) dbgOutput("Created (after retry)" + dirPath, debugDir);
+						if (debugDir) dbgOutput("Created (after retry)" + dirPath, debugDir);
 						if (echoCreate) {
 							appOutput("Creating " + dirPath);
 						}
@@ -2323,7 +2411,7 @@ tooltipsHTMLPlaceholder +
 
     public boolean deleteFile(String pathName) throws IOException {
 		File f = new File(pathName);
-		if (debugging) dbgOutput("Deleting  " + pathName, debugDir);
+		if (debugDir) dbgOutput("Deleting  " + pathName, debugDir);
 		if (!f.exists()) return true;
 		return f.delete();
 	}
@@ -2443,11 +2531,11 @@ tooltipsHTMLPlaceholder +
 	}
 
 	public void writeSymTabFile(String line) throws IOException {
-		//if (debugging) dbgOutput("writing symtab: line=[" + line + "] ", debugSymtab);
+		//if (debugSymtab) dbgOutput("writing symtab: line=[" + line + "] ", debugSymtab);
 		if (line.contains("\n") || line.contains("\r")) {
 			// can result from delimited identifiers containing newlines (very rare, but possible)
 			// treat these \r, \n chars the same as in captureItem()
-			if (debugging) dbgOutput("Newline or CR found in symtab item (removed): ["+line+"] ", debugSymtab||debugPtree);
+			if (debugSymtab||debugPtree) dbgOutput("Newline or CR found in symtab item (removed): ["+line+"] ", debugSymtab||debugPtree);
 			line = line.replaceAll("\\n", " ");
 			line = line.replaceAll("\\r", " ");
 		}
@@ -2469,27 +2557,27 @@ tooltipsHTMLPlaceholder +
 		// compose filename
 		String fullFileName = fileName + "." + fileTag + "." + appName + "." + fileSuffix;
 
-		if (debugging) dbgOutput(thisProc()+ "fullFileName=["+fullFileName+"], ["+fullFileName.length()+"] ", debugDir);
-		if (debugging) dbgOutput(thisProc()+ "fileName=["+fileName+"], ["+fileName.length()+"] ", debugDir);
-		if (debugging) dbgOutput(thisProc()+ "appName=["+appName+"] , ["+appName.length()+"] ", debugDir);
+		if (debugDir) dbgOutput(thisProc()+ "fullFileName=["+fullFileName+"], ["+fullFileName.length()+"] ", debugDir);
+		if (debugDir) dbgOutput(thisProc()+ "fileName=["+fileName+"], ["+fileName.length()+"] ", debugDir);
+		if (debugDir) dbgOutput(thisProc()+ "appName=["+appName+"] , ["+appName.length()+"] ", debugDir);
 
 		int fileTooLong = fullFileName.length() - (maxFilenameLength -20); // 20 to keep a bit of margin since not all generated filenames are equally long
 		if (fileTooLong > 0) {
 			// only shortening filename at this time; will error out when path part is too long
-			if (debugging) dbgOutput(thisProc()+"importFilename is too long, tooLong=["+fileTooLong+"] ", debugDir);
+			if (debugDir) dbgOutput(thisProc()+"importFilename is too long, tooLong=["+fileTooLong+"] ", debugDir);
 
 			// take the first 50 chars, and append the MD5 hash of the full name
 			String md5Text = calcMD5(fileName);
 			String f2 = fileName.substring(0,50);
 			f2 += "_" + md5Text;
-			if (debugging) dbgOutput(thisProc()+"MD5=["+md5Text+"] f2=["+f2+"] ", debugDir);
+			if (debugDir) dbgOutput(thisProc()+"MD5=["+md5Text+"] f2=["+f2+"] ", debugDir);
 
 			fullFileName = f2 + "." + fileTag + "." ;
 			if (fileName.toUpperCase().startsWith(appName.toUpperCase())) fullFileName += f2;
 			else fullFileName += appName;
 			fullFileName += "." + fileSuffix;
 
-			if (debugging) dbgOutput("fileName=["+fullFileName+"], ["+fullFileName.length()+"] ", debugDir);
+			if (debugDir) dbgOutput("fileName=["+fullFileName+"], ["+fullFileName.length()+"] ", debugDir);
 		}
 		return fullFileName;
 	}
@@ -2528,7 +2616,7 @@ tooltipsHTMLPlaceholder +
 		importFilePathName = getImportFilePathName(reportName, inputFileName, appName);
 		importFileHTMLPathName = getImportFileHTMLPathName(reportName, inputFileName, appName);
 		checkDir(getReportDirPathname(reportName, importDirName), true);
-		if (debugging) dbgOutput("opening importFilePathName=["+importFilePathName+"] ", debugDir);
+		if (debugDir) dbgOutput("opening importFilePathName=["+importFilePathName+"] ", debugDir);
 		importFileWriter = new BufferedWriter((new OutputStreamWriter(new FileOutputStream(importFilePathName), StandardCharsets.UTF_8)));
 		String now = new SimpleDateFormat("dd-MMM-yyyy HH:mm:ss").format(new Date());
 		String initLine = importFileLinePart1 +"["+fullPath.toString()+"]"+importFileLinePart2+"["+appName+"]" + importFileLinePart3 +"["+encoding+"]" + importFileLinePart4 +"["+importFileNrBatchesPlaceholder+"/"+importFileNrLinesPlaceholder+"]" + importFileLinePart5 + now;
@@ -2563,6 +2651,7 @@ tooltipsHTMLPlaceholder +
 			if (!tooltipText.endsWith(".")) tooltipText += ".";
 			toolTipsKeys.put(key, item.toLowerCase());
 			toolTipsKeysList.add(key);
+			itemHintKeyCache.clear();
 			hintsTextMap.put(key, tooltipText);
 			css += ".tooltip .tooltip-content[data-tooltip='"+key+"']::before { content: \""+tooltipText+"\"; }\n";
 		}
@@ -2845,38 +2934,38 @@ tooltipsHTMLPlaceholder +
 	public String matchCSVItem(String item) {
 		item = makeCSVItemLookupKey(item);
 		String found = "";
-		if (debugging) dbgOutput(thisProc()+"item=["+item+"] customItemIDList=["+customItemIDList+"] ", debugReport);		
+		if (debugReport) dbgOutput(thisProc()+"item=["+item+"] customItemIDList=["+customItemIDList+"] ", debugReport);		
 		for (String s : customItemIDList) {
-			if (debugging) dbgOutput(thisProc()+"s=["+s+"] ", debugReport);		
+			if (debugReport) dbgOutput(thisProc()+"s=["+s+"] ", debugReport);		
 			if ((s.indexOf(("\\d+").toUpperCase()) > -1) || (s.indexOf(("\\w+").toUpperCase()) > -1)) {
 				String rgx = escapeRegexChars(s);
 				rgx = rgx.replaceAll("\\\\\\\\D\\\\\\+", "\\\\d"+"+");
 				rgx = rgx.replaceAll("\\\\\\\\W\\\\\\+", "\\\\w"+"+");
-				if (debugging) dbgOutput(thisProc()+"rgx=["+rgx+"] ", debugReport);	
+				if (debugReport) dbgOutput(thisProc()+"rgx=["+rgx+"] ", debugReport);	
 				if (!getPatternGroup(item, "^(" + rgx + ")", 1).isEmpty()) {
-					if (debugging) dbgOutput(thisProc()+"match on regex", debugReport);	
+					if (debugReport) dbgOutput(thisProc()+"match on regex", debugReport);	
 					found = s;
 					break;					
 				}
 			}
 			if (item.equals(s)) {
-				if (debugging) dbgOutput(thisProc()+"match on equal", debugReport);	
+				if (debugReport) dbgOutput(thisProc()+"match on equal", debugReport);	
 				found = s;				
 				break;
 			}
 			if (item.startsWith(s)) {
-				if (debugging) dbgOutput(thisProc()+"match on start", debugReport);	
+				if (debugReport) dbgOutput(thisProc()+"match on start", debugReport);	
 				found = s;				
 				break;
 			}
 			// not found
 		}
 		if (found.isEmpty()) {
-			if (debugging) dbgOutput(thisProc()+"no match found", debugReport);				
+			if (debugReport) dbgOutput(thisProc()+"no match found", debugReport);				
 			return "";	
 		}
 				
-		if (debugging) dbgOutput(thisProc()+"final item found=["+found+"]", debugReport);
+		if (debugReport) dbgOutput(thisProc()+"final item found=["+found+"]", debugReport);
 		return found;
 	}
 				
@@ -2943,18 +3032,18 @@ tooltipsHTMLPlaceholder +
 
 	public String unEscapeHTMLChars(String line) {
 		if (line.contains("&")) {
-			line = applyPatternAll(line, "&amp;", "&");
-			line = applyPatternAll(line, "&amp"+captureFileSeparatorMarker, "&");
-			line = applyPatternAll(line, "&lt;", "<");
-			line = applyPatternAll(line, "&lt"+captureFileSeparatorMarker, "<");
-			line = applyPatternAll(line, "&gt;", ">");
-			line = applyPatternAll(line, "&gt"+captureFileSeparatorMarker, ">");
-			line = applyPatternAll(line, "&quot;", "\"");
-			line = applyPatternAll(line, "&quot"+captureFileSeparatorMarker, "\"");
-			line = applyPatternAll(line, "&apos;", "\"");
-			line = applyPatternAll(line, "&apos"+captureFileSeparatorMarker, "\"");
-			line = applyPatternAll(line, "&nbsp;", " ");
-			line = applyPatternAll(line, "&nbsp"+captureFileSeparatorMarker, " ");
+			line = replaceAllLiteral(line, "&amp;", "&", true);
+			line = replaceAllLiteral(line, "&amp"+captureFileSeparatorMarker, "&", true);
+			line = replaceAllLiteral(line, "&lt;", "<", true);
+			line = replaceAllLiteral(line, "&lt"+captureFileSeparatorMarker, "<", true);
+			line = replaceAllLiteral(line, "&gt;", ">", true);
+			line = replaceAllLiteral(line, "&gt"+captureFileSeparatorMarker, ">", true);
+			line = replaceAllLiteral(line, "&quot;", "\"", true);
+			line = replaceAllLiteral(line, "&quot"+captureFileSeparatorMarker, "\"", true);
+			line = replaceAllLiteral(line, "&apos;", "\"", true);
+			line = replaceAllLiteral(line, "&apos"+captureFileSeparatorMarker, "\"", true);
+			line = replaceAllLiteral(line, "&nbsp;", " ", true);
+			line = replaceAllLiteral(line, "&nbsp"+captureFileSeparatorMarker, " ", true);
 		}
 		return line;
 	}
@@ -3141,14 +3230,14 @@ tooltipsHTMLPlaceholder +
 
 	// get list of all files/apps imported for this report
     public List<Path> getImportFiles(String reportName) throws IOException {
-    	if (debugging) dbgOutput(thisProc() + "entry: reportName=[" + reportName + "]", debugDir);
+    	if (debugDir) dbgOutput(thisProc() + "entry: reportName=[" + reportName + "]", debugDir);
 		String dirPath = getReportDirPathname(reportName, importDirName);
 		File importDir = new File(dirPath);
 		List<Path> importFiles = new ArrayList<>();
 		if (importDir.exists()) {
 			importFiles = getFilesPattern(dirPath, ".+\\."+importFileTag+"\\..+" + importFileSuffix);
 		}
-    	if (debugging) dbgOutput(thisProc() + "exit: reportName=[" + reportName + "]", debugDir);
+    	if (debugDir) dbgOutput(thisProc() + "exit: reportName=[" + reportName + "]", debugDir);
 		return importFiles;
  	}
 
@@ -3183,7 +3272,7 @@ tooltipsHTMLPlaceholder +
 
 	// check report dir exists
     public boolean checkReportExists(String reportName) throws IOException {
-		if (debugging) dbgOutput(thisProc() + "reportName=[" + reportName + "] ", debugDir);
+		if (debugDir) dbgOutput(thisProc() + "reportName=[" + reportName + "] ", debugDir);
 		String dirPath = getReportDirPathname(reportName);
 		File reportDir = new File(dirPath);
 		return reportDir.exists();
@@ -3191,12 +3280,12 @@ tooltipsHTMLPlaceholder +
 
 	// check report dir exists, and create if not
     public boolean checkReportExists(String reportName, List<String> inputFiles, boolean forceAppName, String applicationName, boolean replaceFiles, boolean addReport) throws IOException {
-		if (debugging) dbgOutput(thisProc() + "reportName=[" + reportName + "] forceAppName=[" + forceAppName + "] applicationName=[" + applicationName + "] replaceFiles=[" + replaceFiles + "] addReport=[" + addReport + "] ", debugDir);
+		if (debugDir) dbgOutput(thisProc() + "reportName=[" + reportName + "] forceAppName=[" + forceAppName + "] applicationName=[" + applicationName + "] replaceFiles=[" + replaceFiles + "] addReport=[" + addReport + "] ", debugDir);
 		String dirPath = getReportDirPathname(reportName);
 		File reportDir = new File(dirPath);
 
 		if (reportDir.exists()) {
-			if (debugging) dbgOutput(thisProc() + "reportDir exists:[" + reportDir + "] ", debugDir);
+			if (debugDir) dbgOutput(thisProc() + "reportDir exists:[" + reportDir + "] ", debugDir);
 
 			if (inputFiles.size() == 0) {
 				if (addReport) {
@@ -3260,7 +3349,7 @@ tooltipsHTMLPlaceholder +
 			return false;
 		}
 		else {
-			if (debugging) dbgOutput(thisProc() + "reportDir does not exist:[" + reportDir + "] ", debugDir);
+			if (debugDir) dbgOutput(thisProc() + "reportDir does not exist:[" + reportDir + "] ", debugDir);
 			checkDir(getReportDirPathname(reportName), false, true);
 
 			// create subdirs
@@ -3276,7 +3365,7 @@ tooltipsHTMLPlaceholder +
 
 	public void deleteReportDir(String reportName) throws IOException {
 		// delete a report directory and all files in it
-		if (debugging) dbgOutput(thisProc() + " reportName=[" + reportName + "] ", debugDir);
+		if (debugDir) dbgOutput(thisProc() + " reportName=[" + reportName + "] ", debugDir);
 		String reportDir = getReportDirPathname(reportName);
 		File dirFile = new File(reportDir);
 		if (!dirFile.exists()) {
@@ -3288,14 +3377,14 @@ tooltipsHTMLPlaceholder +
 	}
 
 	public void deleteDirectoryTree(File dirPath) throws IOException {
-		if (debugging) dbgOutput(thisProc() + " Entry: dirPath=[" + dirPath + "] ", debugDir);
+		if (debugDir) dbgOutput(thisProc() + " Entry: dirPath=[" + dirPath + "] ", debugDir);
 		if (dirPath.isDirectory()) {
 			File[] dirFiles = dirPath.listFiles();
 			for (File f : dirFiles) {
 				deleteDirectoryTree(f);
 			}
 		}
-		if (debugging) dbgOutput(thisProc() + " Deleting dirPath=[" + dirPath + "] ", debugDir);
+		if (debugDir) dbgOutput(thisProc() + " Deleting dirPath=[" + dirPath + "] ", debugDir);
 		dirPath.delete();
 		if (dirPath.exists()) {
 			// wait a short while; sometimes this seems to be needed, unclear why
@@ -3321,7 +3410,7 @@ tooltipsHTMLPlaceholder +
 
 	public void deleteReAnalyze(String reportName) throws IOException {
 		// wipe out symtab+captured
-		if (debugging) dbgOutput(thisProc() + " reportName=[" + reportName + "] ", debugDir);
+		if (debugDir) dbgOutput(thisProc() + " reportName=[" + reportName + "] ", debugDir);
 
 		String delDir = getReportDirPathname(reportName, importDirName, symTabDirName);
 		File delDirFile = new File(delDir);
@@ -3374,7 +3463,7 @@ tooltipsHTMLPlaceholder +
 	public String detectEncoding(String fileName) throws IOException {
 		// using this charset because it gives identical results across platforms
 		String cs = "ISO-8859-1";
-		if (debugging) dbgOutput(thisProc() + "reading fileName=["+fileName+"] as cs=["+cs+"] default on this system=["+Charset.defaultCharset()+"] ", debugOS);
+		if (debugOS) dbgOutput(thisProc() + "reading fileName=["+fileName+"] as cs=["+cs+"] default on this system=["+Charset.defaultCharset()+"] ", debugOS);
 		BufferedReader inFileReader = new BufferedReader(new InputStreamReader(new FileInputStream(fileName), Charset.forName(cs)));
 		StringBuilder bomSB = new StringBuilder(4);
 		int readValue;
@@ -3397,27 +3486,27 @@ tooltipsHTMLPlaceholder +
 
 		String encodingFound = null;
 		if (bom.startsWith("\u00EF\u00BB\u00BF")) {
-			if (debugging) dbgOutput(thisProc() + "Detecting BOM UTF-8", debugOS);
+			if (debugOS) dbgOutput(thisProc() + "Detecting BOM UTF-8", debugOS);
 			encodingFound = "UTF-8";
 		}
 		else if (bom.startsWith("\u00FE\u00FF")) {
-			if (debugging) dbgOutput(thisProc() + "Detecting BOM UTF-16BE", debugOS);
+			if (debugOS) dbgOutput(thisProc() + "Detecting BOM UTF-16BE", debugOS);
 			encodingFound = "UTF-16"; // UTF-16BE
 		}
 		else if (bom.equals("\u0000\u0000\u00FE\u00FF")) {
-			if (debugging) dbgOutput(thisProc() + "Detecting BOM UTF32BE", debugOS);
+			if (debugOS) dbgOutput(thisProc() + "Detecting BOM UTF32BE", debugOS);
 			encodingFound = "UTF-32"; // UTF-32BE
 		}
 		else if (bom.equals("\u00FF\u00FE\u0000\u0000")) {
-			if (debugging) dbgOutput(thisProc() + "Detecting BOM UTF-32LE", debugOS);
+			if (debugOS) dbgOutput(thisProc() + "Detecting BOM UTF-32LE", debugOS);
 			encodingFound = "UTF-32"; // UTF-32LE
 		}
 		else if (bom.startsWith("\u00FF\u00FE")) {
-			if (debugging) dbgOutput(thisProc() + "Detecting BOM UTF-16LE", debugOS);
+			if (debugOS) dbgOutput(thisProc() + "Detecting BOM UTF-16LE", debugOS);
 			encodingFound = "UTF-16"; // UTF-16LE
 		}
 		else {
-			if (debugging) dbgOutput(thisProc() + "Not detecting BOM", debugOS);
+			if (debugOS) dbgOutput(thisProc() + "Not detecting BOM", debugOS);
 		}
 		if (encodingFound != null) {
 			if (encodingFound.equalsIgnoreCase(Charset.defaultCharset().toString())) {
@@ -3431,7 +3520,7 @@ tooltipsHTMLPlaceholder +
 	// by an unsupported reveng tool -- etc.
 	public String detectImportFileFormat(String inputFileName, String importFormat, Charset charset) throws IOException {
 		String fullPath = Paths.get(inputFileName).toAbsolutePath().toString();
-		if (debugging) dbgOutput(thisProc()+"inputFileName=["+inputFileName+"] fullPath=["+fullPath+"] importFormat=["+importFormat+"] ", debugFmt);
+		if (debugFmt) dbgOutput(thisProc()+"inputFileName=["+inputFileName+"] fullPath=["+fullPath+"] importFormat=["+importFormat+"] ", debugFmt);
 		FileInputStream fis = new FileInputStream(fullPath);
 		InputStreamReader isr = new InputStreamReader(fis, charset);
 		BufferedReader inFileReader = new BufferedReader(isr);
@@ -3510,16 +3599,16 @@ tooltipsHTMLPlaceholder +
 		inFileReader.close();
 		//lines.append("\n");
 
-		//if (debugging) dbgOutput(thisProc()+"First "+lineNr+" lines read: ["+lines.toString()+"]", debugFmt);
-		if (debugging) dbgOutput(thisProc()+"First "+lineNr+" lines read", debugFmt);
+		//if (debugFmt) dbgOutput(thisProc()+"First "+lineNr+" lines read: ["+lines.toString()+"]", debugFmt);
+		if (debugFmt) dbgOutput(thisProc()+"First "+lineNr+" lines read", debugFmt);
 
-		if (debugging) dbgOutput(thisProc()+"goFound               =["+goFound+"]", debugFmt);
-		if (debugging) dbgOutput(thisProc()+"createFound           =["+createFound+"]", debugFmt);
-		if (debugging) dbgOutput(thisProc()+"alterFound            =["+alterFound+"]", debugFmt);
-		if (debugging) dbgOutput(thisProc()+"jsonQueryFmtFound   =["+jsonQueryFmtFound+"]", debugFmt);
-		if (debugging) dbgOutput(thisProc()+"extendedEventsXMLFound=["+extendedEventsXMLFound+"]", debugFmt);
-		if (debugging) dbgOutput(thisProc()+"genericSQLXMLFound    =["+genericSQLXMLFound+"]", debugFmt);
-		if (debugging) dbgOutput(thisProc()+"SQLServerProfilerXML  =["+SQLServerProfilerXMLFound+"]", debugFmt);
+		if (debugFmt) dbgOutput(thisProc()+"goFound               =["+goFound+"]", debugFmt);
+		if (debugFmt) dbgOutput(thisProc()+"createFound           =["+createFound+"]", debugFmt);
+		if (debugFmt) dbgOutput(thisProc()+"alterFound            =["+alterFound+"]", debugFmt);
+		if (debugFmt) dbgOutput(thisProc()+"jsonQueryFmtFound   =["+jsonQueryFmtFound+"]", debugFmt);
+		if (debugFmt) dbgOutput(thisProc()+"extendedEventsXMLFound=["+extendedEventsXMLFound+"]", debugFmt);
+		if (debugFmt) dbgOutput(thisProc()+"genericSQLXMLFound    =["+genericSQLXMLFound+"]", debugFmt);
+		if (debugFmt) dbgOutput(thisProc()+"SQLServerProfilerXML  =["+SQLServerProfilerXMLFound+"]", debugFmt);
 
 		String detectedFormat = "";
 		String detectedFormatDisplay = "";
@@ -3600,7 +3689,7 @@ tooltipsHTMLPlaceholder +
 	// convert a special-format file to sqlcmd format
 	public String convertInputFileFormat(String reportName, String inputFileName, String appName, String importFormat, Charset charset) throws IOException  {
 		String fullPath = Paths.get(inputFileName).toAbsolutePath().toString();
-		if (debugging) dbgOutput(thisProc()+"inputFileName=["+inputFileName+"] fullPath=["+fullPath+"] importFormat=["+importFormat+"] with charset=["+charset+"] deDupExtracted=["+deDupExtracted+"] ", debugFmt);
+		if (debugFmt) dbgOutput(thisProc()+"inputFileName=["+inputFileName+"] fullPath=["+fullPath+"] importFormat=["+importFormat+"] with charset=["+charset+"] deDupExtracted=["+deDupExtracted+"] ", debugFmt);
 		FileInputStream fis = new FileInputStream(fullPath);
 		InputStreamReader isr = new InputStreamReader(fis, charset);
 		BufferedReader inFileReader = new BufferedReader(isr);
@@ -3659,7 +3748,7 @@ tooltipsHTMLPlaceholder +
 			if (lineNr%10000 == 0) {
 				printProgress();
 			}
-			if (debugging) dbgOutput(thisProc()+"lineNr=["+lineNr+"] startFound=["+startFound+"] endFound=["+endFound+"]   line=["+line+"] ", debugFmtDetail);
+			if (debugFmtDetail) dbgOutput(thisProc()+"lineNr=["+lineNr+"] startFound=["+startFound+"] endFound=["+endFound+"]   line=["+line+"] ", debugFmtDetail);
 
 			// process depending on file format
 			if (importFormat.equalsIgnoreCase(SQLServerProfilerXMLFmt)) {
@@ -3746,46 +3835,46 @@ tooltipsHTMLPlaceholder +
 				XELine = applyPatternAll(XELine, "\\>\\s+\\<", "><", "multiline");
 
 				// captured SQL starts at <data name="statement" or <data name="batch_text"
-				if (debugging) dbgOutput(thisProc()+"XEline=["+XELine+"] ", debugFmtDetail);
+				if (debugFmtDetail) dbgOutput(thisProc()+"XEline=["+XELine+"] ", debugFmtDetail);
 
 				XELine = XELine.replaceFirst("</value></data><data name=\"parameterized_plan_handle\"><value /></data><action name=\"sql_text\" package=\"sqlserver\"><value>", XESpecialSplitMarker);
 				XELine = XELine.replaceFirst("</value></data><action name=\"sql_text\" package=\"sqlserver\"><value>", XESpecialSplitMarker);
 
 				int ixStart = XELine.indexOf(ExtendedEventXMLStatementStart);
-				//if (debugging) dbgOutput(thisProc()+"ixStart stmt=["+ixStart+"]  ", debugFmtDetail);
+				//if (debugFmtDetail) dbgOutput(thisProc()+"ixStart stmt=["+ixStart+"]  ", debugFmtDetail);
 				if (ixStart > -1) ixStart += ExtendedEventXMLStatementStart.length();
 				else {
 					ixStart = XELine.indexOf(ExtendedEventXMLBatchStart);
 					if (ixStart > -1) ixStart += ExtendedEventXMLBatchStart.length();
-					//if (debugging) dbgOutput(thisProc()+"ixStart B=["+ixStart+"]  ", debugFmtDetail);
+					//if (debugFmtDetail) dbgOutput(thisProc()+"ixStart B=["+ixStart+"]  ", debugFmtDetail);
 				}
 				if (ixStart > -1) {
 					XELine = XELine.substring(ixStart);
 				}
 				else {
 					// something's wrong, discard this one
-					if (debugging) dbgOutput(thisProc()+"discarding ixStart: XEline=["+XELine+"] ", debugFmt);
+					if (debugFmt) dbgOutput(thisProc()+"discarding ixStart: XEline=["+XELine+"] ", debugFmt);
 					continue;
 				}
 
 				int ixEnd = XELine.indexOf(ExtendedEventXMLEnd);
-				if (debugging) dbgOutput(thisProc()+"ixEnd=["+ixEnd+"]  ", debugFmtDetail);
+				if (debugFmtDetail) dbgOutput(thisProc()+"ixEnd=["+ixEnd+"]  ", debugFmtDetail);
 				if (ixEnd > -1) {
 					 XELine = XELine.substring(0,ixEnd);
 				}
 				else {
 					// something's wrong, discard this one
-					if (debugging) dbgOutput(thisProc()+"discarding ixEnd: XEline=["+XELine+"] ", debugFmt);
+					if (debugFmt) dbgOutput(thisProc()+"discarding ixEnd: XEline=["+XELine+"] ", debugFmt);
 					continue;
 				}
 
 
 				stmt += "\n" + XELine;
-				if (debugging) dbgOutput(thisProc()+"stmt=["+stmt+"]  ", debugFmtDetail);
+				if (debugFmtDetail) dbgOutput(thisProc()+"stmt=["+stmt+"]  ", debugFmtDetail);
 			}
 
 			stmt = stmt.trim();
-			if (debugging) dbgOutput(thisProc()+"stmt final=["+stmt+"]  ", debugFmtDetail);
+			if (debugFmtDetail) dbgOutput(thisProc()+"stmt final=["+stmt+"]  ", debugFmtDetail);
 
 			if (importFormat.equalsIgnoreCase(SQLServerProfilerXMLFmt)) {
 				if (!startFound) {
@@ -3976,7 +4065,7 @@ tooltipsHTMLPlaceholder +
 		String extractedFileName = Paths.get(inputFileName).getFileName().toString() + "." + extractedFileSuffix;
 		String dirName = getFilePathname(getFilePathname(getDocDirPathname(), reportName), extractedDirName);
 		extractedFilePathName = getFilePathname(dirName, extractedFileName);
-		if (debugging) dbgOutput(thisProc()+"inputFileName=["+inputFileName+"] extractedFileName=["+extractedFileName+"] extractedFilePathName=["+extractedFilePathName+"] ", debugFmt);
+		if (debugFmt) dbgOutput(thisProc()+"inputFileName=["+inputFileName+"] extractedFileName=["+extractedFileName+"] extractedFilePathName=["+extractedFilePathName+"] ", debugFmt);
 
 		checkDir(getReportDirPathname(reportName, extractedDirName), false);
 		extractedFileWriter = new BufferedWriter((new OutputStreamWriter(new FileOutputStream(extractedFilePathName), StandardCharsets.UTF_8)));
@@ -4187,16 +4276,12 @@ tooltipsHTMLPlaceholder +
 	}
 	public String normalizeName(String name, String options)
 	{
-		normalizeNameCall++;
-		String cacheKey = Integer.toString(name.length())+"~"+name+"~"+options;
-		if (caching) {
-			String cached = normalizeNameCache.get(cacheKey);
-			if (cached != null) {
-				normalizeNameCached++;
-				return cached;
-			}
-		}
-
+		if (options.isEmpty()) return normalizeNameCache.get(name, normalizeNameFunc);
+		if (options.equals("datatype")) return normalizeDataTypeCache.get(name, normalizeDataTypeFunc);
+		return normalizeNameUncached(name, options);
+	}
+	private String normalizeNameUncached(String name, String options)
+	{
 		// strip leading dots
 		while (true) {
 			if (name.charAt(0) == '.' ) {
@@ -4216,29 +4301,28 @@ tooltipsHTMLPlaceholder +
 			if (name.toUpperCase().contains("VARYING")) name = applyPatternFirst(name, "\\b((N)?CHAR(ACTER)?)(VARYING\\b)", "$1 $4");  // not handling a UDD named CHARVARYING, but let's accept that
 			if (name.contains("(") || name.contains(",")) name = applyPatternFirst(name, "([\\(\\,])[0]+(\\d+)([\\)\\,])", "$1$2$3");
 		}
-		if (caching) normalizeNameCache.put(cacheKey, name);
 		return name;
 	}
 
 	// resolve & normalize a name
 	public String resolveName(String resolvedName, String schema) {
 		// use this when retrying with dbo after initially resolved name not found
-		String resolvedName2 = applyPatternAll(resolvedName,"^(.*?\\.)\\w+(\\.\\w+$)", "$1" + schema.toUpperCase() + "$2");
-		return resolvedName2;
+		return SqlName.of(resolvedName).withSchema(schema).toString();
 	}
 
 	public String resolveName(String objName) {
-		objName = normalizeName(objName.toUpperCase());
+		SqlName name = normalizedSqlName(objName);
 
 		// #tmp tables
-		if (objName.charAt(0) == '#') {
-			return objName;
+		if (name.isTemporary()) {
+			return name.toString();
 		}
 
-		String tmpSchema = getSchemaNameFromID(objName);
-		String tmpDB     = getDBNameFromID(objName);
+		String objNameFull = name.toString();
+		String tmpSchema = name.schema();
+		String tmpDB     = name.db();
 		if ((tmpSchema.isEmpty()) && (tmpDB.isEmpty())) {
-			objName = "." + objName;
+			objNameFull = "." + objNameFull;
 			// use the schema name from the current context, if any
 			if (!currentObjectType.equalsIgnoreCase(BatchContext)) {
 				tmpSchema = getSchemaNameFromID(currentObjectName);
@@ -4246,13 +4330,18 @@ tooltipsHTMLPlaceholder +
 			if (tmpSchema.isEmpty()) {
 				tmpSchema = "dbo";  // ToDo: we can keep track of the current schema that would apply?
 			}
-			objName = tmpSchema + objName;
+			objNameFull = tmpSchema + objNameFull;
 		}
 		if (tmpDB.isEmpty()) {
 			// currentDatabase can be blank if no USE stmt seen
-			objName = currentDatabase + "." + objName;
+			objNameFull = currentDatabase + "." + objNameFull;
 		}
-		return objName.toUpperCase();
+		return objNameFull.toUpperCase();
+	}
+
+	// normalized name, split into its parts; the same names are resolved over and over again
+	public SqlName normalizedSqlName(String objName) {
+		return resolveNameCache.get(objName.toUpperCase(), resolveNameFunc);
 	}
 
 	// add to symbol table
@@ -4425,7 +4514,7 @@ tooltipsHTMLPlaceholder +
 	public void writeSymTab(String reportName, String inputFileName, String appName) throws IOException {
 		checkDir(getReportDirPathname(reportName, importDirName, symTabDirName), true);
 		symTabFilePathName = getSymTabFilePathName(reportName, inputFileName, appName);
-		if (debugging) dbgOutput("symTabFilePathName=[" + symTabFilePathName + "] ", debugSymtab||debugDir);
+		if (debugSymtab||debugDir) dbgOutput("symTabFilePathName=[" + symTabFilePathName + "] ", debugSymtab||debugDir);
 		symTabFileWriter = new BufferedWriter((new OutputStreamWriter(new FileOutputStream(symTabFilePathName), StandardCharsets.UTF_8)));
 		symTabFileLineCount = 0;
 		String now = new SimpleDateFormat("dd-MMM-yyyy HH:mm:ss").format(new Date());
@@ -4468,9 +4557,10 @@ tooltipsHTMLPlaceholder +
 	}
 
 	// read symbol table
+	// the symtab files for all apps are loaded on the first call; after that, this only switches to the symtab of another app
 	public void readSymTab(String reportName, String appName) throws IOException
 	{
-		if (debugging) dbgOutput("reading symtab for reportName=["+reportName+"] appName=["+appName+"] symTabAll=["+symTabAll+"] ", debugSymtab);
+		if (debugSymtab) dbgOutput("reading symtab for reportName=["+reportName+"] appName=["+appName+"] symTabAll=["+symTabAll+"] ", debugSymtab);
 
 		if (!symTabAll) {
 			if (!appName.isEmpty()) {
@@ -4479,142 +4569,68 @@ tooltipsHTMLPlaceholder +
 					return;
 				}
 			}
-		}
-
-		clearSymTab();
-
-		String dirPath = getReportDirPathname(reportName, importDirName, symTabDirName);
-		File reportDir = new File(dirPath);
-
-		List<Path> symTabFiles = getFilesPattern(dirPath, ".+\\."+symTabFileTag+"\\..+"+ symTabFileSuffix);
-		for (Path sf: symTabFiles) {
-			// extract appname from symtab file
-			String symtabAppName = removeLastChar(getPatternGroup(sf.toString(), "^.+"+symTabFileTag+"\\.(.+)"+ symTabFileSuffix, 1));
-			if (!symTabAll) {
-				// only read the symtab for the current appname, to avoid slowdown for large number of apps collectively
-				if (!appName.isEmpty()) {
-					if (appName.equalsIgnoreCase(symtabAppName)) {
-						// proceed and read it
-					}
-					else {
-						// different app, skip this symtab file
-						continue;
-					}
-				}
-				else {
-					// should not be possible
-					assert false : thisProc()+"unexpected branch";
-				}
-			}
-			symTabAppRead = appName;
-
-			FileInputStream fis = new FileInputStream(sf.toString());
-			InputStreamReader isr = new InputStreamReader(fis, StandardCharsets.UTF_8);
-			BufferedReader inFileReader = new BufferedReader(isr);
-			String line;
-			int lineCnt = 0;
-			while (true) {
-				line = inFileReader.readLine();
-				if (line == null) {
-					// EOF
-					break;
-				}
-				//if (debugging) dbgOutput("symtab read: [" + line + "] ", debugSymtab);
-				line = line.trim();
-				if (line.isEmpty()) {
-					continue;
-				}
-				if (line.charAt(0) == '#') {
-					// comment
-					continue;
-				}
-				lineCnt++;
-				line = processSymTabLineRead(line);
+			else {
+				// should not be possible
+				assert false : thisProc()+"unexpected branch";
 			}
-			inFileReader.close();
-		}
-		int nrSymtab = (tableViewSymTab.size()+SUDFSymTab.size()+TUDFSymTab.size()+UDDSymTab.size()+colSymTab.size()+parSymTab.size()+procSymTab.size());
-		if (debugging) dbgOutput("symtab entries=["+nrSymtab+"] ", debugSymtab);
-		if (debugSymtab) {
-			//dumpSymTab("after reading from disk");
 		}
-	}
 
-	public String processSymTabLineRead(String s) {
-		List<String> fields = new ArrayList<String>(Arrays.asList(s.split(symTabSeparator)));
-		if (fields.get(0).equals("objtype")) {
-			String objName = unmaskChar(fields.get(1),symTabSeparator);
-			String objType = unmaskChar(fields.get(2),symTabSeparator);
-			addtableViewSymTab(objName, objType, true);
-		}
-		else if (fields.get(0).equals("sudf")) {
-			String objName = unmaskChar(fields.get(1),symTabSeparator);
-			String dataType = unmaskChar(fields.get(2),symTabSeparator);
-			addSUDFSymTab(objName, dataType, true);
-			String objNameBase = getObjectNameFromID(objName);
-			if (XMLmethods.contains(objNameBase)) {
-				SUDFNamesLikeXML.put(objNameBase, "");
-			}
-			if (HIERARCHYIDmethods.contains(objNameBase)) {
-				SUDFNamesLikeHIERARCHYID.put(objNameBase, "");
-			}
-		}
-		else if (fields.get(0).equals("tudf")) {
-			String objName = unmaskChar(fields.get(1),symTabSeparator);
-			String dataType = unmaskChar(fields.get(2),symTabSeparator);   // always 'TABLE'
-			addTUDFSymTab(objName, dataType, true);
-			String objNameBase = getObjectNameFromID(objName);
-			if (objNameBase.equals("NODES")) {   // there's only one case to test for
-				TUDFNamesLikeXML.put(objNameBase, "");
-			}
+		if (symTabLoaded == null) {
+			symTabLoaded = SymbolTable.load(reportName, symTabAll);
+			if (debugSymtab) dbgOutput("symtab loaded for apps=["+symTabLoaded.keySet()+"] ", debugSymtab);
 		}
-		else if (fields.get(0).equals("udd")) {
-			String objName = unmaskChar(fields.get(1),symTabSeparator);
-			String dataType = unmaskChar(fields.get(2),symTabSeparator);
-			addUDDSymTab(objName, dataType, true);
+		SymbolTable t = symTabLoaded.get(symTabAll ? SymbolTable.allApps : appName.toUpperCase());
+		if (t == null) {
+			t = new SymbolTable().freeze();
 		}
-		else if (fields.get(0).equals("proc")) {
-			String objName = unmaskChar(fields.get(1),symTabSeparator);
-			String objType = unmaskChar(fields.get(2),symTabSeparator);			
-			addProcSymTab(objName, objType, true);
-		}
-		else if (fields.get(0).equals("col")) {
-			String tableName = unmaskChar(fields.get(1),symTabSeparator);
-			String colName   = unmaskChar(fields.get(2),symTabSeparator);
-			String dataType  = unmaskChar(fields.get(3),symTabSeparator);
-			boolean nullable = false;
-			if (dataType.endsWith(" NULL")) {
-				nullable = true;
-				dataType = dataType.substring(0,dataType.length()-5);
-			}
-			addColSymTab(tableName, colName, dataType, nullable, true);
-		}
-		else if (fields.get(0).equals("par")) {
-			String objName  = unmaskChar(fields.get(1),symTabSeparator);
-			String parName  = unmaskChar(fields.get(2),symTabSeparator);
-			int parNo       = Integer.parseInt(fields.get(3));
-			String parDft   = unmaskChar(fields.get(4),symTabSeparator);
-			addParSymTab(objName, parName, parNo, parDft, true);
-		}
-		else {
-			assert false : thisProc() + "unknown symbol table tag:["+fields.get(0)+"] ";
+		tableViewSymTab = t.tableView;
+		SUDFSymTab = t.SUDF;
+		TUDFSymTab = t.TUDF;
+		UDDSymTab = t.UDD;
+		procSymTab = t.proc;
+		// in pass 2, columns are added when not in the symtab files
+		colSymTab = buildColSymTab ? t.col : new HashMap<>(t.col);
+		parSymTab = t.par;
+		SUDFNamesLikeXML = t.SUDFNamesLikeXML;
+		TUDFNamesLikeXML = t.TUDFNamesLikeXML;
+		SUDFNamesLikeHIERARCHYID = t.SUDFNamesLikeHIERARCHYID;
+		symTabAppRead = appName;
+
+		if (debugSymtab) dbgOutput("symtab entries=["+t.size()+"] ", debugSymtab);
+		if (debugSymtab) {
+			//dumpSymTab("after reading from disk");
 		}
-		return s;
 	}
 
 	// clear the symbol table
 	public static void clearSymTab()
 	{
-		tableViewSymTab.clear();
-		SUDFSymTab.clear();
-		TUDFSymTab.clear();
-		UDDSymTab.clear();
-		procSymTab.clear();
-		colSymTab.clear();
-		parSymTab.clear();
-		SUDFNamesLikeXML.clear();
-		TUDFNamesLikeXML.clear();
-		SUDFNamesLikeHIERARCHYID.clear();
+		if (symTabLoaded != null) {
+			// the maps are those of a loaded symtab, which are read-only
+			symTabLoaded = null;
+			tableViewSymTab = new HashMap<>();
+			SUDFSymTab = new HashMap<>();
+			TUDFSymTab = new HashMap<>();
+			UDDSymTab = new HashMap<>();
+			procSymTab = new HashMap<>();
+			colSymTab = new HashMap<>();
+			parSymTab = new HashMap<>();
+			SUDFNamesLikeXML = new HashMap<>();
+			TUDFNamesLikeXML = new HashMap<>();
+			SUDFNamesLikeHIERARCHYID = new HashMap<>();
+		}
+		else {
+			tableViewSymTab.clear();
+			SUDFSymTab.clear();
+			TUDFSymTab.clear();
+			UDDSymTab.clear();
+			procSymTab.clear();
+			colSymTab.clear();
+			parSymTab.clear();
+			SUDFNamesLikeXML.clear();
+			TUDFNamesLikeXML.clear();
+			SUDFNamesLikeHIERARCHYID.clear();
+		}
 
 		symTabAppRead = "";
 	}
@@ -4735,6 +4751,8 @@ tooltipsHTMLPlaceholder +
 		String hdr = headerHTML + headerHTMLReport;
 		hdr = formatHeaderHTML(hdr, now, reportName, reportName, "", "");
 		hdr = formatToolTips(hdr);
+		reportFileHeaderHTML = hdr;
+		reportPageHeaderHTML = null;
 		reportFileWriterHTML.write(hdr);
 		reportFileWriterHTML.write("<pre>\n");
 	}
@@ -4742,6 +4760,10 @@ tooltipsHTMLPlaceholder +
 	public void writeReportFile() throws IOException {
 		reportFileWriter.write("\n");
 		reportFileWriter.flush();
+		if (reportPageWriter != null) {
+			reportPageWriter.write("\n");
+			return;
+		}
 		reportFileWriterHTML.write("\n");
 		reportFileWriterHTML.flush();
 	}
@@ -4751,19 +4773,112 @@ tooltipsHTMLPlaceholder +
 	}
 
 	public void writeReportFile(String line) throws IOException {
-		reportFileWriterHTML.write(line + "\n");
-		reportFileWriterHTML.flush();
+		if (reportPageWriter != null) {
+			reportPageWriter.write(reportPageLinks(line) + "\n");
+		}
+		else {
+			reportFileWriterHTML.write(line + "\n");
+			reportFileWriterHTML.flush();
+		}
 		line = removeHTMLTags(line);
 		reportFileWriter.write(unEscapeHTMLChars(line) + "\n");
 		reportFileWriter.flush();
 	}
 
+	// as writeReportFile(), but without adding a newline
+	private void writeReportFileChunk(String chunk) throws IOException {
+		if (reportPageWriter != null) {
+			reportPageWriter.write(reportPageLinks(chunk));
+		}
+		else {
+			reportFileWriterHTML.write(chunk);
+			reportFileWriterHTML.flush();
+		}
+		reportFileWriter.write(unEscapeHTMLChars(removeHTMLTags(chunk)));
+		reportFileWriter.flush();
+	}
+
 	public void closeReportFile() throws IOException {
 		reportFileWriter.close();
 		reportFileWriterHTML.write("\n</pre>\n");
 		reportFileWriterHTML.close();
 	}
 
+	// multi-page report: name of the page for an X-ref section, in the same directory as the main report
+	public String getReportPageFileName(String tag, String status, int appNr) {
+		String f = reportFileHTMLPathName.substring(reportFileHTMLPathName.lastIndexOf(File.separator)+1);
+		f = f.substring(0, f.length() - HTMLSuffix.length() - 1);
+		f += ".xref-" + tag.replace("_", "") + "-" + status.toLowerCase();
+		if (appNr > 0) f += "-app" + appNr;
+		return f + "." + HTMLSuffix;
+	}
+
+	// multi-page report: stylesheet shared by the pages
+	public String getReportPageCSSFileName() {
+		String f = reportFileHTMLPathName.substring(reportFileHTMLPathName.lastIndexOf(File.separator)+1);
+		f = f.substring(0, f.length() - HTMLSuffix.length() - 1);
+		return f + ".xref.css";
+	}
+
+	// does the section for this tag go to a separate page?
+	private boolean isReportPage(String tag, String status) {
+		if (!reportOptionMultiPage) return false;
+		if (tag.equals(tagByFeature)) return doXref(status, "feature");
+		if (tag.equals(tagByObject)) return doXref(status, "object");
+		return false;
+	}
+
+	// from here on, HTML output goes to the page; the .txt report is written as usual
+	void openReportPage(String fileName) throws IOException {
+		String pathName = getFilePathname(new File(reportFileHTMLPathName).getParent(), fileName);
+		if (debugReport) dbgOutput(thisProc()+"writing report page ["+pathName+"] ", debugReport);
+		String hdr = reportPageHeader();
+		reportPageFileName = fileName;
+		reportPageWriter = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(pathName), StandardCharsets.UTF_8));
+		reportPageWriter.write(hdr + "<pre>\n");
+	}
+
+	// on a separate page, links back into the main report must include its filename
+	private String reportPageLinks(String line) {
+		if (line.contains(tocLinkURL)) {
+			String mainFile = reportFileHTMLPathName.substring(reportFileHTMLPathName.lastIndexOf(File.separator)+1);
+			line = replaceAllLiteral(line, tocLinkURL, "<a href=\""+mainFile+"#toc\">"+ backToToCText +"</a>");
+		}
+		return line;
+	}
+
+	// the header of the main report is mostly CSS for the tooltips: the pages link to a stylesheet with that CSS instead,
+	// which is written with the first page
+	private String reportPageHeader() throws IOException {
+		if (reportPageHeaderHTML != null) return reportPageHeaderHTML;
+		String hdr = reportFileHeaderHTML;
+		int styleStart = hdr.indexOf("<style>");
+		int styleEnd = hdr.indexOf("</style>");
+		if (styleStart < 0 || styleEnd < styleStart) {
+			reportPageHeaderHTML = hdr;
+			return hdr;
+		}
+		String cssFile = getReportPageCSSFileName();
+		String cssPathName = getFilePathname(new File(reportFileHTMLPathName).getParent(), cssFile);
+		try (BufferedWriter cssWriter = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(cssPathName), StandardCharsets.UTF_8))) {
+			cssWriter.write(hdr.substring(styleStart + "<style>".length(), styleEnd));
+		}
+		reportPageHeaderHTML = hdr.substring(0, styleStart) + "<link rel=\"stylesheet\" type=\"text/css\" href=\""+cssFile+"\" />\n" + hdr.substring(styleEnd + "</style>".length());
+		return reportPageHeaderHTML;
+	}
+
+	// back to the main report; the page's file is also closed when writing the section failed
+	void closeReportPage(boolean completed) throws IOException {
+		if (reportPageWriter == null) return;
+		try {
+			if (completed) reportPageWriter.write("\n</pre>\n");
+		} finally {
+			reportPageWriter.close();
+			reportPageWriter = null;
+		}
+		reportPagesWritten++;
+	}
+
 	// handle CSV file
     public String getCSVFilePathName(String reportFilePathName) {
     	String fCSV = applyPatternFirst(reportFilePathName, "\\.\\w+$", "."+CSVSuffix);
@@ -4841,8 +4956,9 @@ tooltipsHTMLPlaceholder +
 		assert CSVFormats.contains(generateCSVFormat) : "Invalid CSV format value[" + generateCSVFormat + "]";
 				
 		StringBuilder lines = new StringBuilder();
-		StringBuilder prevGroup = new StringBuilder(uninitialized);
+		String prevGroup = uninitialized;
 		final String statsMarker = "~STATSHERE~";
+		int statsPos = 0;
 
 		boolean generateCSV = false;
 		// rewritten and ignored items can be omitted from the .csv file as they don't represent any realistic complexity
@@ -4857,58 +4973,61 @@ tooltipsHTMLPlaceholder +
 		Integer totalCntDistinct = 0;
 		int grpCount = 0;
 		Map<String, Integer> itemCnt = new HashMap<>();
+		String[] sortedFields = new String[3];
 		for (String s: sortedList) {
 			if ((!s.startsWith(status)) && (!s.startsWith(lastItem))) continue;
-			List<String> sortedFields = new ArrayList<String>(Arrays.asList(s.split(sortKeySeparator)));
-			StringBuilder sortStatus = new StringBuilder(sortedFields.get(0));
-			StringBuilder group = new StringBuilder(sortedFields.get(1).substring(groupSortLength));
-			StringBuilder item = new StringBuilder();
-			if (sortedFields.size() > 2) item = new StringBuilder(sortedFields.get(2));
-			else item = new StringBuilder("(item not found)");
+			splitSortKey(s, sortedFields);
+			String sortStatus = sortedFields[0];
+			String group = sortedFields[1].substring(groupSortLength);
+			String item = sortedFields[2];
+			if (item.isEmpty()) item = "(item not found)";
 			//appOutput(thisProc()+"sortStatus=["+sortStatus+"] group=["+group+"] item=["+item+"] ");
 
-			if (!group.toString().equalsIgnoreCase(prevGroup.toString())) {
+			if (!group.equalsIgnoreCase(prevGroup)) {
 				prevGroup = group;
 				if (grpCount > 0) {
+					// fill in the stats for the previous group
 					String stats = grpCount+"/"+itemCnt.size();
 					totalCntDistinct += itemCnt.size();
-					lines = applyPatternSBFirst(lines, statsMarker, stats);
+					int p = lines.indexOf(statsMarker, statsPos);
+					lines.replace(p, p + statsMarker.length(), stats);
 					grpCount = 0;
 					itemCnt.clear();
 				}
-				if (sortStatus.toString().equals(lastItem)) break;
-				lines.append(group).append(" ("+statsMarker+")\n");
+				if (sortStatus.equals(lastItem)) break;
+				statsPos = lines.length();
+				lines.append(group).append(" (").append(statsMarker).append(")\n");
 				if (generateCSV) {
 					if (generateCSVFormat.equals(CSVFormatDefault)) {
 						linesCSV.append("\n").append(CSVseparator).append(group).append("\n");
 					}
 					else {
 						// flat format
-						linesCSVGroup = group.toString();				
+						linesCSVGroup = group;				
 					}
 				}
 			}
 			grpCount += itemCount.get(s);
 			totalCnt += itemCount.get(s);
-			itemCnt.put(item.toString(),0);
+			itemCnt.put(item,0);
 
 			String complexityLine = "";
 
 			// generate CSV lines
 			if (generateCSV) {
 				String hint = "";
-				String itemHintKey = getItemHintKey(item.toString(), status);
+				String itemHintKey = getItemHintKey(item, status);
 				if (!itemHintKey.isEmpty()) {
 					hint = hintsTextMap.get(itemHintKey);
 					hint = hint.replaceAll(CSVseparator, "");
 				}
-				String itemCSV =  collapseWhitespace(item.toString().replaceAll(CSVseparator, " "));
-				String complexityDefined = getComplexityEffort(CompassConfig.complexityTag, item.toString(), group.toString(), status);
-				String effortDefined     = getComplexityEffort(CompassConfig.effortTag, item.toString(), group.toString(), status, complexityDefined);
+				String itemCSV =  collapseWhitespace(item.replaceAll(CSVseparator, " "));
+				String complexityDefined = getComplexityEffort(CompassConfig.complexityTag, item, group, status);
+				String effortDefined     = getComplexityEffort(CompassConfig.effortTag, item, group, status, complexityDefined);
 
 				String effortDefinedScale          = CompassConfig.getEffortValue(effortDefined, CompassConfig.effortPartScale);
 				String effortDefinedLearningCurve  = CompassConfig.getEffortValue(effortDefined, CompassConfig.effortPartLearningCurve);			
-				if (debugging) dbgOutput(thisProc()+"item=["+item.toString()+"] group=["+group.toString()+"]  status=["+status+"] complexityDefined=["+complexityDefined+"]  effortDefined=["+effortDefined+"] effortDefinedScale=["+effortDefinedScale+"] effortDefinedLearningCurve=["+effortDefinedLearningCurve+"] ", debugReport);
+				if (debugReport) dbgOutput(thisProc()+"item=["+item+"] group=["+group+"]  status=["+status+"] complexityDefined=["+complexityDefined+"]  effortDefined=["+effortDefined+"] effortDefinedScale=["+effortDefinedScale+"] effortDefinedLearningCurve=["+effortDefinedLearningCurve+"] ", debugReport);
 				
 				String effortDefinedScaleMinutes   = "0";
 				if (!effortDefinedScale.trim().isEmpty()) {
@@ -4922,7 +5041,7 @@ tooltipsHTMLPlaceholder +
 					effortDefinedLearningCurve         = CompassConfig.formatEffort(effortDefinedLearningCurve);
 				}
 
-				if (debugging) dbgOutput(thisProc()+"complexityDefined=["+complexityDefined+"]  effortDefined=["+effortDefined+"] effortDefinedScale=["+effortDefinedScale+"] effortDefinedScaleMinutes=["+effortDefinedScaleMinutes+"] effortDefinedLearningCurve=["+effortDefinedLearningCurve+"] effortDefinedLearningCurveMinutes=["+effortDefinedLearningCurveMinutes+"] ", debugReport);
+				if (debugReport) dbgOutput(thisProc()+"complexityDefined=["+complexityDefined+"]  effortDefined=["+effortDefined+"] effortDefinedScale=["+effortDefinedScale+"] effortDefinedScaleMinutes=["+effortDefinedScaleMinutes+"] effortDefinedLearningCurve=["+effortDefinedLearningCurve+"] effortDefinedLearningCurveMinutes=["+effortDefinedLearningCurveMinutes+"] ", debugReport);
 				
 				// include the 'review' categories in the .csv, but only add complexity scores for 'NotSupported'
 				if (hasComplexityEffort(status)) {					
@@ -4974,7 +5093,7 @@ tooltipsHTMLPlaceholder +
 
 			// compose the report line
 			//StringBuilder thisItem = new StringBuilder(popupHint(item.toString(),status,group.toString()) + " : " + itemCount.get(s).toString() + complexityLine);
-			StringBuilder thisItem = new StringBuilder(popupHint(item.toString(),status,group.toString()) + complexityLine + " : " + itemCount.get(s).toString());
+			StringBuilder thisItem = new StringBuilder(popupHint(item,status,group) + complexityLine + " : " + itemCount.get(s).toString());
 			lines.append(thisItem);
 			if (reportAppsCount) {
 				int minSpacer = 3;
@@ -5047,6 +5166,21 @@ tooltipsHTMLPlaceholder +
 		return getComplexityEffort(tag, item, group, status, null);
 	}
 	private String getComplexityEffort (String tag, String item, String group, String status, String complexity) {
+		complexityEffortCall++;
+		String cacheKey = tag+"~"+status+"~"+group.length()+"~"+group+"~"+item.length()+"~"+item+"~"+complexity;
+		if (!debugging) {
+			String cached = complexityEffortCache.get(cacheKey);
+			if (cached != null) {
+				complexityEffortCached++;
+				return cached;
+			}
+		}
+		String result = resolveComplexityEffort(tag, item, group, status, complexity);
+		complexityEffortCache.put(cacheKey, result);
+		return result;
+	}
+
+	private String resolveComplexityEffort (String tag, String item, String group, String status, String complexity) {
 		// Is there a complexity score or effort estimate defined for this reported item?
 		// This is not always straightforward to determine since we need to find the section name in the .cfg file
 		// for which this item was classified; but because we report some items in more user-friendly categories, that
@@ -5056,7 +5190,7 @@ tooltipsHTMLPlaceholder +
 		
 		String itemUserCfgCheck =  collapseWhitespace(item.replaceAll(CSVseparator, " "));
 		itemUserCfgCheck = applyPatternFirst(itemUserCfgCheck, "\\(\\)$", "");
-		if (debugging) dbgOutput(thisProc()+"tag=["+tag+"] itemUserCfgCheck=["+itemUserCfgCheck+"] item=["+item+"]  group=["+group+"] ", debugReport);
+		if (debugReport) dbgOutput(thisProc()+"tag=["+tag+"] itemUserCfgCheck=["+itemUserCfgCheck+"] item=["+item+"]  group=["+group+"] ", debugReport);
 		// is this a SET option?
 		if (itemUserCfgCheck.startsWith("SET ")) {
 			if (!getPatternGroup(itemUserCfgCheck, "^(SET [\\w ]+?) (\\w+)$", 1).isEmpty()) {
@@ -5073,13 +5207,13 @@ tooltipsHTMLPlaceholder +
 		}
 
 		String result = getUserDefinedProperty(tag, group, itemUserCfgCheck, item);
-		if (debugging) dbgOutput(thisProc()+"itemUserCfgCheck=["+itemUserCfgCheck+"] getUserDefinedProperty=["+result+"]", debugReport);
+		if (debugReport) dbgOutput(thisProc()+"itemUserCfgCheck=["+itemUserCfgCheck+"] getUserDefinedProperty=["+result+"]", debugReport);
 
 		if (tag.equals(CompassConfig.complexityTag)) {
 			if (result.equals(CompassConfig.complexityUndefined)) {
 				if (CompassConfig.complexityDefault.containsKey(status.toUpperCase())) {
 					result = CompassConfig.complexityDefault.get(status.toUpperCase());
-					if (debugging) dbgOutput(thisProc()+"using default complexity for status=["+status+"] : result=["+result+"] ", debugReport);
+					if (debugReport) dbgOutput(thisProc()+"using default complexity for status=["+status+"] : result=["+result+"] ", debugReport);
 				}		
 				else {
 					// if nothing else applies, when use MEDIUM
@@ -5094,15 +5228,15 @@ tooltipsHTMLPlaceholder +
 				// - if it exists, use the effort estimate for the status of the item (NotSupported, Review..., etc.)
 				// - if nothing found then, it exists, use the effort estimate for the complexity of the item (low/medium/high)
 				result =" "; // if nothing found at all, then leave blank
-				if (debugging) dbgOutput(thisProc()+"effortUndefined: item=["+item+"] group=["+group+"] complexity=["+complexity+"] status=["+status+"] ", debugReport);
+				if (debugReport) dbgOutput(thisProc()+"effortUndefined: item=["+item+"] group=["+group+"] complexity=["+complexity+"] status=["+status+"] ", debugReport);
 				if (CompassConfig.effortEstimateDefault.containsKey(status.toUpperCase())) {
 					result = CompassConfig.effortEstimateDefault.get(status.toUpperCase());
-					if (debugging) dbgOutput(thisProc()+"using default effort for status=["+status+"] : result=["+result+"] ", debugReport);
+					if (debugReport) dbgOutput(thisProc()+"using default effort for status=["+status+"] : result=["+result+"] ", debugReport);
 				}	
 				else 			
 				if (CompassConfig.effortEstimateDefault.containsKey(complexity.toUpperCase())) {
 					result = CompassConfig.effortEstimateDefault.get(complexity.toUpperCase());
-					if (debugging) dbgOutput(thisProc()+"using default effort for complexity=["+complexity+"] : result=["+result+"] ", debugReport);
+					if (debugReport) dbgOutput(thisProc()+"using default effort for complexity=["+complexity+"] : result=["+result+"] ", debugReport);
 				}
 			}
 		}
@@ -5120,33 +5254,32 @@ tooltipsHTMLPlaceholder +
 			result = CompassConfig.featureComplexityDefined(group, itemUserCfgCheck);
 		else
 			result = CompassConfig.featureEffortDefined(group, itemUserCfgCheck);
-		if (debugging) dbgOutput(thisProc()+"property=["+property+"] group/item: group=["+group+"] item=["+itemUserCfgCheck+"] result=["+result+"]   ", debugReport);
+		if (debugReport) dbgOutput(thisProc()+"property=["+property+"] group/item: group=["+group+"] item=["+itemUserCfgCheck+"] result=["+result+"]   ", debugReport);
 
 		if ((result.equals(CompassConfig.complexityUndefined) && property.equals(CompassConfig.complexityTag)) ||
 		    (result.equals(CompassConfig.effortUndefined) && property.equals(CompassConfig.effortTag))) {
 			// if not found, this could be because the report group is different from the original cfg section name
 			// try to dig up the original section name based on what we recorded at capture time
 			String xrefMapKey = (group +captureFileSeparator+ item).toUpperCase();
-			if (xrefMap.containsKey(xrefMapKey)) {
-				String origMapStr = xrefMap.get(xrefMapKey) ;
-				List<String> origMap = new ArrayList<String>(Arrays.asList(origMapStr.split(captureFileSeparator)));
-				if (debugging) dbgOutput(thisProc()+"xref map found: xrefMapKey=["+xrefMapKey+"] origMap=["+origMap+"] origMapStr=["+origMapStr+"] origMap.get(0)=["+origMap.get(0)+"] origMap.get(1)=["+origMap.get(1)+"] ", debugReport);
+			CompassConfig.CfgItem origMap = xrefMap.get(xrefMapKey);
+			if (origMap != null) {
+				if (debugReport) dbgOutput(thisProc()+"xref map found: xrefMapKey=["+xrefMapKey+"] section=["+origMap.section+"] name=["+origMap.name+"] ", debugReport);
 				if (property.equals(CompassConfig.complexityTag))
-					result = CompassConfig.featureComplexityDefined(origMap.get(0), origMap.get(1));
+					result = CompassConfig.featureComplexityDefined(origMap.section, origMap.name);
 				else
-					result = CompassConfig.featureEffortDefined(origMap.get(0), origMap.get(1));
-				if (debugging) dbgOutput(thisProc()+"property=["+property+"] xref result without default: result=["+result+"] ", debugReport);
+					result = CompassConfig.featureEffortDefined(origMap.section, origMap.name);
+				if (debugReport) dbgOutput(thisProc()+"property=["+property+"] xref result without default: result=["+result+"] ", debugReport);
 
 				if ((result.equals(CompassConfig.complexityUndefined) && property.equals(CompassConfig.complexityTag)) ||
 				    (result.equals(CompassConfig.effortUndefined) && property.equals(CompassConfig.effortTag))) {
 					if (property.equals(CompassConfig.complexityTag))
-						result = CompassConfig.featureComplexityDefined(origMap.get(0), origMap.get(1), true);
+						result = CompassConfig.featureComplexityDefined(origMap.section, origMap.name, true);
 					else
-						result = CompassConfig.featureEffortDefined(origMap.get(0), origMap.get(1), true);
-					if (debugging) dbgOutput(thisProc()+"property=["+property+"] xref result with default: result=["+result+"] ", debugReport);
+						result = CompassConfig.featureEffortDefined(origMap.section, origMap.name, true);
+					if (debugReport) dbgOutput(thisProc()+"property=["+property+"] xref result with default: result=["+result+"] ", debugReport);
 				}
 			}
-			if (debugging) dbgOutput(thisProc()+"property=["+property+"] item from capture xref: result=["+result+"] ", debugReport);
+			if (debugReport) dbgOutput(thisProc()+"property=["+property+"] item from capture xref: result=["+result+"] ", debugReport);
 		}
 
 		if ((result.equals(CompassConfig.complexityUndefined) && property.equals(CompassConfig.complexityTag)) ||
@@ -5155,7 +5288,7 @@ tooltipsHTMLPlaceholder +
 				result = CompassConfig.featureComplexityDefined(group);
 			else
 				result = CompassConfig.featureEffortDefined(group);
-			if (debugging) dbgOutput(thisProc()+"property=["+property+"] group only: result=["+result+"]  ", debugReport);
+			if (debugReport) dbgOutput(thisProc()+"property=["+property+"] group only: result=["+result+"]  ", debugReport);
 		}
 
 		if ((result.equals(CompassConfig.complexityUndefined) && property.equals(CompassConfig.complexityTag)) ||
@@ -5164,405 +5297,521 @@ tooltipsHTMLPlaceholder +
 				result = CompassConfig.featureComplexityDefined(itemUserCfgCheck);
 			else
 				result = CompassConfig.featureEffortDefined(itemUserCfgCheck);
-			if (debugging) dbgOutput(thisProc()+"property=["+property+"] item as group only: result=["+result+"] ", debugReport);
+			if (debugReport) dbgOutput(thisProc()+"property=["+property+"] item as group only: result=["+result+"] ", debugReport);
 		}
 
 		if (result.equals(CompassConfig.complexityUndefined) && property.equals(CompassConfig.complexityTag)) {
 			// return Undefined						
 		}
 
-		if (debugging) dbgOutput(thisProc()+"final: property=["+property+"] result=["+result+"] ", debugReport);
+		if (debugReport) dbgOutput(thisProc()+"final: property=["+property+"] result=["+result+"] ", debugReport);
 				
 		return result;
 	}
 
 	public void reportXrefByFeature(String status, List<String> sortedList) throws IOException {
-		StringBuilder lines = new StringBuilder(doXrefMsg(status, "feature"));
-		Integer skippedFilter = 0;
-		Integer countFilter = 0;
+		reportXrefByFeature(status, sortedList, "");
+	}
 
+	public void reportXrefByFeature(String status, List<String> sortedList, String titleSuffix) throws IOException {
 		//progress indicator
 		printProgress();
 
-		if (doXref(status, "feature")) {
-			lines = new StringBuilder();
-			StringBuilder linesTmp = new StringBuilder();
-			StringBuilder hdr = new StringBuilder();
-			StringBuilder itemSort = new StringBuilder();
-			StringBuilder prevItemSort = new StringBuilder();
-			StringBuilder prevItem = new StringBuilder();
-			StringBuilder prevGroup = new StringBuilder();
-			StringBuilder contextSort = new StringBuilder();
-			StringBuilder prevContextSort = new StringBuilder();
-
-			StringBuilder group = new StringBuilder();
-			StringBuilder item = new StringBuilder();
-			StringBuilder itemDetail = new StringBuilder();
-			StringBuilder context = new StringBuilder();
-			StringBuilder prevContext = new StringBuilder();
-			StringBuilder subContext = new StringBuilder();
-			StringBuilder prevSubContext = new StringBuilder();
-			StringBuilder lineNr = new StringBuilder();
-			StringBuilder prevLineNr = new StringBuilder();
-			StringBuilder batchNr = new StringBuilder();
-			StringBuilder prevBatchNr = new StringBuilder();
-			StringBuilder lineNrInFile = new StringBuilder();
-			StringBuilder prevLineNrInFile = new StringBuilder();
-			StringBuilder srcFile = new StringBuilder();
-			StringBuilder prevSrcFile = new StringBuilder();
-			StringBuilder appName = new StringBuilder();
-			StringBuilder prevAppName = new StringBuilder();
-
-			List<String> lineNrs = new ArrayList<String>();
-			List<String> lineNrsBatch = new ArrayList<String>();
-			Integer itemCount = 0;
-			boolean initLineNr = false;
+		boolean doIt = doXref(status, "feature");
+		if (!doIt) {
+			if (status.equals(Rewritten)) rewriteNotes = "";
+		}
+		Pattern filterPattern = getReportFilterPattern();
+		startReportSection(tagByFeature, status, reportXrefTitle(tagByFeature, status)+titleSuffix, (doIt ? sortedList : null), 2, filterPattern);
+		if (!doIt) {
+			reportSection.append(doXrefMsg(status, "feature"));
+			endReportSection();
+			return;
+		}
+
+		// lines for the current item; these follow the item header, which has the count, so they are buffered per item
+		StringBuilder linesTmp = reportSectionItem;
+		linesTmp.setLength(0);
+		String[] sortedFields = reportSortFields;
+
+		String prevItem = "";
+		String prevGroup = "";
+		String prevItemApp = "";
+		String prevItemSrcFile = "";
+		boolean prevItemSet = false;
+		String prevContextSort = "";
+		String prevContextSortBatchNr = null;
+		String prevBatchNr = "";
+		String prevLineNrInFile = "";
+		String prevSrcFile = "";
+		String prevAppName = "";
+
+		List<String> lineNrs = new ArrayList<String>();
+		List<String> lineNrsBatch = new ArrayList<String>();
+		int itemCount = 0;
 
-			for (String s: sortedList) {
-				if ((!s.startsWith(status)) && (!s.startsWith(lastItem))) continue;
-				//if (debugging) dbgOutput(thisProc()+"s=["+s+"] ", debugReport);
-
-				List<String> sortedFields = new ArrayList<String>(Arrays.asList(s.split(sortKeySeparator)));
-				group = new StringBuilder(sortedFields.get(1).substring(groupSortLength));
-				item = new StringBuilder(sortedFields.get(2));
-				appName = new StringBuilder(sortedFields.get(3));
-				srcFile = new StringBuilder(getSrcFileNameMap(sortedFields.get(4)));
-				lineNr = new StringBuilder(sortedFields.get(6));
-				batchNr = new StringBuilder(sortedFields.get(7));
-				lineNrInFile = new StringBuilder(sortedFields.get(8));
-				context = new StringBuilder(sortedFields.get(9));
-				subContext = new StringBuilder(sortedFields.get(10));
-
-				itemSort = new StringBuilder(createSortKey(group.toString(),item.toString(),appName.toString(),srcFile.toString()));
-				//if (debugging) dbgOutput(thisProc()+"itemSort=["+itemSort+"]  srcFile=["+srcFile+"] ", debugReport);
-
-				if (Compass.reportOnly) {
-					if (!s.startsWith(lastItem)) {
-						importFilePathName = srcFile.toString();
-					}
+		for (String s: sortedList) {
+			if ((!s.startsWith(status)) && (!s.startsWith(lastItem))) continue;
+			boolean isLastItem = s.startsWith(lastItem);
+			//if (debugReport) dbgOutput(thisProc()+"s=["+s+"] ", debugReport);
+
+			splitSortKey(s, sortedFields);
+			String group = sortedFields[1].substring(groupSortLength);
+			String item = sortedFields[2];
+			String appName = sortedFields[3];
+			String srcFile = getSrcFileNameMap(sortedFields[4]);
+			String lineNr = sortedFields[6];
+			String batchNr = sortedFields[7];
+			String lineNrInFile = sortedFields[8];
+			String context = sortedFields[9];
+			String subContext = sortedFields[10];
+
+			if (Compass.reportOnly) {
+				if (!isLastItem) {
+					importFilePathName = srcFile;
+				}
+			}
+
+			if (!isLastItem && (filterPattern != null)) {
+				//ToDo: perform filtering before creating sort records, keeping the data set smaller
+				if (!matchesReportFilter(item, filterPattern)) {
+					// does not match filter, skip it
+					continue;
 				}
+				if (debugReport) dbgOutput(thisProc()+"filter: item=["+item+"]  reportOptionFilter=["+reportOptionFilter+"] s=["+s+"] ", debugReport);
+			}
 
-				if (!s.startsWith(lastItem)) {
-					if (!reportOptionFilter.isEmpty()) {
-						//ToDo: perform filtering before creating sort records, keeping the data set smaller
-						String filter = "^.*"+reportOptionFilter+".*$";
-						countFilter++;
-						//if (debugging) dbgOutput(thisProc()+"filter: item=["+item.toString()+"]  reportOptionFilter=["+reportOptionFilter+"] ", debugReport);
-						if (!getPatternGroup(item.toString(), "("+filter+")", 1).isEmpty()) {
-							// keep it
-							if (debugging) dbgOutput(thisProc()+"matching filter - keeping", debugReport);
-							if (debugging) dbgOutput(thisProc()+"filter: item=["+item.toString()+"]  reportOptionFilter=["+reportOptionFilter+"] s=["+s+"] ", debugReport);
-						}
-						else {
-							// does not match filter, skip it
-							//if (debugging) dbgOutput(thisProc()+"no match with filter - skipping", debugReport);
-							skippedFilter++;
-							continue;
-						}
+			boolean sameItem = prevItemSet && group.equalsIgnoreCase(prevGroup) && item.equalsIgnoreCase(prevItem) && appName.equalsIgnoreCase(prevItemApp) && srcFile.equalsIgnoreCase(prevItemSrcFile);
+			if (!sameItem) {
+				if (itemCount > 0) {
+					String itemComplexity = "";
+					if (reportComplexityScore) {
+						if (!status.equals(Supported)) itemComplexity = "["+ getComplexityEffort(CompassConfig.complexityTag, prevItem, prevGroup, status).toLowerCase() + "]";
 					}
-				}
+					reportSection.append(prevItem).append(" (").append(prevGroup).append(", ").append(itemCount).append(") ").append(itemComplexity).append("\n");
 
-				if (!itemSort.toString().equalsIgnoreCase(prevItemSort.toString())) {
-					if (itemCount > 0) {
-						String itemComplexity = "";
-						if (reportComplexityScore) {
-							if (!status.equals(Supported)) itemComplexity = "["+ getComplexityEffort(CompassConfig.complexityTag, prevItem.toString(), prevGroup.toString(), status).toLowerCase() + "]";
-						}
-						hdr.append(prevItem);
-						hdr.append(" (").append(prevGroup).append(", ");
-						lines.append(hdr).append(itemCount.toString()).append(") "+itemComplexity+"\n");
-
-						// complete current line
-						linesTmp.append(completeLineByFeature(status, linesTmp, lineNrs, lineNrsBatch, prevContext, prevBatchNr, prevLineNrInFile, prevSrcFile, prevAppName));
-						lineNrs.clear();
-						lineNrsBatch.clear();
-						if (debugging) dbgOutput(thisProc()+"item change, completing current line, linesTmp=["+linesTmp+"] context=["+context+"] prevContext=["+prevContext+"] ", debugReport);
-
-						lines.append(linesTmp);
-						lines.append("\n");
-						hdr.setLength(0);
-						itemCount = 0;
-
-						// new line
-						linesTmp.setLength(0);
-					}
-					prevItemSort = new StringBuilder(itemSort);
-					prevItem = new StringBuilder(item);
-					prevGroup = new StringBuilder(group);
-					prevContextSort.setLength(0);
-					if (s.startsWith(lastItem)) {
-						break;
-					}
-				}
-				itemCount++;
+					// complete current line
+					appendLineByFeature(linesTmp, status, lineNrs, lineNrsBatch, prevBatchNr, prevLineNrInFile, prevSrcFile, prevAppName);
+					lineNrs.clear();
+					lineNrsBatch.clear();
+					if (debugReport) dbgOutput(thisProc()+"item change, completing current line, linesTmp=["+linesTmp+"] context=["+context+"] ", debugReport);
 
-				if (!reportShowBatchNr.isEmpty())  {
-					contextSort = new StringBuilder(createSortKey(context.toString(),batchNr.toString()));
-				}
-				else {
-					contextSort = new StringBuilder(createSortKey(context.toString()));
-					lineNr = new StringBuilder(Integer.toString(Integer.parseInt(lineNr.toString()) + Integer.parseInt(lineNrInFile.toString()) - 1));
-				}
-
-				if (debugging) dbgOutput(thisProc()+"contextSort=["+contextSort+"] ", debugReport);
-				if (debugging) dbgOutput(thisProc()+"prevContextSort=["+prevContextSort+"] ", debugReport);
-				if (contextSort.toString().equalsIgnoreCase(prevContextSort.toString())) {
-					if (!initLineNr) {
-						// same line, accumulate line nrs
-						lineNrs.add(lineNr.toString());
-						lineNrsBatch.add(lineNrInFile.toString());
-						if (debugging) dbgOutput(thisProc()+"adding line number to list: ["+lineNr+"] total=["+lineNrs.size()+"] x=["+String.join(", ", lineNrs)+"] ", debugReport);
-					}
-					initLineNr = false;
-				}
-				else {
-					if (linesTmp.length() > 0) {
-						// complete previous line
-						linesTmp.append(completeLineByFeature(status, linesTmp, lineNrs, lineNrsBatch, prevContext, prevBatchNr, prevLineNrInFile, prevSrcFile, prevAppName));
-						if (debugging) dbgOutput(thisProc()+"new line, changed context, completing current line completed linesTmp=["+linesTmp+"] ", debugReport);
-					}
+					reportSection.append(linesTmp).append("\n");
+					itemCount = 0;
 
 					// new line
-					lineNrs.clear();
-					lineNrs.add(lineNr.toString());
-					lineNrsBatch.add(lineNrInFile.toString());
-					linesTmp.append(lineIndent + context);
-					if (subContext.length() > 0) {
-						linesTmp.append(", "+subContext);
-					}
-					linesTmp.append(", line ");
-					if (debugging) dbgOutput(thisProc()+"new line B, new line number ["+lineNr+"] linesTmp=["+linesTmp+"] context=["+context+"] prevContext=["+prevContext+"] ", debugReport);
+					linesTmp.setLength(0);
+					flushReportSection(false);
+				}
+				prevItemSet = true;
+				prevItem = item;
+				prevGroup = group;
+				prevItemApp = appName;
+				prevItemSrcFile = srcFile;
+				prevContextSort = "";
+				prevContextSortBatchNr = null;
+				if (isLastItem) {
+					break;
 				}
-				prevContextSort = new StringBuilder(contextSort);
-				prevContext = new StringBuilder(context);
-				prevSubContext = new StringBuilder(subContext);
-				prevBatchNr = new StringBuilder(batchNr);
-				prevLineNrInFile = new StringBuilder(lineNrInFile);
-				prevSrcFile = new StringBuilder(srcFile);
-				prevAppName = new StringBuilder(appName);
 			}
-		}
-		else {
-			if (status.equals(Rewritten)) rewriteNotes = "";
+			itemCount++;
+
+			boolean sameContext;
+			if (!reportShowBatchNr.isEmpty())  {
+				sameContext = (prevContextSortBatchNr != null) && context.equalsIgnoreCase(prevContextSort) && batchNr.equalsIgnoreCase(prevContextSortBatchNr);
+			}
+			else {
+				sameContext = context.equalsIgnoreCase(prevContextSort);
+				lineNr = Integer.toString(Integer.parseInt(lineNr) + Integer.parseInt(lineNrInFile) - 1);
+			}
+
+			if (debugReport) dbgOutput(thisProc()+"context=["+context+"] batchNr=["+batchNr+"] prevContextSort=["+prevContextSort+"] sameContext=["+sameContext+"] ", debugReport);
+			if (sameContext) {
+				// same line, accumulate line nrs
+				lineNrs.add(lineNr);
+				lineNrsBatch.add(lineNrInFile);
+				if (debugReport) dbgOutput(thisProc()+"adding line number to list: ["+lineNr+"] total=["+lineNrs.size()+"] x=["+String.join(", ", lineNrs)+"] ", debugReport);
+			}
+			else {
+				if (linesTmp.length() > 0) {
+					// complete previous line
+					appendLineByFeature(linesTmp, status, lineNrs, lineNrsBatch, prevBatchNr, prevLineNrInFile, prevSrcFile, prevAppName);
+					if (debugReport) dbgOutput(thisProc()+"new line, changed context, completing current line completed linesTmp=["+linesTmp+"] ", debugReport);
+				}
+
+				// new line
+				lineNrs.clear();
+				lineNrs.add(lineNr);
+				lineNrsBatch.add(lineNrInFile);
+				linesTmp.append(lineIndent).append(context);
+				if (subContext.length() > 0) {
+					linesTmp.append(", ").append(subContext);
+				}
+				linesTmp.append(", line ");
+				if (debugReport) dbgOutput(thisProc()+"new line B, new line number ["+lineNr+"] linesTmp=["+linesTmp+"] context=["+context+"] ", debugReport);
+			}
+			prevContextSort = context;
+			prevContextSortBatchNr = batchNr;
+			prevBatchNr = batchNr;
+			prevLineNrInFile = lineNrInFile;
+			prevSrcFile = srcFile;
+			prevAppName = appName;
+		}
+		linesTmp.setLength(0);
+		endReportSection();
+	}
+
+	// X-ref sections are written out in chunks of complete lines while they are generated, so that memory use
+	// does not grow with the size of the section; the buffers are reused for all sections
+	private static final int reportSectionChunkSize = 64 * 1024;
+	private StringBuilder reportSection = new StringBuilder();
+	private StringBuilder reportSectionItem = new StringBuilder();
+	private boolean reportSectionWritten = false;
+	private String[] reportSortFields = new String[11];
+	private Pattern reportFilterLastPattern = null;
+	private String reportFilterLastItem = null;
+	private boolean reportFilterLastMatch = false;
+
+	// write the section header; with -reportoption filter=, the items skipped by the filter are counted first since this goes in the header
+	private void startReportSection(String tag, String status, String title, List<String> sortedList, int itemField, Pattern filterPattern) throws IOException {
+		int skippedFilter = 0;
+		int countFilter = 0;
+		if ((sortedList != null) && (filterPattern != null)) {
+			for (String s: sortedList) {
+				if (!s.startsWith(status)) continue;
+				countFilter++;
+				splitSortKey(s, reportSortFields);
+				if (!matchesReportFilter(reportSortFields[itemField], filterPattern)) skippedFilter++;
+			}
 		}
 
 		String filterMsg = "";
 		if (skippedFilter > 0) {
-			filterMsg = "Filter applied: "+skippedFilter.toString()+" of " + countFilter.toString()+" items skipped by filter '"+reportOptionFilter+"'\n\n";
+			filterMsg = "Filter applied: "+skippedFilter+" of " + countFilter+" items skipped by filter '"+reportOptionFilter+"'\n\n";
 		}
 
-		if (lines.toString().trim().length() == 0) {
-			lines = new StringBuilder("-no items to report-\n");
-		}
 		writeReportFile();
-		writeReportFile(composeSeparatorBar("X-ref: '"+supportOptionsDisplay.get(supportOptions.indexOf(status))+"' by SQL feature", tagByFeature+status));
+		writeReportFile(composeSeparatorBar(title, tag+status));
 		writeReportFile(filterMsg);
 		if (status.equals(Rewritten) && !rewriteNotes.isEmpty()) {
 			writeReportFile(rewriteNotes);
 		}
-		writeReportFile(lines);
+		reportSection.setLength(0);
+		reportSectionWritten = false;
+	}
+
+	// write out the complete lines in the section buffer once it is big enough, or everything when 'all' is set
+	private void flushReportSection(boolean all) throws IOException {
+		if (!all && (reportSection.length() < reportSectionChunkSize)) return;
+		int end = reportSection.length();
+		if (!all) end = reportSection.lastIndexOf("\n") + 1;
+		if (end == 0) return;
+		String chunk = reportSection.substring(0, end);
+		reportSection.delete(0, end);
+		reportSectionWritten = true;
+		writeReportFileChunk(chunk);
+	}
+
+	private void endReportSection() throws IOException {
+		if (!reportSectionWritten && (reportSection.toString().trim().length() == 0)) {
+			reportSection.setLength(0);
+			reportSection.append("-no items to report-\n");
+		}
+		reportSection.append("\n");
+		flushReportSection(true);
+	}
+
+	// the pattern for -reportoption filter=, or null when not specified
+	private Pattern getReportFilterPattern() {
+		if (reportOptionFilter.isEmpty()) return null;
+		return Pattern.compile("(^.*"+reportOptionFilter+".*$)", Pattern.CASE_INSENSITIVE);
+	}
+
+	// consecutive records mostly have the same item, so remember the last result
+	private boolean matchesReportFilter(String item, Pattern filterPattern) {
+		if ((filterPattern != reportFilterLastPattern) || !item.equals(reportFilterLastItem)) {
+			reportFilterLastPattern = filterPattern;
+			reportFilterLastItem = item;
+			reportFilterLastMatch = !getPatternGroup(item, filterPattern, 1, MatchMethod.FIND).isEmpty();
+		}
+		return reportFilterLastMatch;
+	}
+
+	// split a sort key into the fields array, like split() but without allocating a list; missing fields are blank
+	private void splitSortKey(String s, String[] fields) {
+		int start = 0;
+		for (int i = 0; i < fields.length; i++) {
+			if (start < 0) {
+				fields[i] = "";
+				continue;
+			}
+			int end = s.indexOf(sortKeySeparator, start);
+			if (end < 0) {
+				fields[i] = s.substring(start);
+				start = -1;
+			}
+			else {
+				fields[i] = s.substring(start, end);
+				start = end + sortKeySeparator.length();
+			}
+		}
+	}
+
+	private String reportXrefTitle(String tag, String status) {
+		String title = "X-ref: '"+supportOptionsDisplay.get(supportOptions.indexOf(status))+"'";
+		if (tag.equals(tagByFeature)) return title + " by SQL feature";
+		return title + " by object";
+	}
+
+	// write the X-ref sections for all statuses; with -reportoption multipage, each section goes to a separate page,
+	// and is split into a page per application when there are multiple applications
+	private void reportXref(String tag, List<String> sortedList, int appField) throws IOException {
+		Map<String, Map<String, List<String>>> byStatusApp = null;
+		for (int i=0; i <supportOptionsIterate.size(); i++) {
+			String status = supportOptionsIterate.get(i);
+			if (!isReportPage(tag, status)) {
+				reportXrefSection(tag, status, sortedList, "");
+				continue;
+			}
+
+			if (!reportShowAppName) {
+				openReportPage(getReportPageFileName(tag, status, 0));
+				boolean completed = false;
+				try {
+					reportXrefSection(tag, status, sortedList, "");
+					completed = true;
+				} finally {
+					closeReportPage(completed);
+				}
+				continue;
+			}
+
+			if (byStatusApp == null) {
+				byStatusApp = new HashMap<>();
+				for (String s : sortedList) {
+					List<String> f = Arrays.asList(s.split(sortKeySeparator));
+					if (f.size() <= appField) continue;
+					byStatusApp.computeIfAbsent(f.get(0), k -> new TreeMap<>(String.CASE_INSENSITIVE_ORDER.thenComparing(Comparator.naturalOrder()))).computeIfAbsent(f.get(appField), k -> new ArrayList<>()).add(s);
+				}
+			}
+			Map<String, List<String>> byApp = byStatusApp.getOrDefault(status, new TreeMap<>());
+
+			// one page per app, followed by the page for the status listing these
+			StringBuilder index = new StringBuilder();
+			int appNr = 0;
+			for (String app : byApp.keySet()) {
+				appNr++;
+				List<String> appList = byApp.get(app);
+				String appPage = getReportPageFileName(tag, status, appNr);
+				index.append(lineIndent + "<a href=\""+appPage+"\">"+escapeHTMLChars(app)+"</a> ("+appList.size()+" items)\n");
+				appList.add(stringRepeat(lastItem + sortKeySeparator, 20));
+				openReportPage(appPage);
+				boolean completed = false;
+				try {
+					reportXrefSection(tag, status, appList, ", app "+app);
+					completed = true;
+				} finally {
+					closeReportPage(completed);
+				}
+			}
+			byApp.clear();
+
+			// the index page is HTML only, since the .txt report already has the sections for each app
+			if (index.length() == 0) index.append("-no items to report-\n");
+			openReportPage(getReportPageFileName(tag, status, 0));
+			boolean completed = false;
+			try {
+				reportPageWriter.write(reportPageLinks(composeSeparatorBar(reportXrefTitle(tag, status), tag+status)) + "\n");
+				reportPageWriter.write(index.toString());
+				completed = true;
+			} finally {
+				closeReportPage(completed);
+			}
+		}
+	}
+
+	private void reportXrefSection(String tag, String status, List<String> sortedList, String titleSuffix) throws IOException {
+		if (tag.equals(tagByFeature)) reportXrefByFeature(status, sortedList, titleSuffix);
+		else reportXrefByObject(status, sortedList, titleSuffix);
 	}
 
-	private String completeLineByFeature(String status, StringBuilder linesTmp, List<String> lineNrs, List<String> lineNrsBatch, StringBuilder prevContext, StringBuilder prevBatchNr, StringBuilder prevLineNrInFile, StringBuilder srcFile, StringBuilder appName) {
+	private void appendLineByFeature(StringBuilder lines, String status, List<String> lineNrs, List<String> lineNrsBatch, String prevBatchNr, String prevLineNrInFile, String srcFile, String appName) {
 		String inFile = reportInputFileFmt;
-		if (reportShowSrcFile) inFile = srcFile.toString();
-		String ln = makeLineNrList(status, lineNrs, lineNrsBatch, inFile, appName.toString());
+		if (reportShowSrcFile) inFile = srcFile;
+		appendLineNrList(lines, status, lineNrs, lineNrsBatch, inFile, appName);
 
 		if (!reportShowBatchNr.isEmpty()) {
-			ln += " in batch "+ prevBatchNr.toString() + " (at line " + hLink(status, Integer.parseInt(prevLineNrInFile.toString()),inFile, appName.toString())+")";
+			lines.append(" in batch ").append(prevBatchNr).append(" (at line ").append(hLink(status, Integer.parseInt(prevLineNrInFile),inFile, appName)).append(")");
 		}
 
 		if (reportShowSrcFile && !inFile.equals(reportInputFileFmt)) {
-			ln += " in " + hLink(status, inFile, appName.toString());
+			lines.append(" in ").append(hLink(status, inFile, appName));
 		}
-		if (reportShowAppName) ln += ", app "+ appName;
-		return ln + "\n";
+		if (reportShowAppName) lines.append(", app ").append(appName);
+		lines.append("\n");
 	}
 
 	public void reportXrefByObject(String status, List<String> sortedList) throws IOException {
-		StringBuilder lines = new StringBuilder(doXrefMsg(status, "object")+"\n");
-		Integer skippedFilter = 0;
-		Integer countFilter = 0;
+		reportXrefByObject(status, sortedList, "");
+	}
 
+	public void reportXrefByObject(String status, List<String> sortedList, String titleSuffix) throws IOException {
 		//progress indicator
 		printProgress();
 
-		if (doXref(status, "object")) {
-			lines = new StringBuilder();
-			StringBuilder hdr = new StringBuilder();
-			StringBuilder contextSort = new StringBuilder();
-			StringBuilder prevContextSort = new StringBuilder();
-			StringBuilder itemGroupSort = new StringBuilder();
-			StringBuilder prevItemGroupSort = new StringBuilder();
-
-			StringBuilder group = new StringBuilder();
-			StringBuilder item = new StringBuilder();
-			StringBuilder itemDetail = new StringBuilder();
-			StringBuilder context = new StringBuilder();
-			StringBuilder lineNr = new StringBuilder();
-			StringBuilder batchNr = new StringBuilder();
-			StringBuilder lineNrSort = new StringBuilder();
-			StringBuilder lineNrInFile = new StringBuilder();
-			StringBuilder srcFile = new StringBuilder();
-			StringBuilder prevSrcFile = new StringBuilder();
-			StringBuilder appName = new StringBuilder();
-			StringBuilder prevAppName = new StringBuilder();
-
-			boolean init = false;
-			List<String> lineNrs = new ArrayList<String>();
-			List<String> lineNrsBatch = new ArrayList<String>();
+		boolean doIt = doXref(status, "object");
+		if (!doIt) {
+			if (status.equals(Rewritten)) rewriteNotes = "";
+		}
+		int itemField = 5;
+		if (!reportShowBatchNr.isEmpty()) itemField = 6;
+		Pattern filterPattern = getReportFilterPattern();
+		startReportSection(tagByObject, status, reportXrefTitle(tagByObject, status)+titleSuffix, (doIt ? sortedList : null), itemField, filterPattern);
+		if (!doIt) {
+			reportSection.append(doXrefMsg(status, "object")).append("\n");
+			endReportSection();
+			return;
+		}
+
+		String[] sortedFields = reportSortFields;
+		String prevContext = "";
+		String prevContextApp = "";
+		String prevContextSrcFile = "";
+		String prevContextBatchNr = "";
+		boolean prevContextSet = false;
+		String prevItem = "";
+		String prevGroup = "";
+		boolean prevItemSet = false;
+		String prevSrcFile = "";
+		String prevAppName = "";
 
-			for (String s: sortedList) {
-				if ((!s.startsWith(status)) && (!s.startsWith(lastItem))) continue;
-				//if (debugging) dbgOutput(thisProc()+"s=["+s+"] ", debugReport);
-
-				List<String> sortedFields = new ArrayList<String>(Arrays.asList(s.split(sortKeySeparator)));
-				context = new StringBuilder(sortedFields.get(1));
-				appName = new StringBuilder(sortedFields.get(2));
-				srcFile = new StringBuilder(getSrcFileNameMap(sortedFields.get(3)));
-				if (!reportShowBatchNr.isEmpty()) {
-					lineNrSort = new StringBuilder(sortedFields.get(4));
-					group = new StringBuilder(sortedFields.get(5).substring(groupSortLength));
-					item = new StringBuilder(sortedFields.get(6));
-				}
-				else {
-					lineNrSort = new StringBuilder(sortedFields.get(6));
-					group = new StringBuilder(sortedFields.get(4).substring(groupSortLength));
-					item = new StringBuilder(sortedFields.get(5));
-				}
-				lineNr = new StringBuilder(sortedFields.get(7));
-				batchNr = new StringBuilder(sortedFields.get(8));
-				lineNrInFile = new StringBuilder(sortedFields.get(9));
-
-				if (context.toString().equals(BatchContextLastSort)) context = new StringBuilder(BatchContext);
-
-				String batchNrSort = "";
-				if (context.toString().equalsIgnoreCase(BatchContext)) batchNrSort = batchNr.toString();
-				contextSort = new StringBuilder(createSortKey(context.toString(),appName.toString(),srcFile.toString(),batchNrSort));
-				itemGroupSort = new StringBuilder(createSortKey(item.toString(), group.toString()));
-
-				//if (debugging) dbgOutput(thisProc()+"contextSort=["+contextSort+"] ", debugReport);
-				//if (debugging) dbgOutput(thisProc()+"item=["+item+"] itemGroupSort=["+itemGroupSort+"] ", debugReport);
-
-				if (!s.startsWith(lastItem)) {
-					if (!reportOptionFilter.isEmpty()) {
-						//ToDo: perform filtering before creating sort records, keeping the data set smaller
-						String filter = "^.*"+reportOptionFilter+".*$";
-						countFilter++;
-						//if (debugging) dbgOutput(thisProc()+"filter: item=["+item.toString()+"]  reportOptionFilter=["+reportOptionFilter+"] s=["+s+"]", debugReport);
-						if (!getPatternGroup(item.toString(), "("+filter+")", 1).isEmpty()) {
-							// keep it
-							if (debugging) dbgOutput(thisProc()+"matching filter - keeping", debugReport);
-							if (debugging) dbgOutput(thisProc()+"filter: item=["+item.toString()+"]  reportOptionFilter=["+reportOptionFilter+"] s=["+s+"]", debugReport);
-						}
-						else {
-							// does not match filter, skip it
-							//if (debugging) dbgOutput(thisProc()+"no match with filter - skipping", debugReport);
-							skippedFilter++;
-							continue;
-						}
-					}
+		boolean init = false;
+		List<String> lineNrs = new ArrayList<String>();
+		List<String> lineNrsBatch = new ArrayList<String>();
+
+		for (String s: sortedList) {
+			if ((!s.startsWith(status)) && (!s.startsWith(lastItem))) continue;
+			boolean isLastItem = s.startsWith(lastItem);
+			//if (debugReport) dbgOutput(thisProc()+"s=["+s+"] ", debugReport);
+
+			splitSortKey(s, sortedFields);
+			String context = sortedFields[1];
+			String appName = sortedFields[2];
+			String srcFile = getSrcFileNameMap(sortedFields[3]);
+			String group;
+			String item;
+			if (!reportShowBatchNr.isEmpty()) {
+				group = sortedFields[5].substring(groupSortLength);
+				item = sortedFields[6];
+			}
+			else {
+				group = sortedFields[4].substring(groupSortLength);
+				item = sortedFields[5];
+			}
+			String lineNr = sortedFields[7];
+			String batchNr = sortedFields[8];
+			String lineNrInFile = sortedFields[9];
+
+			if (context.equals(BatchContextLastSort)) context = BatchContext;
+
+			String batchNrSort = "";
+			if (context.equalsIgnoreCase(BatchContext)) batchNrSort = batchNr;
+			boolean sameContext = prevContextSet && context.equalsIgnoreCase(prevContext) && appName.equalsIgnoreCase(prevContextApp) && srcFile.equalsIgnoreCase(prevContextSrcFile) && batchNrSort.equalsIgnoreCase(prevContextBatchNr);
+			boolean sameItem = prevItemSet && item.equalsIgnoreCase(prevItem) && group.equalsIgnoreCase(prevGroup);
+
+			if (!isLastItem && (filterPattern != null)) {
+				//ToDo: perform filtering before creating sort records, keeping the data set smaller
+				if (!matchesReportFilter(item, filterPattern)) {
+					// does not match filter, skip it
+					continue;
 				}
+				if (debugReport) dbgOutput(thisProc()+"filter: item=["+item+"]  reportOptionFilter=["+reportOptionFilter+"] s=["+s+"]", debugReport);
+			}
 
-				boolean changedContext = false;
-				if (!contextSort.toString().equalsIgnoreCase(prevContextSort.toString()) && !s.startsWith(lastItem)) {
-					changedContext = true;
+			boolean changedContext = false;
+			if (!sameContext && !isLastItem) {
+				changedContext = true;
+				flushReportSection(false);
 
-					// complete the current line
-					if (init) {
-						lines.append(completeLineByObject(status, lineNrs, lineNrsBatch, prevSrcFile, prevAppName));
-					}
-					lineNrs.clear();
-					lineNrsBatch.clear();
+				// complete the current line
+				if (init) {
+					appendLineByObject(reportSection, status, lineNrs, lineNrsBatch, prevSrcFile, prevAppName);
+				}
+				lineNrs.clear();
+				lineNrsBatch.clear();
 
-					if (!init) init = true;
-					else lines.append("\n");
+				if (!init) init = true;
+				else reportSection.append("\n");
 
-					String anchor = makeObjectAnchor(context.toString(), appName.toString());
+				String anchor = makeObjectAnchor(context, appName);
 
-					lines.append(anchor + context);
-					lines.append(", batch ");
+				reportSection.append(anchor).append(context);
+				reportSection.append(", batch ");
 
-					String inFile = reportInputFileFmt;
-					if (reportShowSrcFile) inFile = srcFile.toString();
-					String lnk = hLink(status, Integer.parseInt(lineNrInFile.toString()),inFile, appName.toString());
-					lines.append(batchNr.toString()+ ", at line " + lnk);
-					lines.append(" in " + hLink(status, inFile, appName.toString()));
+				String inFile = reportInputFileFmt;
+				if (reportShowSrcFile) inFile = srcFile;
+				String lnk = hLink(status, Integer.parseInt(lineNrInFile),inFile, appName);
+				reportSection.append(batchNr).append(", at line ").append(lnk);
+				reportSection.append(" in ").append(hLink(status, inFile, appName));
 
-					if (reportShowAppName) lines.append(", app "+ appName);
-					lines.append("\n");
+				if (reportShowAppName) reportSection.append(", app ").append(appName);
+				reportSection.append("\n");
+			}
 
-					prevContextSort = new StringBuilder(contextSort);
+			if (!isLastItem) {
+				if (reportShowBatchNr.isEmpty())  {
+					lineNr = Integer.toString(Integer.parseInt(lineNr) + Integer.parseInt(lineNrInFile) - 1);
 				}
+			}
 
-				if (!s.startsWith(lastItem)) {
-					if (reportShowBatchNr.isEmpty())  {
-						lineNr = new StringBuilder(Integer.toString(Integer.parseInt(lineNr.toString()) + Integer.parseInt(lineNrInFile.toString()) - 1));
-					}
-				}
-
-				if ((!prevItemGroupSort.toString().equalsIgnoreCase(itemGroupSort.toString()) && !s.startsWith(lastItem)) || changedContext) {
-					if (!changedContext) {
-						// complete the current line
-						lines.append(completeLineByObject(status, lineNrs, lineNrsBatch, prevSrcFile, prevAppName));
-						lineNrs.clear();
-						lineNrsBatch.clear();
-					}
-					String itemComplexity = "";
-					if (reportComplexityScore) {
-						if (!status.equals(Supported)) itemComplexity = "["+ getComplexityEffort(CompassConfig.complexityTag, item.toString(), group.toString(), status).toLowerCase() + "]";
-					}
-					lines.append(lineIndent+item.toString()+" ("+group.toString()+") "+itemComplexity+" : line ");
+			if ((!sameItem && !isLastItem) || changedContext) {
+				if (!changedContext) {
+					// complete the current line
+					appendLineByObject(reportSection, status, lineNrs, lineNrsBatch, prevSrcFile, prevAppName);
+					lineNrs.clear();
+					lineNrsBatch.clear();
 				}
-				if (!s.startsWith(lastItem)) {
-					lineNrs.add(lineNr.toString());
-					lineNrsBatch.add(lineNrInFile.toString());
+				String itemComplexity = "";
+				if (reportComplexityScore) {
+					if (!status.equals(Supported)) itemComplexity = "["+ getComplexityEffort(CompassConfig.complexityTag, item, group, status).toLowerCase() + "]";
 				}
-				changedContext = false;
+				reportSection.append(lineIndent).append(item).append(" (").append(group).append(") ").append(itemComplexity).append(" : line ");
+			}
+			if (!isLastItem) {
+				lineNrs.add(lineNr);
+				lineNrsBatch.add(lineNrInFile);
+			}
 
-				if (s.startsWith(lastItem)) {
-					if (lineNrs.size() > 0) {
-						lines.append(completeLineByObject(status, lineNrs, lineNrsBatch, prevSrcFile, prevAppName));
-						break;
-					}
+			if (isLastItem) {
+				if (lineNrs.size() > 0) {
+					appendLineByObject(reportSection, status, lineNrs, lineNrsBatch, prevSrcFile, prevAppName);
+					break;
 				}
-
-				prevContextSort = new StringBuilder(contextSort);
-				prevItemGroupSort = new StringBuilder(itemGroupSort);
-				prevSrcFile = new StringBuilder(srcFile);
-				prevAppName = new StringBuilder(appName);
 			}
-		}
-		else {
-			if (status.equals(Rewritten)) rewriteNotes = "";
-		}
 
-		String filterMsg = "";
-		if (skippedFilter > 0) {
-			filterMsg = "Filter applied: "+skippedFilter.toString()+" of " + countFilter.toString()+" items skipped by filter '"+reportOptionFilter+"'\n\n";
+			prevContextSet = true;
+			prevContext = context;
+			prevContextApp = appName;
+			prevContextSrcFile = srcFile;
+			prevContextBatchNr = batchNrSort;
+			prevItemSet = true;
+			prevItem = item;
+			prevGroup = group;
+			prevSrcFile = srcFile;
+			prevAppName = appName;
 		}
-
-		if (lines.toString().trim().length() == 0) {
-			lines = new StringBuilder("-no items to report-\n");
-		}
-		writeReportFile();
-		writeReportFile(composeSeparatorBar("X-ref: '"+supportOptionsDisplay.get(supportOptions.indexOf(status))+"' by object", tagByObject+status));
-		writeReportFile(filterMsg);
-		if (status.equals(Rewritten) && !rewriteNotes.isEmpty()) {
-			writeReportFile(rewriteNotes);
-		}
-		writeReportFile(lines);
+		endReportSection();
 	}
 
-	private String completeLineByObject(String status, List<String> lineNrs, List<String> lineNrsBatch, StringBuilder srcFile, StringBuilder appName) {
+	private void appendLineByObject(StringBuilder lines, String status, List<String> lineNrs, List<String> lineNrsBatch, String srcFile, String appName) {
 		String inFile = reportInputFileFmt;
-		if (reportShowSrcFile) inFile = srcFile.toString();
+		if (reportShowSrcFile) inFile = srcFile;
 
-		String ln = makeLineNrList(status, lineNrs, lineNrsBatch, inFile, appName.toString());
+		appendLineNrList(lines, status, lineNrs, lineNrsBatch, inFile, appName);
 //		if (reportShowSrcFile && !inFile.equals(reportInputFileFmt)) {
 //			ln += " in " + hLink(inFile, appName.toString());
 //		}
-		return ln + "\n";
+		lines.append("\n");
 	}
 
 	private boolean doXref(String status, String type) {
@@ -5598,25 +5847,24 @@ tooltipsHTMLPlaceholder +
 		return s;
 	}
 
-	private String makeLineNrList(String status, List<String> lineNrs, List<String> lineNrsBatch, String fileName, String appName) {
+	private void appendLineNrList(StringBuilder lines, String status, List<String> lineNrs, List<String> lineNrsBatch, String fileName, String appName) {
 		int nrLineNrs = lineNrs.size();
-		String xtra = "";
 		if (maxLineNrsInList < nrLineNrs) {
-			xtra = " (+"+Integer.toString(nrLineNrs-maxLineNrsInList)+" more)";
 			nrLineNrs = maxLineNrsInList;
 		}
-		String joined = "";
 		for (int i=0; i < nrLineNrs; i++) {
-			if (i > 0) joined += ", ";
+			if (i > 0) lines.append(", ");
 			int lineNr = Integer.parseInt(lineNrs.get(i));
 			int adjLineNr = lineNr;
 			if (!reportShowBatchNr.isEmpty()) {
 				int batchLineNr = Integer.parseInt(lineNrsBatch.get(i));
 				adjLineNr = batchLineNr + lineNr - 1;
 			}
-			joined += hLink(status, lineNr, fileName, appName, adjLineNr);
+			lines.append(hLink(status, lineNr, fileName, appName, adjLineNr));
+		}
+		if (nrLineNrs < lineNrs.size()) {
+			lines.append(" (+").append(lineNrs.size()-nrLineNrs).append(" more)");
 		}
-		return joined.trim() + xtra;
 	}
 
 	private String makeItemHintKey (String s) {
@@ -5643,11 +5891,26 @@ tooltipsHTMLPlaceholder +
 	}
 
 	private String getItemHintKey (String item, String status) {
+		itemHintKeyCall++;
+		String cacheKey = status+"~"+item;
+		if (!debugging) {
+			String cached = itemHintKeyCache.get(cacheKey);
+			if (cached != null) {
+				itemHintKeyCached++;
+				return cached;
+			}
+		}
+		String itemHintKey = resolveItemHintKey(item, status);
+		itemHintKeyCache.put(cacheKey, itemHintKey);
+		return itemHintKey;
+	}
+
+	private String resolveItemHintKey (String item, String status) {
 		//find tooltip key for this item
 		String itemHintKey = "";
 		String itemOrig = item;
 		item = makeItemHintKey(item, status);
-		if (debugging) dbgOutput(thisProc()+"item=["+item+"] itemOrig=["+itemOrig+"] status=["+status+"] ", debugPopup);
+		if (debugPopup) dbgOutput(thisProc()+"item=["+item+"] itemOrig=["+itemOrig+"] status=["+status+"] ", debugPopup);
 
 		if (toolTipsKeys.containsKey(item)) {
 			itemHintKey = item;
@@ -5660,26 +5923,26 @@ tooltipsHTMLPlaceholder +
 				String keyStatus = getPatternGroup(k, "("+ReviewManually+"|"+ReviewSemantics+"|"+ReviewPerformance+")$", 1);
 				if (keyStatus.isEmpty()) continue;
 				if (keyStatus.equalsIgnoreCase(status)) {
-					if (debugging) dbgOutput(thisProc()+"found matching status k=["+k+"] v=["+v+"] keyStatus=["+keyStatus+"] ", debugPopup);
+					if (debugPopup) dbgOutput(thisProc()+"found matching status k=["+k+"] v=["+v+"] keyStatus=["+keyStatus+"] ", debugPopup);
 					if (item.equalsIgnoreCase(k)) {
 						itemHintKey = k;
-						if (debugging) dbgOutput(thisProc()+"match on equals(k) ", debugPopup);
+						if (debugPopup) dbgOutput(thisProc()+"match on equals(k) ", debugPopup);
 						break;
 					}
 					if (item.startsWith(k)) {
 						itemHintKey = k;
-						if (debugging) dbgOutput(thisProc()+"match on startwith(k) ", debugPopup);
+						if (debugPopup) dbgOutput(thisProc()+"match on startwith(k) ", debugPopup);
 						break;
 					}
 					if (itemOrig.toLowerCase().startsWith(v)) {
 						itemHintKey = k;
-						if (debugging) dbgOutput(thisProc()+"match on startwith(v) ", debugPopup);
+						if (debugPopup) dbgOutput(thisProc()+"match on startwith(v) ", debugPopup);
 						break;
 					}
 					if (v.contains("\\")) {
 						if (!getPatternGroup(itemOrig, "^("+v+")", 1).isEmpty()) {
 							itemHintKey = k;
-							if (debugging) dbgOutput(thisProc()+"match on pattern ", debugPopup);
+							if (debugPopup) dbgOutput(thisProc()+"match on pattern ", debugPopup);
 							break;
 						}
 					}
@@ -5691,38 +5954,38 @@ tooltipsHTMLPlaceholder +
 					String k = toolTipsKeysList.get(i);
 					String v = toolTipsKeys.get(k);
 					String keyStatus = getPatternGroup(k, "("+ReviewManually+"|"+ReviewSemantics+"|"+ReviewPerformance+")$", 1);
-					if (debugging) dbgOutput(thisProc()+"k=["+k+"] v=["+v+"] keyStatus=["+keyStatus+"] ", debugPopup);
+					if (debugPopup) dbgOutput(thisProc()+"k=["+k+"] v=["+v+"] keyStatus=["+keyStatus+"] ", debugPopup);
 					if (!keyStatus.isEmpty()) continue;
 
 					if (item.equalsIgnoreCase(k)) {
 						itemHintKey = k;
-						if (debugging) dbgOutput(thisProc()+"match on equals(k) ", debugPopup);
+						if (debugPopup) dbgOutput(thisProc()+"match on equals(k) ", debugPopup);
 						break;
 					}
 					if (item.startsWith(k)) {
 						itemHintKey = k;
-						if (debugging) dbgOutput(thisProc()+"match on startwith(k) ", debugPopup);
+						if (debugPopup) dbgOutput(thisProc()+"match on startwith(k) ", debugPopup);
 						break;
 					}
 					if (itemOrig.toLowerCase().startsWith(v)) {
 						itemHintKey = k;
-						if (debugging) dbgOutput(thisProc()+"match on startwith(v) ", debugPopup);
+						if (debugPopup) dbgOutput(thisProc()+"match on startwith(v) ", debugPopup);
 						break;
 					}
 					if (v.contains("\\")) {
 						if (!getPatternGroup(itemOrig, "^("+v+")", 1).isEmpty()) {
 							itemHintKey = k;
-							if (debugging) dbgOutput(thisProc()+"match on pattern ", debugPopup);
+							if (debugPopup) dbgOutput(thisProc()+"match on pattern ", debugPopup);
 							break;
 						}
 					}
 				}
 			}
 			if (itemHintKey.isEmpty()) {
-				if (debugging) dbgOutput(thisProc()+"no tooltip key found for item=["+itemOrig+"] ", debugPopup);
+				if (debugPopup) dbgOutput(thisProc()+"no tooltip key found for item=["+itemOrig+"] ", debugPopup);
 			}
 		}
-		if (debugging) dbgOutput(thisProc()+"final: itemOrig=["+itemOrig+"] item=["+item+"]  itemHintKey=["+itemHintKey+"] status=["+status+"] ", debugPopup);
+		if (debugPopup) dbgOutput(thisProc()+"final: itemOrig=["+itemOrig+"] item=["+item+"]  itemHintKey=["+itemHintKey+"] status=["+status+"] ", debugPopup);
 		return itemHintKey;
 	}
 
@@ -5846,6 +6109,7 @@ tooltipsHTMLPlaceholder +
 		if (anchor == null) { // don't overwrite an existing entry
 			anchor = "obj" + (objectAnchorsMap.size()+1);
 			objectAnchorsMap.put(anchorKey, anchor);
+			if (reportPageWriter != null) objectAnchorsPage.put(anchor, reportPageFileName);
 		}
 		anchor = "<a name=\"" + "obj" + anchor + "\"></a>";
 		return anchor;
@@ -5855,7 +6119,7 @@ tooltipsHTMLPlaceholder +
 		String anchorKey = getObjectAnchorKey(context, appName);
 		String anchor = objectAnchorsMap.get(anchorKey);
 		if (anchor != null) {
-			anchor = "<a href=\"#" + "obj" + anchor + "\">";
+			anchor = "<a href=\"" + objectAnchorsPage.getOrDefault(anchor, "") + "#" + "obj" + anchor + "\">";
 		}
 		else {
 			anchor = "";
@@ -5933,10 +6197,12 @@ tooltipsHTMLPlaceholder +
 	}
 
 	private String tocLink(String tag, String txt1, String txt2, String status) {
+		String page = "";
+		if (isReportPage(tag, status)) page = getReportPageFileName(tag, status, 0);
 		tag = tag.toLowerCase() + status.toLowerCase();
 		String statusFmt = "";
 		if (!status.isEmpty()) statusFmt = supportOptionsDisplay.get(supportOptions.indexOf(status));
-		String s = lineIndent + "<a href=\"#"+tag+"\">"+ txt1 + statusFmt + txt2 +"</a>\n";
+		String s = lineIndent + "<a href=\""+page+"#"+tag+"\">"+ txt1 + statusFmt + txt2 +"</a>\n";
 		return s;
 	}
 
@@ -5969,146 +6235,23 @@ tooltipsHTMLPlaceholder +
 		return s;
 	}
 
-	public boolean createReport(String reportName) throws IOException {
-		if (debugging) dbgOutput(thisProc()+"reportOptionXref=["+reportOptionXref+"] ", debugReport);
-		if (debugging) dbgOutput(thisProc()+"reportOptionStatus=["+reportOptionStatus+"] ", debugReport);
-		if (debugging) dbgOutput(thisProc()+"reportOptionDetail=["+reportOptionDetail+"] ", debugReport);
-		if (debugging) dbgOutput(thisProc()+"reportOptionApps=["+reportOptionApps+"] ", debugReport);
-		if (debugging) dbgOutput(thisProc()+"reportOptionFilter=["+reportOptionFilter+"] ", debugReport);	
-
-		String complexityReportPlaceholder = "BBF_COMPLEXITYREPORTPLACEHOLDER";
-		String execSummaryPlaceholder = "BBF_EXECSUMMARYPLACEHOLDER";
-		String execSummaryObjCountPlaceholder = "BBF_EXECSUMMARYOBJCOUNTPLACEHOLDER";
-
-		// upgrade check for Compass 1.0/1.1 reports
-		if (!reportOptionXref.isEmpty()) {
-			// move any HTML files
-			moveImportedHTMLFiles(reportName);
-		}
-
-		// check for existence of rewritten files when the report is generated without analysis at the same time
-  		if (!rewrite && !Compass.reAnalyze)  {
-			File reportDir = new File(getReportDirPathname(reportName, rewrittenDirName));
-	 		if (reportDir.exists()) {
-				rewriteReportOnly = true;
-				rewrite = true;
-				if (debugging) dbgOutput(thisProc()+"rewriteReportOnly=["+rewriteReportOnly+"] ", debugReport);
-			}
-		}
-   		if (rewrite)  {
-     		supportOptionsIterate = Arrays.asList(NotSupported, ReviewManually, ReviewSemantics, ReviewPerformance, Ignored, Rewritten, Supported);
-    	}
-		// get all capture files
-		List<Path> captureFiles = getCaptureFiles(reportName);
-		if (debugging) dbgOutput(thisProc() + "captureFiles(" + captureFiles.size() + ")=[" + captureFiles + "] ", debugReport);
-		if (captureFiles.size() == 0) {
-			List<Path> importedFiles = getImportFiles(reportName);
-			if (importedFiles.size() == 0) {
-				appOutput("No imported files found. Specify input file(s) to add to this report.");
-			}
-			else {
-				String msg = "\nNo analysis results found. Use -analyze to perform analysis and generate a report.";
-				appOutput(msg);
-			}
-			errorExit();
-		}
-		String cfv = captureFilesValid("report", captureFiles);
-		if (!cfv.isEmpty()) {
-			// print error message and exit
-			appOutput(cfv);
-			errorExit();
-		}
-
-		// generic init
-		Date now = new Date();
-		String now_report = new SimpleDateFormat("yyyy-MMM-dd HH:mm:ss").format(now);
-		reportFileTextPathName = getReportFilePathName(reportName, now);
-		reportFileHTMLPathName = getReportFileHTMLPathname(reportName, now);
-		CSVFilePathName = getCSVFilePathName(reportFileTextPathName);
-		reportFilePathName = reportFileHTMLPathName;
-		appOutput("");
-		appOutput("Generating report " + reportFilePathName + "...", false, true);
-
-		String line = "";
-
-		openReportFile(reportName);
-
-		String hdrLine = "Report for: " + reportName + " : Generated at " + now_report;
-		writeReportFile(hdrLine);
-		writeReportFile(stringRepeat("-", hdrLine.length()));
-
-		writeReportFile("\n" + thisProgName + " version " + thisProgVersion + ", " + thisProgVersionDate);
-		writeReportFile(thisProgNameLong);
-		writeReportFile(copyrightLine + "\n");
-		writeReportFile(disclaimerMsg + "\n");
-		writeReportFile(docLinkIcon + " " +docLinkURL + "\n\n");
-		writeReportFile(composeOutputLine("--- Report Setup ", "-"));
-		writeReportFile(reportHdrLines);
-		writeReportFile("This report                : "+reportFilePathName);
-		writeReportFile("Session log                : "+hLink("", sessionLogPathName));
-		writeReportFile(composeOutputLine("", "=") + "\n");
-
-		if (!newVersionAvailable.isEmpty()) {
-			writeReportFile("Note: "+newVersionAvailable+"\n");
-			writeReportFile(composeOutputLine("", "=") + "\n");
-		}
-
-
-		Map<String, Integer> appCount = new HashMap<>();
-		Map<String, Integer> srcFileCount = new HashMap<>();
-		Map<String, Integer> objTypeCount = new HashMap<>();
-		Map<String, Integer> objTypeLineCount = new HashMap<>();
-		Map<String, String>  objTypeMap = new HashMap<>();
-		Map<String, String>  objTypeMapCase = new HashMap<>();
-		Map<String, Integer> objTypeMapCount = new HashMap<>();
-		Map<String, Integer> objIssueCount = new HashMap<>();
-		List<String> objComplexityCountTmp = new ArrayList<String>();
-		Map<String, List<Integer>> objComplexityCount = new HashMap<>();
-		Map<String, List<Integer>> objTypeComplexityCount = new HashMap<>();
-		int linesSQLInObjects = 0;
-		boolean showObjectIssuesList = false;
-		Map<String, Long> statusCount = new HashMap<>();
-		Map<String, Integer> itemCount = new HashMap<>();
-		Map<String, Integer> appItemListRaw = new HashMap<>();
-		Map<String, String> appItemList = new LinkedHashMap<>();
-		List<String> xRefByFeature = new ArrayList<String>();
-		List<String> xRefByObject = new ArrayList<String>();
-
-		String currentAppName = "";
-		String currentSrcFile = "";
-
-		// init map
-		addSrcFileNameMap(lastItem, lastItem);
-		xrefLineFilter.clear();
-
-		// check flag
-		if (!reportOptionXref.isEmpty()) showObjectIssuesList = true;
-
-		// sanity check
-		assert supportOptions.size() == supportOptionsCfgFile.size() : "supportOptions.size() [" + supportOptions.size() + "] must be equal to supportOptionsCfgFile.size() " + supportOptionsCfgFile.size() + "]";
-		assert supportOptions.size() == supportOptionsDisplay.size() : "supportOptions.size() [" + supportOptions.size() + "] must be equal to supportOptionsDisplay.size() " + supportOptionsDisplay.size() + "]";
-		assert supportOptions.size() == supportOptionsWeightDefault.size() : "supportOptions.size() [" + supportOptions.size() + "] must be equal to supportOptionsWeightDefault.size() " + supportOptionsWeightDefault.size() + "]";
-
-		// set up arrays for processing groups of statuses
-		String fmtBatches = "batches";
-		String fmtLinesSQL = "linesSQL";
-		String fmtLinesTotal = "linesDDL";
-		String fmtLinesTotalFeatures = "totalFeatures";
-		List<String> fmtStatus = new ArrayList<String>(Arrays.asList("apps", "inputfiles", fmtBatches, fmtLinesTotal, fmtLinesSQL, fmtLinesTotalFeatures));
-		List<String> fmtStatusDisplay = new ArrayList<String>(Arrays.asList("#applications", "#input files", "#SQL batches", "#lines SQL/DDL processed", "#lines SQL in objects", "Total #SQL features"));
-		for (int i = 0; i < supportOptions.size(); i++) {
-			fmtStatus.add(supportOptions.get(i));
-			fmtStatusDisplay.add(supportOptionsDisplay.get(i));
-		}
-
-		// adjust category ordering
-		setupreportGroupSortAdjustment();
-
-		// process captured items
-		constructsFound = 0;
-		Integer totalLinesDDL = 0;
-		int totalBatches = 0;
-		int totalErrorBatches = 0;
+	// read the captured items of these capture files into the aggregate
+	private void readCaptureFiles(String reportName, List<Path> captureFiles, ReportAggregate agg, ReportItemExport itemExport, ObjectGraph.Builder objectGraph) throws IOException {
+		Map<String, Integer> appCount = agg.appCount;
+		Map<String, Integer> srcFileCount = agg.srcFileCount;
+		Map<String, Integer> objTypeCount = agg.objTypeCount;
+		Map<String, Integer> objTypeLineCount = agg.objTypeLineCount;
+		Map<String, String>  objTypeMap = agg.objTypeMap;
+		Map<String, String>  objTypeMapCase = agg.objTypeMapCase;
+		Map<String, Integer> objTypeMapCount = agg.objTypeMapCount;
+		Map<String, Integer> objIssueCount = agg.objIssueCount;
+		List<String> objComplexityCountTmp = agg.objComplexityCountTmp;
+		Map<String, Long> statusCount = agg.statusCount;
+		Map<String, Integer> itemCount = agg.itemCount;
+		Map<String, Integer> appItemListRaw = agg.appItemListRaw;
+		List<String> xRefByFeature = agg.xRefByFeature;
+		List<String> xRefByObject = agg.xRefByObject;
+		boolean showObjectIssuesList = !reportOptionXref.isEmpty();
 
 		long sortSizeSummary = 0L;
 		long sortSizeXRefByFeature = 0L;
@@ -6129,116 +6272,80 @@ tooltipsHTMLPlaceholder +
 			}
 			if (importFilePathName == null) importFilePathName = getImportFilePathNameFromCaptured(cf.toString());			
 
-			FileInputStream cfis = new FileInputStream(new File(cf.toString()));
-			InputStreamReader cfisr = new InputStreamReader(cfis, StandardCharsets.UTF_8);
-			BufferedReader capFile = new BufferedReader(cfisr);
-			if (debugging) dbgOutput(thisProc() + "reading captureFile=[" + cf + "]", debugReport);
+			CaptureRecordReader capFile = new CaptureRecordReader(cf.toString(), true);
+			if (debugReport) dbgOutput(thisProc() + "reading captureFile=[" + cf + "]", debugReport);
+			if (debugReport) dbgOutput("first line of cf=[" + cf.toString() + "] : [" + cfLine + "] ", debugReport);
 
 			String capLine = "";
 			int capCount = 0;
 
-			while (true) {
-				capLine = capFile.readLine();
-				if (capLine == null) {
-					//EOF
-					break;
-				}
-				capLine = capLine.trim();
-				if (capLine.isEmpty()) continue;
-				if (capLine.charAt(0) == '#') {
-					if (capCount == 0) {
-						if (debugging) dbgOutput("first line of cf=[" + cf.toString() + "] : [" + capLine + "] ", debugReport);
-					}
-					continue;
-				}
+			while (capFile.next()) {
+				capLine = capFile.getLine();
 				capCount++;
 				if (debugging) if (capCount%100000 == 0) dbgOutput("read "+capCount, debugReport);
 
 				// check for metrics lines
-				if (capLine.charAt(0) == metricsLineChar1) {
-					String metricsLine = getPatternGroup(capLine, "^." + metricsLineTag + "=(.*)$", 1);
-
-					assert !metricsLine.isEmpty() : "metricsLine cannot be blank";
-
-					List<String> tmpList = new ArrayList<String>(Arrays.asList(metricsLine.split(captureFileSeparator)));
-					String srcFileTmp = tmpList.get(0);
-					String appNameTmp = tmpList.get(1);
-					totalBatches += Integer.parseInt(tmpList.get(2));
-					totalErrorBatches += Integer.parseInt(tmpList.get(3));
-					int loc = Integer.parseInt(tmpList.get(4));
-					totalLinesDDL += loc;
+				if (capFile.isMetricsLine()) {
+					assert capFile.getFieldCount() > 0 : "metricsLine cannot be blank";
+
+					String srcFileTmp = capFile.getField(0);
+					String appNameTmp = capFile.getField(1);
+					agg.totalBatches += Integer.parseInt(capFile.getField(2));
+					agg.totalErrorBatches += Integer.parseInt(capFile.getField(3));
+					int loc = Integer.parseInt(capFile.getField(4));
+					agg.totalLinesDDL += loc;
 					appCount.put(appNameTmp, appCount.getOrDefault(appNameTmp, 0) + loc);
 					srcFileCount.put(srcFileTmp, srcFileCount.getOrDefault(srcFileTmp, 0) + 1);
+					if (itemExport != null) {
+						itemExport.writeMetrics(srcFileTmp, appNameTmp, capFile.getField(2), capFile.getField(3), capFile.getField(4));
+					}
 
 					continue;
 				}
-				//un-escape backslashes
-				if (capLine.contains("\\\\")) {
-					capLine = applyPatternAll(capLine, "\\\\\\\\", "\\\\");
-				}
 
-				List<String> itemList = new ArrayList<String>(Arrays.asList(capLine.split(captureFileSeparator)));
 				// sanity checks on #fields on the line read
-				if (itemList.size() < capPosLastField) {
+				if (capFile.getFieldCount() < capPosLastField) {
 					appOutput("\nError at line "+capCount+" of "+cf.toString()+":");
-					appOutput("Invalid capture item read: expected "+(capPosLastField)+" fields, found "+itemList.size()+". Skipping this item:");
+					appOutput("Invalid capture item read: expected "+(capPosLastField)+" fields, found "+capFile.getFieldCount()+". Skipping this item:");
 					appOutput("["+capLine+"]");
 					continue;
 				}
 
-				String objType = getPatternGroup(itemList.get(capPosItem), "^CREATE (OR ALTER )?(.*)$", 2);
-				if (objType.isEmpty()) {
-					objType = getPatternGroup(itemList.get(capPosItem), "^Constraint (.*?)(\\(.*)?$", 1);
-					String objTypeTmp = getPatternGroup(objType, "^(.*?),.*$", 1);
-					objType = objTypeTmp.isEmpty() ? objType : objTypeTmp;
-					if (!objType.isEmpty()) {
-						objType = "constraint " + objType;
-					}
-				}
-				else {
-					if (objType.startsWith("TYPE")) {
-						objType = objType.replaceFirst("TYPE", "user-defined datatype (UDD)");
-					}
-					else if (objType.startsWith("INDEX")) {
-						objType = objType.replaceFirst("INDEX", "index");
-					}
-					else if (objType.startsWith("DATABASE")) {
-						objType = objType.substring(0, "DATABASE".length());
-					}
-					else if (objType.startsWith("PROCEDURE")) {
-						objType = "PROCEDURE";
-					}
-				}
-				String item = itemList.get(capPosItem).replaceAll(captureFileSeparatorMarker, captureFileSeparator);
-				String itemDetail = itemList.get(capPosItemDetail).replaceAll(captureFileSeparatorMarker, captureFileSeparator);
-				String itemGroup = itemList.get(capPosItemGroup).replaceAll(captureFileSeparatorMarker, captureFileSeparator);
-				String status = itemList.get(capPosStatus);
-				String lineNr = itemList.get(capPosLineNr);
-				String context = itemList.get(capPosContext).replaceAll(captureFileSeparatorMarker, captureFileSeparator);
-				String subContext = itemList.get(capPosSubContext).replaceAll(captureFileSeparatorMarker, captureFileSeparator);
-				String appName = itemList.get(capPosAppName);
-				String batchNr = itemList.get(capPosBatchNr);
-				String lineNrInFile = itemList.get(capPosLineNrInFile);
-				String srcFile = itemList.get(capPosSrcFile);
-				String misc = itemList.get(capPosMisc);
-
-				if (debugging) dbgOutput(thisProc() + "capLine=[" + capLine + "] objType=[" + objType + "] item=[" + item + "] itemDetail=[" + itemDetail + "] itemGroup=[" + itemGroup + "] status=[" + status + "] lineNr=[" + lineNr + "] misc=[" + misc + "] ", debugReport);
+				String objType = capFile.getObjType();
+				String item = capFile.getFieldUnmasked(capPosItem);
+				String itemDetail = capFile.getFieldUnmasked(capPosItemDetail);
+				String itemGroup = capFile.getFieldUnmasked(capPosItemGroup);
+				String status = capFile.getStatus();
+				String lineNr = capFile.getField(capPosLineNr);
+				String context = capFile.getFieldUnmasked(capPosContext);
+				String subContext = capFile.getFieldUnmasked(capPosSubContext);
+				String appName = capFile.getField(capPosAppName);
+				String batchNr = capFile.getField(capPosBatchNr);
+				String lineNrInFile = capFile.getField(capPosLineNrInFile);
+				String srcFile = capFile.getField(capPosSrcFile);
+				String misc = capFile.getField(capPosMisc);
+
+				if (debugReport) dbgOutput(thisProc() + "capLine=[" + capLine + "] objType=[" + objType + "] item=[" + item + "] itemDetail=[" + itemDetail + "] itemGroup=[" + itemGroup + "] status=[" + status + "] lineNr=[" + lineNr + "] misc=[" + misc + "] ", debugReport);
 				assert supportOptions.contains(status) : "Invalid status value[" + status + "] in line=[" + capLine + "] ";
 
+				if (objectGraph != null) {
+					objectGraph.add(appName, context, itemDetail, status);
+				}
+
 				// skip dependency records
 				if (status.equals(ObjectReference)) {
 					continue;
 				}
-				
+			
 				// filter out the rewriteoppty cases before going any further
 				if (status.equals(RewriteOppty)) {
 					if (!rewrite) {
 						// report the oppties
-						if (!rewriteOppties.containsKey(item)) {
-							rewriteOppties.put(rewriteOpptiesUnique, rewriteOppties.getOrDefault(rewriteOpptiesUnique, 0)+1);
+						if (!agg.rewriteOppties.containsKey(item)) {
+							agg.rewriteOppties.put(rewriteOpptiesUnique, agg.rewriteOppties.getOrDefault(rewriteOpptiesUnique, 0)+1);
 						}						
-						rewriteOppties.put(item, rewriteOppties.getOrDefault(item, 0)+1);
-						rewriteOppties.put(rewriteOpptiesTotal, rewriteOppties.getOrDefault(rewriteOpptiesTotal, 0)+1);
+						agg.rewriteOppties.put(item, agg.rewriteOppties.getOrDefault(item, 0)+1);
+						agg.rewriteOppties.put(rewriteOpptiesTotal, agg.rewriteOppties.getOrDefault(rewriteOpptiesTotal, 0)+1);
 					}
 					else {
 						// report the actual rewritten case, discard the oppties
@@ -6250,32 +6357,19 @@ tooltipsHTMLPlaceholder +
 					if (!status.equals(Ignored) && (!status.equals(XRefOnly))) {
 						// massage the object type strings to the format we need for the object count output section
 						if ((!objType.equals("constraint column DEFAULT")) && (!objType.equals("constraint PRIMARY KEY/UNIQUE"))) {
-							objType = applyPatternFirst(objType, "^(.*?,.*?),.*$", "$1");
-							if (objType.startsWith("PARTITION FUNCTION,")) objType = "PARTITION FUNCTION";
-							if (objType.startsWith("TRIGGER,")) objType = "TRIGGER";
-							if (objType.startsWith("SYNONYM")) objType = "SYNONYM";
-							if (objType.startsWith("TRIGGER (DDL")) {
-								objType = "TRIGGER (DDL)";
+							objType = capFile.getObjTypeCounted();
+							if (objType.equals("TRIGGER (DDL)")) {
 								if (misc.equals("0")) {
 									// this comes from a multi-action DDL trigger, count avoid counting double
 									objTypeCount.put(objType, objTypeCount.getOrDefault(objType, 0) - 1);
 								}
 							}
-							objType = objType.replaceFirst(", external", "");
-							objType = objType.replaceFirst(", CLUSTERED", "");
-							if (objType.contains("<"))  // for cases like CREATE xxx <somename>
-								objType = objType.substring(0,objType.indexOf("<"));
-							if (objType.contains("&"))  // for cases like CREATE xxx &gt;somename&lt;
-								objType = objType.substring(0,objType.indexOf("&"));
-							if (objType.contains(captureFileSeparatorMarker))
-								objType = getPatternGroup(objType, "^(.*?)\\s*\\b\\w*" + captureFileSeparatorMarker + ".*$", 1);       // for proc versioning
-							objType = objType.trim();
 							objTypeCount.put(objType, objTypeCount.getOrDefault(objType, 0) + 1);
-							if (debugging) dbgOutput(thisProc() + "counting objType=[" + objType + "]=["+objTypeCount.get(objType)+"] ", debugReport);
+							if (debugReport) dbgOutput(thisProc() + "counting objType=[" + objType + "]=["+objTypeCount.get(objType)+"] ", debugReport);
 							int loc = 0;
 							if (!misc.isEmpty()) loc = Integer.parseInt(misc);
 							objTypeLineCount.put(objType, objTypeLineCount.getOrDefault(objType, 0) + loc);  // misc contains #lines for procedural CREATE object stmts
-							linesSQLInObjects += loc;
+							agg.linesSQLInObjects += loc;
 
 							if (item.startsWith("CREATE ")) {
 								if (objType.startsWith("PROCEDURE") || objType.startsWith("FUNCTION") || objType.startsWith("TRIGGER") || objType.startsWith("TABLE") || objType.startsWith("VIEW")) {
@@ -6288,7 +6382,7 @@ tooltipsHTMLPlaceholder +
 										}
 										objTypeMap.put(key, objType);
 										objTypeMapCount.put(itemDetail.toUpperCase(), objTypeMapCount.getOrDefault(itemDetail.toUpperCase(), 0)+1);
-										if (debugging) dbgOutput(thisProc() + "objType=[" + objType + "] for key=["+key+"] ", debugReport);
+										if (debugReport) dbgOutput(thisProc() + "objType=[" + objType + "] for key=["+key+"] ", debugReport);
 									}
 								}
 							}
@@ -6331,7 +6425,7 @@ tooltipsHTMLPlaceholder +
 					statusCount.put(itemUnique, 0L);
 					statusCount.put(statusUnique, statusCount.getOrDefault(statusUnique, 0L) + 1);
 				}
-				
+			
 
 				if (!reportOptionXref.isEmpty()) {
 					// collect info for links to object definitions
@@ -6370,7 +6464,7 @@ tooltipsHTMLPlaceholder +
 					// skip batches
 					skipItemIssue = true;
 				}
-				if (!getPatternGroup(item, "^(ALTER TABLE..(NO)?CHECK CONSTRAINT)", 1).isEmpty()) {
+				if (item.regionMatches(true, 0, "ALTER TABLE", 0, 11) && (item.regionMatches(true, 13, "CHECK CONSTRAINT", 0, 16) || item.regionMatches(true, 13, "NOCHECK CONSTRAINT", 0, 18))) {
 					// skip ALTER TABLE..[NO]CHECK CONSTRAINT, it does not affect the CREATE TABLE
 					skipItemIssue = true;
 				}
@@ -6392,16 +6486,19 @@ tooltipsHTMLPlaceholder +
 				}
 
 				// apply weight factors
-				String sw = status + WeightedStr;
 				int weightFactor = supportOptionsWeightDefault.get(supportOptions.indexOf(status));
 				// is there a user-defined weight factor?
 				if (userWeightFactor.containsKey(itemGroup)) {
 					weightFactor = userWeightFactor.get(itemGroup);
-					if (debugging) dbgOutput(thisProc() + "found user-defined weight factor for itemGroup=[" + itemGroup + "] ", debugReport);
+					if (debugReport) dbgOutput(thisProc() + "found user-defined weight factor for itemGroup=[" + itemGroup + "] ", debugReport);
 				}
-				Long weighted = statusCount.getOrDefault(status, 0L) * weightFactor;
-				statusCount.put(sw, weighted);
-				//if (debugging) dbgOutput(thisProc() + "status=[" + status + "] val=[" + statusCount.getOrDefault(status, 0L) + "]  sw=[" + sw + "] weighted=[" + weighted + "] weightFactor=[" + weightFactor + "] ", debugReport);
+				agg.statusWeightFactor.put(status, weightFactor);
+
+				if (itemExport != null) {
+					itemExport.writeItem(status, unEscapeHTMLChars(itemGroup), unEscapeHTMLChars(item), unEscapeHTMLChars(itemDetail), unEscapeHTMLChars(context), unEscapeHTMLChars(subContext),
+					                     appName, srcFile, batchNr, lineNr, lineNrInFile, Integer.toString(weightFactor));
+				}
+				//if (debugReport) dbgOutput(thisProc() + "status=[" + status + "] val=[" + statusCount.getOrDefault(status, 0L) + "]  sw=[" + sw + "] weighted=[" + weighted + "] weightFactor=[" + weightFactor + "] ", debugReport);
 
 
 				String itemGroupSort = getGroupSortKey(itemGroup);
@@ -6419,8 +6516,8 @@ tooltipsHTMLPlaceholder +
 				String keyApp = createSortKey(sortKey,appName);
 				itemCount.put(sortKey, itemCount.getOrDefault(sortKey, 0) + 1);
 				appItemListRaw.put(keyApp, appItemListRaw.getOrDefault(keyApp, 0) + 1);
-				constructsFound++;
-				if (!constructsFoundDistinct.containsKey(sortKey)) constructsFoundDistinct.put(sortKey,0);
+				agg.constructsFound++;
+				if (!agg.constructsFoundDistinct.containsKey(sortKey)) agg.constructsFoundDistinct.put(sortKey,0);
 				sortSizeSummary += sortKey.length();
 
 				// sort key for X-ref ordered by feature
@@ -6455,9 +6552,228 @@ tooltipsHTMLPlaceholder +
 			}
 			capFile.close();
 
-			if (debugging) dbgOutput(thisProc()+"capCount=["+capCount+"] sortCnt="+itemCount.size()+" sortSizeSummary KB=["+sortSizeSummary/1024+"] ", debugReport);
-			if (debugging) dbgOutput(thisProc()+"capCount=["+capCount+"] sortCnt="+xRefByFeature.size()+" sortSizeXRefByFeature KB=["+sortSizeXRefByFeature/1024+"]", debugReport);
-			if (debugging) dbgOutput(thisProc()+"capCount=["+capCount+"] sortCnt="+xRefByObject.size()+" sortSizeXRefByObject KB=["+sortSizeXRefByObject/1024+"]", debugReport);
+			if (debugReport) dbgOutput(thisProc()+"capCount=["+capCount+"] sortCnt="+itemCount.size()+" sortSizeSummary KB=["+sortSizeSummary/1024+"] ", debugReport);
+			if (debugReport) dbgOutput(thisProc()+"capCount=["+capCount+"] sortCnt="+xRefByFeature.size()+" sortSizeXRefByFeature KB=["+sortSizeXRefByFeature/1024+"]", debugReport);
+			if (debugReport) dbgOutput(thisProc()+"capCount=["+capCount+"] sortCnt="+xRefByObject.size()+" sortSizeXRefByObject KB=["+sortSizeXRefByObject/1024+"]", debugReport);
+		}
+	}
+
+	public boolean createReport(String reportName) throws IOException {
+		if (debugReport) dbgOutput(thisProc()+"reportOptionXref=["+reportOptionXref+"] ", debugReport);
+		if (debugReport) dbgOutput(thisProc()+"reportOptionStatus=["+reportOptionStatus+"] ", debugReport);
+		if (debugReport) dbgOutput(thisProc()+"reportOptionDetail=["+reportOptionDetail+"] ", debugReport);
+		if (debugReport) dbgOutput(thisProc()+"reportOptionApps=["+reportOptionApps+"] ", debugReport);
+		if (debugReport) dbgOutput(thisProc()+"reportOptionFilter=["+reportOptionFilter+"] ", debugReport);	
+
+		// the .cfg may have changed since a previous report in this session
+		complexityEffortCache.clear();
+		itemHintKeyCache.clear();
+
+		String complexityReportPlaceholder = "BBF_COMPLEXITYREPORTPLACEHOLDER";
+		String execSummaryPlaceholder = "BBF_EXECSUMMARYPLACEHOLDER";
+		String execSummaryObjCountPlaceholder = "BBF_EXECSUMMARYOBJCOUNTPLACEHOLDER";
+
+		// this is done once, by the report for all applications; the application reports only write what was read for them
+		List<Path> captureFiles = null;
+		if (reportAggregate == null) {
+			// upgrade check for Compass 1.0/1.1 reports
+			if (!reportOptionXref.isEmpty()) {
+				// move any HTML files
+				moveImportedHTMLFiles(reportName);
+			}
+
+			// check for existence of rewritten files when the report is generated without analysis at the same time
+	  		if (!rewrite && !Compass.reAnalyze)  {
+				File reportDir = new File(getReportDirPathname(reportName, rewrittenDirName));
+		 		if (reportDir.exists()) {
+					rewriteReportOnly = true;
+					rewrite = true;
+					if (debugReport) dbgOutput(thisProc()+"rewriteReportOnly=["+rewriteReportOnly+"] ", debugReport);
+				}
+			}
+	   		if (rewrite)  {
+	     		supportOptionsIterate = Arrays.asList(NotSupported, ReviewManually, ReviewSemantics, ReviewPerformance, Ignored, Rewritten, Supported);
+	    	}
+			// get all capture files
+			captureFiles = getCaptureFiles(reportName);
+			if (debugReport) dbgOutput(thisProc() + "captureFiles(" + captureFiles.size() + ")=[" + captureFiles + "] ", debugReport);
+			if (captureFiles.size() == 0) {
+				List<Path> importedFiles = getImportFiles(reportName);
+				if (importedFiles.size() == 0) {
+					appOutput("No imported files found. Specify input file(s) to add to this report.");
+				}
+				else {
+					String msg = "\nNo analysis results found. Use -analyze to perform analysis and generate a report.";
+					appOutput(msg);
+				}
+				errorExit();
+			}
+			String cfv = captureFilesValid("report", captureFiles);
+			if (!cfv.isEmpty()) {
+				// print error message and exit
+				appOutput(cfv);
+				errorExit();
+			}
+		}
+
+		// generic init
+		Date now = new Date();
+		if (!reportAppName.isEmpty()) {
+			// application reports get the same timestamp as the main report, so that it can link to them
+			now = reportDate;
+		}
+		reportDate = now;
+		String now_report = new SimpleDateFormat("yyyy-MMM-dd HH:mm:ss").format(now);
+		reportFileTextPathName = getReportFilePathName(reportName, now);
+		reportFileHTMLPathName = getReportFileHTMLPathname(reportName, now);
+		CSVFilePathName = getCSVFilePathName(reportFileTextPathName);
+		reportFilePathName = reportFileHTMLPathName;
+		appOutput("");
+		appOutput("Generating report " + reportFilePathName + "...", false, true);
+
+		String line = "";
+
+		openReportFile(reportName);
+
+		String hdrLine = "Report for: " + reportName + " : Generated at " + now_report;
+		if (!reportAppName.isEmpty()) hdrLine = "Report for: " + reportName + ", application " + reportAppName + " : Generated at " + now_report;
+		writeReportFile(hdrLine);
+		writeReportFile(stringRepeat("-", hdrLine.length()));
+
+		writeReportFile("\n" + thisProgName + " version " + thisProgVersion + ", " + thisProgVersionDate);
+		writeReportFile(thisProgNameLong);
+		writeReportFile(copyrightLine + "\n");
+		writeReportFile(disclaimerMsg + "\n");
+		writeReportFile(docLinkIcon + " " +docLinkURL + "\n\n");
+		writeReportFile(composeOutputLine("--- Report Setup ", "-"));
+		writeReportFile(reportHdrLines);
+		writeReportFile("This report                : "+reportFilePathName);
+		writeReportFile("Session log                : "+hLink("", sessionLogPathName));
+		writeReportFile(composeOutputLine("", "=") + "\n");
+
+		if (!newVersionAvailable.isEmpty()) {
+			writeReportFile("Note: "+newVersionAvailable+"\n");
+			writeReportFile(composeOutputLine("", "=") + "\n");
+		}
+
+
+		Map<String, List<Integer>> objComplexityCount = new HashMap<>();
+		Map<String, List<Integer>> objTypeComplexityCount = new HashMap<>();
+		boolean showObjectIssuesList = false;
+		Map<String, String> appItemList = new LinkedHashMap<>();
+
+		String currentAppName = "";
+		String currentSrcFile = "";
+
+		// init map
+		xrefLineFilter.clear();
+
+		// check flag
+		if (!reportOptionXref.isEmpty()) showObjectIssuesList = true;
+
+		// sanity check
+		assert supportOptions.size() == supportOptionsCfgFile.size() : "supportOptions.size() [" + supportOptions.size() + "] must be equal to supportOptionsCfgFile.size() " + supportOptionsCfgFile.size() + "]";
+		assert supportOptions.size() == supportOptionsDisplay.size() : "supportOptions.size() [" + supportOptions.size() + "] must be equal to supportOptionsDisplay.size() " + supportOptionsDisplay.size() + "]";
+		assert supportOptions.size() == supportOptionsWeightDefault.size() : "supportOptions.size() [" + supportOptions.size() + "] must be equal to supportOptionsWeightDefault.size() " + supportOptionsWeightDefault.size() + "]";
+
+		// set up arrays for processing groups of statuses
+		String fmtBatches = "batches";
+		String fmtLinesSQL = "linesSQL";
+		String fmtLinesTotal = "linesDDL";
+		String fmtLinesTotalFeatures = "totalFeatures";
+		List<String> fmtStatus = new ArrayList<String>(Arrays.asList("apps", "inputfiles", fmtBatches, fmtLinesTotal, fmtLinesSQL, fmtLinesTotalFeatures));
+		List<String> fmtStatusDisplay = new ArrayList<String>(Arrays.asList("#applications", "#input files", "#SQL batches", "#lines SQL/DDL processed", "#lines SQL in objects", "Total #SQL features"));
+		for (int i = 0; i < supportOptions.size(); i++) {
+			fmtStatus.add(supportOptions.get(i));
+			fmtStatusDisplay.add(supportOptionsDisplay.get(i));
+		}
+
+		// adjust category ordering
+		setupreportGroupSortAdjustment();
+
+		// process captured items
+		ReportAggregate agg = reportAggregate;
+		ReportItemExport itemExport = null;
+		// only in the main report, which covers all applications; not in the per-application reports
+		ObjectGraph.Builder objectGraph = null;
+		if (agg == null) {
+			agg = new ReportAggregate();
+			addSrcFileNameMap(lastItem, lastItem);
+			if (!exportFormat.isEmpty()) {
+				itemExport = new ReportItemExport(exportFormat, reportFileTextPathName.substring(0, reportFileTextPathName.lastIndexOf(".")));
+			}
+			if (reportOptionObjectGraph) {
+				objectGraph = new ObjectGraph.Builder();
+			}
+
+			// with -reportoption appreports, read the capture files per application, for the application reports
+			Map<String, List<Path>> appCaptureFiles = new TreeMap<>(String.CASE_INSENSITIVE_ORDER.thenComparing(Comparator.naturalOrder()));
+			List<Path> otherCaptureFiles = new ArrayList<>();
+			if (reportOptionAppReports) {
+				for (Path cf : captureFiles) {
+					String appName = captureFileAppName(cf);
+					if (appName.isEmpty()) otherCaptureFiles.add(cf);
+					else appCaptureFiles.computeIfAbsent(appName, k -> new ArrayList<>()).add(cf);
+				}
+			}
+
+			// the export files are closed also when reading the captured items fails
+			appAggregates = null;
+			try {
+				if (appCaptureFiles.size() > 1) {
+					appAggregates = new LinkedHashMap<>();
+					for (String appName : appCaptureFiles.keySet()) {
+						if (debugReport) dbgOutput(thisProc()+"appName=["+appName+"] captureFiles=["+appCaptureFiles.get(appName)+"] ", debugReport);
+						ReportAggregate appAgg = new ReportAggregate();
+						readCaptureFiles(reportName, appCaptureFiles.get(appName), appAgg, itemExport, objectGraph);
+						agg.merge(appAgg);
+						appAggregates.put(appName, appAgg);
+					}
+					readCaptureFiles(reportName, otherCaptureFiles, agg, itemExport, objectGraph);
+				}
+				else {
+					readCaptureFiles(reportName, captureFiles, agg, itemExport, objectGraph);
+				}
+			} finally {
+				if (itemExport != null) itemExport.close();
+			}
+		}
+		// the report is written from the aggregate
+		constructsFound = agg.constructsFound;
+		constructsFoundDistinct = agg.constructsFoundDistinct;
+		rewriteOppties = agg.rewriteOppties;
+		Map<String, Integer> appCount = agg.appCount;
+		Map<String, Integer> srcFileCount = agg.srcFileCount;
+		Map<String, Integer> objTypeCount = agg.objTypeCount;
+		Map<String, Integer> objTypeLineCount = agg.objTypeLineCount;
+		Map<String, String>  objTypeMap = agg.objTypeMap;
+		Map<String, String>  objTypeMapCase = agg.objTypeMapCase;
+		Map<String, Integer> objTypeMapCount = agg.objTypeMapCount;
+		Map<String, Integer> objIssueCount = agg.objIssueCount;
+		List<String> objComplexityCountTmp = agg.objComplexityCountTmp;
+		int linesSQLInObjects = agg.linesSQLInObjects;
+		Integer totalLinesDDL = agg.totalLinesDDL;
+		int totalBatches = agg.totalBatches;
+		int totalErrorBatches = agg.totalErrorBatches;
+		Map<String, Long> statusCount = agg.statusCount;
+		Map<String, Integer> itemCount = agg.itemCount;
+		Map<String, Integer> appItemListRaw = agg.appItemListRaw;
+		List<String> xRefByFeature = agg.xRefByFeature;
+		List<String> xRefByObject = agg.xRefByObject;
+
+		// apply weight factors
+		for (String status : agg.statusWeightFactor.keySet()) {
+			statusCount.put(status + WeightedStr, statusCount.getOrDefault(status, 0L) * agg.statusWeightFactor.get(status));
+		}
+
+		if (itemExport != null) {
+			exportFilesWritten.addAll(itemExport.getFilesWritten());
+			if (debugReport) dbgOutput(thisProc()+"exported items=["+itemExport.getItemCount()+"] to "+exportFilesWritten, debugReport);
+		}
+		if (objectGraph != null) {
+			ObjectGraph g = objectGraph.build();
+			g.write(ObjectGraph.getPathName(reportName), ObjectGraph.captureFilesState(captureFiles));
+			if (debugReport) dbgOutput(thisProc()+"object graph: objects=["+g.size()+"] references=["+g.refs.length+"] ", debugReport);
 		}
 
 		// get complexity per object
@@ -6611,7 +6927,12 @@ tooltipsHTMLPlaceholder +
 		summarySection.append("\n");
 		for (String app : appCount.keySet().stream().sorted(String.CASE_INSENSITIVE_ORDER).collect(Collectors.toList())) {
 			int loc = appCount.get(app);
-			summarySection.append(lineIndent + " " + app + " (" + appCount.get(app) + " lines SQL)\n");
+			String appFmt = app;
+			if (reportOptionAppReports && reportAppName.isEmpty() && (appCount.size() > 1)) {
+				String appReport = Paths.get(getReportFileHTMLPathname(reportName, now, app)).getFileName().toString();
+				appFmt = "<a href=\"" + appReport + "\"" + tgtBlank + ">" + app + "</a>";
+			}
+			summarySection.append(lineIndent + " " + appFmt + " (" + appCount.get(app) + " lines SQL)\n");
 		}
 		summarySection.append("\n");
 
@@ -6738,8 +7059,8 @@ tooltipsHTMLPlaceholder +
 		// calc %age. NB: this has been removed from the report
 		//--- debug -------
 		if (debugCalc) {
-			if (debugging) dbgOutput("", debugReport);
-			if (debugging) dbgOutput(thisProc() + "----------compatPct calculation: -----------", debugReport);
+			if (debugReport) dbgOutput("", debugReport);
+			if (debugReport) dbgOutput(thisProc() + "----------compatPct calculation: -----------", debugReport);
 			String thisProc = thisProc(); // To not call thisProc() more than once
 			for (String sc : statusCount.keySet()) {
 				appOutput(thisProc + "    statusCount=[" + sc + "] value=[" + statusCount.get(sc) + "] ");
@@ -6759,7 +7080,7 @@ tooltipsHTMLPlaceholder +
 			);
 			Long baseTotal = (statusCount.get(fmtLinesTotalFeatures) * 100) - statusCount.getOrDefault(Ignored + WeightedStr, 0L);
 			compatPct = ((baseTotal - subtract) * 100) / (baseTotal);
-			if (debugging) dbgOutput(thisProc() + "compatPct calculation: constructs=[" + statusCount.get(fmtLinesTotalFeatures) * 100 + "]  subtract=[" + subtract + "]  baseTotal=[" + baseTotal + "] term1=[" + ((baseTotal - subtract) * 100) + "]  compatPct=[" + compatPct + "] ", debugCalc);
+			if (debugCalc) dbgOutput(thisProc() + "compatPct calculation: constructs=[" + statusCount.get(fmtLinesTotalFeatures) * 100 + "]  subtract=[" + subtract + "]  baseTotal=[" + baseTotal + "] term1=[" + ((baseTotal - subtract) * 100) + "]  compatPct=[" + compatPct + "] ", debugCalc);
 			compatPctStrRaw = Long.toString(compatPct);
 			if (compatPct < 0) compatPct = 0;
 			if (compatPct > 100) compatPct = 100;
@@ -7027,18 +7348,14 @@ tooltipsHTMLPlaceholder +
 		List<String> sortedListXRefByFeature = xRefByFeature.stream().sorted(String.CASE_INSENSITIVE_ORDER).collect(Collectors.toList());
 		sortedListXRefByFeature.add(stringRepeat(lastItem + sortKeySeparator, 20));
 		xRefByFeature.clear();
-		for (int i=0; i <supportOptionsIterate.size(); i++) {
-			reportXrefByFeature(supportOptionsIterate.get(i), sortedListXRefByFeature);
-		}
+		reportXref(tagByFeature, sortedListXRefByFeature, 3);
 		sortedListXRefByFeature.clear();
 
 		// sort for X-ref by object
 		List<String> sortedListXRefByObject = xRefByObject.stream().sorted(String.CASE_INSENSITIVE_ORDER).collect(Collectors.toList());
 		sortedListXRefByObject.add(stringRepeat(lastItem + sortKeySeparator, 20));
 		xRefByObject.clear();
-		for (int i=0; i <supportOptionsIterate.size(); i++) {
-			reportXrefByObject(supportOptionsIterate.get(i), sortedListXRefByObject);
-		}
+		reportXref(tagByObject, sortedListXRefByObject, 2);
 		sortedListXRefByObject.clear();
 
 		if (showObjectIssuesList) {
@@ -7060,6 +7377,124 @@ tooltipsHTMLPlaceholder +
 		return true;
 	}
 	
+	// application name of a capture file, from its first record; blank if there is none
+	public String captureFileAppName(Path cf) throws IOException {
+		CaptureRecordReader capFile = new CaptureRecordReader(cf.toString());
+		String appName = "";
+		while (capFile.next()) {
+			if (capFile.isMetricsLine()) {
+				appName = capFile.getField(1);
+				break;
+			}
+			if (capFile.getFieldCount() > capPosAppName) {
+				appName = capFile.getField(capPosAppName);
+				break;
+			}
+		}
+		capFile.close();
+		return appName;
+	}
+
+	// with -reportoption appreports: after the report for all applications, generate a separate report for each
+	// application, from what the report for all applications read for that application.
+	// These reports are generated concurrently, each on its own copy of this instance; the main report is not affected.
+	public void createAppReports(String reportName) throws IOException {
+		if (appAggregates == null) {
+			appOutput("Only one application found, not generating separate application reports");
+			return;
+		}
+
+		ExecutorService appReportWriter = Executors.newFixedThreadPool(Math.min(appReportThreads, appAggregates.size()));
+		List<CompassUtilities> appReports = new ArrayList<>();
+		List<Future<?>> appReportsDone = new ArrayList<>();
+		for (String appName : appAggregates.keySet()) {
+			CompassUtilities r = appReportInstance(appName, appAggregates.get(appName));
+			appReports.add(r);
+			appReportsDone.add(appReportWriter.submit(() -> {
+				r.createReport(reportName);
+				r.closeReportFile();
+				return null;
+			}));
+		}
+
+		// in the order of the applications, as if generated one after the other
+		try {
+			for (int i = 0; i < appReports.size(); i++) {
+				CompassUtilities r = appReports.get(i);
+				try {
+					appReportsDone.get(i).get();
+				} catch (InterruptedException | ExecutionException e) {
+					throw new IOException("Error generating report for application "+r.reportAppName+": " + e.getMessage(), e);
+				} finally {
+					r.flushAppOutputBuffer();
+				}
+				appReportsWritten.add(r.reportFilePathName);
+				reportPagesWritten += r.reportPagesWritten;
+			}
+		} finally {
+			appReportWriter.shutdownNow();
+			appAggregates = null;
+		}
+	}
+
+	// a copy of this instance for the report for one application: it shares the settings and the .cfg contents,
+	// and what was read for all applications, but has its own report state
+	private CompassUtilities appReportInstance(String appName, ReportAggregate agg) {
+		CompassUtilities r;
+		try {
+			r = (CompassUtilities) clone();
+		} catch (CloneNotSupportedException e) {
+			throw new IllegalStateException(e);
+		}
+		r.reportAppName = appName;
+		r.reportAggregate = agg;
+		r.appOutputBuffer = new StringBuilder();
+		r.appReportsWritten = new ArrayList<>();
+		r.exportFilesWritten = new ArrayList<>();
+
+		// what is accumulated while generating a report
+		r.constructsFound = 0;
+		r.constructsFoundDistinct = new HashMap<>();
+		r.complexityScoreCount = new HashMap<>();
+		r.complexityScoreCountUnique = new HashMap<>();
+		r.complexityEffortCache = new HashMap<>();
+		r.itemHintKeyCache = new HashMap<>();
+		r.rewriteOppties = new HashMap<>();
+		r.sumEffortEstimateMinutes = 0;
+		r.linesSQLInReport = 0;
+		r.xrefLineFilter = new HashMap<>();
+		// xrefMap, contextLinkMap and srcFileMap were filled while reading for all applications, and are only read from here on
+		r.objectAnchorsMap = new HashMap<>();
+		r.objectAnchorsPage = new HashMap<>();
+		r.reportGroupSortAdjustment = new HashMap<>();
+		r.hintsList = new ArrayList<>();
+		r.hintsListMap = new HashMap<>();
+		r.hintsTextMap = new HashMap<>();
+		r.toolTipsKeys = new HashMap<>();
+		r.toolTipsKeysList = new ArrayList<>();
+		r.reportSection = new StringBuilder();
+		r.reportSectionItem = new StringBuilder();
+		r.reportSortFields = new String[reportSortFields.length];
+		r.reportShowAppName = true;
+		r.reportShowSrcFile = true;
+		r.reportAppsCount = true;
+
+		// the report files
+		r.reportFileWriter = null;
+		r.reportFileWriterHTML = null;
+		r.CSVFileWriter = null;
+		r.reportPageWriter = null;
+		r.reportPagesWritten = 0;
+		return r;
+	}
+
+	private void flushAppOutputBuffer() {
+		if (appOutputBuffer == null) return;
+		String s = appOutputBuffer.toString();
+		appOutputBuffer = null;
+		appOutput(s, false, true);
+	}
+
 	private String formatEffortEstimate(int nrMinutes) {	
 		// Convert #minutes to a pragmatic days/weeks effort estimate							
 		int nrHours = Math.round(nrMinutes / 60);
@@ -7070,7 +7505,7 @@ tooltipsHTMLPlaceholder +
 			
 		int nrWeeks = (int) Math.round((nrDays + 0.3) / CompassUtilities.effortEstimateDaysPerWeek);
 		
-		if (debugging) dbgOutput(thisProc()+"nrMinutes=["+nrMinutes+"] nrWeeks=["+nrWeeks+"] nrDays=["+nrDays+"]  nrHours=["+nrHours+"] ", debugReport);
+		if (debugReport) dbgOutput(thisProc()+"nrMinutes=["+nrMinutes+"] nrWeeks=["+nrWeeks+"] nrDays=["+nrDays+"]  nrHours=["+nrHours+"] ", debugReport);
 		
 		String result = "0 hours";  // we should never end up with this since we should be called with a value > 0
 		if (nrWeeks > 0) {
@@ -7083,16 +7518,17 @@ tooltipsHTMLPlaceholder +
 	}
 
 	private void getXrefOnlyMappings(String item, String itemGroup, String lineNr, String appName) {
-		String xrefLineKey = item +captureFileSeparator+ itemGroup +captureFileSeparator+ CompassConfig.lastCfgCheckSection +captureFileSeparator+ CompassConfig.lastCfgCheckName+captureFileSeparator;
+		String xrefLineKey = item +captureFileSeparator+ itemGroup +captureFileSeparator;
 		xrefLineKey = xrefLineKey.toUpperCase();
 		if (!xrefLineFilter.containsKey(xrefLineKey)) {
 			xrefLineFilter.put(xrefLineKey, 1);
 
+			// for XRefOnly records, the .cfg section and name are in the lineNr and app fields
 			String xrefMapKey = itemGroup +captureFileSeparator+ item;
-			String xrefMapValue = lineNr +captureFileSeparator+ appName + captureFileSeparator + "~" + captureFileSeparator;
-			xrefMap.put(xrefMapKey.toUpperCase(), xrefMapValue.toUpperCase());
+			xrefMap.put(xrefMapKey.toUpperCase(), new CompassConfig.CfgItem(lineNr.toUpperCase(), appName.toUpperCase()));
+			complexityEffortCache.clear();  // results depend on the xref mappings
 			for (String k : xrefMap.keySet()) {
-				if (debugging) dbgOutput(thisProc() + "xrefMap read: k=["+k+"]  v=["+xrefMap.get(k)+"]  ", debugReport);
+				if (debugReport) dbgOutput(thisProc() + "xrefMap read: k=["+k+"]  v=["+xrefMap.get(k)+"]  ", debugReport);
 			}
 		}
 	}
@@ -7254,7 +7690,7 @@ tooltipsHTMLPlaceholder +
 
 		// get capture files
 		List<Path> captureFiles = getCaptureFiles(reportName);
-		if (debugging) dbgOutput(thisProc() + "captureFiles(" + captureFiles.size() + ")=[" + captureFiles + "] ", debugReport);
+		if (debugReport) dbgOutput(thisProc() + "captureFiles(" + captureFiles.size() + ")=[" + captureFiles + "] ", debugReport);
 		if (captureFiles.size() == 0) {
 			appOutput("No analysis files found. Use -analyze to perform analysis and generate a report.");
 			errorExit();
@@ -7266,7 +7702,7 @@ tooltipsHTMLPlaceholder +
 			errorExit();
 		}
 		String cfVersion = captureFilesValid("tgtversion", captureFiles, true);
-		if (debugging) dbgOutput(thisProc() + "cfVersion=["+cfVersion+"] ", debugReport);
+		if (debugReport) dbgOutput(thisProc() + "cfVersion=["+cfVersion+"] ", debugReport);
 
 		Date now = new Date();
 		String nowFmt = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(now);
@@ -7283,7 +7719,7 @@ tooltipsHTMLPlaceholder +
 
 		// first pass to pick up all XREFONLY records
 		for (Path cf : captureFiles) {
-			if (debugging) dbgOutput(thisProc() + "pass 1: cf=["+cf+"] ", debugReport);
+			if (debugReport) dbgOutput(thisProc() + "pass 1: cf=["+cf+"] ", debugReport);
 			String cfLine = captureFileFirstLine(cf.toString());   // read only first line
 			String cfReportName = captureFileAttribute(cfLine, 1);
 			String cfUserCfgFile = captureFileAttribute(cfLine, 5);
@@ -7326,30 +7762,18 @@ tooltipsHTMLPlaceholder +
 			}
 
 
-			FileInputStream cfis = new FileInputStream(new File(cf.toString()));
-			InputStreamReader cfisr = new InputStreamReader(cfis, StandardCharsets.UTF_8);
-			BufferedReader capFile = new BufferedReader(cfisr);
+			CaptureRecordReader capFile = new CaptureRecordReader(cf.toString());
 
-			String capLine = "";
-
-			while (true) {
-				capLine = capFile.readLine();
-				if (capLine == null) {
-					//EOF
-					break;
-				}
-				capLine = capLine.trim();
-				if (capLine.isEmpty()) continue;
-				if ((capLine.charAt(0) == '#') || (capLine.charAt(0) == '*')) {
+			while (capFile.next()) {
+				if (capFile.isMetricsLine()) {
 					continue;
 				}
 				// for items logged only to xref the report to the original cfg sections, put 'm in a buffer and discard
-				if (capLine.contains(captureFileSeparator+XRefOnly+captureFileSeparator)) {
-					List<String> capFieldsTmp = new ArrayList<>(Arrays.asList(capLine.split(captureFileSeparator)));
-					String item = capFieldsTmp.get(capPosItem);
-					String itemGroup = capFieldsTmp.get(capPosItemGroup);
-					String lineNr = capFieldsTmp.get(capPosLineNr);
-					String appName = capFieldsTmp.get(capPosAppName);
+				if (capFile.getStatus().equals(XRefOnly)) {
+					String item = capFile.getField(capPosItem);
+					String itemGroup = capFile.getField(capPosItemGroup);
+					String lineNr = capFile.getField(capPosLineNr);
+					String appName = capFile.getField(capPosAppName);
 					//appOutput(thisProc()+"XRefOnly line=["+capLine+"] item=["+item+"] itemGroup=["+itemGroup+"] lineNr=["+lineNr+"] appName=["+appName+"] ");
 					getXrefOnlyMappings(item, itemGroup, lineNr, appName);
 				}
@@ -7359,40 +7783,25 @@ tooltipsHTMLPlaceholder +
 
 		for (Path cf : captureFiles) {
 			// validations already done on first pass
-			if (debugging) dbgOutput(thisProc() + "pass 2: cf=["+cf+"] ", debugReport);
+			if (debugReport) dbgOutput(thisProc() + "pass 2: cf=["+cf+"] ", debugReport);
 
-			FileInputStream cfis = new FileInputStream(new File(cf.toString()));
-			InputStreamReader cfisr = new InputStreamReader(cfis, StandardCharsets.UTF_8);
-			BufferedReader capFile = new BufferedReader(cfisr);
+			CaptureRecordReader capFile = new CaptureRecordReader(cf.toString());
 
 			String capLine = "";
-			int lineNr = 0;
-			while (true) {
-				capLine = capFile.readLine();
-				lineNr++;
-				if (capLine == null) {
-					//EOF
-					break;
-				}
-				capLine = capLine.trim();
-				if (capLine.isEmpty()) continue;
-				if ((capLine.charAt(0) == '#') || (capLine.charAt(0) == '*')) {
+			while (capFile.next()) {
+				if (capFile.isMetricsLine()) {
 					continue;
 				}
-				if (capLine.contains(captureFileSeparator+ObjCountOnly+captureFileSeparator)) continue;
-				if (capLine.contains(captureFileSeparator+RewriteOppty+captureFileSeparator)) continue;
-				if (capLine.contains(captureFileSeparator+XRefOnly+captureFileSeparator)) continue;
+				String status = capFile.getStatus();
+				if (status.equals(ObjCountOnly)) continue;
+				if (status.equals(RewriteOppty)) continue;
+				if (status.equals(XRefOnly)) continue;
 
 				capCount++;
 
 				// strip off the last three semicolons, incl. the misc field (not needed here)
-				capLine = capLine.substring(0,capLine.lastIndexOf(captureFileSeparator));
-				capLine = capLine.substring(0,capLine.lastIndexOf(captureFileSeparator));
-				capLine = capLine.substring(0,capLine.lastIndexOf(captureFileSeparator));
+				capLine = capFile.getLineWithoutLastFields(3);
 
-				// max length check
-				capFields = new ArrayList<>(Arrays.asList(capLine.split(captureFileSeparator)));
-				String status = capFields.get(capPosStatus);
 				String complexityDefined = "";
 				String effortDefined = "";
 				String effortDefinedScale  = "";
@@ -7401,9 +7810,9 @@ tooltipsHTMLPlaceholder +
 				String effortDefinedLearningCurveMinutes = "0";			
 				
 				if (hasComplexityEffort(status)) {
-					String item = capFields.get(capPosItem);
-					complexityDefined = getComplexityEffort(CompassConfig.complexityTag, item.toString(), capFields.get(capPosItemGroup), status);
-					effortDefined     = getComplexityEffort(CompassConfig.effortTag, item.toString(), capFields.get(capPosItemGroup), status, complexityDefined);
+					String item = capFile.getField(capPosItem);
+					complexityDefined = getComplexityEffort(CompassConfig.complexityTag, item, capFile.getField(capPosItemGroup), status);
+					effortDefined     = getComplexityEffort(CompassConfig.effortTag, item, capFile.getField(capPosItemGroup), status, complexityDefined);
 
 				 	effortDefinedScale          = CompassConfig.getEffortValue(effortDefined, CompassConfig.effortPartScale);
 				 	effortDefinedLearningCurve  = CompassConfig.getEffortValue(effortDefined, CompassConfig.effortPartLearningCurve);					 			
@@ -7418,24 +7827,19 @@ tooltipsHTMLPlaceholder +
 						effortDefinedLearningCurve         = CompassConfig.formatEffort(effortDefinedLearningCurve);
 					}
 					
-					//appOutput(thisProc()+"status=["+status+"] item=["+item+"] group=["+capFields.get(capPosItemGroup)+"] complexityDefined=["+complexityDefined+"] effortDefined=["+effortDefined+"] effortDefinedScale=["+effortDefinedScale+"] effortDefinedLearningCurve=["+effortDefinedLearningCurve+"] ");
+					//appOutput(thisProc()+"status=["+status+"] item=["+item+"] group=["+capFile.getField(capPosItemGroup)+"] complexityDefined=["+complexityDefined+"] effortDefined=["+effortDefined+"] effortDefinedScale=["+effortDefinedScale+"] effortDefinedLearningCurve=["+effortDefinedLearningCurve+"] ");
 				}
 
 				// assuming 'captureFileFormatVersion = 1' but this is not verified since so far there is only one version
 				// field positions in capLine, and total #fields, are hard-coded here
 
 				// some fields could potentially be too long, and the import would fail
-				boolean fieldModified = false;				
-				fieldModified |= importPGField("Item", capPosItem, pgImportItemLength, lineNr, cf);
-				fieldModified |= importPGField("ItemDetail", capPosItemDetail, pgImportItemDetailLength, lineNr, cf);
-				fieldModified |= importPGField("SrcFile", capPosSrcFile, pgImportSrcFileLength, lineNr, cf);
+				importPGField("Item", capPosItem, pgImportItemLength, capFile, cf);
+				importPGField("ItemDetail", capPosItemDetail, pgImportItemDetailLength, capFile, cf);
+				importPGField("SrcFile", capPosSrcFile, pgImportSrcFileLength, capFile, cf);
 				
-				int numFields = 12;
-				if (fieldModified) {
-					capLine = String.join(captureFileSeparator, capFields);
-					if (capFields.size() < numFields-1) {
-						capLine += stringRepeat(captureFileSeparator, (numFields-capFields.size()-1));
-					}
+				if (capFile.isModified()) {
+					capLine = capFile.joinFields(capPosSubContext+1);
 				}
 
 				capLine = unEscapeHTMLChars(capLine);
@@ -7446,7 +7850,7 @@ tooltipsHTMLPlaceholder +
 				//remove double quotes for Redshift import
 				if (pgImportNoDoubleQuotes) {
 					if (capLine.contains("\"")) {
-						capLine = applyPatternAll(capLine, "\"", "");
+						capLine = replaceAllLiteral(capLine, "\"", "");
 					}
 				}
 
@@ -7491,7 +7895,7 @@ tooltipsHTMLPlaceholder +
 		}
 		runCmd += cmdFile;
 
-		if (debugging) dbgOutput(thisProc() + "runCmd=["+runCmd+"]  ", debugReport);
+		if (debugReport) dbgOutput(thisProc() + "runCmd=["+runCmd+"]  ", debugReport);
 
 		// finally, run the import
 		runOScmd(runCmd);
@@ -7503,23 +7907,23 @@ tooltipsHTMLPlaceholder +
 		}
 	}
 
-	private boolean importPGField(String name, int pos, int len, int lineNr, Path cf) {
-		if (capFields.get(pos).length() <= len) {
+	private boolean importPGField(String name, int pos, int len, CaptureRecordReader capFile, Path cf) {
+		if (capFile.getField(pos).length() <= len) {
 			return false;
 		}
 		
 		// truncate field to column length, but take care not to cut through a marker
 		if (devOptions) {
-			appOutput("pgimport: Truncating line "+lineNr+" from "+capFields.get(pos).length()+" to "+len+" in field '"+name+"' in ["+cf+"]");
+			appOutput("pgimport: Truncating line "+capFile.getLineNr()+" from "+capFile.getField(pos).length()+" to "+len+" in field '"+name+"' in ["+cf+"]");
 		}
 		String tag = "(...)";
-		String s = capFields.get(pos);
+		String s = capFile.getField(pos);
 		int lenOrig = s.length();
-		s = s.replaceAll(captureFileSeparatorMarker, captureFileSeparator);
+		s = capFile.getFieldUnmasked(pos);
 		int lenShort = s.length();
 		int cutoff = len - (lenOrig-lenShort) - tag.length();
-		s = s.substring(0,cutoff).replaceAll(captureFileSeparator, captureFileSeparatorMarker) + tag;
-		capFields.set(pos, s);
+		s = replaceAllLiteral(s.substring(0,cutoff), captureFileSeparator, captureFileSeparatorMarker) + tag;
+		capFile.setField(pos, s);
 		
 		return true; // field was modified
 	}
@@ -7538,13 +7942,6 @@ tooltipsHTMLPlaceholder +
 		return filePath;
 	}
 
-	public String openUserCfgFileAppend(String fileName) throws IOException {
-		return openUserCfgFile(fileName, false);
-	}
-	public String openUserCfgFileNew(String fileName) throws IOException {
-		return openUserCfgFile(fileName, true);
-	}
-
 	private String userCfgFileHeader() {
 		String hdr =
 "#------------------------------------------------------------------------------\n" +
@@ -7640,44 +8037,42 @@ userCfgComplexityHdrLine202308 + "\n" +
 		return hdr;
 	}
 	
-	public String openUserCfgFile(String fileName, boolean newFile) throws IOException {
-		checkDir(getDocDirPathname(), false, true);
-		String userCfgFilePathName = getUserCfgFilePathName(fileName);
-		userCfgFileWriter = new BufferedWriter((new OutputStreamWriter(new FileOutputStream(userCfgFilePathName, (!newFile)), StandardCharsets.UTF_8)));
+	// the lines starting a new user .cfg file, or starting the sections appended to an existing one
+	public String userCfgFileStart(boolean newFile) {
 		String now = new SimpleDateFormat("dd-MMM-yyyy HH:mm:ss").format(new Date());
 		if (newFile) {
 			String initLine = "# This file created at " + now + " by " + thisProgName + " version " + thisProgVersion + ", " + thisProgVersionDate;
-			writeUserCfgFile(initLine);
-			initLine = userCfgFileHeader();
-			writeUserCfgFile(initLine);
+			return initLine + "\n" + userCfgFileHeader() + "\n";
 		}
 		else {
 			String initLine = "\n# Sections below were added at " + now + " by " + thisProgName + " version " + thisProgVersion + ", " + thisProgVersionDate;
-			writeUserCfgFile(initLine);
+			return initLine + "\n";
 		}
-		return userCfgFilePathName;
+	}
+
+	public String userCfgFileEnd() {
+		String now = new SimpleDateFormat("dd-MMM-yyyy HH:mm:ss").format(new Date());
+		return "# end ("+now+")\n\n";
 	}
 
 	// upgrade file header with new text in 2022-09, if needed
-	public void upgradeUserCfgFile(String fileName) throws IOException {
-		if (debugging) dbgOutput(thisProc() + "entry: fileName=["+fileName+"] ", debugDir);
+	// returns the upgraded contents, to be written by the caller, or null if there is nothing to upgrade
+	public String upgradeUserCfgFile(String fileName) throws IOException {
+		if (debugDir) dbgOutput(thisProc() + "entry: fileName=["+fileName+"] ", debugDir);
 		if (fileName.equalsIgnoreCase(optimisticUserCfgFileName)) {
 			// don't touch the optimistic .cfg file; this upgrade is only for regular user .cfg file that are older
-			if (debugging) dbgOutput(thisProc() + "optimistic .cfg file -- not upgrading", debugDir);
-			return;
+			if (debugDir) dbgOutput(thisProc() + "optimistic .cfg file -- not upgrading", debugDir);
+			return null;
 		}
-		checkDir(getDocDirPathname(), false, true);
 		String userCfgFilePathName = getUserCfgFilePathName(fileName);
-		FileInputStream fis = new FileInputStream(userCfgFilePathName);
-		InputStreamReader isr = new InputStreamReader(fis, StandardCharsets.UTF_8);
-		BufferedReader rewrittenInFileReader = new BufferedReader(isr);
+		BufferedReader userCfgReader = CfgFileRepository.getReader(userCfgFilePathName, StandardCharsets.UTF_8);
 
-		String body = "";
+		StringBuilder body = new StringBuilder();
 		boolean hasNewHdr = false;
 		boolean bodyFound = false;
 
 		while (true) {
-			String line = rewrittenInFileReader.readLine();
+			String line = userCfgReader.readLine();
 			if (line == null) {
 				//EOF
 				break;
@@ -7688,40 +8083,17 @@ userCfgComplexityHdrLine202308 + "\n" +
 			if (line.toUpperCase().startsWith("#"+userCfgComplexityHdrLine202311.toUpperCase())) hasNewHdr = true;
 			if (line.length() > 0) if (line.charAt(0) == '[') bodyFound = true;
 			if (bodyFound) {
-				body += line + "\n";
+				body.append(line).append("\n");
 			}
 		}
-		rewrittenInFileReader.close();
-	    rewrittenInFileReader = null;
+		userCfgReader.close();
 
-		if (debugging) dbgOutput(thisProc() + "hasNewHdr=["+hasNewHdr+"] fileName=["+fileName+"] ", debugDir);
-	    if (hasNewHdr) return; // nothing to upgrade
+		if (debugDir) dbgOutput(thisProc() + "hasNewHdr=["+hasNewHdr+"] fileName=["+fileName+"] ", debugDir);
+	    if (hasNewHdr) return null; // nothing to upgrade
 	    appOutput("Upgrading user .cfg file");
 
 		// if we get here, then must upgrade file header
-		openUserCfgFileNew(CompassConfig.userConfigFileName);
-		writeUserCfgFile(body);
-		closeUserCfgFile(false);
-		if (debugging) dbgOutput(thisProc() + "exit: upgraded fileName=["+fileName+"] ", debugDir);
-	}
-
-	public void writeUserCfgFile(String line) throws IOException {
-		userCfgFileWriter.write(line + "\n");
-		userCfgFileWriter.flush();
-	}
-
-    public void closeUserCfgFile() throws IOException {
-    	closeUserCfgFile(true);
-    }
-    public void closeUserCfgFile(boolean writeEndLine) throws IOException {
-    	if (userCfgFileWriter == null) return;
-    	if (writeEndLine) {
-	    	String now = new SimpleDateFormat("dd-MMM-yyyy HH:mm:ss").format(new Date());
-			String endLine = "# end ("+now+")\n";
-			writeUserCfgFile(endLine);
-		}
-	    userCfgFileWriter.close();
-	    userCfgFileWriter = null;
+		return userCfgFileStart(true) + body + "\n";
 	}
 
     public void installOptimisticCfgFile() throws IOException {
@@ -7735,19 +8107,28 @@ userCfgComplexityHdrLine202308 + "\n" +
 
 		File cfgFile = new File(optimisticUserCfgFileName);  // this is the copy in the install directory
 		if (cfgFile.exists()) {
-			if (debugging) dbgOutput(thisProc() + "New optimistic .cfg file found in install directory: ["+optimisticUserCfgFileName+"] ", debugDir);
+			if (debugDir) dbgOutput(thisProc() + "New optimistic .cfg file found in install directory: ["+optimisticUserCfgFileName+"] ", debugDir);
 			String f = getUserCfgFilePathName(optimisticUserCfgFileName);
 			File fSrc  = new File(f);
 			String now_fname = new SimpleDateFormat("yyyy-MMM-dd-HH.mm.ss").format(new Date());
-			if (fSrc.exists()) {
-				if (debugging) dbgOutput(thisProc() + "Optimistic .cfg file already exists (f=["+f+"]), renaming it first", debugDir);
+			byte[] newContents;
+			try {
+				newContents = CfgFileRepository.getBytes(optimisticUserCfgFileName);
+			} catch (Exception e) {
+				appOutput(e.getMessage());
+				appOutput("Error reading '"+cfgFile.toPath()+"'");
+				return;
+			}
+			boolean unchanged = fSrc.exists() && Arrays.equals(newContents, CfgFileRepository.getBytes(f));
+			if (fSrc.exists() && !unchanged) {
+				if (debugDir) dbgOutput(thisProc() + "Optimistic .cfg file already exists (f=["+f+"]), renaming it first", debugDir);
 				// first save existing file	before overwriting
 				String renamedTgt = f + "." + now_fname;
 				File fDest = new File(renamedTgt);
 				try {
-					if (debugging) dbgOutput(thisProc() + "Renaming ["+fSrc.toPath()+"] to ["+fDest.toPath()+"] ", debugDir);
+					if (debugDir) dbgOutput(thisProc() + "Renaming ["+fSrc.toPath()+"] to ["+fDest.toPath()+"] ", debugDir);
 		    		Files.copy(fSrc.toPath(), fDest.toPath(), StandardCopyOption.REPLACE_EXISTING);
-					if (debugging) dbgOutput(thisProc() + "Renamed OK", debugDir);
+					if (debugDir) dbgOutput(thisProc() + "Renamed OK", debugDir);
 		    	} catch (Exception e) {
 		    		appOutput(e.getMessage());
 		    		appOutput("Error renaming '"+fSrc.toPath()+"' to\n'"+ fDest.toPath()+"'");
@@ -7755,12 +8136,12 @@ userCfgComplexityHdrLine202308 + "\n" +
 		    	}
 		    }
 
-			// copying new file into place
+			// copying new file into place; no need for that if it is there already
 			fSrc  = new File(optimisticUserCfgFileName);
 			File fDest = new File(f);
 			try {
-				if (debugging) dbgOutput(thisProc() + "Copying new file from ["+fSrc.toPath()+"] to ["+fDest.toPath()+"] ", debugDir);
-				Files.copy(fSrc.toPath(), fDest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+				if (debugDir) dbgOutput(thisProc() + "Copying new file from ["+fSrc.toPath()+"] to ["+fDest.toPath()+"] unchanged=["+unchanged+"] ", debugDir);
+				CfgFileRepository.write(f, newContents);
 				appOutput("Moved new file '"+optimisticUserCfgFileName+"' to\n'"+f+"'");
 	    	} catch (Exception e) {
 	    		appOutput(e.getMessage());
@@ -7772,9 +8153,10 @@ userCfgComplexityHdrLine202308 + "\n" +
 			String renamedSrc = optimisticUserCfgFileName + "." + now_fname;
 			fDest = new File(renamedSrc);
 			try {
-				if (debugging) dbgOutput(thisProc() + "Renaming original .cfg file from ["+fSrc.toPath()+"] to ["+fDest.toPath()+"] ", debugDir);
+				if (debugDir) dbgOutput(thisProc() + "Renaming original .cfg file from ["+fSrc.toPath()+"] to ["+fDest.toPath()+"] ", debugDir);
 	    		Files.move(fSrc.toPath(), fDest.toPath(), StandardCopyOption.REPLACE_EXISTING);
-				if (debugging) dbgOutput(thisProc() + "Renamed OK", debugDir);
+	    		CfgFileRepository.forget(optimisticUserCfgFileName);
+				if (debugDir) dbgOutput(thisProc() + "Renamed OK", debugDir);
 	    	} catch (Exception e) {
 	    		appOutput(e.getMessage());
 	    		appOutput("Error renaming '"+fSrc.toPath()+"' to\n'"+ fDest.toPath()+"'");
@@ -7783,7 +8165,7 @@ userCfgComplexityHdrLine202308 + "\n" +
 		}
 		else {
 			// nothing to do, no file found to copy
-			if (debugging) dbgOutput(thisProc() + "["+optimisticUserCfgFileName+"] not found", debugDir);
+			if (debugDir) dbgOutput(thisProc() + "["+optimisticUserCfgFileName+"] not found", debugDir);
 		}
 	}
 
@@ -7814,7 +8196,7 @@ userCfgComplexityHdrLine202308 + "\n" +
 		Map<Integer, Map<Integer, Integer>> offsetIteration = new LinkedHashMap<>();
 		for (int i = offsetCols.size(); i < iteration; i++) {
 			offsetCols.add(offsetIteration);
-			if (debugging) dbgOutput(thisProc()+"initializing iteration=["+(i+1)+"] at ["+i+"]", debugRewrite);
+			if (debugRewrite) dbgOutput(thisProc()+"initializing iteration=["+(i+1)+"] at ["+i+"]", debugRewrite);
 		}
 	}
 
@@ -7826,10 +8208,10 @@ userCfgComplexityHdrLine202308 + "\n" +
 		List<String> linesNew  = new ArrayList<>(Arrays.asList((newStr).split("\n")));
 
 		int numChars = newStr.length() - origStr.length();
-		if (debugging) dbgOutput(thisProc()+"adding: iteration=["+iteration+"] lineNo=["+lineNo+"] lineNoOrig=["+lineNoOrig+"] startColOrig=["+startColOrig+"]  numChars=["+numChars+"] linesOrig=["+linesOrig.size()+"] linesNew=["+linesNew.size()+"] fName=["+fName+"] rewriteType=["+rewriteType+"] ", debugRewrite);
-		if (debugging) dbgOutput(thisProc()+"origStr=["+origStr+"] ", debugRewrite);
-		if (debugging) dbgOutput(thisProc()+"reportOrigStr=["+reportOrigStr+"]  ", debugRewrite);
-		if (debugging) dbgOutput(thisProc()+"newStr=["+newStr+"] ", debugRewrite);
+		if (debugRewrite) dbgOutput(thisProc()+"adding: iteration=["+iteration+"] lineNo=["+lineNo+"] lineNoOrig=["+lineNoOrig+"] startColOrig=["+startColOrig+"]  numChars=["+numChars+"] linesOrig=["+linesOrig.size()+"] linesNew=["+linesNew.size()+"] fName=["+fName+"] rewriteType=["+rewriteType+"] ", debugRewrite);
+		if (debugRewrite) dbgOutput(thisProc()+"origStr=["+origStr+"] ", debugRewrite);
+		if (debugRewrite) dbgOutput(thisProc()+"reportOrigStr=["+reportOrigStr+"]  ", debugRewrite);
+		if (debugRewrite) dbgOutput(thisProc()+"newStr=["+newStr+"] ", debugRewrite);
 
 
 		Map<Integer, Map<Integer, Integer>> offsetIteration = new LinkedHashMap<>();
@@ -7839,9 +8221,9 @@ userCfgComplexityHdrLine202308 + "\n" +
 		for (int i = lineNo; i<=(lineNo+linesOrig.size()-1); i++) {
 
 			int diffLength = linesNew.get(i-lineNo).length() - linesOrig.get(i-lineNo).length();
-			if (debugging) dbgOutput(thisProc()+"linesNew("+(i-lineNo)+")= ["+linesNew.get(i-lineNo)+"] = ["+linesNew.get(i-lineNo).length()+"]", debugRewrite);
-			if (debugging) dbgOutput(thisProc()+"linesOrig("+(i-lineNo)+")=["+linesOrig.get(i-lineNo)+"] = ["+linesOrig.get(i-lineNo).length()+"]", debugRewrite);
-			if (debugging) dbgOutput(thisProc()+"lineNo=i=["+i+"] diffLength=["+diffLength+"] ", debugRewrite);
+			if (debugRewrite) dbgOutput(thisProc()+"linesNew("+(i-lineNo)+")= ["+linesNew.get(i-lineNo)+"] = ["+linesNew.get(i-lineNo).length()+"]", debugRewrite);
+			if (debugRewrite) dbgOutput(thisProc()+"linesOrig("+(i-lineNo)+")=["+linesOrig.get(i-lineNo)+"] = ["+linesOrig.get(i-lineNo).length()+"]", debugRewrite);
+			if (debugRewrite) dbgOutput(thisProc()+"lineNo=i=["+i+"] diffLength=["+diffLength+"] ", debugRewrite);
 			if (diffLength == 0) continue;
 
 			Map<Integer, Integer> offsetLineNo = new LinkedHashMap<>();
@@ -7851,7 +8233,7 @@ userCfgComplexityHdrLine202308 + "\n" +
 			int col = 0;
 			if (i == lineNo) col = startColOrig;
 			offsetLineNo.put(col, diffLength);
-			if (debugging) dbgOutput(thisProc()+"(col) lineNo=i=["+i+"] col=["+col+"] diffLength=["+diffLength+"]", debugRewrite);
+			if (debugRewrite) dbgOutput(thisProc()+"(col) lineNo=i=["+i+"] col=["+col+"] diffLength=["+diffLength+"]", debugRewrite);
 		}
 
 		if (linesOrig.size() < linesNew.size()) {
@@ -7870,19 +8252,19 @@ userCfgComplexityHdrLine202308 + "\n" +
 					lineNrOffset = offsetLines.get(fName);
 					lineNrOffset.put(i,extraLines);
 
-					if (debugging) dbgOutput(thisProc()+"lineNo=i=["+i+"] adding "+extraLines+" extra lines at col= -1", debugRewrite);
+					if (debugRewrite) dbgOutput(thisProc()+"lineNo=i=["+i+"] adding "+extraLines+" extra lines at col= -1", debugRewrite);
 					break;
 				}
 
 				int origLen = linesOrig.get(i-lineNo).length();
 				int diffLength = linesNew.get(i-lineNo).length() - origLen;
-				//if (debugging) dbgOutput(thisProc()+"lineNo=i=["+i+"] origLen=["+origLen+"] newlen=["+linesNew.get(i-lineNo).length()+"]  diffLength=["+diffLength+"]", debugRewrite);
+				//if (debugRewrite) dbgOutput(thisProc()+"lineNo=i=["+i+"] origLen=["+origLen+"] newlen=["+linesNew.get(i-lineNo).length()+"]  diffLength=["+diffLength+"]", debugRewrite);
 				if (diffLength == 0) continue;
 
 				int col = 0;
 				if (i == lineNo) col = startColOrig;
 				offsetLineNo.put(col, diffLength);
-				if (debugging) dbgOutput(thisProc()+"(line) lineNo=i=["+i+"] col=["+col+"] diffLength=["+diffLength+"]", debugRewrite);
+				if (debugRewrite) dbgOutput(thisProc()+"(line) lineNo=i=["+i+"] col=["+col+"] diffLength=["+diffLength+"]", debugRewrite);
 
 			}
 		}
@@ -7918,17 +8300,17 @@ userCfgComplexityHdrLine202308 + "\n" +
 	public Integer calcOffsetLine (Integer iteration, Integer lineOrig, String rewriteType) {
 		Integer lineNew = lineOrig;
 		Integer iterationLineNoAdded = 0;
-		if (debugging) dbgOutput(thisProc()+"entry: iteration=["+iteration+"] lineOrig=["+lineOrig+"] offsetCols.size()=["+offsetCols.size()+"] rewriteType=["+rewriteType+"] ", debugRewrite);
+		if (debugRewrite) dbgOutput(thisProc()+"entry: iteration=["+iteration+"] lineOrig=["+lineOrig+"] offsetCols.size()=["+offsetCols.size()+"] rewriteType=["+rewriteType+"] ", debugRewrite);
 		if (iteration > 0) {
 			for (int i = 0; i < iteration; i++) {
-				if (debugging) dbgOutput(thisProc()+"iteration=["+(i+1)+"] at i=["+i+"]", debugRewrite);
+				if (debugRewrite) dbgOutput(thisProc()+"iteration=["+(i+1)+"] at i=["+i+"]", debugRewrite);
 				if (i >= offsetCols.size()) {
-					if (debugging) dbgOutput(thisProc()+"i=["+i+"], exiting", debugRewrite);
+					if (debugRewrite) dbgOutput(thisProc()+"i=["+i+"], exiting", debugRewrite);
 					break;
 				}
 
 				lineOrig += iterationLineNoAdded;
-				if (debugging) dbgOutput(thisProc()+"adding "+iterationLineNoAdded+" lines for previous iteration level: lineOrig=["+lineOrig+"] ", debugRewrite);
+				if (debugRewrite) dbgOutput(thisProc()+"adding "+iterationLineNoAdded+" lines for previous iteration level: lineOrig=["+lineOrig+"] ", debugRewrite);
 
 				iterationLineNoAdded = 0;
 				Map<Integer, Map<Integer, Integer>> offsetIteration = new LinkedHashMap<>();
@@ -7936,20 +8318,20 @@ userCfgComplexityHdrLine202308 + "\n" +
 				for (Integer lineNo : offsetIteration.keySet().stream().sorted().collect(Collectors.toList())) {
 					for (Integer colx : offsetIteration.get(lineNo).keySet().stream().sorted().collect(Collectors.toList())) {
 						Integer offset = offsetIteration.get(lineNo).get(colx);
-						if (debugging) dbgOutput(thisProc()+"     offsets: lineNo=["+lineNo+"] colx=["+colx+"] offset=["+offset+"]", debugRewrite);
+						if (debugRewrite) dbgOutput(thisProc()+"     offsets: lineNo=["+lineNo+"] colx=["+colx+"] offset=["+offset+"]", debugRewrite);
 						if (colx != -1) continue; // this is not an added-line count
 						if (lineOrig >= lineNo) {
 							lineNew += offset;
-							if (debugging) dbgOutput(thisProc()+"Adding line offset=["+offset+"] , lineNew=["+lineNew+"]", debugRewrite);
+							if (debugRewrite) dbgOutput(thisProc()+"Adding line offset=["+offset+"] , lineNew=["+lineNew+"]", debugRewrite);
 
 							iterationLineNoAdded += offset;
-							if (debugging) dbgOutput(thisProc()+"added, iterationLineNoAdded=["+iterationLineNoAdded+"] ", debugRewrite);
+							if (debugRewrite) dbgOutput(thisProc()+"added, iterationLineNoAdded=["+iterationLineNoAdded+"] ", debugRewrite);
 						}
 					}
 				}
 			}
 		}
-		if (debugging) dbgOutput(thisProc()+"result: lineNew=["+lineNew+"]", debugRewrite);
+		if (debugRewrite) dbgOutput(thisProc()+"result: lineNew=["+lineNew+"]", debugRewrite);
 		return lineNew;
 	}
 
@@ -7957,7 +8339,7 @@ userCfgComplexityHdrLine202308 + "\n" +
 	// calculate adjusted line number for the hyperlinks
 	public Integer calcOffsetLineHLink (String fName, Integer lineOrig) {
 		Integer lineNew = lineOrig;
-		if (debugging) dbgOutput(thisProc()+"entry: fName=["+fName+"] lineOrig=["+lineOrig+"]", debugRewrite);
+		if (debugRewrite) dbgOutput(thisProc()+"entry: fName=["+fName+"] lineOrig=["+lineOrig+"]", debugRewrite);
 		Map<Integer, Integer> lineNrOffset = new LinkedHashMap<>();
 		if (fName.isEmpty()) {
 			fName = offsetLines.keySet().iterator().next();
@@ -7967,44 +8349,44 @@ userCfgComplexityHdrLine202308 + "\n" +
 
 			for (Integer l : lineNrOffset.keySet().stream().sorted().collect(Collectors.toList())) {
 				Integer extraLines = lineNrOffset.get(l);
-				if (debugging) dbgOutput(thisProc()+"fName=["+fName+"] line=["+l+"] extraLines=["+extraLines+"]", debugRewrite);
+				if (debugRewrite) dbgOutput(thisProc()+"fName=["+fName+"] line=["+l+"] extraLines=["+extraLines+"]", debugRewrite);
 				if (lineOrig >= l) {
 					lineNew += extraLines;
-					if (debugging) dbgOutput(thisProc()+"Adding extraLines=["+extraLines+"], lineNew=["+lineNew+"]", debugRewrite);
+					if (debugRewrite) dbgOutput(thisProc()+"Adding extraLines=["+extraLines+"], lineNew=["+lineNew+"]", debugRewrite);
 				}
 			}
 		}
-		if (debugging) dbgOutput(thisProc()+"result: lineNew=["+lineNew+"]", debugRewrite);
+		if (debugRewrite) dbgOutput(thisProc()+"result: lineNew=["+lineNew+"]", debugRewrite);
 		return lineNew;
 	}
 
 	// calculate adjusted column position, taking earlier added chars into account
 	public Integer calcOffsetCol (Integer iteration, Integer lineNo, Integer col) {
 		Integer colNew = col;
-		if (debugging) dbgOutput(thisProc()+"entry: iteration=["+iteration+"] lineNo=["+lineNo+"] col=["+col+"]", debugRewrite);
+		if (debugRewrite) dbgOutput(thisProc()+"entry: iteration=["+iteration+"] lineNo=["+lineNo+"] col=["+col+"]", debugRewrite);
 		if (iteration > 0) {
 			if (offsetCols.size() >= iteration) {
 				for (int i = 0; i < iteration; i++) {
-					if (debugging) dbgOutput(thisProc()+"iteration=["+(i+1)+"] at i=["+i+"]", debugRewrite);
+					if (debugRewrite) dbgOutput(thisProc()+"iteration=["+(i+1)+"] at i=["+i+"]", debugRewrite);
 					Map<Integer, Map<Integer, Integer>> offsetIteration = new LinkedHashMap<>();
 					offsetIteration = offsetCols.get(i);
-					if (debugging) dbgOutput(thisProc()+"offsetIteration.size()=["+offsetIteration.size()+"] keys=["+offsetIteration.keySet()+"] ", debugRewrite);
+					if (debugRewrite) dbgOutput(thisProc()+"offsetIteration.size()=["+offsetIteration.size()+"] keys=["+offsetIteration.keySet()+"] ", debugRewrite);
 					if (offsetIteration.containsKey(lineNo)) {
-						if (debugging) dbgOutput(thisProc()+"found "+offsetIteration.get(lineNo).keySet().size()+" entries for iteration=["+(i+1)+"] lineNo=["+lineNo+"]", debugRewrite);
+						if (debugRewrite) dbgOutput(thisProc()+"found "+offsetIteration.get(lineNo).keySet().size()+" entries for iteration=["+(i+1)+"] lineNo=["+lineNo+"]", debugRewrite);
 						for (Integer colx : offsetIteration.get(lineNo).keySet().stream().sorted().collect(Collectors.toList())) {
 							Integer offset = offsetIteration.get(lineNo).get(colx);
-							if (debugging) dbgOutput(thisProc()+"   lineNo=["+lineNo+"] colx=["+colx+"] offset=["+offset+"]", debugRewrite);
+							if (debugRewrite) dbgOutput(thisProc()+"   lineNo=["+lineNo+"] colx=["+colx+"] offset=["+offset+"]", debugRewrite);
 							if (colx == -1) continue; // this is an added-line count
 							if (col > colx) {
 								colNew += offset;
-								if (debugging) dbgOutput(thisProc()+"Adding offset=["+offset+"], colNew=["+colNew+"]", debugRewrite);
+								if (debugRewrite) dbgOutput(thisProc()+"Adding offset=["+offset+"], colNew=["+colNew+"]", debugRewrite);
 							}
 						}
 					}
 				}
 			}
 		}
-		if (debugging) dbgOutput(thisProc()+"result: colNew=["+colNew+"]", debugRewrite);
+		if (debugRewrite) dbgOutput(thisProc()+"result: colNew=["+colNew+"]", debugRewrite);
 		return colNew;
 	}
 
@@ -8013,42 +8395,42 @@ userCfgComplexityHdrLine202308 + "\n" +
 		Integer lengthNew = 0;
 		Integer iterationStartLineNoAdded = 0;
 		Integer iterationEndLineNoAdded = 0;
-		if (debugging) dbgOutput(thisProc()+"entry: iteration=["+iteration+"] startLineNo=["+startLineNo+"] startCol=["+startCol+"] endLineNo=["+endLineNo+"] endCol=["+endCol+"] offsetCols.size()=["+offsetCols.size()+"] rewriteType=["+rewriteType+"] ", debugRewrite);
+		if (debugRewrite) dbgOutput(thisProc()+"entry: iteration=["+iteration+"] startLineNo=["+startLineNo+"] startCol=["+startCol+"] endLineNo=["+endLineNo+"] endCol=["+endCol+"] offsetCols.size()=["+offsetCols.size()+"] rewriteType=["+rewriteType+"] ", debugRewrite);
 		if (iteration > 0) {
 			if (offsetCols.size() >= iteration) {
 				for (int i = 0; i < iteration; i++) {
-					if (debugging) dbgOutput(thisProc()+"iteration=["+(i+1)+"] at i=["+i+"]", debugRewrite);
+					if (debugRewrite) dbgOutput(thisProc()+"iteration=["+(i+1)+"] at i=["+i+"]", debugRewrite);
 					Map<Integer, Map<Integer, Integer>> offsetIteration = new LinkedHashMap<>();
 					offsetIteration = offsetCols.get(i);
 
-					if (debugging) dbgOutput(thisProc()+"offsetIteration.size()=["+offsetIteration.size()+"] keys=["+offsetIteration.keySet()+"] ", debugRewrite);
+					if (debugRewrite) dbgOutput(thisProc()+"offsetIteration.size()=["+offsetIteration.size()+"] keys=["+offsetIteration.keySet()+"] ", debugRewrite);
 					startLineNo += iterationStartLineNoAdded;
 					endLineNo   += iterationEndLineNoAdded;
 
-					if (debugging) dbgOutput(thisProc()+"adding "+iterationEndLineNoAdded+" end lines for previous iteration level: endLineNo=["+endLineNo+"] ", debugRewrite);
-					if (debugging) dbgOutput(thisProc()+"adding "+iterationStartLineNoAdded+" lines for previous iteration level: startLineNo=["+startLineNo+"] ", debugRewrite);
+					if (debugRewrite) dbgOutput(thisProc()+"adding "+iterationEndLineNoAdded+" end lines for previous iteration level: endLineNo=["+endLineNo+"] ", debugRewrite);
+					if (debugRewrite) dbgOutput(thisProc()+"adding "+iterationStartLineNoAdded+" lines for previous iteration level: startLineNo=["+startLineNo+"] ", debugRewrite);
 					iterationStartLineNoAdded = 0;
 					iterationEndLineNoAdded = 0;
 
 					//for (Integer lineNo=startLineNo; lineNo<=endLineNo; lineNo++) {
 					for (Integer lineNo=1; lineNo<=endLineNo; lineNo++) {
 						if (!offsetIteration.containsKey(lineNo)) continue;
-						if (debugging) dbgOutput(thisProc()+"lineNo=["+lineNo+"]", debugRewrite);
+						if (debugRewrite) dbgOutput(thisProc()+"lineNo=["+lineNo+"]", debugRewrite);
 
-						if (debugging) dbgOutput(thisProc()+"found entries for iteration=["+(i+1)+"] lineNo=["+lineNo+"]", debugRewrite);
+						if (debugRewrite) dbgOutput(thisProc()+"found entries for iteration=["+(i+1)+"] lineNo=["+lineNo+"]", debugRewrite);
 						for (Integer colx : offsetIteration.get(lineNo).keySet().stream().sorted().collect(Collectors.toList())) {
 							Integer offset = offsetIteration.get(lineNo).get(colx);
-							if (debugging) dbgOutput(thisProc()+"   lineNo=["+lineNo+"] colx=["+colx+"] offset=["+offset+"]", debugRewrite);
+							if (debugRewrite) dbgOutput(thisProc()+"   lineNo=["+lineNo+"] colx=["+colx+"] offset=["+offset+"]", debugRewrite);
 							if (colx == -1) {
 								// this is an added-line count
 								// add line offset for startLineNo for next iteration level
 								if (lineNo <= startLineNo) {
 									iterationStartLineNoAdded += offset;
-									if (debugging) dbgOutput(thisProc()+"added offset=["+offset+"] for lineNo=["+lineNo+"] startLineNo=["+startLineNo+"]  iterationStartLineNoAdded=["+iterationStartLineNoAdded+"] ", debugRewrite);
+									if (debugRewrite) dbgOutput(thisProc()+"added offset=["+offset+"] for lineNo=["+lineNo+"] startLineNo=["+startLineNo+"]  iterationStartLineNoAdded=["+iterationStartLineNoAdded+"] ", debugRewrite);
 								}
 								if (lineNo < endLineNo) {
 									iterationEndLineNoAdded += offset;
-									if (debugging) dbgOutput(thisProc()+"added offset=["+offset+"] for lineNo=["+lineNo+"] endLineNo=[$endLineNo]  iterationEndLineNoAdded=["+iterationEndLineNoAdded+"] ", debugRewrite);
+									if (debugRewrite) dbgOutput(thisProc()+"added offset=["+offset+"] for lineNo=["+lineNo+"] endLineNo=[$endLineNo]  iterationEndLineNoAdded=["+iterationEndLineNoAdded+"] ", debugRewrite);
 								}
 								continue;
 							}
@@ -8056,71 +8438,71 @@ userCfgComplexityHdrLine202308 + "\n" +
 							if (lineNo < startLineNo) continue;
 
 							if ((lineNo.equals(startLineNo)) && (startCol > colx)) {
-								if (debugging) dbgOutput(thisProc()+"   == startLineNo: before startCol, skip, lengthNew=["+lengthNew+"]", debugRewrite);
+								if (debugRewrite) dbgOutput(thisProc()+"   == startLineNo: before startCol, skip, lengthNew=["+lengthNew+"]", debugRewrite);
 								continue;
 							}
 							if ((lineNo.equals(startLineNo)) && (colx > endCol)) {
-								if (debugging) dbgOutput(thisProc()+"   == startLineNo: after endCol, skip, lengthNew=["+lengthNew+"]", debugRewrite);
+								if (debugRewrite) dbgOutput(thisProc()+"   == startLineNo: after endCol, skip, lengthNew=["+lengthNew+"]", debugRewrite);
 								continue;
 							}
 
 							if ((lineNo.equals(startLineNo)) && (colx >= startCol)) {
 								lengthNew += offset;
-								if (debugging) dbgOutput(thisProc()+"   == startLineNo: Adding offset=["+offset+"], lengthNew=["+lengthNew+"]", debugRewrite);
+								if (debugRewrite) dbgOutput(thisProc()+"   == startLineNo: Adding offset=["+offset+"], lengthNew=["+lengthNew+"]", debugRewrite);
 							}
 							else if ((lineNo.equals(endLineNo)) && (endCol > colx)) {
 								lengthNew += offset;
-								if (debugging) dbgOutput(thisProc()+"   == endLineNo: Adding offset=["+offset+"], lengthNew=["+lengthNew+"]", debugRewrite);
+								if (debugRewrite) dbgOutput(thisProc()+"   == endLineNo: Adding offset=["+offset+"], lengthNew=["+lengthNew+"]", debugRewrite);
 							}
 							else if ((lineNo > startLineNo) && (lineNo < endLineNo)) {
 								lengthNew += offset;
-								if (debugging) dbgOutput(thisProc()+"   >startlineNo, < endlineNo: Adding offset=["+offset+"], lengthNew=["+lengthNew+"]", debugRewrite);
+								if (debugRewrite) dbgOutput(thisProc()+"   >startlineNo, < endlineNo: Adding offset=["+offset+"], lengthNew=["+lengthNew+"]", debugRewrite);
 							}
 							else {
-								if (debugging) dbgOutput(thisProc()+"   no match, lengthNew=["+lengthNew+"] ", debugRewrite);
+								if (debugRewrite) dbgOutput(thisProc()+"   no match, lengthNew=["+lengthNew+"] ", debugRewrite);
 							}
 						}
 					}
 				}
 			}
 		}
-		if (debugging) dbgOutput(thisProc()+"result: lengthNew=["+lengthNew+"]", debugRewrite);
+		if (debugRewrite) dbgOutput(thisProc()+"result: lengthNew=["+lengthNew+"]", debugRewrite);
 		return lengthNew;
 	}
 
 	public void dumpOffsetCols(String s) {
-		if (debugging) dbgOutput(thisProc()+s+": offsetCols: #iteration levels=["+offsetCols.size()+"]", debugRewrite);
+		if (debugRewrite) dbgOutput(thisProc()+s+": offsetCols: #iteration levels=["+offsetCols.size()+"]", debugRewrite);
 		for (int i = 0; i < offsetCols.size(); i++) {
-			if (debugging) dbgOutput(thisProc()+"iteration=["+(i+1)+"] at i=["+i+"]", debugRewrite);
+			if (debugRewrite) dbgOutput(thisProc()+"iteration=["+(i+1)+"] at i=["+i+"]", debugRewrite);
 			Map<Integer, Map<Integer, Integer>> offsetIteration = new LinkedHashMap<>();
 			offsetIteration = offsetCols.get(i);
-			//if (debugging) dbgOutput(thisProc()+"offsetIteration.size()=["+offsetIteration.size()+"] keys=["+offsetIteration.keySet()+"] ", debugRewrite);
+			//if (debugRewrite) dbgOutput(thisProc()+"offsetIteration.size()=["+offsetIteration.size()+"] keys=["+offsetIteration.keySet()+"] ", debugRewrite);
 			for (Integer lineNo : offsetIteration.keySet().stream().sorted().collect(Collectors.toList())) {
-				//if (debugging) dbgOutput(thisProc()+"   offsets: lineNo=["+lineNo+"]", debugRewrite);
+				//if (debugRewrite) dbgOutput(thisProc()+"   offsets: lineNo=["+lineNo+"]", debugRewrite);
 				for (Integer col : offsetIteration.get(lineNo).keySet().stream().sorted().collect(Collectors.toList())) {
-					if (debugging) dbgOutput(thisProc()+"     offsets: lineNo=["+lineNo+"] col=["+col+"] offset=["+offsetIteration.get(lineNo).get(col)+"]", debugRewrite);
+					if (debugRewrite) dbgOutput(thisProc()+"     offsets: lineNo=["+lineNo+"] col=["+col+"] offset=["+offsetIteration.get(lineNo).get(col)+"]", debugRewrite);
 				}
 			}
 		}
-		if (debugging) dbgOutput(thisProc(), debugRewrite);
+		if (debugRewrite) dbgOutput(thisProc(), debugRewrite);
 	}
 
 	public void dumpOffsetLines(String s) {
-		if (debugging) dbgOutput(thisProc()+s+": offsetLines: #files=["+offsetLines.size()+"]", debugRewrite);
+		if (debugRewrite) dbgOutput(thisProc()+s+": offsetLines: #files=["+offsetLines.size()+"]", debugRewrite);
 		for (String f : offsetLines.keySet().stream().sorted().collect(Collectors.toList())) {
 			Map<Integer, Integer> lineNrOffset = new LinkedHashMap<>();
 			lineNrOffset = offsetLines.get(f);
 			for (Integer l : lineNrOffset.keySet().stream().sorted().collect(Collectors.toList())) {
 				Integer extraLines = lineNrOffset.get(l);
-				if (debugging) dbgOutput(thisProc()+"f=["+f+"] line=["+l+"] extraLines=["+extraLines+"]", debugRewrite);
+				if (debugRewrite) dbgOutput(thisProc()+"f=["+f+"] line=["+l+"] extraLines=["+extraLines+"]", debugRewrite);
 			}
 		}
-		if (debugging) dbgOutput(thisProc(), debugRewrite);
+		if (debugRewrite) dbgOutput(thisProc(), debugRewrite);
 	}
 
 	// apply text substitutions
 	public void performRewriting(String reportName, String appName, String inFileCopy) throws IOException {
-		if (debugging) dbgOutput(thisProc()+"performing rewrites=["+rewriteTextListKeys.size()+"] to copy of ["+inFileCopy+"]", debugRewrite);
+		if (debugRewrite) dbgOutput(thisProc()+"performing rewrites=["+rewriteTextListKeys.size()+"] to copy of ["+inFileCopy+"]", debugRewrite);
 		if (rewriteTextListKeys.size() == 0) return;
 
 		// determine whether there are any substitutions that are overlapping with other ones
@@ -8172,13 +8554,13 @@ userCfgComplexityHdrLine202308 + "\n" +
 
 		while (tmpToDoItems.size() > 0) {
 			iteration++;
-			if (debugging) dbgOutput(thisProc()+"top: iteration=["+iteration+"]", debugRewrite);
+			if (debugRewrite) dbgOutput(thisProc()+"top: iteration=["+iteration+"]", debugRewrite);
 
 			checkDir(rewrittenDir, true, true);
 			checkDir(rewrittenHTMLDir, true, true);
 			deleteFile(tmpFile);
 			copyFile(inFile, tmpFile);
-			if (debugging) dbgOutput(thisProc()+"copied inFile=["+inFile+"] to tmpFile=["+tmpFile+"] target rewrittenFile=["+rewrittenFile+"] rewrittenHTMLFile=["+rewrittenHTMLFile+"] ", debugRewrite);
+			if (debugRewrite) dbgOutput(thisProc()+"copied inFile=["+inFile+"] to tmpFile=["+tmpFile+"] target rewrittenFile=["+rewrittenFile+"] rewrittenHTMLFile=["+rewrittenHTMLFile+"] ", debugRewrite);
 
 			openRewrittenFile(reportName, appName, tmpFile, rewrittenFile);
 			inFile = rewrittenFile;
@@ -8191,10 +8573,10 @@ userCfgComplexityHdrLine202308 + "\n" +
 
 			List<String> tmpSorted = tmpToDoItems.stream().sorted().collect(Collectors.toList());
 			tmpRemovedItems.clear();
-			if (debugging) dbgOutput(thisProc()+"tmpToDoItems top=["+tmpToDoItems.size()+"]", debugRewrite);
+			if (debugRewrite) dbgOutput(thisProc()+"tmpToDoItems top=["+tmpToDoItems.size()+"]", debugRewrite);
 
 			for (String s : tmpToDoItems.stream().sorted().collect(Collectors.toList())) {
-				if (debugging) dbgOutput(thisProc()+"s=["+s+"]", debugRewrite);
+				if (debugRewrite) dbgOutput(thisProc()+"s=["+s+"]", debugRewrite);
 				List<String> tmp = new ArrayList<>(Arrays.asList(s.split(captureFileSeparator)));
 				batchNo  = Integer.parseInt(tmp.get(0));
 				startPos = Integer.parseInt(tmp.get(1));
@@ -8207,19 +8589,19 @@ userCfgComplexityHdrLine202308 + "\n" +
 				rewriteType  = tmp.get(8);
 				report   = tmp.get(9);
 				rewriteText = rewriteTextList.get(s);
-				if (debugging) dbgOutput(thisProc()+"startLine=["+startLine+"] startCol=["+startCol+"] startPos=["+startPos+"] endPos=["+endPos+"] endLine=["+endLine+"] endCol=["+endCol+"] origLen=["+origLen+"] rewriteType=["+rewriteType+"]  rewriteText=["+rewriteText+"] report=["+report+"]", debugRewrite);
+				if (debugRewrite) dbgOutput(thisProc()+"startLine=["+startLine+"] startCol=["+startCol+"] startPos=["+startPos+"] endPos=["+endPos+"] endLine=["+endLine+"] endCol=["+endCol+"] origLen=["+origLen+"] rewriteType=["+rewriteType+"]  rewriteText=["+rewriteText+"] report=["+report+"]", debugRewrite);
 
 				if (batchNoPrev == batchNo) {
 					if (startPos >= startPrev && endPos <= endPrev) {
 						// this one falls inside the range of the previous one
 						// delete the previous one from the sorted list
-						if (debugging) dbgOutput(thisProc()+"this rewrite is within range of previous. keeping this one and deleting previous sPrev=["+sPrev+"]", debugRewrite);
+						if (debugRewrite) dbgOutput(thisProc()+"this rewrite is within range of previous. keeping this one and deleting previous sPrev=["+sPrev+"]", debugRewrite);
 						tmpRemovedItems.add(sPrev);
 						tmpSorted.remove(sPrev);
 					}
 					else if (startPos >= startPrev && endPos > endPrev) {
 						// not expecting this, should not be possible
-						if (debugging) dbgOutput(thisProc()+"unexpected branch: startPos=["+startPos+"] startPrev=["+startPrev+"] endPos=["+endPos+"] endPrev=["+endPrev+"] ", debugRewrite);
+						if (debugRewrite) dbgOutput(thisProc()+"unexpected branch: startPos=["+startPos+"] startPrev=["+startPrev+"] endPos=["+endPos+"] endPrev=["+endPrev+"] ", debugRewrite);
 					}
 				}
 
@@ -8273,7 +8655,7 @@ userCfgComplexityHdrLine202308 + "\n" +
 					if (nextRewrite) {
 						String k = tmpSorted.get(rewriteCount);
 						rewriteText = rewriteTextList.get(k);
-						if (debugging) dbgOutput(thisProc()+"rewriteCount=["+rewriteCount+"]  k=["+k+"] rewriteText=["+rewriteText+"]", debugRewrite);
+						if (debugRewrite) dbgOutput(thisProc()+"rewriteCount=["+rewriteCount+"]  k=["+k+"] rewriteText=["+rewriteText+"]", debugRewrite);
 
 						List<String> tmp = new ArrayList<>(Arrays.asList(k.split(captureFileSeparator)));
 						batchNo  = Integer.parseInt(tmp.get(0));
@@ -8293,24 +8675,24 @@ userCfgComplexityHdrLine202308 + "\n" +
 							origLen = endPos - startPos + 1;
 						}
 
-						if (debugging) dbgOutput(thisProc()+"rewriteCount=["+rewriteCount+"] iteration=["+iteration+"] startPos=["+startPos+"] endPos=["+endPos+"] startLine=["+startLine+"] startCol=["+startCol+"] endLine=["+endLine+"] endCol=["+endCol+"] origLen=["+origLen+"] rewriteType=["+rewriteType+"] rewriteText=["+rewriteText+"] report=["+report+"]", debugRewrite);
+						if (debugRewrite) dbgOutput(thisProc()+"rewriteCount=["+rewriteCount+"] iteration=["+iteration+"] startPos=["+startPos+"] endPos=["+endPos+"] startLine=["+startLine+"] startCol=["+startCol+"] endLine=["+endLine+"] endCol=["+endCol+"] origLen=["+origLen+"] rewriteType=["+rewriteType+"] rewriteText=["+rewriteText+"] report=["+report+"]", debugRewrite);
 
 						if (debugging && debugRewrite) dumpOffsetCols("before calc");
 
 						startLineOrig = startLine;
 						startLine = calcOffsetLine(iteration, startLine, rewriteType);
-						if (debugging) dbgOutput(thisProc()+"startLine after adjust=["+startLine+"] delta=["+(startLine-startLineOrig)+"] ", debugRewrite);
+						if (debugRewrite) dbgOutput(thisProc()+"startLine after adjust=["+startLine+"] delta=["+(startLine-startLineOrig)+"] ", debugRewrite);
 
 						Integer startColNew = calcOffsetCol(iteration, startLineOrig, startCol);
-						if (debugging) dbgOutput(thisProc()+"startCol=["+startCol+"] startColNew=["+startColNew+"]", debugRewrite);
+						if (debugRewrite) dbgOutput(thisProc()+"startCol=["+startCol+"] startColNew=["+startColNew+"]", debugRewrite);
 
 						Integer endColNew = calcOffsetCol(iteration, endLine, endCol);
-						if (debugging) dbgOutput(thisProc()+"endCol=["+startCol+"] endColNew=["+endColNew+"]", debugRewrite);
+						if (debugRewrite) dbgOutput(thisProc()+"endCol=["+startCol+"] endColNew=["+endColNew+"]", debugRewrite);
 
 						Integer offsetLength = calcOffsetLength(iteration, startLineOrig, startCol, endLine, endCol, rewriteType);
 						Integer origLenNew = origLen + offsetLength;
-						if (debugging) dbgOutput(thisProc()+"offsetLength=["+offsetLength+"]", debugRewrite);
-						if (debugging) dbgOutput(thisProc()+"origLen=["+origLen+"] origLenNew=["+origLenNew+"]", debugRewrite);
+						if (debugRewrite) dbgOutput(thisProc()+"offsetLength=["+offsetLength+"]", debugRewrite);
+						if (debugRewrite) dbgOutput(thisProc()+"origLen=["+origLen+"] origLenNew=["+origLenNew+"]", debugRewrite);
 
 						startCol = startColNew;
 						startColOrig = startCol;
@@ -8319,17 +8701,17 @@ userCfgComplexityHdrLine202308 + "\n" +
 						nextRewrite = false;
 					}
 
-					if (debugging) dbgOutput(thisProc()+"lineNo=["+lineNo+"]=["+line+"]  lineCut=["+lineCut+"]", debugRewrite);
-					if (debugging) dbgOutput(thisProc()+"startLine=["+startLine+"]", debugRewrite);
+					if (debugRewrite) dbgOutput(thisProc()+"lineNo=["+lineNo+"]=["+line+"]  lineCut=["+lineCut+"]", debugRewrite);
+					if (debugRewrite) dbgOutput(thisProc()+"startLine=["+startLine+"]", debugRewrite);
 					if (lineNo == startLine) {
 						// reached startline for sub; apply it
-						if (debugging) dbgOutput(thisProc()+"*** applying rewrite=["+rewriteCount+"] origLen=["+origLen+"]", debugRewrite);
+						if (debugRewrite) dbgOutput(thisProc()+"*** applying rewrite=["+rewriteCount+"] origLen=["+origLen+"]", debugRewrite);
 						keepLine = false; // new rewrite to be done
 
-						if (debugging) dbgOutput(thisProc()+"startCol orig=["+startColOrig+"] lineCut=["+lineCut+"] ", debugRewrite);
+						if (debugRewrite) dbgOutput(thisProc()+"startCol orig=["+startColOrig+"] lineCut=["+lineCut+"] ", debugRewrite);
 						if (startColOrig == -1) startColOrig = startCol;
 						startCol = startColOrig - lineCut;
-						if (debugging) dbgOutput(thisProc()+"startCol adjusted=["+startCol+"] ", debugRewrite);
+						if (debugRewrite) dbgOutput(thisProc()+"startCol adjusted=["+startCol+"] ", debugRewrite);
 
 						// sanity check on line length
 						if (line.length() < startCol+1) {
@@ -8356,17 +8738,17 @@ userCfgComplexityHdrLine202308 + "\n" +
 						String pre = line.substring(0,startCol);
 						lineCut += pre.length();
 						writeRewrittenFile(pre);
-						if (debugging) dbgOutput(thisProc()+"pre=["+pre+"] remainingLength=["+remainingLength+"] ", debugRewrite);
+						if (debugRewrite) dbgOutput(thisProc()+"pre=["+pre+"] remainingLength=["+remainingLength+"] ", debugRewrite);
 
-						if (debugging) dbgOutput(thisProc()+"remainingLength=["+remainingLength+"] line.length()=["+line.length()+"] pre.length()=["+pre.length()+"] keepLine=["+keepLine+"] ", debugRewrite);
+						if (debugRewrite) dbgOutput(thisProc()+"remainingLength=["+remainingLength+"] line.length()=["+line.length()+"] pre.length()=["+pre.length()+"] keepLine=["+keepLine+"] ", debugRewrite);
 						if (line.length() - pre.length() >= remainingLength) {
-							if (debugging) dbgOutput(thisProc()+"ends on this line(A), remainingLength=["+remainingLength+"]", debugRewrite);
+							if (debugRewrite) dbgOutput(thisProc()+"ends on this line(A), remainingLength=["+remainingLength+"]", debugRewrite);
 							// it's all on this line
 							String origStr = line.substring(startCol, startCol+remainingLength);
 							origStrFull += origStr;
 							remainingLength -= origStr.length();
-							if (debugging) dbgOutput(thisProc()+"origStr A=["+origStr+"] remainingLength=["+remainingLength+"]", debugRewrite);
-							if (debugging) dbgOutput(thisProc()+"origStrFull=["+origStrFull+"] ", debugRewrite);
+							if (debugRewrite) dbgOutput(thisProc()+"origStr A=["+origStr+"] remainingLength=["+remainingLength+"]", debugRewrite);
+							if (debugRewrite) dbgOutput(thisProc()+"origStrFull=["+origStrFull+"] ", debugRewrite);
 							assert (remainingLength == 0) : thisProc()+"error, remainingLength("+remainingLength+") should be 0: line=["+line+"] pre=["+pre+"] ";
 							String post = line.substring(pre.length() + origStr.length());
 							line = post;
@@ -8381,21 +8763,21 @@ userCfgComplexityHdrLine202308 + "\n" +
 						}						
 						else {
 							// original text extends to next line(s)
-							if (debugging) dbgOutput(thisProc()+"extends on next line(B), remainingLength=["+remainingLength+"]", debugRewrite);
+							if (debugRewrite) dbgOutput(thisProc()+"extends on next line(B), remainingLength=["+remainingLength+"]", debugRewrite);
 							String origStr = line.substring(startCol);
 							origStrFull += origStr + "\n";
 							remainingLength -= origStr.length();
 							remainingLength--; // for the newline char
-							if (debugging) dbgOutput(thisProc()+"extends on next line(B), origStrFull=["+origStrFull+"]", debugRewrite);
+							if (debugRewrite) dbgOutput(thisProc()+"extends on next line(B), origStrFull=["+origStrFull+"]", debugRewrite);
 						}
 					}
 					else if (remainingLength > 0) {
-						if (debugging) dbgOutput (thisProc()+"extending from previous line(C), remainingLength=["+remainingLength+"]", debugRewrite);
+						if (debugRewrite) dbgOutput (thisProc()+"extending from previous line(C), remainingLength=["+remainingLength+"]", debugRewrite);
 
-						if (debugging) dbgOutput(thisProc()+"startCol orig=["+startColOrig+"] lineCut=["+lineCut+"] ", debugRewrite);
+						if (debugRewrite) dbgOutput(thisProc()+"startCol orig=["+startColOrig+"] lineCut=["+lineCut+"] ", debugRewrite);
 						if (startColOrig == -1) startColOrig = startCol;
 						startCol = startColOrig - lineCut;
-						if (debugging) dbgOutput(thisProc()+"startCol adjusted=["+startCol+"] ", debugRewrite);
+						if (debugRewrite) dbgOutput(thisProc()+"startCol adjusted=["+startCol+"] ", debugRewrite);
 
 						// continue collecting the original string
 						if (line.length() < remainingLength) {
@@ -8403,11 +8785,11 @@ userCfgComplexityHdrLine202308 + "\n" +
 							remainingLength -= line.length();
 							remainingLength--; // for the newline char
 							origStrFull += line + "\n";
-							if (debugging) dbgOutput(thisProc()+"extends on next line(D)=["+line+"] remainingLength=["+remainingLength+"] origStrFull=["+origStrFull+"]=["+origStrFull.length()+"]", debugRewrite);
+							if (debugRewrite) dbgOutput(thisProc()+"extends on next line(D)=["+line+"] remainingLength=["+remainingLength+"] origStrFull=["+origStrFull+"]=["+origStrFull.length()+"]", debugRewrite);
 						}
 						else {
 							// ends on this line
-							if (debugging) dbgOutput(thisProc()+"ends on this line(E), remainingLength=["+remainingLength+"]", debugRewrite);
+							if (debugRewrite) dbgOutput(thisProc()+"ends on this line(E), remainingLength=["+remainingLength+"]", debugRewrite);
 							String origStr = line.substring(0,remainingLength);
 							origStrFull += origStr;
 							remainingLength -= origStr.length();
@@ -8417,7 +8799,7 @@ userCfgComplexityHdrLine202308 + "\n" +
 							lineCut += origStr.length();
 							keepLine = true;
 
-							if (debugging) dbgOutput(thisProc()+"origStrFull=["+origStrFull+"]=["+origStrFull.length()+"]", debugRewrite);
+							if (debugRewrite) dbgOutput(thisProc()+"origStrFull=["+origStrFull+"]=["+origStrFull.length()+"]", debugRewrite);
 							List<String> newStr = applyRewrite(rewriteType, report, rewriteText, origStrFull);
 							addOffsets(iteration+1, startLine, startLineOrig, startColOrig, origStrFull, newStr.get(2), newStr.get(0), newStr.get(1), report, fName, rewriteType);
 
@@ -8428,26 +8810,26 @@ userCfgComplexityHdrLine202308 + "\n" +
 					else {
 						String newStr = line + "\n";
 						writeRewrittenFile(newStr);
-						if (debugging) dbgOutput(thisProc()+"write newStr(F), =["+newStr+"] ", debugRewrite);
+						if (debugRewrite) dbgOutput(thisProc()+"write newStr(F), =["+newStr+"] ", debugRewrite);
 						break;
 					}
 
 					if (remainingLength == 0) {
 						// when rewrite is done, move to next rewrite
 						rewriteCount++;
-						if (debugging) dbgOutput(thisProc()+"next rewrite: rewriteCount=["+rewriteCount+"]", debugRewrite);
+						if (debugRewrite) dbgOutput(thisProc()+"next rewrite: rewriteCount=["+rewriteCount+"]", debugRewrite);
 						nextRewrite = true;
 						remainingLength = -1;
 						if (rewriteCount >= tmpSorted.size()) {
 							// no more subs to apply
-							if (debugging) dbgOutput(thisProc()+"rewriteCount=["+rewriteCount+"] no more rewrites to apply", debugRewrite);
+							if (debugRewrite) dbgOutput(thisProc()+"rewriteCount=["+rewriteCount+"] no more rewrites to apply", debugRewrite);
 							startLine = -1;
 							nextRewrite = false;
 						}
 					}
 
 					if (!keepLine) {
-						if (debugging) dbgOutput(thisProc()+"keepLine=["+keepLine+"], breaking", debugRewrite);
+						if (debugRewrite) dbgOutput(thisProc()+"keepLine=["+keepLine+"], breaking", debugRewrite);
 						break;
 					}
 				}
@@ -8513,7 +8895,7 @@ userCfgComplexityHdrLine202308 + "\n" +
 	}
 
 	private List<String> applyRewrite(String rewriteType, String report, String rewriteText, String origStrFull) {
-		if (debugging) dbgOutput(thisProc()+"rewriteType=["+rewriteType+"] report=["+report+"] rewriteText=["+rewriteText+"] origStrFull=["+origStrFull+"]", debugRewrite);
+		if (debugRewrite) dbgOutput(thisProc()+"rewriteType=["+rewriteType+"] report=["+report+"] rewriteText=["+rewriteText+"] origStrFull=["+origStrFull+"]", debugRewrite);
 
 		String origStrReport = origStrFull;
 
@@ -8598,7 +8980,7 @@ userCfgComplexityHdrLine202308 + "\n" +
 
 			// pick up rewritten CREATE INDEX statement
 			rewriteText = rewriteTextListOrigText.get(rwrID.toString());
-			if (debugging) dbgOutput(thisProc()+"rewriteText=["+rewriteText+"]", debugRewrite);
+			if (debugRewrite) dbgOutput(thisProc()+"rewriteText=["+rewriteText+"]", debugRewrite);
 
 			// handle case where it's a table-level index rather than column-level
 			if (positions.containsKey("collist")) {
@@ -8674,7 +9056,7 @@ userCfgComplexityHdrLine202308 + "\n" +
 				if (p.equals("indent")) continue;
 				int startPos = positions.get(p).get(0);
 				int endPos = positions.get(p).get(1);
-				//if (debugging) dbgOutput(thisProc()+"     p=["+p+"] startPos=["+startPos+"]  endPos=["+endPos+"] ", debugRewrite);
+				//if (debugRewrite) dbgOutput(thisProc()+"     p=["+p+"] startPos=["+startPos+"]  endPos=["+endPos+"] ", debugRewrite);
 				startPos -= startCtx;
 				endPos -= startCtx;
 				endPos++;
@@ -8686,7 +9068,7 @@ userCfgComplexityHdrLine202308 + "\n" +
 				if (s.contains("--")) {
 					s = applyPatternAll(s, "\\-\\-.*?\n", "\n","multiline");  // betting that '--' won't occur in a string
 				}
-				if (debugging) dbgOutput(thisProc()+"     p=["+p+"] startPos=["+startPos+"]  endPos=["+endPos+"]  s=["+s+"] ", debugRewrite);
+				if (debugRewrite) dbgOutput(thisProc()+"     p=["+p+"] startPos=["+startPos+"]  endPos=["+endPos+"]  s=["+s+"] ", debugRewrite);
 				tmpRwr.put(p, s);
 				cnt++;
 			}
@@ -8697,7 +9079,7 @@ userCfgComplexityHdrLine202308 + "\n" +
 			boolean addBlank = false;
 			for (String p : tmpRwr.keySet().stream().sorted(String.CASE_INSENSITIVE_ORDER).collect(Collectors.toList())) {
 				String s = tmpRwr.get(p);
-				if (debugging) dbgOutput(thisProc()+"    p=["+p+"]  s=["+s+"] ", debugRewrite);
+				if (debugRewrite) dbgOutput(thisProc()+"    p=["+p+"]  s=["+s+"] ", debugRewrite);
 				if (addBlank) rwrSteps += blankLine;
 				addBlank = true;
 				rwrSteps += startStmt + "\n";
@@ -8739,7 +9121,7 @@ userCfgComplexityHdrLine202308 + "\n" +
 				if (p.equals("when_matches")) continue;
 				int startPos = positions.get(p).get(0);
 				int endPos = positions.get(p).get(1);
-				//if (debugging) dbgOutput(thisProc()+"     p=["+p+"] startPos=["+startPos+"]  endPos=["+endPos+"] ", debugRewrite);
+				//if (debugRewrite) dbgOutput(thisProc()+"     p=["+p+"] startPos=["+startPos+"]  endPos=["+endPos+"] ", debugRewrite);
 				startPos -= startCtx;
 				endPos -= startCtx;
 				endPos++;
@@ -8751,7 +9133,7 @@ userCfgComplexityHdrLine202308 + "\n" +
 				if (s.contains("--")) {
 					s = applyPatternAll(s, "\\-\\-.*?\n", "\n","multiline");  // betting that '--' won't occur in a string
 				}
-				if (debugging) dbgOutput(thisProc()+"     p=["+p+"] startPos=["+startPos+"]  endPos=["+endPos+"]  s=["+s+"] ", debugRewrite);
+				if (debugRewrite) dbgOutput(thisProc()+"     p=["+p+"] startPos=["+startPos+"]  endPos=["+endPos+"]  s=["+s+"] ", debugRewrite);
 				tmpMerge.put(p, s);
 
 				if (p.toUpperCase().startsWith("WHEN_MATCHES WHENNOTMATCHED")) {
@@ -8799,7 +9181,7 @@ userCfgComplexityHdrLine202308 + "\n" +
 			String blankLine = "\n"+rewriteBlankLine+"\n";
 			for (String p : tmpMerge.keySet().stream().sorted(String.CASE_INSENSITIVE_ORDER).collect(Collectors.toList())) {
 				String s = tmpMerge.get(p);
-				if (debugging) dbgOutput(thisProc()+"    p=["+p+"]  s=["+s+"] ", debugRewrite);
+				if (debugRewrite) dbgOutput(thisProc()+"    p=["+p+"]  s=["+s+"] ", debugRewrite);
 
 				String action = "INSERT";
 				if (p.toUpperCase().endsWith("UPDATE")) action = "UPDATE";
@@ -8859,7 +9241,7 @@ userCfgComplexityHdrLine202308 + "\n" +
 							insStmt += "\n";
 						}
 						insStmt += stmtEnd;
-						if (debugging) dbgOutput(thisProc()+"insStmt=["+insStmt+"] ", debugRewrite);
+						if (debugRewrite) dbgOutput(thisProc()+"insStmt=["+insStmt+"] ", debugRewrite);
 						mergeSteps += insStmt;
 					}
 					else {
@@ -8897,7 +9279,7 @@ userCfgComplexityHdrLine202308 + "\n" +
 						}
 						stmt += ")\n";
 						stmt += stmtEnd;
-						if (debugging) dbgOutput(thisProc()+"stmt=["+stmt+"] ", debugRewrite);
+						if (debugRewrite) dbgOutput(thisProc()+"stmt=["+stmt+"] ", debugRewrite);
 						mergeSteps += stmt;
 					}
 				}
@@ -8919,7 +9301,7 @@ userCfgComplexityHdrLine202308 + "\n" +
 						stmt += "UPDATE " + tgtName + "\n";
 						stmt += updSet + "\n";
 					}
-					if (debugging) dbgOutput(thisProc()+"stmt=["+stmt+"] ", debugRewrite);
+					if (debugRewrite) dbgOutput(thisProc()+"stmt=["+stmt+"] ", debugRewrite);
 					if (tmpMerge.containsKey("output_clause")) {
 						stmt += rewriteMergeStmtOutput(tmpMerge.get("output_clause"), action) + "\n";
 					}
@@ -8944,7 +9326,7 @@ userCfgComplexityHdrLine202308 + "\n" +
 						stmt += "AND NOT (" + tmpMerge.get("when matched cond")+")\n"; //"
 					}
 					stmt += stmtEnd;
-					if (debugging) dbgOutput(thisProc()+"stmt=["+stmt+"] ", debugRewrite);
+					if (debugRewrite) dbgOutput(thisProc()+"stmt=["+stmt+"] ", debugRewrite);
 					mergeSteps += stmt;
 				}
 			}
@@ -9037,7 +9419,7 @@ userCfgComplexityHdrLine202308 + "\n" +
 	public void createAnonymizedReport() throws IOException {
 		// get capture files
 		List<Path> captureFiles = getCaptureFiles(reportName);
-		if (debugging) dbgOutput(thisProc() + "captureFiles(" + captureFiles.size() + ")=[" + captureFiles + "] ", debugReport);
+		if (debugReport) dbgOutput(thisProc() + "captureFiles(" + captureFiles.size() + ")=[" + captureFiles + "] ", debugReport);
 		if (captureFiles.size() == 0) {
 			appOutput("No analysis files found. Use -analyze to perform analysis and generate a report.");
 			errorExit();
@@ -9074,48 +9456,40 @@ userCfgComplexityHdrLine202308 + "\n" +
 				appOutput("Found analysis file for report '" + cfReportName + "' in " + rDir + ": adding to import");
 			}
 
-			FileInputStream cfis = new FileInputStream(new File(cf.toString()));
-			InputStreamReader cfisr = new InputStreamReader(cfis, StandardCharsets.UTF_8);
-			BufferedReader capFile = new BufferedReader(cfisr);
+			CaptureRecordReader capFile = new CaptureRecordReader(cf.toString());
 
 			String capLine = "";
 
-			while (true) {
-				capLine = capFile.readLine();
-				if (capLine == null) {
-					//EOF
-					break;
-				}
-				capLine = capLine.trim();
-				if (capLine.isEmpty()) continue;
-				if ((capLine.charAt(0) == '#') || (capLine.charAt(0) == '*')) {
+			while (capFile.next()) {
+				if (capFile.isMetricsLine()) {
 					continue;
 				}
-				if (capLine.contains(captureFileSeparator+ObjCountOnly+captureFileSeparator)) continue;
-				if (capLine.contains(captureFileSeparator+XRefOnly+captureFileSeparator)) continue;
+				if (capFile.getStatus().equals(ObjCountOnly)) continue;
+				if (capFile.getStatus().equals(XRefOnly)) continue;
 
 				itemCount++;
 
 				// strip off the last two semicolons
-				capLine = capLine.substring(0,capLine.lastIndexOf(captureFileSeparator));
-				capLine = capLine.substring(0,capLine.lastIndexOf(captureFileSeparator));
-				capLine = unEscapeHTMLChars(capLine);
+				List<String> tmp = capFile.getFieldList(2);
+				for (int i = 0; i < tmp.size(); i++) {
+					tmp.set(i, unEscapeHTMLChars(tmp.get(i)));
+				}
 
 				// remove customer-specific items
-				List<String> tmp = new ArrayList<>(Arrays.asList(capLine.split(captureFileSeparator)));
-
 				if (!(tmp.get(9).equals(BatchContext))) {
 					// wipe out identifiers in context
-					String objType = getPatternGroup(tmp.get(9),"^(\\w+)\\s+(.*)$",1);
-					String objName = getPatternGroup(tmp.get(9),"^(\\w+)\\s+(.*)$",2).toLowerCase();
+					String[] ctx = CaptureRecordReader.splitContext(tmp.get(9));
+					String objType = ctx[0];
+					String objName = ctx[1].toLowerCase();
 					if (!objNames.containsKey(objName)) objNames.put(objName, objType.toLowerCase()+(objNames.size()+1));
 					tmp.set(9, objType+" "+objNames.get(objName));
 				}
 				if (tmp.size() >= 11) {
 					if (!tmp.get(10).isEmpty()) {
 						// wipe out identifiers in context
-						String objType = getPatternGroup(tmp.get(10),"^(\\w+)\\s+(.*)$",1);
-						String objName = getPatternGroup(tmp.get(10),"^\\w+\\s+(.*)$",1).toLowerCase();
+						String[] ctx = CaptureRecordReader.splitContext(tmp.get(10));
+						String objType = ctx[0];
+						String objName = ctx[1].toLowerCase();
 						if (!objNames.containsKey(objName)) objNames.put(objName, "table"+(objNames.size()+1));
 						tmp.set(10, objType+" "+objNames.get(objName));
 					}
@@ -0,0 +1,112 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+package compass;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import parser.TSQLLexer;
+import parser.TSQLParser;
+
+// dynamic SQL: string literals passed to EXECUTE() or sp_executesql etc.
+// these are queued while analyzing a batch, and analyzed after the last batch of the input file, each statement as a
+// batch by itself, with the position and context of the EXECUTE statement it was found in
+// the same dynamic SQL text tends to occur many times, also across input files, so the outcome of parsing it is kept:
+// analysis is still done for every occurrence, since the captured items differ by position and context
+public class DynamicSQL {
+	// a kept parse tree holds on to its tokens and contexts: about 100 bytes per character of the statement.
+	// So the parse outcomes are limited by the total length of their statements (~20MB), least recently used first out
+	static final int maxParsedText = 200000;
+	// larger statements are parsed every time
+	static final int maxParsedTextLength = 10000;
+
+	private final ArrayDeque<Item> queue = new ArrayDeque<>();
+	private final LinkedHashMap<String, Parsed> parsed = new LinkedHashMap<>(16, 0.75f, true);
+	private int parsedText = 0;  // total length of the keys in 'parsed', i.e. of the statements
+	int parsedHits = 0;
+
+	// a dynamic SQL statement
+	public static class Item {
+		final String text;
+		final int lineNr;       // line in the batch of the EXECUTE statement
+		final int batchNr;      // batch in the input file
+		final int batchLineNr;  // first line of that batch in the input file
+		final String context;   // object containing the EXECUTE statement, 'type name'
+		final String subContext;// EXECUTE() or the procedure called
+
+		Item(String text, int lineNr, int batchNr, int batchLineNr, String context, String subContext) {
+			this.text = text;
+			this.lineNr = lineNr;
+			this.batchNr = batchNr;
+			this.batchLineNr = batchLineNr;
+			this.context = context;
+			this.subContext = subContext;
+		}
+
+		@Override
+		public String toString() {
+			return "lineNr=["+lineNr+"] batchNr=["+batchNr+"] batchLineNr=["+batchLineNr+"] context=["+context+"] subContext=["+subContext+"] text=["+text+"]";
+		}
+	}
+
+	// outcome of parsing a dynamic SQL statement: the parse tree, or the syntax error
+	public static class Parsed {
+		final TSQLParser.Tsql_fileContext tree;
+		final String errorMsg;
+
+		Parsed(TSQLParser.Tsql_fileContext tree, String errorMsg) {
+			this.tree = tree;
+			this.errorMsg = errorMsg;
+		}
+	}
+
+	public void add(String text, int lineNr, int batchNr, int batchLineNr, String context, String subContext) {
+		queue.add(new Item(text, lineNr, batchNr, batchLineNr, context, subContext));
+	}
+
+	// next statement to analyze, or null when done
+	public Item next() {
+		return queue.poll();
+	}
+
+	public boolean isEmpty() {
+		return queue.isEmpty();
+	}
+
+	public int size() {
+		return queue.size();
+	}
+
+	// start of a new input file: the parse outcomes are kept
+	public void clear() {
+		queue.clear();
+	}
+
+	// parse outcome for a statement seen before, or null
+	public Parsed lookupParsed(String text) {
+		if (text.length() > maxParsedTextLength) return null;
+		Parsed p = parsed.get(parsedKey(text));
+		if (p != null) parsedHits++;
+		return p;
+	}
+
+	public void keepParsed(String text, Parsed p) {
+		if (text.length() > maxParsedTextLength) return;
+		String key = parsedKey(text);
+		if (parsed.put(key, p) == null) parsedText += key.length();
+		Iterator<Map.Entry<String, Parsed>> it = parsed.entrySet().iterator();
+		while (parsedText > maxParsedText && it.hasNext()) {
+			parsedText -= it.next().getKey().length();
+			it.remove();
+		}
+	}
+
+	// the lexer depends on QUOTED_IDENTIFIER, so the same text can parse differently
+	private static String parsedKey(String text) {
+		return (TSQLLexer.QUOTED_IDENTIFIER_FLAG ? "Q" : "S") + text;
+	}
+}
@@ -0,0 +1,330 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+package compass;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// dependencies between objects, from the OBJECTREFERENCE records in the capture files: object A depends on object B when
+// the SQL code of A references B
+// with -reportoption objectgraph, the graph is built while the report reads the capture files, and written to the report
+// directory, so that questions like 'which objects depend, directly or indirectly, on procedures with unsupported
+// features' (-dependson) can be answered without reading the capture files again
+// the graph always covers all applications in the report (it is not written for the per-application reports), and the
+// file records the capture files it was built from: when the report is analyzed again, -dependson sees it is out of date
+// objects are identified by application and schema.object name, normalized as in the analysis: a name without a schema is
+// in the schema of the object referencing it, or in DBO, so that T1 and [dbo].[t1] are the same object. The database is
+// not known here, so it is not part of the name. Table variables are not objects. The object type is only known for
+// objects whose SQL code was analyzed.
+// nodes are numbered 0..n-1; the objects referenced by node i are refs[refStart[i]] .. refs[refStart[i+1]-1], and the
+// objects referencing node i are in deps[] in the same way
+public class ObjectGraph {
+	public static final String fileName = "objectgraph.dat";
+	private static final String fileMagic = "BBFOBJECTGRAPH";
+	private static final int fileFormatVersion = 3;
+
+	private static CompassUtilities u = CompassUtilities.getInstance();
+
+	final String[] apps;
+	final String[] names;
+	final String[] types;
+	final int[] statusFlags;  // bit i is set when the object has items with status u.supportOptions.get(i)
+	final int[] refStart;
+	final int[] refs;
+	final int[] depStart;
+	final int[] deps;
+	final List<String> captureFiles;  // as read from file: the capture files the graph was built from, see captureFilesState()
+	private final Map<String, Integer> ids = new HashMap<>();
+
+	private ObjectGraph(String[] apps, String[] names, String[] types, int[] statusFlags, int[] refStart, int[] refs, List<String> captureFiles) {
+		this.captureFiles = captureFiles;
+		this.apps = apps;
+		this.names = names;
+		this.types = types;
+		this.statusFlags = statusFlags;
+		this.refStart = refStart;
+		this.refs = refs;
+		for (int i = 0; i < names.length; i++) {
+			ids.put(nodeKey(apps[i], names[i]), i);
+		}
+
+		// reverse direction
+		int n = names.length;
+		depStart = new int[n + 1];
+		for (int r : refs) depStart[r + 1]++;
+		for (int i = 0; i < n; i++) depStart[i + 1] += depStart[i];
+		deps = new int[refs.length];
+		int[] pos = Arrays.copyOf(depStart, n);
+		for (int from = 0; from < n; from++) {
+			for (int j = refStart[from]; j < refStart[from + 1]; j++) {
+				deps[pos[refs[j]]++] = from;
+			}
+		}
+	}
+
+	// collects objects and references from the capture records
+	public static class Builder {
+		private final Map<String, Integer> ids = new HashMap<>();
+		private final List<String> apps = new ArrayList<>();
+		private final List<String> names = new ArrayList<>();
+		private final List<String> types = new ArrayList<>();
+		private int[] statusFlags = new int[256];
+		private long[] edges = new long[256];  // (from << 32) | to
+		private int nrEdges = 0;
+
+		// a captured item with status status, in object context (e.g. 'PROCEDURE dbo.p1'), for app appName
+		// for an OBJECTREFERENCE item, itemDetail is the object referenced
+		public void add(String appName, String context, String itemDetail, String status) {
+			String[] ctx = CaptureRecordReader.splitContext(context);
+			if (ctx[1].isEmpty()) {
+				// not in an object, e.g. a 'T-SQL batch'
+				return;
+			}
+			String fromName = objectName(ctx[1], "");
+			int from = node(appName, fromName);
+			if (types.get(from).isEmpty()) types.set(from, ctx[0].toUpperCase());
+
+			if (status.equals(CompassUtilities.ObjectReference)) {
+				if (itemDetail.isEmpty() || itemDetail.startsWith("@")) return;
+				int to = node(appName, objectName(itemDetail, u.normalizedSqlName(fromName).schema()));
+				if (to == from) return;
+				if (nrEdges == edges.length) edges = Arrays.copyOf(edges, nrEdges * 2);
+				edges[nrEdges++] = ((long) from << 32) | to;
+			}
+			else {
+				int s = u.supportOptions.indexOf(status);
+				if (s >= 0) statusFlags[from] |= 1 << s;
+			}
+		}
+
+		private int node(String appName, String name) {
+			String key = nodeKey(appName, name);
+			Integer id = ids.get(key);
+			if (id != null) return id;
+			id = names.size();
+			ids.put(key, id);
+			apps.add(appName);
+			names.add(name);
+			types.add("");
+			if (id == statusFlags.length) statusFlags = Arrays.copyOf(statusFlags, id * 2);
+			return id;
+		}
+
+		public ObjectGraph build() {
+			int n = names.size();
+			long[] sorted = Arrays.copyOf(edges, nrEdges);
+			Arrays.sort(sorted);
+			int[] refStart = new int[n + 1];
+			int[] refs = new int[sorted.length];
+			int nrRefs = 0;
+			for (int i = 0; i < sorted.length; i++) {
+				if (i > 0 && sorted[i] == sorted[i - 1]) continue;
+				int from = (int) (sorted[i] >>> 32);
+				refStart[from + 1]++;
+				refs[nrRefs++] = (int) sorted[i];
+			}
+			for (int i = 0; i < n; i++) refStart[i + 1] += refStart[i];
+			return new ObjectGraph(apps.toArray(new String[0]), names.toArray(new String[0]), types.toArray(new String[0]),
+			                       Arrays.copyOf(statusFlags, n), refStart, Arrays.copyOf(refs, nrRefs), Collections.emptyList());
+		}
+	}
+
+	// SCHEMA.OBJECT, with schema as the default schema; #temporary tables keep their name
+	static String objectName(String name, String schema) {
+		SqlName n = u.normalizedSqlName(name);
+		if (n.isTemporary()) return n.toString();
+		if (!n.schema().isEmpty()) schema = n.schema();
+		if (schema.isEmpty()) schema = "DBO";
+		return (schema + "." + n.object()).toUpperCase();
+	}
+
+	private static String nodeKey(String appName, String name) {
+		return appName.toUpperCase() + "\t" + name;
+	}
+
+	public int size() {
+		return names.length;
+	}
+
+	// node for an object, or -1
+	public int find(String appName, String name) {
+		Integer id = ids.get(nodeKey(appName, objectName(name, "")));
+		return (id == null) ? -1 : id;
+	}
+
+	// objects with items of the given status; type may be blank for any object type
+	public int[] withStatus(String status, String type) {
+		int s = u.supportOptions.indexOf(status);
+		if (s < 0) return new int[0];
+		int[] result = new int[names.length];
+		int nrResult = 0;
+		for (int i = 0; i < names.length; i++) {
+			if ((statusFlags[i] & (1 << s)) == 0) continue;
+			if (!type.isEmpty() && !types[i].equalsIgnoreCase(type)) continue;
+			result[nrResult++] = i;
+		}
+		return Arrays.copyOf(result, nrResult);
+	}
+
+	// objects depending, directly or indirectly, on any of the given objects
+	// the given objects are only included when they depend on one of the others
+	public int[] dependents(int[] nodes) {
+		boolean[] queued = new boolean[names.length];
+		boolean[] found = new boolean[names.length];
+		int[] queue = new int[names.length];
+		int head = 0, tail = 0;
+		for (int node : nodes) {
+			if (queued[node]) continue;
+			queued[node] = true;
+			queue[tail++] = node;
+		}
+		int nrFound = 0;
+		while (head < tail) {
+			int node = queue[head++];
+			for (int j = depStart[node]; j < depStart[node + 1]; j++) {
+				int d = deps[j];
+				if (!found[d]) {
+					found[d] = true;
+					nrFound++;
+				}
+				if (!queued[d]) {
+					queued[d] = true;
+					queue[tail++] = d;
+				}
+			}
+		}
+		int[] result = new int[nrFound];
+		int k = 0;
+		for (int i = 0; i < names.length; i++) {
+			if (found[i]) result[k++] = i;
+		}
+		return result;
+	}
+
+	public static String getPathName(String reportName) {
+		return CompassUtilities.getFilePathname(CompassUtilities.getReportDirPathname(reportName), fileName);
+	}
+
+	// name, size and timestamp of each capture file, in name order; any change means the analysis was done again
+	public static List<String> captureFilesState(List<Path> captureFiles) {
+		List<String> result = new ArrayList<>();
+		for (Path cf : captureFiles) {
+			File f = cf.toFile();
+			result.add(f.getName() + ":" + f.length() + ":" + f.lastModified());
+		}
+		Collections.sort(result);
+		return result;
+	}
+
+	public void write(String pathName, List<String> captureFilesState) throws IOException {
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(pathName)))) {
+			out.writeUTF(fileMagic);
+			out.writeInt(fileFormatVersion);
+			out.writeInt(captureFilesState.size());
+			for (String cf : captureFilesState) {
+				out.writeUTF(cf);
+			}
+			out.writeInt(names.length);
+			for (int i = 0; i < names.length; i++) {
+				out.writeUTF(apps[i]);
+				out.writeUTF(names[i]);
+				out.writeUTF(types[i]);
+				out.writeInt(statusFlags[i]);
+			}
+			for (int i = 0; i <= names.length; i++) {
+				out.writeInt(refStart[i]);
+			}
+			for (int r : refs) {
+				out.writeInt(r);
+			}
+		}
+	}
+
+	public static ObjectGraph read(String pathName) throws IOException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(pathName)))) {
+			if (!in.readUTF().equals(fileMagic) || in.readInt() != fileFormatVersion) {
+				throw new IOException("Invalid format: " + pathName);
+			}
+			int nrCaptureFiles = in.readInt();
+			List<String> captureFiles = new ArrayList<>(nrCaptureFiles);
+			for (int i = 0; i < nrCaptureFiles; i++) {
+				captureFiles.add(in.readUTF());
+			}
+			int n = in.readInt();
+			String[] apps = new String[n];
+			String[] names = new String[n];
+			String[] types = new String[n];
+			int[] statusFlags = new int[n];
+			for (int i = 0; i < n; i++) {
+				apps[i] = in.readUTF();
+				names[i] = in.readUTF();
+				types[i] = in.readUTF();
+				statusFlags[i] = in.readInt();
+			}
+			int[] refStart = new int[n + 1];
+			for (int i = 0; i <= n; i++) {
+				refStart[i] = in.readInt();
+			}
+			int[] refs = new int[refStart[n]];
+			for (int i = 0; i < refs.length; i++) {
+				refs[i] = in.readInt();
+			}
+			return new ObjectGraph(apps, names, types, statusFlags, refStart, refs, captureFiles);
+		}
+	}
+
+	// -dependson: list the objects depending on objects with items of the given status (and type, if not blank)
+	public static void listDependents(String reportName, String status, String type) throws IOException {
+		String pathName = getPathName(reportName);
+		if (!new File(pathName).exists()) {
+			u.appOutput("No object dependencies found for report '"+reportName+"'; first run with -reportonly -reportoption objectgraph");
+			return;
+		}
+		ObjectGraph g;
+		try {
+			g = read(pathName);
+		} catch (IOException e) {
+			// e.g. written by an older Compass version
+			u.appOutput("Cannot read object dependencies for report '"+reportName+"' ("+e.getMessage()+"); first run with -reportonly -reportoption objectgraph");
+			return;
+		}
+		if (!g.captureFiles.equals(captureFilesState(u.getCaptureFiles(reportName)))) {
+			u.appOutput("Object dependencies for report '"+reportName+"' are out of date, as the analysis results have changed since; first run with -reportonly -reportoption objectgraph");
+			return;
+		}
+		int[] objects = g.withStatus(status, type);
+		int[] dependents = g.dependents(objects);
+
+		String typeFmt = type.isEmpty() ? "Objects" : type.toUpperCase() + " objects";
+		String statusFmt = u.supportOptionsDisplay.get(u.supportOptions.indexOf(status));
+		u.appOutput(typeFmt + " with '" + statusFmt + "' items in report '" + reportName + "': " + objects.length);
+		for (int i : objects) {
+			u.appOutput("   " + g.format(i));
+		}
+		u.appOutput("");
+		u.appOutput("Objects depending on these, directly or indirectly: " + dependents.length);
+		for (int i : dependents) {
+			u.appOutput("   " + g.format(i));
+		}
+	}
+
+	String format(int node) {
+		if (types[node].isEmpty()) return "app: " + apps[node] + ", " + names[node] + " (not analyzed)";
+		return "app: " + apps[node] + ", " + types[node] + " " + names[node];
+	}
+}
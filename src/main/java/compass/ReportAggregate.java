@@ -0,0 +1,99 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+package compass;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// what createReport collects from the capture files, before the report is written
+// with -reportoption appreports, the capture files are read once, per application: each application report is written
+// from the aggregate of its application, and the report for all applications from the merged aggregates
+class ReportAggregate {
+	final Map<String, Integer> appCount = new HashMap<>();
+	final Map<String, Integer> srcFileCount = new HashMap<>();
+	final Map<String, Integer> objTypeCount = new HashMap<>();
+	final Map<String, Integer> objTypeLineCount = new HashMap<>();
+	final Map<String, String>  objTypeMap = new HashMap<>();
+	final Map<String, String>  objTypeMapCase = new HashMap<>();
+	final Map<String, Integer> objTypeMapCount = new HashMap<>();
+	final Map<String, Integer> objIssueCount = new HashMap<>();
+	final List<String> objComplexityCountTmp = new ArrayList<>();
+	int linesSQLInObjects = 0;
+	int totalLinesDDL = 0;
+	int totalBatches = 0;
+	int totalErrorBatches = 0;
+
+	// by status: the count, the number of distinct items (status+uniqueCntTag), and a 0 for each distinct item (status+miscDelimiter+item)
+	final Map<String, Long> statusCount = new HashMap<>();
+	// by status: the weight factor of the last item read
+	final Map<String, Integer> statusWeightFactor = new HashMap<>();
+	final Map<String, Integer> itemCount = new HashMap<>();
+	final Map<String, Integer> appItemListRaw = new HashMap<>();
+	final List<String> xRefByFeature = new ArrayList<>();
+	final List<String> xRefByObject = new ArrayList<>();
+
+	int constructsFound = 0;
+	final Map<String, Integer> constructsFoundDistinct = new HashMap<>();
+	// by item: the count, plus the total count and the number of distinct items
+	final Map<String, Integer> rewriteOppties = new HashMap<>();
+
+	// add the aggregate of another set of capture files, as if those had been read after the ones in this aggregate
+	void merge(ReportAggregate a) {
+		sum(appCount, a.appCount);
+		sum(srcFileCount, a.srcFileCount);
+		sum(objTypeCount, a.objTypeCount);
+		sum(objTypeLineCount, a.objTypeLineCount);
+		objTypeMap.putAll(a.objTypeMap);
+		for (Map.Entry<String, String> e : a.objTypeMapCase.entrySet()) {
+			objTypeMapCase.putIfAbsent(e.getKey(), e.getValue());
+		}
+		sum(objTypeMapCount, a.objTypeMapCount);
+		sum(objIssueCount, a.objIssueCount);
+		objComplexityCountTmp.addAll(a.objComplexityCountTmp);
+		linesSQLInObjects += a.linesSQLInObjects;
+		totalLinesDDL += a.totalLinesDDL;
+		totalBatches += a.totalBatches;
+		totalErrorBatches += a.totalErrorBatches;
+
+		for (Map.Entry<String, Long> e : a.statusCount.entrySet()) {
+			String k = e.getKey();
+			int ix = k.indexOf(CompassUtilities.miscDelimiter);
+			if (ix >= 0) {
+				// a distinct item: count it only when it was not found before
+				if (statusCount.containsKey(k)) continue;
+				statusCount.put(k, 0L);
+				String statusUnique = k.substring(0, ix) + CompassUtilities.uniqueCntTag;
+				statusCount.put(statusUnique, statusCount.getOrDefault(statusUnique, 0L) + 1);
+			}
+			else if (!k.endsWith(CompassUtilities.uniqueCntTag)) {
+				statusCount.put(k, statusCount.getOrDefault(k, 0L) + e.getValue());
+			}
+		}
+		statusWeightFactor.putAll(a.statusWeightFactor);
+		sum(itemCount, a.itemCount);
+		sum(appItemListRaw, a.appItemListRaw);
+		xRefByFeature.addAll(a.xRefByFeature);
+		xRefByObject.addAll(a.xRefByObject);
+
+		constructsFound += a.constructsFound;
+		constructsFoundDistinct.putAll(a.constructsFoundDistinct);
+		for (Map.Entry<String, Integer> e : a.rewriteOppties.entrySet()) {
+			String k = e.getKey();
+			if (k.equals(CompassUtilities.rewriteOpptiesUnique)) continue;
+			if (!k.equals(CompassUtilities.rewriteOpptiesTotal) && !rewriteOppties.containsKey(k)) {
+				rewriteOppties.put(CompassUtilities.rewriteOpptiesUnique, rewriteOppties.getOrDefault(CompassUtilities.rewriteOpptiesUnique, 0) + 1);
+			}
+			rewriteOppties.put(k, rewriteOppties.getOrDefault(k, 0) + e.getValue());
+		}
+	}
+
+	private static void sum(Map<String, Integer> to, Map<String, Integer> from) {
+		for (Map.Entry<String, Integer> e : from.entrySet()) {
+			to.put(e.getKey(), to.getOrDefault(e.getKey(), 0) + e.getValue());
+		}
+	}
+}
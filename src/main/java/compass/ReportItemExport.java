@@ -0,0 +1,170 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+package compass;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// machine-readable export of the captured items, written while createReport reads the capture files
+// so that loading the results somewhere else does not require parsing the report
+// ndjson: one JSON object per line, with "record" = "item" or "metrics"
+// csv   : one file for items and one for metrics, each with a fixed set of columns
+public class ReportItemExport {
+	public static final String formatNDJSON = "ndjson";
+	public static final String formatCSV = "csv";
+	public static final String formatAll = "all";
+	public static final List<String> formats = Arrays.asList(formatNDJSON, formatCSV, formatAll);
+
+	// columns are only ever added at the end, so that existing loaders keep working
+	public static final List<String> itemColumns = Arrays.asList("status", "group", "item", "itemDetail", "context", "subContext", "app", "srcFile", "batchNr", "lineNrInBatch", "lineNrInFile", "weightFactor");
+	public static final List<String> metricsColumns = Arrays.asList("srcFile", "app", "nrBatches", "nrErrorBatches", "nrLines");
+
+	// numeric columns are written without quotes in NDJSON, or as null when there is no number
+	private static final List<String> numericColumns = Arrays.asList("batchNr", "lineNrInBatch", "lineNrInFile", "weightFactor", "nrBatches", "nrErrorBatches", "nrLines");
+
+	private BufferedWriter ndjsonWriter = null;
+	private BufferedWriter itemsCSVWriter = null;
+	private BufferedWriter metricsCSVWriter = null;
+	private List<String> filesWritten = new ArrayList<>();
+	private long itemCount = 0;
+	private StringBuilder line = new StringBuilder();
+
+	// basePathName is the report pathname without suffix
+	public ReportItemExport(String format, String basePathName) throws IOException {
+		if (format.equals(formatNDJSON) || format.equals(formatAll)) {
+			ndjsonWriter = openFile(basePathName + "." + formatNDJSON);
+		}
+		if (format.equals(formatCSV) || format.equals(formatAll)) {
+			itemsCSVWriter = openFile(basePathName + ".items." + formatCSV);
+			metricsCSVWriter = openFile(basePathName + ".metrics." + formatCSV);
+			writeCSVLine(itemsCSVWriter, itemColumns.toArray(new String[0]));
+			writeCSVLine(metricsCSVWriter, metricsColumns.toArray(new String[0]));
+		}
+	}
+
+	private BufferedWriter openFile(String pathName) throws IOException {
+		filesWritten.add(pathName);
+		return new BufferedWriter(new OutputStreamWriter(new FileOutputStream(pathName), StandardCharsets.UTF_8));
+	}
+
+	// values must be in the order of itemColumns
+	public void writeItem(String... values) throws IOException {
+		assert values.length == itemColumns.size() : "expected "+itemColumns.size()+" values, found "+values.length;
+		itemCount++;
+		if (ndjsonWriter != null) writeJSONLine("item", itemColumns, values);
+		if (itemsCSVWriter != null) writeCSVLine(itemsCSVWriter, values);
+	}
+
+	// values must be in the order of metricsColumns
+	public void writeMetrics(String... values) throws IOException {
+		assert values.length == metricsColumns.size() : "expected "+metricsColumns.size()+" values, found "+values.length;
+		if (ndjsonWriter != null) writeJSONLine("metrics", metricsColumns, values);
+		if (metricsCSVWriter != null) writeCSVLine(metricsCSVWriter, values);
+	}
+
+	public void close() throws IOException {
+		if (ndjsonWriter != null) ndjsonWriter.close();
+		if (itemsCSVWriter != null) itemsCSVWriter.close();
+		if (metricsCSVWriter != null) metricsCSVWriter.close();
+	}
+
+	public List<String> getFilesWritten() {
+		return filesWritten;
+	}
+
+	public long getItemCount() {
+		return itemCount;
+	}
+
+	private void writeJSONLine(String record, List<String> columns, String[] values) throws IOException {
+		line.setLength(0);
+		line.append("{\"record\":\"").append(record).append('"');
+		for (int i = 0; i < values.length; i++) {
+			line.append(",\"").append(columns.get(i)).append("\":");
+			String v = values[i];
+			if (numericColumns.contains(columns.get(i))) {
+				// a numeric column is always a JSON number, so that typed loaders see the same type on every line
+				line.append(isNumber(v) ? v : "null");
+			}
+			else {
+				line.append('"');
+				escapeJSON(line, v);
+				line.append('"');
+			}
+		}
+		line.append("}\n");
+		ndjsonWriter.write(line.toString());
+	}
+
+	private void writeCSVLine(BufferedWriter w, String[] values) throws IOException {
+		line.setLength(0);
+		for (int i = 0; i < values.length; i++) {
+			if (i > 0) line.append(CompassUtilities.CSVseparator);
+			escapeCSV(line, values[i]);
+		}
+		line.append("\n");
+		w.write(line.toString());
+	}
+
+	private static boolean isNumber(String s) {
+		if (s.isEmpty() || s.length() > 18) return false;
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			if (c < '0' || c > '9') {
+				if (i > 0 || c != '-' || s.length() == 1) return false;
+			}
+		}
+		return true;
+	}
+
+	public static void escapeJSON(StringBuilder sb, String s) {
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			switch (c) {
+				case '"':  sb.append("\\\""); break;
+				case '\\': sb.append("\\\\"); break;
+				case '\n': sb.append("\\n"); break;
+				case '\r': sb.append("\\r"); break;
+				case '\t': sb.append("\\t"); break;
+				default:
+					if (c < 0x20) {
+						sb.append(String.format("\\u%04x", (int) c));
+					}
+					else {
+						sb.append(c);
+					}
+			}
+		}
+	}
+
+	// quote only when needed, doubling any embedded quotes
+	public static void escapeCSV(StringBuilder sb, String s) {
+		boolean quote = false;
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			if (c == '"' || c == '\n' || c == '\r' || c == CompassUtilities.CSVseparator.charAt(0)) {
+				quote = true;
+				break;
+			}
+		}
+		if (!quote) {
+			sb.append(s);
+			return;
+		}
+		sb.append('"');
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			if (c == '"') sb.append('"');
+			sb.append(c);
+		}
+		sb.append('"');
+	}
+}
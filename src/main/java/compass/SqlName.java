@@ -0,0 +1,87 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+package compass;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// a multi-part SQL identifier as normalized by CompassUtilities.normalizeName(): [[[server.]db.]schema.]object
+// the parts are split once, so that name resolution does not need to search for the dots again
+// parts that are still delimited after normalization (e.g. [a b]) keep their brackets
+// immutable, so a normalized name can be kept in CompassUtilities.resolveNameCache; lookups are by its string
+public final class SqlName {
+	private final String name;
+	private final String[] parts;  // left to right; empty for an omitted part, as in DB..T1
+
+	private SqlName(String name, String[] parts) {
+		this.name = name;
+		this.parts = parts;
+	}
+
+	// split a normalized identifier at the dots; dots in delimited parts have been encoded by normalizeName()
+	public static SqlName of(String name) {
+		List<String> p = new ArrayList<>(4);
+		int start = 0;
+		for (int i = name.indexOf('.'); i >= 0; i = name.indexOf('.', start)) {
+			p.add(name.substring(start, i));
+			start = i + 1;
+		}
+		p.add(name.substring(start));
+		return new SqlName(name, p.toArray(new String[0]));
+	}
+
+	// part counting from the right: 0=object, 1=schema, 2=db; blank when not specified
+	private String part(int fromRight) {
+		int i = parts.length - 1 - fromRight;
+		return (i >= 0) ? parts[i] : "";
+	}
+
+	public String object() {
+		return part(0);
+	}
+
+	public String schema() {
+		return part(1);
+	}
+
+	public String db() {
+		return part(2);
+	}
+
+	public boolean isTemporary() {
+		return name.charAt(0) == '#';
+	}
+
+	// the same object in another schema, e.g. to retry a lookup with DBO
+	// only for names with a DB part and a plain (non-delimited) schema and object name; otherwise the name itself
+	public SqlName withSchema(String schema) {
+		if (parts.length < 3 || !isWord(schema()) || !isWord(object())) return this;
+		int prefixLength = name.length() - schema().length() - object().length() - 1;
+		for (int i = 0; i < prefixLength; i++) {
+			if (isLineTerminator(name.charAt(i))) return this;
+		}
+		return of(name.substring(0, prefixLength) + schema.toUpperCase() + "." + object());
+	}
+
+	// \w
+	private static boolean isWord(String s) {
+		if (s.isEmpty()) return false;
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			if (!((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_')) return false;
+		}
+		return true;
+	}
+
+	// not matched by . in a regex
+	private static boolean isLineTerminator(char c) {
+		return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+	}
+
+	@Override
+	public String toString() {
+		return name;
+	}
+}
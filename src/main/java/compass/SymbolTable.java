@@ -0,0 +1,187 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+package compass;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// symbol table for pass 2, as written to the symtab files in pass 1
+// the symtab files of all applications in the report are read once, in parallel, into one read-only table per
+// application (or a single table for all applications with -symtab_all). Switching to another application in pass 2
+// only points the symtab maps in CompassUtilities to the table for that application, instead of reading its files again.
+// once loaded, a table is not modified anymore, so lookups can be done from multiple threads
+public class SymbolTable {
+	private static CompassUtilities u = CompassUtilities.getInstance();
+
+	// key for the table with all applications
+	static final String allApps = "";
+
+	Map<String, String> tableView = new HashMap<>();
+	Map<String, String> UDD = new HashMap<>();
+	Map<String, String> SUDF = new HashMap<>();
+	Map<String, String> TUDF = new HashMap<>();
+	Map<String, String> proc = new HashMap<>();
+	Map<String, String> col = new HashMap<>();
+	Map<String, String> par = new HashMap<>();
+	Map<String, String> SUDFNamesLikeXML = new HashMap<>();
+	Map<String, String> TUDFNamesLikeXML = new HashMap<>();
+	Map<String, String> SUDFNamesLikeHIERARCHYID = new HashMap<>();
+
+	// a line from a symtab file
+	void addLine(String s) {
+		List<String> fields = Arrays.asList(s.split(CompassUtilities.symTabSeparator));
+		String tag = fields.get(0);
+		if (tag.equals("objtype")) {
+			tableView.put(unmask(fields.get(1)).toUpperCase(), unmask(fields.get(2)).toUpperCase());
+		}
+		else if (tag.equals("sudf")) {
+			String objName = unmask(fields.get(1));
+			SUDF.put(objName.toUpperCase(), unmask(fields.get(2)).toUpperCase());
+			String objNameBase = u.getObjectNameFromID(objName);
+			if (CompassUtilities.XMLmethods.contains(objNameBase)) {
+				SUDFNamesLikeXML.put(objNameBase, "");
+			}
+			if (CompassUtilities.HIERARCHYIDmethods.contains(objNameBase)) {
+				SUDFNamesLikeHIERARCHYID.put(objNameBase, "");
+			}
+		}
+		else if (tag.equals("tudf")) {
+			String objName = unmask(fields.get(1));
+			TUDF.put(objName.toUpperCase(), unmask(fields.get(2)).toUpperCase());   // always 'TABLE'
+			String objNameBase = u.getObjectNameFromID(objName);
+			if (objNameBase.equals("NODES")) {   // there's only one case to test for
+				TUDFNamesLikeXML.put(objNameBase, "");
+			}
+		}
+		else if (tag.equals("udd")) {
+			UDD.put(unmask(fields.get(1)).toUpperCase(), unmask(fields.get(2)).toUpperCase());
+		}
+		else if (tag.equals("proc")) {
+			proc.put(unmask(fields.get(1)).toUpperCase(), unmask(fields.get(2)).toUpperCase());
+		}
+		else if (tag.equals("col")) {
+			// the data type keeps its ' NULL' suffix, as added when building the symtab
+			col.put(u.makeColSymTabKey(unmask(fields.get(1)), unmask(fields.get(2))), unmask(fields.get(3)));
+		}
+		else if (tag.equals("par")) {
+			// add both with the parameter name and position to enable lookups
+			String objName  = unmask(fields.get(1));
+			String parName  = unmask(fields.get(2));
+			int parNo       = Integer.parseInt(fields.get(3));
+			String parDft   = unmask(fields.get(4));
+			par.put(u.makeParSymTabKey(objName, parName).toUpperCase(), parDft);
+			par.put(u.makeParSymTabKey(objName, parNo).toUpperCase(), parDft);
+		}
+		else {
+			assert false : CompassUtilities.thisProc() + "unknown symbol table tag:["+tag+"] ";
+		}
+	}
+
+	private static String unmask(String s) {
+		return u.unmaskChar(s, CompassUtilities.symTabSeparator);
+	}
+
+	// entries in t override entries already present, as when reading t's file after the others
+	void addAll(SymbolTable t) {
+		tableView.putAll(t.tableView);
+		UDD.putAll(t.UDD);
+		SUDF.putAll(t.SUDF);
+		TUDF.putAll(t.TUDF);
+		proc.putAll(t.proc);
+		col.putAll(t.col);
+		par.putAll(t.par);
+		SUDFNamesLikeXML.putAll(t.SUDFNamesLikeXML);
+		TUDFNamesLikeXML.putAll(t.TUDFNamesLikeXML);
+		SUDFNamesLikeHIERARCHYID.putAll(t.SUDFNamesLikeHIERARCHYID);
+	}
+
+	// make read-only; names and data types repeat a lot between applications, so share the strings
+	SymbolTable freeze() {
+		tableView = frozen(tableView);
+		UDD = frozen(UDD);
+		SUDF = frozen(SUDF);
+		TUDF = frozen(TUDF);
+		proc = frozen(proc);
+		col = frozen(col);
+		par = frozen(par);
+		SUDFNamesLikeXML = frozen(SUDFNamesLikeXML);
+		TUDFNamesLikeXML = frozen(TUDFNamesLikeXML);
+		SUDFNamesLikeHIERARCHYID = frozen(SUDFNamesLikeHIERARCHYID);
+		return this;
+	}
+
+	private static Map<String, String> frozen(Map<String, String> m) {
+		if (m.isEmpty()) return Collections.emptyMap();
+		Map<String, String> result = new HashMap<>((int) (m.size() / 0.75f) + 1);
+		for (Map.Entry<String, String> e : m.entrySet()) {
+			result.put(e.getKey().intern(), e.getValue().intern());
+		}
+		return Collections.unmodifiableMap(result);
+	}
+
+	public int size() {
+		return tableView.size()+SUDF.size()+TUDF.size()+UDD.size()+col.size()+par.size()+proc.size();
+	}
+
+	// application from a symtab file name
+	static String appName(Path symTabFile) {
+		return CompassUtilities.removeLastChar(CompassUtilities.getPatternGroup(symTabFile.toString(), "^.+"+CompassUtilities.symTabFileTag+"\\.(.+)"+CompassUtilities.symTabFileSuffix, 1));
+	}
+
+	static SymbolTable readFile(Path symTabFile) throws IOException {
+		SymbolTable t = new SymbolTable();
+		try (BufferedReader inFileReader = new BufferedReader(new InputStreamReader(new FileInputStream(symTabFile.toString()), StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = inFileReader.readLine()) != null) {
+				line = line.trim();
+				if (line.isEmpty()) continue;
+				if (line.charAt(0) == '#') continue;  // comment
+				t.addLine(line);
+			}
+		}
+		return t;
+	}
+
+	// read the symtab files in the report, keyed by uppercase application name, or by allApps for a single table
+	// with all applications. When an application has multiple files, entries from later files override earlier ones.
+	public static Map<String, SymbolTable> load(String reportName, boolean all) throws IOException {
+		String dirPath = CompassUtilities.getReportDirPathname(reportName, CompassUtilities.importDirName, CompassUtilities.symTabDirName);
+		List<Path> symTabFiles = u.getFilesPattern(dirPath, ".+\\."+CompassUtilities.symTabFileTag+"\\..+"+CompassUtilities.symTabFileSuffix);
+
+		List<SymbolTable> fileTables;
+		try {
+			fileTables = symTabFiles.parallelStream().map(sf -> {
+				try { return readFile(sf); }
+				catch (IOException e) { throw new UncheckedIOException(e); }
+			}).collect(Collectors.toList());
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+
+		Map<String, SymbolTable> tables = new LinkedHashMap<>();
+		for (int i = 0; i < symTabFiles.size(); i++) {
+			String app = all ? allApps : appName(symTabFiles.get(i)).toUpperCase();
+			SymbolTable t = tables.get(app);
+			if (t == null) tables.put(app, fileTables.get(i));
+			else t.addAll(fileTables.get(i));
+		}
+		for (SymbolTable t : tables.values()) {
+			t.freeze();
+		}
+		return tables;
+	}
+}
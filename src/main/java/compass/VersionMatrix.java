@@ -0,0 +1,182 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+package compass;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// with -versionmatrix: the status of each captured item for every Babelfish version in the .cfg file, from a single analysis
+// the analysis itself does not depend on the target version, only the status looked up in the .cfg file does.
+// Each captured item is linked to the .cfg lookup preceding it (section/name/option, but only if that lookup returned the
+// status being captured), and after the analysis these lookups are repeated for all versions.
+// Items without such a lookup are taken to have the same status in every version.
+// This is an approximation: items that are only captured when something is not supported in the target version, are not
+// seen for other versions. Using the latest version as the target version gives the closest results.
+public class VersionMatrix {
+	public static boolean enabled = false;
+	public static String fileWritten = null;
+
+	// which of the .cfg lookups was performed
+	static final String checkSection = "S";  // section
+	static final String checkName    = "N";  // section, name
+	static final String checkOption  = "O";  // section, name, option value
+	static final String checkArg     = "A";  // section, argument, argument value
+
+	private static CompassUtilities u = CompassUtilities.getInstance();
+
+	// statuses not counted as an item in the report
+	private static final List<String> skipStatus = Arrays.asList(u.ObjCountOnly, u.ObjectReference, u.XRefOnly, u.RewriteOppty);
+
+	// a captured item, version-independent
+	static class Fact {
+		final String check;    // null if the status does not depend on the version
+		final String section;
+		final String name;
+		final String value;
+		final String status;   // as captured for the target version
+		final Map<String, Integer> appCount = new LinkedHashMap<>();
+
+		Fact(String check, String section, String name, String value, String status) {
+			this.check = check;
+			this.section = section;
+			this.name = name;
+			this.value = value;
+			this.status = status;
+		}
+
+		String resolve(String version) {
+			if (check == null) return status;
+			switch (check) {
+				case checkSection: return CompassConfig.lookupFeatureStatus(version, section).getStatus();
+				case checkName:    return CompassConfig.lookupFeatureStatus(version, section, name).getStatus();
+				case checkOption:  return CompassConfig.lookupFeatureStatus(version, section, name, value).getStatus();
+				default:           return CompassConfig.lookupFeatureArgStatus(version, section, name, value).getStatus();
+			}
+		}
+	}
+
+	private static Fact lastCheck = null;
+	private static final Map<String, Fact> facts = new LinkedHashMap<>();
+	private static final List<String> apps = new ArrayList<>();
+
+	public static void clear() {
+		lastCheck = null;
+		facts.clear();
+		apps.clear();
+		fileWritten = null;
+	}
+
+	public static boolean hasCaptures() {
+		return !facts.isEmpty();
+	}
+
+	// called by the analyzer for every status lookup; only the latest one is kept
+	public static void recordCheck(String check, String section, String name, String value, String status) {
+		lastCheck = new Fact(check, section, name, value, status);
+	}
+
+	// called for every captured item
+	public static void recordCapture(String appName, String status) {
+		Fact check = lastCheck;
+		lastCheck = null;
+		if (skipStatus.contains(status)) return;
+
+		String key;
+		if (check != null && check.status.equals(status)) {
+			key = check.check + "\t" + check.section + "\t" + check.name + "\t" + check.value + "\t" + status;
+		}
+		else {
+			check = null;
+			key = "\t" + status;
+		}
+		Fact f = facts.get(key);
+		if (f == null) {
+			f = (check != null) ? check : new Fact(null, "", "", "", status);
+			facts.put(key, f);
+		}
+		f.appCount.put(appName, f.appCount.getOrDefault(appName, 0) + 1);
+		if (!apps.contains(appName)) apps.add(appName);
+	}
+
+	// statuses as columns, in report order
+	static List<String> statusColumns() {
+		List<String> columns = new ArrayList<>();
+		for (String s : u.supportOptions) {
+			if (!skipStatus.contains(s)) columns.add(s);
+		}
+		return columns;
+	}
+
+	// app -> version -> count per status in statusColumns()
+	static Map<String, Map<String, int[]>> resolve() {
+		List<String> columns = statusColumns();
+		Map<String, Map<String, int[]>> matrix = new LinkedHashMap<>();
+		for (String app : apps) {
+			Map<String, int[]> versions = new LinkedHashMap<>();
+			for (String v : CompassConfig.Babelfish_VersionList) {
+				versions.put(v, new int[columns.size()]);
+			}
+			matrix.put(app, versions);
+		}
+
+		// repeating the lookups must not affect the report, so their status overrides are not logged
+		for (String v : CompassConfig.Babelfish_VersionList) {
+			for (Fact f : facts.values()) {
+				int col = columns.indexOf(f.resolve(v));
+				if (col < 0) continue;
+				for (Map.Entry<String, Integer> e : f.appCount.entrySet()) {
+					matrix.get(e.getKey()).get(v)[col] += e.getValue();
+				}
+			}
+		}
+		if (u.debugReport) u.dbgOutput(CompassUtilities.thisProc()+"facts=["+facts.size()+"] apps=["+apps.size()+"] versions=["+CompassConfig.Babelfish_VersionList.size()+"] ", u.debugReport);
+		return matrix;
+	}
+
+	// the report pathname with its extension, if any, replaced; only the file name can have an extension
+	static String getPathName(String basePathName) {
+		String fileName = Paths.get(basePathName).getFileName().toString();
+		if (fileName.contains(".")) basePathName = basePathName.substring(0, basePathName.length() - fileName.length() + fileName.lastIndexOf("."));
+		return basePathName + ".versionmatrix.csv";
+	}
+
+	// basePathName is the report pathname; the matrix is written as a .csv file next to it
+	public static void write(String basePathName) throws IOException {
+		String pathName = getPathName(basePathName);
+		List<String> columns = statusColumns();
+		Map<String, Map<String, int[]>> matrix = resolve();
+
+		StringBuilder line = new StringBuilder();
+		try (BufferedWriter w = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(pathName), StandardCharsets.UTF_8))) {
+			line.append("app").append(CompassUtilities.CSVseparator).append("babelfishVersion");
+			for (String s : columns) {
+				line.append(CompassUtilities.CSVseparator).append(s);
+			}
+			w.write(line.append("\n").toString());
+
+			for (Map.Entry<String, Map<String, int[]>> app : matrix.entrySet()) {
+				for (Map.Entry<String, int[]> v : app.getValue().entrySet()) {
+					line.setLength(0);
+					ReportItemExport.escapeCSV(line, app.getKey());
+					line.append(CompassUtilities.CSVseparator).append(v.getKey());
+					for (int count : v.getValue()) {
+						line.append(CompassUtilities.CSVseparator).append(count);
+					}
+					w.write(line.append("\n").toString());
+				}
+			}
+		}
+		fileWritten = pathName;
+	}
+}
@@ -35,6 +35,7 @@ package parser;
 
 options {
     tokenVocab = TSQLLexer;
+    contextSuperClass = compass.CompassRuleContext;
 }
 
 tsql_file
@@ -0,0 +1,91 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+
+package compass;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.LinkedHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BabelfishVersionTest {
+
+    List<String> versionListSaved;
+    Map<String, String> versionAliasListSaved;
+
+    @BeforeEach
+    void init() {
+        versionListSaved = CompassConfig.Babelfish_VersionList;
+        versionAliasListSaved = CompassConfig.versionAliasList;
+        CompassConfig.Babelfish_VersionList = new ArrayList<>(Arrays.asList("1.0.0", "1.1.0", "2.1.0", "2.2.0", "3.1.0"));
+        CompassConfig.versionAliasList = new LinkedHashMap<>();
+        BabelfishVersion.reset();
+    }
+
+    @AfterEach
+    void teardown() {
+        CompassConfig.Babelfish_VersionList = versionListSaved;
+        CompassConfig.versionAliasList = versionAliasListSaved;
+        BabelfishVersion.reset();
+    }
+
+    @Test
+    @DisplayName("Versions are interned and ordered")
+    void testCompare() {
+        assertSame(BabelfishVersion.of("2.1.0"), BabelfishVersion.of("2.1.0"));
+        assertEquals("00002.00001.00000", BabelfishVersion.of("2.1.0").getNormalized());
+        assertEquals("00001.99999", BabelfishVersion.of("1.*").getNormalized());
+
+        assertTrue(BabelfishVersion.of("1.1.0").compareTo(BabelfishVersion.of("2.1.0")) < 0);
+        assertTrue(BabelfishVersion.of("1.*").compareTo(BabelfishVersion.of("1.1.0")) > 0);
+        assertTrue(BabelfishVersion.of("1.*").compareTo(BabelfishVersion.of("2.1.0")) < 0);
+        assertTrue(BabelfishVersion.of("1.5.0").compareTo(BabelfishVersion.of("1.2.0")) > 0);
+        assertTrue(BabelfishVersion.of("2").compareTo(BabelfishVersion.of("2.1.0")) < 0);
+        assertTrue(BabelfishVersion.of("2.1").compareTo(BabelfishVersion.of("2.1.0")) < 0);
+        assertEquals(0, BabelfishVersion.of("3.1.0").compareTo(BabelfishVersion.of("3.1.0")));
+        assertTrue(BabelfishVersion.of("4.0.0").compareTo(BabelfishVersion.of("3.1.0")) > 0);
+    }
+
+    @Test
+    @DisplayName("Comparison matches the normalized strings")
+    void testCompareNormalized() {
+        List<String> versions = Arrays.asList("1", "1.0", "1.0.0", "1.1.0", "1.2.0", "1.*", "2.1.0", "2.1", "2.2.0", "2.10.0", "3.1.0", "3.*", "10.0.0");
+        for (String v1 : versions) {
+            for (String v2 : versions) {
+                BabelfishVersion bv1 = BabelfishVersion.of(v1);
+                BabelfishVersion bv2 = BabelfishVersion.of(v2);
+                assertEquals(Integer.signum(bv1.getNormalized().compareTo(bv2.getNormalized())), Integer.signum(bv1.compareTo(bv2)), v1 + " vs " + v2);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Version ranges and aliases")
+    void testRange() {
+        BabelfishVersion[] range = BabelfishVersion.range("1.1.0-2.1.0");
+        assertFalse(BabelfishVersion.of("1.0.0").isInRange(range));
+        assertTrue(BabelfishVersion.of("1.1.0").isInRange(range));
+        assertTrue(BabelfishVersion.of("2.1.0").isInRange(range));
+        assertFalse(BabelfishVersion.of("2.2.0").isInRange(range));
+
+        range = BabelfishVersion.range("2.1.0");
+        assertNull(range[1]);
+        assertTrue(BabelfishVersion.of("3.1.0").isInRange(range));
+        assertFalse(BabelfishVersion.of("1.1.0").isInRange(range));
+
+        CompassConfig.versionAliasList.put("2.2.0", "2.1.0");
+        BabelfishVersion.reset();
+        assertEquals(0, BabelfishVersion.of("2.2.0").compareTo(BabelfishVersion.of("2.1.0")));
+        assertEquals("2.2.0", BabelfishVersion.of("2.2.0").toString());
+    }
+}
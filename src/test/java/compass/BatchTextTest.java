@@ -0,0 +1,122 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+
+package compass;
+
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.RuleContext;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import parser.TSQLLexer;
+import parser.TSQLParser;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Scanner;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchTextTest {
+
+    static List<String> batches = new ArrayList<>();
+
+    @BeforeAll
+    static void setup() throws Exception {
+        String sql;
+        try (InputStream in = BatchTextTest.class.getResourceAsStream("cfglookups.sql")) {
+            sql = new Scanner(in, StandardCharsets.UTF_8.name()).useDelimiter("\\A").next();
+        }
+        for (String b : sql.split("(?im)^go\\s*$")) {
+            if (!b.trim().isEmpty()) batches.add(b);
+        }
+        batches.add("select a . b, f( x ) from t where c = 'it''s' and d in (1,(2)) -- comment\n/* more */ order by 1");
+    }
+
+    static TSQLParser.Tsql_fileContext parse(String batch) {
+        TSQLParser parser = new TSQLParser(new CommonTokenStream(new TSQLLexer(CharStreams.fromString(batch))));
+        parser.removeErrorListeners();
+        return parser.tsql_file();
+    }
+
+    static void allNodes(ParseTree t, List<ParseTree> nodes) {
+        nodes.add(t);
+        for (int i = 0; i < t.getChildCount(); i++) {
+            allNodes(t.getChild(i), nodes);
+        }
+    }
+
+    @Test
+    @DisplayName("Node text taken from the indexed batch is the same as ANTLR's getText()")
+    void testGetText() {
+        BatchText text = new BatchText();
+        for (String batch : batches) {
+            TSQLParser.Tsql_fileContext tree = parse(batch);
+            List<ParseTree> nodes = new ArrayList<>();
+            allNodes(tree, nodes);
+            List<String> expected = new ArrayList<>();
+            for (ParseTree n : nodes) {
+                expected.add(n.getText());
+            }
+            text.reset(tree);
+            for (int i = 0; i < nodes.size(); i++) {
+                assertEquals(expected.get(i), nodes.get(i).getText());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Spaced text of a node is a slice of the spaced text of the batch, the same as joining the node's own tokens")
+    void testSpaced() {
+        BatchText text = new BatchText();
+        for (String batch : batches) {
+            // a second parse that is not indexed, so spaced() joins the tokens of each node by itself
+            List<ParseTree> expected = new ArrayList<>();
+            allNodes(parse(batch), expected);
+
+            TSQLParser.Tsql_fileContext tree = parse(batch);
+            text.reset(tree);
+            List<ParseTree> nodes = new ArrayList<>();
+            allNodes(tree, nodes);
+            assertEquals(expected.size(), nodes.size());
+            String root = text.spaced(tree);
+            for (int i = 0; i < nodes.size(); i++) {
+                String spaced = text.spaced(nodes.get(i));
+                assertEquals(text.spaced(expected.get(i)), spaced);
+                assertTrue(root.contains(spaced.trim()), spaced);
+            }
+        }
+        TSQLParser.Tsql_fileContext tree = parse(batches.get(batches.size()-1));
+        text.reset(tree);
+        assertEquals(" SELECT A.B , F ( X )FROM T WHERE C = '' AND D IN ( 1 , ( 2 ))ORDER BY 1 <EOF> ", text.spaced(tree).toUpperCase());
+    }
+
+    @Test
+    @DisplayName("Ancestor rules recorded for each node are the rules found by walking up the tree")
+    void testInRule() {
+        BatchText text = new BatchText();
+        for (String batch : batches) {
+            TSQLParser.Tsql_fileContext tree = parse(batch);
+            text.reset(tree);
+            List<ParseTree> nodes = new ArrayList<>();
+            allNodes(tree, nodes);
+            for (ParseTree n : nodes) {
+                if (!(n instanceof CompassRuleContext)) continue;
+                CompassRuleContext ctx = (CompassRuleContext) n;
+                for (int r = 0; r < TSQLParser.ruleNames.length; r++) {
+                    boolean found = false;
+                    for (RuleContext p = ctx; p.getRuleIndex() != TSQLParser.RULE_tsql_file; p = p.parent) {
+                        if (p.getRuleIndex() == r) found = true;
+                    }
+                    assertEquals(found, ctx.inRule(r), TSQLParser.ruleNames[r]);
+                }
+            }
+        }
+    }
+}
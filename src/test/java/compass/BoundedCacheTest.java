@@ -0,0 +1,96 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+
+package compass;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedCacheTest {
+
+    @Test
+    @DisplayName("The least recently used entry is evicted when the cache is full")
+    void testEviction() {
+        BoundedCache<String, String> c = new BoundedCache<>("test", 2);
+        AtomicInteger computed = new AtomicInteger();
+        c.get("a", k -> { computed.incrementAndGet(); return k.toUpperCase(); });
+        c.get("b", k -> { computed.incrementAndGet(); return k.toUpperCase(); });
+        assertEquals("A", c.get("a"));
+        c.get("c", k -> { computed.incrementAndGet(); return k.toUpperCase(); });
+        assertEquals(2, c.size());
+        assertNull(c.get("b"));
+        assertEquals("A", c.get("a", k -> { computed.incrementAndGet(); return "x"; }));
+        assertEquals(3, computed.get());
+        assertEquals(2, c.hits());
+        assertEquals(4, c.misses());
+        assertEquals(1, c.evictions());
+        assertTrue(BoundedCache.all().contains(c));
+        assertEquals("test: size=[2/2] hits=[2] misses=[4] evictions=[1]", c.stats());
+    }
+
+    @Test
+    @DisplayName("A cache is no longer listed once it is no longer used")
+    void testUnregister() throws Exception {
+        BoundedCache<String, String> c = new BoundedCache<>("test unregister", 2);
+        WeakReference<BoundedCache<String, String>> ref = new WeakReference<>(c);
+        assertTrue(BoundedCache.all().contains(c));
+        c = null;
+        for (int i = 0; i < 100 && ref.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(ref.get());
+        for (BoundedCache<?, ?> b : BoundedCache.all()) {
+            assertFalse(b.stats().startsWith("test unregister:"));
+        }
+    }
+
+    @Test
+    @DisplayName("The cache can be used from multiple threads")
+    void testThreads() throws Exception {
+        BoundedCache<Integer, String> c = new BoundedCache<>("test threads", 100);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 10000; i++) {
+                    int key = i % 150;
+                    assertEquals(Integer.toString(key), c.get(key, k -> Integer.toString(k)));
+                }
+            }));
+        }
+        for (Thread t : threads) t.start();
+        for (Thread t : threads) t.join();
+        assertEquals(100, c.size());
+        assertEquals(40000, c.hits() + c.misses());
+    }
+
+    @Test
+    @DisplayName("Names are normalized the same with and without caching")
+    void testNormalizeName() {
+        CompassUtilities u = CompassUtilities.getInstance();
+        String[] names = { "[dbo].[t1]", "..t1", "\"s\".\"t 1\"", "sys.int", "nationalchar(010)", "xml(dbo.sch)", "charvarying(5)" };
+        boolean caching = CompassUtilities.caching;
+        try {
+            for (String options : new String[] { "", "datatype" }) {
+                for (String name : names) {
+                    CompassUtilities.caching = false;
+                    String expected = u.normalizeName(name, options);
+                    CompassUtilities.caching = true;
+                    assertEquals(expected, u.normalizeName(name, options), "[" + name + "] [" + options + "]");
+                    assertEquals(expected, u.normalizeName(name, options), "[" + name + "] [" + options + "]");
+                }
+            }
+        } finally {
+            CompassUtilities.caching = caching;
+        }
+    }
+}
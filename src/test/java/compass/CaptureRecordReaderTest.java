@@ -0,0 +1,89 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+
+package compass;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CaptureRecordReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Object type derived from item")
+    void testDeriveObjType() {
+        assertEquals("TABLE", CaptureRecordReader.deriveObjType("CREATE TABLE"));
+        assertEquals("PROCEDURE", CaptureRecordReader.deriveObjType("CREATE OR ALTER PROCEDURE proc;version"));
+        assertEquals("user-defined datatype (UDD), scalar", CaptureRecordReader.deriveObjType("CREATE TYPE, scalar"));
+        assertEquals("index", CaptureRecordReader.deriveObjType("CREATE INDEX"));
+        assertEquals("DATABASE", CaptureRecordReader.deriveObjType("CREATE DATABASE mydb"));
+        assertEquals("constraint CHECK", CaptureRecordReader.deriveObjType("Constraint CHECK, in CREATE TABLE"));
+        assertEquals("constraint column DEFAULT", CaptureRecordReader.deriveObjType("Constraint column DEFAULT(x), in CREATE TABLE"));
+        assertEquals("", CaptureRecordReader.deriveObjType("INT column"));
+        assertEquals("", CaptureRecordReader.deriveObjType("CREATE "));
+    }
+
+    @Test
+    @DisplayName("Object type as counted in the report")
+    void testDeriveObjTypeCounted() {
+        assertEquals("PARTITION FUNCTION", CaptureRecordReader.deriveObjTypeCounted("PARTITION FUNCTION, RANGE LEFT, for 2 INT values"));
+        assertEquals("TRIGGER (DDL)", CaptureRecordReader.deriveObjTypeCounted("TRIGGER (DDL, CREATE_TABLE)"));
+        assertEquals("TRIGGER", CaptureRecordReader.deriveObjTypeCounted("TRIGGER, FOR/AFTER INSERT"));
+        assertEquals("TABLE", CaptureRecordReader.deriveObjTypeCounted("TABLE, external"));
+        assertEquals("VIEW", CaptureRecordReader.deriveObjTypeCounted("VIEW <name>"));
+        assertEquals("FUNCTION", CaptureRecordReader.deriveObjTypeCounted("FUNCTION myfunc" + CompassUtilities.captureFileSeparatorMarker + "1"));
+    }
+
+    @Test
+    @DisplayName("Reading capture records")
+    void testReadRecords() throws IOException {
+        Path cf = tempDir.resolve("captured.dat");
+        List<String> lines = Arrays.asList(
+            "# header line",
+            "",
+            "*metrics=t.sql;app;3;0;10",
+            "CREATE TABLE;t" + CompassUtilities.captureFileSeparatorMarker + "x;DDL;SUPPORTED;1;app;t.sql;1;1;T-SQL batch;;5;~;",
+            "a\\\\b;;Misc;SUPPORTED;2;app;t.sql;2;7;PROCEDURE p;;;~;"
+        );
+        Files.write(cf, lines, StandardCharsets.UTF_8);
+
+        CaptureRecordReader capFile = new CaptureRecordReader(cf.toString(), true);
+        assertTrue(capFile.next());
+        assertTrue(capFile.isMetricsLine());
+        assertEquals(5, capFile.getFieldCount());
+        assertEquals("app", capFile.getField(1));
+
+        assertTrue(capFile.next());
+        assertFalse(capFile.isMetricsLine());
+        assertEquals(4, capFile.getLineNr());
+        assertEquals(13, capFile.getFieldCount());
+        assertEquals("SUPPORTED", capFile.getStatus());
+        assertEquals("t;x", capFile.getFieldUnmasked(CompassUtilities.capPosItemDetail));
+        assertEquals("TABLE", capFile.getObjType());
+        assertEquals("CREATE TABLE;t" + CompassUtilities.captureFileSeparatorMarker + "x;DDL;SUPPORTED;1;app;t.sql;1;1;T-SQL batch;", capFile.getLineWithoutLastFields(3));
+
+        assertTrue(capFile.next());
+        assertEquals("a\\b", capFile.getField(CompassUtilities.capPosItem));
+        assertEquals(Arrays.asList("a\\b", "", "Misc", "SUPPORTED", "2", "app", "t.sql", "2", "7", "PROCEDURE p"), capFile.getFieldList(2));
+        capFile.setField(CompassUtilities.capPosItem, "b");
+        assertTrue(capFile.isModified());
+        assertEquals("b;;Misc;SUPPORTED;2;app;t.sql;2;7;PROCEDURE p;", capFile.joinFields(CompassUtilities.capPosSubContext+1));
+
+        assertFalse(capFile.next());
+        capFile.close();
+    }
+}
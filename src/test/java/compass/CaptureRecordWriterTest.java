@@ -0,0 +1,53 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+
+package compass;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CaptureRecordWriterTest {
+
+    static final String sep = CompassUtilities.captureFileSeparator;
+    static final String marker = CompassUtilities.captureFileSeparatorMarker;
+
+    // escaping as done by captureItem() before CaptureRecordWriter
+    static String escapeOrig(String itemLine) {
+        if (itemLine.contains("\\")) {
+            itemLine = CompassUtilities.applyPatternAll(itemLine, "\\\\", "\\\\\\\\");
+        }
+        return CompassUtilities.applyPatternAll(itemLine, ",\\s*,", ",");
+    }
+
+    @Test
+    @DisplayName("Records are escaped as with the original regexes")
+    void testEscape() {
+        String[] values = { "", "plain", "a,b", "a,,b", "a, ,b", "a,\t ,,b", ",,,", ", , , ,", "c:\\dir\\file.sql", "\\.", "x,\\,y", "a ,  b", "ends with," };
+        CaptureRecordWriter w = new CaptureRecordWriter();
+        for (String a : values) {
+            for (String b : values) {
+                String line = w.start().field(a).field(b).field(12).field("~").line();
+                assertEquals(escapeOrig(a + sep + b + sep + "12" + sep + "~" + sep), line, "[" + a + "] [" + b + "]");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Fields are trimmed, and separators in the object context are replaced by the marker")
+    void testFields() {
+        CaptureRecordWriter w = new CaptureRecordWriter();
+        assertEquals("x" + sep, w.start().trimmed("  x \t").line());
+        assertEquals("" + sep, w.start().trimmed("   ").line());
+        assertEquals("PROCEDURE dbo.p" + marker + "1" + sep, w.start().context("PROCEDURE", "dbo.p;1").line());
+        assertEquals("PROCEDURE" + sep, w.start().context("PROCEDURE", "").line());
+        assertEquals("" + sep, w.start().context("", "").line());
+        assertEquals("name" + sep, w.start().context(" ", " name ").line());
+        assertEquals("T-SQL batch" + sep, w.start().context(" T-SQL batch ").line());
+        Integer lineNr = null;
+        assertEquals("null" + sep, w.start().field(lineNr).line());
+    }
+}
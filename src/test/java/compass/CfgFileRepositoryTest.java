@@ -0,0 +1,77 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+
+package compass;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CfgFileRepositoryTest {
+
+    @TempDir
+    Path tempDir;
+
+    String pathName;
+
+    @BeforeEach
+    void init() throws Exception {
+        CfgFileRepository.clear();
+        Path p = tempDir.resolve("test.cfg");
+        Files.write(p, "[Section]\nkey=value\n".getBytes(StandardCharsets.UTF_8));
+        pathName = p.toString();
+    }
+
+    @Test
+    @DisplayName("A file is read only once")
+    void testReadOnce() throws Exception {
+        try (BufferedReader br = CfgFileRepository.getReader(pathName, StandardCharsets.UTF_8)) {
+            assertEquals("[Section]", br.readLine());
+        }
+        assertEquals("[Section]\nkey=value\n", CfgFileRepository.getText(pathName, StandardCharsets.UTF_8));
+        String key = CfgFileRepository.fileKey(pathName);
+        assertEquals(key, CfgFileRepository.fileKey(pathName));
+        assertEquals(1, CfgFileRepository.nrReads);
+    }
+
+    @Test
+    @DisplayName("A file changed by someone else is read again")
+    void testChangedFile() throws Exception {
+        String key = CfgFileRepository.fileKey(pathName);
+        File f = new File(pathName);
+        Files.write(f.toPath(), "[Section]\nkey=other value\n".getBytes(StandardCharsets.UTF_8));
+        assertNotEquals(key, CfgFileRepository.fileKey(pathName));
+        assertEquals("[Section]\nkey=other value\n", CfgFileRepository.getText(pathName, StandardCharsets.UTF_8));
+        assertEquals(2, CfgFileRepository.nrReads);
+    }
+
+    @Test
+    @DisplayName("Writing only happens when the contents change")
+    void testWrite() throws Exception {
+        assertFalse(CfgFileRepository.write(pathName, "[Section]\nkey=value\n"));
+        assertEquals(0, CfgFileRepository.nrWrites);
+
+        assertTrue(CfgFileRepository.append(pathName, "[Other]\n"));
+        assertEquals(1, CfgFileRepository.nrWrites);
+        assertEquals("[Section]\nkey=value\n[Other]\n", new String(Files.readAllBytes(new File(pathName).toPath()), StandardCharsets.UTF_8));
+
+        // the written contents are known, so there is no need to read the file again
+        int nrReads = CfgFileRepository.nrReads;
+        assertEquals("[Section]\nkey=value\n[Other]\n", CfgFileRepository.getText(pathName, StandardCharsets.UTF_8));
+        assertEquals(nrReads, CfgFileRepository.nrReads);
+
+        // no temporary files left behind
+        assertEquals(1, new File(pathName).getParentFile().list().length);
+    }
+}
@@ -0,0 +1,141 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+
+package compass;
+
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import parser.TSQLLexer;
+import parser.TSQLParser;
+
+import java.io.BufferedWriter;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Scanner;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CfgLookupTraceTest {
+
+    // average time per lookup allowed, in nanoseconds: set by pom.xml, and can be changed with -Dcompass.cfglookup.maxnanos=<n>
+    static final String maxNanosProperty = "compass.cfglookup.maxnanos";
+
+    static List<CfgLookupTrace.Lookup> trace;
+
+    CompassTestUtils.ConfigState configState;
+
+    @BeforeAll
+    static void setup() throws Exception {
+        String sql;
+        try (InputStream in = CfgLookupTraceTest.class.getResourceAsStream("cfglookups.sql")) {
+            sql = new Scanner(in, StandardCharsets.UTF_8.name()).useDelimiter("\\A").next();
+        }
+        List<String> batches = new ArrayList<>();
+        for (String b : sql.split("(?im)^go\\s*$")) {
+            if (!b.trim().isEmpty()) batches.add(b);
+        }
+        CompassTestUtils.ConfigState configState = new CompassTestUtils.ConfigState();
+        try {
+            assertTrue(CompassTestUtils.readMainCfgFile("BabelfishFeatures.cfg"));
+            trace = record(batches);
+        } finally {
+            configState.restore();
+        }
+    }
+
+    // the lookups made by analyzing the batches, as Compass does for an input file; the captured items are discarded
+    static List<CfgLookupTrace.Lookup> record(List<String> batches) throws Exception {
+        CompassUtilities u = CompassUtilities.getInstance();
+        CompassAnalyze a = CompassAnalyze.getInstance();
+        BufferedWriter captureFileWriter = u.captureFileWriter;
+        String targetBabelfishVersion = u.targetBabelfishVersion;
+        int analysisPass = u.analysisPass;
+        boolean quotedIdentifier = TSQLLexer.QUOTED_IDENTIFIER_FLAG;
+        try {
+            u.captureFileWriter = new BufferedWriter(new StringWriter());
+            u.targetBabelfishVersion = CompassConfig.latestBabelfishVersion();
+            CfgLookupTrace.clear();
+            CfgLookupTrace.recording = true;
+            for (int pass = 1; pass <= 2; pass++) {
+                u.analysisPass = pass;
+                a.setQuotedIdentifier("ON");
+                for (int batchNr = 1; batchNr <= batches.size(); batchNr++) {
+                    String batch = batches.get(batchNr - 1);
+                    TSQLParser parser = new TSQLParser(new CommonTokenStream(new TSQLLexer(CharStreams.fromString(batch))));
+                    parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+                    CompassUtilities.grammarRuleNames = parser.getRuleNames();
+                    a.analyzeTree(parser.tsql_file(), batchNr, batch.split("\n").length, pass);
+                }
+            }
+            return CfgLookupTrace.getLookups();
+        } finally {
+            CfgLookupTrace.recording = false;
+            CfgLookupTrace.clear();
+            u.captureFileWriter = captureFileWriter;
+            u.targetBabelfishVersion = targetBabelfishVersion;
+            u.analysisPass = analysisPass;
+            a.setQuotedIdentifier(quotedIdentifier ? "ON" : "OFF");
+            CompassTestUtils.resetStatics();
+        }
+    }
+
+    @BeforeEach
+    void init() throws Exception {
+        configState = new CompassTestUtils.ConfigState();
+        assertTrue(CompassTestUtils.readMainCfgFile("BabelfishFeatures.cfg"));
+    }
+
+    @AfterEach
+    void teardown() {
+        configState.restore();
+    }
+
+    @Test
+    @DisplayName("Replaying the lookups of an analysis gives the results the analysis got, with and without the status index")
+    void testReplay() {
+        assertFalse(trace.isEmpty());
+        boolean indexEnabled = CompassConfig.featureStatusIndexEnabled;
+        try {
+            CompassConfig.featureStatusIndexEnabled = false;
+            CompassConfig.clearFeatureStatusIndex();
+            List<String> noIndex = CfgLookupTrace.replay(trace);
+            CompassConfig.featureStatusIndexEnabled = true;
+            CompassConfig.clearFeatureStatusIndex();
+            List<String> index = CfgLookupTrace.replay(trace);
+            assertEquals(noIndex, index);
+            assertEquals(0, CfgLookupTrace.mismatches(trace, index));
+        } finally {
+            CompassConfig.featureStatusIndexEnabled = indexEnabled;
+            CompassConfig.clearFeatureStatusIndex();
+        }
+    }
+
+    @Test
+    @DisplayName("Lookups do not become slower than the allowed time per lookup")
+    @EnabledIfSystemProperty(named = maxNanosProperty, matches = "\\d+")
+    void testLookupTime() {
+        long maxNanosPerLookup = Long.getLong(maxNanosProperty);
+        boolean indexEnabled = CompassConfig.featureStatusIndexEnabled;
+        long nanos;
+        try {
+            // time the lookups themselves, not the status index
+            CompassConfig.featureStatusIndexEnabled = false;
+            nanos = CfgLookupTrace.nanosPerLookup(trace, 5, 20);
+        } finally {
+            CompassConfig.featureStatusIndexEnabled = indexEnabled;
+        }
+        assertTrue(nanos <= maxNanosPerLookup, "average time per .cfg lookup " + nanos + " ns, allowed " + maxNanosPerLookup + " ns");
+    }
+}
@@ -0,0 +1,56 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+
+package compass;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CfgNameMatcherTest {
+
+    @Test
+    @DisplayName("Literal names and wildcards")
+    void testMatch() {
+        List<String> names = new ArrayList<>(Arrays.asList("SP_WHO", "SP_ADD%", "SP_AGENT_%", "%_KS", "A%B", "X.Y%"));
+        CfgNameMatcher m = new CfgNameMatcher(names);
+        assertTrue(m.hasWildcard());
+        assertTrue(m.contains("SP_WHO"));
+        assertFalse(m.contains("SP_ADDLOGIN"));
+
+        List<String> candidates = Arrays.asList("SP_WHO", "SP_ADD", "SP_ADDLOGIN", "SP_AD", "SP_AGENT_X", "SP_AGENT", "X_KS", "_KS", "KS",
+                "AB", "AXXB", "AXXBC", "X.YZ", "XAYZ", "SP_ADD\nX", "Y\n_KS", "");
+        for (String c : candidates) {
+            boolean expected = false;
+            for (String n : names) {
+                if (n.contains("%") && c.matches(n.replaceAll("%", ".*"))) expected = true;
+            }
+            assertEquals(expected, m.matchesWildcard(c), c);
+        }
+    }
+
+    @Test
+    @DisplayName("Recompiled when the list changes")
+    void testCurrent() {
+        List<String> names = new ArrayList<>(Arrays.asList("A", "B"));
+        CfgNameMatcher m = new CfgNameMatcher(names);
+        assertTrue(m.isCurrent(names));
+        assertFalse(m.isCurrent(new ArrayList<>(names)));
+        names.add("C");
+        assertFalse(m.isCurrent(names));
+        m.add("C");
+        assertTrue(m.isCurrent(names));
+        assertTrue(m.contains("C"));
+        assertFalse(m.hasWildcard());
+        assertFalse(m.matchesWildcard("C"));
+
+        assertTrue(new CfgNameMatcher(Arrays.asList("%")).matchesWildcard("ANYTHING"));
+    }
+}
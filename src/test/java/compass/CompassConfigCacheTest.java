@@ -0,0 +1,297 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+
+package compass;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompassConfigCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    CompassUtilities u = CompassUtilities.getInstance();
+    String cfgPathName;
+    String userCfgPathName;
+
+    // saved state, restored after each test
+    String userHome;
+    String folderName;
+    boolean userConfig;
+    Map<String, Map<String, String>> cfg;
+    Map<String, Map<String, String>> userCfg;
+    List<String> versionList;
+    Map<String, Map<String, List<String>>> sectionList;
+    Map<String, Map<String, List<String>>> sectionOverrideList;
+    Map<String, Map<String, List<String>>> sectionEffortList;
+    Map<String, Map<String, List<String>>> sectionComplexityList;
+    Map<String, String> versionAliasList;
+    Map<String, String> featureArgOptions;
+    Map<String, String> complexityDefault;
+    Map<String, String> effortEstimateDefault;
+    List<String> cfgSections;
+    int overrideCount;
+    boolean effortEstimatesFound;
+    Integer cfgFileFormatVersionRead;
+    String cfgFileTimestamp;
+
+    @BeforeEach
+    void init() throws Exception {
+        userHome = System.getProperty("user.home");
+        folderName = CompassUtilities.BabelfishCompassFolderName;
+        userConfig = u.userConfig;
+        cfg = CompassConfig.cfg;
+        userCfg = CompassConfig.userCfg;
+        versionList = CompassConfig.Babelfish_VersionList;
+        sectionList = CompassConfig.sectionList;
+        sectionOverrideList = CompassConfig.sectionOverrideList;
+        sectionEffortList = CompassConfig.sectionEffortList;
+        sectionComplexityList = CompassConfig.sectionComplexityList;
+        versionAliasList = CompassConfig.versionAliasList;
+        featureArgOptions = CompassConfig.featureArgOptions;
+        complexityDefault = CompassConfig.complexityDefault;
+        effortEstimateDefault = CompassConfig.effortEstimateDefault;
+        cfgSections = CompassConfig.cfgSections;
+        overrideCount = CompassConfig.overrideCount;
+        effortEstimatesFound = CompassConfig.effortEstimatesFound;
+        cfgFileFormatVersionRead = CompassUtilities.cfgFileFormatVersionRead;
+        cfgFileTimestamp = u.cfgFileTimestamp;
+
+        System.setProperty("user.home", tempDir.toString());
+        CompassUtilities.BabelfishCompassFolderName = "BabelfishCompassReports";
+        Files.createDirectories(Paths.get(CompassConfigCache.getCachePathName()).getParent());
+        CfgFileRepository.clear();
+
+        cfgPathName = write("BabelfishFeatures.cfg", "[Section A]\nsupported-1.0.0=X\n");
+        userCfgPathName = write("BabelfishCompassUser.cfg", "[Section A]\n");
+    }
+
+    @AfterEach
+    void restore() {
+        System.setProperty("user.home", userHome);
+        CompassUtilities.BabelfishCompassFolderName = folderName;
+        u.userConfig = userConfig;
+        CompassConfig.cfg = cfg;
+        CompassConfig.userCfg = userCfg;
+        CompassConfig.Babelfish_VersionList = versionList;
+        CompassConfig.sectionList = sectionList;
+        CompassConfig.sectionOverrideList = sectionOverrideList;
+        CompassConfig.sectionEffortList = sectionEffortList;
+        CompassConfig.sectionComplexityList = sectionComplexityList;
+        CompassConfig.versionAliasList = versionAliasList;
+        CompassConfig.featureArgOptions = featureArgOptions;
+        CompassConfig.complexityDefault = complexityDefault;
+        CompassConfig.effortEstimateDefault = effortEstimateDefault;
+        CompassConfig.cfgSections = cfgSections;
+        CompassConfig.overrideCount = overrideCount;
+        CompassConfig.effortEstimatesFound = effortEstimatesFound;
+        CompassUtilities.cfgFileFormatVersionRead = cfgFileFormatVersionRead;
+        u.cfgFileTimestamp = cfgFileTimestamp;
+        CfgFileRepository.clear();
+    }
+
+    String write(String fileName, String contents) throws Exception {
+        Path p = tempDir.resolve(fileName);
+        Files.write(p, contents.getBytes(StandardCharsets.UTF_8));
+        return p.toString();
+    }
+
+    void setConfig(String version, int nrOverrides) {
+        CompassConfig.cfg = new HashMap<>();
+        CompassConfig.cfg.put("Section A", new HashMap<>());
+        CompassConfig.cfg.get("Section A").put("supported-" + version, "X");
+        CompassConfig.userCfg = new HashMap<>();
+        CompassConfig.Babelfish_VersionList = new ArrayList<>(Arrays.asList(version));
+        CompassConfig.sectionList = new LinkedHashMap<>();
+        CompassConfig.sectionList.put("Section A", new HashMap<>());
+        CompassConfig.sectionList.get("Section A").put(version, Arrays.asList("X"));
+        CompassConfig.sectionOverrideList = new LinkedHashMap<>();
+        CompassConfig.sectionEffortList = new LinkedHashMap<>();
+        CompassConfig.sectionComplexityList = new LinkedHashMap<>();
+        CompassConfig.versionAliasList = new HashMap<>();
+        CompassConfig.featureArgOptions = new HashMap<>();
+        CompassConfig.complexityDefault = new HashMap<>();
+        CompassConfig.effortEstimateDefault = new HashMap<>();
+        CompassConfig.cfgSections = new ArrayList<>(Arrays.asList("Section A"));
+        CompassConfig.overrideCount = nrOverrides;
+        CompassConfig.effortEstimatesFound = nrOverrides > 0;
+        CompassUtilities.cfgFileFormatVersionRead = 1;
+        u.cfgFileTimestamp = "ts-" + version;
+    }
+
+    // as on the next run: the .cfg files are read from disk again
+    String newRunKey() throws Exception {
+        CfgFileRepository.clear();
+        return CompassConfigCache.makeKey(cfgPathName, userCfgPathName);
+    }
+
+    @Test
+    @DisplayName("The saved config is restored when the key matches")
+    void testRoundTrip() throws Exception {
+        String key = CompassConfigCache.makeKey(cfgPathName, userCfgPathName);
+        setConfig("1.0.0", 2);
+        CompassConfigCache.save(key);
+        assertTrue(new File(CompassConfigCache.getCachePathName()).exists());
+        // no temporary files left behind
+        assertEquals(1, new File(CompassConfigCache.getCachePathName()).getParentFile().list().length);
+
+        setConfig("9.9.9", 0);
+        assertTrue(CompassConfigCache.load(newRunKey()));
+        assertEquals(Arrays.asList("1.0.0"), CompassConfig.Babelfish_VersionList);
+        assertEquals("X", CompassConfig.cfg.get("Section A").get("supported-1.0.0"));
+        assertEquals(Arrays.asList("X"), CompassConfig.sectionList.get("Section A").get("1.0.0"));
+        assertEquals(Arrays.asList("Section A"), CompassConfig.cfgSections);
+        assertEquals(2, CompassConfig.overrideCount);
+        assertTrue(CompassConfig.effortEstimatesFound);
+        assertEquals(1, CompassUtilities.cfgFileFormatVersionRead);
+        assertEquals("ts-1.0.0", u.cfgFileTimestamp);
+    }
+
+    @Test
+    @DisplayName("Nothing is restored when the key does not match, or the cache is missing or damaged")
+    void testNoMatch() throws Exception {
+        assertFalse(CompassConfigCache.load(CompassConfigCache.makeKey(cfgPathName, userCfgPathName)));
+
+        setConfig("1.0.0", 2);
+        CompassConfigCache.save("some other key");
+        setConfig("9.9.9", 0);
+        assertFalse(CompassConfigCache.load(CompassConfigCache.makeKey(cfgPathName, userCfgPathName)));
+        assertEquals(Arrays.asList("9.9.9"), CompassConfig.Babelfish_VersionList);
+        assertEquals(0, CompassConfig.overrideCount);
+
+        Files.write(Paths.get(CompassConfigCache.getCachePathName()), "not a cache".getBytes(StandardCharsets.UTF_8));
+        assertFalse(CompassConfigCache.load("some other key"));
+        assertEquals(Arrays.asList("9.9.9"), CompassConfig.Babelfish_VersionList);
+    }
+
+    @Test
+    @DisplayName("Missing values and long values are restored as saved")
+    void testValues() throws Exception {
+        String key = CompassConfigCache.makeKey(cfgPathName, userCfgPathName);
+        setConfig("1.0.0", 0);
+        StringBuilder longValue = new StringBuilder();
+        for (int i = 0; i < 20000; i++) longValue.append("name").append(i).append(',');
+        CompassConfig.cfg.get("Section A").put("supported-1.0.0", longValue.toString());
+        CompassConfig.cfg.get("Section A").put("rule", null);
+        CompassConfig.sectionList.get("Section A").put("wildcard", null);
+        CompassConfig.userCfg = null;
+        CompassUtilities.cfgFileFormatVersionRead = null;
+        CompassConfigCache.save(key);
+
+        setConfig("9.9.9", 0);
+        assertTrue(CompassConfigCache.load(newRunKey()));
+        assertEquals(longValue.toString(), CompassConfig.cfg.get("Section A").get("supported-1.0.0"));
+        assertTrue(CompassConfig.cfg.get("Section A").containsKey("rule"));
+        assertNull(CompassConfig.cfg.get("Section A").get("rule"));
+        assertEquals(Arrays.asList("X"), CompassConfig.sectionList.get("Section A").get("1.0.0"));
+        assertTrue(CompassConfig.sectionList.get("Section A").containsKey("wildcard"));
+        assertNull(CompassConfig.sectionList.get("Section A").get("wildcard"));
+        assertNull(CompassConfig.userCfg);
+        assertNull(CompassUtilities.cfgFileFormatVersionRead);
+    }
+
+    @Test
+    @DisplayName("A damaged cache is not used")
+    void testDamaged() throws Exception {
+        String key = CompassConfigCache.makeKey(cfgPathName, userCfgPathName);
+        setConfig("1.0.0", 2);
+        CompassConfigCache.save(key);
+        Path p = Paths.get(CompassConfigCache.getCachePathName());
+        byte[] b = Files.readAllBytes(p);
+
+        // truncated
+        Files.write(p, Arrays.copyOf(b, b.length / 2));
+        assertFalse(CompassConfigCache.load(key));
+
+        // a size larger than the file: the length of the key, after the magic string and the format version
+        byte[] d = b.clone();
+        int sizePos = 2 + "BBFCONFIGCACHE".length() + 4;
+        d[sizePos] = 0x7f;
+        Files.write(p, d);
+        assertFalse(CompassConfigCache.load(key));
+
+        Files.write(p, b);
+        assertTrue(CompassConfigCache.load(key));
+    }
+
+    @Test
+    @DisplayName("A cache saved by another Compass version is not used")
+    void testVersion() throws Exception {
+        String key = CompassConfigCache.makeKey(cfgPathName, userCfgPathName);
+        assertTrue(key.startsWith(CompassUtilities.thisProgVersion + "|" + CompassUtilities.thisProgVersionDate + "|"));
+        setConfig("1.0.0", 2);
+        CompassConfigCache.save("2000-01|January 2000" + key.substring(key.indexOf('|', key.indexOf('|') + 1)));
+        assertFalse(CompassConfigCache.load(key));
+    }
+
+    @Test
+    @DisplayName("The key changes when the .cfg file changes in size, timestamp or contents")
+    void testCfgChanged() throws Exception {
+        File f = new File(cfgPathName);
+        String key = CompassConfigCache.makeKey(cfgPathName, userCfgPathName);
+        assertEquals(key, newRunKey());
+
+        // size
+        long lastModified = f.lastModified();
+        write("BabelfishFeatures.cfg", "[Section A]\nsupported-1.0.0=X,Y\n");
+        assertTrue(f.setLastModified(lastModified));
+        String keySize = newRunKey();
+        assertNotEquals(key, keySize);
+
+        // timestamp only
+        assertTrue(f.setLastModified(lastModified + 10000));
+        String keyTime = newRunKey();
+        assertNotEquals(keySize, keyTime);
+
+        // contents only: same size and timestamp
+        write("BabelfishFeatures.cfg", "[Section A]\nsupported-1.0.0=X,Z\n");
+        assertTrue(f.setLastModified(lastModified + 10000));
+        assertNotEquals(keyTime, newRunKey());
+
+        setConfig("1.0.0", 2);
+        CompassConfigCache.save(key);
+        assertFalse(CompassConfigCache.load(newRunKey()));
+    }
+
+    @Test
+    @DisplayName("The key changes when the user .cfg file changes, is created, or is used differently")
+    void testUserCfgChanged() throws Exception {
+        String key = CompassConfigCache.makeKey(cfgPathName, userCfgPathName);
+        setConfig("1.0.0", 2);
+        CompassConfigCache.save(key);
+
+        write("BabelfishCompassUser.cfg", "[Section A]\nsupported-1.0.0=X\n");
+        String keyChanged = newRunKey();
+        assertNotEquals(key, keyChanged);
+        assertFalse(CompassConfigCache.load(keyChanged));
+
+        String missing = tempDir.resolve("missing.cfg").toString();
+        String keyMissing = CompassConfigCache.makeKey(cfgPathName, missing);
+        write("missing.cfg", "[Section A]\n");
+        CfgFileRepository.clear();
+        assertNotEquals(keyMissing, CompassConfigCache.makeKey(cfgPathName, missing));
+
+        u.userConfig = !u.userConfig;
+        assertNotEquals(keyChanged, newRunKey());
+    }
+}
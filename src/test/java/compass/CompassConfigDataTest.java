@@ -0,0 +1,87 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+
+package compass;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompassConfigDataTest {
+
+    Map<String, Map<String, List<String>>> sectionListSaved;
+    Map<String, String> sectionArgIndexSaved;
+
+    @BeforeEach
+    void init() {
+        sectionListSaved = CompassConfig.sectionList;
+        sectionArgIndexSaved = CompassConfig.sectionArgIndex;
+
+        Map<String, List<String>> keys = new LinkedHashMap<>();
+        keys.put("LIST", new ArrayList<>(Arrays.asList("SP_WHO", "SP_ADD%")));
+        keys.put("SUPPORTED/1.0.0/ARG1", new ArrayList<>(Arrays.asList("DAY")));
+        keys.put("WILDCARD", null);
+        CompassConfig.sectionList = new LinkedHashMap<>();
+        CompassConfig.sectionList.put("SYSTEM PROCEDURES", keys);
+        CompassConfig.sectionArgIndex = null;
+    }
+
+    @AfterEach
+    void teardown() {
+        CompassConfig.sectionList = sectionListSaved;
+        CompassConfig.sectionArgIndex = sectionArgIndexSaved;
+    }
+
+    @Test
+    @DisplayName("Loaded config cannot be changed and has all lists compiled")
+    void testFrozen() {
+        CompassConfigData data = CompassConfigData.fromLoaded();
+        Map<String, List<String>> keys = data.getSectionList().get("SYSTEM PROCEDURES");
+        List<String> list = keys.get("LIST");
+
+        assertThrows(UnsupportedOperationException.class, () -> list.add("SP_X"));
+        assertThrows(UnsupportedOperationException.class, () -> keys.put("LIST", null));
+        assertThrows(UnsupportedOperationException.class, () -> data.getSectionList().clear());
+        assertTrue(keys.containsKey("WILDCARD"));
+
+        // a copy, so changing what is being loaded does not affect it
+        CompassConfig.sectionList.get("SYSTEM PROCEDURES").get("LIST").add("SP_X");
+        assertEquals(2, list.size());
+
+        assertTrue(data.getNameMatcher(list).matchesWildcard("SP_ADDLOGIN"));
+        assertNull(data.getNameMatcher(new ArrayList<>(list)));
+        assertEquals("ARG1", data.getSectionArgIndex().get("SYSTEM PROCEDURES"));
+    }
+
+    @Test
+    @DisplayName("The argument to validate for a section is found through the index, which is rebuilt when the .cfg contents change")
+    void testSectionArgIndex() {
+        assertEquals("ARG1", CompassConfig.featureExistsArg("System Procedures"));
+        assertEquals("ARG1", CompassConfig.sectionArgIndex.get("SYSTEM PROCEDURES"));
+        assertEquals("", CompassConfig.featureExistsArg("No Such Section"));
+
+        // the first valid argument of the section
+        Map<String, List<String>> keys = new LinkedHashMap<>();
+        keys.put("SUPPORTED/1.0.0", new ArrayList<>(Arrays.asList("A")));
+        keys.put("SUPPORTED/1.0.0/ARG0", new ArrayList<>(Arrays.asList("B")));
+        keys.put("SUPPORTED/1.0.0/ARGX", new ArrayList<>(Arrays.asList("C")));
+        keys.put("SUPPORTED/2.0.0/ARG2", new ArrayList<>(Arrays.asList("D")));
+        keys.put("SUPPORTED/2.1.0/ARG3", new ArrayList<>(Arrays.asList("E")));
+        CompassConfig.sectionList.put("OTHER", keys);
+        assertEquals("", CompassConfig.featureExistsArg("Other"));
+        CompassConfig.clearFeatureStatusIndex();
+        assertEquals("ARG2", CompassConfig.featureExistsArg("Other"));
+        assertEquals("ARG1", CompassConfig.featureExistsArg("System Procedures"));
+    }
+}
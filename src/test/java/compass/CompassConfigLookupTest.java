@@ -0,0 +1,100 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+
+package compass;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompassConfigLookupTest {
+
+    CompassUtilities u = CompassUtilities.getInstance();
+    CompassTestUtils.ConfigState configState;
+
+    @BeforeEach
+    void init() throws Exception {
+        configState = new CompassTestUtils.ConfigState();
+        assertTrue(CompassTestUtils.readMainCfgFile("BabelfishFeatures.cfg"));
+    }
+
+    @AfterEach
+    void teardown() {
+        configState.restore();
+    }
+
+    @Test
+    @DisplayName("A lookup returns the .cfg section and name to link a captured item to, only for features that are not supported")
+    void testCfgCheck() {
+        CompassConfig.FeatureStatus fs = CompassConfig.lookupFeatureStatus("1.0.0", "Datatypes", "TIMESTAMP");
+        assertNotEquals(u.Supported, fs.getStatus());
+        assertEquals("DATATYPES/TIMESTAMP", fs.getCfgCheck().toString());
+
+        fs = CompassConfig.lookupFeatureStatus("2.1.0", "Datatypes", "TIMESTAMP");
+        assertEquals(u.Supported, fs.getStatus());
+        assertNull(fs.getCfgCheck());
+
+        fs = CompassConfig.lookupFeatureArgStatus("1.0.0", "HASHBYTES", "arg1", "'MD2'");
+        assertNotEquals(u.Supported, fs.getStatus());
+        assertEquals("HASHBYTES/ARG1=MD2", fs.getCfgCheck().toString());
+        assertNull(CompassConfig.lookupFeatureArgStatus("1.0.0", "HASHBYTES", "arg1", "'MD5'").getCfgCheck());
+
+        // the value of a variable cannot be validated, so there is nothing to link to
+        fs = CompassConfig.lookupFeatureArgStatus("1.0.0", "HASHBYTES", "arg1", "@v");
+        assertEquals(u.ReviewManually, fs.getStatus());
+        assertNull(fs.getCfgCheck());
+
+        // the lookups have no side effects: the same lookup gives the same result
+        assertEquals("DATATYPES/TIMESTAMP", CompassConfig.lookupFeatureStatus("1.0.0", "Datatypes", "TIMESTAMP").getCfgCheck().toString());
+    }
+
+    @Test
+    @DisplayName("A status override is part of the lookup result, and is only logged when the status is used")
+    void testStatusOverride() {
+        Map<String, List<String>> keys = new LinkedHashMap<>();
+        keys.put(CompassConfig.createKey(CompassConfig.defaultStatusTag), new ArrayList<>(Arrays.asList(u.ReviewManually)));
+        CompassConfig.sectionOverrideList = new LinkedHashMap<>(CompassConfig.sectionOverrideList);
+        CompassConfig.sectionOverrideList.put("DATATYPES", keys);
+        u.statusOverrides.clear();
+        u.statusOverridesDetail.clear();
+
+        CompassConfig.FeatureStatus fs = CompassConfig.lookupDefaultStatus("Datatypes");
+        assertEquals(u.ReviewManually, fs.getStatus());
+        assertTrue(u.statusOverrides.isEmpty());
+
+        fs.logStatusOverride();
+        assertEquals(1, u.statusOverrides.size());
+        String key = u.statusOverrides.keySet().iterator().next();
+        assertTrue(key.startsWith(u.ReviewManually + CompassUtilities.overrideSeparator), key);
+
+        assertEquals(u.ReviewManually, CompassConfig.featureDefaultStatus("Datatypes"));
+        assertEquals(2, u.statusOverrides.get(key));
+        u.statusOverrides.clear();
+        u.statusOverridesDetail.clear();
+    }
+
+    @Test
+    @DisplayName("The status of a feature carries its report group, complexity and effort, which are resolved once for all versions")
+    void testInfo() {
+        CompassConfig.FeatureStatus fs = CompassConfig.lookupFeatureStatus("1.0.0", "Built-in functions", "FORMATMESSAGE");
+        CompassConfig.FeatureInfo info = fs.getInfo();
+        assertEquals(CompassConfig.featureGroup("Built-in functions", "FORMATMESSAGE"), info.getGroup());
+        assertEquals(CompassConfig.featureComplexityDefined("Built-in functions", "FORMATMESSAGE"), info.getComplexity());
+        assertEquals(CompassConfig.featureEffortDefined("Built-in functions", "FORMATMESSAGE"), info.getEffort());
+        assertSame(info, CompassConfig.lookupFeatureStatus("2.1.0", "Built-in functions", "FORMATMESSAGE").getInfo());
+        assertSame(info, CompassConfig.lookupFeatureInfo("BUILT-IN FUNCTIONS", "FORMATMESSAGE"));
+
+        assertNull(CompassConfig.lookupFeatureStatus("1.0.0", "Built-in functions").getInfo());
+    }
+}
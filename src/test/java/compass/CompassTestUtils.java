@@ -5,6 +5,10 @@ SPDX-License-Identifier: Apache-2.0
 
 package compass;
 
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
 import java.util.*;
 
 public class CompassTestUtils {
@@ -94,6 +98,10 @@ public class CompassTestUtils {
         Compass.pgImportFlags = new ArrayList<>();
 
         Compass.exportedParseTree = null;
+        CompassConfigCache.enabled = true;
+        VersionMatrix.enabled = false;
+        VersionMatrix.clear();
+        CfgFileRepository.clear();
 
         Compass.u = CompassUtilities.getInstance();
         Compass.cfg = CompassConfig.getInstance();
@@ -101,6 +109,7 @@ public class CompassTestUtils {
     }
 
     static void resetCompassUtilitiesStatics() {
+        CompassUtilities u = CompassUtilities.getInstance();
         CompassUtilities.onWindows = false;
         CompassUtilities.onMac = false;
         CompassUtilities.onLinux = false;
@@ -118,9 +127,9 @@ public class CompassTestUtils {
         CompassUtilities.deDupExtracted = true;
         CompassUtilities.deDupSkipped = 0;
         CompassUtilities.hintIcon = "&#x1F6C8;";
-        CompassUtilities.reportShowAppName = true;
-        CompassUtilities.reportShowSrcFile = true;
-        CompassUtilities.reportAppsCount = true;
+        u.reportShowAppName = true;
+        u.reportShowSrcFile = true;
+        u.reportAppsCount = true;
         CompassUtilities.reportShowBatchNr = "";
         CompassUtilities.reportOptionXref = "";
         CompassUtilities.reportOptionStatus = "";
@@ -129,7 +138,11 @@ public class CompassTestUtils {
         CompassUtilities.reportOptionFilter = "";
         CompassUtilities.reportOptionNotabs = false;
         CompassUtilities.reportOptionLineNrs = false;
-        CompassUtilities.linesSQLInReport = 0;
+        CompassUtilities.reportOptionMultiPage = false;
+        CompassUtilities.reportOptionAppReports = false;
+        CompassUtilities.reportOptionObjectGraph = false;
+        CompassUtilities.exportFormat = "";
+        u.linesSQLInReport = 0;
         CompassUtilities.reportHdrLines = "";
         CompassUtilities.maxLineNrsInListDefault = 10;
         CompassUtilities.maxLineNrsInList = CompassUtilities.maxLineNrsInListDefault;
@@ -147,9 +160,11 @@ public class CompassTestUtils {
         CompassUtilities.SUDFNamesLikeHIERARCHYID = new HashMap<>();
         CompassUtilities.supportOptions = Arrays.asList(CompassUtilities.Supported, CompassUtilities.NotSupported,
                 CompassUtilities.ReviewSemantics, CompassUtilities.ReviewPerformance, CompassUtilities.ReviewManually,
-                CompassUtilities.Ignored, CompassUtilities.ObjCountOnly, CompassUtilities.Rewritten);
+                CompassUtilities.Ignored, CompassUtilities.ObjCountOnly, CompassUtilities.RewriteOppty, CompassUtilities.Rewritten,
+                CompassUtilities.XRefOnly, CompassUtilities.ObjectReference);
         CompassUtilities.supportOptionsCfgFile = Arrays.asList("Supported", "NotSupported",  "ReviewSemantics",
-                "ReviewPerformance",  "ReviewManually",  "Ignored", CompassUtilities.ObjCountOnly, CompassUtilities.Rewritten);
+                "ReviewPerformance",  "ReviewManually",  "Ignored", CompassUtilities.ObjCountOnly, CompassUtilities.RewriteOppty,
+                CompassUtilities.Rewritten, CompassUtilities.XRefOnly, CompassUtilities.ObjectReference);
         CompassUtilities.validSupportOptionsCfgFileOrig = Arrays.asList("NotSupported", "ReviewSemantics",
                 "ReviewPerformance", "ReviewManually", "Ignored");
         CompassUtilities.validSupportOptionsCfgFile = new ArrayList<>();
@@ -163,21 +178,22 @@ public class CompassTestUtils {
         CompassUtilities.overrideClassificationsKeys = new ArrayList<>();
         CompassUtilities.supportOptionsDisplay = Arrays.asList("Supported", "Not Supported", "Review Semantics",
                 "Review Performance", "Review Manually", "Ignored", CompassUtilities.ObjCountOnly,
-                "Rewritten by Babelfish Compass");
+                "Rewrite opportunities", "Rewritten by " + CompassUtilities.thisProgName, CompassUtilities.XRefOnly,
+                CompassUtilities.ObjectReference);
         CompassUtilities.supportOptionsIterate = Arrays.asList(CompassUtilities.NotSupported, CompassUtilities.ReviewManually,
                 CompassUtilities.ReviewSemantics, CompassUtilities.ReviewPerformance, CompassUtilities.Ignored,
                 CompassUtilities.Supported);
-        CompassUtilities.supportOptionsWeightDefault = Arrays.asList(100, 200, 150, 150, 150, 0, 0, 100);
+        CompassUtilities.supportOptionsWeightDefault = Arrays.asList(100, 200, 150, 150, 150, 0, 0, 0, 100, 0, 0);
         CompassUtilities.rewrite = false;
         CompassUtilities.rewriteTextListKeys = new ArrayList<>();
         CompassUtilities.rewriteTextList = new HashMap<>();
         CompassUtilities.rewriteTextListOrigText = new HashMap<>();
         CompassUtilities.rewriteIDDetails = new HashMap<>();
         CompassUtilities.rewrittenOppties = new HashMap<>();
-        CompassUtilities.rewriteNotes = CompassUtilities.uninitialized;
-        CompassUtilities.rewriteOppties = new HashMap<>();
+        u.rewriteNotes = CompassUtilities.uninitialized;
+        u.rewriteOppties = new HashMap<>();
         CompassUtilities.rwrTabRegex = "";
-        CompassUtilities.nrRewritesDone = 0;
+        u.nrRewritesDone = 0;
         CompassUtilities.nrMergeRewrites = 0;
         CompassUtilities.rewriteTypeExpr1 = "expr(1)";
         CompassUtilities.rewriteTypeReplace = "replace";
@@ -191,4 +207,110 @@ public class CompassTestUtils {
         CompassUtilities.caching = false;
         CompassUtilities.grammarRuleNames = null;
     }
+
+    // run Compass in a separate JVM, with the reports under home, and BabelfishFeatures.cfg copied to the working directory
+    // so that the user .cfg file is created there; returns the output
+    static String runCompass(Path home, String... args) throws Exception {
+        Path workDir = home.resolve("run");
+        if (!Files.exists(workDir)) {
+            Files.createDirectories(workDir);
+            String cfg = CompassUtilities.getInstance().defaultCfgFileName;
+            Files.copy(Paths.get(cfg), workDir.resolve(cfg));
+        }
+        List<String> cmd = new ArrayList<>(Arrays.asList(Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                "-Duser.home=" + home, "-cp", System.getProperty("java.class.path"), "compass.Compass"));
+        cmd.addAll(Arrays.asList(args));
+        cmd.add("-noupdatechk");
+        ProcessBuilder pb = new ProcessBuilder(cmd).directory(workDir.toFile()).redirectErrorStream(true);
+        pb.environment().remove("COMPASS_DEVELOP");
+        pb.environment().remove("compass_develop");
+        Process p = pb.start();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (InputStream in = p.getInputStream()) {
+            byte[] buf = new byte[8192];
+            for (int n; (n = in.read(buf)) > 0; ) out.write(buf, 0, n);
+        }
+        p.waitFor();
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    // the loaded .cfg contents, so that a test can read a .cfg file and put back what was there before
+    static class ConfigState {
+        final CompassConfigData configData = CompassConfig.configData;
+        final String configFileName = CompassConfig.configFileName;
+        final String configFilePathName = CompassConfig.configFilePathName;
+        final java.io.File cfgFile = CompassConfig.cfgFile;
+        final Map<String, Map<String, String>> cfg = CompassConfig.cfg;
+        final Map<String, Map<String, String>> userCfg = CompassConfig.userCfg;
+        final List<String> versionList = CompassConfig.Babelfish_VersionList;
+        final Map<String, Map<String, List<String>>> sectionList = CompassConfig.sectionList;
+        final Map<String, Map<String, List<String>>> sectionOverrideList = CompassConfig.sectionOverrideList;
+        final Map<String, Map<String, List<String>>> sectionEffortList = CompassConfig.sectionEffortList;
+        final Map<String, Map<String, List<String>>> sectionComplexityList = CompassConfig.sectionComplexityList;
+        final Map<String, String> versionAliasList = CompassConfig.versionAliasList;
+        final Map<String, String> featureArgOptions = CompassConfig.featureArgOptions;
+        final Map<String, String> complexityDefault = CompassConfig.complexityDefault;
+        final Map<String, String> effortEstimateDefault = CompassConfig.effortEstimateDefault;
+        final List<String> cfgSections = CompassConfig.cfgSections;
+        final List<String> supportOptionsCfgFileUpperCase = CompassConfig.supportOptionsCfgFileUpperCase;
+        final Map<String, String> sectionArgIndex = CompassConfig.sectionArgIndex;
+        final boolean versionInvalid = CompassConfig.versionInvalid;
+        final Integer cfgFileFormatVersionRead = CompassUtilities.cfgFileFormatVersionRead;
+        final String cfgFileTimestamp = CompassUtilities.getInstance().cfgFileTimestamp;
+
+        void restore() {
+            CompassConfig.clearFeatureStatusIndex();
+            CompassConfig.configData = configData;
+            CompassConfig.configFileName = configFileName;
+            CompassConfig.configFilePathName = configFilePathName;
+            CompassConfig.cfgFile = cfgFile;
+            CompassConfig.cfg = cfg;
+            CompassConfig.userCfg = userCfg;
+            CompassConfig.Babelfish_VersionList = versionList;
+            CompassConfig.sectionList = sectionList;
+            CompassConfig.sectionOverrideList = sectionOverrideList;
+            CompassConfig.sectionEffortList = sectionEffortList;
+            CompassConfig.sectionComplexityList = sectionComplexityList;
+            CompassConfig.versionAliasList = versionAliasList;
+            CompassConfig.featureArgOptions = featureArgOptions;
+            CompassConfig.complexityDefault = complexityDefault;
+            CompassConfig.effortEstimateDefault = effortEstimateDefault;
+            CompassConfig.cfgSections = cfgSections;
+            CompassConfig.supportOptionsCfgFileUpperCase = supportOptionsCfgFileUpperCase;
+            CompassConfig.sectionArgIndex = sectionArgIndex;
+            CompassConfig.versionInvalid = versionInvalid;
+            CompassUtilities.cfgFileFormatVersionRead = cfgFileFormatVersionRead;
+            CompassUtilities.getInstance().cfgFileTimestamp = cfgFileTimestamp;
+        }
+    }
+
+    // only the main .cfg file, leaving the user .cfg file and the reports folder alone
+    // this replaces the loaded .cfg contents: save a ConfigState first, and restore it after the test
+    static boolean readMainCfgFile(String cfgFileName) throws Exception {
+        CompassConfig.getInstance();
+        CompassConfig.configData = null;
+        CompassConfig.cfg = new HashMap<>();
+        CompassConfig.userCfg = new HashMap<>();
+        CompassConfig.Babelfish_VersionList = new ArrayList<>();
+        CompassConfig.sectionList = new LinkedHashMap<>();
+        CompassConfig.sectionOverrideList = new LinkedHashMap<>();
+        CompassConfig.sectionEffortList = new LinkedHashMap<>();
+        CompassConfig.sectionComplexityList = new LinkedHashMap<>();
+        CompassConfig.versionAliasList = new LinkedHashMap<>();
+        CompassConfig.featureArgOptions = new LinkedHashMap<>();
+        CompassConfig.complexityDefault = new LinkedHashMap<>();
+        CompassConfig.effortEstimateDefault = new LinkedHashMap<>();
+        CompassConfig.cfgSections = new ArrayList<>();
+        CompassConfig.supportOptionsCfgFileUpperCase = new ArrayList<>(CompassUtilities.getInstance().supportOptionsCfgFile);
+        CompassUtilities.getInstance().listToUpperCase(CompassConfig.supportOptionsCfgFileUpperCase);
+        if (!CompassConfig.readCfgFile(cfgFileName)) return false;
+        CompassConfig.buildSectionArgIndex();
+        CompassConfig.freeze();
+        return true;
+    }
+
+    // directory of a report created by runCompass()
+    static Path reportDir(Path home, String reportName) {
+        return home.resolve(CompassUtilities.BabelfishCompassFolderNameLinux).resolve(reportName);
+    }
 }
@@ -11,6 +11,7 @@ import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -324,4 +325,14 @@ class CompassUtilitiesTest {
         actual = CompassUtilities.nameFormatValid("report", name);
         assertEquals(expected, actual, "Golden path");
     }
+
+    @Test
+    @DisplayName("The calling method is found, also when called from a lambda")
+    void testThisProc() {
+        assertTrue(CompassUtilities.thisProc().startsWith("testThisProc:"));
+        Supplier<String> s = () -> CompassUtilities.thisProc();
+        assertTrue(s.get().startsWith("testThisProc:"));
+        assertEquals("visitSelect_statement", CompassUtilities.callerName("lambda$visitSelect_statement$12"));
+        assertEquals("visitSelect_statement", CompassUtilities.callerName("visitSelect_statement"));
+    }
 }
@@ -0,0 +1,86 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+
+package compass;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import parser.TSQLLexer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DynamicSQLTest {
+
+    @AfterEach
+    void resetQuotedIdentifier() {
+        TSQLLexer.QUOTED_IDENTIFIER_FLAG = true;
+    }
+
+    @Test
+    @DisplayName("Dynamic SQL statements are analyzed in the order found, with their position and context")
+    void testQueue() {
+        DynamicSQL d = new DynamicSQL();
+        assertTrue(d.isEmpty());
+        d.add("select 1", 3, 2, 10, "PROCEDURE dbo.p,1", "EXECUTE()");
+        d.add("select 2", 5, 2, 10, "", "sp_executesql");
+        assertEquals(2, d.size());
+
+        DynamicSQL.Item item = d.next();
+        assertEquals("select 1", item.text);
+        assertEquals(3, item.lineNr);
+        assertEquals(2, item.batchNr);
+        assertEquals(10, item.batchLineNr);
+        assertEquals("PROCEDURE dbo.p,1", item.context);
+        assertEquals("EXECUTE()", item.subContext);
+        assertEquals("select 2", d.next().text);
+        assertNull(d.next());
+
+        d.add("select 3", 1, 1, 1, "", "EXECUTE()");
+        d.clear();
+        assertTrue(d.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Parse outcomes are kept across files, separately for each QUOTED_IDENTIFIER setting")
+    void testParsed() {
+        DynamicSQL d = new DynamicSQL();
+        DynamicSQL.Parsed p = new DynamicSQL.Parsed(null, "Line 1:6, syntax error in dynamic SQL");
+        d.keepParsed("select \"a\"", p);
+        d.clear();
+        assertSame(p, d.lookupParsed("select \"a\""));
+        assertNull(d.lookupParsed("select \"b\""));
+        TSQLLexer.QUOTED_IDENTIFIER_FLAG = false;
+        assertNull(d.lookupParsed("select \"a\""));
+        assertEquals(1, d.parsedHits);
+    }
+
+    @Test
+    @DisplayName("Parse outcomes are limited by the total length of their statements, least recently used first out")
+    void testParsedLimit() {
+        DynamicSQL d = new DynamicSQL();
+        DynamicSQL.Parsed p = new DynamicSQL.Parsed(null, "error");
+        StringBuilder sb = new StringBuilder("select 'x' -- ");
+        while (sb.length() < DynamicSQL.maxParsedTextLength - 10) sb.append('x');
+        String text = sb.toString();
+        int fits = DynamicSQL.maxParsedText / (text.length() + 1 + 3);
+        for (int i = 0; i < fits; i++) {
+            d.keepParsed(text + String.format("%03d", i), p);
+        }
+        assertSame(p, d.lookupParsed(text + "000"));
+
+        // 000 was used last, so 001 goes first
+        d.keepParsed(text + "new", p);
+        assertNull(d.lookupParsed(text + "001"));
+        assertSame(p, d.lookupParsed(text + "000"));
+        assertSame(p, d.lookupParsed(text + "002"));
+        assertSame(p, d.lookupParsed(text + "new"));
+
+        // too large to keep
+        d.keepParsed(text + text, p);
+        assertNull(d.lookupParsed(text + text));
+        assertSame(p, d.lookupParsed(text + "003"));
+    }
+}
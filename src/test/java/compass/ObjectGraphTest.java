@@ -0,0 +1,142 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+
+package compass;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ObjectGraphTest {
+
+    static final String ref = CompassUtilities.ObjectReference;
+
+    // v1 -> t1, p1 -> v1, p2 -> p1, f1 -> t2, p3 <-> p4 (cycle), p4 -> t1; p1 has a NotSupported item
+    static ObjectGraph build() {
+        ObjectGraph.Builder b = new ObjectGraph.Builder();
+        b.add("app1", "VIEW dbo.v1", "DBO.T1", ref);
+        b.add("app1", "PROCEDURE dbo.p1", "DBO.V1", ref);
+        b.add("app1", "PROCEDURE dbo.p1", "DBO.V1", ref);
+        b.add("app1", "PROCEDURE dbo.p1", "", CompassUtilities.NotSupported);
+        b.add("app1", "PROCEDURE dbo.p1", "", CompassUtilities.Supported);
+        b.add("app1", "PROCEDURE dbo.p2", "DBO.P1", ref);
+        b.add("app1", "FUNCTION dbo.f1", "DBO.T2", ref);
+        b.add("app1", "PROCEDURE dbo.p3", "DBO.P4", ref);
+        b.add("app1", "PROCEDURE dbo.p4", "DBO.P3", ref);
+        b.add("app1", "PROCEDURE dbo.p4", "DBO.T1", ref);
+        b.add("app1", "T-SQL batch", "DBO.T1", ref);
+        b.add("app2", "PROCEDURE dbo.p1", "DBO.T1", ref);
+        return b.build();
+    }
+
+    static Set<String> names(ObjectGraph g, int[] nodes) {
+        Set<String> result = new HashSet<>();
+        for (int n : nodes) result.add(g.apps[n] + ":" + g.names[n]);
+        return result;
+    }
+
+    static Set<String> set(String... s) {
+        return new HashSet<>(Arrays.asList(s));
+    }
+
+    @Test
+    @DisplayName("References are stored once per pair of objects, in both directions")
+    void testBuild() {
+        ObjectGraph g = build();
+        assertEquals(10, g.size());
+        assertEquals(8, g.refs.length);
+        assertEquals(g.refs.length, g.deps.length);
+        int p1 = g.find("app1", "dbo.p1");
+        int v1 = g.find("APP1", "DBO.V1");
+        assertEquals("PROCEDURE", g.types[p1]);
+        assertEquals(1, g.refStart[p1 + 1] - g.refStart[p1]);
+        assertEquals(v1, g.refs[g.refStart[p1]]);
+        assertEquals("", g.types[g.find("app1", "dbo.t1")]);
+        assertEquals("app: app1, PROCEDURE DBO.P1", g.format(p1));
+        assertEquals("app: app1, DBO.T1 (not analyzed)", g.format(g.find("app1", "dbo.t1")));
+        assertEquals(-1, g.find("app1", "dbo.t3"));
+        assertNotEquals(p1, g.find("app2", "dbo.p1"));
+    }
+
+    @Test
+    @DisplayName("Dependents are found transitively, through cycles and within the application only")
+    void testDependents() {
+        ObjectGraph g = build();
+        int[] notSupported = g.withStatus(CompassUtilities.NotSupported, "");
+        assertEquals(set("app1:DBO.P1"), names(g, notSupported));
+        assertEquals(0, g.withStatus(CompassUtilities.NotSupported, "view").length);
+        assertEquals(set("app1:DBO.P2"), names(g, g.dependents(notSupported)));
+
+        int t1 = g.find("app1", "dbo.t1");
+        assertEquals(set("app1:DBO.V1", "app1:DBO.P1", "app1:DBO.P2", "app1:DBO.P3", "app1:DBO.P4"), names(g, g.dependents(new int[] { t1 })));
+        int p3 = g.find("app1", "dbo.p3");
+        assertEquals(set("app1:DBO.P3", "app1:DBO.P4"), names(g, g.dependents(new int[] { p3 })));
+    }
+
+    @Test
+    @DisplayName("Names are normalized, defaulting to the schema of the referencing object, and table variables are skipped")
+    void testNames() {
+        ObjectGraph.Builder b = new ObjectGraph.Builder();
+        b.add("app1", "VIEW v1", "", CompassUtilities.NotSupported);
+        b.add("app1", "PROCEDURE [dbo].[p1]", "[dbo].[V1]", ref);
+        b.add("app1", "PROCEDURE dbo.p2", "mydb..v1", ref);
+        b.add("app1", "PROCEDURE s1.p3", "v1", ref);
+        b.add("app1", "PROCEDURE dbo.p4", "@TV", ref);
+        b.add("app1", "PROCEDURE dbo.p4", "#TMP", ref);
+        ObjectGraph g = b.build();
+        assertEquals(set("app1:DBO.V1", "app1:DBO.P1", "app1:DBO.P2", "app1:S1.P3", "app1:S1.V1", "app1:DBO.P4", "app1:#TMP"),
+                     names(g, IntStream.range(0, g.size()).toArray()));
+        assertEquals(g.find("app1", "DBO.V1"), g.find("app1", "[v1]"));
+        assertEquals(set("app1:DBO.P1", "app1:DBO.P2"), names(g, g.dependents(g.withStatus(CompassUtilities.NotSupported, "VIEW"))));
+    }
+
+    @Test
+    @DisplayName("The graph read back from file is the same")
+    void testWriteRead(@TempDir Path dir) throws Exception {
+        ObjectGraph g = build();
+        String pathName = dir.resolve(ObjectGraph.fileName).toString();
+        List<String> captureFiles = Arrays.asList("captured.a.dat:100:1", "captured.b.dat:200:2");
+        g.write(pathName, captureFiles);
+        ObjectGraph r = ObjectGraph.read(pathName);
+        assertEquals(captureFiles, r.captureFiles);
+        assertArrayEquals(g.apps, r.apps);
+        assertArrayEquals(g.names, r.names);
+        assertArrayEquals(g.types, r.types);
+        assertArrayEquals(g.statusFlags, r.statusFlags);
+        assertArrayEquals(g.refStart, r.refStart);
+        assertArrayEquals(g.refs, r.refs);
+        assertArrayEquals(g.depStart, r.depStart);
+        assertArrayEquals(g.deps, r.deps);
+        assertEquals(g.find("app1", "dbo.p4"), r.find("app1", "dbo.p4"));
+    }
+
+    @Test
+    @DisplayName("The state of the capture files changes when a capture file is added or written again")
+    void testCaptureFilesState(@TempDir Path dir) throws Exception {
+        Path a = Files.write(dir.resolve("captured.a.dat"), "a".getBytes(StandardCharsets.UTF_8));
+        Path b = Files.write(dir.resolve("captured.b.dat"), "b".getBytes(StandardCharsets.UTF_8));
+        List<String> state = ObjectGraph.captureFilesState(Arrays.asList(a));
+        assertEquals(state, ObjectGraph.captureFilesState(Arrays.asList(a)));
+        assertEquals(ObjectGraph.captureFilesState(Arrays.asList(a, b)), ObjectGraph.captureFilesState(Arrays.asList(b, a)));
+        assertNotEquals(state, ObjectGraph.captureFilesState(Arrays.asList(a, b)));
+
+        File f = a.toFile();
+        long lastModified = f.lastModified();
+        assertTrue(f.setLastModified(lastModified + 10000));
+        assertNotEquals(state, ObjectGraph.captureFilesState(Arrays.asList(a)));
+    }
+}
@@ -0,0 +1,88 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+
+package compass;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportAggregateTest {
+
+    CompassUtilities u = CompassUtilities.getInstance();
+
+    // as createReport counts an item
+    void addItem(ReportAggregate agg, String status, String item) {
+        agg.statusCount.put(status, agg.statusCount.getOrDefault(status, 0L) + 1);
+        String statusUnique = status + CompassUtilities.uniqueCntTag;
+        String itemUnique = status + CompassUtilities.miscDelimiter + item;
+        if (!agg.statusCount.containsKey(itemUnique)) {
+            agg.statusCount.put(itemUnique, 0L);
+            agg.statusCount.put(statusUnique, agg.statusCount.getOrDefault(statusUnique, 0L) + 1);
+        }
+        agg.constructsFound++;
+        agg.constructsFoundDistinct.put(status + item, 0);
+    }
+
+    void addRewriteOppty(ReportAggregate agg, String item) {
+        if (!agg.rewriteOppties.containsKey(item)) {
+            agg.rewriteOppties.put(CompassUtilities.rewriteOpptiesUnique, agg.rewriteOppties.getOrDefault(CompassUtilities.rewriteOpptiesUnique, 0) + 1);
+        }
+        agg.rewriteOppties.put(item, agg.rewriteOppties.getOrDefault(item, 0) + 1);
+        agg.rewriteOppties.put(CompassUtilities.rewriteOpptiesTotal, agg.rewriteOppties.getOrDefault(CompassUtilities.rewriteOpptiesTotal, 0) + 1);
+    }
+
+    @Test
+    @DisplayName("Merging the aggregates of two applications gives the same counts as reading all capture files into one aggregate")
+    void testMerge() {
+        ReportAggregate all = new ReportAggregate();
+        ReportAggregate app1 = new ReportAggregate();
+        ReportAggregate app2 = new ReportAggregate();
+        for (ReportAggregate agg : Arrays.asList(app1, all)) {
+            addItem(agg, u.NotSupported, "MERGE");
+            addItem(agg, u.NotSupported, "MERGE");
+            addItem(agg, u.Supported, "SELECT");
+            addRewriteOppty(agg, "RAISERROR");
+            agg.appCount.put("app1", 10);
+            agg.objTypeMapCase.put("P1", "PROCEDURE");
+            agg.xRefByFeature.add("k1");
+            agg.statusWeightFactor.put(u.NotSupported, 100);
+            agg.totalBatches += 3;
+        }
+        for (ReportAggregate agg : Arrays.asList(app2, all)) {
+            addItem(agg, u.NotSupported, "MERGE");
+            addItem(agg, u.NotSupported, "CURSOR");
+            addRewriteOppty(agg, "RAISERROR");
+            addRewriteOppty(agg, "@@ERROR");
+            agg.appCount.put("app2", 5);
+            agg.objTypeMapCase.putIfAbsent("P1", "FUNCTION");
+            agg.xRefByFeature.add("k2");
+            agg.statusWeightFactor.put(u.NotSupported, 200);
+            agg.totalBatches += 2;
+        }
+
+        ReportAggregate merged = new ReportAggregate();
+        merged.merge(app1);
+        merged.merge(app2);
+        assertEquals(all.statusCount, merged.statusCount);
+        assertEquals(2L, merged.statusCount.get(u.NotSupported + CompassUtilities.uniqueCntTag));
+        assertEquals(all.rewriteOppties, merged.rewriteOppties);
+        assertEquals(2, merged.rewriteOppties.get(CompassUtilities.rewriteOpptiesUnique));
+        assertEquals(all.constructsFound, merged.constructsFound);
+        assertEquals(all.constructsFoundDistinct, merged.constructsFoundDistinct);
+        assertEquals(all.appCount, merged.appCount);
+        assertEquals("PROCEDURE", merged.objTypeMapCase.get("P1"));
+        assertEquals(Arrays.asList("k1", "k2"), merged.xRefByFeature);
+        assertEquals(200, merged.statusWeightFactor.get(u.NotSupported));
+        assertEquals(5, merged.totalBatches);
+
+        // the aggregates of the applications are not changed, as their reports are written from them
+        assertEquals(3L, app1.statusCount.get(u.NotSupported) + app1.statusCount.get(u.Supported));
+        assertEquals(Arrays.asList("k2"), app2.xRefByFeature);
+    }
+}
@@ -0,0 +1,80 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+
+package compass;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportItemExportTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Escaping of JSON and CSV values")
+    void testEscape() {
+        StringBuilder sb = new StringBuilder();
+        ReportItemExport.escapeJSON(sb, "a\"b\\c\nd\u0001");
+        assertEquals("a\\\"b\\\\c\\nd\\u0001", sb.toString());
+
+        sb.setLength(0);
+        ReportItemExport.escapeCSV(sb, "plain");
+        assertEquals("plain", sb.toString());
+
+        sb.setLength(0);
+        ReportItemExport.escapeCSV(sb, "x, \"y\"");
+        assertEquals("\"x, \"\"y\"\"\"", sb.toString());
+    }
+
+    @Test
+    @DisplayName("Exporting items and metrics in all formats")
+    void testExportAll() throws IOException {
+        String base = tempDir.resolve("report").toString();
+        ReportItemExport export = new ReportItemExport(ReportItemExport.formatAll, base);
+        export.writeMetrics("t.sql", "app", "3", "0", "10");
+        export.writeItem("NOTSUPPORTED", "DML", "UPDATE, WHERE CURRENT OF", "", "PROCEDURE p1", "", "app", "t.sql", "6", "8", "11", "100");
+        export.close();
+        assertEquals(3, export.getFilesWritten().size());
+        assertEquals(1, export.getItemCount());
+
+        List<String> ndjson = Files.readAllLines(Paths.get(base + ".ndjson"), StandardCharsets.UTF_8);
+        assertEquals(Arrays.asList(
+            "{\"record\":\"metrics\",\"srcFile\":\"t.sql\",\"app\":\"app\",\"nrBatches\":3,\"nrErrorBatches\":0,\"nrLines\":10}",
+            "{\"record\":\"item\",\"status\":\"NOTSUPPORTED\",\"group\":\"DML\",\"item\":\"UPDATE, WHERE CURRENT OF\",\"itemDetail\":\"\",\"context\":\"PROCEDURE p1\",\"subContext\":\"\",\"app\":\"app\",\"srcFile\":\"t.sql\",\"batchNr\":6,\"lineNrInBatch\":8,\"lineNrInFile\":11,\"weightFactor\":100}"
+        ), ndjson);
+
+        List<String> items = Files.readAllLines(Paths.get(base + ".items.csv"), StandardCharsets.UTF_8);
+        assertEquals(String.join(",", ReportItemExport.itemColumns), items.get(0));
+        assertEquals("NOTSUPPORTED,DML,\"UPDATE, WHERE CURRENT OF\",,PROCEDURE p1,,app,t.sql,6,8,11,100", items.get(1));
+
+        List<String> metrics = Files.readAllLines(Paths.get(base + ".metrics.csv"), StandardCharsets.UTF_8);
+        assertEquals("t.sql,app,3,0,10", metrics.get(1));
+    }
+
+    @Test
+    @DisplayName("A numeric column is written as null in NDJSON when it holds no number")
+    void testExportNumericNull() throws IOException {
+        String base = tempDir.resolve("report").toString();
+        ReportItemExport export = new ReportItemExport(ReportItemExport.formatNDJSON, base);
+        export.writeItem("REVIEWMANUALLY", "DDL", "x", "", "", "", "app", "t.sql", "", "n/a", "-1", "1");
+        export.close();
+
+        List<String> ndjson = Files.readAllLines(Paths.get(base + ".ndjson"), StandardCharsets.UTF_8);
+        assertEquals(1, ndjson.size());
+        assertTrue(ndjson.get(0).endsWith(",\"batchNr\":null,\"lineNrInBatch\":null,\"lineNrInFile\":-1,\"weightFactor\":1}"), ndjson.get(0));
+    }
+}
@@ -0,0 +1,114 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+
+package compass;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportPagesTest {
+
+    CompassUtilities u = CompassUtilities.getInstance();
+    String reportFileTextPathName;
+    String reportFileHTMLPathName;
+    int reportPagesWritten;
+
+    @TempDir
+    Path dir;
+
+    static String read(Path f) throws Exception {
+        return new String(Files.readAllBytes(f), StandardCharsets.UTF_8);
+    }
+
+    @BeforeEach
+    void init() throws Exception {
+        reportFileTextPathName = u.reportFileTextPathName;
+        reportFileHTMLPathName = u.reportFileHTMLPathName;
+        reportPagesWritten = u.reportPagesWritten;
+        u.reportFileTextPathName = dir.resolve("report-pages.txt").toString();
+        u.reportFileHTMLPathName = dir.resolve("report-pages.html").toString();
+        u.reportPagesWritten = 0;
+        u.openReportFile("pages");
+    }
+
+    @AfterEach
+    void teardown() {
+        u.reportFileTextPathName = reportFileTextPathName;
+        u.reportFileHTMLPathName = reportFileHTMLPathName;
+        u.reportPagesWritten = reportPagesWritten;
+    }
+
+    @Test
+    @DisplayName("Pages are named after the main report, and share a stylesheet instead of repeating its CSS")
+    void testPageHeader() throws Exception {
+        assertEquals("report-pages.xref-byobject-notsupported.html", u.getReportPageFileName(u.tagByObject, u.NotSupported, 0));
+        assertEquals("report-pages.xref-byobject-notsupported-app2.html", u.getReportPageFileName(u.tagByObject, u.NotSupported, 2));
+
+        String page = u.getReportPageFileName(u.tagByObject, u.NotSupported, 1);
+        u.openReportPage(page);
+        u.closeReportPage(true);
+        u.openReportPage(u.getReportPageFileName(u.tagByObject, u.NotSupported, 2));
+        u.closeReportPage(true);
+        u.closeReportFile();
+        assertEquals(2, u.reportPagesWritten);
+
+        Path css = dir.resolve(u.getReportPageCSSFileName());
+        assertTrue(read(css).contains(".tooltip"));
+        assertTrue(read(dir.resolve("report-pages.html")).contains("<style>"));
+        String html = read(dir.resolve(page));
+        assertFalse(html.contains("<style>"));
+        assertTrue(html.contains("href=\"" + css.getFileName() + "\""));
+        assertTrue(html.endsWith("</pre>\n"));
+    }
+
+    @Test
+    @DisplayName("While a page is open, HTML output goes to the page with links back to the main report, and text output to the report as usual")
+    void testPageOutput() throws Exception {
+        u.writeReportFile("main 1");
+        String page = u.getReportPageFileName(u.tagByFeature, u.NotSupported, 0);
+        u.openReportPage(page);
+        u.writeReportFile("page 1");
+        u.writeReportFile(u.tocLinkURL);
+        u.closeReportPage(true);
+        u.writeReportFile("main 2");
+        u.closeReportFile();
+
+        String html = read(dir.resolve("report-pages.html"));
+        assertTrue(html.contains("main 1\nmain 2\n"));
+        assertFalse(html.contains("page 1"));
+        String pageHtml = read(dir.resolve(page));
+        assertTrue(pageHtml.contains("page 1\n"));
+        assertTrue(pageHtml.contains("<a href=\"report-pages.html#toc\">"));
+        String text = read(dir.resolve("report-pages.txt"));
+        assertTrue(text.contains("main 1\npage 1\n"));
+        assertTrue(text.contains("main 2\n"));
+    }
+
+    @Test
+    @DisplayName("When writing a section fails, its page is closed without completing it, and output goes to the main report again")
+    void testPageFailed() throws Exception {
+        String page = u.getReportPageFileName(u.tagByFeature, u.NotSupported, 0);
+        u.openReportPage(page);
+        u.writeReportFile("page 1");
+        u.closeReportPage(false);
+        u.closeReportPage(false);
+        u.writeReportFile("main 1");
+        u.closeReportFile();
+
+        assertEquals(1, u.reportPagesWritten);
+        String pageHtml = read(dir.resolve(page));
+        assertTrue(pageHtml.endsWith("page 1\n"));
+        assertTrue(read(dir.resolve("report-pages.html")).contains("main 1\n"));
+    }
+}
@@ -0,0 +1,96 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+
+package compass;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// the only test running Compass end-to-end, for the report options that are tested as units elsewhere
+class ReportSmokeTest {
+
+    static final List<String> appA = Arrays.asList(
+            "create table t1 (a int sparse null, b xml column_set for all_sparse_columns)", "go",
+            "create view v1 as select a from t1", "go",
+            "create procedure p1 as select a from v1", "go",
+            "create procedure p2 as select a from t1", "go");
+
+    static final List<String> appB = Arrays.asList(
+            "create table dbo.t2 (id int primary key, doc xml, node hierarchyid)",
+            "go",
+            "create procedure dbo.p2 @id int",
+            "as",
+            "begin",
+            "\tset nocount on",
+            "\tselect doc.query('/a') from dbo.t2 where id = @id for xml path('row')",
+            "\texec sp_addlinkedserver 'srv2'",
+            "\tmerge dbo.t2 as t using (select @id as id) as s on t.id = s.id when not matched then insert (id) values (s.id);",
+            "end",
+            "go");
+
+    static String read(Path f) throws Exception {
+        return new String(Files.readAllBytes(f), StandardCharsets.UTF_8);
+    }
+
+    static List<Path> list(Path dir, String glob) throws Exception {
+        try (Stream<Path> s = Files.list(dir)) {
+            return s.filter(f -> f.getFileSystem().getPathMatcher("glob:" + glob).matches(f.getFileName())).sorted().collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    @DisplayName("Application reports, report pages and the object graph for -dependson are written for a report on two applications")
+    void testReport(@TempDir Path home) throws Exception {
+        Path a = Files.write(home.resolve("a.sql"), appA, StandardCharsets.UTF_8);
+        Path b = Files.write(home.resolve("b.sql"), appB, StandardCharsets.UTF_8);
+        CompassTestUtils.runCompass(home, "smoke", a.toString(), "-appname", "appA");
+        String out = CompassTestUtils.runCompass(home, "smoke", b.toString(), "-appname", "appB", "-add", "-reportoption", "xref,appreports,multipage,objectgraph");
+        Path dir = CompassTestUtils.reportDir(home, "smoke");
+
+        // application reports, listed in the order of the applications after the main report
+        List<String> appReports = Arrays.stream(out.split("\n")).filter(s -> s.startsWith("Application report")).collect(Collectors.toList());
+        assertEquals(2, appReports.size(), out);
+        assertTrue(appReports.get(0).endsWith("-app-appA.html"));
+        assertTrue(appReports.get(1).endsWith("-app-appB.html"));
+        String appReportA = read(list(dir, "report-smoke-*-app-appA.txt").get(0));
+        assertTrue(appReportA.contains("TABLE t1"));
+        assertFalse(appReportA.contains("t2"));
+
+        // the main report links to an index page, which links to a page per application, which link back to the main report
+        Path report = list(dir, "report-smoke-*.html").stream().filter(f -> !f.toString().contains(".xref") && !f.toString().contains("-app-")).reduce((x, y) -> y).orElse(null);
+        assertNotNull(report, out);
+        String main = report.getFileName().toString();
+        String base = main.substring(0, main.length() - ".html".length());
+        assertTrue(Files.exists(dir.resolve(base + ".xref.css")), out);
+        String index = base + ".xref-byobject-notsupported.html";
+        assertTrue(read(report).contains("href=\"" + index), main);
+        String indexHtml = read(dir.resolve(index));
+        for (int appNr = 1; appNr <= 2; appNr++) {
+            String appPage = base + ".xref-byobject-notsupported-app" + appNr + ".html";
+            assertTrue(indexHtml.contains("<a href=\"" + appPage + "\">app" + (appNr == 1 ? "A" : "B") + "</a>"), indexHtml);
+            assertTrue(read(dir.resolve(appPage)).contains("<a href=\"" + main + "#toc\">"), appPage);
+        }
+
+        assertTrue(Files.exists(dir.resolve(ObjectGraph.fileName)), out);
+        out = CompassTestUtils.runCompass(home, "smoke", "-dependson", "notsupported,table");
+        assertTrue(out.contains("TABLE objects with 'Not Supported' items in report 'smoke': 2"), out);
+        assertTrue(out.contains("app: appA, TABLE DBO.T1"), out);
+        assertTrue(out.contains("app: appB, TABLE DBO.T2"), out);
+        assertTrue(out.contains("Objects depending on these, directly or indirectly: 4"), out);
+        assertTrue(out.contains("app: appA, PROCEDURE DBO.P1"), out);
+        assertTrue(out.contains("app: appB, PROCEDURE DBO.P2"), out);
+    }
+}
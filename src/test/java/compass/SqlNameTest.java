@@ -0,0 +1,72 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+
+package compass;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlNameTest {
+
+    @Test
+    @DisplayName("Names are split into their parts, counting from the right")
+    void testParts() {
+        SqlName n = SqlName.of("SRV.MYDB.DBO.T1");
+        assertEquals("MYDB", n.db());
+        assertEquals("DBO", n.schema());
+        assertEquals("T1", n.object());
+        assertEquals("SRV.MYDB.DBO.T1", n.toString());
+
+        n = SqlName.of("MYDB..T1");
+        assertEquals("MYDB", n.db());
+        assertEquals("", n.schema());
+
+        n = SqlName.of("T1");
+        assertEquals("", n.schema());
+        assertEquals("", n.db());
+        assertFalse(n.isTemporary());
+        assertTrue(SqlName.of("#TMP").isTemporary());
+        assertEquals("[A B]", SqlName.of("S.[A B]").object());
+    }
+
+    @Test
+    @DisplayName("Replacing the schema gives the same result as the original regex")
+    void testWithSchema() {
+        String[] names = { "MYDB.S1.T1", ".S1.T1", "SRV.MYDB.S1.T1", "MYDB..T1", "S1.T1", "T1", "MYDB.[S 1].T1",
+                           "MYDB.S1.[T 1]", "MY DB.S1.T1", "A\nB.S1.T1", "MYDB.S$.T1", "MYDB.S1.T1$", "..T1", "MYDB.S1." };
+        for (String name : names) {
+            String orig = CompassUtilities.applyPatternAll(name, "^(.*?\\.)\\w+(\\.\\w+$)", "$1" + "DBO" + "$2");
+            assertEquals(orig, SqlName.of(name).withSchema("dbo").toString(), "[" + name + "]");
+        }
+    }
+
+    @Test
+    @DisplayName("Names are resolved against the current database and schema")
+    void testResolve() {
+        CompassUtilities u = CompassUtilities.getInstance();
+        String db = u.currentDatabase;
+        String objType = u.currentObjectType;
+        String objName = u.currentObjectName;
+        try {
+            u.currentDatabase = "mydb";
+            u.currentObjectType = "PROCEDURE";
+            u.currentObjectName = "s1.p1";
+            assertEquals("MYDB.S1.T1", u.resolveName("t1"));
+            assertEquals("MYDB.S1.T1", u.resolveName("[t1]"));
+            assertEquals("MYDB.S2.T1", u.resolveName("s2.t1"));
+            assertEquals("DB2.S2.T1", u.resolveName("db2.s2.t1"));
+            assertEquals("#TMP", u.resolveName("#tmp"));
+            u.currentObjectType = u.BatchContext;
+            assertEquals("MYDB.DBO.T1", u.resolveName("t1"));
+            assertEquals("MYDB.DBO.T1", u.resolveName(u.resolveName("mydb.s1.t1"), "dbo"));
+        } finally {
+            u.currentDatabase = db;
+            u.currentObjectType = objType;
+            u.currentObjectName = objName;
+        }
+    }
+}
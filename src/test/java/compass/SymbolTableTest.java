@@ -0,0 +1,72 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+
+package compass;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SymbolTableTest {
+
+    static final String sep = CompassUtilities.symTabSeparator;
+    static final String mask = CompassUtilities.BBFSeparatorMask;
+
+    static Path write(Path dir, String fileName, String... lines) throws Exception {
+        Path f = dir.resolve(fileName);
+        Files.write(f, Arrays.asList(lines), StandardCharsets.UTF_8);
+        return f;
+    }
+
+    @Test
+    @DisplayName("Symtab file lines are read as when reading them into the pass 2 symtab")
+    void testReadFile(@TempDir Path dir) throws Exception {
+        Path f = write(dir, "t1.sql.bbf~symtab.appA.dat",
+                "# This file: t1.sql.bbf~symtab.appA.dat",
+                "",
+                "objtype;MYDB.DBO.V1;view",
+                "objtype;MYDB.DBO.[A" + mask + "B];TABLE",
+                "sudf;MYDB.DBO.VALUE;int",
+                "tudf;MYDB.DBO.NODES;TABLE",
+                "udd;MYDB.DBO.MYTYPE;VARCHAR(10)",
+                "proc;MYDB.DBO.P1;PROCEDURE",
+                "col;MYDB.DBO.T1;C1;INT NULL",
+                "par;MYDB.DBO.P1;@P1;1;'x" + mask + "y'");
+        assertEquals("appA", SymbolTable.appName(f));
+
+        SymbolTable t = SymbolTable.readFile(f);
+        assertEquals("VIEW", t.tableView.get("MYDB.DBO.V1"));
+        assertEquals("TABLE", t.tableView.get("MYDB.DBO.[A" + sep + "B]"));
+        assertEquals("INT", t.SUDF.get("MYDB.DBO.VALUE"));
+        assertTrue(t.SUDFNamesLikeXML.containsKey("VALUE"));
+        assertTrue(t.TUDFNamesLikeXML.containsKey("NODES"));
+        assertEquals("VARCHAR(10)", t.UDD.get("MYDB.DBO.MYTYPE"));
+        assertEquals("PROCEDURE", t.proc.get("MYDB.DBO.P1"));
+        assertEquals("INT NULL", t.col.get(CompassUtilities.getInstance().makeColSymTabKey("MYDB.DBO.T1", "C1")));
+        assertEquals("'x" + sep + "y'", t.par.get("MYDB.DBO.P1" + sep + "@P1"));
+        assertEquals("'x" + sep + "y'", t.par.get("MYDB.DBO.P1" + sep + "1"));
+        assertEquals(9, t.size());
+    }
+
+    @Test
+    @DisplayName("Files for the same application are merged, later files overriding earlier ones, and the result is read-only")
+    void testMergeFreeze(@TempDir Path dir) throws Exception {
+        SymbolTable t = SymbolTable.readFile(write(dir, "t1.sql.bbf~symtab.appA.dat", "objtype;MYDB.DBO.X1;TABLE", "proc;MYDB.DBO.P1;PROCEDURE"));
+        t.addAll(SymbolTable.readFile(write(dir, "t2.sql.bbf~symtab.appA.dat", "objtype;MYDB.DBO.X1;VIEW")));
+        t.freeze();
+        assertEquals("VIEW", t.tableView.get("MYDB.DBO.X1"));
+        assertEquals("PROCEDURE", t.proc.get("MYDB.DBO.P1"));
+        assertThrows(UnsupportedOperationException.class, () -> t.tableView.put("MYDB.DBO.X2", "TABLE"));
+        assertThrows(UnsupportedOperationException.class, () -> t.col.put("X", "INT"));
+        assertSame("VIEW".intern(), t.tableView.get("MYDB.DBO.X1"));
+    }
+}
@@ -0,0 +1,97 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+
+package compass;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VersionMatrixTest {
+
+    CompassUtilities u = CompassUtilities.getInstance();
+    CompassTestUtils.ConfigState configState;
+
+    @BeforeEach
+    void init() {
+        configState = new CompassTestUtils.ConfigState();
+        CompassConfig.Babelfish_VersionList = new ArrayList<>(Arrays.asList("1.0.0", "2.1.0"));
+        VersionMatrix.clear();
+    }
+
+    @AfterEach
+    void teardown() {
+        configState.restore();
+        VersionMatrix.clear();
+    }
+
+    @Test
+    @DisplayName("Items without a matching lookup have the same status in all versions")
+    void testFixedStatus() {
+        VersionMatrix.recordCapture("app1", u.Supported);
+        VersionMatrix.recordCapture("app1", u.Supported);
+        VersionMatrix.recordCapture("app2", u.ReviewManually);
+        VersionMatrix.recordCapture("app2", u.ObjCountOnly);
+
+        // lookup returned a different status than what was captured
+        VersionMatrix.recordCheck(VersionMatrix.checkName, "Datatypes", "XML", "", u.Supported);
+        VersionMatrix.recordCapture("app2", u.NotSupported);
+
+        List<String> columns = VersionMatrix.statusColumns();
+        assertFalse(columns.contains(u.ObjCountOnly));
+
+        Map<String, Map<String, int[]>> matrix = VersionMatrix.resolve();
+        assertEquals(Arrays.asList("app1", "app2"), new ArrayList<>(matrix.keySet()));
+        for (String v : CompassConfig.Babelfish_VersionList) {
+            assertEquals(2, matrix.get("app1").get(v)[columns.indexOf(u.Supported)]);
+            assertEquals(1, matrix.get("app2").get(v)[columns.indexOf(u.ReviewManually)]);
+            assertEquals(1, matrix.get("app2").get(v)[columns.indexOf(u.NotSupported)]);
+            assertEquals(0, matrix.get("app2").get(v)[columns.indexOf(u.Supported)]);
+        }
+    }
+
+    @Test
+    @DisplayName("Items linked to a lookup are counted with the status of each version")
+    void testVersionDependentStatus() throws Exception {
+        assertTrue(CompassTestUtils.readMainCfgFile("BabelfishFeatures.cfg"));
+        // the TIMESTAMP datatype is supported as of 1.2.0
+        CompassConfig.Babelfish_VersionList = new ArrayList<>(Arrays.asList("1.0.0", "2.1.0"));
+        String status100 = CompassConfig.featureSupportedInVersion("1.0.0", "Datatypes", "TIMESTAMP");
+        assertNotEquals(u.Supported, status100);
+        assertEquals(u.Supported, CompassConfig.featureSupportedInVersion("2.1.0", "Datatypes", "TIMESTAMP"));
+
+        // analyzed for 1.0.0
+        VersionMatrix.recordCheck(VersionMatrix.checkName, "Datatypes", "TIMESTAMP", "", status100);
+        VersionMatrix.recordCapture("app1", status100);
+        VersionMatrix.recordCheck(VersionMatrix.checkName, "Datatypes", "TIMESTAMP", "", status100);
+        VersionMatrix.recordCapture("app1", status100);
+        VersionMatrix.recordCapture("app1", u.Supported);
+
+        List<String> columns = VersionMatrix.statusColumns();
+        Map<String, int[]> app1 = VersionMatrix.resolve().get("app1");
+        assertEquals(2, app1.get("1.0.0")[columns.indexOf(status100)]);
+        assertEquals(1, app1.get("1.0.0")[columns.indexOf(u.Supported)]);
+        assertEquals(0, app1.get("2.1.0")[columns.indexOf(status100)]);
+        assertEquals(3, app1.get("2.1.0")[columns.indexOf(u.Supported)]);
+    }
+
+    @Test
+    @DisplayName("Only the extension of the report file name is replaced")
+    void testPathName() {
+        String sep = File.separator;
+        assertEquals(sep + "home" + sep + "a.b" + sep + "report.versionmatrix.csv", VersionMatrix.getPathName(sep + "home" + sep + "a.b" + sep + "report.html"));
+        assertEquals(sep + "home" + sep + "a.b" + sep + "report.versionmatrix.csv", VersionMatrix.getPathName(sep + "home" + sep + "a.b" + sep + "report"));
+        assertEquals("report-x.v1.versionmatrix.csv", VersionMatrix.getPathName("report-x.v1.txt"));
+    }
+}
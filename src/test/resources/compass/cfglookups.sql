@@ -0,0 +1,205 @@
+-- SQL analyzed by CfgLookupTraceTest to record the .cfg lookups it replays
+-- to record the same trace to a file, with COMPASS_DEVELOP set:
+--   BabelfishCompass cfgtrace cfglookups.sql -nooverride -noreport -cfgtrace cfglookups.trace
+create database salesdb collate Latin1_General_CI_AS
+go
+use salesdb
+go
+create schema sales authorization dbo
+go
+create type dbo.phone from varchar(20) not null
+go
+create type dbo.orderlines as table (line int, qty int, price money)
+go
+create sequence sales.orderseq as bigint start with 1 increment by 1 cycle
+go
+create table sales.customers (
+	id int identity(1,1) primary key clustered,
+	name nvarchar(100) not null,
+	phone dbo.phone,
+	rowver rowversion,
+	created datetime2(3) default sysdatetime(),
+	props xml,
+	location geography,
+	photo varbinary(max) filestream null,
+	guid uniqueidentifier rowguidcol default newsequentialid(),
+	fullname as upper(name) persisted,
+	constraint uq_name unique nonclustered (name) with (fillfactor = 80, pad_index = on)
+) on [primary] textimage_on [primary]
+go
+create table sales.orders (
+	orderid bigint not null default next value for sales.orderseq,
+	custid int references sales.customers(id) on delete cascade,
+	orderdate date,
+	amount decimal(18,2) sparse null,
+	status char(1) check (status in ('N','S','C')),
+	notes text,
+	period_start datetime2 generated always as row start,
+	period_end datetime2 generated always as row end,
+	period for system_time (period_start, period_end),
+	index ix_date nonclustered (orderdate desc)
+) with (system_versioning = on, data_compression = page)
+go
+create nonclustered columnstore index cs_orders on sales.orders (orderdate, amount)
+go
+create unique index ix_filtered on sales.orders (custid) where status = 'N' with (online = on, ignore_dup_key = on)
+go
+create fulltext catalog ftcat as default
+go
+alter table sales.customers add constraint df_name default ('') for name
+go
+alter table sales.orders nocheck constraint all
+go
+alter table sales.orders switch partition 1 to sales.orders_archive
+go
+create view sales.v_orders with schemabinding, view_metadata as
+select o.orderid, c.name, o.amount from sales.orders o join sales.customers c on c.id = o.custid
+go
+create function sales.f_total(@custid int) returns money with schemabinding, returns null on null input
+as
+begin
+	declare @t money
+	select @t = sum(amount) from sales.orders where custid = @custid
+	return isnull(@t, 0)
+end
+go
+create function sales.f_orders(@custid int) returns table as
+return (select top (10) with ties * from sales.orders where custid = @custid order by orderdate)
+go
+create function sales.f_multi() returns @r table (a int) as begin insert @r values (1) return end
+go
+create procedure sales.p_process @custid int, @lines dbo.orderlines readonly, @out int output
+with execute as owner, recompile
+as
+begin
+	set nocount on
+	set xact_abort on
+	set transaction isolation level snapshot
+	set quoted_identifier off
+	set ansi_warnings off
+	set datefirst 1
+	set rowcount 10
+	set identity_insert sales.customers on
+	declare @d datetime = getdate(), @s nvarchar(max), @n int, @x xml, @h hierarchyid
+	declare @tv table (id int primary key, v sql_variant)
+	create table #tmp (a int, b image)
+	create table ##gtmp (a int)
+
+	begin try
+		begin distributed transaction
+		save transaction sp1
+		insert into sales.orders (custid, orderdate) output inserted.orderid into @tv(id) values (@custid, @d)
+		merge sales.customers as t using (select @custid as id) as s on t.id = s.id
+			when matched then update set t.name = 'x'
+			when not matched by target then insert (name) values ('y')
+			when not matched by source then delete
+			output $action;
+		update top (5) o set amount = amount * 1.1 from sales.orders o with (rowlock, updlock) where custid = @custid
+		delete from sales.orders with (tablockx) where current of cur1
+		commit
+	end try
+	begin catch
+		select error_number(), error_message(), error_severity(), error_state(), error_line(), error_procedure(), xact_state()
+		if @@trancount > 0 rollback
+		;throw 50001, 'failed', 1
+		raiserror('failed %d', 16, 1, @n) with log, nowait
+	end catch
+
+	declare cur1 cursor global scroll dynamic optimistic for select orderid from sales.orders for update of amount
+	open cur1
+	fetch absolute 2 from cur1 into @n
+	while @@fetch_status = 0 fetch next from cur1 into @n
+	close cur1
+	deallocate cur1
+
+	select @@version, @@spid, @@servername, @@error, @@rowcount, @@identity, @@dbts, @@cpu_busy, @@textsize
+	select scope_identity(), ident_current('sales.orders'), object_id('sales.orders'), db_name(), suser_sname(), user_name(), host_name(), app_name()
+	select datediff_big(ns, @d, sysutcdatetime()), dateadd(qq, 1, @d), datename(weekday, @d), eomonth(@d), datefromparts(2020,1,1), todatetimeoffset(@d, '+01:00')
+	select format(@d, 'yyyy-MM-dd'), concat_ws(',', 'a', 'b'), string_agg(name, ',') within group (order by name), translate('abc', 'a', 'b'), trim('x' from 'xax'), replicate('a', 3), stuff('abc', 1, 1, 'x')
+	select soundex('a'), difference('a', 'b'), patindex('%a%', 'abc'), charindex('a', 'abc'), quotename('a'), reverse('abc'), unicode(N'a'), nchar(65)
+	select checksum(*), binary_checksum(*), hashbytes('SHA2_256', 'a'), compress('a'), decompress(0x00), newid(), rand(), crypt_gen_random(8)
+	select try_convert(int, '1'), try_cast('1' as int), convert(varchar, @d, 121), cast(1 as bit), iif(1=1, 1, 0), choose(1, 'a', 'b')
+	select row_number() over (partition by custid order by orderdate), rank() over (order by amount), ntile(4) over (order by amount), lag(amount, 1) over (order by orderdate), percentile_cont(0.5) within group (order by amount) over (), cume_dist() over (order by amount) from sales.orders
+	select grouping_id(custid), count_big(*), stdevp(amount), varp(amount), checksum_agg(custid) from sales.orders group by rollup(custid)
+	select * from sales.orders for system_time as of '2020-01-01'
+	select * from sales.orders tablesample (10 percent)
+	select * from openjson(@s) with (a int '$.a')
+	select json_value(@s, '$.a'), json_query(@s, '$.b'), json_modify(@s, '$.a', 1), isjson(@s)
+	select @x.value('(/a)[1]', 'int'), @x.query('/a'), @x.exist('/a'), @h.GetAncestor(1)
+	select * from sales.orders for xml raw, elements xsinil, root('r')
+	select * from sales.orders for json auto, without_array_wrapper
+	select * from openrowset(bulk 'c:\data.txt', single_clob) as x
+	select * from opendatasource('SQLNCLI', 'Data Source=x').db.dbo.t
+	select * from otherdb.dbo.t1 join [linked].db.dbo.t2 on 1=1
+	select * from sales.orders pivot (sum(amount) for status in ([N], [S])) p
+	select * from sales.customers c cross apply sales.f_orders(c.id) o
+	select * from containstable(sales.customers, name, 'a')
+	select * from sys.objects o join sys.columns c on c.object_id = o.object_id join information_schema.tables t on 1=1
+	select name into #copy from sales.customers option (maxdop 1, recompile, optimize for unknown)
+	bulk insert sales.orders from 'c:\data.txt' with (fieldterminator = ',')
+	exec sp_executesql N'select @p', N'@p int', @p = 1
+	exec ('select 1') at linkedsrv
+	exec sp_addlinkedserver 'x'
+	exec sp_helptext 'sales.p_process'
+	exec sp_rename 'sales.orders.notes', 'remarks', 'column'
+	exec sp_configure 'show advanced options', 1
+	exec xp_cmdshell 'dir'
+	exec msdb.dbo.sp_send_dbmail @recipients = 'a@b.c'
+	dbcc checkident ('sales.orders', reseed, 0)
+	dbcc freeproccache
+	waitfor delay '00:00:01'
+	checkpoint
+	readtext sales.orders.notes @n 0 10
+	truncate table #tmp
+	drop table if exists #tmp
+	set @out = @@rowcount
+	goto done
+done:
+	return 0
+end
+go
+create trigger sales.tr_orders on sales.orders instead of update as
+begin
+	if update(amount) and columns_updated() > 0 select * from inserted i join deleted d on i.orderid = d.orderid
+end
+go
+create trigger tr_ddl on database for create_table, alter_table as select eventdata()
+go
+create trigger tr_logon on all server for logon as select 1
+go
+create login appuser with password = 'x', check_policy = off
+go
+create user appuser for login appuser with default_schema = sales
+go
+create role approle authorization dbo
+go
+alter role approle add member appuser
+go
+grant select, insert on schema::sales to approle with grant option
+go
+deny execute on sales.p_process to appuser cascade
+go
+create certificate cert1 with subject = 'x'
+go
+create symmetric key key1 with algorithm = aes_256 encryption by certificate cert1
+go
+create synonym sales.syn_orders for sales.orders
+go
+create partition function pf_date (date) as range right for values ('2020-01-01', '2021-01-01')
+go
+create partition scheme ps_date as partition pf_date all to ([primary])
+go
+create assembly asm1 from 'c:\asm.dll' with permission_set = safe
+go
+create xml schema collection xsc as N'<xsd:schema xmlns:xsd="http://www.w3.org/2001/XMLSchema"/>'
+go
+create event notification en1 on database for create_table to service 'svc', 'current database'
+go
+create queue q1
+go
+alter database salesdb set read_committed_snapshot on
+go
+alter database current set compatibility_level = 150
+go
+backup database salesdb to disk = 'c:\backup.bak'
+go